@@ -0,0 +1,152 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Operations shared by the classes processing points or rotations given as arrays of coordinates,
+ * such as {@link PointCloudAccumulator3D} or {@link PointCloudCovariance3D}.
+ */
+class AccumulationTools
+{
+   /** Number of elements accumulated per task by the parallel methods. */
+   static final int PARALLEL_BATCH_SIZE = 4096;
+
+   /**
+    * Accumulates a range of elements given as arrays.
+    *
+    * @param <A> the type of the accumulator.
+    */
+   interface RangeAccumulation<A>
+   {
+      /**
+       * Adds the elements of the given range to the accumulator.
+       *
+       * @param accumulator the accumulator to add the elements to. Modified.
+       * @param startIndex the index of the first element to add.
+       * @param endIndex the index after the last element to add.
+       */
+      void addAll(A accumulator, int startIndex, int endIndex);
+   }
+
+   /**
+    * Returns a collector that accumulates a stream of elements, sequential or parallel, into a new
+    * accumulator.
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param factory creates the new accumulators.
+    * @param add adds an element to an accumulator.
+    * @param combine merges the second accumulator into the first one.
+    * @return the collector.
+    */
+   static <T, A> Collector<T, ?, A> collector(Supplier<A> factory, BiConsumer<A, T> add, BiConsumer<A, A> combine)
+   {
+      return Collector.of(factory, add, (a, b) ->
+      {
+         combine.accept(a, b);
+         return a;
+      }, Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+   }
+
+   /**
+    * Adds a range of elements to {@code accumulator} using multiple threads.
+    * <p>
+    * The range is split into tasks of {@link #PARALLEL_BATCH_SIZE} elements executed in the common
+    * fork-join pool. Each task owns its partial accumulator, so the partials can safely be merged in
+    * place before being merged into {@code accumulator}. The range is accumulated on the calling
+    * thread when it fits in a single task.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param accumulator the accumulator to add the elements to. Modified.
+    * @param factory creates the partial accumulators.
+    * @param addAll adds a range of elements to an accumulator.
+    * @param combine merges the second accumulator into the first one.
+    * @param startIndex the index of the first element to add.
+    * @param endIndex the index after the last element to add.
+    */
+   static <A> void addAllParallel(A accumulator, Supplier<A> factory, RangeAccumulation<A> addAll, BiConsumer<A, A> combine, int startIndex, int endIndex)
+   {
+      int numberOfTasks = (endIndex - startIndex + PARALLEL_BATCH_SIZE - 1) / PARALLEL_BATCH_SIZE;
+
+      if (numberOfTasks <= 1)
+      {
+         addAll.addAll(accumulator, startIndex, endIndex);
+         return;
+      }
+
+      IntStream.range(0, numberOfTasks).parallel().mapToObj(task ->
+      {
+         A partial = factory.get();
+         int taskStart = startIndex + task * PARALLEL_BATCH_SIZE;
+         addAll.addAll(partial, taskStart, Math.min(taskStart + PARALLEL_BATCH_SIZE, endIndex));
+         return partial;
+      }).reduce((a, b) ->
+      {
+         combine.accept(a, b);
+         return a;
+      }).ifPresent(partial -> combine.accept(accumulator, partial));
+   }
+
+   /**
+    * Computes the round-off error of the floating-point sum {@code a + b = sum} according to
+    * Neumaier's variant of the Kahan summation.
+    * <p>
+    * The error is zero when {@code sum} is not finite such that the compensation remains finite and
+    * the compensated sum keeps the infinite value of {@code sum} instead of becoming {@link Double#NaN}.
+    * </p>
+    */
+   static double compensation(double a, double b, double sum)
+   {
+      if (!Double.isFinite(sum))
+         return 0.0;
+      else if (Math.abs(a) >= Math.abs(b))
+         return (a - sum) + b;
+      else
+         return (b - sum) + a;
+   }
+
+   /**
+    * Asserts that the range {@code [startIndex, endIndex[} is valid and fits in the given arrays.
+    *
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   static void checkRange(double[] xs, double[] ys, int startIndex, int endIndex)
+   {
+      checkRange(startIndex, endIndex, Math.min(xs.length, ys.length));
+   }
+
+   /**
+    * Asserts that the range {@code [startIndex, endIndex[} is valid and fits in the given arrays.
+    *
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   static void checkRange(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      checkRange(startIndex, endIndex, Math.min(xs.length, Math.min(ys.length, zs.length)));
+   }
+
+   /**
+    * Asserts that the range {@code [startIndex, endIndex[} is valid and fits in the given arrays.
+    *
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   static void checkRange(double[] xs, double[] ys, double[] zs, double[] ss, int startIndex, int endIndex)
+   {
+      checkRange(startIndex, endIndex, Math.min(Math.min(xs.length, ys.length), Math.min(zs.length, ss.length)));
+   }
+
+   private static void checkRange(int startIndex, int endIndex, int shortestLength)
+   {
+      if (startIndex < 0 || startIndex > endIndex)
+         throw new IllegalArgumentException("Invalid range: [" + startIndex + ", " + endIndex + "[");
+      if (shortestLength < endIndex)
+         throw new IllegalArgumentException("The arrays are too short for the range [" + startIndex + ", " + endIndex + "[, shortest length: " + shortestLength);
+   }
+}
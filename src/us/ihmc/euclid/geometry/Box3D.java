@@ -27,9 +27,6 @@ import us.ihmc.euclid.tuple3D.interfaces.Vector3DReadOnly;
  */
 public class Box3D extends Shape3D<Box3D>
 {
-   /** Internal point used to enable garbage free operations. */
-   private final Point3D temporaryPoint = new Point3D();
-
    /**
     * Represents half the length, width, and height of this box. Note that this field automatically
     * updated from {@link #size}.
@@ -46,6 +43,7 @@ public class Box3D extends Shape3D<Box3D>
       {
          super.setX(x);
          halfSize.setX(0.5 * x);
+         notifyShapeChanged();
       }
 
       @Override
@@ -53,6 +51,7 @@ public class Box3D extends Shape3D<Box3D>
       {
          super.setY(y);
          halfSize.setY(0.5 * y);
+         notifyShapeChanged();
       }
 
       @Override
@@ -60,6 +59,7 @@ public class Box3D extends Shape3D<Box3D>
       {
          super.setZ(z);
          halfSize.setZ(0.5 * z);
+         notifyShapeChanged();
       }
    };
 
@@ -260,27 +260,53 @@ public class Box3D extends Shape3D<Box3D>
       }
    }
 
-   /**
-    * Computes and packs the bounding box 3D that fully contains this box 3D.
-    * <p>
-    * This method does not take the size of this box to convert it into a bounding box, it actually
-    * considers the pose of this box 3D such that if it has a non-zero orientation the bounding box
-    * will be bigger than this box.
-    * </p>
-    *
-    * @param boundingBoxToPack the bounding box to pack. Modified.
-    */
-   public void getBoundingBox3D(BoundingBox3D boundingBoxToPack)
+   /** {@inheritDoc} */
+   @Override
+   protected void signedDistanceShapeFrame(double[] xs, double[] ys, double[] zs, int length, double[] signedDistancesToPack, int offset)
    {
-      boundingBoxToPack.setToNaN();
+      double halfSizeX = halfSize.getX();
+      double halfSizeY = halfSize.getY();
+      double halfSizeZ = halfSize.getZ();
 
-      for (int vertexIndex = 0; vertexIndex < 8; vertexIndex++)
+      for (int i = 0; i < length; i++)
       {
-         getVertex(vertexIndex, temporaryPoint);
-         boundingBoxToPack.updateToIncludePoint(temporaryPoint);
+         // Signed distances to the faces, positive when outside.
+         double dx = Math.abs(xs[i]) - halfSizeX;
+         double dy = Math.abs(ys[i]) - halfSizeY;
+         double dz = Math.abs(zs[i]) - halfSizeZ;
+
+         if (dx <= 0.0 && dy <= 0.0 && dz <= 0.0)
+         {
+            signedDistancesToPack[offset + i] = Math.max(dx, Math.max(dy, dz));
+         }
+         else
+         {
+            dx = Math.max(dx, 0.0);
+            dy = Math.max(dy, 0.0);
+            dz = Math.max(dz, 0.0);
+            signedDistancesToPack[offset + i] = Math.sqrt(dx * dx + dy * dy + dz * dz);
+         }
       }
    }
 
+   /** {@inheritDoc} */
+   @Override
+   protected void getBoundingBoxShapeFrame(double epsilon, BoundingBox3D boundingBoxToPack)
+   {
+      double halfSizeX = halfSize.getX() + epsilon;
+      double halfSizeY = halfSize.getY() + epsilon;
+      double halfSizeZ = halfSize.getZ() + epsilon;
+      boundingBoxToPack.set(-halfSizeX, -halfSizeY, -halfSizeZ, halfSizeX, halfSizeY, halfSizeZ);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   protected void getSupportingVertexShapeFrame(double directionX, double directionY, double directionZ, Point3DBasics supportingVertexToPack)
+   {
+      supportingVertexToPack.set(directionX < 0.0 ? -halfSize.getX() : halfSize.getX(), directionY < 0.0 ? -halfSize.getY() : halfSize.getY(),
+                                 directionZ < 0.0 ? -halfSize.getZ() : halfSize.getZ());
+   }
+
    /**
     * Convenience method that packs the center of the box.
     * <p>
@@ -453,13 +479,13 @@ public class Box3D extends Shape3D<Box3D>
       double maxY = halfSize.getY();
       double maxZ = halfSize.getZ();
 
-      double xLocal = computeTransformedX(shapePose, true, pointOnLine);
-      double yLocal = computeTransformedY(shapePose, true, pointOnLine);
-      double zLocal = computeTransformedZ(shapePose, true, pointOnLine);
+      double xLocal = toLocalX(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
+      double yLocal = toLocalY(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
+      double zLocal = toLocalZ(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
 
-      double dxLocal = computeTransformedX(shapePose, true, lineDirection);
-      double dyLocal = computeTransformedY(shapePose, true, lineDirection);
-      double dzLocal = computeTransformedZ(shapePose, true, lineDirection);
+      double dxLocal = computeTransformedX(getOrientation(), true, lineDirection);
+      double dyLocal = computeTransformedY(getOrientation(), true, lineDirection);
+      double dzLocal = computeTransformedZ(getOrientation(), true, lineDirection);
 
       int numberOfIntersections = EuclidGeometryTools.intersectionBetweenLine3DAndBoundingBox3D(minX, minY, minZ, maxX, maxY, maxZ, xLocal, yLocal, zLocal,
                                                                                                 dxLocal, dyLocal, dzLocal, firstIntersectionToPack,
@@ -569,15 +595,15 @@ public class Box3D extends Shape3D<Box3D>
    @Override
    public boolean geometricallyEquals(Box3D other, double epsilon)
    {
-      if (!shapePose.getTranslationVector().geometricallyEquals(other.shapePose.getTranslationVector(), epsilon))
+      if (!geometricallyEqualsPosition(other, epsilon))
          return false;
 
-      RotationMatrixReadOnly otherRotation = other.shapePose.getRotationMatrix();
+      RotationMatrixReadOnly otherRotation = other.getOrientation();
       double otherSizeWorldX = TransformationTools.computeTransformedX(otherRotation, false, other.size);
       double otherSizeWorldY = TransformationTools.computeTransformedY(otherRotation, false, other.size);
       double otherSizeWorldZ = TransformationTools.computeTransformedZ(otherRotation, false, other.size);
 
-      RotationMatrixReadOnly thisRotation = shapePose.getRotationMatrix();
+      RotationMatrixReadOnly thisRotation = getOrientation();
       double otherSizeLocalX = Math.abs(TransformationTools.computeTransformedX(thisRotation, true, otherSizeWorldX, otherSizeWorldY, otherSizeWorldZ));
       double otherSizeLocalY = Math.abs(TransformationTools.computeTransformedY(thisRotation, true, otherSizeWorldX, otherSizeWorldY, otherSizeWorldZ));
       double otherSizeLocalZ = Math.abs(TransformationTools.computeTransformedZ(thisRotation, true, otherSizeWorldX, otherSizeWorldY, otherSizeWorldZ));
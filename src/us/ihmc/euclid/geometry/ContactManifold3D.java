@@ -0,0 +1,256 @@
+package us.ihmc.euclid.geometry;
+
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.Vector3D;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DBasics;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+import us.ihmc.euclid.tuple3D.interfaces.Vector3DBasics;
+import us.ihmc.euclid.tuple3D.interfaces.Vector3DReadOnly;
+
+/**
+ * {@code ContactManifold3D} holds the contacts between two shapes, named A and B, as computed by
+ * {@link ContactManifoldCalculator}.
+ * <p>
+ * A manifold is made of a single contact normal, pointing from A toward B, and a set of contacts
+ * each described by a point on the surface of A, a point on the surface of B, and a penetration
+ * depth which is the distance between the two points.
+ * </p>
+ * <p>
+ * A manifold is meant to be kept by the user for a given pair of shapes and passed to the
+ * calculator at every step: data computed at the previous step, such as the last separating axis
+ * between two boxes, is used to speed up the next computation. The cache is automatically reset
+ * when the manifold is used for a different pair of shapes.
+ * </p>
+ */
+public class ContactManifold3D
+{
+   /** The maximum number of contacts a manifold can hold. */
+   public static final int MAX_NUMBER_OF_CONTACTS = 8;
+
+   private int numberOfContacts = 0;
+   private final Vector3D normal = new Vector3D();
+   private final Point3D[] pointsOnA = new Point3D[MAX_NUMBER_OF_CONTACTS];
+   private final Point3D[] pointsOnB = new Point3D[MAX_NUMBER_OF_CONTACTS];
+   private final double[] penetrationDepths = new double[MAX_NUMBER_OF_CONTACTS];
+
+   /** The pair of shapes for which the cached data was computed. */
+   private Shape3D<?> cachedShapeA, cachedShapeB;
+   /** Index of the last axis found separating or minimizing the penetration, {@code -1} if none. */
+   int cachedAxisIndex = -1;
+
+   /**
+    * Creates a new empty manifold.
+    */
+   public ContactManifold3D()
+   {
+      for (int i = 0; i < MAX_NUMBER_OF_CONTACTS; i++)
+      {
+         pointsOnA[i] = new Point3D();
+         pointsOnB[i] = new Point3D();
+      }
+      normal.setToNaN();
+   }
+
+   /**
+    * Removes all the contacts from this manifold and sets its normal to {@link Double#NaN}.
+    * <p>
+    * The cached data is not affected.
+    * </p>
+    */
+   public void clear()
+   {
+      numberOfContacts = 0;
+      normal.setToNaN();
+   }
+
+   /**
+    * Resets the cached data if this manifold was last used for a different pair of shapes.
+    */
+   void updateCache(Shape3D<?> shapeA, Shape3D<?> shapeB)
+   {
+      if (cachedShapeA != shapeA || cachedShapeB != shapeB)
+      {
+         cachedShapeA = shapeA;
+         cachedShapeB = shapeB;
+         cachedAxisIndex = -1;
+      }
+   }
+
+   void setNormal(double x, double y, double z)
+   {
+      normal.set(x, y, z);
+   }
+
+   /**
+    * Adds a contact to this manifold.
+    *
+    * @return {@code false} if this manifold is full and the contact was not added.
+    */
+   boolean addContact(double xOnA, double yOnA, double zOnA, double xOnB, double yOnB, double zOnB, double penetrationDepth)
+   {
+      if (numberOfContacts >= MAX_NUMBER_OF_CONTACTS)
+         return false;
+
+      pointsOnA[numberOfContacts].set(xOnA, yOnA, zOnA);
+      pointsOnB[numberOfContacts].set(xOnB, yOnB, zOnB);
+      penetrationDepths[numberOfContacts] = penetrationDepth;
+      numberOfContacts++;
+      return true;
+   }
+
+   /**
+    * Swaps the role of the two shapes, such that the manifold computed for the pair (B, A) describes
+    * the pair (A, B).
+    */
+   void swapShapes()
+   {
+      normal.negate();
+
+      for (int i = 0; i < numberOfContacts; i++)
+      {
+         Point3D temp = pointsOnA[i];
+         pointsOnA[i] = pointsOnB[i];
+         pointsOnB[i] = temp;
+      }
+   }
+
+   /**
+    * Whether this manifold holds at least one contact.
+    *
+    * @return {@code true} if the two shapes are in contact, {@code false} otherwise.
+    */
+   public boolean hasContacts()
+   {
+      return numberOfContacts > 0;
+   }
+
+   /**
+    * Gets the number of contacts in this manifold.
+    *
+    * @return the number of contacts.
+    */
+   public int getNumberOfContacts()
+   {
+      return numberOfContacts;
+   }
+
+   /**
+    * Gets the read-only reference to the contact normal, pointing from the shape A toward the shape
+    * B.
+    *
+    * @return the contact normal, it is {@link Double#NaN} if there is no contact.
+    */
+   public Vector3DReadOnly getNormal()
+   {
+      return normal;
+   }
+
+   /**
+    * Packs the contact normal, pointing from the shape A toward the shape B.
+    *
+    * @param normalToPack the vector in which the normal is stored. Modified.
+    */
+   public void getNormal(Vector3DBasics normalToPack)
+   {
+      normalToPack.set(normal);
+   }
+
+   /**
+    * Gets the read-only reference to the i<sup>th</sup> contact point located on the surface of the
+    * shape A.
+    *
+    * @param index the index of the contact.
+    * @return the contact point on the shape A.
+    * @throws IndexOutOfBoundsException if {@code index} is not in [0, {@link #getNumberOfContacts()}[.
+    */
+   public Point3DReadOnly getPointOnA(int index)
+   {
+      checkIndex(index);
+      return pointsOnA[index];
+   }
+
+   /**
+    * Packs the i<sup>th</sup> contact point located on the surface of the shape A.
+    *
+    * @param index the index of the contact.
+    * @param pointToPack the point in which the contact point is stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is not in [0, {@link #getNumberOfContacts()}[.
+    */
+   public void getPointOnA(int index, Point3DBasics pointToPack)
+   {
+      pointToPack.set(getPointOnA(index));
+   }
+
+   /**
+    * Gets the read-only reference to the i<sup>th</sup> contact point located on the surface of the
+    * shape B.
+    *
+    * @param index the index of the contact.
+    * @return the contact point on the shape B.
+    * @throws IndexOutOfBoundsException if {@code index} is not in [0, {@link #getNumberOfContacts()}[.
+    */
+   public Point3DReadOnly getPointOnB(int index)
+   {
+      checkIndex(index);
+      return pointsOnB[index];
+   }
+
+   /**
+    * Packs the i<sup>th</sup> contact point located on the surface of the shape B.
+    *
+    * @param index the index of the contact.
+    * @param pointToPack the point in which the contact point is stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is not in [0, {@link #getNumberOfContacts()}[.
+    */
+   public void getPointOnB(int index, Point3DBasics pointToPack)
+   {
+      pointToPack.set(getPointOnB(index));
+   }
+
+   /**
+    * Gets the penetration depth of the i<sup>th</sup> contact.
+    *
+    * @param index the index of the contact.
+    * @return the penetration depth, it is positive when the two shapes overlap.
+    * @throws IndexOutOfBoundsException if {@code index} is not in [0, {@link #getNumberOfContacts()}[.
+    */
+   public double getPenetrationDepth(int index)
+   {
+      checkIndex(index);
+      return penetrationDepths[index];
+   }
+
+   /**
+    * Gets the largest penetration depth among the contacts of this manifold.
+    *
+    * @return the maximum penetration depth, or {@link Double#NaN} if there is no contact.
+    */
+   public double getMaximumPenetrationDepth()
+   {
+      if (numberOfContacts == 0)
+         return Double.NaN;
+
+      double maximum = penetrationDepths[0];
+      for (int i = 1; i < numberOfContacts; i++)
+         maximum = Math.max(maximum, penetrationDepths[i]);
+      return maximum;
+   }
+
+   private void checkIndex(int index)
+   {
+      if (index < 0 || index >= numberOfContacts)
+         throw new IndexOutOfBoundsException("Index was: " + index + ", number of contacts: " + numberOfContacts);
+   }
+
+   /**
+    * Provides a {@code String} representation of this manifold as follows:<br>
+    * Contact manifold 3D: normal = (x, y, z), number of contacts = n.
+    *
+    * @return the {@code String} representing this manifold.
+    */
+   @Override
+   public String toString()
+   {
+      return "Contact manifold 3D: normal = " + normal + ", number of contacts = " + numberOfContacts;
+   }
+}
@@ -0,0 +1,1432 @@
+package us.ihmc.euclid.geometry;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryTools;
+import us.ihmc.euclid.matrix.interfaces.RotationMatrixReadOnly;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.Vector3D;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DBasics;
+import us.ihmc.euclid.tuple3D.interfaces.Tuple3DReadOnly;
+
+/**
+ * {@code ContactManifoldCalculator} computes the contact manifold between two {@link Shape3D}s.
+ * <p>
+ * The computation is dispatched on the types of both shapes to a dedicated
+ * {@link ContactManifoldGenerator}:
+ * <ul>
+ * <li>a sphere against any shape is solved exactly from the closest point to the sphere center,
+ * <li>two boxes are solved with the separating axis test followed by the clipping of the incident
+ * face against the reference face, or by the closest points between two edges,
+ * <li>a torus against any other shape is solved by searching the local minima of the distance
+ * between the other shape and the center circle of the torus tube,
+ * <li>the other pairs are convex and are solved with the GJK and EPA algorithms, which provide the
+ * normal and the deepest contact, completed by testing the vertices of the polyhedral shapes and the
+ * support points of the curved shapes along the axes of both shapes. For a box against a cylinder,
+ * the points of the box edges closest to the cylinder axis are also tested.
+ * </ul>
+ * The generator used for a given pair of types can be replaced with
+ * {@link #setGenerator(Class, Class, ContactManifoldGenerator)}.
+ * </p>
+ * <p>
+ * This calculator does not generate garbage but is not thread-safe, a separate instance should be
+ * used per thread.
+ * </p>
+ */
+public class ContactManifoldCalculator
+{
+   /**
+    * Generator of contact manifolds for a given pair of shape types.
+    */
+   public interface ContactManifoldGenerator
+   {
+      /**
+       * Computes the contacts between the two shapes.
+       * <p>
+       * The manifold has been cleared beforehand, the implementation only has to add the contacts and
+       * set the normal. The cached data of the manifold is valid for the given pair.
+       * </p>
+       *
+       * @param shapeA the first shape. Not modified.
+       * @param shapeB the second shape. Not modified.
+       * @param manifoldToPack the manifold in which the contacts are stored. Modified.
+       */
+      void compute(Shape3D<?> shapeA, Shape3D<?> shapeB, ContactManifold3D manifoldToPack);
+   }
+
+   /** The shape types supported by the dispatch table. */
+   private static final Class<?>[] SHAPE_TYPES = {Box3D.class, Cylinder3D.class, Ellipsoid3D.class, Ramp3D.class, Sphere3D.class, Torus3D.class};
+   private static final int BOX = 0, CYLINDER = 1, SPHERE = 4, TORUS = 5;
+
+   /** Maximum number of contacts generated from the candidate points. */
+   private static final int MAX_NUMBER_OF_REDUCED_CONTACTS = 4;
+   private static final int MAX_NUMBER_OF_CANDIDATES = 64;
+   /** Minimum dot product between the normal of a candidate and the manifold normal to keep it. */
+   private static final double MIN_NORMAL_ALIGNMENT = 0.7;
+   /** Minimum distance between two contacts to consider them as distinct. */
+   private static final double MIN_CONTACT_SEPARATION = 1.0e-7;
+   /**
+    * Penetration ratio below which an edge-edge axis is preferred over a face axis. Favoring the face
+    * axes provides more stable manifolds for boxes resting on each other.
+    */
+   private static final double EDGE_AXIS_PREFERENCE = 0.95;
+
+   private static final int MAX_NUMBER_OF_GJK_ITERATIONS = 64;
+   /** Squared distance below which the origin is considered to be on the GJK simplex. */
+   private static final double OVERLAP_DISTANCE_SQUARED = 1.0e-20;
+   private static final int MAX_NUMBER_OF_EPA_ITERATIONS = 128;
+   private static final int MAX_NUMBER_OF_EPA_VERTICES = 4 + MAX_NUMBER_OF_EPA_ITERATIONS;
+   private static final int MAX_NUMBER_OF_EPA_FACES = 512;
+   private static final int MAX_NUMBER_OF_HORIZON_EDGES = 128;
+   /** Distance below which the expansion of the polytope is considered converged. */
+   private static final double EPA_TOLERANCE = 1.0e-10;
+   /** Distance below which a new vertex of the initial polytope does not increase its dimension. */
+   private static final double DEGENERACY_TOLERANCE = 1.0e-9;
+   /** Sine of the angle between two edges of a face below which the face is considered degenerate. */
+   private static final double SLIVER_TOLERANCE = 1.0e-8;
+
+   /** Number of points of the center circle of a torus at which the distance to the other shape is sampled. */
+   private static final int NUMBER_OF_TORUS_SAMPLES = 32;
+   /** Size of the angular interval below which the search of a local minimum stops. */
+   private static final double TORUS_ANGLE_TOLERANCE = 1.0e-9;
+   private static final double INVERSE_GOLDEN_RATIO = 0.5 * (Math.sqrt(5.0) - 1.0);
+
+   private final ContactManifoldGenerator[][] generators = new ContactManifoldGenerator[SHAPE_TYPES.length][SHAPE_TYPES.length];
+
+   // Internal variables used to enable garbage free operations.
+   private final Point3D featurePoint = new Point3D();
+   private final Point3D closestPoint = new Point3D();
+   private final Vector3D surfaceNormal = new Vector3D();
+   private final Vector3D supportDirection = new Vector3D();
+   private final Point3D edgeStart = new Point3D();
+   private final Point3D edgeEnd = new Point3D();
+   private final Point3D otherEdgeStart = new Point3D();
+   private final Point3D otherEdgeEnd = new Point3D();
+   private final Point3D closestPointOnEdge = new Point3D();
+   private final Point3D closestPointOnOtherEdge = new Point3D();
+
+   private final double[] centerA = new double[3], centerB = new double[3];
+   /** Axes of the boxes, the i<sup>th</sup> axis is stored in [3 i, 3 i + 3[. */
+   private final double[] axesA = new double[9], axesB = new double[9];
+   private final double[] halfSizeA = new double[3], halfSizeB = new double[3];
+   private final double[] separatingAxis = new double[3];
+   private final double[] centerOffset = new double[3];
+   private final double[] polygon = new double[3 * 2 * ContactManifold3D.MAX_NUMBER_OF_CONTACTS];
+   private final double[] clippedPolygon = new double[3 * 2 * ContactManifold3D.MAX_NUMBER_OF_CONTACTS];
+
+   private int numberOfCandidates = 0;
+   private final double[] candidatesOnA = new double[3 * MAX_NUMBER_OF_CANDIDATES];
+   private final double[] candidatesOnB = new double[3 * MAX_NUMBER_OF_CANDIDATES];
+   private final double[] candidateNormals = new double[3 * MAX_NUMBER_OF_CANDIDATES];
+   private final double[] candidateDepths = new double[MAX_NUMBER_OF_CANDIDATES];
+   private final boolean[] isCandidateAvailable = new boolean[MAX_NUMBER_OF_CANDIDATES];
+   private final int[] selectedCandidates = new int[MAX_NUMBER_OF_REDUCED_CONTACTS];
+
+   private final GJKSimplex3D simplex = new GJKSimplex3D();
+   private int numberOfPolytopeVertices = 0;
+   /** Vertices of the EPA polytope on the Minkowski difference A - B, 3 coordinates per vertex. */
+   private final double[] polytopeVertices = new double[3 * MAX_NUMBER_OF_EPA_VERTICES];
+   /** The supporting vertices of A and B from which the polytope vertices were computed. */
+   private final double[] polytopeVerticesOnA = new double[3 * MAX_NUMBER_OF_EPA_VERTICES];
+   private final double[] polytopeVerticesOnB = new double[3 * MAX_NUMBER_OF_EPA_VERTICES];
+   private int numberOfFaces = 0;
+   /** Indices of the vertices of each face, counter-clockwise when seen from outside the polytope. */
+   private final int[] faceVertices = new int[3 * MAX_NUMBER_OF_EPA_FACES];
+   private final double[] faceNormals = new double[3 * MAX_NUMBER_OF_EPA_FACES];
+   private final double[] faceDistances = new double[MAX_NUMBER_OF_EPA_FACES];
+   private final boolean[] isFaceAlive = new boolean[MAX_NUMBER_OF_EPA_FACES];
+   private final boolean[] isFaceVisible = new boolean[MAX_NUMBER_OF_EPA_FACES];
+   private final int[] faceStack = new int[MAX_NUMBER_OF_EPA_FACES];
+   private int numberOfHorizonEdges = 0;
+   private final int[] horizonEdges = new int[2 * MAX_NUMBER_OF_HORIZON_EDGES];
+   private final double[] faceCoordinates = new double[3];
+
+   private final double[] torusSamples = new double[NUMBER_OF_TORUS_SAMPLES];
+
+   /**
+    * Creates a new calculator with the default generators.
+    */
+   public ContactManifoldCalculator()
+   {
+      ContactManifoldGenerator sphereGenerator = this::computeSphereShape;
+      ContactManifoldGenerator convexGenerator = this::computeConvexShapes;
+      ContactManifoldGenerator torusGenerator = this::computeShapeTorus;
+
+      for (int typeA = 0; typeA < SHAPE_TYPES.length; typeA++)
+      {
+         for (int typeB = typeA; typeB < SHAPE_TYPES.length; typeB++)
+            generators[typeA][typeB] = typeB == TORUS ? torusGenerator : convexGenerator;
+      }
+
+      for (int type = 0; type < SHAPE_TYPES.length; type++)
+      {
+         generators[SPHERE][type] = sphereGenerator;
+         generators[type][SPHERE] = null;
+      }
+      generators[SPHERE][SPHERE] = sphereGenerator;
+
+      generators[BOX][BOX] = this::computeBoxBox;
+      generators[BOX][CYLINDER] = this::computeBoxCylinder;
+   }
+
+   /**
+    * Replaces the generator used for the pair of shape types ({@code typeA}, {@code typeB}).
+    * <p>
+    * The generator is also used for the pair ({@code typeB}, {@code typeA}) by swapping the shapes.
+    * </p>
+    *
+    * @param typeA the type of the first shape.
+    * @param typeB the type of the second shape.
+    * @param generator the new generator for the pair.
+    * @throws IllegalArgumentException if any of the two types is not supported or if
+    *            {@code generator} is {@code null}.
+    */
+   public void setGenerator(Class<? extends Shape3D<?>> typeA, Class<? extends Shape3D<?>> typeB, ContactManifoldGenerator generator)
+   {
+      if (generator == null)
+         throw new IllegalArgumentException("The generator for the pair (" + typeA.getSimpleName() + ", " + typeB.getSimpleName() + ") cannot be null.");
+
+      int indexA = typeIndex(typeA);
+      int indexB = typeIndex(typeB);
+      generators[indexA][indexB] = generator;
+      if (indexA != indexB)
+         generators[indexB][indexA] = null;
+   }
+
+   /**
+    * Computes the contact manifold between two shapes.
+    * <p>
+    * The manifold is expected to be kept for the pair ({@code shapeA}, {@code shapeB}) across calls
+    * such that its cached data can be reused.
+    * </p>
+    *
+    * @param shapeA the first shape. Not modified.
+    * @param shapeB the second shape. Not modified.
+    * @param manifoldToPack the manifold in which the contacts are stored. Its normal points from
+    *           {@code shapeA} toward {@code shapeB}. Modified.
+    * @return {@code true} if the two shapes are in contact, {@code false} otherwise.
+    * @throws IllegalArgumentException if the type of any of the two shapes is not supported.
+    */
+   public boolean computeContactManifold(Shape3D<?> shapeA, Shape3D<?> shapeB, ContactManifold3D manifoldToPack)
+   {
+      int indexA = typeIndex(shapeA.getClass());
+      int indexB = typeIndex(shapeB.getClass());
+
+      manifoldToPack.clear();
+      manifoldToPack.updateCache(shapeA, shapeB);
+
+      if (generators[indexA][indexB] != null)
+      {
+         generators[indexA][indexB].compute(shapeA, shapeB, manifoldToPack);
+      }
+      else
+      {
+         generators[indexB][indexA].compute(shapeB, shapeA, manifoldToPack);
+         manifoldToPack.swapShapes();
+      }
+
+      return manifoldToPack.hasContacts();
+   }
+
+   private static int typeIndex(Class<?> shapeType)
+   {
+      for (int i = 0; i < SHAPE_TYPES.length; i++)
+      {
+         if (SHAPE_TYPES[i].isAssignableFrom(shapeType))
+            return i;
+      }
+      throw new IllegalArgumentException("Unsupported shape type: " + shapeType.getSimpleName());
+   }
+
+   private void computeSphereShape(Shape3D<?> shapeA, Shape3D<?> shapeB, ContactManifold3D manifoldToPack)
+   {
+      Sphere3D sphere = (Sphere3D) shapeA;
+      Tuple3DReadOnly center = sphere.getPosition();
+      featurePoint.set(center);
+
+      boolean isCenterInside = shapeB.checkIfInside(featurePoint, closestPoint, surfaceNormal);
+      double distance = featurePoint.distance(closestPoint);
+      double signedDistance = isCenterInside ? -distance : distance;
+      double penetrationDepth = sphere.getRadius() - signedDistance;
+
+      if (!(penetrationDepth > 0.0))
+         return;
+
+      // The normal of B is pointing toward the sphere.
+      double normalX = -surfaceNormal.getX();
+      double normalY = -surfaceNormal.getY();
+      double normalZ = -surfaceNormal.getZ();
+      double radius = sphere.getRadius();
+
+      manifoldToPack.setNormal(normalX, normalY, normalZ);
+      manifoldToPack.addContact(center.getX() + radius * normalX, center.getY() + radius * normalY, center.getZ() + radius * normalZ, closestPoint.getX(),
+                                closestPoint.getY(), closestPoint.getZ(), penetrationDepth);
+   }
+
+   private void computeBoxBox(Shape3D<?> shapeA, Shape3D<?> shapeB, ContactManifold3D manifoldToPack)
+   {
+      packBox((Box3D) shapeA, centerA, axesA, halfSizeA);
+      packBox((Box3D) shapeB, centerB, axesB, halfSizeB);
+
+      for (int i = 0; i < 3; i++)
+         centerOffset[i] = centerB[i] - centerA[i];
+
+      // The axis that separated or best described the contact at the previous call is likely to still be valid.
+      int cachedAxisIndex = manifoldToPack.cachedAxisIndex;
+      if (cachedAxisIndex >= 0 && computeBoxBoxPenetration(cachedAxisIndex) < 0.0)
+         return;
+
+      int bestAxisIndex = -1;
+      double bestScore = Double.POSITIVE_INFINITY;
+      double bestPenetration = Double.NaN;
+
+      for (int axisIndex = 0; axisIndex < 15; axisIndex++)
+      {
+         double penetration = computeBoxBoxPenetration(axisIndex);
+
+         if (Double.isNaN(penetration))
+            continue;
+
+         if (penetration < 0.0)
+         {
+            manifoldToPack.cachedAxisIndex = axisIndex;
+            return;
+         }
+
+         double score = axisIndex < 6 ? penetration : penetration / EDGE_AXIS_PREFERENCE;
+
+         if (score < bestScore)
+         {
+            bestScore = score;
+            bestAxisIndex = axisIndex;
+            bestPenetration = penetration;
+         }
+      }
+
+      if (bestAxisIndex < 0)
+         return;
+
+      manifoldToPack.cachedAxisIndex = bestAxisIndex;
+      computeBoxBoxPenetration(bestAxisIndex);
+
+      // Orienting the normal from A to B.
+      double sign = dot(separatingAxis, 0, centerOffset, 0) < 0.0 ? -1.0 : 1.0;
+      double normalX = sign * separatingAxis[0];
+      double normalY = sign * separatingAxis[1];
+      double normalZ = sign * separatingAxis[2];
+      manifoldToPack.setNormal(normalX, normalY, normalZ);
+
+      if (bestAxisIndex < 6)
+      {
+         boolean isReferenceA = bestAxisIndex < 3;
+         // The reference normal points from the reference box toward the incident box.
+         double referenceSign = isReferenceA ? 1.0 : -1.0;
+         separatingAxis[0] = referenceSign * normalX;
+         separatingAxis[1] = referenceSign * normalY;
+         separatingAxis[2] = referenceSign * normalZ;
+
+         if (isReferenceA)
+            clipBoxFaces(centerA, axesA, halfSizeA, bestAxisIndex, centerB, axesB, halfSizeB, true, manifoldToPack);
+         else
+            clipBoxFaces(centerB, axesB, halfSizeB, bestAxisIndex - 3, centerA, axesA, halfSizeA, false, manifoldToPack);
+      }
+      else
+      {
+         int edgeIndexA = (bestAxisIndex - 6) / 3;
+         int edgeIndexB = (bestAxisIndex - 6) % 3;
+         separatingAxis[0] = normalX;
+         separatingAxis[1] = normalY;
+         separatingAxis[2] = normalZ;
+
+         packSupportEdge(centerA, axesA, halfSizeA, edgeIndexA, 1.0, edgeStart, edgeEnd);
+         packSupportEdge(centerB, axesB, halfSizeB, edgeIndexB, -1.0, otherEdgeStart, otherEdgeEnd);
+         EuclidGeometryTools.closestPoint3DsBetweenTwoLineSegment3Ds(edgeStart, edgeEnd, otherEdgeStart, otherEdgeEnd, closestPointOnEdge,
+                                                                     closestPointOnOtherEdge);
+         manifoldToPack.addContact(closestPointOnEdge.getX(), closestPointOnEdge.getY(), closestPointOnEdge.getZ(), closestPointOnOtherEdge.getX(),
+                                   closestPointOnOtherEdge.getY(), closestPointOnOtherEdge.getZ(), bestPenetration);
+      }
+   }
+
+   /**
+    * Computes the overlap of the two boxes projected on one of the 15 candidate separating axes.
+    *
+    * @return the overlap which is negative if the axis separates the boxes, or {@link Double#NaN} if
+    *         the axis is degenerate.
+    */
+   private double computeBoxBoxPenetration(int axisIndex)
+   {
+      if (axisIndex < 3)
+      {
+         System.arraycopy(axesA, 3 * axisIndex, separatingAxis, 0, 3);
+      }
+      else if (axisIndex < 6)
+      {
+         System.arraycopy(axesB, 3 * (axisIndex - 3), separatingAxis, 0, 3);
+      }
+      else
+      {
+         int offsetA = 3 * ((axisIndex - 6) / 3);
+         int offsetB = 3 * ((axisIndex - 6) % 3);
+         separatingAxis[0] = axesA[offsetA + 1] * axesB[offsetB + 2] - axesA[offsetA + 2] * axesB[offsetB + 1];
+         separatingAxis[1] = axesA[offsetA + 2] * axesB[offsetB] - axesA[offsetA] * axesB[offsetB + 2];
+         separatingAxis[2] = axesA[offsetA] * axesB[offsetB + 1] - axesA[offsetA + 1] * axesB[offsetB];
+         double norm = Math.sqrt(dot(separatingAxis, 0, separatingAxis, 0));
+
+         if (norm < 1.0e-6) // The two edges are parallel, this axis is covered by the face axes.
+            return Double.NaN;
+
+         for (int i = 0; i < 3; i++)
+            separatingAxis[i] /= norm;
+      }
+
+      double projectedRadii = 0.0;
+
+      for (int i = 0; i < 3; i++)
+      {
+         projectedRadii += halfSizeA[i] * Math.abs(dot(separatingAxis, 0, axesA, 3 * i));
+         projectedRadii += halfSizeB[i] * Math.abs(dot(separatingAxis, 0, axesB, 3 * i));
+      }
+
+      return projectedRadii - Math.abs(dot(separatingAxis, 0, centerOffset, 0));
+   }
+
+   /**
+    * Clips the face of the incident box that is the most opposed to the reference face against the
+    * side planes of the reference face and adds the clipped points that are below the reference face.
+    * <p>
+    * The reference normal is expected to be stored in {@link #separatingAxis}.
+    * </p>
+    */
+   private void clipBoxFaces(double[] referenceCenter, double[] referenceAxes, double[] referenceHalfSize, int referenceFace, double[] incidentCenter,
+                             double[] incidentAxes, double[] incidentHalfSize, boolean isReferenceA, ContactManifold3D manifoldToPack)
+   {
+      double referencePlaneOffset = dot(separatingAxis, 0, referenceCenter, 0) + referenceHalfSize[referenceFace];
+
+      int incidentFace = 0;
+      double maxAlignment = -1.0;
+
+      for (int i = 0; i < 3; i++)
+      {
+         double alignment = Math.abs(dot(separatingAxis, 0, incidentAxes, 3 * i));
+         if (alignment > maxAlignment)
+         {
+            maxAlignment = alignment;
+            incidentFace = i;
+         }
+      }
+
+      double incidentSign = dot(separatingAxis, 0, incidentAxes, 3 * incidentFace) > 0.0 ? -1.0 : 1.0;
+      int u = (incidentFace + 1) % 3;
+      int v = (incidentFace + 2) % 3;
+      int numberOfVertices = 0;
+
+      for (int vertex = 0; vertex < 4; vertex++)
+      {
+         double signU = vertex == 0 || vertex == 3 ? 1.0 : -1.0;
+         double signV = vertex < 2 ? 1.0 : -1.0;
+
+         for (int i = 0; i < 3; i++)
+         {
+            polygon[3 * vertex + i] = incidentCenter[i] + incidentSign * incidentHalfSize[incidentFace] * incidentAxes[3 * incidentFace + i]
+                  + signU * incidentHalfSize[u] * incidentAxes[3 * u + i] + signV * incidentHalfSize[v] * incidentAxes[3 * v + i];
+         }
+         numberOfVertices++;
+      }
+
+      double[] input = polygon;
+      double[] output = clippedPolygon;
+
+      for (int side = 1; side <= 2 && numberOfVertices > 0; side++)
+      {
+         int sideAxis = (referenceFace + side) % 3;
+         double axisOffset = dot(referenceAxes, 3 * sideAxis, referenceCenter, 0);
+
+         for (double sign = -1.0; sign <= 1.0 && numberOfVertices > 0; sign += 2.0)
+         {
+            numberOfVertices = clipPolygon(input, numberOfVertices, referenceAxes, 3 * sideAxis, sign, sign * axisOffset + referenceHalfSize[sideAxis], output);
+            double[] swap = input;
+            input = output;
+            output = swap;
+         }
+      }
+
+      for (int vertex = 0; vertex < numberOfVertices; vertex++)
+      {
+         double x = input[3 * vertex];
+         double y = input[3 * vertex + 1];
+         double z = input[3 * vertex + 2];
+         double depth = referencePlaneOffset - (separatingAxis[0] * x + separatingAxis[1] * y + separatingAxis[2] * z);
+
+         if (depth < 0.0)
+            continue;
+
+         double xOnReference = x + depth * separatingAxis[0];
+         double yOnReference = y + depth * separatingAxis[1];
+         double zOnReference = z + depth * separatingAxis[2];
+
+         if (isReferenceA)
+            manifoldToPack.addContact(xOnReference, yOnReference, zOnReference, x, y, z, depth);
+         else
+            manifoldToPack.addContact(x, y, z, xOnReference, yOnReference, zOnReference, depth);
+      }
+   }
+
+   /**
+    * Clips a convex polygon against the half-space {@code sign * (axis . p) <= offset} using the
+    * Sutherland-Hodgman algorithm.
+    *
+    * @return the number of vertices of the clipped polygon.
+    */
+   private static int clipPolygon(double[] input, int numberOfVertices, double[] axes, int axisOffset, double sign, double offset, double[] output)
+   {
+      int numberOfClippedVertices = 0;
+
+      for (int vertex = 0; vertex < numberOfVertices; vertex++)
+      {
+         int next = vertex + 1 == numberOfVertices ? 0 : vertex + 1;
+         double distance = sign * dot(axes, axisOffset, input, 3 * vertex) - offset;
+         double nextDistance = sign * dot(axes, axisOffset, input, 3 * next) - offset;
+
+         if (distance <= 0.0)
+         {
+            System.arraycopy(input, 3 * vertex, output, 3 * numberOfClippedVertices, 3);
+            numberOfClippedVertices++;
+         }
+
+         if ((distance < 0.0 && nextDistance > 0.0) || (distance > 0.0 && nextDistance < 0.0))
+         {
+            double alpha = distance / (distance - nextDistance);
+            for (int i = 0; i < 3; i++)
+               output[3 * numberOfClippedVertices + i] = input[3 * vertex + i] + alpha * (input[3 * next + i] - input[3 * vertex + i]);
+            numberOfClippedVertices++;
+         }
+      }
+
+      return numberOfClippedVertices;
+   }
+
+   /**
+    * Packs the edge of a box parallel to the given axis that is the most extreme in the direction
+    * {@code sign * separatingAxis}.
+    */
+   private void packSupportEdge(double[] center, double[] axes, double[] halfSize, int edgeAxis, double sign, Point3DBasics edgeStartToPack,
+                                Point3DBasics edgeEndToPack)
+   {
+      double x = center[0], y = center[1], z = center[2];
+
+      for (int i = 0; i < 3; i++)
+      {
+         if (i == edgeAxis)
+            continue;
+         double side = sign * dot(separatingAxis, 0, axes, 3 * i) < 0.0 ? -halfSize[i] : halfSize[i];
+         x += side * axes[3 * i];
+         y += side * axes[3 * i + 1];
+         z += side * axes[3 * i + 2];
+      }
+
+      double dx = halfSize[edgeAxis] * axes[3 * edgeAxis];
+      double dy = halfSize[edgeAxis] * axes[3 * edgeAxis + 1];
+      double dz = halfSize[edgeAxis] * axes[3 * edgeAxis + 2];
+      edgeStartToPack.set(x - dx, y - dy, z - dz);
+      edgeEndToPack.set(x + dx, y + dy, z + dz);
+   }
+
+   private static void packBox(Box3D box, double[] centerToPack, double[] axesToPack, double[] halfSizeToPack)
+   {
+      Tuple3DReadOnly position = box.getPosition();
+      centerToPack[0] = position.getX();
+      centerToPack[1] = position.getY();
+      centerToPack[2] = position.getZ();
+
+      RotationMatrixReadOnly orientation = box.getOrientation();
+      for (int axis = 0; axis < 3; axis++)
+      {
+         axesToPack[3 * axis] = orientation.getElement(0, axis);
+         axesToPack[3 * axis + 1] = orientation.getElement(1, axis);
+         axesToPack[3 * axis + 2] = orientation.getElement(2, axis);
+      }
+
+      halfSizeToPack[0] = 0.5 * box.getSizeX();
+      halfSizeToPack[1] = 0.5 * box.getSizeY();
+      halfSizeToPack[2] = 0.5 * box.getSizeZ();
+   }
+
+   private void computeBoxCylinder(Shape3D<?> shapeA, Shape3D<?> shapeB, ContactManifold3D manifoldToPack)
+   {
+      Box3D box = (Box3D) shapeA;
+      Cylinder3D cylinder = (Cylinder3D) shapeB;
+      numberOfCandidates = 0;
+
+      if (!computePenetration(box, cylinder))
+         return;
+
+      evaluateFeaturePoints(box, cylinder, true);
+      evaluateFeaturePoints(cylinder, box, false);
+
+      // The points of the box edges closest to the cylinder axis cover the edge-side contacts.
+      RotationMatrixReadOnly cylinderOrientation = cylinder.getOrientation();
+      double halfHeight = 0.5 * cylinder.getHeight();
+      Tuple3DReadOnly cylinderPosition = cylinder.getPosition();
+      otherEdgeStart.set(cylinderOrientation.getM02(), cylinderOrientation.getM12(), cylinderOrientation.getM22());
+      otherEdgeEnd.setAndScale(halfHeight, otherEdgeStart);
+      otherEdgeStart.setAndScale(-halfHeight, otherEdgeStart);
+      otherEdgeStart.add(cylinderPosition);
+      otherEdgeEnd.add(cylinderPosition);
+
+      packBox(box, centerA, axesA, halfSizeA);
+
+      for (int edgeAxis = 0; edgeAxis < 3; edgeAxis++)
+      {
+         for (int edge = 0; edge < 4; edge++)
+         {
+            double x = centerA[0], y = centerA[1], z = centerA[2];
+            int u = (edgeAxis + 1) % 3;
+            int v = (edgeAxis + 2) % 3;
+            double sideU = (edge & 1) == 0 ? halfSizeA[u] : -halfSizeA[u];
+            double sideV = (edge & 2) == 0 ? halfSizeA[v] : -halfSizeA[v];
+            x += sideU * axesA[3 * u] + sideV * axesA[3 * v];
+            y += sideU * axesA[3 * u + 1] + sideV * axesA[3 * v + 1];
+            z += sideU * axesA[3 * u + 2] + sideV * axesA[3 * v + 2];
+            double dx = halfSizeA[edgeAxis] * axesA[3 * edgeAxis];
+            double dy = halfSizeA[edgeAxis] * axesA[3 * edgeAxis + 1];
+            double dz = halfSizeA[edgeAxis] * axesA[3 * edgeAxis + 2];
+            edgeStart.set(x - dx, y - dy, z - dz);
+            edgeEnd.set(x + dx, y + dy, z + dz);
+
+            EuclidGeometryTools.closestPoint3DsBetweenTwoLineSegment3Ds(edgeStart, edgeEnd, otherEdgeStart, otherEdgeEnd, closestPointOnEdge,
+                                                                        closestPointOnOtherEdge);
+            evaluateFeaturePoint(cylinder, true, closestPointOnEdge.getX(), closestPointOnEdge.getY(), closestPointOnEdge.getZ());
+         }
+      }
+
+      reduceCandidates(0, manifoldToPack);
+   }
+
+   private void computeConvexShapes(Shape3D<?> shapeA, Shape3D<?> shapeB, ContactManifold3D manifoldToPack)
+   {
+      numberOfCandidates = 0;
+
+      if (!computePenetration(shapeA, shapeB))
+         return;
+
+      // The vertices and support points complete the manifold for the face contacts.
+      evaluateFeaturePoints(shapeA, shapeB, true);
+      evaluateFeaturePoints(shapeB, shapeA, false);
+      reduceCandidates(0, manifoldToPack);
+   }
+
+   /**
+    * Computes the penetration of the two convex shapes with the GJK algorithm, to find a simplex of
+    * the Minkowski difference A - B enclosing the origin, followed by the EPA algorithm, to find the
+    * face of A - B closest to the origin. The contact of the deepest penetration is registered as the
+    * first candidate.
+    *
+    * @return {@code true} if the shapes overlap, {@code false} otherwise.
+    */
+   private boolean computePenetration(Shape3D<?> shapeA, Shape3D<?> shapeB)
+   {
+      if (!computeEnclosingSimplex(shapeA, shapeB) || !initializePolytope(shapeA, shapeB))
+         return false;
+
+      int closestFace = -1;
+
+      for (int iteration = 0; iteration <= MAX_NUMBER_OF_EPA_ITERATIONS; iteration++)
+      {
+         closestFace = -1;
+
+         for (int face = 0; face < numberOfFaces; face++)
+         {
+            if (isFaceAlive[face] && (closestFace < 0 || faceDistances[face] < faceDistances[closestFace]))
+               closestFace = face;
+         }
+
+         if (closestFace < 0 || !(faceDistances[closestFace] < Double.POSITIVE_INFINITY))
+            return false;
+         if (iteration == MAX_NUMBER_OF_EPA_ITERATIONS)
+            break;
+
+         int normalOffset = 3 * closestFace;
+         int newVertex = addPolytopeVertex(shapeA, shapeB, faceNormals[normalOffset], faceNormals[normalOffset + 1], faceNormals[normalOffset + 2]);
+
+         if (dot(polytopeVertices, 3 * newVertex, faceNormals, normalOffset) - faceDistances[closestFace] <= EPA_TOLERANCE || !expandPolytope(newVertex, closestFace))
+         { // No significant progress, the closest face is on the boundary of A - B.
+            numberOfPolytopeVertices--;
+            break;
+         }
+      }
+
+      return packPenetrationCandidate(shapeA, shapeB, closestFace);
+   }
+
+   /**
+    * Runs the GJK algorithm until its simplex encloses the origin.
+    *
+    * @return {@code true} if the origin is inside or on the simplex, {@code false} if the shapes are
+    *         apart.
+    */
+   private boolean computeEnclosingSimplex(Shape3D<?> shapeA, Shape3D<?> shapeB)
+   {
+      double directionX = shapeA.getPositionX() - shapeB.getPositionX();
+      double directionY = shapeA.getPositionY() - shapeB.getPositionY();
+      double directionZ = shapeA.getPositionZ() - shapeB.getPositionZ();
+
+      if (directionX * directionX + directionY * directionY + directionZ * directionZ < OVERLAP_DISTANCE_SQUARED)
+         directionX = 1.0;
+
+      simplex.clear();
+      addSimplexVertex(shapeA, shapeB, directionX, directionY, directionZ);
+
+      for (int iteration = 0; iteration < MAX_NUMBER_OF_GJK_ITERATIONS; iteration++)
+      {
+         double vx = simplex.closestPoint[0];
+         double vy = simplex.closestPoint[1];
+         double vz = simplex.closestPoint[2];
+
+         if (vx * vx + vy * vy + vz * vz < OVERLAP_DISTANCE_SQUARED)
+            return true;
+
+         int newVertex = addSimplexVertex(shapeA, shapeB, -vx, -vy, -vz);
+
+         // No point of A - B goes past the origin along -v, the plane orthogonal to v separates the origin from A - B.
+         if (dot(simplex.closestPoint, 0, simplex.vertices, 3 * newVertex) > 0.0 || simplex.isDuplicateVertex(newVertex))
+            return false;
+
+         if (!simplex.update())
+            return true;
+      }
+
+      return false;
+   }
+
+   private int addSimplexVertex(Shape3D<?> shapeA, Shape3D<?> shapeB, double directionX, double directionY, double directionZ)
+   {
+      supportDirection.set(directionX, directionY, directionZ);
+      shapeA.getSupportingVertex(supportDirection, featurePoint);
+      supportDirection.negate();
+      shapeB.getSupportingVertex(supportDirection, closestPoint);
+      return simplex.addVertex(featurePoint.getX(), featurePoint.getY(), featurePoint.getZ(), closestPoint.getX(), closestPoint.getY(), closestPoint.getZ());
+   }
+
+   /**
+    * Builds the initial EPA polytope from the GJK simplex. The simplex is completed into a tetrahedron
+    * when the origin was found on a vertex, an edge or a face of it.
+    *
+    * @return {@code false} if A - B is flat around the origin, i.e. the shapes are only touching.
+    */
+   private boolean initializePolytope(Shape3D<?> shapeA, Shape3D<?> shapeB)
+   {
+      numberOfPolytopeVertices = 0;
+
+      for (int i = 0; i < simplex.size; i++)
+      {
+         int offset = 3 * i;
+         System.arraycopy(simplex.vertices, offset, polytopeVertices, offset, 3);
+         System.arraycopy(simplex.verticesOnA, offset, polytopeVerticesOnA, offset, 3);
+         System.arraycopy(simplex.verticesOnB, offset, polytopeVerticesOnB, offset, 3);
+         numberOfPolytopeVertices++;
+      }
+
+      if (numberOfPolytopeVertices == 1)
+      {
+         for (int direction = 0; direction < 6 && numberOfPolytopeVertices == 1; direction++)
+         {
+            double sign = direction < 3 ? 1.0 : -1.0;
+            addPolytopeVertex(shapeA, shapeB, direction % 3 == 0 ? sign : 0.0, direction % 3 == 1 ? sign : 0.0, direction % 3 == 2 ? sign : 0.0);
+
+            if (distanceSquared(polytopeVertices, 3, polytopeVertices, 0) < DEGENERACY_TOLERANCE * DEGENERACY_TOLERANCE)
+               numberOfPolytopeVertices--;
+         }
+      }
+
+      if (numberOfPolytopeVertices == 2)
+      { // Searching around the edge for a vertex away from it.
+         double edgeX = polytopeVertices[3] - polytopeVertices[0];
+         double edgeY = polytopeVertices[4] - polytopeVertices[1];
+         double edgeZ = polytopeVertices[5] - polytopeVertices[2];
+         double edgeLength = Math.sqrt(edgeX * edgeX + edgeY * edgeY + edgeZ * edgeZ);
+         edgeX /= edgeLength;
+         edgeY /= edgeLength;
+         edgeZ /= edgeLength;
+
+         // First direction orthogonal to the edge, obtained from the axis the least aligned with the edge.
+         double firstX, firstY, firstZ;
+         if (Math.abs(edgeX) <= Math.abs(edgeY) && Math.abs(edgeX) <= Math.abs(edgeZ))
+         {
+            firstX = 0.0;
+            firstY = edgeZ;
+            firstZ = -edgeY;
+         }
+         else if (Math.abs(edgeY) <= Math.abs(edgeZ))
+         {
+            firstX = -edgeZ;
+            firstY = 0.0;
+            firstZ = edgeX;
+         }
+         else
+         {
+            firstX = edgeY;
+            firstY = -edgeX;
+            firstZ = 0.0;
+         }
+         double secondX = edgeY * firstZ - edgeZ * firstY;
+         double secondY = edgeZ * firstX - edgeX * firstZ;
+         double secondZ = edgeX * firstY - edgeY * firstX;
+
+         for (int step = 0; step < 6 && numberOfPolytopeVertices == 2; step++)
+         {
+            double cos = Math.cos(step * Math.PI / 3.0);
+            double sin = Math.sin(step * Math.PI / 3.0);
+            int offset = 3 * addPolytopeVertex(shapeA, shapeB, cos * firstX + sin * secondX, cos * firstY + sin * secondY, cos * firstZ + sin * secondZ);
+            double x = polytopeVertices[offset] - polytopeVertices[0];
+            double y = polytopeVertices[offset + 1] - polytopeVertices[1];
+            double z = polytopeVertices[offset + 2] - polytopeVertices[2];
+            double alongEdge = x * edgeX + y * edgeY + z * edgeZ;
+
+            if (x * x + y * y + z * z - alongEdge * alongEdge < DEGENERACY_TOLERANCE * DEGENERACY_TOLERANCE)
+               numberOfPolytopeVertices--;
+         }
+      }
+
+      if (numberOfPolytopeVertices == 3)
+      { // Searching on both sides of the triangle for a vertex away from its plane.
+         if (!computeTriangleNormal(0, 1, 2, 0))
+            return false;
+
+         for (double sign = 1.0; sign >= -1.0 && numberOfPolytopeVertices == 3; sign -= 2.0)
+         {
+            int offset = 3 * addPolytopeVertex(shapeA, shapeB, sign * faceNormals[0], sign * faceNormals[1], sign * faceNormals[2]);
+            double distanceToPlane = faceNormals[0] * (polytopeVertices[offset] - polytopeVertices[0])
+                  + faceNormals[1] * (polytopeVertices[offset + 1] - polytopeVertices[1])
+                  + faceNormals[2] * (polytopeVertices[offset + 2] - polytopeVertices[2]);
+
+            if (Math.abs(distanceToPlane) < DEGENERACY_TOLERANCE)
+               numberOfPolytopeVertices--;
+         }
+      }
+
+      if (numberOfPolytopeVertices != 4)
+         return false;
+
+      computeTriangleNormal(0, 1, 2, 0);
+      double volume = faceNormals[0] * (polytopeVertices[9] - polytopeVertices[0]) + faceNormals[1] * (polytopeVertices[10] - polytopeVertices[1])
+            + faceNormals[2] * (polytopeVertices[11] - polytopeVertices[2]);
+
+      if (Math.abs(volume) < DEGENERACY_TOLERANCE)
+         return false;
+
+      // The faces are ordered such that their normals point outside the tetrahedron.
+      numberOfFaces = 0;
+      if (volume > 0.0)
+      {
+         addFace(0, 2, 1);
+         addFace(0, 1, 3);
+         addFace(0, 3, 2);
+         addFace(1, 2, 3);
+      }
+      else
+      {
+         addFace(0, 1, 2);
+         addFace(0, 3, 1);
+         addFace(0, 2, 3);
+         addFace(1, 3, 2);
+      }
+      return true;
+   }
+
+   /**
+    * Adds to the polytope the supporting vertex of the Minkowski difference A - B in the given
+    * direction.
+    *
+    * @return the index of the new vertex.
+    */
+   private int addPolytopeVertex(Shape3D<?> shapeA, Shape3D<?> shapeB, double directionX, double directionY, double directionZ)
+   {
+      int offset = 3 * numberOfPolytopeVertices;
+      supportDirection.set(directionX, directionY, directionZ);
+      shapeA.getSupportingVertex(supportDirection, featurePoint);
+      setTriplet(polytopeVerticesOnA, offset, featurePoint.getX(), featurePoint.getY(), featurePoint.getZ());
+      supportDirection.negate();
+      shapeB.getSupportingVertex(supportDirection, featurePoint);
+      setTriplet(polytopeVerticesOnB, offset, featurePoint.getX(), featurePoint.getY(), featurePoint.getZ());
+
+      for (int i = offset; i < offset + 3; i++)
+         polytopeVertices[i] = polytopeVerticesOnA[i] - polytopeVerticesOnB[i];
+
+      return numberOfPolytopeVertices++;
+   }
+
+   /**
+    * Replaces the faces of the polytope that are visible from the new vertex with the faces joining
+    * the new vertex to the horizon, i.e. the boundary of the visible region.
+    * <p>
+    * The visible region is grown from the given face across the edges such that it remains connected
+    * despite the numerical errors. When the new vertex is almost coplanar with some faces, the region
+    * can still be inconsistent in which case the expansion is rejected such that the polytope remains
+    * convex and keeps enclosing the origin.
+    * </p>
+    *
+    * @param newVertex the index of the vertex to add to the polytope.
+    * @param visibleFace the index of a face visible from the new vertex.
+    * @return {@code false} if the polytope could not be expanded, in which case it has not been
+    *         modified.
+    */
+   private boolean expandPolytope(int newVertex, int visibleFace)
+   {
+      for (int face = 0; face < numberOfFaces; face++)
+         isFaceVisible[face] = false;
+
+      numberOfHorizonEdges = 0;
+      isFaceVisible[visibleFace] = true;
+      faceStack[0] = visibleFace;
+      int stackSize = 1;
+
+      while (stackSize > 0)
+      {
+         int face = faceStack[--stackSize];
+
+         for (int edge = 0; edge < 3; edge++)
+         {
+            int start = faceVertices[3 * face + edge];
+            int end = faceVertices[3 * face + (edge + 1) % 3];
+            int neighbor = findFaceWithEdge(end, start);
+
+            if (neighbor < 0)
+               return false;
+            if (isFaceVisible[neighbor])
+               continue;
+
+            if (isFaceVisible(neighbor, newVertex))
+            {
+               isFaceVisible[neighbor] = true;
+               faceStack[stackSize++] = neighbor;
+            }
+            else
+            {
+               if (numberOfHorizonEdges == MAX_NUMBER_OF_HORIZON_EDGES)
+                  return false;
+
+               horizonEdges[2 * numberOfHorizonEdges] = start;
+               horizonEdges[2 * numberOfHorizonEdges + 1] = end;
+               numberOfHorizonEdges++;
+            }
+         }
+      }
+
+      if (numberOfFaces + numberOfHorizonEdges > MAX_NUMBER_OF_EPA_FACES || !isHorizonSingleLoop())
+         return false;
+
+      int previousNumberOfFaces = numberOfFaces;
+
+      for (int edge = 0; edge < numberOfHorizonEdges; edge++)
+      {
+         addFace(horizonEdges[2 * edge], horizonEdges[2 * edge + 1], newVertex);
+
+         if (faceDistances[numberOfFaces - 1] < -EPA_TOLERANCE)
+         { // The origin would be outside the new face.
+            numberOfFaces = previousNumberOfFaces;
+            return false;
+         }
+      }
+
+      for (int face = 0; face < previousNumberOfFaces; face++)
+      {
+         if (isFaceVisible[face])
+            isFaceAlive[face] = false;
+      }
+
+      return true;
+   }
+
+   /**
+    * Finds the alive face that has the directed edge from {@code start} to {@code end}.
+    *
+    * @return the index of the face, or {@code -1} if there is none.
+    */
+   private int findFaceWithEdge(int start, int end)
+   {
+      for (int face = 0; face < numberOfFaces; face++)
+      {
+         if (!isFaceAlive[face])
+            continue;
+
+         for (int edge = 0; edge < 3; edge++)
+         {
+            if (faceVertices[3 * face + edge] == start && faceVertices[3 * face + (edge + 1) % 3] == end)
+               return face;
+         }
+      }
+      return -1;
+   }
+
+   private boolean isFaceVisible(int face, int vertex)
+   {
+      int vertexOffset = 3 * vertex;
+      int firstVertexOffset = 3 * faceVertices[3 * face];
+      return faceNormals[3 * face] * (polytopeVertices[vertexOffset] - polytopeVertices[firstVertexOffset])
+            + faceNormals[3 * face + 1] * (polytopeVertices[vertexOffset + 1] - polytopeVertices[firstVertexOffset + 1])
+            + faceNormals[3 * face + 2] * (polytopeVertices[vertexOffset + 2] - polytopeVertices[firstVertexOffset + 2]) > 0.0;
+   }
+
+   /**
+    * Tests whether the horizon edges form a single closed loop, which is the case when the visible
+    * region is a topological disk.
+    */
+   private boolean isHorizonSingleLoop()
+   {
+      if (numberOfHorizonEdges < 3)
+         return false;
+
+      int start = horizonEdges[0];
+      int current = horizonEdges[1];
+
+      for (int step = 1; step < numberOfHorizonEdges; step++)
+      {
+         if (current == start) // The loop closes before going through all the edges.
+            return false;
+
+         int next = -1;
+
+         for (int edge = 0; edge < numberOfHorizonEdges; edge++)
+         {
+            if (horizonEdges[2 * edge] == current)
+            {
+               if (next >= 0)
+                  return false;
+               next = horizonEdges[2 * edge + 1];
+            }
+         }
+
+         if (next < 0)
+            return false;
+         current = next;
+      }
+
+      return current == start;
+   }
+
+   private void addFace(int a, int b, int c)
+   {
+      int face = numberOfFaces++;
+      faceVertices[3 * face] = a;
+      faceVertices[3 * face + 1] = b;
+      faceVertices[3 * face + 2] = c;
+      isFaceAlive[face] = true;
+
+      if (computeTriangleNormal(a, b, c, face))
+         faceDistances[face] = dot(faceNormals, 3 * face, polytopeVertices, 3 * a);
+      else // A degenerate face is never the closest one.
+         faceDistances[face] = Double.POSITIVE_INFINITY;
+   }
+
+   /**
+    * Computes the unit normal of the triangle (a, b, c) of the polytope and stores it in
+    * {@link #faceNormals} at the given face.
+    *
+    * @return {@code false} if the triangle is degenerate, in which case the normal is zero.
+    */
+   private boolean computeTriangleNormal(int a, int b, int c, int face)
+   {
+      double abX = polytopeVertices[3 * b] - polytopeVertices[3 * a];
+      double abY = polytopeVertices[3 * b + 1] - polytopeVertices[3 * a + 1];
+      double abZ = polytopeVertices[3 * b + 2] - polytopeVertices[3 * a + 2];
+      double acX = polytopeVertices[3 * c] - polytopeVertices[3 * a];
+      double acY = polytopeVertices[3 * c + 1] - polytopeVertices[3 * a + 1];
+      double acZ = polytopeVertices[3 * c + 2] - polytopeVertices[3 * a + 2];
+      double normalX = abY * acZ - abZ * acY;
+      double normalY = abZ * acX - abX * acZ;
+      double normalZ = abX * acY - abY * acX;
+      double norm = Math.sqrt(normalX * normalX + normalY * normalY + normalZ * normalZ);
+      double edgeLengthProduct = Math.sqrt((abX * abX + abY * abY + abZ * abZ) * (acX * acX + acY * acY + acZ * acZ));
+
+      // The normal of a sliver triangle is dominated by the round-off errors.
+      if (!(norm > SLIVER_TOLERANCE * edgeLengthProduct))
+      {
+         setTriplet(faceNormals, 3 * face, 0.0, 0.0, 0.0);
+         return false;
+      }
+
+      setTriplet(faceNormals, 3 * face, normalX / norm, normalY / norm, normalZ / norm);
+      return true;
+   }
+
+   /**
+    * Registers as a candidate the contact described by the given face of the polytope: the normal is
+    * the face normal and the contact points are recovered from the barycentric coordinates of the
+    * projection of the origin onto the face, and are then projected onto the surface of their shape.
+    *
+    * @return {@code true} if the contact has a strictly positive depth.
+    */
+   private boolean packPenetrationCandidate(Shape3D<?> shapeA, Shape3D<?> shapeB, int face)
+   {
+      // Flat parts of A - B are split into coplanar faces at the same distance, the projection of the origin is only inside one of them.
+      double minCoordinate = computeFaceCoordinates(face);
+
+      for (int other = 0; other < numberOfFaces && minCoordinate < 0.0; other++)
+      {
+         if (!isFaceAlive[other] || other == face || faceDistances[other] > faceDistances[face] + EPA_TOLERANCE)
+            continue;
+
+         double otherMinCoordinate = computeFaceCoordinates(other);
+
+         if (otherMinCoordinate > minCoordinate)
+         {
+            face = other;
+            minCoordinate = otherMinCoordinate;
+         }
+      }
+
+      computeFaceCoordinates(face);
+      int a = 3 * faceVertices[3 * face];
+      int b = 3 * faceVertices[3 * face + 1];
+      int c = 3 * faceVertices[3 * face + 2];
+      int normalOffset = 3 * face;
+      double normalX = faceNormals[normalOffset];
+      double normalY = faceNormals[normalOffset + 1];
+      double normalZ = faceNormals[normalOffset + 2];
+
+      projectOntoSurface(shapeA, polytopeVerticesOnA, a, b, c);
+      double pointOnAX = closestPoint.getX(), pointOnAY = closestPoint.getY(), pointOnAZ = closestPoint.getZ();
+      projectOntoSurface(shapeB, polytopeVerticesOnB, a, b, c);
+
+      double depth = normalX * (pointOnAX - closestPoint.getX()) + normalY * (pointOnAY - closestPoint.getY()) + normalZ * (pointOnAZ - closestPoint.getZ());
+
+      if (!(depth > 0.0))
+         return false;
+
+      addCandidate(pointOnAX, pointOnAY, pointOnAZ, closestPoint.getX(), closestPoint.getY(), closestPoint.getZ(), normalX, normalY, normalZ, depth);
+      return true;
+   }
+
+   /**
+    * Computes the barycentric coordinates of the projection of the origin onto the given face of the
+    * polytope and stores them in {@link #faceCoordinates}.
+    *
+    * @return the smallest of the three coordinates, it is negative if the projection is outside the
+    *         face.
+    */
+   private double computeFaceCoordinates(int face)
+   {
+      int a = 3 * faceVertices[3 * face];
+      int b = 3 * faceVertices[3 * face + 1];
+      int c = 3 * faceVertices[3 * face + 2];
+      double distance = faceDistances[face];
+
+      double abX = polytopeVertices[b] - polytopeVertices[a], abY = polytopeVertices[b + 1] - polytopeVertices[a + 1],
+            abZ = polytopeVertices[b + 2] - polytopeVertices[a + 2];
+      double acX = polytopeVertices[c] - polytopeVertices[a], acY = polytopeVertices[c + 1] - polytopeVertices[a + 1],
+            acZ = polytopeVertices[c + 2] - polytopeVertices[a + 2];
+      double apX = distance * faceNormals[3 * face] - polytopeVertices[a], apY = distance * faceNormals[3 * face + 1] - polytopeVertices[a + 1],
+            apZ = distance * faceNormals[3 * face + 2] - polytopeVertices[a + 2];
+      double d00 = abX * abX + abY * abY + abZ * abZ;
+      double d01 = abX * acX + abY * acY + abZ * acZ;
+      double d11 = acX * acX + acY * acY + acZ * acZ;
+      double d20 = apX * abX + apY * abY + apZ * abZ;
+      double d21 = apX * acX + apY * acY + apZ * acZ;
+      double denominator = d00 * d11 - d01 * d01;
+      faceCoordinates[1] = (d11 * d20 - d01 * d21) / denominator;
+      faceCoordinates[2] = (d00 * d21 - d01 * d20) / denominator;
+      faceCoordinates[0] = 1.0 - faceCoordinates[1] - faceCoordinates[2];
+      return Math.min(faceCoordinates[0], Math.min(faceCoordinates[1], faceCoordinates[2]));
+   }
+
+   /**
+    * Interpolates the supporting vertices of a shape with the barycentric coordinates stored in
+    * {@link #faceCoordinates} and packs the point of the shape surface closest to the result in
+    * {@link #closestPoint}.
+    */
+   private void projectOntoSurface(Shape3D<?> shape, double[] shapeVertices, int a, int b, int c)
+   {
+      double alpha = faceCoordinates[0], beta = faceCoordinates[1], gamma = faceCoordinates[2];
+      featurePoint.set(alpha * shapeVertices[a] + beta * shapeVertices[b] + gamma * shapeVertices[c],
+                       alpha * shapeVertices[a + 1] + beta * shapeVertices[b + 1] + gamma * shapeVertices[c + 1],
+                       alpha * shapeVertices[a + 2] + beta * shapeVertices[b + 2] + gamma * shapeVertices[c + 2]);
+      shape.checkIfInside(featurePoint, closestPoint, surfaceNormal);
+   }
+
+   /**
+    * The torus tube being the set of points within the tube radius from its center circle, the shapes
+    * overlap where the other shape is closer than the tube radius to the center circle. The distance
+    * to the center circle is sampled and each of its local minima is refined with a golden-section
+    * search to provide a candidate.
+    */
+   private void computeShapeTorus(Shape3D<?> shapeA, Shape3D<?> shapeB, ContactManifold3D manifoldToPack)
+   {
+      Torus3D torus = (Torus3D) shapeB;
+      double tubeRadius = torus.getTubeRadius();
+      double sampleAngle = 2.0 * Math.PI / NUMBER_OF_TORUS_SAMPLES;
+      numberOfCandidates = 0;
+
+      for (int i = 0; i < NUMBER_OF_TORUS_SAMPLES; i++)
+         torusSamples[i] = computeDistanceToCircle(shapeA, torus, i * sampleAngle);
+
+      for (int i = 0; i < NUMBER_OF_TORUS_SAMPLES; i++)
+      {
+         double previous = torusSamples[(i + NUMBER_OF_TORUS_SAMPLES - 1) % NUMBER_OF_TORUS_SAMPLES];
+         double next = torusSamples[(i + 1) % NUMBER_OF_TORUS_SAMPLES];
+
+         if (torusSamples[i] > previous || torusSamples[i] > next)
+            continue;
+
+         computeDistanceToCircle(shapeA, torus, computeLocalMinimum(shapeA, torus, (i - 1) * sampleAngle, (i + 1) * sampleAngle));
+         double circleX = featurePoint.getX(), circleY = featurePoint.getY(), circleZ = featurePoint.getZ();
+         boolean isInside = shapeA.checkIfInside(featurePoint, closestPoint, surfaceNormal);
+         double distance = featurePoint.distance(closestPoint);
+
+         if (!(tubeRadius - (isInside ? -distance : distance) > 0.0))
+            continue;
+
+         double pointOnAX = closestPoint.getX(), pointOnAY = closestPoint.getY(), pointOnAZ = closestPoint.getZ();
+         // The surface normal of A points toward B.
+         double normalX = surfaceNormal.getX(), normalY = surfaceNormal.getY(), normalZ = surfaceNormal.getZ();
+         // The deepest point of the tube is opposite to the normal, it is on the torus only where the normal is orthogonal to the circle.
+         featurePoint.set(circleX - tubeRadius * normalX, circleY - tubeRadius * normalY, circleZ - tubeRadius * normalZ);
+         torus.checkIfInside(featurePoint, closestPoint, surfaceNormal);
+         double depth = normalX * (pointOnAX - closestPoint.getX()) + normalY * (pointOnAY - closestPoint.getY()) + normalZ * (pointOnAZ - closestPoint.getZ());
+
+         if (depth > 0.0)
+            addCandidate(pointOnAX, pointOnAY, pointOnAZ, closestPoint.getX(), closestPoint.getY(), closestPoint.getZ(), normalX, normalY, normalZ, depth);
+      }
+
+      reduceCandidates(manifoldToPack);
+   }
+
+   /**
+    * Searches with a golden-section search the angle in [lower, upper] at which the center circle of
+    * the torus is the closest to the shape.
+    */
+   private double computeLocalMinimum(Shape3D<?> shape, Torus3D torus, double lower, double upper)
+   {
+      double first = upper - INVERSE_GOLDEN_RATIO * (upper - lower);
+      double second = lower + INVERSE_GOLDEN_RATIO * (upper - lower);
+      double firstDistance = computeDistanceToCircle(shape, torus, first);
+      double secondDistance = computeDistanceToCircle(shape, torus, second);
+
+      while (upper - lower > TORUS_ANGLE_TOLERANCE)
+      {
+         if (firstDistance < secondDistance)
+         {
+            upper = second;
+            second = first;
+            secondDistance = firstDistance;
+            first = upper - INVERSE_GOLDEN_RATIO * (upper - lower);
+            firstDistance = computeDistanceToCircle(shape, torus, first);
+         }
+         else
+         {
+            lower = first;
+            first = second;
+            firstDistance = secondDistance;
+            second = lower + INVERSE_GOLDEN_RATIO * (upper - lower);
+            secondDistance = computeDistanceToCircle(shape, torus, second);
+         }
+      }
+
+      return 0.5 * (lower + upper);
+   }
+
+   /**
+    * Packs in {@link #featurePoint} the point of the center circle of the torus at the given angle
+    * and computes its signed distance to the shape.
+    */
+   private double computeDistanceToCircle(Shape3D<?> shape, Torus3D torus, double angle)
+   {
+      RotationMatrixReadOnly orientation = torus.getOrientation();
+      double localX = torus.getRadius() * Math.cos(angle);
+      double localY = torus.getRadius() * Math.sin(angle);
+      featurePoint.set(torus.getPositionX() + orientation.getM00() * localX + orientation.getM01() * localY,
+                       torus.getPositionY() + orientation.getM10() * localX + orientation.getM11() * localY,
+                       torus.getPositionZ() + orientation.getM20() * localX + orientation.getM21() * localY);
+      return shape.signedDistance(featurePoint);
+   }
+
+   /**
+    * Tests the characteristic points of {@code shape} against {@code other}: the vertices for the
+    * polyhedral shapes, and otherwise the support points along the axes of both shapes and along the
+    * line joining their origins.
+    */
+   private void evaluateFeaturePoints(Shape3D<?> shape, Shape3D<?> other, boolean isShapeA)
+   {
+      if (shape instanceof Box3D)
+      {
+         Box3D box = (Box3D) shape;
+
+         for (int vertexIndex = 0; vertexIndex < 8; vertexIndex++)
+         {
+            box.getVertex(vertexIndex, featurePoint);
+            evaluateFeaturePoint(other, isShapeA, featurePoint.getX(), featurePoint.getY(), featurePoint.getZ());
+         }
+      }
+      else if (shape instanceof Ramp3D)
+      {
+         Ramp3D ramp = (Ramp3D) shape;
+         double halfWidth = 0.5 * ramp.getWidth();
+
+         for (int vertexIndex = 0; vertexIndex < 6; vertexIndex++)
+         {
+            double y = (vertexIndex & 1) == 0 ? halfWidth : -halfWidth;
+            double x = vertexIndex < 2 ? 0.0 : ramp.getLength();
+            double z = vertexIndex < 4 ? 0.0 : ramp.getHeight();
+            featurePoint.set(x, y, z);
+            ramp.transformToWorld(featurePoint);
+            evaluateFeaturePoint(other, isShapeA, featurePoint.getX(), featurePoint.getY(), featurePoint.getZ());
+         }
+      }
+      else
+      {
+         RotationMatrixReadOnly shapeOrientation = shape.getOrientation();
+         RotationMatrixReadOnly otherOrientation = other.getOrientation();
+
+         for (int axis = 0; axis < 3; axis++)
+         {
+            for (double sign = -1.0; sign <= 1.0; sign += 2.0)
+            {
+               evaluateSupportPoint(shape, other, isShapeA, sign * otherOrientation.getElement(0, axis), sign * otherOrientation.getElement(1, axis),
+                                    sign * otherOrientation.getElement(2, axis));
+               evaluateSupportPoint(shape, other, isShapeA, sign * shapeOrientation.getElement(0, axis), sign * shapeOrientation.getElement(1, axis),
+                                    sign * shapeOrientation.getElement(2, axis));
+            }
+         }
+
+         double dx = other.getPositionX() - shape.getPositionX();
+         double dy = other.getPositionY() - shape.getPositionY();
+         double dz = other.getPositionZ() - shape.getPositionZ();
+         if (dx * dx + dy * dy + dz * dz > MIN_CONTACT_SEPARATION * MIN_CONTACT_SEPARATION)
+            evaluateSupportPoint(shape, other, isShapeA, dx, dy, dz);
+      }
+   }
+
+   private void evaluateSupportPoint(Shape3D<?> shape, Shape3D<?> other, boolean isShapeA, double directionX, double directionY, double directionZ)
+   {
+      supportDirection.set(directionX, directionY, directionZ);
+      shape.getSupportingVertex(supportDirection, featurePoint);
+      evaluateFeaturePoint(other, isShapeA, featurePoint.getX(), featurePoint.getY(), featurePoint.getZ());
+   }
+
+   /**
+    * Tests whether the given point of one shape is inside the {@code other} shape and registers it as
+    * a candidate contact if so.
+    */
+   private void evaluateFeaturePoint(Shape3D<?> other, boolean isPointOnA, double x, double y, double z)
+   {
+      if (numberOfCandidates >= MAX_NUMBER_OF_CANDIDATES)
+         return;
+
+      featurePoint.set(x, y, z);
+
+      if (!other.checkIfInside(featurePoint, closestPoint, surfaceNormal))
+         return;
+
+      double depth = featurePoint.distance(closestPoint);
+
+      if (!(depth > 0.0))
+         return;
+
+      if (isPointOnA) // The surface normal of B points toward A.
+         addCandidate(x, y, z, closestPoint.getX(), closestPoint.getY(), closestPoint.getZ(), -surfaceNormal.getX(), -surfaceNormal.getY(),
+                      -surfaceNormal.getZ(), depth);
+      else // The surface normal of A points toward B.
+         addCandidate(closestPoint.getX(), closestPoint.getY(), closestPoint.getZ(), x, y, z, surfaceNormal.getX(), surfaceNormal.getY(), surfaceNormal.getZ(),
+                      depth);
+   }
+
+   private void addCandidate(double xOnA, double yOnA, double zOnA, double xOnB, double yOnB, double zOnB, double normalX, double normalY, double normalZ,
+                             double depth)
+   {
+      if (numberOfCandidates >= MAX_NUMBER_OF_CANDIDATES)
+         return;
+
+      int index = 3 * numberOfCandidates;
+      setTriplet(candidatesOnA, index, xOnA, yOnA, zOnA);
+      setTriplet(candidatesOnB, index, xOnB, yOnB, zOnB);
+      setTriplet(candidateNormals, index, normalX, normalY, normalZ);
+      candidateDepths[numberOfCandidates] = depth;
+      numberOfCandidates++;
+   }
+
+   /**
+    * Selects the contacts among the candidates using the deepest candidate as the reference.
+    */
+   private void reduceCandidates(ContactManifold3D manifoldToPack)
+   {
+      if (numberOfCandidates == 0)
+         return;
+
+      int deepest = 0;
+      for (int i = 1; i < numberOfCandidates; i++)
+      {
+         if (candidateDepths[i] > candidateDepths[deepest])
+            deepest = i;
+      }
+
+      reduceCandidates(deepest, manifoldToPack);
+   }
+
+   /**
+    * Selects the contacts among the candidates: the normal of the reference candidate is used as the
+    * manifold normal, the candidates with a different normal are discarded, and the remaining ones
+    * are selected to be as spread out as possible starting from the reference candidate.
+    */
+   private void reduceCandidates(int reference, ContactManifold3D manifoldToPack)
+   {
+      for (int i = 0; i < numberOfCandidates; i++)
+         isCandidateAvailable[i] = dot(candidateNormals, 3 * i, candidateNormals, 3 * reference) >= MIN_NORMAL_ALIGNMENT;
+
+      manifoldToPack.setNormal(candidateNormals[3 * reference], candidateNormals[3 * reference + 1], candidateNormals[3 * reference + 2]);
+      selectedCandidates[0] = reference;
+      isCandidateAvailable[reference] = false;
+      int numberOfSelected = 1;
+
+      while (numberOfSelected < MAX_NUMBER_OF_REDUCED_CONTACTS)
+      {
+         int farthest = -1;
+         double farthestDistanceSquared = MIN_CONTACT_SEPARATION * MIN_CONTACT_SEPARATION;
+
+         for (int i = 0; i < numberOfCandidates; i++)
+         {
+            if (!isCandidateAvailable[i])
+               continue;
+
+            double minDistanceSquared = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < numberOfSelected; j++)
+               minDistanceSquared = Math.min(minDistanceSquared, distanceSquared(candidatesOnB, 3 * i, candidatesOnB, 3 * selectedCandidates[j]));
+
+            if (minDistanceSquared > farthestDistanceSquared)
+            {
+               farthestDistanceSquared = minDistanceSquared;
+               farthest = i;
+            }
+         }
+
+         if (farthest < 0)
+            break;
+
+         selectedCandidates[numberOfSelected++] = farthest;
+         isCandidateAvailable[farthest] = false;
+      }
+
+      for (int i = 0; i < numberOfSelected; i++)
+      {
+         int index = 3 * selectedCandidates[i];
+         manifoldToPack.addContact(candidatesOnA[index], candidatesOnA[index + 1], candidatesOnA[index + 2], candidatesOnB[index], candidatesOnB[index + 1],
+                                   candidatesOnB[index + 2], candidateDepths[selectedCandidates[i]]);
+      }
+   }
+
+   private static void setTriplet(double[] array, int index, double x, double y, double z)
+   {
+      array[index] = x;
+      array[index + 1] = y;
+      array[index + 2] = z;
+   }
+
+   private static double dot(double[] a, int offsetA, double[] b, int offsetB)
+   {
+      return a[offsetA] * b[offsetB] + a[offsetA + 1] * b[offsetB + 1] + a[offsetA + 2] * b[offsetB + 2];
+   }
+
+   private static double distanceSquared(double[] a, int offsetA, double[] b, int offsetB)
+   {
+      double dx = a[offsetA] - b[offsetB];
+      double dy = a[offsetA + 1] - b[offsetB + 1];
+      double dz = a[offsetA + 2] - b[offsetB + 2];
+      return dx * dx + dy * dy + dz * dz;
+   }
+}
@@ -0,0 +1,283 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import us.ihmc.euclid.geometry.RTree2D.EntryVisitor;
+import us.ihmc.euclid.geometry.interfaces.BoundingBox2DReadOnly;
+import us.ihmc.euclid.geometry.interfaces.ConvexPolygon2DReadOnly;
+import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
+
+/**
+ * {@code ConvexPolygon2DRTree} locates the convex polygons of a collection that contain a given
+ * point.
+ * <p>
+ * The bounding boxes of the polygons are indexed in a {@link RTree2D} which quickly discards the
+ * polygons far from the query, the remaining candidates are then tested exactly with
+ * {@link ConvexPolygon2DReadOnly#isPointInside(double, double, double)}.
+ * </p>
+ * <p>
+ * The polygons are referenced, not copied: a polygon must not be modified while in this tree, it has
+ * to be removed and added again instead. The queries are not thread-safe.
+ * </p>
+ */
+public class ConvexPolygon2DRTree
+{
+   private final RTree2D rTree = new RTree2D();
+   /** The polygon associated to each identifier of {@link #rTree}. */
+   private final List<ConvexPolygon2DReadOnly> polygons = new ArrayList<>();
+   private final List<BoundingBox2DReadOnly> boundingBoxes = new ArrayList<>();
+
+   // Internal variables used to enable garbage free operations.
+   private final ExactContainmentVisitor exactContainmentVisitor = new ExactContainmentVisitor();
+
+   /**
+    * Creates a new empty tree.
+    */
+   public ConvexPolygon2DRTree()
+   {
+   }
+
+   /**
+    * Removes all the polygons from this tree.
+    */
+   public void clear()
+   {
+      rTree.clear();
+      polygons.clear();
+   }
+
+   /**
+    * Gets the number of polygons in this tree.
+    *
+    * @return the number of polygons.
+    */
+   public int size()
+   {
+      return rTree.size();
+   }
+
+   /**
+    * Whether this tree is empty.
+    *
+    * @return {@code true} if there is no polygon, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return rTree.isEmpty();
+   }
+
+   /**
+    * Builds this tree from the given polygons, the i<sup>th</sup> polygon being referred to by the
+    * identifier {@code i}.
+    *
+    * @param polygons the polygons to index. Not modified.
+    * @throws RuntimeException if any of the polygons is empty.
+    */
+   public void build(List<? extends ConvexPolygon2DReadOnly> polygons)
+   {
+      collectBoundingBoxes(polygons);
+      rTree.build(boundingBoxes);
+      boundingBoxes.clear();
+   }
+
+   /**
+    * Builds this tree from the given polygons using multiple threads, the i<sup>th</sup> polygon
+    * being referred to by the identifier {@code i}.
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param polygons the polygons to index. Not modified.
+    * @throws RuntimeException if any of the polygons is empty.
+    * @see RTree2D#buildParallel(List)
+    */
+   public void buildParallel(List<? extends ConvexPolygon2DReadOnly> polygons)
+   {
+      collectBoundingBoxes(polygons);
+      rTree.buildParallel(boundingBoxes);
+      boundingBoxes.clear();
+   }
+
+   private void collectBoundingBoxes(List<? extends ConvexPolygon2DReadOnly> polygons)
+   {
+      this.polygons.clear();
+      boundingBoxes.clear();
+
+      for (int i = 0; i < polygons.size(); i++)
+      {
+         this.polygons.add(polygons.get(i));
+         boundingBoxes.add(polygons.get(i).getBoundingBox());
+      }
+   }
+
+   /**
+    * Adds a polygon to this tree.
+    *
+    * @param polygon the polygon to add. Not modified.
+    * @return the identifier of the new polygon.
+    * @throws RuntimeException if the polygon is empty.
+    */
+   public int add(ConvexPolygon2DReadOnly polygon)
+   {
+      int id = rTree.add(polygon.getBoundingBox());
+
+      if (id == polygons.size())
+         polygons.add(polygon);
+      else
+         polygons.set(id, polygon);
+
+      return id;
+   }
+
+   /**
+    * Removes a polygon from this tree.
+    *
+    * @param id the identifier of the polygon to remove.
+    * @return {@code true} if the polygon was removed, {@code false} if there was no polygon with the
+    *         given identifier.
+    */
+   public boolean remove(int id)
+   {
+      if (!rTree.remove(id))
+         return false;
+
+      if (rTree.isEmpty())
+         polygons.clear();
+      else
+         polygons.set(id, null);
+      return true;
+   }
+
+   /**
+    * Whether this tree contains a polygon with the given identifier.
+    *
+    * @param id the identifier to test.
+    * @return {@code true} if there is a polygon with this identifier, {@code false} otherwise.
+    */
+   public boolean contains(int id)
+   {
+      return rTree.contains(id);
+   }
+
+   /**
+    * Gets the polygon with the given identifier.
+    *
+    * @param id the identifier of the polygon.
+    * @return the polygon.
+    * @throws IllegalArgumentException if there is no polygon with the given identifier.
+    */
+   public ConvexPolygon2DReadOnly getPolygon(int id)
+   {
+      if (!contains(id))
+         throw new IllegalArgumentException("There is no polygon with the identifier: " + id);
+
+      return polygons.get(id);
+   }
+
+   /**
+    * Gets the tree indexing the bounding boxes of the polygons, it can be used for box and ray queries
+    * on the bounding boxes.
+    *
+    * @return the tree of bounding boxes.
+    */
+   public RTree2D getRTree()
+   {
+      return rTree;
+   }
+
+   /**
+    * Finds all the polygons of this tree that contain the given point.
+    *
+    * @param query the query. Not modified.
+    * @param visitor the visitor notified of each polygon found, in no particular order. Modified.
+    */
+   public void findContaining(Point2DReadOnly query, EntryVisitor visitor)
+   {
+      findContaining(query.getX(), query.getY(), 0.0, visitor);
+   }
+
+   /**
+    * Finds all the polygons of this tree that contain the given point.
+    *
+    * @param x the x-coordinate of the query.
+    * @param y the y-coordinate of the query.
+    * @param visitor the visitor notified of each polygon found, in no particular order. Modified.
+    */
+   public void findContaining(double x, double y, EntryVisitor visitor)
+   {
+      findContaining(x, y, 0.0, visitor);
+   }
+
+   /**
+    * Finds all the polygons of this tree that contain the given point given the tolerance
+    * {@code epsilon}.
+    *
+    * @param x the x-coordinate of the query.
+    * @param y the y-coordinate of the query.
+    * @param epsilon the tolerance to use during the test, see
+    *           {@link ConvexPolygon2DReadOnly#isPointInside(double, double, double)}.
+    * @param visitor the visitor notified of each polygon found, in no particular order. Modified.
+    */
+   public void findContaining(double x, double y, double epsilon, EntryVisitor visitor)
+   {
+      double margin = Math.max(0.0, epsilon);
+      exactContainmentVisitor.set(x, y, epsilon, visitor);
+      rTree.findIntersecting(x - margin, y - margin, x + margin, y + margin, exactContainmentVisitor);
+      exactContainmentVisitor.set(0.0, 0.0, 0.0, null);
+   }
+
+   /**
+    * Finds a polygon of this tree that contains the given point.
+    *
+    * @param query the query. Not modified.
+    * @return the identifier of a polygon containing the query or {@code -1} if there is none.
+    */
+   public int findFirstContaining(Point2DReadOnly query)
+   {
+      return findFirstContaining(query.getX(), query.getY());
+   }
+
+   /**
+    * Finds a polygon of this tree that contains the given point.
+    *
+    * @param x the x-coordinate of the query.
+    * @param y the y-coordinate of the query.
+    * @return the identifier of a polygon containing the query or {@code -1} if there is none.
+    */
+   public int findFirstContaining(double x, double y)
+   {
+      exactContainmentVisitor.firstId = -1;
+      findContaining(x, y, 0.0, null);
+      return exactContainmentVisitor.firstId;
+   }
+
+   private class ExactContainmentVisitor implements EntryVisitor
+   {
+      private double x, y, epsilon;
+      /** The visitor to notify, or {@code null} to stop at the first polygon found. */
+      private EntryVisitor delegate;
+      private int firstId = -1;
+
+      private void set(double x, double y, double epsilon, EntryVisitor delegate)
+      {
+         this.x = x;
+         this.y = y;
+         this.epsilon = epsilon;
+         this.delegate = delegate;
+      }
+
+      @Override
+      public boolean visit(int id)
+      {
+         if (!polygons.get(id).isPointInside(x, y, epsilon))
+            return true;
+
+         if (delegate != null)
+            return delegate.visit(id);
+
+         firstId = id;
+         return false;
+      }
+   }
+}
@@ -23,6 +23,9 @@ import us.ihmc.euclid.tuple3D.interfaces.Vector3DReadOnly;
  */
 public class Cylinder3D extends Shape3D<Cylinder3D>
 {
+   /** Relative threshold below which a support direction is considered to be parallel to the axis. */
+   private static final double SUPPORT_DIRECTION_EPSILON = 1.0e-12;
+
    /** Radius of the cylinder part. */
    private double radius;
    /**
@@ -116,6 +119,7 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
       if (radius < 0.0)
          throw new IllegalArgumentException("The radius of a Cylinder3D cannot be negative: " + radius);
       this.radius = radius;
+      notifyShapeChanged();
    }
 
    /**
@@ -129,6 +133,7 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
       if (height < 0.0)
          throw new IllegalArgumentException("The height of a Cylinder3D cannot be negative: " + height);
       this.height = height;
+      notifyShapeChanged();
    }
 
    /**
@@ -165,6 +170,7 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
       super.setToNaN();
       height = Double.NaN;
       radius = Double.NaN;
+      notifyShapeChanged();
    }
 
    /** {@inheritDoc} */
@@ -174,6 +180,7 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
       super.setToZero();
       height = 0.0;
       radius = 0.0;
+      notifyShapeChanged();
    }
 
    /**
@@ -232,13 +239,13 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
    public int intersectionWith(Point3DReadOnly pointOnLine, Vector3DReadOnly lineDirection, Point3DBasics firstIntersectionToPack,
                                Point3DBasics secondIntersectionToPack)
    {
-      double xLocal = TransformationTools.computeTransformedX(shapePose, true, pointOnLine);
-      double yLocal = TransformationTools.computeTransformedY(shapePose, true, pointOnLine);
-      double zLocal = TransformationTools.computeTransformedZ(shapePose, true, pointOnLine);
+      double xLocal = toLocalX(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
+      double yLocal = toLocalY(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
+      double zLocal = toLocalZ(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
 
-      double dxLocal = TransformationTools.computeTransformedX(shapePose, true, lineDirection);
-      double dyLocal = TransformationTools.computeTransformedY(shapePose, true, lineDirection);
-      double dzLocal = TransformationTools.computeTransformedZ(shapePose, true, lineDirection);
+      double dxLocal = TransformationTools.computeTransformedX(getOrientation(), true, lineDirection);
+      double dyLocal = TransformationTools.computeTransformedY(getOrientation(), true, lineDirection);
+      double dzLocal = TransformationTools.computeTransformedZ(getOrientation(), true, lineDirection);
 
       double halfHeight = 0.5 * height;
       int numberOfIntersections = EuclidGeometryTools.intersectionBetweenLine3DAndCylinder3D(-halfHeight, halfHeight, radius, xLocal, yLocal, zLocal, dxLocal,
@@ -251,6 +258,28 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
       return numberOfIntersections;
    }
 
+   /** {@inheritDoc} */
+   @Override
+   protected void getBoundingBoxShapeFrame(double epsilon, BoundingBox3D boundingBoxToPack)
+   {
+      double radiusWithEpsilon = radius + epsilon;
+      double halfHeightPlusEpsilon = 0.5 * height + epsilon;
+      boundingBoxToPack.set(-radiusWithEpsilon, -radiusWithEpsilon, -halfHeightPlusEpsilon, radiusWithEpsilon, radiusWithEpsilon, halfHeightPlusEpsilon);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   protected void getSupportingVertexShapeFrame(double directionX, double directionY, double directionZ, Point3DBasics supportingVertexToPack)
+   {
+      double capZ = directionZ > 0.0 ? 0.5 * height : directionZ < 0.0 ? -0.5 * height : 0.0;
+      double directionXYNorm = Math.sqrt(directionX * directionX + directionY * directionY);
+
+      if (directionXYNorm > SUPPORT_DIRECTION_EPSILON * Math.abs(directionZ))
+         supportingVertexToPack.set(radius * directionX / directionXYNorm, radius * directionY / directionXYNorm, capZ);
+      else // Along the axis, the center of the cap is picked among the points of its rim.
+         supportingVertexToPack.set(0.0, 0.0, capZ);
+   }
+
    /** {@inheritDoc} */
    @Override
    protected boolean isInsideEpsilonShapeFrame(double x, double y, double z, double epsilon)
@@ -325,6 +354,15 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
          }
          else
          { // Closer to the cylinder part
+            if (xyLength == 0.0)
+            { // The query is on the axis, any radial direction leads to a closest point.
+               if (closestPointOnSurfaceToPack != null)
+                  closestPointOnSurfaceToPack.set(radius, 0.0, z);
+               if (normalToPack != null)
+                  normalToPack.set(1.0, 0.0, 0.0);
+               return -radius;
+            }
+
             if (closestPointOnSurfaceToPack != null)
             {
                double xyScale = radius / xyLength;
@@ -393,6 +431,34 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
       }
    }
 
+   /** {@inheritDoc} */
+   @Override
+   protected void signedDistanceShapeFrame(double[] xs, double[] ys, double[] zs, int length, double[] signedDistancesToPack, int offset)
+   {
+      if (radius <= 0.0 || height <= 0.0)
+      {
+         for (int i = 0; i < length; i++)
+            signedDistancesToPack[offset + i] = Double.NaN;
+         return;
+      }
+
+      double halfHeight = 0.5 * height;
+
+      for (int i = 0; i < length; i++)
+      {
+         double x = xs[i];
+         double y = ys[i];
+         // Signed distances to the side and to the caps, positive when outside.
+         double dr = Math.sqrt(x * x + y * y) - radius;
+         double dz = Math.abs(zs[i]) - halfHeight;
+
+         if (dr > 0.0 && dz > 0.0)
+            signedDistancesToPack[offset + i] = Math.sqrt(dr * dr + dz * dz);
+         else
+            signedDistancesToPack[offset + i] = Math.max(dr, dz);
+      }
+   }
+
    /**
     * Provides a {@code String} representation of this cylinder 3D as follows:<br>
     * Cylinder 3D: height = h, radius = r, pose = <br>
@@ -427,7 +493,7 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
       if (Math.abs(radius - other.radius) > epsilon || Math.abs(height - other.height) > epsilon)
          return false;
 
-      if (!shapePose.getTranslationVector().geometricallyEquals(other.shapePose.getTranslationVector(), epsilon))
+      if (!geometricallyEqualsPosition(other, epsilon))
          return false;
 
       /*
@@ -440,7 +506,7 @@ public class Cylinder3D extends Shape3D<Cylinder3D>
        * vectors.
        */
 
-      return EuclidGeometryTools.areVector3DsParallel(shapePose.getM02(), shapePose.getM12(), shapePose.getM22(), other.shapePose.getM02(),
-                                                      other.shapePose.getM12(), other.shapePose.getM22(), epsilon);
+      return EuclidGeometryTools.areVector3DsParallel(getOrientation().getM02(), getOrientation().getM12(), getOrientation().getM22(), other.getOrientation().getM02(),
+                                                      other.getOrientation().getM12(), other.getOrientation().getM22(), epsilon);
    }
 }
@@ -18,11 +18,22 @@ import us.ihmc.euclid.tuple3D.interfaces.Vector3DReadOnly;
 /**
  * {@code Ellipsoid3D} represents a 3D ellipsoid defined by its three main radii and with its origin
  * at its center.
+ * <p>
+ * By default, the closest point and signed distance to a query are exact, i.e. the closest point
+ * is the actual orthogonal projection of the query onto the surface. A cheaper radial approximation
+ * that scales the query towards the center of the ellipsoid can be enabled with
+ * {@link #setUseRadialApproximation(boolean)}.
+ * </p>
  */
 public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
 {
+   /** Maximum number of Newton iterations performed when computing the exact closest point. */
+   private static final int MAX_ITERATIONS = 30;
+
    /** The three radii of this ellipsoid. */
    private final Vector3D radii = new Vector3D();
+   /** Whether the queries are approximated by projecting radially onto the surface. */
+   private boolean useRadialApproximation = false;
 
    /**
     * Creates a new ellipsoid 3D with its 3 radii initialized to {@code 1}.
@@ -108,6 +119,58 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
    /** {@inheritDoc} */
    @Override
    protected double evaluateQuery(double x, double y, double z, Point3DBasics closestPointToPack, Vector3DBasics normalToPack)
+   {
+      if (useRadialApproximation)
+         return evaluateQueryRadially(x, y, z, closestPointToPack, normalToPack);
+      else
+         return evaluateQueryExactly(radii.getX(), radii.getY(), radii.getZ(), x, y, z, closestPointToPack, normalToPack);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   protected void signedDistanceShapeFrame(double[] xs, double[] ys, double[] zs, int length, double[] signedDistancesToPack, int offset)
+   {
+      double radiusX = radii.getX();
+      double radiusY = radii.getY();
+      double radiusZ = radii.getZ();
+
+      if (!useRadialApproximation)
+      {
+         for (int i = 0; i < length; i++)
+            signedDistancesToPack[offset + i] = evaluateQueryExactly(radiusX, radiusY, radiusZ, xs[i], ys[i], zs[i], null, null);
+         return;
+      }
+
+      double invRadiusX = 1.0 / radiusX;
+      double invRadiusY = 1.0 / radiusY;
+      double invRadiusZ = 1.0 / radiusZ;
+
+      for (int i = 0; i < length; i++)
+      {
+         double x = xs[i];
+         double y = ys[i];
+         double z = zs[i];
+         double scaledX = x * invRadiusX;
+         double scaledY = y * invRadiusY;
+         double scaledZ = z * invRadiusZ;
+         double sumOfSquares = scaledX * scaledX + scaledY * scaledY + scaledZ * scaledZ;
+
+         if (sumOfSquares > 1.0e-10)
+            signedDistancesToPack[offset + i] = Math.sqrt(x * x + y * y + z * z) * (1.0 - 1.0 / Math.sqrt(sumOfSquares));
+         else
+            signedDistancesToPack[offset + i] = z - radiusZ;
+      }
+   }
+
+   /**
+    * Approximates the closest point by scaling the query towards the center of this ellipsoid until
+    * it reaches the surface.
+    * <p>
+    * The approximation is exact on the principal axes and when the ellipsoid is a sphere, but can be
+    * significantly off for elongated ellipsoids.
+    * </p>
+    */
+   private double evaluateQueryRadially(double x, double y, double z, Point3DBasics closestPointToPack, Vector3DBasics normalToPack)
    {
       double sumOfSquares = EuclidCoreTools.normSquared(x / radii.getX(), y / radii.getY(), z / radii.getZ());
       double scaleFactor = 1.0 / Math.sqrt(sumOfSquares);
@@ -149,6 +212,176 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
       }
    }
 
+   /**
+    * Computes the exact closest point on the surface of an ellipsoid centered at the origin.
+    * <p>
+    * The closest point x verifies x<sub>i</sub> = a<sub>i</sub><sup>2</sup> p<sub>i</sub> / (t +
+    * a<sub>i</sub><sup>2</sup>) where t is the root of the secular equation &Sigma; (a<sub>i</sub>
+    * p<sub>i</sub> / (t + a<sub>i</sub><sup>2</sup>))<sup>2</sup> = 1. The root is found with a
+    * Newton iteration on the function S(t)<sup>-1/2</sup> which is concave and increasing, such that
+    * starting from a lower bound of the root, the iteration converges monotonically, usually in a
+    * handful of iterations. The unknown is shifted by the smallest squared radius to preserve the
+    * precision of the smallest denominator. When the query lies on the plane orthogonal to the
+    * smallest axis and close to the center, the secular equation has no root and the closest point
+    * lies out of that plane.
+    * </p>
+    * <p>
+    * This method does not generate garbage.
+    * </p>
+    *
+    * @return the signed distance from the query to the surface, negative when inside.
+    */
+   private static double evaluateQueryExactly(double radiusX, double radiusY, double radiusZ, double x, double y, double z, Point3DBasics closestPointToPack,
+                                              Vector3DBasics normalToPack)
+   {
+      // Working in the first octant, the signs are restored at the end.
+      double absX = Math.abs(x);
+      double absY = Math.abs(y);
+      double absZ = Math.abs(z);
+      double radiusXSquared = radiusX * radiusX;
+      double radiusYSquared = radiusY * radiusY;
+      double radiusZSquared = radiusZ * radiusZ;
+      double minRadiusSquared = Math.min(radiusXSquared, Math.min(radiusYSquared, radiusZSquared));
+      double deltaX = radiusXSquared - minRadiusSquared;
+      double deltaY = radiusYSquared - minRadiusSquared;
+      double deltaZ = radiusZSquared - minRadiusSquared;
+      double cX = radiusX * absX;
+      double cY = radiusY * absY;
+      double cZ = radiusZ * absZ;
+
+      // Evaluating the secular equation at the pole of the smallest axis.
+      double poleSum = 0.0;
+      if (cX > 0.0)
+         poleSum += deltaX > 0.0 ? cX * cX / (deltaX * deltaX) : Double.POSITIVE_INFINITY;
+      if (cY > 0.0)
+         poleSum += deltaY > 0.0 ? cY * cY / (deltaY * deltaY) : Double.POSITIVE_INFINITY;
+      if (cZ > 0.0)
+         poleSum += deltaZ > 0.0 ? cZ * cZ / (deltaZ * deltaZ) : Double.POSITIVE_INFINITY;
+
+      double closestX, closestY, closestZ;
+
+      if (poleSum <= 1.0)
+      {
+         closestX = cX > 0.0 ? radiusXSquared * absX / deltaX : 0.0;
+         closestY = cY > 0.0 ? radiusYSquared * absY / deltaY : 0.0;
+         closestZ = cZ > 0.0 ? radiusZSquared * absZ / deltaZ : 0.0;
+         double sumOfSquares = 0.0;
+         if (closestX > 0.0)
+            sumOfSquares += closestX * closestX / radiusXSquared;
+         if (closestY > 0.0)
+            sumOfSquares += closestY * closestY / radiusYSquared;
+         if (closestZ > 0.0)
+            sumOfSquares += closestZ * closestZ / radiusZSquared;
+         double remainder = Math.sqrt(Math.max(0.0, 1.0 - sumOfSquares));
+
+         if (deltaX == 0.0)
+            closestX = radiusX * remainder;
+         else if (deltaY == 0.0)
+            closestY = radiusY * remainder;
+         else
+            closestZ = radiusZ * remainder;
+      }
+      else
+      {
+         // Lower bound of the root, each term of the sum has to be at most 1.
+         double u = 0.0;
+         if (cX > 0.0)
+            u = Math.max(u, cX - deltaX);
+         if (cY > 0.0)
+            u = Math.max(u, cY - deltaY);
+         if (cZ > 0.0)
+            u = Math.max(u, cZ - deltaZ);
+
+         for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++)
+         {
+            double sum = 0.0;
+            double sumDerivative = 0.0;
+
+            if (cX > 0.0)
+            {
+               double ratio = cX / (u + deltaX);
+               double term = ratio * ratio;
+               sum += term;
+               sumDerivative += term / (u + deltaX);
+            }
+            if (cY > 0.0)
+            {
+               double ratio = cY / (u + deltaY);
+               double term = ratio * ratio;
+               sum += term;
+               sumDerivative += term / (u + deltaY);
+            }
+            if (cZ > 0.0)
+            {
+               double ratio = cZ / (u + deltaZ);
+               double term = ratio * ratio;
+               sum += term;
+               sumDerivative += term / (u + deltaZ);
+            }
+
+            double step = (sum * Math.sqrt(sum) - sum) / sumDerivative;
+
+            if (!(step > 1.0e-15 * u))
+               break;
+            u += step;
+         }
+
+         closestX = cX > 0.0 ? radiusXSquared * absX / (u + deltaX) : 0.0;
+         closestY = cY > 0.0 ? radiusYSquared * absY / (u + deltaY) : 0.0;
+         closestZ = cZ > 0.0 ? radiusZSquared * absZ / (u + deltaZ) : 0.0;
+      }
+
+      closestX = Math.copySign(closestX, x);
+      closestY = Math.copySign(closestY, y);
+      closestZ = Math.copySign(closestZ, z);
+
+      if (closestPointToPack != null)
+      {
+         closestPointToPack.set(closestX, closestY, closestZ);
+      }
+
+      if (normalToPack != null)
+      {
+         normalToPack.set(closestX / radiusXSquared, closestY / radiusYSquared, closestZ / radiusZSquared);
+         normalToPack.normalize();
+      }
+
+      double distance = Math.sqrt(EuclidCoreTools.normSquared(x - closestX, y - closestY, z - closestZ));
+
+      if (EuclidCoreTools.normSquared(x / radiusX, y / radiusY, z / radiusZ) < 1.0)
+         return -distance;
+      else
+         return distance;
+   }
+
+   /**
+    * Sets whether the queries, i.e. closest point, surface normal, and signed distance, are to be
+    * approximated by projecting the query radially onto the surface.
+    * <p>
+    * The radial approximation is cheaper but is only exact on the principal axes of this ellipsoid
+    * and when it is a sphere. The exact projection is used by default.
+    * </p>
+    *
+    * @param useRadialApproximation {@code true} to use the radial approximation, {@code false} to
+    *           use the exact projection.
+    */
+   public void setUseRadialApproximation(boolean useRadialApproximation)
+   {
+      this.useRadialApproximation = useRadialApproximation;
+      notifyShapeChanged();
+   }
+
+   /**
+    * Whether the queries on this ellipsoid are approximated by projecting radially onto the surface.
+    *
+    * @return {@code true} if the radial approximation is used, {@code false} if the queries are
+    *         exact.
+    */
+   public boolean isUsingRadialApproximation()
+   {
+      return useRadialApproximation;
+   }
+
    /**
     * Packs the 3 radii of this ellipsoid in the given tuple.
     *
@@ -230,13 +463,13 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
    public int intersectionWith(Point3DReadOnly pointOnLine, Vector3DReadOnly lineDirection, Point3DBasics firstIntersectionToPack,
                                Point3DBasics secondIntersectionToPack)
    {
-      double xLocal = TransformationTools.computeTransformedX(shapePose, true, pointOnLine);
-      double yLocal = TransformationTools.computeTransformedY(shapePose, true, pointOnLine);
-      double zLocal = TransformationTools.computeTransformedZ(shapePose, true, pointOnLine);
+      double xLocal = toLocalX(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
+      double yLocal = toLocalY(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
+      double zLocal = toLocalZ(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
 
-      double dxLocal = TransformationTools.computeTransformedX(shapePose, true, lineDirection);
-      double dyLocal = TransformationTools.computeTransformedY(shapePose, true, lineDirection);
-      double dzLocal = TransformationTools.computeTransformedZ(shapePose, true, lineDirection);
+      double dxLocal = TransformationTools.computeTransformedX(getOrientation(), true, lineDirection);
+      double dyLocal = TransformationTools.computeTransformedY(getOrientation(), true, lineDirection);
+      double dzLocal = TransformationTools.computeTransformedZ(getOrientation(), true, lineDirection);
 
       int numberOfIntersections = EuclidGeometryTools.intersectionBetweenLine3DAndEllipsoid3D(radii.getX(), radii.getY(), radii.getZ(), xLocal, yLocal, zLocal,
                                                                                               dxLocal, dyLocal, dzLocal, firstIntersectionToPack,
@@ -248,6 +481,28 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
       return numberOfIntersections;
    }
 
+   /** {@inheritDoc} */
+   @Override
+   protected void getBoundingBoxShapeFrame(double epsilon, BoundingBox3D boundingBoxToPack)
+   {
+      double radiusX = radii.getX() + epsilon;
+      double radiusY = radii.getY() + epsilon;
+      double radiusZ = radii.getZ() + epsilon;
+      boundingBoxToPack.set(-radiusX, -radiusY, -radiusZ, radiusX, radiusY, radiusZ);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   protected void getSupportingVertexShapeFrame(double directionX, double directionY, double directionZ, Point3DBasics supportingVertexToPack)
+   {
+      double radiusXSquared = radii.getX() * radii.getX();
+      double radiusYSquared = radii.getY() * radii.getY();
+      double radiusZSquared = radii.getZ() * radii.getZ();
+      double scale = 1.0 / Math.sqrt(radiusXSquared * directionX * directionX + radiusYSquared * directionY * directionY
+            + radiusZSquared * directionZ * directionZ);
+      supportingVertexToPack.set(scale * radiusXSquared * directionX, scale * radiusYSquared * directionY, scale * radiusZSquared * directionZ);
+   }
+
    /** {@inheritDoc} */
    @Override
    protected boolean isInsideEpsilonShapeFrame(double x, double y, double z, double epsilon)
@@ -269,6 +524,8 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
    {
       setPose(other);
       radii.set(other.radii);
+      useRadialApproximation = other.useRadialApproximation;
+      notifyShapeChanged();
    }
 
    /** {@inheritDoc} */
@@ -277,6 +534,7 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
    {
       super.setToNaN();
       radii.setToNaN();
+      notifyShapeChanged();
    }
 
    /** {@inheritDoc} */
@@ -285,6 +543,7 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
    {
       super.setToZero();
       radii.setToZero();
+      notifyShapeChanged();
    }
 
    /**
@@ -356,6 +615,7 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
       if (radiusX < 0.0)
          throw new IllegalArgumentException("The x-radius of an Ellipsoid3D cannot be negative: " + radiusX);
       radii.setX(radiusX);
+      notifyShapeChanged();
    }
 
    /**
@@ -369,6 +629,7 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
       if (radiusY < 0.0)
          throw new IllegalArgumentException("The y-radius of an Ellipsoid3D cannot be negative: " + radiusY);
       radii.setY(radiusY);
+      notifyShapeChanged();
    }
 
    /**
@@ -382,6 +643,7 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
       if (radiusZ < 0.0)
          throw new IllegalArgumentException("The z-radius of an Ellipsoid3D cannot be negative: " + radiusZ);
       radii.setZ(radiusZ);
+      notifyShapeChanged();
    }
 
    /**
@@ -415,7 +677,7 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
    @Override
    public boolean geometricallyEquals(Ellipsoid3D other, double epsilon)
    {
-      if (!shapePose.getTranslationVector().geometricallyEquals(other.shapePose.getTranslationVector(), epsilon))
+      if (!geometricallyEqualsPosition(other, epsilon))
          return false;
 
       boolean areThisRadiiXYEqual = EuclidCoreTools.epsilonEquals(radii.getX(), radii.getY(), epsilon);
@@ -434,12 +696,12 @@ public class Ellipsoid3D extends Shape3D<Ellipsoid3D>
          return Math.abs(thisRadiiSum - otherRadiiSum) <= 3.0 * epsilon; // Comparing the average of each ellipsoid's radii.
       }
 
-      RotationMatrixReadOnly otherRotation = other.shapePose.getRotationMatrix();
+      RotationMatrixReadOnly otherRotation = other.getOrientation();
       double otherRadiusWorldX = TransformationTools.computeTransformedX(otherRotation, false, other.radii);
       double otherRadiusWorldY = TransformationTools.computeTransformedY(otherRotation, false, other.radii);
       double otherRadiusWorldZ = TransformationTools.computeTransformedZ(otherRotation, false, other.radii);
 
-      RotationMatrixReadOnly thisRotation = shapePose.getRotationMatrix();
+      RotationMatrixReadOnly thisRotation = getOrientation();
       double otherRadiusLocalX = Math.abs(TransformationTools.computeTransformedX(thisRotation, true, otherRadiusWorldX, otherRadiusWorldY, otherRadiusWorldZ));
       double otherRadiusLocalY = Math.abs(TransformationTools.computeTransformedY(thisRotation, true, otherRadiusWorldX, otherRadiusWorldY, otherRadiusWorldZ));
       double otherRadiusLocalZ = Math.abs(TransformationTools.computeTransformedZ(thisRotation, true, otherRadiusWorldX, otherRadiusWorldY, otherRadiusWorldZ));
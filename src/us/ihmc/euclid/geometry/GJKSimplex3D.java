@@ -0,0 +1,303 @@
+package us.ihmc.euclid.geometry;
+
+/**
+ * Simplex of the GJK algorithm on the Minkowski difference A - B of two convex shapes, shared by
+ * {@link TimeOfImpactCalculator} and {@link ContactManifoldCalculator}.
+ * <p>
+ * Each vertex is stored with the supporting vertices of A and B it was computed from, such that the
+ * closest points on both shapes can be recovered from the barycentric coordinates of the point of
+ * the simplex closest to the origin. The coordinates are stored in flat arrays, 3 coordinates per
+ * vertex, such that no garbage is generated.
+ * </p>
+ */
+class GJKSimplex3D
+{
+   /** Vertices of the simplex on the Minkowski difference A - B, 3 coordinates per vertex. */
+   final double[] vertices = new double[12];
+   /** The supporting vertices of A and B from which the simplex vertices were computed. */
+   final double[] verticesOnA = new double[12];
+   final double[] verticesOnB = new double[12];
+   /** The barycentric coordinates of the point of the simplex closest to the origin. */
+   final double[] barycentricCoordinates = new double[4];
+   /** The point of the simplex closest to the origin. */
+   final double[] closestPoint = new double[3];
+   int size = 0;
+
+   private final double[] triangleCoordinates = new double[3];
+
+   /**
+    * Removes all the vertices.
+    */
+   void clear()
+   {
+      size = 0;
+   }
+
+   /**
+    * Adds the vertex {@code a - b} to the simplex.
+    * <p>
+    * When the simplex was empty, it is reduced to the new vertex which becomes the closest point.
+    * </p>
+    *
+    * @return the index of the new vertex.
+    */
+   int addVertex(double aX, double aY, double aZ, double bX, double bY, double bZ)
+   {
+      int offset = 3 * size;
+      verticesOnA[offset] = aX;
+      verticesOnA[offset + 1] = aY;
+      verticesOnA[offset + 2] = aZ;
+      verticesOnB[offset] = bX;
+      verticesOnB[offset + 1] = bY;
+      verticesOnB[offset + 2] = bZ;
+
+      for (int i = offset; i < offset + 3; i++)
+         vertices[i] = verticesOnA[i] - verticesOnB[i];
+
+      if (size == 0)
+      {
+         barycentricCoordinates[0] = 1.0;
+         System.arraycopy(vertices, 0, closestPoint, 0, 3);
+      }
+
+      return size++;
+   }
+
+   /**
+    * Tests whether the given vertex coincides with one of the vertices added before it.
+    */
+   boolean isDuplicateVertex(int vertexIndex)
+   {
+      int vertexOffset = 3 * vertexIndex;
+
+      for (int i = 0; i < vertexOffset; i += 3)
+      {
+         if (vertices[i] == vertices[vertexOffset] && vertices[i + 1] == vertices[vertexOffset + 1] && vertices[i + 2] == vertices[vertexOffset + 2])
+            return true;
+      }
+      return false;
+   }
+
+   /**
+    * Computes the point of the simplex closest to the origin and removes the vertices that do not
+    * contribute to it.
+    *
+    * @return {@code false} if the origin is inside the simplex, {@code true} otherwise.
+    */
+   boolean update()
+   {
+      switch (size)
+      {
+      case 1:
+         barycentricCoordinates[0] = 1.0;
+         break;
+      case 2:
+         closestPointOnSegment(0, 1);
+         break;
+      case 3:
+         closestPointOnTriangle(0, 1, 2);
+         barycentricCoordinates[0] = triangleCoordinates[0];
+         barycentricCoordinates[1] = triangleCoordinates[1];
+         barycentricCoordinates[2] = triangleCoordinates[2];
+         break;
+      default:
+         if (!closestPointOnTetrahedron())
+            return false;
+         break;
+      }
+
+      int newSize = 0;
+      closestPoint[0] = closestPoint[1] = closestPoint[2] = 0.0;
+
+      for (int i = 0; i < size; i++)
+      {
+         double weight = barycentricCoordinates[i];
+
+         if (weight <= 0.0)
+            continue;
+
+         if (newSize != i)
+         {
+            System.arraycopy(vertices, 3 * i, vertices, 3 * newSize, 3);
+            System.arraycopy(verticesOnA, 3 * i, verticesOnA, 3 * newSize, 3);
+            System.arraycopy(verticesOnB, 3 * i, verticesOnB, 3 * newSize, 3);
+            barycentricCoordinates[newSize] = weight;
+         }
+
+         for (int j = 0; j < 3; j++)
+            closestPoint[j] += weight * vertices[3 * newSize + j];
+         newSize++;
+      }
+
+      size = newSize;
+      return true;
+   }
+
+   /**
+    * Computes from the barycentric coordinates the point of A or B that corresponds to the point of
+    * the simplex closest to the origin.
+    *
+    * @param onA {@code true} for the point of A, {@code false} for the point of B.
+    * @param pointToPack the array in which the 3 coordinates of the point are stored. Modified.
+    */
+   void packClosestPoint(boolean onA, double[] pointToPack)
+   {
+      double[] shapeVertices = onA ? verticesOnA : verticesOnB;
+      pointToPack[0] = pointToPack[1] = pointToPack[2] = 0.0;
+
+      for (int i = 0; i < size; i++)
+      {
+         double weight = barycentricCoordinates[i];
+         pointToPack[0] += weight * shapeVertices[3 * i];
+         pointToPack[1] += weight * shapeVertices[3 * i + 1];
+         pointToPack[2] += weight * shapeVertices[3 * i + 2];
+      }
+   }
+
+   private void closestPointOnSegment(int a, int b)
+   {
+      double abX = vertices[3 * b] - vertices[3 * a];
+      double abY = vertices[3 * b + 1] - vertices[3 * a + 1];
+      double abZ = vertices[3 * b + 2] - vertices[3 * a + 2];
+      double lengthSquared = abX * abX + abY * abY + abZ * abZ;
+      double alpha = lengthSquared > 0.0 ? -(vertices[3 * a] * abX + vertices[3 * a + 1] * abY + vertices[3 * a + 2] * abZ) / lengthSquared : 0.0;
+      alpha = Math.max(0.0, Math.min(1.0, alpha));
+      barycentricCoordinates[a] = 1.0 - alpha;
+      barycentricCoordinates[b] = alpha;
+   }
+
+   /**
+    * Computes the barycentric coordinates of the point of the triangle (a, b, c) closest to the
+    * origin and packs them in {@link #triangleCoordinates}.
+    *
+    * @return the squared distance from the origin to the triangle.
+    */
+   private double closestPointOnTriangle(int a, int b, int c)
+   {
+      double aX = vertices[3 * a], aY = vertices[3 * a + 1], aZ = vertices[3 * a + 2];
+      double bX = vertices[3 * b], bY = vertices[3 * b + 1], bZ = vertices[3 * b + 2];
+      double cX = vertices[3 * c], cY = vertices[3 * c + 1], cZ = vertices[3 * c + 2];
+      double abX = bX - aX, abY = bY - aY, abZ = bZ - aZ;
+      double acX = cX - aX, acY = cY - aY, acZ = cZ - aZ;
+
+      double d1 = -(abX * aX + abY * aY + abZ * aZ);
+      double d2 = -(acX * aX + acY * aY + acZ * aZ);
+      double d3 = -(abX * bX + abY * bY + abZ * bZ);
+      double d4 = -(acX * bX + acY * bY + acZ * bZ);
+      double d5 = -(abX * cX + abY * cY + abZ * cZ);
+      double d6 = -(acX * cX + acY * cY + acZ * cZ);
+
+      double va = d3 * d6 - d5 * d4;
+      double vb = d5 * d2 - d1 * d6;
+      double vc = d1 * d4 - d3 * d2;
+
+      if (d1 <= 0.0 && d2 <= 0.0)
+      { // Vertex region of a
+         setTriangleCoordinates(1.0, 0.0, 0.0);
+      }
+      else if (d3 >= 0.0 && d4 <= d3)
+      { // Vertex region of b
+         setTriangleCoordinates(0.0, 1.0, 0.0);
+      }
+      else if (d6 >= 0.0 && d5 <= d6)
+      { // Vertex region of c
+         setTriangleCoordinates(0.0, 0.0, 1.0);
+      }
+      else if (vc <= 0.0 && d1 >= 0.0 && d3 <= 0.0)
+      { // Edge region of ab
+         double alpha = d1 / (d1 - d3);
+         setTriangleCoordinates(1.0 - alpha, alpha, 0.0);
+      }
+      else if (vb <= 0.0 && d2 >= 0.0 && d6 <= 0.0)
+      { // Edge region of ac
+         double alpha = d2 / (d2 - d6);
+         setTriangleCoordinates(1.0 - alpha, 0.0, alpha);
+      }
+      else if (va <= 0.0 && d4 - d3 >= 0.0 && d5 - d6 >= 0.0)
+      { // Edge region of bc
+         double alpha = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+         setTriangleCoordinates(0.0, 1.0 - alpha, alpha);
+      }
+      else
+      { // Face region
+         double denominator = 1.0 / (va + vb + vc);
+         double beta = vb * denominator;
+         double gamma = vc * denominator;
+         setTriangleCoordinates(1.0 - beta - gamma, beta, gamma);
+      }
+
+      double x = triangleCoordinates[0] * aX + triangleCoordinates[1] * bX + triangleCoordinates[2] * cX;
+      double y = triangleCoordinates[0] * aY + triangleCoordinates[1] * bY + triangleCoordinates[2] * cY;
+      double z = triangleCoordinates[0] * aZ + triangleCoordinates[1] * bZ + triangleCoordinates[2] * cZ;
+      return x * x + y * y + z * z;
+   }
+
+   private void setTriangleCoordinates(double a, double b, double c)
+   {
+      triangleCoordinates[0] = a;
+      triangleCoordinates[1] = b;
+      triangleCoordinates[2] = c;
+   }
+
+   /**
+    * Computes the barycentric coordinates of the point of the tetrahedron closest to the origin by
+    * testing each face the origin is in front of.
+    *
+    * @return {@code false} if the origin is inside the tetrahedron, {@code true} otherwise.
+    */
+   private boolean closestPointOnTetrahedron()
+   {
+      double bestDistanceSquared = Double.POSITIVE_INFINITY;
+      double bestA = 0.0, bestB = 0.0, bestC = 0.0;
+      int bestOpposite = -1;
+
+      for (int opposite = 0; opposite < 4; opposite++)
+      {
+         int a = (opposite + 1) % 4;
+         int b = (opposite + 2) % 4;
+         int c = (opposite + 3) % 4;
+
+         if (!isOriginInFrontOfFace(a, b, c, opposite))
+            continue;
+
+         double distanceSquared = closestPointOnTriangle(a, b, c);
+
+         if (distanceSquared < bestDistanceSquared)
+         {
+            bestDistanceSquared = distanceSquared;
+            bestOpposite = opposite;
+            bestA = triangleCoordinates[0];
+            bestB = triangleCoordinates[1];
+            bestC = triangleCoordinates[2];
+         }
+      }
+
+      if (bestOpposite < 0)
+         return false;
+
+      barycentricCoordinates[bestOpposite] = 0.0;
+      barycentricCoordinates[(bestOpposite + 1) % 4] = bestA;
+      barycentricCoordinates[(bestOpposite + 2) % 4] = bestB;
+      barycentricCoordinates[(bestOpposite + 3) % 4] = bestC;
+      return true;
+   }
+
+   /**
+    * Tests whether the origin and the vertex {@code opposite} are on different sides of the plane
+    * containing the face (a, b, c). A degenerate tetrahedron has all its faces considered.
+    */
+   private boolean isOriginInFrontOfFace(int a, int b, int c, int opposite)
+   {
+      double aX = vertices[3 * a], aY = vertices[3 * a + 1], aZ = vertices[3 * a + 2];
+      double abX = vertices[3 * b] - aX, abY = vertices[3 * b + 1] - aY, abZ = vertices[3 * b + 2] - aZ;
+      double acX = vertices[3 * c] - aX, acY = vertices[3 * c + 1] - aY, acZ = vertices[3 * c + 2] - aZ;
+      double normalX = abY * acZ - abZ * acY;
+      double normalY = abZ * acX - abX * acZ;
+      double normalZ = abX * acY - abY * acX;
+
+      double originSide = -(normalX * aX + normalY * aY + normalZ * aZ);
+      double oppositeSide = normalX * (vertices[3 * opposite] - aX) + normalY * (vertices[3 * opposite + 1] - aY)
+            + normalZ * (vertices[3 * opposite + 2] - aZ);
+      return originSide * oppositeSide <= 0.0;
+   }
+}
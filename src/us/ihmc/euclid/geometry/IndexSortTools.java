@@ -0,0 +1,95 @@
+package us.ihmc.euclid.geometry;
+
+/**
+ * Garbage free sort of an array of indices by an array of keys, shared by
+ * {@link LineSegment1DIntervalIndex}, {@link LineSegment2DIntersectionCalculator} and
+ * {@link RTree2D}.
+ * <p>
+ * The keys are reordered with the indices such that {@code keys[i]} remains the key of
+ * {@code indices[i]}. The sort is not stable.
+ * </p>
+ */
+class IndexSortTools
+{
+   /** Ranges smaller than this are sorted with insertion sort. */
+   private static final int INSERTION_SORT_THRESHOLD = 16;
+
+   /**
+    * Sorts the indices in [left, right] by increasing key.
+    * <p>
+    * The range is partitioned with quicksort until it is small enough for an insertion sort. The
+    * smaller part of each partition is sorted recursively and the larger one iteratively, such that
+    * the depth of the stack remains logarithmic in the size of the range.
+    * </p>
+    *
+    * @param indices the indices to sort. Modified.
+    * @param keys the key of each index, reordered with the indices. Modified.
+    * @param left the position of the first index to sort.
+    * @param right the position of the last index to sort.
+    */
+   static void sort(int[] indices, double[] keys, int left, int right)
+   {
+      while (right - left >= INSERTION_SORT_THRESHOLD)
+      {
+         int pivot = partition(indices, keys, left, right);
+
+         if (pivot - left < right - pivot)
+         {
+            sort(indices, keys, left, pivot);
+            left = pivot + 1;
+         }
+         else
+         {
+            sort(indices, keys, pivot + 1, right);
+            right = pivot;
+         }
+      }
+
+      for (int i = left + 1; i <= right; i++)
+      {
+         for (int j = i; j > left && keys[j - 1] > keys[j]; j--)
+            swap(indices, keys, j - 1, j);
+      }
+   }
+
+   /**
+    * Hoare's partition around the key in the middle of [left, right].
+    *
+    * @param indices the indices to partition. Modified.
+    * @param keys the key of each index, reordered with the indices. Modified.
+    * @param left the position of the first index to partition.
+    * @param right the position of the last index to partition.
+    * @return the position {@code p} such that the keys in [left, p] are not greater than the keys in
+    *         ]p, right].
+    */
+   static int partition(int[] indices, double[] keys, int left, int right)
+   {
+      double pivot = keys[(left + right) >>> 1];
+      int i = left - 1, j = right + 1;
+
+      while (true)
+      {
+         do
+            i++;
+         while (keys[i] < pivot);
+         do
+            j--;
+         while (keys[j] > pivot);
+
+         if (i >= j)
+            return j;
+
+         swap(indices, keys, i, j);
+      }
+   }
+
+   private static void swap(int[] indices, double[] keys, int i, int j)
+   {
+      int index = indices[i];
+      indices[i] = indices[j];
+      indices[j] = index;
+      double key = keys[i];
+      keys[i] = keys[j];
+      keys[j] = key;
+   }
+}
@@ -0,0 +1,94 @@
+package us.ihmc.euclid.geometry;
+
+/**
+ * Eigen decomposition of small symmetric matrices with the cyclic Jacobi method, shared by
+ * {@link OrientedBoundingBoxCalculator} for 3-by-3 covariance matrices and
+ * {@link QuaternionAverageCalculator} for 4-by-4 quaternion outer products.
+ * <p>
+ * The matrices are stored row-major in flat arrays and are decomposed in place such that no
+ * garbage is generated.
+ * </p>
+ */
+class JacobiEigenDecomposition
+{
+   private static final int MAX_NUMBER_OF_SWEEPS = 50;
+
+   /**
+    * Computes the eigen decomposition of a symmetric n-by-n matrix.
+    * <p>
+    * The eigenvalues are not sorted, the i<sup>th</sup> eigenvalue is the i<sup>th</sup> diagonal
+    * element of {@code symmetricMatrix} and its eigenvector is the i<sup>th</sup> column of
+    * {@code eigenvectorsToPack}.
+    * </p>
+    *
+    * @param size the number of rows and columns of the matrix.
+    * @param symmetricMatrix the row-major matrix to decompose, its diagonal holds the eigenvalues
+    *           once done. Modified.
+    * @param eigenvectorsToPack the row-major matrix in which the eigenvectors are stored as columns.
+    *           Modified.
+    */
+   static void decompose(int size, double[] symmetricMatrix, double[] eigenvectorsToPack)
+   {
+      double[] a = symmetricMatrix;
+      double[] v = eigenvectorsToPack;
+      for (int i = 0; i < size * size; i++)
+         v[i] = i % (size + 1) == 0 ? 1.0 : 0.0;
+
+      double scale = 0.0;
+      for (int i = 0; i < size; i++)
+         scale += Math.abs(a[(size + 1) * i]);
+
+      for (int sweep = 0; sweep < MAX_NUMBER_OF_SWEEPS; sweep++)
+      {
+         double offDiagonal = 0.0;
+         for (int p = 0; p < size - 1; p++)
+         {
+            for (int q = p + 1; q < size; q++)
+               offDiagonal += Math.abs(a[size * p + q]);
+         }
+
+         if (offDiagonal <= 1.0e-15 * scale || offDiagonal == 0.0)
+            break;
+
+         for (int p = 0; p < size - 1; p++)
+         {
+            for (int q = p + 1; q < size; q++)
+            {
+               double apq = a[size * p + q];
+
+               if (apq == 0.0)
+                  continue;
+
+               double theta = (a[size * q + q] - a[size * p + p]) / (2.0 * apq);
+               double t = Math.copySign(1.0, theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1.0));
+               double c = 1.0 / Math.sqrt(t * t + 1.0);
+               double s = t * c;
+
+               for (int k = 0; k < size; k++)
+               { // A J
+                  double akp = a[size * k + p];
+                  double akq = a[size * k + q];
+                  a[size * k + p] = c * akp - s * akq;
+                  a[size * k + q] = s * akp + c * akq;
+               }
+
+               for (int k = 0; k < size; k++)
+               { // J^T A J
+                  double apk = a[size * p + k];
+                  double aqk = a[size * q + k];
+                  a[size * p + k] = c * apk - s * aqk;
+                  a[size * q + k] = s * apk + c * aqk;
+               }
+
+               for (int k = 0; k < size; k++)
+               { // V J
+                  double vkp = v[size * k + p];
+                  double vkq = v[size * k + q];
+                  v[size * k + p] = c * vkp - s * vkq;
+                  v[size * k + q] = s * vkp + c * vkq;
+               }
+            }
+         }
+      }
+   }
+}
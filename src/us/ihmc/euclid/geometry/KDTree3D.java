@@ -0,0 +1,478 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+
+/**
+ * {@code KDTree3D} is a spatial index over a set of 3D points answering nearest neighbor,
+ * k-nearest neighbors and radius queries in logarithmic time on average.
+ * <p>
+ * The tree is implicit: the points are reordered in a flat array such that the root of any subtree
+ * spanning the range [lo, hi[ is the median element at (lo + hi) / 2, its left and right subtrees
+ * spanning [lo, mid[ and ]mid, hi[ respectively. There is no per-node object and the tree is always
+ * balanced. Each node splits along the axis over which its subtree has the largest spread.
+ * </p>
+ * <p>
+ * The results of the queries refer to the points by their index as given when building the tree. The
+ * queries do not modify the tree and can be performed concurrently by several threads, each using
+ * its own {@link SpatialQueryResult}. The tree must not be rebuilt while being queried.
+ * </p>
+ */
+public class KDTree3D
+{
+   /** Subtrees smaller than this are built sequentially by {@link #buildParallel}. */
+   private static final int PARALLEL_BUILD_THRESHOLD = 8192;
+
+   private int numberOfPoints = 0;
+   /** The coordinates of the points in tree order stored as: x, y, z. */
+   private double[] coordinates = new double[0];
+   /** The original index of each point in tree order. */
+   private int[] indices = new int[0];
+   /** The split axis of each node: 0 for x, 1 for y, 2 for z. */
+   private byte[] splitAxes = new byte[0];
+
+   /**
+    * Creates a new empty tree.
+    */
+   public KDTree3D()
+   {
+   }
+
+   /**
+    * Removes all the points from this tree.
+    */
+   public void clear()
+   {
+      numberOfPoints = 0;
+   }
+
+   /**
+    * Gets the number of points in this tree.
+    *
+    * @return the number of points.
+    */
+   public int size()
+   {
+      return numberOfPoints;
+   }
+
+   /**
+    * Whether this tree is empty.
+    *
+    * @return {@code true} if the tree has no point, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return numberOfPoints == 0;
+   }
+
+   /**
+    * Builds this tree from the given vertices, the i<sup>th</sup> vertex being referred to by the
+    * index {@code i} in the query results.
+    *
+    * @param vertices the points to index. Not modified.
+    */
+   public void build(Vertex3DSupplier vertices)
+   {
+      allocate(vertices.getNumberOfVertices());
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         Point3DReadOnly vertex = vertices.getVertex(i);
+         coordinates[3 * i] = vertex.getX();
+         coordinates[3 * i + 1] = vertex.getY();
+         coordinates[3 * i + 2] = vertex.getZ();
+         indices[i] = i;
+      }
+
+      buildSubtree(0, numberOfPoints);
+   }
+
+   /**
+    * Builds this tree from the points of the given range, the point at index {@code i} in the arrays
+    * being referred to by the index {@code i} in the query results.
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to index.
+    * @param endIndex the index after the last point to index.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void build(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      copyPoints(xs, ys, zs, startIndex, endIndex);
+      buildSubtree(0, numberOfPoints);
+   }
+
+   /**
+    * Builds this tree from the points of the given range using multiple threads.
+    * <p>
+    * The subtrees are built concurrently in the common fork-join pool. The resulting tree is identical
+    * to the one built with {@link #build(double[], double[], double[], int, int)}.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to index.
+    * @param endIndex the index after the last point to index.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void buildParallel(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      copyPoints(xs, ys, zs, startIndex, endIndex);
+
+      if (numberOfPoints <= PARALLEL_BUILD_THRESHOLD)
+         buildSubtree(0, numberOfPoints);
+      else
+         ForkJoinPool.commonPool().invoke(new BuildTask(0, numberOfPoints));
+   }
+
+   private void copyPoints(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      if (startIndex < 0 || startIndex > endIndex)
+         throw new IllegalArgumentException("Invalid range: [" + startIndex + ", " + endIndex + "[");
+      if (xs.length < endIndex || ys.length < endIndex || zs.length < endIndex)
+         throw new IllegalArgumentException("The arrays are too short for the range [" + startIndex + ", " + endIndex + "[, lengths: xs = " + xs.length
+               + ", ys = " + ys.length + ", zs = " + zs.length);
+
+      allocate(endIndex - startIndex);
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         coordinates[3 * i] = xs[startIndex + i];
+         coordinates[3 * i + 1] = ys[startIndex + i];
+         coordinates[3 * i + 2] = zs[startIndex + i];
+         indices[i] = startIndex + i;
+      }
+   }
+
+   private void allocate(int numberOfPoints)
+   {
+      this.numberOfPoints = numberOfPoints;
+
+      if (indices.length < numberOfPoints)
+      {
+         coordinates = new double[3 * numberOfPoints];
+         indices = new int[numberOfPoints];
+         splitAxes = new byte[numberOfPoints];
+      }
+   }
+
+   private void buildSubtree(int lo, int hi)
+   {
+      while (hi - lo > 1)
+      {
+         int mid = splitNode(lo, hi);
+         // Recursing on the smaller half bounds the depth of the stack.
+         if (mid - lo < hi - mid - 1)
+         {
+            buildSubtree(lo, mid);
+            lo = mid + 1;
+         }
+         else
+         {
+            buildSubtree(mid + 1, hi);
+            hi = mid;
+         }
+      }
+
+      if (hi - lo == 1)
+         splitAxes[lo] = 0;
+   }
+
+   /**
+    * Chooses the split axis of the node spanning [lo, hi[ and partitions its points around the median.
+    *
+    * @return the position of the node.
+    */
+   private int splitNode(int lo, int hi)
+   {
+      double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+      double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+
+      for (int i = lo; i < hi; i++)
+      {
+         double x = coordinates[3 * i], y = coordinates[3 * i + 1], z = coordinates[3 * i + 2];
+         minX = Math.min(minX, x);
+         maxX = Math.max(maxX, x);
+         minY = Math.min(minY, y);
+         maxY = Math.max(maxY, y);
+         minZ = Math.min(minZ, z);
+         maxZ = Math.max(maxZ, z);
+      }
+
+      double spreadX = maxX - minX, spreadY = maxY - minY, spreadZ = maxZ - minZ;
+      int axis = spreadX >= spreadY ? (spreadX >= spreadZ ? 0 : 2) : (spreadY >= spreadZ ? 1 : 2);
+      int mid = (lo + hi) >>> 1;
+      select(lo, hi - 1, mid, axis);
+      splitAxes[mid] = (byte) axis;
+      return mid;
+   }
+
+   /**
+    * Hoare's quickselect: reorders the points in [left, right] such that the point at {@code k} is the
+    * one that would be there if the range was sorted along {@code axis}, with the smaller points
+    * before it and the larger after it.
+    */
+   private void select(int left, int right, int k, int axis)
+   {
+      while (right > left)
+      {
+         // Median of three as pivot to avoid the worst case on sorted inputs.
+         int middle = (left + right) >>> 1;
+         if (coordinate(middle, axis) < coordinate(left, axis))
+            swap(middle, left);
+         if (coordinate(right, axis) < coordinate(left, axis))
+            swap(right, left);
+         if (coordinate(right, axis) < coordinate(middle, axis))
+            swap(right, middle);
+         double pivot = coordinate(middle, axis);
+
+         int i = left, j = right;
+
+         while (i <= j)
+         {
+            while (coordinate(i, axis) < pivot)
+               i++;
+            while (coordinate(j, axis) > pivot)
+               j--;
+            if (i <= j)
+            {
+               swap(i, j);
+               i++;
+               j--;
+            }
+         }
+
+         if (k <= j)
+            right = j;
+         else if (k >= i)
+            left = i;
+         else
+            return;
+      }
+   }
+
+   private double coordinate(int position, int axis)
+   {
+      return coordinates[3 * position + axis];
+   }
+
+   private void swap(int i, int j)
+   {
+      for (int axis = 0; axis < 3; axis++)
+      {
+         double temp = coordinates[3 * i + axis];
+         coordinates[3 * i + axis] = coordinates[3 * j + axis];
+         coordinates[3 * j + axis] = temp;
+      }
+
+      int index = indices[i];
+      indices[i] = indices[j];
+      indices[j] = index;
+   }
+
+   /**
+    * Finds the point of this tree that is the closest to the query.
+    *
+    * @param query the query. Not modified.
+    * @param resultToPack the buffer in which the nearest point is stored, it is empty if this tree is
+    *           empty. Modified.
+    * @return the index of the nearest point or {@code -1} if this tree is empty.
+    */
+   public int findNearest(Point3DReadOnly query, SpatialQueryResult resultToPack)
+   {
+      return findNearest(query.getX(), query.getY(), query.getZ(), resultToPack);
+   }
+
+   /**
+    * Finds the point of this tree that is the closest to the query.
+    *
+    * @param x the x-coordinate of the query.
+    * @param y the y-coordinate of the query.
+    * @param z the z-coordinate of the query.
+    * @param resultToPack the buffer in which the nearest point is stored, it is empty if this tree is
+    *           empty. Modified.
+    * @return the index of the nearest point or {@code -1} if this tree is empty.
+    */
+   public int findNearest(double x, double y, double z, SpatialQueryResult resultToPack)
+   {
+      findKNearest(x, y, z, 1, resultToPack);
+      return resultToPack.isEmpty() ? -1 : resultToPack.getIndex(0);
+   }
+
+   /**
+    * Finds the {@code k} points of this tree that are the closest to the query.
+    *
+    * @param query the query. Not modified.
+    * @param k the number of points to find.
+    * @param resultToPack the buffer in which the points are stored sorted by increasing distance. It
+    *           holds less than {@code k} points only if this tree has less than {@code k} points.
+    *           Modified.
+    * @throws IllegalArgumentException if {@code k} is negative.
+    */
+   public void findKNearest(Point3DReadOnly query, int k, SpatialQueryResult resultToPack)
+   {
+      findKNearest(query.getX(), query.getY(), query.getZ(), k, resultToPack);
+   }
+
+   /**
+    * Finds the {@code k} points of this tree that are the closest to the query.
+    *
+    * @param x the x-coordinate of the query.
+    * @param y the y-coordinate of the query.
+    * @param z the z-coordinate of the query.
+    * @param k the number of points to find.
+    * @param resultToPack the buffer in which the points are stored sorted by increasing distance. It
+    *           holds less than {@code k} points only if this tree has less than {@code k} points.
+    *           Modified.
+    * @throws IllegalArgumentException if {@code k} is negative.
+    */
+   public void findKNearest(double x, double y, double z, int k, SpatialQueryResult resultToPack)
+   {
+      if (k < 0)
+         throw new IllegalArgumentException("The number of neighbors cannot be negative, was: " + k);
+
+      resultToPack.clear();
+
+      if (k == 0)
+         return;
+
+      searchKNearest(0, numberOfPoints, x, y, z, k, Double.POSITIVE_INFINITY, resultToPack);
+      resultToPack.sortHeap();
+   }
+
+   /**
+    * @return the squared distance to the farthest point of the heap if it is full,
+    *         {@link Double#POSITIVE_INFINITY} otherwise.
+    */
+   private double searchKNearest(int lo, int hi, double x, double y, double z, int k, double maxDistanceSquared, SpatialQueryResult heap)
+   {
+      if (lo >= hi)
+         return maxDistanceSquared;
+
+      int mid = (lo + hi) >>> 1;
+      double dx = x - coordinates[3 * mid];
+      double dy = y - coordinates[3 * mid + 1];
+      double dz = z - coordinates[3 * mid + 2];
+      double distanceSquared = dx * dx + dy * dy + dz * dz;
+
+      if (distanceSquared < maxDistanceSquared || heap.size() < k)
+         maxDistanceSquared = heap.offerToHeap(indices[mid], distanceSquared, k);
+
+      int axis = splitAxes[mid];
+      double offset = axis == 0 ? dx : axis == 1 ? dy : dz;
+
+      // Visiting first the side of the query.
+      if (offset < 0.0)
+      {
+         maxDistanceSquared = searchKNearest(lo, mid, x, y, z, k, maxDistanceSquared, heap);
+         if (offset * offset < maxDistanceSquared)
+            maxDistanceSquared = searchKNearest(mid + 1, hi, x, y, z, k, maxDistanceSquared, heap);
+      }
+      else
+      {
+         maxDistanceSquared = searchKNearest(mid + 1, hi, x, y, z, k, maxDistanceSquared, heap);
+         if (offset * offset < maxDistanceSquared)
+            maxDistanceSquared = searchKNearest(lo, mid, x, y, z, k, maxDistanceSquared, heap);
+      }
+
+      return maxDistanceSquared;
+   }
+
+   /**
+    * Finds all the points of this tree that are within a distance {@code radius} of the query.
+    *
+    * @param query the query. Not modified.
+    * @param radius the search radius.
+    * @param resultToPack the buffer in which the points are stored, in no particular order, see
+    *           {@link SpatialQueryResult#sortByDistance()}. Modified.
+    */
+   public void findWithinRadius(Point3DReadOnly query, double radius, SpatialQueryResult resultToPack)
+   {
+      findWithinRadius(query.getX(), query.getY(), query.getZ(), radius, resultToPack);
+   }
+
+   /**
+    * Finds all the points of this tree that are within a distance {@code radius} of the query.
+    *
+    * @param x the x-coordinate of the query.
+    * @param y the y-coordinate of the query.
+    * @param z the z-coordinate of the query.
+    * @param radius the search radius.
+    * @param resultToPack the buffer in which the points are stored, in no particular order, see
+    *           {@link SpatialQueryResult#sortByDistance()}. Modified.
+    */
+   public void findWithinRadius(double x, double y, double z, double radius, SpatialQueryResult resultToPack)
+   {
+      resultToPack.clear();
+
+      if (radius >= 0.0)
+         searchWithinRadius(0, numberOfPoints, x, y, z, radius * radius, resultToPack);
+   }
+
+   private void searchWithinRadius(int lo, int hi, double x, double y, double z, double radiusSquared, SpatialQueryResult result)
+   {
+      while (lo < hi)
+      {
+         int mid = (lo + hi) >>> 1;
+         double dx = x - coordinates[3 * mid];
+         double dy = y - coordinates[3 * mid + 1];
+         double dz = z - coordinates[3 * mid + 2];
+         double distanceSquared = dx * dx + dy * dy + dz * dz;
+
+         if (distanceSquared <= radiusSquared)
+            result.add(indices[mid], distanceSquared);
+
+         int axis = splitAxes[mid];
+         double offset = axis == 0 ? dx : axis == 1 ? dy : dz;
+
+         if (offset * offset <= radiusSquared)
+         { // The sphere overlaps both sides.
+            searchWithinRadius(lo, mid, x, y, z, radiusSquared, result);
+            lo = mid + 1;
+         }
+         else if (offset < 0.0)
+         {
+            hi = mid;
+         }
+         else
+         {
+            lo = mid + 1;
+         }
+      }
+   }
+
+   @SuppressWarnings("serial")
+   private class BuildTask extends RecursiveAction
+   {
+      private final int lo, hi;
+
+      private BuildTask(int lo, int hi)
+      {
+         this.lo = lo;
+         this.hi = hi;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (hi - lo <= PARALLEL_BUILD_THRESHOLD)
+         {
+            buildSubtree(lo, hi);
+            return;
+         }
+
+         int mid = splitNode(lo, hi);
+         invokeAll(new BuildTask(lo, mid), new BuildTask(mid + 1, hi));
+      }
+   }
+}
@@ -0,0 +1,311 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.List;
+
+/**
+ * {@code LineSegment1DIntervalIndex} is a static index over a collection of 1D line segments that
+ * answers stabbing, overlap, and union-length queries without testing every segment.
+ * <p>
+ * The segments are sorted by their minimum endpoint and organized as an implicit balanced binary
+ * search tree over the sorted array, each node storing the largest maximum endpoint of its subtree
+ * such that the subtrees that cannot overlap the query are skipped. The union of the segments is
+ * precomputed as a sorted array of disjoint blocks such that the covered length within a range is
+ * computed in O(log(n)).
+ * </p>
+ * <p>
+ * The index has to be rebuilt when the segments change, see {@link LineSegment1DIntervalTree} for
+ * an index supporting insertion and removal. The overlap tests are inclusive, i.e. two segments
+ * sharing only an endpoint overlap, consistently with
+ * {@link LineSegment1D#isOverlappingInclusive(LineSegment1D)}.
+ * </p>
+ */
+public class LineSegment1DIntervalIndex
+{
+   private int numberOfSegments = 0;
+   /** The minimum endpoint of each segment in sorted order. */
+   private double[] mins = new double[0];
+   /** The maximum endpoint of each segment in sorted order. */
+   private double[] maxs = new double[0];
+   /** The largest maximum endpoint of the subtree rooted at each node. */
+   private double[] subtreeMaxs = new double[0];
+   /** The original index of each segment in sorted order. */
+   private int[] indices = new int[0];
+
+   private int numberOfBlocks = 0;
+   /** The disjoint blocks covered by the segments in sorted order. */
+   private double[] blockStarts = new double[0];
+   private double[] blockEnds = new double[0];
+   /** The length covered by the blocks preceding each block. */
+   private double[] blockOffsets = new double[1];
+
+   /**
+    * Creates a new empty index.
+    */
+   public LineSegment1DIntervalIndex()
+   {
+   }
+
+   /**
+    * Removes all the segments from this index.
+    */
+   public void clear()
+   {
+      numberOfSegments = 0;
+      numberOfBlocks = 0;
+   }
+
+   /**
+    * Gets the number of segments in this index.
+    *
+    * @return the number of segments.
+    */
+   public int size()
+   {
+      return numberOfSegments;
+   }
+
+   /**
+    * Whether this index is empty.
+    *
+    * @return {@code true} if the index has no segment, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return numberOfSegments == 0;
+   }
+
+   /**
+    * Builds this index from the given segments, the i<sup>th</sup> segment being referred to by the
+    * index {@code i} in the query results.
+    *
+    * @param lineSegments the segments to index. Not modified.
+    */
+   public void build(List<LineSegment1D> lineSegments)
+   {
+      allocate(lineSegments.size());
+
+      for (int i = 0; i < numberOfSegments; i++)
+      {
+         LineSegment1D lineSegment = lineSegments.get(i);
+         mins[i] = lineSegment.getMinPoint();
+         maxs[i] = lineSegment.getMaxPoint();
+         indices[i] = i;
+      }
+
+      build();
+   }
+
+   /**
+    * Builds this index from the given packed segments, the i<sup>th</sup> segment being referred to
+    * by the index {@code i} in the query results.
+    *
+    * @param packedEndpoints the segments to index, the endpoints of the i<sup>th</sup> segment being
+    *           stored at the indices {@code 2 * i} and {@code 2 * i + 1} in no particular order. Not
+    *           modified.
+    * @param numberOfSegments the number of segments to index.
+    * @throws IllegalArgumentException if {@code numberOfSegments} is negative or the array is too
+    *            short.
+    */
+   public void build(double[] packedEndpoints, int numberOfSegments)
+   {
+      if (numberOfSegments < 0)
+         throw new IllegalArgumentException("The number of segments cannot be negative, was: " + numberOfSegments);
+      if (packedEndpoints.length < 2 * numberOfSegments)
+         throw new IllegalArgumentException("The array is too short for " + numberOfSegments + " segments, length: " + packedEndpoints.length);
+
+      allocate(numberOfSegments);
+
+      for (int i = 0; i < numberOfSegments; i++)
+      {
+         double firstEndpoint = packedEndpoints[2 * i];
+         double secondEndpoint = packedEndpoints[2 * i + 1];
+         mins[i] = Math.min(firstEndpoint, secondEndpoint);
+         maxs[i] = Math.max(firstEndpoint, secondEndpoint);
+         indices[i] = i;
+      }
+
+      build();
+   }
+
+   private void allocate(int capacity)
+   {
+      numberOfSegments = capacity;
+
+      if (mins.length < capacity)
+      {
+         mins = new double[capacity];
+         maxs = new double[capacity];
+         subtreeMaxs = new double[capacity];
+         indices = new int[capacity];
+         blockStarts = new double[capacity];
+         blockEnds = new double[capacity];
+         blockOffsets = new double[capacity + 1];
+      }
+   }
+
+   private void build()
+   {
+      IndexSortTools.sort(indices, mins, 0, numberOfSegments - 1);
+
+      // The indices were the positions of the segments before sorting, the maximum endpoints are
+      // reordered using the subtree maximums, not built yet, as temporary storage.
+      System.arraycopy(maxs, 0, subtreeMaxs, 0, numberOfSegments);
+      for (int i = 0; i < numberOfSegments; i++)
+         maxs[i] = subtreeMaxs[indices[i]];
+
+      buildSubtreeMaxs(0, numberOfSegments);
+      buildBlocks();
+   }
+
+   private double buildSubtreeMaxs(int lo, int hi)
+   {
+      if (lo >= hi)
+         return Double.NEGATIVE_INFINITY;
+
+      int mid = (lo + hi) >>> 1;
+      double max = Math.max(maxs[mid], Math.max(buildSubtreeMaxs(lo, mid), buildSubtreeMaxs(mid + 1, hi)));
+      subtreeMaxs[mid] = max;
+      return max;
+   }
+
+   private void buildBlocks()
+   {
+      numberOfBlocks = 0;
+      blockOffsets[0] = 0.0;
+
+      for (int i = 0; i < numberOfSegments; i++)
+      {
+         if (numberOfBlocks > 0 && mins[i] <= blockEnds[numberOfBlocks - 1])
+         {
+            blockEnds[numberOfBlocks - 1] = Math.max(blockEnds[numberOfBlocks - 1], maxs[i]);
+         }
+         else
+         {
+            if (numberOfBlocks > 0)
+               blockOffsets[numberOfBlocks] = blockOffsets[numberOfBlocks - 1] + blockEnds[numberOfBlocks - 1] - blockStarts[numberOfBlocks - 1];
+            blockStarts[numberOfBlocks] = mins[i];
+            blockEnds[numberOfBlocks] = maxs[i];
+            numberOfBlocks++;
+         }
+      }
+
+      if (numberOfBlocks > 0)
+         blockOffsets[numberOfBlocks] = blockOffsets[numberOfBlocks - 1] + blockEnds[numberOfBlocks - 1] - blockStarts[numberOfBlocks - 1];
+   }
+
+   /**
+    * Finds all the segments of this index that contain the given point, endpoints included.
+    *
+    * @param point the query.
+    * @param resultToPack the buffer in which the indices of the segments are stored, in no particular
+    *           order. The squared distances are all zero. Modified.
+    */
+   public void findContaining(double point, SpatialQueryResult resultToPack)
+   {
+      findOverlapping(point, point, resultToPack);
+   }
+
+   /**
+    * Finds all the segments of this index that overlap the given segment, sharing an endpoint being
+    * considered as overlapping.
+    *
+    * @param query the query. Not modified.
+    * @param resultToPack the buffer in which the indices of the segments are stored, in no particular
+    *           order. The squared distances are all zero. Modified.
+    */
+   public void findOverlapping(LineSegment1D query, SpatialQueryResult resultToPack)
+   {
+      findOverlapping(query.getMinPoint(), query.getMaxPoint(), resultToPack);
+   }
+
+   /**
+    * Finds all the segments of this index that overlap the given segment, sharing an endpoint being
+    * considered as overlapping.
+    *
+    * @param firstEndpoint the first endpoint of the query.
+    * @param secondEndpoint the second endpoint of the query.
+    * @param resultToPack the buffer in which the indices of the segments are stored, in no particular
+    *           order. The squared distances are all zero. Modified.
+    */
+   public void findOverlapping(double firstEndpoint, double secondEndpoint, SpatialQueryResult resultToPack)
+   {
+      resultToPack.clear();
+      findOverlapping(0, numberOfSegments, Math.min(firstEndpoint, secondEndpoint), Math.max(firstEndpoint, secondEndpoint), resultToPack);
+   }
+
+   private void findOverlapping(int lo, int hi, double min, double max, SpatialQueryResult result)
+   {
+      while (lo < hi)
+      {
+         int mid = (lo + hi) >>> 1;
+
+         if (subtreeMaxs[mid] < min)
+            return; // The whole subtree ends before the query.
+
+         findOverlapping(lo, mid, min, max, result);
+
+         if (mins[mid] > max)
+            return; // This segment and the right subtree start after the query.
+
+         if (maxs[mid] >= min)
+            result.add(indices[mid], 0.0);
+
+         lo = mid + 1;
+      }
+   }
+
+   /**
+    * Computes the length covered by the union of the segments of this index.
+    *
+    * @return the covered length.
+    */
+   public double computeUnionLength()
+   {
+      return blockOffsets[numberOfBlocks];
+   }
+
+   /**
+    * Computes the length covered by the union of the segments of this index within the given range.
+    *
+    * @param firstEndpoint the first endpoint of the range.
+    * @param secondEndpoint the second endpoint of the range.
+    * @return the covered length within the range.
+    */
+   public double computeUnionLength(double firstEndpoint, double secondEndpoint)
+   {
+      double min = Math.min(firstEndpoint, secondEndpoint);
+      double max = Math.max(firstEndpoint, secondEndpoint);
+
+      // First block ending at or after min.
+      int first = 0;
+      int last = numberOfBlocks;
+      while (first < last)
+      {
+         int mid = (first + last) >>> 1;
+         if (blockEnds[mid] < min)
+            first = mid + 1;
+         else
+            last = mid;
+      }
+
+      // Last block starting at or before max.
+      int end = first;
+      last = numberOfBlocks;
+      while (end < last)
+      {
+         int mid = (end + last) >>> 1;
+         if (blockStarts[mid] <= max)
+            end = mid + 1;
+         else
+            last = mid;
+      }
+
+      if (first >= end)
+         return 0.0;
+
+      double length = blockOffsets[end] - blockOffsets[first];
+      length -= Math.max(0.0, min - blockStarts[first]);
+      length -= Math.max(0.0, blockEnds[end - 1] - max);
+      return Math.max(0.0, length);
+   }
+}
@@ -0,0 +1,445 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+
+/**
+ * {@code LineSegment1DIntervalTree} is a dynamic index over a collection of 1D line segments that
+ * answers stabbing, overlap, and union-length queries while supporting the insertion and removal of
+ * segments.
+ * <p>
+ * The segments are stored in a randomized balanced binary search tree (treap) ordered by their
+ * minimum endpoint, each node storing the largest maximum endpoint of its subtree such that the
+ * subtrees that cannot overlap the query are skipped. Insertion and removal run in expected
+ * O(log(n)). The nodes are stored in flat arrays indexed by the identifiers of the segments such
+ * that no garbage is generated once the tree has grown to its largest size.
+ * </p>
+ * <p>
+ * When the segments do not change between queries, {@link LineSegment1DIntervalIndex} should be
+ * preferred. The overlap tests are inclusive, i.e. two segments sharing only an endpoint overlap,
+ * consistently with {@link LineSegment1D#isOverlappingInclusive(LineSegment1D)}.
+ * </p>
+ */
+public class LineSegment1DIntervalTree
+{
+   private static final int NO_NODE = -1;
+
+   private int root = NO_NODE;
+   private int size = 0;
+   /** Number of identifiers that have been used, either by a segment or in {@link #freeIds}. */
+   private int numberOfIds = 0;
+   private double[] firstEndpoints = new double[16];
+   private double[] secondEndpoints = new double[16];
+   private double[] mins = new double[16];
+   private double[] maxs = new double[16];
+   /** The largest maximum endpoint of the subtree rooted at each node. */
+   private double[] subtreeMaxs = new double[16];
+   private int[] lefts = new int[16];
+   private int[] rights = new int[16];
+   private int[] priorities = new int[16];
+   private boolean[] contained = new boolean[16];
+   private int numberOfFreeIds = 0;
+   private int[] freeIds = new int[16];
+   /** State of the generator for the priorities of the nodes. */
+   private int seed = 0x2545F491;
+
+   // Internal variables used to enable garbage free operations.
+   private double unionMin, unionMax;
+   private double unionLength, blockStart, blockEnd;
+
+   /**
+    * Creates a new empty tree.
+    */
+   public LineSegment1DIntervalTree()
+   {
+   }
+
+   /**
+    * Removes all the segments from this tree.
+    */
+   public void clear()
+   {
+      root = NO_NODE;
+      size = 0;
+      numberOfIds = 0;
+      numberOfFreeIds = 0;
+      Arrays.fill(contained, false);
+   }
+
+   /**
+    * Gets the number of segments in this tree.
+    *
+    * @return the number of segments.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Whether this tree is empty.
+    *
+    * @return {@code true} if there is no segment, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Adds a copy of the given segment to this tree.
+    *
+    * @param lineSegment the segment to add. Not modified.
+    * @return the identifier of the new segment.
+    */
+   public int add(LineSegment1D lineSegment)
+   {
+      return add(lineSegment.getFirstEndpoint(), lineSegment.getSecondEndpoint());
+   }
+
+   /**
+    * Adds a segment to this tree.
+    *
+    * @param firstEndpoint the first endpoint of the segment.
+    * @param secondEndpoint the second endpoint of the segment.
+    * @return the identifier of the new segment.
+    */
+   public int add(double firstEndpoint, double secondEndpoint)
+   {
+      int id = newId();
+      firstEndpoints[id] = firstEndpoint;
+      secondEndpoints[id] = secondEndpoint;
+      mins[id] = Math.min(firstEndpoint, secondEndpoint);
+      maxs[id] = Math.max(firstEndpoint, secondEndpoint);
+      subtreeMaxs[id] = maxs[id];
+      lefts[id] = NO_NODE;
+      rights[id] = NO_NODE;
+      priorities[id] = nextPriority();
+      contained[id] = true;
+
+      root = insert(root, id);
+      size++;
+      return id;
+   }
+
+   /**
+    * Removes a segment from this tree.
+    *
+    * @param id the identifier of the segment to remove.
+    * @return {@code true} if the segment was removed, {@code false} if there was no segment with the
+    *         given identifier.
+    */
+   public boolean remove(int id)
+   {
+      if (!contains(id))
+         return false;
+
+      root = remove(root, id);
+      contained[id] = false;
+      freeIds[numberOfFreeIds++] = id;
+      size--;
+
+      if (size == 0)
+         clear();
+
+      return true;
+   }
+
+   /**
+    * Whether this tree contains a segment with the given identifier.
+    *
+    * @param id the identifier to test.
+    * @return {@code true} if there is a segment with this identifier, {@code false} otherwise.
+    */
+   public boolean contains(int id)
+   {
+      return id >= 0 && id < numberOfIds && contained[id];
+   }
+
+   /**
+    * Packs the segment with the given identifier.
+    *
+    * @param id the identifier of the segment.
+    * @param lineSegmentToPack the line segment in which the segment is stored. Modified.
+    * @throws IllegalArgumentException if there is no segment with the given identifier.
+    */
+   public void getLineSegment(int id, LineSegment1D lineSegmentToPack)
+   {
+      if (!contains(id))
+         throw new IllegalArgumentException("There is no segment with the identifier: " + id);
+
+      lineSegmentToPack.set(firstEndpoints[id], secondEndpoints[id]);
+   }
+
+   /**
+    * Finds all the segments of this tree that contain the given point, endpoints included.
+    *
+    * @param point the query.
+    * @param resultToPack the buffer in which the identifiers of the segments are stored, in no
+    *           particular order. The squared distances are all zero. Modified.
+    */
+   public void findContaining(double point, SpatialQueryResult resultToPack)
+   {
+      findOverlapping(point, point, resultToPack);
+   }
+
+   /**
+    * Finds all the segments of this tree that overlap the given segment, sharing an endpoint being
+    * considered as overlapping.
+    *
+    * @param query the query. Not modified.
+    * @param resultToPack the buffer in which the identifiers of the segments are stored, in no
+    *           particular order. The squared distances are all zero. Modified.
+    */
+   public void findOverlapping(LineSegment1D query, SpatialQueryResult resultToPack)
+   {
+      findOverlapping(query.getMinPoint(), query.getMaxPoint(), resultToPack);
+   }
+
+   /**
+    * Finds all the segments of this tree that overlap the given segment, sharing an endpoint being
+    * considered as overlapping.
+    *
+    * @param firstEndpoint the first endpoint of the query.
+    * @param secondEndpoint the second endpoint of the query.
+    * @param resultToPack the buffer in which the identifiers of the segments are stored, in no
+    *           particular order. The squared distances are all zero. Modified.
+    */
+   public void findOverlapping(double firstEndpoint, double secondEndpoint, SpatialQueryResult resultToPack)
+   {
+      resultToPack.clear();
+      findOverlapping(root, Math.min(firstEndpoint, secondEndpoint), Math.max(firstEndpoint, secondEndpoint), resultToPack);
+   }
+
+   private void findOverlapping(int node, double min, double max, SpatialQueryResult result)
+   {
+      while (node != NO_NODE)
+      {
+         if (subtreeMaxs[node] < min)
+            return; // The whole subtree ends before the query.
+
+         findOverlapping(lefts[node], min, max, result);
+
+         if (mins[node] > max)
+            return; // This segment and the right subtree start after the query.
+
+         if (maxs[node] >= min)
+            result.add(node, 0.0);
+
+         node = rights[node];
+      }
+   }
+
+   /**
+    * Computes the length covered by the union of the segments of this tree.
+    * <p>
+    * This method visits every segment of the tree.
+    * </p>
+    *
+    * @return the covered length.
+    */
+   public double computeUnionLength()
+   {
+      return computeUnionLength(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+   }
+
+   /**
+    * Computes the length covered by the union of the segments of this tree within the given range.
+    * <p>
+    * Only the segments overlapping the range are visited.
+    * </p>
+    *
+    * @param firstEndpoint the first endpoint of the range.
+    * @param secondEndpoint the second endpoint of the range.
+    * @return the covered length within the range.
+    */
+   public double computeUnionLength(double firstEndpoint, double secondEndpoint)
+   {
+      unionMin = Math.min(firstEndpoint, secondEndpoint);
+      unionMax = Math.max(firstEndpoint, secondEndpoint);
+      unionLength = 0.0;
+      blockStart = Double.NaN;
+      blockEnd = Double.NaN;
+
+      accumulateUnion(root);
+
+      if (!Double.isNaN(blockStart))
+         unionLength += blockEnd - blockStart;
+      return unionLength;
+   }
+
+   /**
+    * Visits in increasing order of minimum endpoint the segments overlapping the range and merges
+    * them into disjoint blocks clipped to the range.
+    */
+   private void accumulateUnion(int node)
+   {
+      while (node != NO_NODE)
+      {
+         if (subtreeMaxs[node] < unionMin)
+            return;
+
+         accumulateUnion(lefts[node]);
+
+         if (mins[node] > unionMax)
+            return;
+
+         if (maxs[node] >= unionMin)
+         {
+            double start = Math.max(mins[node], unionMin);
+            double end = Math.min(maxs[node], unionMax);
+
+            if (Double.isNaN(blockStart))
+            {
+               blockStart = start;
+               blockEnd = end;
+            }
+            else if (start <= blockEnd)
+            {
+               blockEnd = Math.max(blockEnd, end);
+            }
+            else
+            {
+               unionLength += blockEnd - blockStart;
+               blockStart = start;
+               blockEnd = end;
+            }
+         }
+
+         node = rights[node];
+      }
+   }
+
+   private int insert(int node, int id)
+   {
+      if (node == NO_NODE)
+         return id;
+
+      if (isBefore(id, node))
+      {
+         lefts[node] = insert(lefts[node], id);
+         if (priorities[lefts[node]] > priorities[node])
+            node = rotateRight(node);
+      }
+      else
+      {
+         rights[node] = insert(rights[node], id);
+         if (priorities[rights[node]] > priorities[node])
+            node = rotateLeft(node);
+      }
+
+      updateSubtreeMax(node);
+      return node;
+   }
+
+   private int remove(int node, int id)
+   {
+      if (node == id)
+         return merge(lefts[node], rights[node]);
+
+      if (isBefore(id, node))
+         lefts[node] = remove(lefts[node], id);
+      else
+         rights[node] = remove(rights[node], id);
+
+      updateSubtreeMax(node);
+      return node;
+   }
+
+   /**
+    * Merges two subtrees, all the nodes of {@code left} being ordered before the nodes of
+    * {@code right}.
+    */
+   private int merge(int left, int right)
+   {
+      if (left == NO_NODE)
+         return right;
+      if (right == NO_NODE)
+         return left;
+
+      if (priorities[left] > priorities[right])
+      {
+         rights[left] = merge(rights[left], right);
+         updateSubtreeMax(left);
+         return left;
+      }
+      else
+      {
+         lefts[right] = merge(left, lefts[right]);
+         updateSubtreeMax(right);
+         return right;
+      }
+   }
+
+   private int rotateRight(int node)
+   {
+      int left = lefts[node];
+      lefts[node] = rights[left];
+      rights[left] = node;
+      updateSubtreeMax(node);
+      updateSubtreeMax(left);
+      return left;
+   }
+
+   private int rotateLeft(int node)
+   {
+      int right = rights[node];
+      rights[node] = lefts[right];
+      lefts[right] = node;
+      updateSubtreeMax(node);
+      updateSubtreeMax(right);
+      return right;
+   }
+
+   private void updateSubtreeMax(int node)
+   {
+      double max = maxs[node];
+      if (lefts[node] != NO_NODE)
+         max = Math.max(max, subtreeMaxs[lefts[node]]);
+      if (rights[node] != NO_NODE)
+         max = Math.max(max, subtreeMaxs[rights[node]]);
+      subtreeMaxs[node] = max;
+   }
+
+   /**
+    * The nodes are ordered by minimum endpoint, ties being broken with the identifiers such that
+    * every node can be found when removing it.
+    */
+   private boolean isBefore(int a, int b)
+   {
+      return mins[a] < mins[b] || (mins[a] == mins[b] && a < b);
+   }
+
+   private int nextPriority()
+   {
+      // Xorshift generator, deterministic such that the shape of the tree is reproducible.
+      seed ^= seed << 13;
+      seed ^= seed >>> 17;
+      seed ^= seed << 5;
+      return seed;
+   }
+
+   private int newId()
+   {
+      if (numberOfFreeIds > 0)
+         return freeIds[--numberOfFreeIds];
+
+      int id = numberOfIds++;
+
+      if (id == contained.length)
+      {
+         int capacity = 2 * id;
+         firstEndpoints = Arrays.copyOf(firstEndpoints, capacity);
+         secondEndpoints = Arrays.copyOf(secondEndpoints, capacity);
+         mins = Arrays.copyOf(mins, capacity);
+         maxs = Arrays.copyOf(maxs, capacity);
+         subtreeMaxs = Arrays.copyOf(subtreeMaxs, capacity);
+         lefts = Arrays.copyOf(lefts, capacity);
+         rights = Arrays.copyOf(rights, capacity);
+         priorities = Arrays.copyOf(priorities, capacity);
+         contained = Arrays.copyOf(contained, capacity);
+         freeIds = Arrays.copyOf(freeIds, capacity);
+      }
+
+      return id;
+   }
+}
@@ -0,0 +1,284 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.List;
+
+import us.ihmc.euclid.geometry.interfaces.LineSegment2DReadOnly;
+import us.ihmc.euclid.geometry.tools.EuclidGeometryTools;
+import us.ihmc.euclid.tuple2D.Point2D;
+
+/**
+ * {@code LineSegment2DIntersectionCalculator} finds all the intersecting pairs among a batch of 2D
+ * line segments, or between two batches of 2D line segments.
+ * <p>
+ * The segments are sorted by the lower bound of their x-interval and swept from left to right while
+ * maintaining the list of the segments whose x-interval contains the sweep position. Only the pairs
+ * whose bounding boxes overlap are tested with
+ * {@link EuclidGeometryTools#intersectionBetweenTwoLineSegment2Ds(double, double, double, double, double, double, double, double, us.ihmc.euclid.tuple2D.interfaces.Point2DBasics)},
+ * such that the edge cases, e.g. collinear or touching segments, are handled exactly as for a single
+ * pair. The cost is O(n log(n)) for sorting plus the number of pairs overlapping along the x-axis,
+ * which is in practice far less than the O(n<sup>2</sup>) of testing all the pairs. The bounding
+ * boxes are inflated by {@link EuclidGeometryTools#ONE_TEN_MILLIONTH} to be consistent with the
+ * tolerance used when testing a single pair.
+ * </p>
+ * <p>
+ * The intersections are reported through an {@link IntersectionListener}. This calculator does not
+ * generate garbage once it has been used with the largest batch of segments. It is not thread-safe,
+ * a separate instance should be used per thread.
+ * </p>
+ */
+public class LineSegment2DIntersectionCalculator
+{
+   /**
+    * Listener notified of each pair of intersecting line segments.
+    */
+   public interface IntersectionListener
+   {
+      /**
+       * Called for each pair of intersecting line segments.
+       * <p>
+       * When the two segments are collinear and overlap, the intersection is one point of the overlap
+       * as computed by
+       * {@link EuclidGeometryTools#intersectionBetweenTwoLineSegment2Ds(double, double, double, double, double, double, double, double, us.ihmc.euclid.tuple2D.interfaces.Point2DBasics)}.
+       * </p>
+       *
+       * @param firstIndex the index of the first segment. When searching within a single batch, it is
+       *           always lower than {@code secondIndex}. When searching between two batches, it is the
+       *           index in the first batch.
+       * @param secondIndex the index of the second segment.
+       * @param intersectionX the x-coordinate of the intersection.
+       * @param intersectionY the y-coordinate of the intersection.
+       */
+      void intersection(int firstIndex, int secondIndex, double intersectionX, double intersectionY);
+   }
+
+   /** Number of doubles used to store a segment: startX, startY, endX, endY. */
+   private static final int SEGMENT_SIZE = 4;
+   /** Margin used to inflate the bounding boxes of the segments before testing them. */
+   private static final double MARGIN = EuclidGeometryTools.ONE_TEN_MILLIONTH;
+
+   // Internal variables used to enable garbage free operations.
+   private final Point2D intersection = new Point2D();
+   private double[] segments = new double[0];
+   private int[] batchIndices = new int[0];
+   private boolean[] isInSecondBatch = new boolean[0];
+   private double[] minXs = new double[0];
+   private int[] order = new int[0];
+   private int[] active = new int[0];
+   private int numberOfSegments;
+
+   /**
+    * Creates a new calculator.
+    */
+   public LineSegment2DIntersectionCalculator()
+   {
+   }
+
+   /**
+    * Finds all the pairs of intersecting line segments in the given list.
+    *
+    * @param lineSegments the line segments to test. Not modified.
+    * @param listener the listener to notify of the intersections.
+    * @return the number of intersecting pairs.
+    */
+   public int computeIntersections(List<? extends LineSegment2DReadOnly> lineSegments, IntersectionListener listener)
+   {
+      allocate(lineSegments.size());
+      addSegments(lineSegments, false);
+      return sweep(listener, false);
+   }
+
+   /**
+    * Finds all the pairs of intersecting line segments in the given packed array.
+    *
+    * @param packedSegments the line segments to test, the i<sup>th</sup> line segment being stored as
+    *           {@code startX, startY, endX, endY} from the index {@code 4 * i}. Not modified.
+    * @param numberOfSegments the number of line segments to test.
+    * @param listener the listener to notify of the intersections.
+    * @return the number of intersecting pairs.
+    * @throws IllegalArgumentException if {@code numberOfSegments} is negative or the array is too
+    *            short.
+    */
+   public int computeIntersections(double[] packedSegments, int numberOfSegments, IntersectionListener listener)
+   {
+      checkPackedSegments(packedSegments, numberOfSegments);
+      allocate(numberOfSegments);
+      addSegments(packedSegments, numberOfSegments, false);
+      return sweep(listener, false);
+   }
+
+   /**
+    * Finds all the pairs of intersecting line segments made of one segment from each list, the
+    * segments of a same list are not tested against each other.
+    *
+    * @param firstLineSegments the first batch of line segments. Not modified.
+    * @param secondLineSegments the second batch of line segments. Not modified.
+    * @param listener the listener to notify of the intersections, the first index refers to the first
+    *           batch and the second index to the second batch.
+    * @return the number of intersecting pairs.
+    */
+   public int computeIntersections(List<? extends LineSegment2DReadOnly> firstLineSegments, List<? extends LineSegment2DReadOnly> secondLineSegments,
+                                   IntersectionListener listener)
+   {
+      allocate(firstLineSegments.size() + secondLineSegments.size());
+      addSegments(firstLineSegments, false);
+      addSegments(secondLineSegments, true);
+      return sweep(listener, true);
+   }
+
+   /**
+    * Finds all the pairs of intersecting line segments made of one segment from each packed array, the
+    * segments of a same array are not tested against each other.
+    *
+    * @param firstPackedSegments the first batch of line segments, the i<sup>th</sup> line segment
+    *           being stored as {@code startX, startY, endX, endY} from the index {@code 4 * i}. Not
+    *           modified.
+    * @param firstNumberOfSegments the number of line segments in the first batch.
+    * @param secondPackedSegments the second batch of line segments, stored as the first batch. Not
+    *           modified.
+    * @param secondNumberOfSegments the number of line segments in the second batch.
+    * @param listener the listener to notify of the intersections, the first index refers to the first
+    *           batch and the second index to the second batch.
+    * @return the number of intersecting pairs.
+    * @throws IllegalArgumentException if a number of segments is negative or an array is too short.
+    */
+   public int computeIntersections(double[] firstPackedSegments, int firstNumberOfSegments, double[] secondPackedSegments, int secondNumberOfSegments,
+                                   IntersectionListener listener)
+   {
+      checkPackedSegments(firstPackedSegments, firstNumberOfSegments);
+      checkPackedSegments(secondPackedSegments, secondNumberOfSegments);
+      allocate(firstNumberOfSegments + secondNumberOfSegments);
+      addSegments(firstPackedSegments, firstNumberOfSegments, false);
+      addSegments(secondPackedSegments, secondNumberOfSegments, true);
+      return sweep(listener, true);
+   }
+
+   private void allocate(int capacity)
+   {
+      numberOfSegments = 0;
+
+      if (order.length < capacity)
+      {
+         segments = new double[SEGMENT_SIZE * capacity];
+         batchIndices = new int[capacity];
+         isInSecondBatch = new boolean[capacity];
+         minXs = new double[capacity];
+         order = new int[capacity];
+         active = new int[capacity];
+      }
+   }
+
+   private void addSegments(List<? extends LineSegment2DReadOnly> lineSegments, boolean secondBatch)
+   {
+      for (int i = 0; i < lineSegments.size(); i++)
+      {
+         LineSegment2DReadOnly lineSegment = lineSegments.get(i);
+         addSegment(i, lineSegment.getFirstEndpointX(), lineSegment.getFirstEndpointY(), lineSegment.getSecondEndpointX(),
+                    lineSegment.getSecondEndpointY(), secondBatch);
+      }
+   }
+
+   private void addSegments(double[] packedSegments, int numberOfSegments, boolean secondBatch)
+   {
+      for (int i = 0; i < numberOfSegments; i++)
+      {
+         int offset = SEGMENT_SIZE * i;
+         addSegment(i, packedSegments[offset], packedSegments[offset + 1], packedSegments[offset + 2], packedSegments[offset + 3], secondBatch);
+      }
+   }
+
+   private void addSegment(int batchIndex, double startX, double startY, double endX, double endY, boolean secondBatch)
+   {
+      int index = numberOfSegments++;
+      int offset = SEGMENT_SIZE * index;
+      segments[offset] = startX;
+      segments[offset + 1] = startY;
+      segments[offset + 2] = endX;
+      segments[offset + 3] = endY;
+      batchIndices[index] = batchIndex;
+      isInSecondBatch[index] = secondBatch;
+      minXs[index] = Math.min(startX, endX);
+      order[index] = index;
+   }
+
+   private int sweep(IntersectionListener listener, boolean betweenBatches)
+   {
+      // The lower bounds are reordered with the segments.
+      IndexSortTools.sort(order, minXs, 0, numberOfSegments - 1);
+
+      int numberOfActiveSegments = 0;
+      int numberOfIntersections = 0;
+
+      for (int i = 0; i < numberOfSegments; i++)
+      {
+         int current = order[i];
+         int currentOffset = SEGMENT_SIZE * current;
+         double startX = segments[currentOffset];
+         double startY = segments[currentOffset + 1];
+         double endX = segments[currentOffset + 2];
+         double endY = segments[currentOffset + 3];
+         double minX = minXs[i] - MARGIN;
+         double minY = Math.min(startY, endY) - MARGIN;
+         double maxY = Math.max(startY, endY) + MARGIN;
+
+         for (int j = 0; j < numberOfActiveSegments;)
+         {
+            int other = active[j];
+            int otherOffset = SEGMENT_SIZE * other;
+            double otherStartX = segments[otherOffset];
+            double otherStartY = segments[otherOffset + 1];
+            double otherEndX = segments[otherOffset + 2];
+            double otherEndY = segments[otherOffset + 3];
+
+            if (Math.max(otherStartX, otherEndX) + MARGIN < minX)
+            { // The sweep has passed the other segment, it cannot intersect the next segments either.
+               active[j] = active[--numberOfActiveSegments];
+               continue;
+            }
+
+            j++;
+
+            if (betweenBatches && isInSecondBatch[current] == isInSecondBatch[other])
+               continue;
+            if (Math.max(otherStartY, otherEndY) + MARGIN < minY || Math.min(otherStartY, otherEndY) - MARGIN > maxY)
+               continue;
+
+            if (EuclidGeometryTools.intersectionBetweenTwoLineSegment2Ds(otherStartX, otherStartY, otherEndX, otherEndY, startX, startY, endX, endY,
+                                                                         intersection))
+            {
+               numberOfIntersections++;
+               reportIntersection(listener, betweenBatches, current, other);
+            }
+         }
+
+         active[numberOfActiveSegments++] = current;
+      }
+
+      return numberOfIntersections;
+   }
+
+   private void reportIntersection(IntersectionListener listener, boolean betweenBatches, int current, int other)
+   {
+      int first, second;
+
+      if (betweenBatches ? isInSecondBatch[current] : batchIndices[other] < batchIndices[current])
+      {
+         first = other;
+         second = current;
+      }
+      else
+      {
+         first = current;
+         second = other;
+      }
+
+      listener.intersection(batchIndices[first], batchIndices[second], intersection.getX(), intersection.getY());
+   }
+
+   private static void checkPackedSegments(double[] packedSegments, int numberOfSegments)
+   {
+      if (numberOfSegments < 0)
+         throw new IllegalArgumentException("The number of segments cannot be negative, was: " + numberOfSegments);
+      if (packedSegments.length < SEGMENT_SIZE * numberOfSegments)
+         throw new IllegalArgumentException("The array is too short for " + numberOfSegments + " segments, length: " + packedSegments.length);
+   }
+}
@@ -0,0 +1,523 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+
+import us.ihmc.euclid.geometry.interfaces.LineSegment3DBasics;
+import us.ihmc.euclid.geometry.interfaces.LineSegment3DReadOnly;
+import us.ihmc.euclid.geometry.tools.EuclidGeometryTools;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+
+/**
+ * {@code LineSegment3DSpatialHash} indexes 3D line segments in a uniform grid to answer
+ * nearest-segment and within-radius queries without testing every segment.
+ * <p>
+ * Each segment is registered in all the cells overlapped by its bounding box, and the non-empty
+ * cells are stored in a hash table such that the grid is unbounded and its memory is proportional to
+ * the number of cells actually used. When the cell size is comparable to the length of the segments
+ * and the query radius, inserting, removing, and querying run in expected constant time. Segments
+ * much longer than the cell size are registered in many cells and slow down insertion and removal,
+ * a segment can be registered in at most 2<sup>20</sup> cells and its endpoints must be finite.
+ * </p>
+ * <p>
+ * Segments can be added and removed at any time, each segment is referred to by the identifier
+ * returned when it was added. The identifier of a removed segment may be reused by a segment added
+ * afterward. The results of the queries are stored in a {@link SpatialQueryResult} as pairs of
+ * segment identifier and squared distance. Once the internal buffers have reached their largest
+ * size, this spatial hash does not generate garbage. It is not thread-safe.
+ * </p>
+ */
+public class LineSegment3DSpatialHash
+{
+   /** Number of doubles used to store a segment: startX, startY, startZ, endX, endY, endZ. */
+   private static final int SEGMENT_SIZE = 6;
+   /** Bound on the cell coordinates such that iterating over the cells of a segment cannot overflow. */
+   private static final double MAX_CELL_COORDINATE = 1 << 30;
+   /** Maximum number of cells in which a single segment can be registered. */
+   private static final double MAX_CELLS_PER_SEGMENT = 1 << 20;
+
+   private final double cellSize;
+   private final double invCellSize;
+   private final SpatialHashCellTable cells = new SpatialHashCellTable();
+
+   private int size = 0;
+   /** Number of identifiers that have been used, either by a segment or in {@link #freeIds}. */
+   private int numberOfIds = 0;
+   private double[] segments = new double[SEGMENT_SIZE * 16];
+   private boolean[] contained = new boolean[16];
+   private int numberOfFreeIds = 0;
+   private int[] freeIds = new int[16];
+
+   /** The range of cells that have been used since the last time this spatial hash was empty. */
+   private int minCellX, maxCellX, minCellY, maxCellY, minCellZ, maxCellZ;
+
+   // Internal variables used to enable garbage free operations.
+   private int[] visitStamps = new int[16];
+   private int stamp = 0;
+   private double queryX, queryY, queryZ;
+   private double bestDistanceSquared;
+   private int bestId;
+
+   /**
+    * Creates a new empty spatial hash.
+    *
+    * @param cellSize the size of the cells of the grid. It should be in the order of the length of
+    *           the segments and of the query radii.
+    * @throws IllegalArgumentException if {@code cellSize} is not strictly positive.
+    */
+   public LineSegment3DSpatialHash(double cellSize)
+   {
+      if (!(cellSize > 0.0))
+         throw new IllegalArgumentException("The cell size must be strictly positive, was: " + cellSize);
+      this.cellSize = cellSize;
+      invCellSize = 1.0 / cellSize;
+   }
+
+   /**
+    * Removes all the segments from this spatial hash.
+    */
+   public void clear()
+   {
+      cells.clear();
+      size = 0;
+      numberOfIds = 0;
+      numberOfFreeIds = 0;
+      Arrays.fill(contained, false);
+   }
+
+   /**
+    * Gets the number of segments in this spatial hash.
+    *
+    * @return the number of segments.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Whether this spatial hash is empty.
+    *
+    * @return {@code true} if there is no segment, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Gets the size of the cells of the grid.
+    *
+    * @return the cell size.
+    */
+   public double getCellSize()
+   {
+      return cellSize;
+   }
+
+   /**
+    * Adds a copy of the given segment to this spatial hash.
+    *
+    * @param lineSegment the segment to add. Not modified.
+    * @return the identifier of the new segment.
+    * @throws IllegalArgumentException if the segment cannot be registered in this spatial hash, see
+    *            {@link #add(double, double, double, double, double, double)}.
+    */
+   public int add(LineSegment3DReadOnly lineSegment)
+   {
+      return add(lineSegment.getFirstEndpointX(), lineSegment.getFirstEndpointY(), lineSegment.getFirstEndpointZ(), lineSegment.getSecondEndpointX(),
+                 lineSegment.getSecondEndpointY(), lineSegment.getSecondEndpointZ());
+   }
+
+   /**
+    * Adds a segment to this spatial hash.
+    *
+    * @param firstEndpointX the x-coordinate of the first endpoint of the segment.
+    * @param firstEndpointY the y-coordinate of the first endpoint of the segment.
+    * @param firstEndpointZ the z-coordinate of the first endpoint of the segment.
+    * @param secondEndpointX the x-coordinate of the second endpoint of the segment.
+    * @param secondEndpointY the y-coordinate of the second endpoint of the segment.
+    * @param secondEndpointZ the z-coordinate of the second endpoint of the segment.
+    * @return the identifier of the new segment.
+    * @throws IllegalArgumentException if any endpoint is not finite, if the segment is too far from
+    *            the origin relative to the cell size, or if it overlaps more than 2<sup>20</sup> cells.
+    */
+   public int add(double firstEndpointX, double firstEndpointY, double firstEndpointZ, double secondEndpointX, double secondEndpointY,
+                  double secondEndpointZ)
+   {
+      checkSegment(firstEndpointX, firstEndpointY, firstEndpointZ, secondEndpointX, secondEndpointY, secondEndpointZ);
+
+      int id = newId();
+      int offset = SEGMENT_SIZE * id;
+      segments[offset] = firstEndpointX;
+      segments[offset + 1] = firstEndpointY;
+      segments[offset + 2] = firstEndpointZ;
+      segments[offset + 3] = secondEndpointX;
+      segments[offset + 4] = secondEndpointY;
+      segments[offset + 5] = secondEndpointZ;
+      contained[id] = true;
+
+      int cellXStart = toCell(Math.min(firstEndpointX, secondEndpointX));
+      int cellXEnd = toCell(Math.max(firstEndpointX, secondEndpointX));
+      int cellYStart = toCell(Math.min(firstEndpointY, secondEndpointY));
+      int cellYEnd = toCell(Math.max(firstEndpointY, secondEndpointY));
+      int cellZStart = toCell(Math.min(firstEndpointZ, secondEndpointZ));
+      int cellZEnd = toCell(Math.max(firstEndpointZ, secondEndpointZ));
+
+      for (int cellX = cellXStart; cellX <= cellXEnd; cellX++)
+      {
+         for (int cellY = cellYStart; cellY <= cellYEnd; cellY++)
+         {
+            for (int cellZ = cellZStart; cellZ <= cellZEnd; cellZ++)
+               cells.add(cellX, cellY, cellZ, id);
+         }
+      }
+
+      if (size == 0)
+      {
+         minCellX = cellXStart;
+         maxCellX = cellXEnd;
+         minCellY = cellYStart;
+         maxCellY = cellYEnd;
+         minCellZ = cellZStart;
+         maxCellZ = cellZEnd;
+      }
+      else
+      {
+         minCellX = Math.min(minCellX, cellXStart);
+         maxCellX = Math.max(maxCellX, cellXEnd);
+         minCellY = Math.min(minCellY, cellYStart);
+         maxCellY = Math.max(maxCellY, cellYEnd);
+         minCellZ = Math.min(minCellZ, cellZStart);
+         maxCellZ = Math.max(maxCellZ, cellZEnd);
+      }
+
+      size++;
+      return id;
+   }
+
+   /**
+    * Removes a segment from this spatial hash.
+    *
+    * @param id the identifier of the segment to remove.
+    * @return {@code true} if the segment was removed, {@code false} if there was no segment with the
+    *         given identifier.
+    */
+   public boolean remove(int id)
+   {
+      if (!contains(id))
+         return false;
+
+      int offset = SEGMENT_SIZE * id;
+      int cellXStart = toCell(Math.min(segments[offset], segments[offset + 3]));
+      int cellXEnd = toCell(Math.max(segments[offset], segments[offset + 3]));
+      int cellYStart = toCell(Math.min(segments[offset + 1], segments[offset + 4]));
+      int cellYEnd = toCell(Math.max(segments[offset + 1], segments[offset + 4]));
+      int cellZStart = toCell(Math.min(segments[offset + 2], segments[offset + 5]));
+      int cellZEnd = toCell(Math.max(segments[offset + 2], segments[offset + 5]));
+
+      for (int cellX = cellXStart; cellX <= cellXEnd; cellX++)
+      {
+         for (int cellY = cellYStart; cellY <= cellYEnd; cellY++)
+         {
+            for (int cellZ = cellZStart; cellZ <= cellZEnd; cellZ++)
+               cells.remove(cellX, cellY, cellZ, id);
+         }
+      }
+
+      contained[id] = false;
+      freeIds[numberOfFreeIds++] = id;
+      size--;
+
+      if (size == 0)
+         clear();
+
+      return true;
+   }
+
+   /**
+    * Whether this spatial hash contains a segment with the given identifier.
+    *
+    * @param id the identifier to test.
+    * @return {@code true} if there is a segment with this identifier, {@code false} otherwise.
+    */
+   public boolean contains(int id)
+   {
+      return id >= 0 && id < numberOfIds && contained[id];
+   }
+
+   /**
+    * Packs the segment with the given identifier.
+    *
+    * @param id the identifier of the segment.
+    * @param lineSegmentToPack the line segment in which the segment is stored. Modified.
+    * @throws IllegalArgumentException if there is no segment with the given identifier.
+    */
+   public void getLineSegment(int id, LineSegment3DBasics lineSegmentToPack)
+   {
+      if (!contains(id))
+         throw new IllegalArgumentException("There is no segment with the identifier: " + id);
+
+      int offset = SEGMENT_SIZE * id;
+      lineSegmentToPack.set(segments[offset], segments[offset + 1], segments[offset + 2], segments[offset + 3], segments[offset + 4], segments[offset + 5]);
+   }
+
+   /**
+    * Finds the segment of this spatial hash that is the closest to the query.
+    *
+    * @param query the query. Not modified.
+    * @param resultToPack the buffer in which the nearest segment is stored, it is empty if this
+    *           spatial hash is empty. Modified.
+    * @return the identifier of the nearest segment or {@code -1} if this spatial hash is empty.
+    */
+   public int findNearest(Point3DReadOnly query, SpatialQueryResult resultToPack)
+   {
+      return findNearest(query.getX(), query.getY(), query.getZ(), resultToPack);
+   }
+
+   /**
+    * Finds the segment of this spatial hash that is the closest to the query.
+    * <p>
+    * The cells are visited in shells of increasing size around the cell of the query, the search stops
+    * as soon as the next shell cannot contain a closer segment.
+    * </p>
+    *
+    * @param x the x-coordinate of the query.
+    * @param y the y-coordinate of the query.
+    * @param z the z-coordinate of the query.
+    * @param resultToPack the buffer in which the nearest segment is stored, it is empty if this
+    *           spatial hash is empty. Modified.
+    * @return the identifier of the nearest segment or {@code -1} if this spatial hash is empty.
+    */
+   public int findNearest(double x, double y, double z, SpatialQueryResult resultToPack)
+   {
+      resultToPack.clear();
+
+      if (size == 0)
+         return -1;
+
+      nextStamp();
+      queryX = x;
+      queryY = y;
+      queryZ = z;
+      bestDistanceSquared = Double.POSITIVE_INFINITY;
+      bestId = -1;
+
+      long cellX = toCell(x);
+      long cellY = toCell(y);
+      long cellZ = toCell(z);
+      // The shells closer than this do not intersect the used cells.
+      long firstShell = Math.max(Math.max(minCellX - cellX, cellX - maxCellX), Math.max(minCellY - cellY, cellY - maxCellY));
+      firstShell = Math.max(firstShell, Math.max(minCellZ - cellZ, cellZ - maxCellZ));
+      firstShell = Math.max(0, firstShell);
+      // The shell from which all the used cells have been visited.
+      long lastShell = Math.max(Math.max(cellX - minCellX, maxCellX - cellX), Math.max(cellY - minCellY, maxCellY - cellY));
+      lastShell = Math.max(lastShell, Math.max(cellZ - minCellZ, maxCellZ - cellZ));
+
+      for (long shell = firstShell; shell <= lastShell; shell++)
+      {
+         if (shell > 0)
+         { // The cells of this shell are at least (shell - 1) cells away from the query.
+            double shellDistance = (shell - 1) * cellSize;
+            if (bestDistanceSquared <= shellDistance * shellDistance)
+               break;
+         }
+
+         if (shell == 0)
+         {
+            visitNearest(cellX, cellX, cellY, cellY, cellZ, cellZ);
+         }
+         else
+         {
+            // The two faces normal to the z-axis.
+            visitNearest(cellX - shell, cellX + shell, cellY - shell, cellY + shell, cellZ - shell, cellZ - shell);
+            visitNearest(cellX - shell, cellX + shell, cellY - shell, cellY + shell, cellZ + shell, cellZ + shell);
+            // The two faces normal to the y-axis without their edges on the previous faces.
+            visitNearest(cellX - shell, cellX + shell, cellY - shell, cellY - shell, cellZ - shell + 1, cellZ + shell - 1);
+            visitNearest(cellX - shell, cellX + shell, cellY + shell, cellY + shell, cellZ - shell + 1, cellZ + shell - 1);
+            // The two faces normal to the x-axis without their edges on the previous faces.
+            visitNearest(cellX - shell, cellX - shell, cellY - shell + 1, cellY + shell - 1, cellZ - shell + 1, cellZ + shell - 1);
+            visitNearest(cellX + shell, cellX + shell, cellY - shell + 1, cellY + shell - 1, cellZ - shell + 1, cellZ + shell - 1);
+         }
+      }
+
+      resultToPack.add(bestId, bestDistanceSquared);
+      return bestId;
+   }
+
+   private void visitNearest(long cellXStart, long cellXEnd, long cellYStart, long cellYEnd, long cellZStart, long cellZEnd)
+   {
+      int xStart = (int) Math.max(cellXStart, minCellX);
+      int xEnd = (int) Math.min(cellXEnd, maxCellX);
+      int yStart = (int) Math.max(cellYStart, minCellY);
+      int yEnd = (int) Math.min(cellYEnd, maxCellY);
+      int zStart = (int) Math.max(cellZStart, minCellZ);
+      int zEnd = (int) Math.min(cellZEnd, maxCellZ);
+
+      for (int cellX = xStart; cellX <= xEnd; cellX++)
+      {
+         for (int cellY = yStart; cellY <= yEnd; cellY++)
+         {
+            for (int cellZ = zStart; cellZ <= zEnd; cellZ++)
+            {
+               for (int entry = cells.firstEntry(cellX, cellY, cellZ); entry != -1; entry = cells.nextEntry(entry))
+               {
+                  int id = cells.getValue(entry);
+
+                  if (!markVisited(id))
+                     continue;
+
+                  double distanceSquared = distanceSquared(id, queryX, queryY, queryZ);
+
+                  if (distanceSquared < bestDistanceSquared)
+                  {
+                     bestDistanceSquared = distanceSquared;
+                     bestId = id;
+                  }
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Finds all the segments of this spatial hash that are within a distance {@code radius} of the
+    * query.
+    *
+    * @param query the query. Not modified.
+    * @param radius the search radius.
+    * @param resultToPack the buffer in which the segments are stored, in no particular order, see
+    *           {@link SpatialQueryResult#sortByDistance()}. Modified.
+    */
+   public void findWithinRadius(Point3DReadOnly query, double radius, SpatialQueryResult resultToPack)
+   {
+      findWithinRadius(query.getX(), query.getY(), query.getZ(), radius, resultToPack);
+   }
+
+   /**
+    * Finds all the segments of this spatial hash that are within a distance {@code radius} of the
+    * query.
+    *
+    * @param x the x-coordinate of the query.
+    * @param y the y-coordinate of the query.
+    * @param z the z-coordinate of the query.
+    * @param radius the search radius.
+    * @param resultToPack the buffer in which the segments are stored, in no particular order, see
+    *           {@link SpatialQueryResult#sortByDistance()}. Modified.
+    */
+   public void findWithinRadius(double x, double y, double z, double radius, SpatialQueryResult resultToPack)
+   {
+      resultToPack.clear();
+
+      if (size == 0 || !(radius >= 0.0))
+         return;
+
+      nextStamp();
+      double radiusSquared = radius * radius;
+      int xStart = Math.max(toCell(x - radius), minCellX);
+      int xEnd = Math.min(toCell(x + radius), maxCellX);
+      int yStart = Math.max(toCell(y - radius), minCellY);
+      int yEnd = Math.min(toCell(y + radius), maxCellY);
+      int zStart = Math.max(toCell(z - radius), minCellZ);
+      int zEnd = Math.min(toCell(z + radius), maxCellZ);
+
+      for (int cellX = xStart; cellX <= xEnd; cellX++)
+      {
+         for (int cellY = yStart; cellY <= yEnd; cellY++)
+         {
+            for (int cellZ = zStart; cellZ <= zEnd; cellZ++)
+            {
+               for (int entry = cells.firstEntry(cellX, cellY, cellZ); entry != -1; entry = cells.nextEntry(entry))
+               {
+                  int id = cells.getValue(entry);
+
+                  if (!markVisited(id))
+                     continue;
+
+                  double distanceSquared = distanceSquared(id, x, y, z);
+
+                  if (distanceSquared <= radiusSquared)
+                     resultToPack.add(id, distanceSquared);
+               }
+            }
+         }
+      }
+   }
+
+   private double distanceSquared(int id, double x, double y, double z)
+   {
+      int offset = SEGMENT_SIZE * id;
+      return EuclidGeometryTools.distanceSquaredFromPoint3DToLineSegment3D(x, y, z, segments[offset], segments[offset + 1], segments[offset + 2],
+                                                                           segments[offset + 3], segments[offset + 4], segments[offset + 5]);
+   }
+
+   private void checkSegment(double firstEndpointX, double firstEndpointY, double firstEndpointZ, double secondEndpointX, double secondEndpointY,
+                             double secondEndpointZ)
+   {
+      if (!Double.isFinite(firstEndpointX) || !Double.isFinite(firstEndpointY) || !Double.isFinite(firstEndpointZ) || !Double.isFinite(secondEndpointX)
+            || !Double.isFinite(secondEndpointY) || !Double.isFinite(secondEndpointZ))
+         throw new IllegalArgumentException("The endpoints of the segment must be finite, were: (" + firstEndpointX + ", " + firstEndpointY + ", "
+               + firstEndpointZ + ") and (" + secondEndpointX + ", " + secondEndpointY + ", " + secondEndpointZ + ")");
+
+      double numberOfCells = numberOfCells(firstEndpointX, secondEndpointX) * numberOfCells(firstEndpointY, secondEndpointY)
+            * numberOfCells(firstEndpointZ, secondEndpointZ);
+
+      if (numberOfCells > MAX_CELLS_PER_SEGMENT)
+         throw new IllegalArgumentException("The segment overlaps more than " + (int) MAX_CELLS_PER_SEGMENT + " cells of size: " + cellSize);
+   }
+
+   private double numberOfCells(double firstCoordinate, double secondCoordinate)
+   {
+      double cellStart = Math.floor(Math.min(firstCoordinate, secondCoordinate) * invCellSize);
+      double cellEnd = Math.floor(Math.max(firstCoordinate, secondCoordinate) * invCellSize);
+
+      if (cellStart < -MAX_CELL_COORDINATE || cellEnd > MAX_CELL_COORDINATE)
+         throw new IllegalArgumentException("The segment is too far from the origin for the cell size: " + cellSize);
+
+      return cellEnd - cellStart + 1.0;
+   }
+
+   private int toCell(double coordinate)
+   {
+      return (int) Math.floor(coordinate * invCellSize);
+   }
+
+   private int newId()
+   {
+      if (numberOfFreeIds > 0)
+         return freeIds[--numberOfFreeIds];
+
+      int id = numberOfIds++;
+
+      if (id == contained.length)
+      {
+         segments = Arrays.copyOf(segments, 2 * SEGMENT_SIZE * id);
+         contained = Arrays.copyOf(contained, 2 * id);
+         freeIds = Arrays.copyOf(freeIds, 2 * id);
+         visitStamps = Arrays.copyOf(visitStamps, 2 * id);
+      }
+
+      return id;
+   }
+
+   private void nextStamp()
+   {
+      if (stamp == Integer.MAX_VALUE)
+      {
+         Arrays.fill(visitStamps, 0);
+         stamp = 0;
+      }
+
+      stamp++;
+   }
+
+   /**
+    * @return {@code true} if the segment had not been visited yet during the current query.
+    */
+   private boolean markVisited(int id)
+   {
+      if (visitStamps[id] == stamp)
+         return false;
+      visitStamps[id] = stamp;
+      return true;
+   }
+}
@@ -16,6 +16,10 @@ public class Orientation2D implements Orientation2DBasics, GeometryObject<Orient
 {
    /** The angle in radians about the z-axis. */
    private double yaw = 0.0;
+   /** The cosine of {@link #yaw}, updated with it in {@link #setYaw(double)}. */
+   private double cosYaw = 1.0;
+   /** The sine of {@link #yaw}, updated with it in {@link #setYaw(double)}. */
+   private double sinYaw = 0.0;
 
    /** Vector used to transform {@code this} in {@link #applyTransform(Transform)}. */
    private final Vector2D xVector = new Vector2D(1.0, 0.0);
@@ -74,7 +78,14 @@ public class Orientation2D implements Orientation2DBasics, GeometryObject<Orient
    @Override
    public void setYaw(double yaw)
    {
-      this.yaw = EuclidCoreTools.trimAngleMinusPiToPi(yaw);
+      yaw = EuclidCoreTools.trimAngleMinusPiToPi(yaw);
+
+      if (yaw == this.yaw)
+         return;
+
+      this.yaw = yaw;
+      cosYaw = Math.cos(yaw);
+      sinYaw = Math.sin(yaw);
    }
 
    /** {@inheritDoc} */
@@ -84,6 +95,32 @@ public class Orientation2D implements Orientation2DBasics, GeometryObject<Orient
       return yaw;
    }
 
+   /**
+    * {@inheritDoc}
+    * <p>
+    * The value is computed when the yaw angle changes such that this getter does not modify this
+    * orientation.
+    * </p>
+    */
+   @Override
+   public double getCosYaw()
+   {
+      return cosYaw;
+   }
+
+   /**
+    * {@inheritDoc}
+    * <p>
+    * The value is computed when the yaw angle changes such that this getter does not modify this
+    * orientation.
+    * </p>
+    */
+   @Override
+   public double getSinYaw()
+   {
+      return sinYaw;
+   }
+
    /** {@inheritDoc} */
    @Override
    public void applyTransform(Transform transform)
@@ -0,0 +1,403 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.geometry.tools.EuclidGeometryPolygonTools;
+import us.ihmc.euclid.matrix.Matrix3D;
+import us.ihmc.euclid.tuple2D.Point2D;
+
+/**
+ * {@code OrientedBoundingBoxCalculator} computes a {@link Box3D} that tightly encloses a set of 3D
+ * points, its orientation being fitted to the points unlike {@link BoundingBox3D} which is always
+ * aligned with the world axes.
+ * <p>
+ * The orientation of the box is given by the principal axes of the points, i.e. the eigenvectors of
+ * their covariance matrix which is computed in a single pass with {@link PointCloudCovariance3D}.
+ * The extents of the box are then found with a second pass over the points.
+ * </p>
+ * <p>
+ * The principal axes are only an approximation of the orientation of the minimum volume box. When
+ * {@link #setUseConvexHullRefinement(boolean)} is enabled, the orientation is refined around each
+ * principal axis by fitting the minimum area rectangle to the convex hull of the points projected on
+ * the plane orthogonal to that axis, the rectangle having one side aligned with an edge of the hull.
+ * The refinement is more expensive but is significantly tighter for boxy point sets.
+ * </p>
+ * <p>
+ * This calculator is not thread-safe, a separate instance should be used per thread. It does not
+ * generate garbage once it has been used with the largest set of points when the refinement is
+ * enabled.
+ * </p>
+ */
+public class OrientedBoundingBoxCalculator
+{
+   private boolean useConvexHullRefinement = false;
+
+   // Internal variables used to enable garbage free operations.
+   private final PointCloudCovariance3D covariance = new PointCloudCovariance3D();
+   private final Matrix3D covarianceMatrix = new Matrix3D();
+   private final double[] matrix = new double[9];
+   /** The axes of the box, the i<sup>th</sup> axis is stored in [3 i, 3 i + 3[. */
+   private final double[] axes = new double[9];
+   private final double[] refinedAxes = new double[9];
+   private final double[] eigenvalues = new double[3];
+   private final double[] minimums = new double[3];
+   private final double[] maximums = new double[3];
+   private final List<Point2D> projectedPoints = new ArrayList<>();
+
+   private Vertex3DSupplier vertexSupplier;
+   private double[] xs, ys, zs;
+   private int startIndex, endIndex;
+
+   /**
+    * Creates a new calculator, the refinement being disabled by default.
+    */
+   public OrientedBoundingBoxCalculator()
+   {
+   }
+
+   /**
+    * Sets whether the orientation of the box is refined by fitting minimum area rectangles to the
+    * convex hulls of the projected points.
+    *
+    * @param useConvexHullRefinement {@code true} to enable the refinement.
+    */
+   public void setUseConvexHullRefinement(boolean useConvexHullRefinement)
+   {
+      this.useConvexHullRefinement = useConvexHullRefinement;
+   }
+
+   /**
+    * Whether the refinement of the orientation is enabled.
+    *
+    * @return {@code true} if the refinement is enabled.
+    */
+   public boolean isUsingConvexHullRefinement()
+   {
+      return useConvexHullRefinement;
+   }
+
+   /**
+    * Computes the oriented bounding box of the given vertices.
+    * <p>
+    * The box x-axis is the direction along which the points are the most spread out.
+    * </p>
+    *
+    * @param vertices the points to enclose. Not modified.
+    * @param boxToPack the box in which the result is stored, it is set to {@link Double#NaN} if there
+    *           is no vertex. Modified.
+    */
+   public void compute(Vertex3DSupplier vertices, Box3D boxToPack)
+   {
+      vertexSupplier = vertices;
+      startIndex = 0;
+      endIndex = vertices.getNumberOfVertices();
+
+      covariance.clear();
+      covariance.addAll(vertices);
+      compute(boxToPack);
+      vertexSupplier = null;
+   }
+
+   /**
+    * Computes the oriented bounding box of the points of the given range.
+    * <p>
+    * The box x-axis is the direction along which the points are the most spread out.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to enclose.
+    * @param endIndex the index after the last point to enclose.
+    * @param boxToPack the box in which the result is stored, it is set to {@link Double#NaN} if the
+    *           range is empty. Modified.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void compute(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, Box3D boxToPack)
+   {
+      covariance.clear();
+      covariance.addAll(xs, ys, zs, startIndex, endIndex);
+      setPoints(xs, ys, zs, startIndex, endIndex);
+      compute(boxToPack);
+      setPoints(null, null, null, 0, 0);
+   }
+
+   /**
+    * Computes the oriented bounding box of the points of the given range using multiple threads for
+    * the computation of the covariance.
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to enclose.
+    * @param endIndex the index after the last point to enclose.
+    * @param boxToPack the box in which the result is stored, it is set to {@link Double#NaN} if the
+    *           range is empty. Modified.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void computeParallel(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, Box3D boxToPack)
+   {
+      covariance.clear();
+      covariance.addAllParallel(xs, ys, zs, startIndex, endIndex);
+      setPoints(xs, ys, zs, startIndex, endIndex);
+      compute(boxToPack);
+      setPoints(null, null, null, 0, 0);
+   }
+
+   private void setPoints(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      this.xs = xs;
+      this.ys = ys;
+      this.zs = zs;
+      this.startIndex = startIndex;
+      this.endIndex = endIndex;
+   }
+
+   private double getX(int index)
+   {
+      return vertexSupplier != null ? vertexSupplier.getVertex(index).getX() : xs[index];
+   }
+
+   private double getY(int index)
+   {
+      return vertexSupplier != null ? vertexSupplier.getVertex(index).getY() : ys[index];
+   }
+
+   private double getZ(int index)
+   {
+      return vertexSupplier != null ? vertexSupplier.getVertex(index).getZ() : zs[index];
+   }
+
+   private void compute(Box3D boxToPack)
+   {
+      if (covariance.getNumberOfPoints() == 0)
+      {
+         boxToPack.setToNaN();
+         return;
+      }
+
+      covariance.getCovariance(covarianceMatrix);
+      for (int row = 0; row < 3; row++)
+      {
+         for (int column = 0; column < 3; column++)
+            matrix[3 * row + column] = covarianceMatrix.getElement(row, column);
+      }
+
+      computePrincipalAxes(matrix, eigenvalues, axes);
+      double volume = computeExtents(axes);
+
+      if (useConvexHullRefinement && endIndex - startIndex > 2)
+      {
+         System.arraycopy(axes, 0, refinedAxes, 0, 9);
+
+         for (int axis = 0; axis < 3; axis++)
+         {
+            double refinedVolume = refineAroundAxis(axis);
+
+            if (refinedVolume < volume)
+            {
+               volume = refinedVolume;
+               System.arraycopy(refinedAxes, 0, axes, 0, 9);
+            }
+            else
+            {
+               System.arraycopy(axes, 0, refinedAxes, 0, 9);
+            }
+         }
+
+         computeExtents(axes);
+      }
+
+      double centerX = 0.0, centerY = 0.0, centerZ = 0.0;
+
+      for (int axis = 0; axis < 3; axis++)
+      {
+         double middle = 0.5 * (minimums[axis] + maximums[axis]);
+         centerX += middle * axes[3 * axis];
+         centerY += middle * axes[3 * axis + 1];
+         centerZ += middle * axes[3 * axis + 2];
+      }
+
+      boxToPack.setSize(maximums[0] - minimums[0], maximums[1] - minimums[1], maximums[2] - minimums[2]);
+      boxToPack.setPose(axes[0], axes[3], axes[6], centerX, axes[1], axes[4], axes[7], centerY, axes[2], axes[5], axes[8], centerZ);
+   }
+
+   /**
+    * Computes the extents of the points along the given axes and packs them in {@link #minimums} and
+    * {@link #maximums}.
+    *
+    * @return the volume of the resulting box.
+    */
+   private double computeExtents(double[] axes)
+   {
+      for (int axis = 0; axis < 3; axis++)
+      {
+         minimums[axis] = Double.POSITIVE_INFINITY;
+         maximums[axis] = Double.NEGATIVE_INFINITY;
+      }
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         double x = getX(i), y = getY(i), z = getZ(i);
+
+         for (int axis = 0; axis < 3; axis++)
+         {
+            double projection = x * axes[3 * axis] + y * axes[3 * axis + 1] + z * axes[3 * axis + 2];
+            minimums[axis] = Math.min(minimums[axis], projection);
+            maximums[axis] = Math.max(maximums[axis], projection);
+         }
+      }
+
+      return (maximums[0] - minimums[0]) * (maximums[1] - minimums[1]) * (maximums[2] - minimums[2]);
+   }
+
+   /**
+    * Keeps the given axis of {@link #refinedAxes} and rotates the two others to fit the minimum area
+    * rectangle to the convex hull of the points projected on the plane they span.
+    *
+    * @return the volume of the refined box.
+    */
+   private double refineAroundAxis(int fixedAxis)
+   {
+      int uOffset = 3 * ((fixedAxis + 1) % 3);
+      int vOffset = 3 * ((fixedAxis + 2) % 3);
+      int wOffset = 3 * fixedAxis;
+      int numberOfPoints = endIndex - startIndex;
+
+      while (projectedPoints.size() < numberOfPoints)
+         projectedPoints.add(new Point2D());
+
+      double minW = Double.POSITIVE_INFINITY, maxW = Double.NEGATIVE_INFINITY;
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         double x = getX(i + startIndex), y = getY(i + startIndex), z = getZ(i + startIndex);
+         double u = x * refinedAxes[uOffset] + y * refinedAxes[uOffset + 1] + z * refinedAxes[uOffset + 2];
+         double v = x * refinedAxes[vOffset] + y * refinedAxes[vOffset + 1] + z * refinedAxes[vOffset + 2];
+         double w = x * refinedAxes[wOffset] + y * refinedAxes[wOffset + 1] + z * refinedAxes[wOffset + 2];
+         projectedPoints.get(i).set(u, v);
+         minW = Math.min(minW, w);
+         maxW = Math.max(maxW, w);
+      }
+
+      int hullSize = EuclidGeometryPolygonTools.inPlaceGrahamScanConvexHull2D(projectedPoints, numberOfPoints);
+      double bestArea = Double.POSITIVE_INFINITY;
+      double bestDirectionU = 1.0, bestDirectionV = 0.0;
+
+      // The minimum area rectangle has a side collinear with one of the hull edges.
+      for (int edge = 0; edge < hullSize; edge++)
+      {
+         Point2D start = projectedPoints.get(edge);
+         Point2D end = projectedPoints.get(edge + 1 == hullSize ? 0 : edge + 1);
+         double directionU = end.getX() - start.getX();
+         double directionV = end.getY() - start.getY();
+         double length = Math.sqrt(directionU * directionU + directionV * directionV);
+
+         if (length == 0.0)
+            continue;
+
+         directionU /= length;
+         directionV /= length;
+
+         double minAlong = Double.POSITIVE_INFINITY, maxAlong = Double.NEGATIVE_INFINITY;
+         double minAcross = Double.POSITIVE_INFINITY, maxAcross = Double.NEGATIVE_INFINITY;
+
+         for (int i = 0; i < hullSize; i++)
+         {
+            Point2D vertex = projectedPoints.get(i);
+            double along = vertex.getX() * directionU + vertex.getY() * directionV;
+            double across = vertex.getY() * directionU - vertex.getX() * directionV;
+            minAlong = Math.min(minAlong, along);
+            maxAlong = Math.max(maxAlong, along);
+            minAcross = Math.min(minAcross, across);
+            maxAcross = Math.max(maxAcross, across);
+         }
+
+         double area = (maxAlong - minAlong) * (maxAcross - minAcross);
+
+         if (area < bestArea)
+         {
+            bestArea = area;
+            bestDirectionU = directionU;
+            bestDirectionV = directionV;
+         }
+      }
+
+      if (bestArea == Double.POSITIVE_INFINITY)
+         return Double.POSITIVE_INFINITY;
+
+      // Rotating the two free axes in their plane, the fixed axis remains their cross product.
+      for (int i = 0; i < 3; i++)
+      {
+         double u = refinedAxes[uOffset + i];
+         double v = refinedAxes[vOffset + i];
+         refinedAxes[uOffset + i] = bestDirectionU * u + bestDirectionV * v;
+         refinedAxes[vOffset + i] = -bestDirectionV * u + bestDirectionU * v;
+      }
+
+      return bestArea * (maxW - minW);
+   }
+
+   /**
+    * Computes the principal axes of a symmetric 3-by-3 matrix with the cyclic Jacobi method.
+    * <p>
+    * The eigenvectors are sorted by decreasing eigenvalue and form a right-handed orthonormal basis.
+    * </p>
+    *
+    * @param symmetricMatrix the row-major matrix to decompose. Modified.
+    * @param eigenvaluesToPack the array in which the eigenvalues are stored. Modified.
+    * @param eigenvectorsToPack the array in which the i<sup>th</sup> eigenvector is stored in [3 i,
+    *           3 i + 3[. Modified.
+    */
+   static void computePrincipalAxes(double[] symmetricMatrix, double[] eigenvaluesToPack, double[] eigenvectorsToPack)
+   {
+      double[] a = symmetricMatrix;
+      // The eigenvectors are accumulated as the columns of v, stored row-major.
+      double[] v = eigenvectorsToPack;
+      JacobiEigenDecomposition.decompose(3, a, v);
+
+      // Sorting the eigenvalues in decreasing order, the eigenvectors are then transposed from the columns of v.
+      int first = 0, second = 1, third = 2;
+      if (a[3 * second + second] > a[3 * first + first])
+      {
+         int temp = first;
+         first = second;
+         second = temp;
+      }
+      if (a[3 * third + third] > a[3 * second + second])
+      {
+         int temp = second;
+         second = third;
+         third = temp;
+      }
+      if (a[3 * second + second] > a[3 * first + first])
+      {
+         int temp = first;
+         first = second;
+         second = temp;
+      }
+
+      eigenvaluesToPack[0] = a[3 * first + first];
+      eigenvaluesToPack[1] = a[3 * second + second];
+      eigenvaluesToPack[2] = a[3 * third + third];
+
+      double e0x = v[first], e0y = v[3 + first], e0z = v[6 + first];
+      double e1x = v[second], e1y = v[3 + second], e1z = v[6 + second];
+
+      v[0] = e0x;
+      v[1] = e0y;
+      v[2] = e0z;
+      v[3] = e1x;
+      v[4] = e1y;
+      v[5] = e1z;
+      // Enforcing a right-handed basis.
+      v[6] = e0y * e1z - e0z * e1y;
+      v[7] = e0z * e1x - e0x * e1z;
+      v[8] = e0x * e1y - e0y * e1x;
+   }
+}
@@ -921,6 +921,84 @@ public class Plane3D implements GeometryObject<Plane3D>
       return EuclidGeometryTools.signedDistanceFromPoint3DToPlane3D(point, this.point, normal);
    }
 
+   /**
+    * Computes the minimum signed distance the given 3D point and this plane.
+    * <p>
+    * The returned value is negative when the query is located below the plane, positive otherwise.
+    * </p>
+    *
+    * @param pointX the x-coordinate of the query.
+    * @param pointY the y-coordinate of the query.
+    * @param pointZ the z-coordinate of the query.
+    * @return the signed distance between the point and this plane.
+    * @throws RuntimeException if this plane has not been initialized yet.
+    */
+   public double signedDistance(double pointX, double pointY, double pointZ)
+   {
+      checkHasBeenInitialized();
+      return EuclidGeometryTools.signedDistanceFromPoint3DToPlane3D(pointX, pointY, pointZ, point, normal);
+   }
+
+   /**
+    * Computes the signed distance between each query and this plane.
+    * <p>
+    * The queries are given as structure of arrays: the coordinates of the i<sup>th</sup> query are
+    * {@code (xs[i], ys[i], zs[i])}. This method is equivalent to calling
+    * {@link #signedDistance(Point3DReadOnly)} for each query but is much faster for large number of
+    * queries.
+    * </p>
+    *
+    * @param xs the x-coordinates of the queries. Not modified.
+    * @param ys the y-coordinates of the queries. Not modified.
+    * @param zs the z-coordinates of the queries. Not modified.
+    * @param signedDistancesToPack the array in which the signed distances are stored. Modified.
+    * @throws IllegalArgumentException if any of the arrays is shorter than {@code xs}.
+    * @throws RuntimeException if this plane has not been initialized yet.
+    */
+   public void signedDistance(double[] xs, double[] ys, double[] zs, double[] signedDistancesToPack)
+   {
+      signedDistance(xs, ys, zs, 0, xs.length, signedDistancesToPack);
+   }
+
+   /**
+    * Computes the signed distance between each query in the range [{@code startIndex},
+    * {@code endIndex}[ and this plane.
+    * <p>
+    * The queries are given as structure of arrays: the coordinates of the i<sup>th</sup> query are
+    * {@code (xs[i], ys[i], zs[i])}.
+    * </p>
+    *
+    * @param xs the x-coordinates of the queries. Not modified.
+    * @param ys the y-coordinates of the queries. Not modified.
+    * @param zs the z-coordinates of the queries. Not modified.
+    * @param startIndex the index of the first query, inclusive.
+    * @param endIndex the index of the last query, exclusive.
+    * @param signedDistancesToPack the array in which the signed distances are stored at the same
+    *           indices as the queries. Modified.
+    * @throws IllegalArgumentException if the range is invalid or if any of the arrays is shorter than
+    *            {@code endIndex}.
+    * @throws RuntimeException if this plane has not been initialized yet.
+    */
+   public void signedDistance(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, double[] signedDistancesToPack)
+   {
+      checkHasBeenInitialized();
+
+      if (startIndex < 0 || startIndex > endIndex)
+         throw new IllegalArgumentException("Invalid range: [" + startIndex + ", " + endIndex + "[");
+      if (xs.length < endIndex || ys.length < endIndex || zs.length < endIndex || signedDistancesToPack.length < endIndex)
+         throw new IllegalArgumentException("The arrays are too short for the range [" + startIndex + ", " + endIndex + "[, lengths: xs = " + xs.length
+               + ", ys = " + ys.length + ", zs = " + zs.length + ", output = " + signedDistancesToPack.length);
+
+      // The plane is reduced to n.x + d, the normal being already unit-length.
+      double normalX = normal.getX();
+      double normalY = normal.getY();
+      double normalZ = normal.getZ();
+      double offset = -(normalX * point.getX() + normalY * point.getY() + normalZ * point.getZ());
+
+      for (int i = startIndex; i < endIndex; i++)
+         signedDistancesToPack[i] = normalX * xs[i] + normalY * ys[i] + normalZ * zs[i] + offset;
+   }
+
    /**
     * Provides a {@code String} representation of this plane 3D as follows:<br>
     * Plane 3D: point = (x, y, z), normal = (x, y, z)
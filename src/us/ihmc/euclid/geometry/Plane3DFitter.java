@@ -0,0 +1,474 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.matrix.Matrix3D;
+import us.ihmc.euclid.tuple3D.Point3D;
+
+/**
+ * {@code Plane3DFitter} fits a {@link Plane3D} to a set of 3D points.
+ * <p>
+ * Two methods are provided:
+ * <ul>
+ * <li>least-squares fitting, which minimizes the sum of the squared distances from the points to
+ * the plane. The plane passes through the mean of the points and its normal is the direction along
+ * which the points are the least spread out. The points are accumulated in a single pass with
+ * {@link PointCloudCovariance3D}, such that the fit can also be computed from a stream of points
+ * with {@link #fitLeastSquares(PointCloudCovariance3D, Plane3D)}.
+ * <li>RANSAC fitting, which is robust to outliers. Planes are repeatedly hypothesized from three
+ * random points and scored against all the points using
+ * {@link Plane3D#signedDistance(double[], double[], double[], int, int, double[])}. The best
+ * hypothesis is then refined with a least-squares fit over its inliers. When MSAC is enabled, the
+ * hypotheses are scored with the truncated quadratic cost of the distances instead of the number of
+ * inliers which tends to give more accurate planes.
+ * </ul>
+ * </p>
+ * <p>
+ * The points are given as structure of arrays: the coordinates of the i<sup>th</sup> point are
+ * {@code (xs[i], ys[i], zs[i])}. The sequential methods do not generate garbage once the fitter has
+ * been used with the largest set of points. This fitter is not thread-safe, a separate instance
+ * should be used per thread.
+ * </p>
+ */
+public class Plane3DFitter
+{
+   /** Default maximum distance from a point to the plane for the point to be an inlier. */
+   public static final double DEFAULT_INLIER_THRESHOLD = 0.01;
+   /** Default maximum number of hypotheses evaluated by the RANSAC methods. */
+   public static final int DEFAULT_MAXIMUM_NUMBER_OF_ITERATIONS = 1000;
+   /** Default probability that at least one hypothesis is only made of inliers. */
+   public static final double DEFAULT_CONFIDENCE = 0.99;
+
+   private double inlierThreshold = DEFAULT_INLIER_THRESHOLD;
+   private int maximumNumberOfIterations = DEFAULT_MAXIMUM_NUMBER_OF_ITERATIONS;
+   private double confidence = DEFAULT_CONFIDENCE;
+   private boolean useMSAC = true;
+   private final Random random = new Random();
+
+   // Internal variables used to enable garbage free operations.
+   private final PointCloudCovariance3D covariance = new PointCloudCovariance3D();
+   private final Matrix3D covarianceMatrix = new Matrix3D();
+   private final double[] matrix = new double[9];
+   private final double[] eigenvalues = new double[3];
+   private final double[] eigenvectors = new double[9];
+   private final Point3D mean = new Point3D();
+   private final RANSACTask task = new RANSACTask();
+
+   /**
+    * Creates a new fitter with the default parameters.
+    */
+   public Plane3DFitter()
+   {
+   }
+
+   /**
+    * Sets the maximum distance from a point to the plane for the point to be considered an inlier.
+    *
+    * @param inlierThreshold the distance threshold.
+    * @throws IllegalArgumentException if {@code inlierThreshold} is not strictly positive.
+    */
+   public void setInlierThreshold(double inlierThreshold)
+   {
+      if (!(inlierThreshold > 0.0))
+         throw new IllegalArgumentException("The inlier threshold has to be strictly positive, was: " + inlierThreshold);
+      this.inlierThreshold = inlierThreshold;
+   }
+
+   /**
+    * Sets the maximum number of hypotheses evaluated by the RANSAC methods.
+    *
+    * @param maximumNumberOfIterations the maximum number of iterations.
+    * @throws IllegalArgumentException if {@code maximumNumberOfIterations} is not strictly positive.
+    */
+   public void setMaximumNumberOfIterations(int maximumNumberOfIterations)
+   {
+      if (maximumNumberOfIterations <= 0)
+         throw new IllegalArgumentException("The maximum number of iterations has to be strictly positive, was: " + maximumNumberOfIterations);
+      this.maximumNumberOfIterations = maximumNumberOfIterations;
+   }
+
+   /**
+    * Sets the probability that at least one of the hypotheses is only made of inliers.
+    * <p>
+    * The RANSAC methods terminate early once enough hypotheses have been evaluated to reach this
+    * confidence given the ratio of inliers of the best hypothesis so far.
+    * </p>
+    *
+    * @param confidence the confidence &in; ]0, 1[.
+    * @throws IllegalArgumentException if {@code confidence} is not in ]0, 1[.
+    */
+   public void setConfidence(double confidence)
+   {
+      if (!(confidence > 0.0 && confidence < 1.0))
+         throw new IllegalArgumentException("The confidence has to be in ]0, 1[, was: " + confidence);
+      this.confidence = confidence;
+   }
+
+   /**
+    * Sets whether the hypotheses are scored with the truncated quadratic cost of MSAC or with the
+    * number of inliers as in the original RANSAC.
+    *
+    * @param useMSAC {@code true} to use MSAC scoring.
+    */
+   public void setUseMSAC(boolean useMSAC)
+   {
+      this.useMSAC = useMSAC;
+   }
+
+   /**
+    * Sets the seed of the random generator used to sample the hypotheses.
+    *
+    * @param seed the new seed.
+    */
+   public void setRandomSeed(long seed)
+   {
+      random.setSeed(seed);
+   }
+
+   /**
+    * Gets the maximum distance from a point to the plane for the point to be considered an inlier.
+    *
+    * @return the distance threshold.
+    */
+   public double getInlierThreshold()
+   {
+      return inlierThreshold;
+   }
+
+   /**
+    * Gets the maximum number of hypotheses evaluated by the RANSAC methods.
+    *
+    * @return the maximum number of iterations.
+    */
+   public int getMaximumNumberOfIterations()
+   {
+      return maximumNumberOfIterations;
+   }
+
+   /**
+    * Gets the probability that at least one of the hypotheses is only made of inliers.
+    *
+    * @return the confidence.
+    */
+   public double getConfidence()
+   {
+      return confidence;
+   }
+
+   /**
+    * Whether the hypotheses are scored with the truncated quadratic cost of MSAC.
+    *
+    * @return {@code true} if MSAC scoring is used, {@code false} if the number of inliers is used.
+    */
+   public boolean isUsingMSAC()
+   {
+      return useMSAC;
+   }
+
+   /**
+    * Computes the least-squares plane of the given points.
+    *
+    * @param points the points to fit. Not modified.
+    * @param planeToPack the plane in which the result is stored, it is set to {@link Double#NaN} if
+    *           there are less than three points. Modified.
+    * @return {@code true} if the plane could be fitted, {@code false} otherwise.
+    */
+   public boolean fitLeastSquares(Vertex3DSupplier points, Plane3D planeToPack)
+   {
+      covariance.clear();
+      covariance.addAll(points);
+      return fitLeastSquares(covariance, planeToPack);
+   }
+
+   /**
+    * Computes the least-squares plane of the points of the given range.
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to fit.
+    * @param endIndex the index after the last point to fit.
+    * @param planeToPack the plane in which the result is stored, it is set to {@link Double#NaN} if
+    *           there are less than three points. Modified.
+    * @return {@code true} if the plane could be fitted, {@code false} otherwise.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public boolean fitLeastSquares(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, Plane3D planeToPack)
+   {
+      covariance.clear();
+      covariance.addAll(xs, ys, zs, startIndex, endIndex);
+      return fitLeastSquares(covariance, planeToPack);
+   }
+
+   /**
+    * Computes the least-squares plane of the selected points.
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param selection the indices of the points to fit. Not modified.
+    * @param planeToPack the plane in which the result is stored, it is set to {@link Double#NaN} if
+    *           there are less than three points. Modified.
+    * @return {@code true} if the plane could be fitted, {@code false} otherwise.
+    * @throws IndexOutOfBoundsException if the selection contains an index outside of the arrays.
+    */
+   public boolean fitLeastSquares(double[] xs, double[] ys, double[] zs, BitSet selection, Plane3D planeToPack)
+   {
+      covariance.clear();
+
+      for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1))
+         covariance.add(xs[i], ys[i], zs[i]);
+
+      return fitLeastSquares(covariance, planeToPack);
+   }
+
+   /**
+    * Computes the least-squares plane of the points accumulated in the given covariance.
+    * <p>
+    * This allows to fit a plane to a stream of points, the points being accumulated as they are
+    * received.
+    * </p>
+    *
+    * @param covariance the mean and covariance of the points to fit. Not modified.
+    * @param planeToPack the plane in which the result is stored, it is set to {@link Double#NaN} if
+    *           there are less than three points. Modified.
+    * @return {@code true} if the plane could be fitted, {@code false} otherwise.
+    */
+   public boolean fitLeastSquares(PointCloudCovariance3D covariance, Plane3D planeToPack)
+   {
+      if (covariance.getNumberOfPoints() < 3)
+      {
+         planeToPack.setToNaN();
+         return false;
+      }
+
+      covariance.getMean(mean);
+      covariance.getCovariance(covarianceMatrix);
+
+      for (int row = 0; row < 3; row++)
+      {
+         for (int column = 0; column < 3; column++)
+            matrix[3 * row + column] = covarianceMatrix.getElement(row, column);
+      }
+
+      OrientedBoundingBoxCalculator.computePrincipalAxes(matrix, eigenvalues, eigenvectors);
+      // The normal is the direction of least variance, i.e. the last principal axis.
+      planeToPack.set(mean.getX(), mean.getY(), mean.getZ(), eigenvectors[6], eigenvectors[7], eigenvectors[8]);
+      return true;
+   }
+
+   /**
+    * Fits a plane to the points of the given range with RANSAC, or MSAC depending on
+    * {@link #setUseMSAC(boolean)}.
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to fit.
+    * @param endIndex the index after the last point to fit.
+    * @param planeToPack the plane in which the result is stored, it is set to {@link Double#NaN} if no
+    *           plane could be fitted. Modified.
+    * @param inliersToPack the set in which the indices of the inliers of the plane are stored.
+    *           Modified.
+    * @return the number of inliers.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public int fitRANSAC(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, Plane3D planeToPack, BitSet inliersToPack)
+   {
+      AccumulationTools.checkRange(xs, ys, zs, startIndex, endIndex);
+
+      task.reset(random.nextLong(), endIndex);
+      task.run(xs, ys, zs, startIndex, endIndex, maximumNumberOfIterations);
+      return refine(task, xs, ys, zs, startIndex, endIndex, planeToPack, inliersToPack);
+   }
+
+   /**
+    * Fits a plane to the points of the given range with RANSAC, or MSAC depending on
+    * {@link #setUseMSAC(boolean)}, evaluating the hypotheses using multiple threads.
+    * <p>
+    * The hypotheses are split among tasks executed in the common fork-join pool, each task
+    * terminating early independently from the others.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to fit.
+    * @param endIndex the index after the last point to fit.
+    * @param planeToPack the plane in which the result is stored, it is set to {@link Double#NaN} if no
+    *           plane could be fitted. Modified.
+    * @param inliersToPack the set in which the indices of the inliers of the plane are stored.
+    *           Modified.
+    * @return the number of inliers.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public int fitRANSACParallel(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, Plane3D planeToPack, BitSet inliersToPack)
+   {
+      AccumulationTools.checkRange(xs, ys, zs, startIndex, endIndex);
+
+      int numberOfTasks = Math.min(ForkJoinPool.getCommonPoolParallelism() + 1, maximumNumberOfIterations);
+      long[] seeds = new long[numberOfTasks];
+      for (int i = 0; i < numberOfTasks; i++)
+         seeds[i] = random.nextLong();
+
+      RANSACTask best = IntStream.range(0, numberOfTasks).parallel().mapToObj(taskIndex ->
+      {
+         RANSACTask parallelTask = new RANSACTask();
+         parallelTask.reset(seeds[taskIndex], endIndex);
+         int iterations = maximumNumberOfIterations / numberOfTasks + (taskIndex < maximumNumberOfIterations % numberOfTasks ? 1 : 0);
+         parallelTask.run(xs, ys, zs, startIndex, endIndex, iterations);
+         return parallelTask;
+      }).reduce((a, b) -> b.bestCost < a.bestCost ? b : a).get();
+
+      return refine(best, xs, ys, zs, startIndex, endIndex, planeToPack, inliersToPack);
+   }
+
+   /**
+    * Refines the best hypothesis of the given task with a least-squares fit over its inliers and packs
+    * the final plane and inliers.
+    */
+   private int refine(RANSACTask result, double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, Plane3D planeToPack,
+                      BitSet inliersToPack)
+   {
+      inliersToPack.clear();
+
+      if (!result.hasHypothesis())
+      {
+         planeToPack.setToNaN();
+         return 0;
+      }
+
+      planeToPack.set(result.bestPointX, result.bestPointY, result.bestPointZ, result.bestNormalX, result.bestNormalY, result.bestNormalZ);
+      int numberOfInliers = packInliers(planeToPack, xs, ys, zs, startIndex, endIndex, result.distances, inliersToPack);
+
+      if (numberOfInliers < 3 || !fitLeastSquares(xs, ys, zs, inliersToPack, planeToPack))
+         return numberOfInliers;
+
+      // The refined plane may gain or lose a few inliers near the threshold.
+      inliersToPack.clear();
+      return packInliers(planeToPack, xs, ys, zs, startIndex, endIndex, result.distances, inliersToPack);
+   }
+
+   private int packInliers(Plane3D plane, double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, double[] distances, BitSet inliersToPack)
+   {
+      plane.signedDistance(xs, ys, zs, startIndex, endIndex, distances);
+      int numberOfInliers = 0;
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         if (Math.abs(distances[i]) <= inlierThreshold)
+         {
+            inliersToPack.set(i);
+            numberOfInliers++;
+         }
+      }
+
+      return numberOfInliers;
+   }
+
+   /**
+    * Evaluates a series of hypotheses and keeps track of the best one. Each thread uses its own task.
+    */
+   private class RANSACTask
+   {
+      private final Random taskRandom = new Random();
+      private final Plane3D hypothesis = new Plane3D();
+      private double[] distances = new double[0];
+
+      private double bestCost;
+      private double bestPointX, bestPointY, bestPointZ;
+      private double bestNormalX, bestNormalY, bestNormalZ;
+
+      void reset(long seed, int numberOfDistances)
+      {
+         taskRandom.setSeed(seed);
+         bestCost = Double.POSITIVE_INFINITY;
+         if (distances.length < numberOfDistances)
+            distances = new double[numberOfDistances];
+      }
+
+      boolean hasHypothesis()
+      {
+         return bestCost < Double.POSITIVE_INFINITY;
+      }
+
+      void run(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, int maximumNumberOfIterations)
+      {
+         int numberOfPoints = endIndex - startIndex;
+
+         if (numberOfPoints < 3)
+            return;
+
+         double thresholdSquared = inlierThreshold * inlierThreshold;
+         double logOutlierProbability = Math.log(1.0 - confidence);
+         int numberOfIterations = maximumNumberOfIterations;
+
+         for (int iteration = 0; iteration < numberOfIterations; iteration++)
+         {
+            int first = startIndex + taskRandom.nextInt(numberOfPoints);
+            int second = startIndex + taskRandom.nextInt(numberOfPoints);
+            int third = startIndex + taskRandom.nextInt(numberOfPoints);
+
+            if (first == second || first == third || second == third)
+               continue;
+
+            double abX = xs[second] - xs[first], abY = ys[second] - ys[first], abZ = zs[second] - zs[first];
+            double acX = xs[third] - xs[first], acY = ys[third] - ys[first], acZ = zs[third] - zs[first];
+            double normalX = abY * acZ - abZ * acY;
+            double normalY = abZ * acX - abX * acZ;
+            double normalZ = abX * acY - abY * acX;
+            double normalLengthSquared = normalX * normalX + normalY * normalY + normalZ * normalZ;
+
+            // Collinear sample, no plane can be hypothesized.
+            if (normalLengthSquared <= 1.0e-12 * (abX * abX + abY * abY + abZ * abZ) * (acX * acX + acY * acY + acZ * acZ))
+               continue;
+
+            hypothesis.set(xs[first], ys[first], zs[first], normalX, normalY, normalZ);
+            hypothesis.signedDistance(xs, ys, zs, startIndex, endIndex, distances);
+
+            double cost = 0.0;
+            int numberOfInliers = 0;
+
+            for (int i = startIndex; i < endIndex; i++)
+            {
+               double distanceSquared = distances[i] * distances[i];
+
+               if (distanceSquared <= thresholdSquared)
+               {
+                  numberOfInliers++;
+                  if (useMSAC)
+                     cost += distanceSquared;
+               }
+               else
+               {
+                  cost += thresholdSquared;
+               }
+            }
+
+            if (cost < bestCost)
+            {
+               bestCost = cost;
+               bestPointX = xs[first];
+               bestPointY = ys[first];
+               bestPointZ = zs[first];
+               bestNormalX = normalX;
+               bestNormalY = normalY;
+               bestNormalZ = normalZ;
+
+               // Adaptive termination: number of samples needed to draw an all-inlier sample with the desired confidence.
+               double inlierRatio = (double) numberOfInliers / numberOfPoints;
+               double requiredIterations = logOutlierProbability / Math.log(1.0 - inlierRatio * inlierRatio * inlierRatio);
+               if (requiredIterations >= 0.0 && requiredIterations < numberOfIterations)
+                  numberOfIterations = (int) Math.ceil(requiredIterations);
+            }
+         }
+      }
+   }
+}
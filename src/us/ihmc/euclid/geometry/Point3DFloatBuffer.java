@@ -0,0 +1,446 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.interfaces.Transformable;
+import us.ihmc.euclid.tools.EuclidCoreIOTools;
+import us.ihmc.euclid.transform.interfaces.Transform;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+import us.ihmc.euclid.tuple3D.interfaces.Tuple3DBasics;
+import us.ihmc.euclid.tuple3D.interfaces.Tuple3DReadOnly;
+
+/**
+ * {@code Point3DFloatBuffer} is a growable sequence of 3D points stored in single precision.
+ * <p>
+ * The coordinates are packed in a single {@code float} array as: x, y, z, such that a point uses 12
+ * bytes instead of the 24 bytes of the coordinates of a {@link Point3D} plus its object header. It is
+ * intended for large sets of points, such as point clouds, for which the memory footprint and the
+ * cache density matter more than the precision. The coordinates are converted from and to
+ * {@code double} when written and read.
+ * </p>
+ * <p>
+ * This buffer is a {@link Vertex3DSupplier} such that it can be passed as is to the algorithms of
+ * this library, for instance {@link KDTree3D#build(Vertex3DSupplier)},
+ * {@link PointCloudAccumulator3D#addAll(Vertex3DSupplier)} or
+ * {@link ConvexPolygon2D#ConvexPolygon2D(Vertex3DSupplier)}. The point returned by
+ * {@link #getVertex(int)} is a view backed by this buffer that is reused by the next call, which
+ * keeps the iteration garbage free.
+ * </p>
+ */
+public class Point3DFloatBuffer implements Vertex3DSupplier, Transformable
+{
+   private int size = 0;
+   /** The coordinates of the points stored as: x, y, z. */
+   private float[] coordinates;
+
+   // Internal variables used to enable garbage free operations.
+   private final PointView pointView = new PointView();
+   private final Point3D point = new Point3D();
+
+   /**
+    * Creates a new empty buffer.
+    */
+   public Point3DFloatBuffer()
+   {
+      this(16);
+   }
+
+   /**
+    * Creates a new empty buffer.
+    *
+    * @param initialCapacity the number of points that can be added before the internal array needs
+    *           to grow.
+    */
+   public Point3DFloatBuffer(int initialCapacity)
+   {
+      coordinates = new float[3 * Math.max(1, initialCapacity)];
+   }
+
+   /**
+    * Creates a new buffer and initializes it to {@code other}.
+    *
+    * @param other the other buffer to copy. Not modified.
+    */
+   public Point3DFloatBuffer(Point3DFloatBuffer other)
+   {
+      this(other.size);
+      set(other);
+   }
+
+   /**
+    * Sets this buffer to {@code other}.
+    *
+    * @param other the other buffer to copy. Not modified.
+    */
+   public void set(Point3DFloatBuffer other)
+   {
+      ensureCapacity(other.size);
+      size = other.size;
+      System.arraycopy(other.coordinates, 0, coordinates, 0, 3 * size);
+   }
+
+   /**
+    * Removes all the points of this buffer.
+    */
+   public void clear()
+   {
+      size = 0;
+   }
+
+   /**
+    * Gets the number of points in this buffer.
+    *
+    * @return the number of points.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Whether this buffer is empty.
+    *
+    * @return {@code true} if there is no point, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Ensures that this buffer can hold at least the given number of points without growing.
+    *
+    * @param capacity the minimum capacity in number of points.
+    */
+   public void ensureCapacity(int capacity)
+   {
+      if (3 * capacity > coordinates.length)
+         coordinates = Arrays.copyOf(coordinates, 3 * Math.max(capacity, 2 * coordinates.length / 3));
+   }
+
+   /**
+    * Adds a point at the end of this buffer.
+    *
+    * @param tuple the coordinates of the new point. Not modified.
+    */
+   public void add(Tuple3DReadOnly tuple)
+   {
+      add(tuple.getX(), tuple.getY(), tuple.getZ());
+   }
+
+   /**
+    * Adds a point at the end of this buffer.
+    *
+    * @param x the x-coordinate of the new point.
+    * @param y the y-coordinate of the new point.
+    * @param z the z-coordinate of the new point.
+    */
+   public void add(double x, double y, double z)
+   {
+      ensureCapacity(size + 1);
+      setUnsafe(size++, x, y, z);
+   }
+
+   /**
+    * Adds all the vertices of the given supplier at the end of this buffer.
+    *
+    * @param vertices the points to add. Not modified.
+    */
+   public void addAll(Vertex3DSupplier vertices)
+   {
+      ensureCapacity(size + vertices.getNumberOfVertices());
+
+      for (int i = 0; i < vertices.getNumberOfVertices(); i++)
+         add(vertices.getVertex(i));
+   }
+
+   /**
+    * Adds the points of the given range at the end of this buffer.
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to add.
+    * @param endIndex the index after the last point to add.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void addAll(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      AccumulationTools.checkRange(xs, ys, zs, startIndex, endIndex);
+      ensureCapacity(size + endIndex - startIndex);
+
+      for (int i = startIndex; i < endIndex; i++)
+         setUnsafe(size++, xs[i], ys[i], zs[i]);
+   }
+
+   /**
+    * Sets the coordinates of the i<sup>th</sup> point of this buffer.
+    *
+    * @param index the index of the point.
+    * @param tuple the new coordinates of the point. Not modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public void set(int index, Tuple3DReadOnly tuple)
+   {
+      set(index, tuple.getX(), tuple.getY(), tuple.getZ());
+   }
+
+   /**
+    * Sets the coordinates of the i<sup>th</sup> point of this buffer.
+    *
+    * @param index the index of the point.
+    * @param x the new x-coordinate of the point.
+    * @param y the new y-coordinate of the point.
+    * @param z the new z-coordinate of the point.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public void set(int index, double x, double y, double z)
+   {
+      checkIndex(index);
+      setUnsafe(index, x, y, z);
+   }
+
+   private void setUnsafe(int index, double x, double y, double z)
+   {
+      coordinates[3 * index] = (float) x;
+      coordinates[3 * index + 1] = (float) y;
+      coordinates[3 * index + 2] = (float) z;
+   }
+
+   /**
+    * Packs the coordinates of the i<sup>th</sup> point of this buffer.
+    *
+    * @param index the index of the point.
+    * @param tupleToPack the tuple in which the coordinates are stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public void get(int index, Tuple3DBasics tupleToPack)
+   {
+      checkIndex(index);
+      tupleToPack.set(coordinates[3 * index], coordinates[3 * index + 1], coordinates[3 * index + 2]);
+   }
+
+   /**
+    * Packs the coordinates of the points of the given range of this buffer into the given arrays, the
+    * i<sup>th</sup> point being stored at the index {@code i}.
+    *
+    * @param xs the array in which the x-coordinates are stored. Modified.
+    * @param ys the array in which the y-coordinates are stored. Modified.
+    * @param zs the array in which the z-coordinates are stored. Modified.
+    * @param startIndex the index of the first point to get.
+    * @param endIndex the index after the last point to get.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    * @throws IndexOutOfBoundsException if the range is out of the bounds of this buffer.
+    */
+   public void get(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      AccumulationTools.checkRange(xs, ys, zs, startIndex, endIndex);
+      if (endIndex > size)
+         throw new IndexOutOfBoundsException("End index: " + endIndex + ", size: " + size);
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         xs[i] = coordinates[3 * i];
+         ys[i] = coordinates[3 * i + 1];
+         zs[i] = coordinates[3 * i + 2];
+      }
+   }
+
+   /**
+    * Gets the x-coordinate of the i<sup>th</sup> point of this buffer.
+    *
+    * @param index the index of the point.
+    * @return the x-coordinate.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getX(int index)
+   {
+      checkIndex(index);
+      return coordinates[3 * index];
+   }
+
+   /**
+    * Gets the y-coordinate of the i<sup>th</sup> point of this buffer.
+    *
+    * @param index the index of the point.
+    * @return the y-coordinate.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getY(int index)
+   {
+      checkIndex(index);
+      return coordinates[3 * index + 1];
+   }
+
+   /**
+    * Gets the z-coordinate of the i<sup>th</sup> point of this buffer.
+    *
+    * @param index the index of the point.
+    * @return the z-coordinate.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getZ(int index)
+   {
+      checkIndex(index);
+      return coordinates[3 * index + 2];
+   }
+
+   /**
+    * Gets a read-only view of the i<sup>th</sup> point of this buffer.
+    * <p>
+    * The same view is returned by every call to this method and is moved to the requested point, it
+    * should not be stored.
+    * </p>
+    *
+    * @param index the index of the point.
+    * @return the view of the point.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   @Override
+   public Point3DReadOnly getVertex(int index)
+   {
+      checkIndex(index);
+      pointView.offset = 3 * index;
+      return pointView;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public int getNumberOfVertices()
+   {
+      return size;
+   }
+
+   /**
+    * Computes the axis-aligned bounding box of the points of this buffer.
+    *
+    * @param boundingBoxToPack the bounding box in which the result is stored, it is set to
+    *           {@link Double#NaN} if this buffer is empty. Modified.
+    */
+   public void getBoundingBox(BoundingBox3D boundingBoxToPack)
+   {
+      if (size == 0)
+      {
+         boundingBoxToPack.setToNaN();
+         return;
+      }
+
+      float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+      float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+
+      for (int i = 0; i < 3 * size; i += 3)
+      {
+         minX = Math.min(minX, coordinates[i]);
+         maxX = Math.max(maxX, coordinates[i]);
+         minY = Math.min(minY, coordinates[i + 1]);
+         maxY = Math.max(maxY, coordinates[i + 1]);
+         minZ = Math.min(minZ, coordinates[i + 2]);
+         maxZ = Math.max(maxZ, coordinates[i + 2]);
+      }
+
+      boundingBoxToPack.set(minX, minY, minZ, maxX, maxY, maxZ);
+   }
+
+   /**
+    * Transforms the points of this buffer by the given {@code transform}.
+    * <p>
+    * The computation is performed in double precision, the result is then rounded to single
+    * precision.
+    * </p>
+    *
+    * @param transform the geometric transform to apply on this buffer. Not modified.
+    */
+   @Override
+   public void applyTransform(Transform transform)
+   {
+      for (int i = 0; i < size; i++)
+      {
+         get(i, point);
+         point.applyTransform(transform);
+         setUnsafe(i, point.getX(), point.getY(), point.getZ());
+      }
+   }
+
+   /**
+    * Transforms the points of this buffer by the inverse of the given {@code transform}.
+    * <p>
+    * The computation is performed in double precision, the result is then rounded to single
+    * precision.
+    * </p>
+    *
+    * @param transform the geometric transform to apply on this buffer. Not modified.
+    */
+   @Override
+   public void applyInverseTransform(Transform transform)
+   {
+      for (int i = 0; i < size; i++)
+      {
+         get(i, point);
+         point.applyInverseTransform(transform);
+         setUnsafe(i, point.getX(), point.getY(), point.getZ());
+      }
+   }
+
+   private void checkIndex(int index)
+   {
+      if (index < 0 || index >= size)
+         throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+   }
+
+   /**
+    * Provides a {@code String} representation of this buffer as follows:
+    *
+    * <pre>
+    * Point 3D float buffer: size = 2, points = [
+    * ( 0.540,  0.110,  0.319 ),
+    * ( 0.751,  0.374,  0.892 ) ]
+    * </pre>
+    *
+    * @return the {@code String} representing this buffer.
+    */
+   @Override
+   public String toString()
+   {
+      String string = "Point 3D float buffer: size = " + size + ", points = [";
+
+      for (int i = 0; i < size; i++)
+      {
+         string += i == 0 ? "\n" : ",\n";
+         string += EuclidCoreIOTools.getStringOf("(", " )", ", ", EuclidCoreIOTools.DEFAULT_FORMAT, coordinates[3 * i], coordinates[3 * i + 1],
+                                                 coordinates[3 * i + 2]);
+      }
+
+      return string + (size == 0 ? "]" : " ]");
+   }
+
+   private class PointView implements Point3DReadOnly
+   {
+      private int offset;
+
+      @Override
+      public double getX()
+      {
+         return coordinates[offset];
+      }
+
+      @Override
+      public double getY()
+      {
+         return coordinates[offset + 1];
+      }
+
+      @Override
+      public double getZ()
+      {
+         return coordinates[offset + 2];
+      }
+
+      @Override
+      public String toString()
+      {
+         return EuclidCoreIOTools.getTuple3DString(this);
+      }
+   }
+}
@@ -0,0 +1,227 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.stream.Collector;
+
+import us.ihmc.euclid.geometry.interfaces.BoundingBox2DBasics;
+import us.ihmc.euclid.geometry.interfaces.Vertex2DSupplier;
+import us.ihmc.euclid.tuple2D.interfaces.Point2DBasics;
+import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
+
+/**
+ * {@code PointCloudAccumulator2D} computes the centroid and the axis-aligned bounding box of a set
+ * of 2D points in a single pass.
+ * <p>
+ * This is the 2D equivalent of {@link PointCloudAccumulator3D}: the coordinates are summed with
+ * Neumaier's compensated summation and two accumulators can be merged with
+ * {@link #combine(PointCloudAccumulator2D)} which allows to reduce parallel streams of points.
+ * </p>
+ */
+public class PointCloudAccumulator2D
+{
+   private long numberOfPoints = 0;
+   private double sumX, sumY;
+   /** Running compensations of the sums, i.e. the low-order bits lost when summing. */
+   private double compensationX, compensationY;
+   private double minX, minY;
+   private double maxX, maxY;
+
+   /**
+    * Creates a new empty accumulator.
+    */
+   public PointCloudAccumulator2D()
+   {
+      clear();
+   }
+
+   /**
+    * Returns a collector that accumulates a stream of points, sequential or parallel, into a new
+    * {@code PointCloudAccumulator2D}.
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @return the collector.
+    */
+   public static Collector<Point2DReadOnly, ?, PointCloudAccumulator2D> collector()
+   {
+      return AccumulationTools.collector(PointCloudAccumulator2D::new, PointCloudAccumulator2D::add, PointCloudAccumulator2D::combine);
+   }
+
+   /**
+    * Removes all the points from this accumulator.
+    */
+   public void clear()
+   {
+      numberOfPoints = 0;
+      sumX = sumY = 0.0;
+      compensationX = compensationY = 0.0;
+      minX = minY = Double.POSITIVE_INFINITY;
+      maxX = maxY = Double.NEGATIVE_INFINITY;
+   }
+
+   /**
+    * Adds a point to this accumulator.
+    *
+    * @param x the x-coordinate of the point.
+    * @param y the y-coordinate of the point.
+    */
+   public void add(double x, double y)
+   {
+      numberOfPoints++;
+
+      double sum = sumX + x;
+      compensationX += AccumulationTools.compensation(sumX, x, sum);
+      sumX = sum;
+      sum = sumY + y;
+      compensationY += AccumulationTools.compensation(sumY, y, sum);
+      sumY = sum;
+
+      minX = Math.min(minX, x);
+      minY = Math.min(minY, y);
+      maxX = Math.max(maxX, x);
+      maxY = Math.max(maxY, y);
+   }
+
+   /**
+    * Adds a point to this accumulator.
+    *
+    * @param point the point to add. Not modified.
+    */
+   public void add(Point2DReadOnly point)
+   {
+      add(point.getX(), point.getY());
+   }
+
+   /**
+    * Adds all the vertices of the given supplier to this accumulator.
+    *
+    * @param vertices the points to add. Not modified.
+    */
+   public void addAll(Vertex2DSupplier vertices)
+   {
+      for (int i = 0; i < vertices.getNumberOfVertices(); i++)
+         add(vertices.getVertex(i));
+   }
+
+   /**
+    * Adds the points of the given range to this accumulator.
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to add.
+    * @param endIndex the index after the last point to add.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void addAll(double[] xs, double[] ys, int startIndex, int endIndex)
+   {
+      AccumulationTools.checkRange(xs, ys, startIndex, endIndex);
+
+      for (int i = startIndex; i < endIndex; i++)
+         add(xs[i], ys[i]);
+   }
+
+   /**
+    * Adds the points of the given range to this accumulator using multiple threads.
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to add.
+    * @param endIndex the index after the last point to add.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void addAllParallel(double[] xs, double[] ys, int startIndex, int endIndex)
+   {
+      AccumulationTools.checkRange(xs, ys, startIndex, endIndex);
+
+      AccumulationTools.addAllParallel(this, PointCloudAccumulator2D::new, (partial, taskStart, taskEnd) -> partial.addAll(xs, ys, taskStart, taskEnd),
+                                       PointCloudAccumulator2D::combine, startIndex, endIndex);
+   }
+
+   /**
+    * Merges the points accumulated by {@code other} into this accumulator.
+    *
+    * @param other the other accumulator. Not modified.
+    */
+   public void combine(PointCloudAccumulator2D other)
+   {
+      if (other.numberOfPoints == 0)
+         return;
+
+      numberOfPoints += other.numberOfPoints;
+
+      double sum = sumX + other.sumX;
+      compensationX += other.compensationX + AccumulationTools.compensation(sumX, other.sumX, sum);
+      sumX = sum;
+      sum = sumY + other.sumY;
+      compensationY += other.compensationY + AccumulationTools.compensation(sumY, other.sumY, sum);
+      sumY = sum;
+
+      minX = Math.min(minX, other.minX);
+      minY = Math.min(minY, other.minY);
+      maxX = Math.max(maxX, other.maxX);
+      maxY = Math.max(maxY, other.maxY);
+   }
+
+   /**
+    * Copies the state of {@code other} into this accumulator.
+    *
+    * @param other the other accumulator. Not modified.
+    */
+   public void set(PointCloudAccumulator2D other)
+   {
+      numberOfPoints = other.numberOfPoints;
+      sumX = other.sumX;
+      sumY = other.sumY;
+      compensationX = other.compensationX;
+      compensationY = other.compensationY;
+      minX = other.minX;
+      minY = other.minY;
+      maxX = other.maxX;
+      maxY = other.maxY;
+   }
+
+   /**
+    * Gets the number of points accumulated so far.
+    *
+    * @return the number of points.
+    */
+   public long getNumberOfPoints()
+   {
+      return numberOfPoints;
+   }
+
+   /**
+    * Packs the centroid, i.e. the average, of the accumulated points.
+    *
+    * @param centroidToPack the point in which the centroid is stored, it is set to {@link Double#NaN}
+    *           if no point has been accumulated. Modified.
+    */
+   public void getCentroid(Point2DBasics centroidToPack)
+   {
+      if (numberOfPoints == 0)
+      {
+         centroidToPack.setToNaN();
+         return;
+      }
+
+      double inverseCount = 1.0 / numberOfPoints;
+      centroidToPack.set((sumX + compensationX) * inverseCount, (sumY + compensationY) * inverseCount);
+   }
+
+   /**
+    * Packs the smallest axis-aligned bounding box that includes all the accumulated points.
+    *
+    * @param boundingBoxToPack the bounding box in which the result is stored, it is set to
+    *           {@link Double#NaN} if no point has been accumulated. Modified.
+    */
+   public void getBoundingBox(BoundingBox2DBasics boundingBoxToPack)
+   {
+      if (numberOfPoints == 0)
+         boundingBoxToPack.setToNaN();
+      else
+         boundingBoxToPack.set(minX, minY, maxX, maxY);
+   }
+}
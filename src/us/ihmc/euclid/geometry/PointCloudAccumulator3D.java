@@ -0,0 +1,252 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.stream.Collector;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DBasics;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+
+/**
+ * {@code PointCloudAccumulator3D} computes the centroid and the axis-aligned bounding box of a set
+ * of 3D points in a single pass.
+ * <p>
+ * The coordinates are summed with Neumaier's compensated summation such that the centroid of
+ * millions of points does not suffer from the round-off errors of a naive sum. Two accumulators
+ * computed over disjoint sets of points can be merged with {@link #combine(PointCloudAccumulator3D)},
+ * which allows to reduce parallel streams of points with {@link #collector()} or SoA buffers with
+ * {@link #addAllParallel(double[], double[], double[], int, int)}.
+ * </p>
+ * <p>
+ * For the covariance of the points, see {@link PointCloudCovariance3D}.
+ * </p>
+ */
+public class PointCloudAccumulator3D
+{
+   private long numberOfPoints = 0;
+   private double sumX, sumY, sumZ;
+   /** Running compensations of the sums, i.e. the low-order bits lost when summing. */
+   private double compensationX, compensationY, compensationZ;
+   private double minX, minY, minZ;
+   private double maxX, maxY, maxZ;
+
+   /**
+    * Creates a new empty accumulator.
+    */
+   public PointCloudAccumulator3D()
+   {
+      clear();
+   }
+
+   /**
+    * Returns a collector that accumulates a stream of points, sequential or parallel, into a new
+    * {@code PointCloudAccumulator3D}.
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @return the collector.
+    */
+   public static Collector<Point3DReadOnly, ?, PointCloudAccumulator3D> collector()
+   {
+      return AccumulationTools.collector(PointCloudAccumulator3D::new, PointCloudAccumulator3D::add, PointCloudAccumulator3D::combine);
+   }
+
+   /**
+    * Removes all the points from this accumulator.
+    */
+   public void clear()
+   {
+      numberOfPoints = 0;
+      sumX = sumY = sumZ = 0.0;
+      compensationX = compensationY = compensationZ = 0.0;
+      minX = minY = minZ = Double.POSITIVE_INFINITY;
+      maxX = maxY = maxZ = Double.NEGATIVE_INFINITY;
+   }
+
+   /**
+    * Adds a point to this accumulator.
+    *
+    * @param x the x-coordinate of the point.
+    * @param y the y-coordinate of the point.
+    * @param z the z-coordinate of the point.
+    */
+   public void add(double x, double y, double z)
+   {
+      numberOfPoints++;
+
+      double sum = sumX + x;
+      compensationX += AccumulationTools.compensation(sumX, x, sum);
+      sumX = sum;
+      sum = sumY + y;
+      compensationY += AccumulationTools.compensation(sumY, y, sum);
+      sumY = sum;
+      sum = sumZ + z;
+      compensationZ += AccumulationTools.compensation(sumZ, z, sum);
+      sumZ = sum;
+
+      minX = Math.min(minX, x);
+      minY = Math.min(minY, y);
+      minZ = Math.min(minZ, z);
+      maxX = Math.max(maxX, x);
+      maxY = Math.max(maxY, y);
+      maxZ = Math.max(maxZ, z);
+   }
+
+   /**
+    * Adds a point to this accumulator.
+    *
+    * @param point the point to add. Not modified.
+    */
+   public void add(Point3DReadOnly point)
+   {
+      add(point.getX(), point.getY(), point.getZ());
+   }
+
+   /**
+    * Adds all the vertices of the given supplier to this accumulator.
+    *
+    * @param vertices the points to add. Not modified.
+    */
+   public void addAll(Vertex3DSupplier vertices)
+   {
+      for (int i = 0; i < vertices.getNumberOfVertices(); i++)
+         add(vertices.getVertex(i));
+   }
+
+   /**
+    * Adds the points of the given range to this accumulator.
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to add.
+    * @param endIndex the index after the last point to add.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void addAll(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      AccumulationTools.checkRange(xs, ys, zs, startIndex, endIndex);
+
+      for (int i = startIndex; i < endIndex; i++)
+         add(xs[i], ys[i], zs[i]);
+   }
+
+   /**
+    * Adds the points of the given range to this accumulator using multiple threads.
+    * <p>
+    * The range is split into tasks executed in the common fork-join pool whose partial results are
+    * then combined. It should only be preferred for very large number of points.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to add.
+    * @param endIndex the index after the last point to add.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void addAllParallel(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      AccumulationTools.checkRange(xs, ys, zs, startIndex, endIndex);
+
+      AccumulationTools.addAllParallel(this, PointCloudAccumulator3D::new, (partial, taskStart, taskEnd) -> partial.addAll(xs, ys, zs, taskStart, taskEnd),
+                                       PointCloudAccumulator3D::combine, startIndex, endIndex);
+   }
+
+   /**
+    * Merges the points accumulated by {@code other} into this accumulator.
+    *
+    * @param other the other accumulator. Not modified.
+    */
+   public void combine(PointCloudAccumulator3D other)
+   {
+      if (other.numberOfPoints == 0)
+         return;
+
+      numberOfPoints += other.numberOfPoints;
+
+      double sum = sumX + other.sumX;
+      compensationX += other.compensationX + AccumulationTools.compensation(sumX, other.sumX, sum);
+      sumX = sum;
+      sum = sumY + other.sumY;
+      compensationY += other.compensationY + AccumulationTools.compensation(sumY, other.sumY, sum);
+      sumY = sum;
+      sum = sumZ + other.sumZ;
+      compensationZ += other.compensationZ + AccumulationTools.compensation(sumZ, other.sumZ, sum);
+      sumZ = sum;
+
+      minX = Math.min(minX, other.minX);
+      minY = Math.min(minY, other.minY);
+      minZ = Math.min(minZ, other.minZ);
+      maxX = Math.max(maxX, other.maxX);
+      maxY = Math.max(maxY, other.maxY);
+      maxZ = Math.max(maxZ, other.maxZ);
+   }
+
+   /**
+    * Copies the state of {@code other} into this accumulator.
+    *
+    * @param other the other accumulator. Not modified.
+    */
+   public void set(PointCloudAccumulator3D other)
+   {
+      numberOfPoints = other.numberOfPoints;
+      sumX = other.sumX;
+      sumY = other.sumY;
+      sumZ = other.sumZ;
+      compensationX = other.compensationX;
+      compensationY = other.compensationY;
+      compensationZ = other.compensationZ;
+      minX = other.minX;
+      minY = other.minY;
+      minZ = other.minZ;
+      maxX = other.maxX;
+      maxY = other.maxY;
+      maxZ = other.maxZ;
+   }
+
+   /**
+    * Gets the number of points accumulated so far.
+    *
+    * @return the number of points.
+    */
+   public long getNumberOfPoints()
+   {
+      return numberOfPoints;
+   }
+
+   /**
+    * Packs the centroid, i.e. the average, of the accumulated points.
+    *
+    * @param centroidToPack the point in which the centroid is stored, it is set to {@link Double#NaN}
+    *           if no point has been accumulated. Modified.
+    */
+   public void getCentroid(Point3DBasics centroidToPack)
+   {
+      if (numberOfPoints == 0)
+      {
+         centroidToPack.setToNaN();
+         return;
+      }
+
+      double inverseCount = 1.0 / numberOfPoints;
+      centroidToPack.set((sumX + compensationX) * inverseCount, (sumY + compensationY) * inverseCount, (sumZ + compensationZ) * inverseCount);
+   }
+
+   /**
+    * Packs the smallest axis-aligned bounding box that includes all the accumulated points.
+    *
+    * @param boundingBoxToPack the bounding box in which the result is stored, it is set to
+    *           {@link Double#NaN} if no point has been accumulated. Modified.
+    */
+   public void getBoundingBox(BoundingBox3D boundingBoxToPack)
+   {
+      if (numberOfPoints == 0)
+         boundingBoxToPack.setToNaN();
+      else
+         boundingBoxToPack.set(minX, minY, minZ, maxX, maxY, maxZ);
+   }
+}
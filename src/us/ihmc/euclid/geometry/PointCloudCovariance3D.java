@@ -0,0 +1,256 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.stream.Collector;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.matrix.Matrix3D;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DBasics;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+
+/**
+ * {@code PointCloudCovariance3D} computes the mean and covariance of a set of 3D points in a single
+ * pass.
+ * <p>
+ * The points are accumulated one at a time with Welford's update which is numerically stable even
+ * when the points are far from the origin. Two accumulators computed over disjoint sets of points
+ * can be merged with {@link #combine(PointCloudCovariance3D)}, which allows to split the
+ * accumulation among several threads, see
+ * {@link #addAllParallel(double[], double[], double[], int, int)} and {@link #collector()}.
+ * </p>
+ */
+public class PointCloudCovariance3D
+{
+   private long numberOfPoints = 0;
+   private double meanX, meanY, meanZ;
+   /** Sums of the products of the deviations from the mean. */
+   private double m2XX, m2XY, m2XZ, m2YY, m2YZ, m2ZZ;
+
+   /**
+    * Creates a new empty accumulator.
+    */
+   public PointCloudCovariance3D()
+   {
+   }
+
+   /**
+    * Returns a collector that accumulates a stream of points, sequential or parallel, into a new
+    * {@code PointCloudCovariance3D}.
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @return the collector.
+    */
+   public static Collector<Point3DReadOnly, ?, PointCloudCovariance3D> collector()
+   {
+      return AccumulationTools.collector(PointCloudCovariance3D::new, PointCloudCovariance3D::add, PointCloudCovariance3D::combine);
+   }
+
+   /**
+    * Removes all the points from this accumulator.
+    */
+   public void clear()
+   {
+      numberOfPoints = 0;
+      meanX = meanY = meanZ = 0.0;
+      m2XX = m2XY = m2XZ = m2YY = m2YZ = m2ZZ = 0.0;
+   }
+
+   /**
+    * Adds a point to this accumulator.
+    *
+    * @param x the x-coordinate of the point.
+    * @param y the y-coordinate of the point.
+    * @param z the z-coordinate of the point.
+    */
+   public void add(double x, double y, double z)
+   {
+      numberOfPoints++;
+      double inverseCount = 1.0 / numberOfPoints;
+      double dx = x - meanX;
+      double dy = y - meanY;
+      double dz = z - meanZ;
+      meanX += dx * inverseCount;
+      meanY += dy * inverseCount;
+      meanZ += dz * inverseCount;
+      // Deviations from the updated mean.
+      double ex = x - meanX;
+      double ey = y - meanY;
+      double ez = z - meanZ;
+      m2XX += dx * ex;
+      m2XY += dx * ey;
+      m2XZ += dx * ez;
+      m2YY += dy * ey;
+      m2YZ += dy * ez;
+      m2ZZ += dz * ez;
+   }
+
+   /**
+    * Adds a point to this accumulator.
+    *
+    * @param point the point to add. Not modified.
+    */
+   public void add(Point3DReadOnly point)
+   {
+      add(point.getX(), point.getY(), point.getZ());
+   }
+
+   /**
+    * Adds all the vertices of the given supplier to this accumulator.
+    *
+    * @param vertices the points to add. Not modified.
+    */
+   public void addAll(Vertex3DSupplier vertices)
+   {
+      for (int i = 0; i < vertices.getNumberOfVertices(); i++)
+         add(vertices.getVertex(i));
+   }
+
+   /**
+    * Adds the points of the given range to this accumulator.
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to add.
+    * @param endIndex the index after the last point to add.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void addAll(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      AccumulationTools.checkRange(xs, ys, zs, startIndex, endIndex);
+
+      for (int i = startIndex; i < endIndex; i++)
+         add(xs[i], ys[i], zs[i]);
+   }
+
+   /**
+    * Adds the points of the given range to this accumulator using multiple threads.
+    * <p>
+    * The range is split into tasks executed in the common fork-join pool whose partial results are
+    * then combined. It should only be preferred for very large number of points.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to add.
+    * @param endIndex the index after the last point to add.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void addAllParallel(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      AccumulationTools.checkRange(xs, ys, zs, startIndex, endIndex);
+
+      AccumulationTools.addAllParallel(this, PointCloudCovariance3D::new, (partial, taskStart, taskEnd) -> partial.addAll(xs, ys, zs, taskStart, taskEnd),
+                                       PointCloudCovariance3D::combine, startIndex, endIndex);
+   }
+
+   /**
+    * Merges the points accumulated by {@code other} into this accumulator.
+    * <p>
+    * The result is the same as if the points of {@code other} had been added to this accumulator.
+    * </p>
+    *
+    * @param other the other accumulator. Not modified.
+    */
+   public void combine(PointCloudCovariance3D other)
+   {
+      if (other.numberOfPoints == 0)
+         return;
+
+      if (numberOfPoints == 0)
+      {
+         set(other);
+         return;
+      }
+
+      long totalNumberOfPoints = numberOfPoints + other.numberOfPoints;
+      double otherWeight = (double) other.numberOfPoints / totalNumberOfPoints;
+      double crossWeight = (double) numberOfPoints * otherWeight;
+      double dx = other.meanX - meanX;
+      double dy = other.meanY - meanY;
+      double dz = other.meanZ - meanZ;
+
+      meanX += dx * otherWeight;
+      meanY += dy * otherWeight;
+      meanZ += dz * otherWeight;
+      m2XX += other.m2XX + dx * dx * crossWeight;
+      m2XY += other.m2XY + dx * dy * crossWeight;
+      m2XZ += other.m2XZ + dx * dz * crossWeight;
+      m2YY += other.m2YY + dy * dy * crossWeight;
+      m2YZ += other.m2YZ + dy * dz * crossWeight;
+      m2ZZ += other.m2ZZ + dz * dz * crossWeight;
+      numberOfPoints = totalNumberOfPoints;
+   }
+
+   /**
+    * Copies the state of {@code other} into this accumulator.
+    *
+    * @param other the other accumulator. Not modified.
+    */
+   public void set(PointCloudCovariance3D other)
+   {
+      numberOfPoints = other.numberOfPoints;
+      meanX = other.meanX;
+      meanY = other.meanY;
+      meanZ = other.meanZ;
+      m2XX = other.m2XX;
+      m2XY = other.m2XY;
+      m2XZ = other.m2XZ;
+      m2YY = other.m2YY;
+      m2YZ = other.m2YZ;
+      m2ZZ = other.m2ZZ;
+   }
+
+   /**
+    * Gets the number of points accumulated so far.
+    *
+    * @return the number of points.
+    */
+   public long getNumberOfPoints()
+   {
+      return numberOfPoints;
+   }
+
+   /**
+    * Packs the mean of the accumulated points.
+    *
+    * @param meanToPack the point in which the mean is stored, it is set to {@link Double#NaN} if no
+    *           point has been accumulated. Modified.
+    */
+   public void getMean(Point3DBasics meanToPack)
+   {
+      if (numberOfPoints == 0)
+         meanToPack.setToNaN();
+      else
+         meanToPack.set(meanX, meanY, meanZ);
+   }
+
+   /**
+    * Packs the covariance matrix of the accumulated points.
+    * <p>
+    * The population covariance is computed, i.e. the sums are divided by the number of points.
+    * </p>
+    *
+    * @param covarianceToPack the matrix in which the covariance is stored, it is set to
+    *           {@link Double#NaN} if no point has been accumulated. Modified.
+    */
+   public void getCovariance(Matrix3D covarianceToPack)
+   {
+      if (numberOfPoints == 0)
+      {
+         covarianceToPack.setToNaN();
+         return;
+      }
+
+      double inverseCount = 1.0 / numberOfPoints;
+      double xy = m2XY * inverseCount;
+      double xz = m2XZ * inverseCount;
+      double yz = m2YZ * inverseCount;
+      covarianceToPack.set(m2XX * inverseCount, xy, xz, xy, m2YY * inverseCount, yz, xz, yz, m2ZZ * inverseCount);
+   }
+}
@@ -0,0 +1,526 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.geometry.tools.EuclidGeometryTools;
+import us.ihmc.euclid.interfaces.Transformable;
+import us.ihmc.euclid.tools.EuclidCoreIOTools;
+import us.ihmc.euclid.transform.interfaces.Transform;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DBasics;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+import us.ihmc.euclid.tuple3D.interfaces.Vector3DBasics;
+
+/**
+ * {@code Polyline3D} is a 3D path made of a sequence of vertices connected by line segments.
+ * <p>
+ * The vertices are stored in a packed array along with the cumulative arc-length at each vertex such
+ * that a point at a given arc-length is found in O(log(n)) by binary search. The closest point on the
+ * path can be searched for over the whole path, or only over a window of arc-length around a guess,
+ * typically the result of the previous query when following the path.
+ * </p>
+ * <p>
+ * The i<sup>th</sup> segment of this polyline goes from the i<sup>th</sup> vertex to the
+ * (i+1)<sup>th</sup> vertex.
+ * </p>
+ */
+public class Polyline3D implements Transformable
+{
+   private int numberOfVertices = 0;
+   /** The coordinates of the vertices stored as: x, y, z. */
+   private double[] vertices;
+   /** The arc-length from the first vertex to each vertex. */
+   private double[] arcLengths;
+
+   // Internal variables used to enable garbage free operations.
+   private final Point3D vertex = new Point3D();
+
+   /**
+    * Creates a new empty polyline.
+    */
+   public Polyline3D()
+   {
+      this(16);
+   }
+
+   /**
+    * Creates a new empty polyline.
+    *
+    * @param initialCapacity the number of vertices that can be added before the internal buffers need
+    *           to grow.
+    */
+   public Polyline3D(int initialCapacity)
+   {
+      initialCapacity = Math.max(1, initialCapacity);
+      vertices = new double[3 * initialCapacity];
+      arcLengths = new double[initialCapacity];
+   }
+
+   /**
+    * Creates a new polyline and initializes it to {@code other}.
+    *
+    * @param other the other polyline to copy. Not modified.
+    */
+   public Polyline3D(Polyline3D other)
+   {
+      this(other.numberOfVertices);
+      set(other);
+   }
+
+   /**
+    * Sets this polyline to {@code other}.
+    *
+    * @param other the other polyline to copy. Not modified.
+    */
+   public void set(Polyline3D other)
+   {
+      ensureCapacity(other.numberOfVertices);
+      numberOfVertices = other.numberOfVertices;
+      System.arraycopy(other.vertices, 0, vertices, 0, 3 * numberOfVertices);
+      System.arraycopy(other.arcLengths, 0, arcLengths, 0, numberOfVertices);
+   }
+
+   /**
+    * Sets this polyline to go through the given vertices in order.
+    *
+    * @param vertices the vertices of the path. Not modified.
+    */
+   public void set(Vertex3DSupplier vertices)
+   {
+      clear();
+      ensureCapacity(vertices.getNumberOfVertices());
+
+      for (int i = 0; i < vertices.getNumberOfVertices(); i++)
+         addVertex(vertices.getVertex(i));
+   }
+
+   /**
+    * Removes all the vertices of this polyline.
+    */
+   public void clear()
+   {
+      numberOfVertices = 0;
+   }
+
+   /**
+    * Adds a vertex at the end of this polyline.
+    *
+    * @param vertex the new vertex. Not modified.
+    */
+   public void addVertex(Point3DReadOnly vertex)
+   {
+      addVertex(vertex.getX(), vertex.getY(), vertex.getZ());
+   }
+
+   /**
+    * Adds a vertex at the end of this polyline.
+    *
+    * @param x the x-coordinate of the new vertex.
+    * @param y the y-coordinate of the new vertex.
+    * @param z the z-coordinate of the new vertex.
+    */
+   public void addVertex(double x, double y, double z)
+   {
+      ensureCapacity(numberOfVertices + 1);
+
+      int index = numberOfVertices++;
+      vertices[3 * index] = x;
+      vertices[3 * index + 1] = y;
+      vertices[3 * index + 2] = z;
+
+      if (index == 0)
+      {
+         arcLengths[index] = 0.0;
+      }
+      else
+      {
+         double dx = x - vertices[3 * index - 3];
+         double dy = y - vertices[3 * index - 2];
+         double dz = z - vertices[3 * index - 1];
+         arcLengths[index] = arcLengths[index - 1] + Math.sqrt(dx * dx + dy * dy + dz * dz);
+      }
+   }
+
+   private void ensureCapacity(int capacity)
+   {
+      if (capacity > arcLengths.length)
+      {
+         capacity = Math.max(capacity, 2 * arcLengths.length);
+         vertices = Arrays.copyOf(vertices, 3 * capacity);
+         arcLengths = Arrays.copyOf(arcLengths, capacity);
+      }
+   }
+
+   private void updateArcLengths()
+   {
+      for (int i = 1; i < numberOfVertices; i++)
+      {
+         double dx = vertices[3 * i] - vertices[3 * i - 3];
+         double dy = vertices[3 * i + 1] - vertices[3 * i - 2];
+         double dz = vertices[3 * i + 2] - vertices[3 * i - 1];
+         arcLengths[i] = arcLengths[i - 1] + Math.sqrt(dx * dx + dy * dy + dz * dz);
+      }
+   }
+
+   /**
+    * Gets the number of vertices of this polyline.
+    *
+    * @return the number of vertices.
+    */
+   public int getNumberOfVertices()
+   {
+      return numberOfVertices;
+   }
+
+   /**
+    * Gets the number of segments of this polyline.
+    *
+    * @return the number of segments.
+    */
+   public int getNumberOfSegments()
+   {
+      return Math.max(0, numberOfVertices - 1);
+   }
+
+   /**
+    * Packs the coordinates of the i<sup>th</sup> vertex.
+    *
+    * @param index the index of the vertex.
+    * @param vertexToPack the point in which the coordinates are stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public void getVertex(int index, Point3DBasics vertexToPack)
+   {
+      checkIndex(index);
+      vertexToPack.set(vertices[3 * index], vertices[3 * index + 1], vertices[3 * index + 2]);
+   }
+
+   /**
+    * Gets the total length of this polyline.
+    *
+    * @return the length of the path, or {@code 0.0} if this polyline has less than two vertices.
+    */
+   public double getLength()
+   {
+      return numberOfVertices == 0 ? 0.0 : arcLengths[numberOfVertices - 1];
+   }
+
+   /**
+    * Gets the arc-length from the first vertex to the i<sup>th</sup> vertex.
+    *
+    * @param index the index of the vertex.
+    * @return the arc-length at the vertex.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getArcLength(int index)
+   {
+      checkIndex(index);
+      return arcLengths[index];
+   }
+
+   /**
+    * Finds the segment containing the point at the given arc-length.
+    * <p>
+    * The arc-length is clamped to [0, {@link #getLength()}]. When the point is a vertex shared by two
+    * segments, the index of the second segment is returned, except for the last vertex.
+    * </p>
+    *
+    * @param arcLength the arc-length from the first vertex.
+    * @return the index of the segment, or {@code -1} if this polyline has less than two vertices.
+    */
+   public int getSegmentIndex(double arcLength)
+   {
+      if (numberOfVertices < 2)
+         return -1;
+
+      // Find the last vertex such that arcLengths[vertex] <= arcLength in [0, numberOfVertices - 2].
+      int low = 0;
+      int high = numberOfVertices - 2;
+
+      while (low < high)
+      {
+         int mid = (low + high + 1) >>> 1;
+
+         if (arcLengths[mid] <= arcLength)
+            low = mid;
+         else
+            high = mid - 1;
+      }
+
+      return low;
+   }
+
+   /**
+    * Computes the coordinates of the point located at the given arc-length along this polyline.
+    * <p>
+    * Edge cases:
+    * <ul>
+    * <li>The arc-length is clamped to [0, {@link #getLength()}].
+    * <li>If this polyline has a single vertex, {@code pointToPack} is set to this vertex.
+    * <li>If this polyline is empty, {@code pointToPack} is set to {@link Double#NaN}.
+    * </ul>
+    * </p>
+    *
+    * @param arcLength the arc-length from the first vertex.
+    * @param pointToPack the point in which the result is stored. Modified.
+    */
+   public void pointAtArcLength(double arcLength, Point3DBasics pointToPack)
+   {
+      if (numberOfVertices < 2)
+      {
+         if (numberOfVertices == 0)
+            pointToPack.setToNaN();
+         else
+            getVertex(0, pointToPack);
+         return;
+      }
+
+      int segment = getSegmentIndex(arcLength);
+      double segmentLength = arcLengths[segment + 1] - arcLengths[segment];
+      double percentage = segmentLength > 0.0 ? (arcLength - arcLengths[segment]) / segmentLength : 0.0;
+      percentage = Math.max(0.0, Math.min(1.0, percentage));
+
+      int offset = 3 * segment;
+      pointToPack.set(vertices[offset] + percentage * (vertices[offset + 3] - vertices[offset]),
+                      vertices[offset + 1] + percentage * (vertices[offset + 4] - vertices[offset + 1]),
+                      vertices[offset + 2] + percentage * (vertices[offset + 5] - vertices[offset + 2]));
+   }
+
+   /**
+    * Computes the direction of the path at the given arc-length, i.e. the direction of the segment
+    * containing the point at the given arc-length.
+    * <p>
+    * Edge cases:
+    * <ul>
+    * <li>The arc-length is clamped to [0, {@link #getLength()}].
+    * <li>If this polyline has less than two vertices or the segment has a length of zero,
+    * {@code directionToPack} is set to {@link Double#NaN}.
+    * </ul>
+    * </p>
+    *
+    * @param arcLength the arc-length from the first vertex.
+    * @param directionToPack the vector in which the unit-length direction is stored. Modified.
+    */
+   public void directionAtArcLength(double arcLength, Vector3DBasics directionToPack)
+   {
+      int segment = getSegmentIndex(arcLength);
+      double segmentLength = segment == -1 ? 0.0 : arcLengths[segment + 1] - arcLengths[segment];
+
+      if (segmentLength <= 0.0)
+      {
+         directionToPack.setToNaN();
+         return;
+      }
+
+      int offset = 3 * segment;
+      directionToPack.set(vertices[offset + 3] - vertices[offset], vertices[offset + 4] - vertices[offset + 1], vertices[offset + 5] - vertices[offset + 2]);
+      directionToPack.scale(1.0 / segmentLength);
+   }
+
+   /**
+    * Computes the orthogonal projection of a point onto this polyline, i.e. the closest point on the
+    * path.
+    * <p>
+    * All the segments are tested, see
+    * {@link #orthogonalProjection(Point3DReadOnly, double, double, Point3DBasics)} to only search
+    * near the result of a previous query.
+    * </p>
+    * <p>
+    * Edge cases:
+    * <ul>
+    * <li>If this polyline has a single vertex, the projection is this vertex.
+    * <li>If this polyline is empty, {@code projectionToPack} is set to {@link Double#NaN} and this
+    * method returns {@link Double#NaN}.
+    * </ul>
+    * </p>
+    *
+    * @param pointToProject the point to project. Not modified.
+    * @param projectionToPack the point in which the projection is stored. Modified.
+    * @return the arc-length of the projection.
+    */
+   public double orthogonalProjection(Point3DReadOnly pointToProject, Point3DBasics projectionToPack)
+   {
+      return orthogonalProjectionInWindow(pointToProject, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, projectionToPack);
+   }
+
+   /**
+    * Computes the orthogonal projection of a point onto the part of this polyline located within
+    * {@code searchWindow} of arc-length around {@code arcLengthGuess}.
+    * <p>
+    * This is intended for following the path: when the point moves continuously, the arc-length of
+    * the previous projection is a good guess and the search only tests the few segments around it.
+    * The projection is only guaranteed to be the closest point on the whole path when the window is
+    * large enough.
+    * </p>
+    * <p>
+    * Edge cases:
+    * <ul>
+    * <li>If this polyline has a single vertex, the projection is this vertex.
+    * <li>If this polyline is empty, {@code projectionToPack} is set to {@link Double#NaN} and this
+    * method returns {@link Double#NaN}.
+    * </ul>
+    * </p>
+    *
+    * @param pointToProject the point to project. Not modified.
+    * @param arcLengthGuess the arc-length around which the projection is searched for.
+    * @param searchWindow the maximum arc-length between the guess and the projection.
+    * @param projectionToPack the point in which the projection is stored. Modified.
+    * @return the arc-length of the projection.
+    */
+   public double orthogonalProjection(Point3DReadOnly pointToProject, double arcLengthGuess, double searchWindow, Point3DBasics projectionToPack)
+   {
+      double windowStart = Math.min(arcLengthGuess - Math.abs(searchWindow), getLength());
+      double windowEnd = Math.max(arcLengthGuess + Math.abs(searchWindow), 0.0);
+      return orthogonalProjectionInWindow(pointToProject, windowStart, windowEnd, projectionToPack);
+   }
+
+   private double orthogonalProjectionInWindow(Point3DReadOnly pointToProject, double windowStart, double windowEnd, Point3DBasics projectionToPack)
+   {
+      if (numberOfVertices < 2)
+      {
+         if (numberOfVertices == 0)
+         {
+            projectionToPack.setToNaN();
+            return Double.NaN;
+         }
+
+         getVertex(0, projectionToPack);
+         return 0.0;
+      }
+
+      double x = pointToProject.getX();
+      double y = pointToProject.getY();
+      double z = pointToProject.getZ();
+      double bestDistanceSquared = Double.POSITIVE_INFINITY;
+      double bestArcLength = 0.0;
+
+      int lastSegment = getSegmentIndex(windowEnd);
+
+      for (int segment = getSegmentIndex(windowStart); segment <= lastSegment; segment++)
+      {
+         int offset = 3 * segment;
+         double startX = vertices[offset];
+         double startY = vertices[offset + 1];
+         double startZ = vertices[offset + 2];
+         double endX = vertices[offset + 3];
+         double endY = vertices[offset + 4];
+         double endZ = vertices[offset + 5];
+
+         double percentage = EuclidGeometryTools.percentageAlongLineSegment3D(x, y, z, startX, startY, startZ, endX, endY, endZ);
+         percentage = clampToWindow(percentage, segment, windowStart, windowEnd);
+
+         double dx = startX + percentage * (endX - startX) - x;
+         double dy = startY + percentage * (endY - startY) - y;
+         double dz = startZ + percentage * (endZ - startZ) - z;
+         double distanceSquared = dx * dx + dy * dy + dz * dz;
+
+         if (distanceSquared < bestDistanceSquared)
+         {
+            bestDistanceSquared = distanceSquared;
+            bestArcLength = arcLengths[segment] + percentage * (arcLengths[segment + 1] - arcLengths[segment]);
+            projectionToPack.set(x + dx, y + dy, z + dz);
+         }
+      }
+
+      return bestArcLength;
+   }
+
+   /**
+    * Clamps the percentage along the segment to the part of the segment that is inside the window.
+    */
+   private double clampToWindow(double percentage, int segment, double windowStart, double windowEnd)
+   {
+      double segmentLength = arcLengths[segment + 1] - arcLengths[segment];
+      double min = 0.0;
+      double max = 1.0;
+
+      if (segmentLength > 0.0)
+      {
+         min = Math.max(min, (windowStart - arcLengths[segment]) / segmentLength);
+         max = Math.min(max, (windowEnd - arcLengths[segment]) / segmentLength);
+      }
+
+      return Math.max(min, Math.min(max, percentage));
+   }
+
+   /**
+    * Transforms the vertices of this polyline by the given {@code transform}.
+    * <p>
+    * The arc-lengths are updated such that this method also supports transforms that are not rigid.
+    * </p>
+    *
+    * @param transform the geometric transform to apply on this polyline. Not modified.
+    */
+   @Override
+   public void applyTransform(Transform transform)
+   {
+      for (int i = 0; i < numberOfVertices; i++)
+      {
+         getVertex(i, vertex);
+         vertex.applyTransform(transform);
+         setVertex(i, vertex);
+      }
+
+      updateArcLengths();
+   }
+
+   /**
+    * Transforms the vertices of this polyline by the inverse of the given {@code transform}.
+    * <p>
+    * The arc-lengths are updated such that this method also supports transforms that are not rigid.
+    * </p>
+    *
+    * @param transform the geometric transform to apply on this polyline. Not modified.
+    */
+   @Override
+   public void applyInverseTransform(Transform transform)
+   {
+      for (int i = 0; i < numberOfVertices; i++)
+      {
+         getVertex(i, vertex);
+         vertex.applyInverseTransform(transform);
+         setVertex(i, vertex);
+      }
+
+      updateArcLengths();
+   }
+
+   private void setVertex(int index, Point3DReadOnly vertex)
+   {
+      vertices[3 * index] = vertex.getX();
+      vertices[3 * index + 1] = vertex.getY();
+      vertices[3 * index + 2] = vertex.getZ();
+   }
+
+   private void checkIndex(int index)
+   {
+      if (index < 0 || index >= numberOfVertices)
+         throw new IndexOutOfBoundsException("Index: " + index + ", number of vertices: " + numberOfVertices);
+   }
+
+   /**
+    * Provides a {@code String} representation of this polyline as follows:
+    *
+    * <pre>
+    * Polyline 3D: length = 0.652, vertices = [
+    * ( 0.540,  0.110,  0.319 ),
+    * ( 0.751,  0.374,  0.892 ) ]
+    * </pre>
+    *
+    * @return the {@code String} representing this polyline.
+    */
+   @Override
+   public String toString()
+   {
+      String string = "Polyline 3D: length = " + String.format(EuclidCoreIOTools.DEFAULT_FORMAT, getLength()) + ", vertices = [";
+
+      for (int i = 0; i < numberOfVertices; i++)
+      {
+         string += i == 0 ? "\n" : ",\n";
+         string += EuclidCoreIOTools.getStringOf("(", " )", ", ", EuclidCoreIOTools.DEFAULT_FORMAT, vertices[3 * i], vertices[3 * i + 1], vertices[3 * i + 2]);
+      }
+
+      return string + (numberOfVertices == 0 ? "]" : " ]");
+   }
+}
@@ -0,0 +1,288 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+
+import us.ihmc.euclid.geometry.interfaces.Pose3DBasics;
+import us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly;
+import us.ihmc.euclid.interfaces.Transformable;
+import us.ihmc.euclid.tools.EuclidCoreIOTools;
+import us.ihmc.euclid.transform.interfaces.Transform;
+import us.ihmc.euclid.tuple4D.interfaces.QuaternionReadOnly;
+
+/**
+ * {@code Pose3DFloatBuffer} is a growable sequence of 3D poses stored in single precision.
+ * <p>
+ * The poses are packed in a single {@code float} array as: x, y, z, qx, qy, qz, qs, such that a pose
+ * uses 28 bytes instead of the three objects backing a {@link Pose3D}. It is intended for large
+ * histories of poses, such as logged trajectories, for which the memory footprint matters more than
+ * the precision.
+ * </p>
+ * <p>
+ * The orientation is normalized when read from this buffer to compensate for the rounding to single
+ * precision.
+ * </p>
+ */
+public class Pose3DFloatBuffer implements Transformable
+{
+   private static final int POSE_SIZE = 7;
+
+   private int size = 0;
+   /** The poses stored as: x, y, z, qx, qy, qz, qs. */
+   private float[] data;
+
+   // Internal variables used to enable garbage free operations.
+   private final Pose3D pose = new Pose3D();
+
+   /**
+    * Creates a new empty buffer.
+    */
+   public Pose3DFloatBuffer()
+   {
+      this(16);
+   }
+
+   /**
+    * Creates a new empty buffer.
+    *
+    * @param initialCapacity the number of poses that can be added before the internal array needs to
+    *           grow.
+    */
+   public Pose3DFloatBuffer(int initialCapacity)
+   {
+      data = new float[POSE_SIZE * Math.max(1, initialCapacity)];
+   }
+
+   /**
+    * Creates a new buffer and initializes it to {@code other}.
+    *
+    * @param other the other buffer to copy. Not modified.
+    */
+   public Pose3DFloatBuffer(Pose3DFloatBuffer other)
+   {
+      this(other.size);
+      set(other);
+   }
+
+   /**
+    * Sets this buffer to {@code other}.
+    *
+    * @param other the other buffer to copy. Not modified.
+    */
+   public void set(Pose3DFloatBuffer other)
+   {
+      ensureCapacity(other.size);
+      size = other.size;
+      System.arraycopy(other.data, 0, data, 0, POSE_SIZE * size);
+   }
+
+   /**
+    * Removes all the poses of this buffer.
+    */
+   public void clear()
+   {
+      size = 0;
+   }
+
+   /**
+    * Gets the number of poses in this buffer.
+    *
+    * @return the number of poses.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Whether this buffer is empty.
+    *
+    * @return {@code true} if there is no pose, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Ensures that this buffer can hold at least the given number of poses without growing.
+    *
+    * @param capacity the minimum capacity in number of poses.
+    */
+   public void ensureCapacity(int capacity)
+   {
+      if (POSE_SIZE * capacity > data.length)
+         data = Arrays.copyOf(data, POSE_SIZE * Math.max(capacity, 2 * data.length / POSE_SIZE));
+   }
+
+   /**
+    * Adds a pose at the end of this buffer.
+    *
+    * @param pose the new pose. Not modified.
+    */
+   public void add(Pose3DReadOnly pose)
+   {
+      QuaternionReadOnly orientation = pose.getOrientation();
+      add(pose.getX(), pose.getY(), pose.getZ(), orientation.getX(), orientation.getY(), orientation.getZ(), orientation.getS());
+   }
+
+   /**
+    * Adds a pose at the end of this buffer.
+    *
+    * @param x the x-coordinate of the position.
+    * @param y the y-coordinate of the position.
+    * @param z the z-coordinate of the position.
+    * @param qx the x-component of the orientation.
+    * @param qy the y-component of the orientation.
+    * @param qz the z-component of the orientation.
+    * @param qs the s-component of the orientation.
+    */
+   public void add(double x, double y, double z, double qx, double qy, double qz, double qs)
+   {
+      ensureCapacity(size + 1);
+      setUnsafe(size++, x, y, z, qx, qy, qz, qs);
+   }
+
+   /**
+    * Sets the i<sup>th</sup> pose of this buffer.
+    *
+    * @param index the index of the pose.
+    * @param pose the new pose. Not modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public void set(int index, Pose3DReadOnly pose)
+   {
+      checkIndex(index);
+      QuaternionReadOnly orientation = pose.getOrientation();
+      setUnsafe(index, pose.getX(), pose.getY(), pose.getZ(), orientation.getX(), orientation.getY(), orientation.getZ(), orientation.getS());
+   }
+
+   private void setUnsafe(int index, double x, double y, double z, double qx, double qy, double qz, double qs)
+   {
+      int offset = POSE_SIZE * index;
+      data[offset] = (float) x;
+      data[offset + 1] = (float) y;
+      data[offset + 2] = (float) z;
+      data[offset + 3] = (float) qx;
+      data[offset + 4] = (float) qy;
+      data[offset + 5] = (float) qz;
+      data[offset + 6] = (float) qs;
+   }
+
+   /**
+    * Packs the i<sup>th</sup> pose of this buffer.
+    *
+    * @param index the index of the pose.
+    * @param poseToPack the pose in which the result is stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public void get(int index, Pose3DBasics poseToPack)
+   {
+      checkIndex(index);
+      int offset = POSE_SIZE * index;
+      poseToPack.setPosition(data[offset], data[offset + 1], data[offset + 2]);
+      poseToPack.setOrientation(data[offset + 3], data[offset + 4], data[offset + 5], data[offset + 6]);
+   }
+
+   /**
+    * Packs the positions of the poses of the given range of this buffer into the given arrays, the
+    * position of the i<sup>th</sup> pose being stored at the index {@code i}.
+    *
+    * @param xs the array in which the x-coordinates are stored. Modified.
+    * @param ys the array in which the y-coordinates are stored. Modified.
+    * @param zs the array in which the z-coordinates are stored. Modified.
+    * @param startIndex the index of the first pose to get.
+    * @param endIndex the index after the last pose to get.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    * @throws IndexOutOfBoundsException if the range is out of the bounds of this buffer.
+    */
+   public void getPositions(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      if (startIndex < 0 || startIndex > endIndex)
+         throw new IllegalArgumentException("Invalid range: [" + startIndex + ", " + endIndex + "[");
+      if (xs.length < endIndex || ys.length < endIndex || zs.length < endIndex)
+         throw new IllegalArgumentException("The arrays are too short for the range [" + startIndex + ", " + endIndex + "[, lengths: xs = " + xs.length
+               + ", ys = " + ys.length + ", zs = " + zs.length);
+      if (endIndex > size)
+         throw new IndexOutOfBoundsException("End index: " + endIndex + ", size: " + size);
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         int offset = POSE_SIZE * i;
+         xs[i] = data[offset];
+         ys[i] = data[offset + 1];
+         zs[i] = data[offset + 2];
+      }
+   }
+
+   /**
+    * Transforms the poses of this buffer by the given {@code transform}.
+    * <p>
+    * The computation is performed in double precision, the result is then rounded to single
+    * precision.
+    * </p>
+    *
+    * @param transform the geometric transform to apply on this buffer. Not modified.
+    */
+   @Override
+   public void applyTransform(Transform transform)
+   {
+      for (int i = 0; i < size; i++)
+      {
+         get(i, pose);
+         pose.applyTransform(transform);
+         set(i, pose);
+      }
+   }
+
+   /**
+    * Transforms the poses of this buffer by the inverse of the given {@code transform}.
+    * <p>
+    * The computation is performed in double precision, the result is then rounded to single
+    * precision.
+    * </p>
+    *
+    * @param transform the geometric transform to apply on this buffer. Not modified.
+    */
+   @Override
+   public void applyInverseTransform(Transform transform)
+   {
+      for (int i = 0; i < size; i++)
+      {
+         get(i, pose);
+         pose.applyInverseTransform(transform);
+         set(i, pose);
+      }
+   }
+
+   private void checkIndex(int index)
+   {
+      if (index < 0 || index >= size)
+         throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+   }
+
+   /**
+    * Provides a {@code String} representation of this buffer as follows:
+    *
+    * <pre>
+    * Pose 3D float buffer: size = 1, poses = [
+    * ( 0.540,  0.110,  0.319,  0.012,  0.137,  0.104,  0.985 ) ]
+    * </pre>
+    *
+    * @return the {@code String} representing this buffer.
+    */
+   @Override
+   public String toString()
+   {
+      String string = "Pose 3D float buffer: size = " + size + ", poses = [";
+
+      for (int i = 0; i < size; i++)
+      {
+         int offset = POSE_SIZE * i;
+         string += i == 0 ? "\n" : ",\n";
+         string += EuclidCoreIOTools.getStringOf("(", " )", ", ", EuclidCoreIOTools.DEFAULT_FORMAT, data[offset], data[offset + 1], data[offset + 2],
+                                                 data[offset + 3], data[offset + 4], data[offset + 5], data[offset + 6]);
+      }
+
+      return string + (size == 0 ? "]" : " ]");
+   }
+}
@@ -0,0 +1,522 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+
+import us.ihmc.euclid.geometry.interfaces.Pose3DBasics;
+import us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly;
+import us.ihmc.euclid.interfaces.Transformable;
+import us.ihmc.euclid.tools.EuclidCoreIOTools;
+import us.ihmc.euclid.transform.interfaces.Transform;
+import us.ihmc.euclid.tuple4D.interfaces.QuaternionReadOnly;
+
+/**
+ * {@code Pose3DTrajectory} is a sequence of timed 3D poses, the waypoints, between which intermediate
+ * poses are sampled by interpolation.
+ * <p>
+ * Between two consecutive waypoints, the position is linearly interpolated and the orientation is
+ * interpolated by SLERP along the shortest path, consistently with
+ * {@link Pose3DBasics#interpolate(Pose3DReadOnly, Pose3DReadOnly, double)}. The angle between the
+ * orientations of each segment is computed once when the waypoint is added such that sampling only
+ * evaluates two sines per pose, and the segment containing a given time is found in O(log(n)) by
+ * binary search.
+ * </p>
+ * <p>
+ * The poses can be sampled one at a time, or in batch into arrays of components which does not
+ * generate garbage. To interpolate between two poses only, use
+ * {@link #set(Pose3DReadOnly, Pose3DReadOnly)} and sample the resulting trajectory with the
+ * interpolation percentages as times.
+ * </p>
+ * <p>
+ * The i<sup>th</sup> segment of this trajectory goes from the i<sup>th</sup> waypoint to the
+ * (i+1)<sup>th</sup> waypoint.
+ * </p>
+ */
+public class Pose3DTrajectory implements Transformable
+{
+   /** Below this value, the orientations are linearly interpolated to avoid dividing by zero. */
+   private static final double SLERP_EPSILON = 1.0e-12;
+
+   private int numberOfWaypoints = 0;
+   /** The time of each waypoint, strictly increasing. */
+   private double[] times;
+   /** The components of the waypoints stored as: x, y, z, qx, qy, qz, qs. */
+   private double[] waypoints;
+   /** The half of the angle between the orientations of each segment. */
+   private double[] halfAngles;
+   /**
+    * The inverse of the sine of {@link #halfAngles} for each segment, or {@code 0.0} when the
+    * orientations are linearly interpolated.
+    */
+   private double[] inverseSinHalfAngles;
+   /** The sign to apply to the orientation of the end waypoint of each segment. */
+   private double[] signs;
+
+   // Internal variables used to enable garbage free operations.
+   private final Pose3D waypoint = new Pose3D();
+   private final double[] sample = new double[7];
+
+   /**
+    * Creates a new empty trajectory.
+    */
+   public Pose3DTrajectory()
+   {
+      this(16);
+   }
+
+   /**
+    * Creates a new empty trajectory.
+    *
+    * @param initialCapacity the number of waypoints that can be added before the internal buffers
+    *           need to grow.
+    */
+   public Pose3DTrajectory(int initialCapacity)
+   {
+      initialCapacity = Math.max(1, initialCapacity);
+      times = new double[initialCapacity];
+      waypoints = new double[7 * initialCapacity];
+      halfAngles = new double[initialCapacity];
+      inverseSinHalfAngles = new double[initialCapacity];
+      signs = new double[initialCapacity];
+   }
+
+   /**
+    * Creates a new trajectory and initializes it to {@code other}.
+    *
+    * @param other the other trajectory to copy. Not modified.
+    */
+   public Pose3DTrajectory(Pose3DTrajectory other)
+   {
+      this(other.numberOfWaypoints);
+      set(other);
+   }
+
+   /**
+    * Sets this trajectory to {@code other}.
+    *
+    * @param other the other trajectory to copy. Not modified.
+    */
+   public void set(Pose3DTrajectory other)
+   {
+      ensureCapacity(other.numberOfWaypoints);
+      numberOfWaypoints = other.numberOfWaypoints;
+      System.arraycopy(other.times, 0, times, 0, numberOfWaypoints);
+      System.arraycopy(other.waypoints, 0, waypoints, 0, 7 * numberOfWaypoints);
+      System.arraycopy(other.halfAngles, 0, halfAngles, 0, numberOfWaypoints);
+      System.arraycopy(other.inverseSinHalfAngles, 0, inverseSinHalfAngles, 0, numberOfWaypoints);
+      System.arraycopy(other.signs, 0, signs, 0, numberOfWaypoints);
+   }
+
+   /**
+    * Sets this trajectory to go from {@code start} at the time {@code 0.0} to {@code end} at the time
+    * {@code 1.0}, such that sampling it at the time {@code alpha} is equivalent to
+    * {@link Pose3DBasics#interpolate(Pose3DReadOnly, Pose3DReadOnly, double)}.
+    *
+    * @param start the first waypoint. Not modified.
+    * @param end the second waypoint. Not modified.
+    */
+   public void set(Pose3DReadOnly start, Pose3DReadOnly end)
+   {
+      clear();
+      addWaypoint(0.0, start);
+      addWaypoint(1.0, end);
+   }
+
+   /**
+    * Removes all the waypoints of this trajectory.
+    */
+   public void clear()
+   {
+      numberOfWaypoints = 0;
+   }
+
+   /**
+    * Adds a waypoint at the end of this trajectory.
+    *
+    * @param time the time of the new waypoint.
+    * @param pose the new waypoint. Not modified.
+    * @throws IllegalArgumentException if {@code time} is {@link Double#NaN} or not greater than the
+    *            time of the last waypoint.
+    */
+   public void addWaypoint(double time, Pose3DReadOnly pose)
+   {
+      QuaternionReadOnly orientation = pose.getOrientation();
+      addWaypoint(time, pose.getX(), pose.getY(), pose.getZ(), orientation.getX(), orientation.getY(), orientation.getZ(), orientation.getS());
+   }
+
+   /**
+    * Adds a waypoint at the end of this trajectory.
+    *
+    * @param time the time of the new waypoint.
+    * @param x the x-coordinate of the position of the new waypoint.
+    * @param y the y-coordinate of the position of the new waypoint.
+    * @param z the z-coordinate of the position of the new waypoint.
+    * @param qx the x-component of the orientation of the new waypoint.
+    * @param qy the y-component of the orientation of the new waypoint.
+    * @param qz the z-component of the orientation of the new waypoint.
+    * @param qs the s-component of the orientation of the new waypoint.
+    * @throws IllegalArgumentException if {@code time} is {@link Double#NaN} or not greater than the
+    *            time of the last waypoint.
+    */
+   public void addWaypoint(double time, double x, double y, double z, double qx, double qy, double qz, double qs)
+   {
+      if (Double.isNaN(time))
+         throw new IllegalArgumentException("The time of a waypoint cannot be NaN.");
+      if (numberOfWaypoints > 0 && time <= times[numberOfWaypoints - 1])
+         throw new IllegalArgumentException("The time of a new waypoint must be greater than " + times[numberOfWaypoints - 1] + ", was: " + time);
+
+      ensureCapacity(numberOfWaypoints + 1);
+
+      int index = numberOfWaypoints++;
+      times[index] = time;
+      waypoint.setPosition(x, y, z);
+      waypoint.setOrientation(qx, qy, qz, qs);
+      setWaypoint(index, waypoint);
+
+      if (index > 0)
+         updateSegment(index - 1);
+   }
+
+   private void ensureCapacity(int capacity)
+   {
+      if (capacity > times.length)
+      {
+         capacity = Math.max(capacity, 2 * times.length);
+         times = Arrays.copyOf(times, capacity);
+         waypoints = Arrays.copyOf(waypoints, 7 * capacity);
+         halfAngles = Arrays.copyOf(halfAngles, capacity);
+         inverseSinHalfAngles = Arrays.copyOf(inverseSinHalfAngles, capacity);
+         signs = Arrays.copyOf(signs, capacity);
+      }
+   }
+
+   private void updateSegment(int segment)
+   {
+      int start = 7 * segment + 3;
+      int end = start + 7;
+      double cosHalfAngle = waypoints[start] * waypoints[end] + waypoints[start + 1] * waypoints[end + 1] + waypoints[start + 2] * waypoints[end + 2]
+            + waypoints[start + 3] * waypoints[end + 3];
+
+      if (cosHalfAngle < 0.0)
+      {
+         signs[segment] = -1.0;
+         cosHalfAngle = -cosHalfAngle;
+      }
+      else
+      {
+         signs[segment] = 1.0;
+      }
+
+      if (1.0 - cosHalfAngle > SLERP_EPSILON)
+      {
+         halfAngles[segment] = Math.acos(Math.min(1.0, cosHalfAngle));
+         inverseSinHalfAngles[segment] = 1.0 / Math.sin(halfAngles[segment]);
+      }
+      else
+      {
+         halfAngles[segment] = 0.0;
+         inverseSinHalfAngles[segment] = 0.0;
+      }
+   }
+
+   /**
+    * Gets the number of waypoints of this trajectory.
+    *
+    * @return the number of waypoints.
+    */
+   public int getNumberOfWaypoints()
+   {
+      return numberOfWaypoints;
+   }
+
+   /**
+    * Gets the number of segments of this trajectory.
+    *
+    * @return the number of segments.
+    */
+   public int getNumberOfSegments()
+   {
+      return Math.max(0, numberOfWaypoints - 1);
+   }
+
+   /**
+    * Gets the time of the i<sup>th</sup> waypoint.
+    *
+    * @param index the index of the waypoint.
+    * @return the time of the waypoint.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getTime(int index)
+   {
+      checkIndex(index);
+      return times[index];
+   }
+
+   /**
+    * Packs the i<sup>th</sup> waypoint.
+    *
+    * @param index the index of the waypoint.
+    * @param poseToPack the pose in which the waypoint is stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public void getWaypoint(int index, Pose3DBasics poseToPack)
+   {
+      checkIndex(index);
+      int offset = 7 * index;
+      poseToPack.setPosition(waypoints[offset], waypoints[offset + 1], waypoints[offset + 2]);
+      poseToPack.setOrientation(waypoints[offset + 3], waypoints[offset + 4], waypoints[offset + 5], waypoints[offset + 6]);
+   }
+
+   /**
+    * Finds the segment containing the given time.
+    * <p>
+    * The time is clamped to the time range of this trajectory. When the time is the one of a waypoint
+    * shared by two segments, the index of the second segment is returned, except for the last
+    * waypoint.
+    * </p>
+    *
+    * @param time the query.
+    * @return the index of the segment, or {@code -1} if this trajectory has less than two waypoints.
+    */
+   public int getSegmentIndex(double time)
+   {
+      if (numberOfWaypoints < 2)
+         return -1;
+
+      // Find the last waypoint such that times[waypoint] <= time in [0, numberOfWaypoints - 2].
+      int low = 0;
+      int high = numberOfWaypoints - 2;
+
+      while (low < high)
+      {
+         int mid = (low + high + 1) >>> 1;
+
+         if (times[mid] <= time)
+            low = mid;
+         else
+            high = mid - 1;
+      }
+
+      return low;
+   }
+
+   /**
+    * Computes the pose of this trajectory at the given time.
+    * <p>
+    * Edge cases:
+    * <ul>
+    * <li>The time is clamped to the time range of this trajectory.
+    * <li>If this trajectory has a single waypoint, {@code poseToPack} is set to this waypoint.
+    * <li>If this trajectory is empty, {@code poseToPack} is set to {@link Double#NaN}.
+    * </ul>
+    * </p>
+    *
+    * @param time the time at which the pose is sampled.
+    * @param poseToPack the pose in which the result is stored. Modified.
+    */
+   public void sample(double time, Pose3DBasics poseToPack)
+   {
+      if (numberOfWaypoints < 2)
+      {
+         if (numberOfWaypoints == 0)
+            poseToPack.setToNaN();
+         else
+            getWaypoint(0, poseToPack);
+         return;
+      }
+
+      interpolate(getSegmentIndex(time), time, sample);
+      poseToPack.setPosition(sample[0], sample[1], sample[2]);
+      poseToPack.setOrientation(sample[3], sample[4], sample[5], sample[6]);
+   }
+
+   /**
+    * Computes the poses of this trajectory at the times of the given range.
+    * <p>
+    * The pose at {@code times[i]} is stored at the index {@code i} of the arrays of components. The
+    * segment lookup is skipped when consecutive times fall in the same segment, such that sampling
+    * sorted times is faster. The edge cases are the same as {@link #sample(double, Pose3DBasics)}.
+    * </p>
+    *
+    * @param times the times at which the poses are sampled. Not modified.
+    * @param xs the array in which the x-coordinates of the positions are stored. Modified.
+    * @param ys the array in which the y-coordinates of the positions are stored. Modified.
+    * @param zs the array in which the z-coordinates of the positions are stored. Modified.
+    * @param qxs the array in which the x-components of the orientations are stored. Modified.
+    * @param qys the array in which the y-components of the orientations are stored. Modified.
+    * @param qzs the array in which the z-components of the orientations are stored. Modified.
+    * @param qss the array in which the s-components of the orientations are stored. Modified.
+    * @param startIndex the index of the first time to sample.
+    * @param endIndex the index after the last time to sample.
+    */
+   public void sample(double[] times, double[] xs, double[] ys, double[] zs, double[] qxs, double[] qys, double[] qzs, double[] qss, int startIndex,
+                      int endIndex)
+   {
+      int segment = -1;
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         double time = times[i];
+
+         if (numberOfWaypoints < 2)
+         {
+            if (numberOfWaypoints == 0)
+               Arrays.fill(sample, Double.NaN);
+            else
+               System.arraycopy(waypoints, 0, sample, 0, 7);
+         }
+         else
+         {
+            if (!isInSegment(segment, time))
+               segment = getSegmentIndex(time);
+            interpolate(segment, time, sample);
+         }
+
+         xs[i] = sample[0];
+         ys[i] = sample[1];
+         zs[i] = sample[2];
+         qxs[i] = sample[3];
+         qys[i] = sample[4];
+         qzs[i] = sample[5];
+         qss[i] = sample[6];
+      }
+   }
+
+   private boolean isInSegment(int segment, double time)
+   {
+      if (segment < 0)
+         return false;
+      if (time < times[segment] && segment > 0)
+         return false;
+      if (time >= times[segment + 1] && segment < numberOfWaypoints - 2)
+         return false;
+      return true;
+   }
+
+   private void interpolate(int segment, double time, double[] sampleToPack)
+   {
+      double alpha = (time - times[segment]) / (times[segment + 1] - times[segment]);
+      alpha = Math.max(0.0, Math.min(1.0, alpha));
+
+      int start = 7 * segment;
+      int end = start + 7;
+
+      for (int i = 0; i < 3; i++)
+         sampleToPack[i] = waypoints[start + i] + alpha * (waypoints[end + i] - waypoints[start + i]);
+
+      double startWeight, endWeight;
+
+      if (inverseSinHalfAngles[segment] == 0.0)
+      {
+         startWeight = 1.0 - alpha;
+         endWeight = alpha;
+      }
+      else
+      {
+         startWeight = Math.sin((1.0 - alpha) * halfAngles[segment]) * inverseSinHalfAngles[segment];
+         endWeight = Math.sin(alpha * halfAngles[segment]) * inverseSinHalfAngles[segment];
+      }
+
+      endWeight *= signs[segment];
+      double normSquared = 0.0;
+
+      for (int i = 3; i < 7; i++)
+      {
+         double component = startWeight * waypoints[start + i] + endWeight * waypoints[end + i];
+         sampleToPack[i] = component;
+         normSquared += component * component;
+      }
+
+      double inverseNorm = 1.0 / Math.sqrt(normSquared);
+
+      for (int i = 3; i < 7; i++)
+         sampleToPack[i] *= inverseNorm;
+   }
+
+   /**
+    * Transforms the waypoints of this trajectory by the given {@code transform}.
+    *
+    * @param transform the geometric transform to apply on this trajectory. Not modified.
+    */
+   @Override
+   public void applyTransform(Transform transform)
+   {
+      for (int i = 0; i < numberOfWaypoints; i++)
+      {
+         getWaypoint(i, waypoint);
+         waypoint.applyTransform(transform);
+         setWaypoint(i, waypoint);
+      }
+
+      for (int i = 0; i < numberOfWaypoints - 1; i++)
+         updateSegment(i);
+   }
+
+   /**
+    * Transforms the waypoints of this trajectory by the inverse of the given {@code transform}.
+    *
+    * @param transform the geometric transform to apply on this trajectory. Not modified.
+    */
+   @Override
+   public void applyInverseTransform(Transform transform)
+   {
+      for (int i = 0; i < numberOfWaypoints; i++)
+      {
+         getWaypoint(i, waypoint);
+         waypoint.applyInverseTransform(transform);
+         setWaypoint(i, waypoint);
+      }
+
+      for (int i = 0; i < numberOfWaypoints - 1; i++)
+         updateSegment(i);
+   }
+
+   private void setWaypoint(int index, Pose3DReadOnly pose)
+   {
+      int offset = 7 * index;
+      QuaternionReadOnly orientation = pose.getOrientation();
+      waypoints[offset] = pose.getX();
+      waypoints[offset + 1] = pose.getY();
+      waypoints[offset + 2] = pose.getZ();
+      waypoints[offset + 3] = orientation.getX();
+      waypoints[offset + 4] = orientation.getY();
+      waypoints[offset + 5] = orientation.getZ();
+      waypoints[offset + 6] = orientation.getS();
+   }
+
+   private void checkIndex(int index)
+   {
+      if (index < 0 || index >= numberOfWaypoints)
+         throw new IndexOutOfBoundsException("Index: " + index + ", number of waypoints: " + numberOfWaypoints);
+   }
+
+   /**
+    * Provides a {@code String} representation of this trajectory as follows:
+    *
+    * <pre>
+    * Pose 3D trajectory: waypoints = [
+    * t =  0.000: ( 0.540,  0.110,  0.319 ), ( 0.522,  0.213,  0.809,  0.163 ),
+    * t =  1.000: ( 0.751,  0.374,  0.892 ), ( 0.000,  0.000,  0.000,  1.000 ) ]
+    * </pre>
+    *
+    * @return the {@code String} representing this trajectory.
+    */
+   @Override
+   public String toString()
+   {
+      String string = "Pose 3D trajectory: waypoints = [";
+
+      for (int i = 0; i < numberOfWaypoints; i++)
+      {
+         int offset = 7 * i;
+         string += i == 0 ? "\n" : ",\n";
+         string += "t = " + String.format(EuclidCoreIOTools.DEFAULT_FORMAT, times[i]) + ": ";
+         string += EuclidCoreIOTools.getStringOf("(", " )", ", ", EuclidCoreIOTools.DEFAULT_FORMAT, waypoints[offset], waypoints[offset + 1],
+                                                 waypoints[offset + 2]);
+         string += ", ";
+         string += EuclidCoreIOTools.getStringOf("(", " )", ", ", EuclidCoreIOTools.DEFAULT_FORMAT, waypoints[offset + 3], waypoints[offset + 4],
+                                                 waypoints[offset + 5], waypoints[offset + 6]);
+      }
+
+      return string + (numberOfWaypoints == 0 ? "]" : " ]");
+   }
+}
@@ -0,0 +1,248 @@
+package us.ihmc.euclid.geometry;
+
+import us.ihmc.euclid.tuple4D.interfaces.QuaternionBasics;
+import us.ihmc.euclid.tuple4D.interfaces.QuaternionReadOnly;
+
+/**
+ * {@code QuaternionAverageCalculator} computes the weighted average of a set of orientations
+ * represented as quaternions.
+ * <p>
+ * The average is the unit quaternion maximizing the weighted sum of the squared dot products with
+ * the samples, i.e. the eigenvector associated to the largest eigenvalue of the 4-by-4 matrix
+ * &sum; w<sub>i</sub> q<sub>i</sub> q<sub>i</sub><sup>T</sup>. Unlike averaging by repeated
+ * interpolation, the result does not depend on the order of the samples and is not affected by the
+ * sign ambiguity of the quaternions, q and -q contributing equally.
+ * </p>
+ * <p>
+ * The samples are accumulated in the 10 independent coefficients of the matrix such that any number
+ * of samples can be averaged without storing them. The eigen decomposition is only performed when
+ * the average is requested, this class does not generate garbage.
+ * </p>
+ */
+public class QuaternionAverageCalculator
+{
+   private long numberOfQuaternions = 0;
+   private double totalWeight = 0.0;
+   /** The upper-triangle of the sum of the weighted outer products of the samples. */
+   private double mXX, mXY, mXZ, mXS, mYY, mYZ, mYS, mZZ, mZS, mSS;
+   /** The first sample, used to choose the sign of the average. */
+   private double firstX, firstY, firstZ, firstS;
+
+   // Internal variables used to enable garbage free operations.
+   private final double[] matrix = new double[16];
+   private final double[] eigenvectors = new double[16];
+
+   /**
+    * Creates a new empty calculator.
+    */
+   public QuaternionAverageCalculator()
+   {
+   }
+
+   /**
+    * Removes all the quaternions from this calculator.
+    */
+   public void clear()
+   {
+      numberOfQuaternions = 0;
+      totalWeight = 0.0;
+      mXX = mXY = mXZ = mXS = mYY = mYZ = mYS = mZZ = mZS = mSS = 0.0;
+   }
+
+   /**
+    * Adds a quaternion with a weight of 1 to this calculator.
+    *
+    * @param quaternion the quaternion to add. Not modified.
+    */
+   public void add(QuaternionReadOnly quaternion)
+   {
+      add(quaternion, 1.0);
+   }
+
+   /**
+    * Adds a quaternion to this calculator.
+    *
+    * @param quaternion the quaternion to add. Not modified.
+    * @param weight the weight of the quaternion in the average.
+    * @throws IllegalArgumentException if {@code weight} is negative or {@link Double#NaN}.
+    */
+   public void add(QuaternionReadOnly quaternion, double weight)
+   {
+      add(quaternion.getX(), quaternion.getY(), quaternion.getZ(), quaternion.getS(), weight);
+   }
+
+   /**
+    * Adds a quaternion to this calculator.
+    * <p>
+    * The quaternion does not need to be unitary, it is normalized before being accumulated. A
+    * quaternion with a norm of zero is ignored.
+    * </p>
+    *
+    * @param qx the x-component of the quaternion.
+    * @param qy the y-component of the quaternion.
+    * @param qz the z-component of the quaternion.
+    * @param qs the s-component of the quaternion.
+    * @param weight the weight of the quaternion in the average.
+    * @throws IllegalArgumentException if {@code weight} is negative or {@link Double#NaN}.
+    */
+   public void add(double qx, double qy, double qz, double qs, double weight)
+   {
+      if (!(weight >= 0.0))
+         throw new IllegalArgumentException("The weight cannot be negative or NaN, was: " + weight);
+
+      double normSquared = qx * qx + qy * qy + qz * qz + qs * qs;
+
+      if (normSquared == 0.0)
+         return;
+
+      if (numberOfQuaternions == 0)
+      {
+         firstX = qx;
+         firstY = qy;
+         firstZ = qz;
+         firstS = qs;
+      }
+
+      numberOfQuaternions++;
+      totalWeight += weight;
+      // Normalizing the quaternion is equivalent to scaling its outer product.
+      double scale = weight / normSquared;
+      double wx = scale * qx;
+      double wy = scale * qy;
+      double wz = scale * qz;
+      double ws = scale * qs;
+      mXX += wx * qx;
+      mXY += wx * qy;
+      mXZ += wx * qz;
+      mXS += wx * qs;
+      mYY += wy * qy;
+      mYZ += wy * qz;
+      mYS += wy * qs;
+      mZZ += wz * qz;
+      mZS += wz * qs;
+      mSS += ws * qs;
+   }
+
+   /**
+    * Adds the quaternions of the given range with a weight of 1 to this calculator.
+    *
+    * @param qxs the x-components of the quaternions. Not modified.
+    * @param qys the y-components of the quaternions. Not modified.
+    * @param qzs the z-components of the quaternions. Not modified.
+    * @param qss the s-components of the quaternions. Not modified.
+    * @param startIndex the index of the first quaternion to add.
+    * @param endIndex the index after the last quaternion to add.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    */
+   public void addAll(double[] qxs, double[] qys, double[] qzs, double[] qss, int startIndex, int endIndex)
+   {
+      AccumulationTools.checkRange(qxs, qys, qzs, qss, startIndex, endIndex);
+
+      for (int i = startIndex; i < endIndex; i++)
+         add(qxs[i], qys[i], qzs[i], qss[i], 1.0);
+   }
+
+   /**
+    * Merges the quaternions accumulated by {@code other} into this calculator.
+    *
+    * @param other the other calculator to merge. Not modified.
+    */
+   public void combine(QuaternionAverageCalculator other)
+   {
+      if (other.numberOfQuaternions == 0)
+         return;
+
+      if (numberOfQuaternions == 0)
+      {
+         firstX = other.firstX;
+         firstY = other.firstY;
+         firstZ = other.firstZ;
+         firstS = other.firstS;
+      }
+
+      numberOfQuaternions += other.numberOfQuaternions;
+      totalWeight += other.totalWeight;
+      mXX += other.mXX;
+      mXY += other.mXY;
+      mXZ += other.mXZ;
+      mXS += other.mXS;
+      mYY += other.mYY;
+      mYZ += other.mYZ;
+      mYS += other.mYS;
+      mZZ += other.mZZ;
+      mZS += other.mZS;
+      mSS += other.mSS;
+   }
+
+   /**
+    * Gets the number of quaternions accumulated so far.
+    *
+    * @return the number of quaternions.
+    */
+   public long getNumberOfQuaternions()
+   {
+      return numberOfQuaternions;
+   }
+
+   /**
+    * Gets the sum of the weights of the quaternions accumulated so far.
+    *
+    * @return the total weight.
+    */
+   public double getTotalWeight()
+   {
+      return totalWeight;
+   }
+
+   /**
+    * Computes the average of the accumulated quaternions.
+    * <p>
+    * The sign of the average is chosen such that it is on the same hemisphere as the first
+    * accumulated quaternion.
+    * </p>
+    *
+    * @param averageToPack the quaternion in which the average is stored, it is set to
+    *           {@link Double#NaN} if no quaternion has been accumulated or if the total weight is zero.
+    *           Modified.
+    */
+   public void getAverage(QuaternionBasics averageToPack)
+   {
+      if (numberOfQuaternions == 0 || totalWeight == 0.0)
+      {
+         averageToPack.setToNaN();
+         return;
+      }
+
+      double[] m = matrix;
+      m[0] = mXX;
+      m[1] = m[4] = mXY;
+      m[2] = m[8] = mXZ;
+      m[3] = m[12] = mXS;
+      m[5] = mYY;
+      m[6] = m[9] = mYZ;
+      m[7] = m[13] = mYS;
+      m[10] = mZZ;
+      m[11] = m[14] = mZS;
+      m[15] = mSS;
+
+      JacobiEigenDecomposition.decompose(4, m, eigenvectors);
+
+      // The average is the eigenvector associated to the largest eigenvalue.
+      int dominant = 0;
+      for (int i = 1; i < 4; i++)
+      {
+         if (m[5 * i] > m[5 * dominant])
+            dominant = i;
+      }
+
+      double x = eigenvectors[dominant];
+      double y = eigenvectors[4 + dominant];
+      double z = eigenvectors[8 + dominant];
+      double s = eigenvectors[12 + dominant];
+
+      if (x * firstX + y * firstY + z * firstZ + s * firstS < 0.0)
+         averageToPack.set(-x, -y, -z, -s);
+      else
+         averageToPack.set(x, y, z, s);
+   }
+}
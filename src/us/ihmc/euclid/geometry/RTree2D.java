@@ -0,0 +1,967 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import us.ihmc.euclid.geometry.interfaces.BoundingBox2DBasics;
+import us.ihmc.euclid.geometry.interfaces.BoundingBox2DReadOnly;
+import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
+import us.ihmc.euclid.tuple2D.interfaces.Vector2DReadOnly;
+
+/**
+ * {@code RTree2D} is a spatial index over a collection of 2D axis-aligned bounding boxes answering
+ * point, box, and ray queries without testing every box.
+ * <p>
+ * The tree can be bulk loaded with the Sort-Tile-Recursive algorithm, which packs the boxes into
+ * nodes that overlap little, and can be edited afterwards by adding and removing boxes one at a
+ * time using the quadratic split of Guttman. The nodes are stored in flat arrays such that no
+ * garbage is generated once the tree has grown to its largest size.
+ * </p>
+ * <p>
+ * The boxes are referred to by identifiers: the i<sup>th</sup> box given when building the tree
+ * has the identifier {@code i}, the boxes added afterwards are given a new identifier by
+ * {@link #add(double, double, double, double)}. The queries report the boxes to an
+ * {@link EntryVisitor}, all the tests are inclusive, i.e. touching boxes intersect. The queries do
+ * not modify the tree and can be performed concurrently by several threads, the tree must not be
+ * edited while being queried.
+ * </p>
+ */
+public class RTree2D
+{
+   /**
+    * Visitor notified of the boxes found by a query.
+    */
+   public interface EntryVisitor
+   {
+      /**
+       * Notifies this visitor of a box found by the query.
+       *
+       * @param id the identifier of the box.
+       * @return {@code true} to continue the query, {@code false} to stop it.
+       */
+      boolean visit(int id);
+   }
+
+   private static final int NO_NODE = -1;
+   /** Maximum number of children of a node. */
+   private static final int MAX_CHILDREN = 16;
+   /** Minimum number of children of a node that is not the root after an edit. */
+   private static final int MIN_CHILDREN = 6;
+   /** Room for one extra child that is only used before a node is split. */
+   private static final int NODE_STRIDE = MAX_CHILDREN + 1;
+   /** Ranges smaller than this are sorted sequentially by {@link #buildParallel}. */
+   private static final int PARALLEL_BUILD_THRESHOLD = 8192;
+
+   private int size = 0;
+   /** Number of identifiers that have been used, either by a box or in {@link #freeIds}. */
+   private int numberOfIds = 0;
+   /** The bounds of each box stored as: minX, minY, maxX, maxY. */
+   private double[] entryBounds = new double[4 * 16];
+   /** The leaf containing each box. */
+   private int[] entryLeaves = new int[16];
+   private boolean[] contained = new boolean[16];
+   private int numberOfFreeIds = 0;
+   private int[] freeIds = new int[16];
+
+   private int root = NO_NODE;
+   /** Number of nodes that have been used, either in the tree or in {@link #freeNodes}. */
+   private int numberOfNodes = 0;
+   /** The bounds of each node stored as: minX, minY, maxX, maxY. */
+   private double[] nodeBounds = new double[4 * 16];
+   private int[] nodeChildren = new int[NODE_STRIDE * 16];
+   private int[] nodeSizes = new int[16];
+   private boolean[] nodeLeaves = new boolean[16];
+   private int[] nodeParents = new int[16];
+   private int numberOfFreeNodes = 0;
+   private int[] freeNodes = new int[16];
+
+   // Internal variables used to enable garbage free operations.
+   private int[] buildItems = new int[0];
+   private int[] buildParents = new int[0];
+   private double[] buildKeys = new double[0];
+   private final int[] splitChildren = new int[NODE_STRIDE];
+   private int numberOfOrphans = 0;
+   private int[] orphans = new int[16];
+
+   /**
+    * Creates a new empty tree.
+    */
+   public RTree2D()
+   {
+   }
+
+   /**
+    * Removes all the boxes from this tree.
+    */
+   public void clear()
+   {
+      size = 0;
+      numberOfIds = 0;
+      numberOfFreeIds = 0;
+      Arrays.fill(contained, false);
+      root = NO_NODE;
+      numberOfNodes = 0;
+      numberOfFreeNodes = 0;
+   }
+
+   /**
+    * Gets the number of boxes in this tree.
+    *
+    * @return the number of boxes.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Whether this tree is empty.
+    *
+    * @return {@code true} if there is no box, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Builds this tree from the given boxes, the i<sup>th</sup> box being referred to by the identifier
+    * {@code i}.
+    *
+    * @param boundingBoxes the boxes to index. Not modified.
+    */
+   public void build(List<? extends BoundingBox2DReadOnly> boundingBoxes)
+   {
+      copyEntries(boundingBoxes);
+      buildTree(false);
+   }
+
+   /**
+    * Builds this tree from the given packed boxes, the i<sup>th</sup> box being referred to by the
+    * identifier {@code i}.
+    *
+    * @param packedBounds the boxes to index, the bounds of the i<sup>th</sup> box being stored at the
+    *           indices {@code 4 * i} to {@code 4 * i + 3} as: minX, minY, maxX, maxY. Not modified.
+    * @param numberOfBoxes the number of boxes to index.
+    * @throws IllegalArgumentException if {@code numberOfBoxes} is negative, if the array is too short,
+    *            or if any of the boxes is improper.
+    */
+   public void build(double[] packedBounds, int numberOfBoxes)
+   {
+      copyEntries(packedBounds, numberOfBoxes);
+      buildTree(false);
+   }
+
+   /**
+    * Builds this tree from the given boxes using multiple threads.
+    * <p>
+    * The boxes are sorted concurrently in the common fork-join pool. The resulting tree is identical
+    * to the one built with {@link #build(List)}.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param boundingBoxes the boxes to index. Not modified.
+    */
+   public void buildParallel(List<? extends BoundingBox2DReadOnly> boundingBoxes)
+   {
+      copyEntries(boundingBoxes);
+      buildTree(true);
+   }
+
+   /**
+    * Builds this tree from the given packed boxes using multiple threads.
+    * <p>
+    * The boxes are sorted concurrently in the common fork-join pool. The resulting tree is identical
+    * to the one built with {@link #build(double[], int)}.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param packedBounds the boxes to index, the bounds of the i<sup>th</sup> box being stored at the
+    *           indices {@code 4 * i} to {@code 4 * i + 3} as: minX, minY, maxX, maxY. Not modified.
+    * @param numberOfBoxes the number of boxes to index.
+    * @throws IllegalArgumentException if {@code numberOfBoxes} is negative, if the array is too short,
+    *            or if any of the boxes is improper.
+    */
+   public void buildParallel(double[] packedBounds, int numberOfBoxes)
+   {
+      copyEntries(packedBounds, numberOfBoxes);
+      buildTree(true);
+   }
+
+   private void copyEntries(List<? extends BoundingBox2DReadOnly> boundingBoxes)
+   {
+      clear();
+
+      for (int i = 0; i < boundingBoxes.size(); i++)
+      {
+         BoundingBox2DReadOnly boundingBox = boundingBoxes.get(i);
+         boundingBox.checkBounds();
+         setEntry(newId(), boundingBox.getMinX(), boundingBox.getMinY(), boundingBox.getMaxX(), boundingBox.getMaxY());
+      }
+   }
+
+   private void copyEntries(double[] packedBounds, int numberOfBoxes)
+   {
+      if (numberOfBoxes < 0)
+         throw new IllegalArgumentException("The number of boxes cannot be negative, was: " + numberOfBoxes);
+      if (packedBounds.length < 4 * numberOfBoxes)
+         throw new IllegalArgumentException("The array is too short for " + numberOfBoxes + " boxes, length: " + packedBounds.length);
+
+      clear();
+
+      for (int i = 0; i < numberOfBoxes; i++)
+      {
+         checkBounds(packedBounds[4 * i], packedBounds[4 * i + 1], packedBounds[4 * i + 2], packedBounds[4 * i + 3]);
+         setEntry(newId(), packedBounds[4 * i], packedBounds[4 * i + 1], packedBounds[4 * i + 2], packedBounds[4 * i + 3]);
+      }
+   }
+
+   /**
+    * Packs the entries into the nodes level by level, from the leaves to the root.
+    */
+   private void buildTree(boolean parallel)
+   {
+      if (size == 0)
+         return;
+
+      if (buildItems.length < size)
+      {
+         buildItems = new int[size];
+         buildParents = new int[size];
+         buildKeys = new double[size];
+      }
+
+      int[] items = buildItems;
+      int[] parents = buildParents;
+      int numberOfItems = size;
+      boolean leafLevel = true;
+
+      for (int i = 0; i < numberOfItems; i++)
+         items[i] = i;
+
+      while (numberOfItems > MAX_CHILDREN)
+      {
+         sortTileRecursive(items, numberOfItems, leafLevel, parallel);
+
+         int numberOfParents = 0;
+
+         for (int start = 0; start < numberOfItems; start += MAX_CHILDREN)
+         {
+            int node = newNode(leafLevel);
+
+            for (int i = start; i < Math.min(start + MAX_CHILDREN, numberOfItems); i++)
+               addChild(node, items[i]);
+
+            updateBounds(node);
+            parents[numberOfParents++] = node;
+         }
+
+         int[] temp = items;
+         items = parents;
+         parents = temp;
+         numberOfItems = numberOfParents;
+         leafLevel = false;
+      }
+
+      root = newNode(leafLevel);
+      for (int i = 0; i < numberOfItems; i++)
+         addChild(root, items[i]);
+      updateBounds(root);
+   }
+
+   /**
+    * Sorts the items by the x-coordinate of their center, then splits them into vertical slices and
+    * sorts each slice by the y-coordinate of the center, such that consecutive groups of
+    * {@link #MAX_CHILDREN} items form compact nodes.
+    */
+   private void sortTileRecursive(int[] items, int numberOfItems, boolean leafLevel, boolean parallel)
+   {
+      double[] bounds = leafLevel ? entryBounds : nodeBounds;
+      double[] keys = buildKeys;
+      int numberOfParents = (numberOfItems + MAX_CHILDREN - 1) / MAX_CHILDREN;
+      int numberOfSlices = (int) Math.ceil(Math.sqrt(numberOfParents));
+      int sliceSize = numberOfSlices * MAX_CHILDREN;
+
+      for (int i = 0; i < numberOfItems; i++)
+         keys[i] = bounds[4 * items[i]] + bounds[4 * items[i] + 2];
+
+      if (parallel && numberOfItems > PARALLEL_BUILD_THRESHOLD)
+         ForkJoinPool.commonPool().invoke(new SortTask(items, keys, 0, numberOfItems - 1));
+      else
+         IndexSortTools.sort(items, keys, 0, numberOfItems - 1);
+
+      for (int i = 0; i < numberOfItems; i++)
+         keys[i] = bounds[4 * items[i] + 1] + bounds[4 * items[i] + 3];
+
+      if (parallel && numberOfItems > PARALLEL_BUILD_THRESHOLD)
+      {
+         SortTask[] tasks = new SortTask[numberOfSlices];
+         for (int i = 0; i < numberOfSlices; i++)
+            tasks[i] = new SortTask(items, keys, i * sliceSize, Math.min((i + 1) * sliceSize, numberOfItems) - 1);
+         ForkJoinTask.invokeAll(tasks);
+      }
+      else
+      {
+         for (int start = 0; start < numberOfItems; start += sliceSize)
+            IndexSortTools.sort(items, keys, start, Math.min(start + sliceSize, numberOfItems) - 1);
+      }
+   }
+
+   /**
+    * Adds a copy of the given box to this tree.
+    *
+    * @param boundingBox the box to add. Not modified.
+    * @return the identifier of the new box.
+    * @throws RuntimeException if the box is improper according to
+    *            {@link BoundingBox2DReadOnly#checkBounds()}.
+    */
+   public int add(BoundingBox2DReadOnly boundingBox)
+   {
+      boundingBox.checkBounds();
+      return add(boundingBox.getMinX(), boundingBox.getMinY(), boundingBox.getMaxX(), boundingBox.getMaxY());
+   }
+
+   /**
+    * Adds a box to this tree.
+    *
+    * @param minX the minimum x-coordinate of the box.
+    * @param minY the minimum y-coordinate of the box.
+    * @param maxX the maximum x-coordinate of the box.
+    * @param maxY the maximum y-coordinate of the box.
+    * @return the identifier of the new box.
+    * @throws IllegalArgumentException if the box is improper.
+    */
+   public int add(double minX, double minY, double maxX, double maxY)
+   {
+      checkBounds(minX, minY, maxX, maxY);
+      int id = newId();
+      setEntry(id, minX, minY, maxX, maxY);
+      insertEntry(id);
+      return id;
+   }
+
+   /**
+    * Removes a box from this tree.
+    *
+    * @param id the identifier of the box to remove.
+    * @return {@code true} if the box was removed, {@code false} if there was no box with the given
+    *         identifier.
+    */
+   public boolean remove(int id)
+   {
+      if (!contains(id))
+         return false;
+
+      int leaf = entryLeaves[id];
+      removeChild(leaf, id);
+      contained[id] = false;
+      freeIds[numberOfFreeIds++] = id;
+      size--;
+
+      if (size == 0)
+         clear();
+      else
+         condenseTree(leaf);
+
+      return true;
+   }
+
+   /**
+    * Whether this tree contains a box with the given identifier.
+    *
+    * @param id the identifier to test.
+    * @return {@code true} if there is a box with this identifier, {@code false} otherwise.
+    */
+   public boolean contains(int id)
+   {
+      return id >= 0 && id < numberOfIds && contained[id];
+   }
+
+   /**
+    * Packs the box with the given identifier.
+    *
+    * @param id the identifier of the box.
+    * @param boundingBoxToPack the bounding box in which the box is stored. Modified.
+    * @throws IllegalArgumentException if there is no box with the given identifier.
+    */
+   public void getBoundingBox(int id, BoundingBox2DBasics boundingBoxToPack)
+   {
+      if (!contains(id))
+         throw new IllegalArgumentException("There is no box with the identifier: " + id);
+
+      boundingBoxToPack.set(entryBounds[4 * id], entryBounds[4 * id + 1], entryBounds[4 * id + 2], entryBounds[4 * id + 3]);
+   }
+
+   /**
+    * Finds all the boxes of this tree that contain the given point, boundaries included.
+    *
+    * @param query the query. Not modified.
+    * @param visitor the visitor notified of each box found, in no particular order. Modified.
+    */
+   public void findContaining(Point2DReadOnly query, EntryVisitor visitor)
+   {
+      findIntersecting(query.getX(), query.getY(), query.getX(), query.getY(), visitor);
+   }
+
+   /**
+    * Finds all the boxes of this tree that contain the given point, boundaries included.
+    *
+    * @param x the x-coordinate of the query.
+    * @param y the y-coordinate of the query.
+    * @param visitor the visitor notified of each box found, in no particular order. Modified.
+    */
+   public void findContaining(double x, double y, EntryVisitor visitor)
+   {
+      findIntersecting(x, y, x, y, visitor);
+   }
+
+   /**
+    * Finds all the boxes of this tree that intersect the given box, boundaries included.
+    *
+    * @param query the query. Not modified.
+    * @param visitor the visitor notified of each box found, in no particular order. Modified.
+    */
+   public void findIntersecting(BoundingBox2DReadOnly query, EntryVisitor visitor)
+   {
+      findIntersecting(query.getMinX(), query.getMinY(), query.getMaxX(), query.getMaxY(), visitor);
+   }
+
+   /**
+    * Finds all the boxes of this tree that intersect the given box, boundaries included.
+    *
+    * @param minX the minimum x-coordinate of the query.
+    * @param minY the minimum y-coordinate of the query.
+    * @param maxX the maximum x-coordinate of the query.
+    * @param maxY the maximum y-coordinate of the query.
+    * @param visitor the visitor notified of each box found, in no particular order. Modified.
+    */
+   public void findIntersecting(double minX, double minY, double maxX, double maxY, EntryVisitor visitor)
+   {
+      if (root != NO_NODE)
+         findIntersecting(root, minX, minY, maxX, maxY, visitor);
+   }
+
+   private boolean findIntersecting(int node, double minX, double minY, double maxX, double maxY, EntryVisitor visitor)
+   {
+      boolean leaf = nodeLeaves[node];
+      double[] bounds = leaf ? entryBounds : nodeBounds;
+      int offset = NODE_STRIDE * node;
+
+      for (int i = 0; i < nodeSizes[node]; i++)
+      {
+         int child = nodeChildren[offset + i];
+
+         if (bounds[4 * child] > maxX || bounds[4 * child + 1] > maxY || bounds[4 * child + 2] < minX || bounds[4 * child + 3] < minY)
+            continue;
+
+         if (leaf ? !visitor.visit(child) : !findIntersecting(child, minX, minY, maxX, maxY, visitor))
+            return false;
+      }
+
+      return true;
+   }
+
+   /**
+    * Finds all the boxes of this tree that intersect the given ray, boundaries included.
+    *
+    * @param rayOrigin the origin of the ray. Not modified.
+    * @param rayDirection the direction of the ray. Not modified.
+    * @param visitor the visitor notified of each box found, in no particular order. Modified.
+    */
+   public void findIntersectingRay(Point2DReadOnly rayOrigin, Vector2DReadOnly rayDirection, EntryVisitor visitor)
+   {
+      findIntersectingRay(rayOrigin.getX(), rayOrigin.getY(), rayDirection.getX(), rayDirection.getY(), visitor);
+   }
+
+   /**
+    * Finds all the boxes of this tree that intersect the given ray, boundaries included.
+    *
+    * @param rayOriginX the x-coordinate of the origin of the ray.
+    * @param rayOriginY the y-coordinate of the origin of the ray.
+    * @param rayDirectionX the x-component of the direction of the ray.
+    * @param rayDirectionY the y-component of the direction of the ray.
+    * @param visitor the visitor notified of each box found, in no particular order. Modified.
+    */
+   public void findIntersectingRay(double rayOriginX, double rayOriginY, double rayDirectionX, double rayDirectionY, EntryVisitor visitor)
+   {
+      if (root != NO_NODE)
+         findIntersectingRay(root, rayOriginX, rayOriginY, rayDirectionX, rayDirectionY, visitor);
+   }
+
+   private boolean findIntersectingRay(int node, double rayOriginX, double rayOriginY, double rayDirectionX, double rayDirectionY, EntryVisitor visitor)
+   {
+      boolean leaf = nodeLeaves[node];
+      double[] bounds = leaf ? entryBounds : nodeBounds;
+      int offset = NODE_STRIDE * node;
+
+      for (int i = 0; i < nodeSizes[node]; i++)
+      {
+         int child = nodeChildren[offset + i];
+
+         if (!isRayIntersecting(bounds, 4 * child, rayOriginX, rayOriginY, rayDirectionX, rayDirectionY))
+            continue;
+
+         if (leaf ? !visitor.visit(child)
+               : !findIntersectingRay(child, rayOriginX, rayOriginY, rayDirectionX, rayDirectionY, visitor))
+            return false;
+      }
+
+      return true;
+   }
+
+   /**
+    * Slab test between a ray and the box stored at {@code offset} in {@code bounds}.
+    */
+   private static boolean isRayIntersecting(double[] bounds, int offset, double rayOriginX, double rayOriginY, double rayDirectionX,
+                                            double rayDirectionY)
+   {
+      double tMin = 0.0;
+      double tMax = Double.POSITIVE_INFINITY;
+
+      for (int axis = 0; axis < 2; axis++)
+      {
+         double origin = axis == 0 ? rayOriginX : rayOriginY;
+         double direction = axis == 0 ? rayDirectionX : rayDirectionY;
+         double min = bounds[offset + axis];
+         double max = bounds[offset + axis + 2];
+
+         if (direction == 0.0)
+         {
+            if (origin < min || origin > max)
+               return false;
+         }
+         else
+         {
+            double t1 = (min - origin) / direction;
+            double t2 = (max - origin) / direction;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+
+            if (tMin > tMax)
+               return false;
+         }
+      }
+
+      return true;
+   }
+
+   private void insertEntry(int id)
+   {
+      if (root == NO_NODE)
+         root = newNode(true);
+
+      int node = root;
+      while (!nodeLeaves[node])
+         node = chooseChild(node, id);
+
+      addChild(node, id);
+
+      while (true)
+      {
+         int sibling = nodeSizes[node] > MAX_CHILDREN ? split(node) : NO_NODE;
+         updateBounds(node);
+         int parent = nodeParents[node];
+
+         if (parent == NO_NODE)
+         {
+            if (sibling != NO_NODE)
+            {
+               root = newNode(false);
+               addChild(root, node);
+               addChild(root, sibling);
+               updateBounds(root);
+            }
+            return;
+         }
+
+         if (sibling != NO_NODE)
+            addChild(parent, sibling);
+         node = parent;
+      }
+   }
+
+   /**
+    * Selects the child of {@code node} which bounds need the least enlargement to include the box
+    * {@code id}, ties being resolved with the smallest area.
+    */
+   private int chooseChild(int node, int id)
+   {
+      double minX = entryBounds[4 * id], minY = entryBounds[4 * id + 1];
+      double maxX = entryBounds[4 * id + 2], maxY = entryBounds[4 * id + 3];
+      int offset = NODE_STRIDE * node;
+      int bestChild = NO_NODE;
+      double bestEnlargement = Double.POSITIVE_INFINITY;
+      double bestArea = Double.POSITIVE_INFINITY;
+
+      for (int i = 0; i < nodeSizes[node]; i++)
+      {
+         int child = nodeChildren[offset + i];
+         double area = area(nodeBounds, 4 * child);
+         double enlargement = unionArea(nodeBounds, 4 * child, minX, minY, maxX, maxY) - area;
+
+         if (enlargement < bestEnlargement || (enlargement == bestEnlargement && area < bestArea))
+         {
+            bestChild = child;
+            bestEnlargement = enlargement;
+            bestArea = area;
+         }
+      }
+
+      return bestChild;
+   }
+
+   /**
+    * Quadratic split: moves part of the children of the overflowing {@code node} into a new sibling.
+    *
+    * @return the new sibling.
+    */
+   private int split(int node)
+   {
+      boolean leaf = nodeLeaves[node];
+      int sibling = newNode(leaf);
+      double[] bounds = leaf ? entryBounds : nodeBounds;
+      int numberOfChildren = nodeSizes[node];
+      System.arraycopy(nodeChildren, NODE_STRIDE * node, splitChildren, 0, numberOfChildren);
+      nodeSizes[node] = 0;
+
+      // The seeds are the pair of children that would waste the most area if grouped together.
+      int seedA = 0, seedB = 1;
+      double worstWaste = Double.NEGATIVE_INFINITY;
+
+      for (int i = 0; i < numberOfChildren; i++)
+      {
+         int offsetA = 4 * splitChildren[i];
+
+         for (int j = i + 1; j < numberOfChildren; j++)
+         {
+            int offsetB = 4 * splitChildren[j];
+            double waste = unionArea(bounds, offsetA, bounds[offsetB], bounds[offsetB + 1], bounds[offsetB + 2], bounds[offsetB + 3])
+                  - area(bounds, offsetA) - area(bounds, offsetB);
+
+            if (waste > worstWaste)
+            {
+               worstWaste = waste;
+               seedA = i;
+               seedB = j;
+            }
+         }
+      }
+
+      int childA = splitChildren[seedA];
+      int childB = splitChildren[seedB];
+      addChild(node, childA);
+      addChild(sibling, childB);
+      double aMinX = bounds[4 * childA], aMinY = bounds[4 * childA + 1], aMaxX = bounds[4 * childA + 2], aMaxY = bounds[4 * childA + 3];
+      double bMinX = bounds[4 * childB], bMinY = bounds[4 * childB + 1], bMaxX = bounds[4 * childB + 2], bMaxY = bounds[4 * childB + 3];
+      splitChildren[seedB] = splitChildren[--numberOfChildren];
+      splitChildren[seedA] = splitChildren[--numberOfChildren];
+
+      while (numberOfChildren > 0)
+      {
+         int next;
+         boolean toA;
+
+         if (nodeSizes[node] + numberOfChildren <= MIN_CHILDREN)
+         {
+            next = numberOfChildren - 1;
+            toA = true;
+         }
+         else if (nodeSizes[sibling] + numberOfChildren <= MIN_CHILDREN)
+         {
+            next = numberOfChildren - 1;
+            toA = false;
+         }
+         else
+         {
+            // Pick the child with the strongest preference for one of the groups.
+            next = 0;
+            double bestDifference = Double.NEGATIVE_INFINITY;
+            double areaA = (aMaxX - aMinX) * (aMaxY - aMinY);
+            double areaB = (bMaxX - bMinX) * (bMaxY - bMinY);
+            double enlargementA = 0.0, enlargementB = 0.0;
+
+            for (int i = 0; i < numberOfChildren; i++)
+            {
+               int offset = 4 * splitChildren[i];
+               double dA = unionArea(bounds, offset, aMinX, aMinY, aMaxX, aMaxY) - areaA;
+               double dB = unionArea(bounds, offset, bMinX, bMinY, bMaxX, bMaxY) - areaB;
+               double difference = Math.abs(dA - dB);
+
+               if (difference > bestDifference)
+               {
+                  bestDifference = difference;
+                  next = i;
+                  enlargementA = dA;
+                  enlargementB = dB;
+               }
+            }
+
+            if (enlargementA != enlargementB)
+               toA = enlargementA < enlargementB;
+            else if (areaA != areaB)
+               toA = areaA < areaB;
+            else
+               toA = nodeSizes[node] <= nodeSizes[sibling];
+         }
+
+         int child = splitChildren[next];
+         splitChildren[next] = splitChildren[--numberOfChildren];
+         int offset = 4 * child;
+
+         if (toA)
+         {
+            addChild(node, child);
+            aMinX = Math.min(aMinX, bounds[offset]);
+            aMinY = Math.min(aMinY, bounds[offset + 1]);
+            aMaxX = Math.max(aMaxX, bounds[offset + 2]);
+            aMaxY = Math.max(aMaxY, bounds[offset + 3]);
+         }
+         else
+         {
+            addChild(sibling, child);
+            bMinX = Math.min(bMinX, bounds[offset]);
+            bMinY = Math.min(bMinY, bounds[offset + 1]);
+            bMaxX = Math.max(bMaxX, bounds[offset + 2]);
+            bMaxY = Math.max(bMaxY, bounds[offset + 3]);
+         }
+      }
+
+      updateBounds(sibling);
+      return sibling;
+   }
+
+   /**
+    * Walks up from {@code leaf} after a removal: the underfull nodes are removed from the tree and
+    * their boxes inserted again, the bounds of the other nodes are shrunk.
+    */
+   private void condenseTree(int leaf)
+   {
+      numberOfOrphans = 0;
+      int node = leaf;
+
+      while (node != root)
+      {
+         int parent = nodeParents[node];
+
+         if (nodeSizes[node] < MIN_CHILDREN)
+         {
+            removeChild(parent, node);
+            collectOrphans(node);
+         }
+         else
+         {
+            updateBounds(node);
+         }
+
+         node = parent;
+      }
+
+      if (nodeSizes[root] == 0)
+      {
+         nodeLeaves[root] = true;
+      }
+      else
+      {
+         while (!nodeLeaves[root] && nodeSizes[root] == 1)
+         {
+            int oldRoot = root;
+            root = nodeChildren[NODE_STRIDE * oldRoot];
+            nodeParents[root] = NO_NODE;
+            freeNode(oldRoot);
+         }
+      }
+
+      updateBounds(root);
+
+      for (int i = 0; i < numberOfOrphans; i++)
+         insertEntry(orphans[i]);
+   }
+
+   /**
+    * Frees the given subtree and stores its boxes in {@link #orphans}.
+    */
+   private void collectOrphans(int node)
+   {
+      int offset = NODE_STRIDE * node;
+
+      for (int i = 0; i < nodeSizes[node]; i++)
+      {
+         int child = nodeChildren[offset + i];
+
+         if (nodeLeaves[node])
+         {
+            if (numberOfOrphans == orphans.length)
+               orphans = Arrays.copyOf(orphans, 2 * numberOfOrphans);
+            orphans[numberOfOrphans++] = child;
+         }
+         else
+         {
+            collectOrphans(child);
+         }
+      }
+
+      freeNode(node);
+   }
+
+   private void addChild(int node, int child)
+   {
+      nodeChildren[NODE_STRIDE * node + nodeSizes[node]++] = child;
+
+      if (nodeLeaves[node])
+         entryLeaves[child] = node;
+      else
+         nodeParents[child] = node;
+   }
+
+   private void removeChild(int node, int child)
+   {
+      int offset = NODE_STRIDE * node;
+      int last = offset + nodeSizes[node] - 1;
+
+      for (int i = offset; i <= last; i++)
+      {
+         if (nodeChildren[i] == child)
+         {
+            nodeChildren[i] = nodeChildren[last];
+            nodeSizes[node]--;
+            return;
+         }
+      }
+   }
+
+   private void updateBounds(int node)
+   {
+      double[] bounds = nodeLeaves[node] ? entryBounds : nodeBounds;
+      double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+      double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+      int offset = NODE_STRIDE * node;
+
+      for (int i = 0; i < nodeSizes[node]; i++)
+      {
+         int child = 4 * nodeChildren[offset + i];
+         minX = Math.min(minX, bounds[child]);
+         minY = Math.min(minY, bounds[child + 1]);
+         maxX = Math.max(maxX, bounds[child + 2]);
+         maxY = Math.max(maxY, bounds[child + 3]);
+      }
+
+      nodeBounds[4 * node] = minX;
+      nodeBounds[4 * node + 1] = minY;
+      nodeBounds[4 * node + 2] = maxX;
+      nodeBounds[4 * node + 3] = maxY;
+   }
+
+   private static double area(double[] bounds, int offset)
+   {
+      return (bounds[offset + 2] - bounds[offset]) * (bounds[offset + 3] - bounds[offset + 1]);
+   }
+
+   private static double unionArea(double[] bounds, int offset, double minX, double minY, double maxX, double maxY)
+   {
+      return (Math.max(maxX, bounds[offset + 2]) - Math.min(minX, bounds[offset])) * (Math.max(maxY, bounds[offset + 3]) - Math.min(minY, bounds[offset + 1]));
+   }
+
+   private static void checkBounds(double minX, double minY, double maxX, double maxY)
+   {
+      if (!(minX <= maxX) || !(minY <= maxY))
+         throw new IllegalArgumentException("Improper bounding box: min = (" + minX + ", " + minY + "), max = (" + maxX + ", " + maxY + ")");
+   }
+
+   private void setEntry(int id, double minX, double minY, double maxX, double maxY)
+   {
+      entryBounds[4 * id] = minX;
+      entryBounds[4 * id + 1] = minY;
+      entryBounds[4 * id + 2] = maxX;
+      entryBounds[4 * id + 3] = maxY;
+      contained[id] = true;
+      size++;
+   }
+
+   private int newId()
+   {
+      if (numberOfFreeIds > 0)
+         return freeIds[--numberOfFreeIds];
+
+      int id = numberOfIds++;
+
+      if (id == contained.length)
+      {
+         entryBounds = Arrays.copyOf(entryBounds, 8 * id);
+         entryLeaves = Arrays.copyOf(entryLeaves, 2 * id);
+         contained = Arrays.copyOf(contained, 2 * id);
+         freeIds = Arrays.copyOf(freeIds, 2 * id);
+      }
+
+      return id;
+   }
+
+   private int newNode(boolean leaf)
+   {
+      int node;
+
+      if (numberOfFreeNodes > 0)
+      {
+         node = freeNodes[--numberOfFreeNodes];
+      }
+      else
+      {
+         node = numberOfNodes++;
+
+         if (node == nodeSizes.length)
+         {
+            nodeBounds = Arrays.copyOf(nodeBounds, 8 * node);
+            nodeChildren = Arrays.copyOf(nodeChildren, 2 * NODE_STRIDE * node);
+            nodeSizes = Arrays.copyOf(nodeSizes, 2 * node);
+            nodeLeaves = Arrays.copyOf(nodeLeaves, 2 * node);
+            nodeParents = Arrays.copyOf(nodeParents, 2 * node);
+            freeNodes = Arrays.copyOf(freeNodes, 2 * node);
+         }
+      }
+
+      nodeSizes[node] = 0;
+      nodeLeaves[node] = leaf;
+      nodeParents[node] = NO_NODE;
+      return node;
+   }
+
+   private void freeNode(int node)
+   {
+      freeNodes[numberOfFreeNodes++] = node;
+   }
+
+   @SuppressWarnings("serial")
+   private static class SortTask extends RecursiveAction
+   {
+      private final int[] items;
+      private final double[] keys;
+      private final int left, right;
+
+      private SortTask(int[] items, double[] keys, int left, int right)
+      {
+         this.items = items;
+         this.keys = keys;
+         this.left = left;
+         this.right = right;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (right - left < PARALLEL_BUILD_THRESHOLD)
+         {
+            IndexSortTools.sort(items, keys, left, right);
+            return;
+         }
+
+         int pivot = IndexSortTools.partition(items, keys, left, right);
+         invokeAll(new SortTask(items, keys, left, pivot), new SortTask(items, keys, pivot + 1, right));
+      }
+   }
+}
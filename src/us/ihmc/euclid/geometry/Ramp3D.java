@@ -134,6 +134,7 @@ public class Ramp3D extends Shape3D<Ramp3D>
    {
       checkWidth(width);
       size.setWidth(width);
+      notifyShapeChanged();
    }
 
    /**
@@ -182,6 +183,7 @@ public class Ramp3D extends Shape3D<Ramp3D>
    {
       rampLength = Math.sqrt(EuclidCoreTools.normSquared(size.getLength(), size.getHeight()));
       angleOfRampIncline = Math.atan(size.getHeight() / size.getLength());
+      notifyShapeChanged();
    }
 
    /**
@@ -498,6 +500,39 @@ public class Ramp3D extends Shape3D<Ramp3D>
       return possibleMin <= value1 && possibleMin <= value2;
    }
 
+   /** {@inheritDoc} */
+   @Override
+   protected void getBoundingBoxShapeFrame(double epsilon, BoundingBox3D boundingBoxToPack)
+   {
+      double rampDirectionX = size.getLength() / rampLength;
+      double rampDirectionZ = size.getHeight() / rampLength;
+      double halfWidth = 0.5 * size.getWidth() + epsilon;
+      double maxX = size.getLength() + epsilon;
+
+      // The slope face is shifted by epsilon as well which extends the ramp below its origin and above its top.
+      double minX = rampDirectionZ > 0.0 ? -epsilon * (1.0 + rampDirectionX) / rampDirectionZ : Double.NEGATIVE_INFINITY;
+      double maxZ = rampDirectionX > 0.0 ? (epsilon + rampDirectionZ * maxX) / rampDirectionX : Double.POSITIVE_INFINITY;
+
+      boundingBoxToPack.set(minX, -halfWidth, -epsilon, maxX, halfWidth, maxZ);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   protected void getSupportingVertexShapeFrame(double directionX, double directionY, double directionZ, Point3DBasics supportingVertexToPack)
+   {
+      double y = directionY < 0.0 ? -0.5 * size.getWidth() : 0.5 * size.getWidth();
+      // The ramp profile is the triangle (0, 0), (length, 0), (length, height) in the xz-plane.
+      double bottomValue = size.getLength() * directionX;
+      double topValue = bottomValue + size.getHeight() * directionZ;
+
+      if (topValue >= bottomValue && topValue >= 0.0)
+         supportingVertexToPack.set(size.getLength(), y, size.getHeight());
+      else if (bottomValue >= 0.0)
+         supportingVertexToPack.set(size.getLength(), y, 0.0);
+      else
+         supportingVertexToPack.set(0.0, y, 0.0);
+   }
+
    /** {@inheritDoc} */
    @Override
    protected boolean isInsideEpsilonShapeFrame(double x, double y, double z, double epsilon)
@@ -544,6 +579,7 @@ public class Ramp3D extends Shape3D<Ramp3D>
    {
       super.setToZero();
       size.setToZero();
+      notifyShapeChanged();
    }
 
    /** {@inheritDoc} */
@@ -552,6 +588,7 @@ public class Ramp3D extends Shape3D<Ramp3D>
    {
       super.setToNaN();
       size.setToNaN();
+      notifyShapeChanged();
    }
 
    /** {@inheritDoc} */
@@ -606,6 +643,6 @@ public class Ramp3D extends Shape3D<Ramp3D>
    @Override
    public boolean geometricallyEquals(Ramp3D other, double epsilon)
    {
-      return shapePose.geometricallyEquals(other.shapePose, epsilon) && size.epsilonEquals(other.size, epsilon);
+      return geometricallyEqualsPose(other, epsilon) && size.epsilonEquals(other.size, epsilon);
    }
 }
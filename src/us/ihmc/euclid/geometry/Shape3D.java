@@ -1,9 +1,8 @@
 package us.ihmc.euclid.geometry;
 
-import static us.ihmc.euclid.tools.TransformationTools.computeTransformedX;
-import static us.ihmc.euclid.tools.TransformationTools.computeTransformedY;
-import static us.ihmc.euclid.tools.TransformationTools.computeTransformedZ;
+import java.util.stream.IntStream;
 
+import us.ihmc.euclid.exceptions.NotARotationMatrixException;
 import us.ihmc.euclid.geometry.interfaces.Pose3DBasics;
 import us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly;
 import us.ihmc.euclid.interfaces.GeometryObject;
@@ -20,6 +19,7 @@ import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
 import us.ihmc.euclid.tuple3D.interfaces.Tuple3DBasics;
 import us.ihmc.euclid.tuple3D.interfaces.Tuple3DReadOnly;
 import us.ihmc.euclid.tuple3D.interfaces.Vector3DBasics;
+import us.ihmc.euclid.tuple3D.interfaces.Vector3DReadOnly;
 
 /**
  * Base implementation for 3D shapes such as: cylinder, box, sphere, etc.
@@ -29,8 +29,40 @@ import us.ihmc.euclid.tuple3D.interfaces.Vector3DBasics;
 public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
 {
    private static final double IS_INSIDE_EPS = 1.0e-12;
+   /** Number of queries transformed at once to the local coordinates by the batch methods. */
+   private static final int BATCH_BLOCK_SIZE = 256;
+   /** Number of queries processed per task by the parallel batch methods. */
+   private static final int PARALLEL_BATCH_SIZE = 16 * BATCH_BLOCK_SIZE;
+   /**
+    * Buffers used to enable garbage free batch operations. A separate instance is used per thread to
+    * support the parallel batch methods.
+    */
+   private static final ThreadLocal<double[][]> batchBuffers = ThreadLocal.withInitial(() -> new double[3][BATCH_BLOCK_SIZE]);
+
+   /** The pose of this shape, only modified by the methods of {@code Shape3D}. */
+   private final RigidBodyTransform shapePose = new RigidBodyTransform();
+
+   /**
+    * Counter incremented every time the pose or the size of this shape changes, it can be used to
+    * detect when data computed from this shape has to be updated.
+    */
+   private long modificationCount = 0;
+   /** Counter incremented every time the pose of this shape changes. */
+   private long poseModificationCount = 0;
 
-   protected final RigidBodyTransform shapePose = new RigidBodyTransform();
+   /*
+    * Inverse of shapePose, refreshed by the pose mutators only such that the queries do not have to
+    * invert the pose.
+    */
+   private double inverseM00 = 1.0, inverseM01 = 0.0, inverseM02 = 0.0, inverseM03 = 0.0;
+   private double inverseM10 = 0.0, inverseM11 = 1.0, inverseM12 = 0.0, inverseM13 = 0.0;
+   private double inverseM20 = 0.0, inverseM21 = 0.0, inverseM22 = 1.0, inverseM23 = 0.0;
+
+   /**
+    * Bounds of this shape, computed the first time they are needed after this shape is modified.
+    * They are outdated when their modification count differs from {@link #modificationCount}.
+    */
+   private volatile Bounds bounds = null;
 
    /**
     * Default constructor for creating a new shape with its local frame aligned with world.
@@ -39,6 +71,281 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    {
    }
 
+   /**
+    * Notifies that this shape has been modified such that its bounding box is recomputed the next time
+    * it is needed.
+    * <p>
+    * This method is automatically called by every method of {@code Shape3D} that modifies the pose of
+    * this shape. Implementations have to call it whenever the size of the shape changes, once the new
+    * size has been set.
+    * </p>
+    */
+   protected final void notifyShapeChanged()
+   {
+      modificationCount++;
+   }
+
+   /**
+    * Notifies that the pose of this shape has been modified and updates the cached inverse of the
+    * pose.
+    */
+   private void notifyPoseChanged()
+   {
+      // The inverse of the rotation is its transpose.
+      inverseM00 = shapePose.getM00();
+      inverseM01 = shapePose.getM10();
+      inverseM02 = shapePose.getM20();
+      inverseM10 = shapePose.getM01();
+      inverseM11 = shapePose.getM11();
+      inverseM12 = shapePose.getM21();
+      inverseM20 = shapePose.getM02();
+      inverseM21 = shapePose.getM12();
+      inverseM22 = shapePose.getM22();
+
+      double tx = shapePose.getM03();
+      double ty = shapePose.getM13();
+      double tz = shapePose.getM23();
+      inverseM03 = -(inverseM00 * tx + inverseM01 * ty + inverseM02 * tz);
+      inverseM13 = -(inverseM10 * tx + inverseM11 * ty + inverseM12 * tz);
+      inverseM23 = -(inverseM20 * tx + inverseM21 * ty + inverseM22 * tz);
+
+      poseModificationCount++;
+      notifyShapeChanged();
+   }
+
+   /**
+    * Gets the number of modifications of this shape since its creation.
+    * <p>
+    * The returned value changes every time the pose or the size of this shape changes, such that
+    * comparing it against a previously retrieved value is enough to detect whether data computed from
+    * this shape is outdated.
+    * </p>
+    *
+    * @return the modification count of this shape.
+    */
+   public final long getModificationCount()
+   {
+      return modificationCount;
+   }
+
+   /**
+    * Gets the number of modifications of the pose of this shape since its creation.
+    * <p>
+    * Unlike {@link #getModificationCount()}, the returned value does not change when only the size of
+    * this shape changes.
+    * </p>
+    *
+    * @return the pose modification count of this shape.
+    */
+   public final long getPoseModificationCount()
+   {
+      return poseModificationCount;
+   }
+
+   /**
+    * Packs the axis-aligned bounding box expressed in world that fully contains this shape.
+    * <p>
+    * The bounding box is cached and only recomputed the first time it is needed after this shape is
+    * modified.
+    * </p>
+    *
+    * @param boundingBoxToPack the bounding box in which the result is stored. Modified.
+    */
+   public void getBoundingBox3D(BoundingBox3D boundingBoxToPack)
+   {
+      boundingBoxToPack.set(getBounds().boundingBox);
+   }
+
+   /**
+    * Gets the bounds of this shape, computing them if this shape has been modified since they were
+    * last computed.
+    * <p>
+    * The bounds are never modified once computed but replaced as a whole, such that concurrent queries
+    * on this shape always read consistent bounds.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage when the bounds have to be recomputed.
+    * </p>
+    */
+   private Bounds getBounds()
+   {
+      Bounds bounds = this.bounds;
+
+      if (bounds == null || bounds.modificationCount != modificationCount)
+      {
+         bounds = new Bounds(this);
+         this.bounds = bounds;
+      }
+
+      return bounds;
+   }
+
+   /**
+    * Packs the axis-aligned bounds, expressed in the local coordinates of this shape, that contain
+    * every query for which {@link #isInsideEpsilonShapeFrame(double, double, double, double)} may
+    * return {@code true} given the tolerance {@code epsilon}.
+    * <p>
+    * The bounds are used to compute the bounding box of this shape and to reject queries that are far
+    * from this shape without evaluating them. They are only evaluated for {@code epsilon} equal to
+    * {@code 0} and {@code 1} once after each modification of this shape, and each bound is assumed to be an affine
+    * function of {@code epsilon} to obtain the bounds for other tolerances. The default
+    * implementation packs infinite bounds which disables the rejection, implementations are
+    * encouraged to override it.
+    * </p>
+    *
+    * @param epsilon the tolerance of the containment queries, it is always positive or zero.
+    * @param boundingBoxToPack the bounding box in which the local bounds are stored. Modified.
+    */
+   protected void getBoundingBoxShapeFrame(double epsilon, BoundingBox3D boundingBoxToPack)
+   {
+      boundingBoxToPack.set(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+   }
+
+   /**
+    * Packs the point of this shape that is the most extreme in the given direction.
+    * <p>
+    * For a convex shape, this is the supporting vertex used by algorithms such as GJK. The torus being
+    * non-convex, the supporting vertex of its convex hull is computed instead.
+    * </p>
+    *
+    * @param supportDirection the direction to search for the supporting vertex, expressed in world.
+    *           It does not need to be a unit vector. Not modified.
+    * @param supportingVertexToPack the point in which the supporting vertex is stored. Modified.
+    * @throws IllegalArgumentException if {@code supportDirection} is a zero vector.
+    */
+   public final void getSupportingVertex(Vector3DReadOnly supportDirection, Point3DBasics supportingVertexToPack)
+   {
+      double x = supportDirection.getX();
+      double y = supportDirection.getY();
+      double z = supportDirection.getZ();
+
+      if (x == 0.0 && y == 0.0 && z == 0.0)
+         throw new IllegalArgumentException("The support direction cannot be a zero vector.");
+
+      double localX = inverseM00 * x + inverseM01 * y + inverseM02 * z;
+      double localY = inverseM10 * x + inverseM11 * y + inverseM12 * z;
+      double localZ = inverseM20 * x + inverseM21 * y + inverseM22 * z;
+      getSupportingVertexShapeFrame(localX, localY, localZ, supportingVertexToPack);
+      shapePose.transform(supportingVertexToPack);
+   }
+
+   /**
+    * Packs the point of this shape that is the most extreme in the given direction, both expressed in
+    * the local coordinates of this shape.
+    * <p>
+    * The default implementation packs the supporting vertex of the local bounds given by
+    * {@link #getBoundingBoxShapeFrame(double, BoundingBox3D)} such that this shape is approximated by
+    * its bounding box, the vertex is infinite if the bounds are not overridden. Implementations are
+    * encouraged to override it.
+    * </p>
+    *
+    * @param directionX the x-component of the search direction, it is never zero with the two other
+    *           components.
+    * @param directionY the y-component of the search direction.
+    * @param directionZ the z-component of the search direction.
+    * @param supportingVertexToPack the point in which the supporting vertex is stored. Modified.
+    */
+   protected void getSupportingVertexShapeFrame(double directionX, double directionY, double directionZ, Point3DBasics supportingVertexToPack)
+   {
+      BoundingBox3D localBoundingBox = getBounds().localBoundingBox;
+      double x = directionX < 0.0 ? localBoundingBox.getMinX() : localBoundingBox.getMaxX();
+      double y = directionY < 0.0 ? localBoundingBox.getMinY() : localBoundingBox.getMaxY();
+      double z = directionZ < 0.0 ? localBoundingBox.getMinZ() : localBoundingBox.getMaxZ();
+      supportingVertexToPack.set(x, y, z);
+   }
+
+   private void updateBoundingBox(double epsilon, BoundingBox3D boundingBoxToPack)
+   {
+      // The local bounds are packed first and then transformed in place.
+      getBoundingBoxShapeFrame(epsilon, boundingBoxToPack);
+
+      double halfSizeX = 0.5 * (boundingBoxToPack.getMaxX() - boundingBoxToPack.getMinX());
+      double halfSizeY = 0.5 * (boundingBoxToPack.getMaxY() - boundingBoxToPack.getMinY());
+      double halfSizeZ = 0.5 * (boundingBoxToPack.getMaxZ() - boundingBoxToPack.getMinZ());
+
+      if (Double.isInfinite(halfSizeX) || Double.isInfinite(halfSizeY) || Double.isInfinite(halfSizeZ))
+      {
+         boundingBoxToPack.set(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                               Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+         return;
+      }
+
+      double centerX = 0.5 * (boundingBoxToPack.getMaxX() + boundingBoxToPack.getMinX());
+      double centerY = 0.5 * (boundingBoxToPack.getMaxY() + boundingBoxToPack.getMinY());
+      double centerZ = 0.5 * (boundingBoxToPack.getMaxZ() + boundingBoxToPack.getMinZ());
+
+      double m00 = shapePose.getM00(), m01 = shapePose.getM01(), m02 = shapePose.getM02();
+      double m10 = shapePose.getM10(), m11 = shapePose.getM11(), m12 = shapePose.getM12();
+      double m20 = shapePose.getM20(), m21 = shapePose.getM21(), m22 = shapePose.getM22();
+
+      double worldCenterX = m00 * centerX + m01 * centerY + m02 * centerZ + shapePose.getM03();
+      double worldCenterY = m10 * centerX + m11 * centerY + m12 * centerZ + shapePose.getM13();
+      double worldCenterZ = m20 * centerX + m21 * centerY + m22 * centerZ + shapePose.getM23();
+      double worldHalfSizeX = Math.abs(m00) * halfSizeX + Math.abs(m01) * halfSizeY + Math.abs(m02) * halfSizeZ;
+      double worldHalfSizeY = Math.abs(m10) * halfSizeX + Math.abs(m11) * halfSizeY + Math.abs(m12) * halfSizeZ;
+      double worldHalfSizeZ = Math.abs(m20) * halfSizeX + Math.abs(m21) * halfSizeY + Math.abs(m22) * halfSizeZ;
+
+      boundingBoxToPack.set(worldCenterX - worldHalfSizeX, worldCenterY - worldHalfSizeY, worldCenterZ - worldHalfSizeZ, worldCenterX + worldHalfSizeX,
+                            worldCenterY + worldHalfSizeY, worldCenterZ + worldHalfSizeZ);
+   }
+
+   /**
+    * Bounds of a shape computed for a given modification count of the shape.
+    */
+   private static final class Bounds
+   {
+      /** Modification count of the shape when these bounds were computed. */
+      private final long modificationCount;
+      /** Bounding box of the shape expressed in world. */
+      private final BoundingBox3D boundingBox = new BoundingBox3D();
+      /** Bounds of the shape expressed in its local coordinates. */
+      private final BoundingBox3D localBoundingBox = new BoundingBox3D();
+      /*
+       * Distance by which each bound of boundingBox moves outward per unit of tolerance, such that the
+       * containment queries can grow the bounding box by their tolerance without writing any field.
+       */
+      private final double minXGrowth, minYGrowth, minZGrowth;
+      private final double maxXGrowth, maxYGrowth, maxZGrowth;
+
+      private Bounds(Shape3D<?> shape)
+      {
+         modificationCount = shape.modificationCount;
+
+         shape.getBoundingBoxShapeFrame(0.0, localBoundingBox);
+         shape.updateBoundingBox(0.0, boundingBox);
+         BoundingBox3D grownBoundingBox = new BoundingBox3D();
+         shape.updateBoundingBox(1.0, grownBoundingBox);
+         minXGrowth = computeGrowth(boundingBox.getMinX() - grownBoundingBox.getMinX());
+         minYGrowth = computeGrowth(boundingBox.getMinY() - grownBoundingBox.getMinY());
+         minZGrowth = computeGrowth(boundingBox.getMinZ() - grownBoundingBox.getMinZ());
+         maxXGrowth = computeGrowth(grownBoundingBox.getMaxX() - boundingBox.getMaxX());
+         maxYGrowth = computeGrowth(grownBoundingBox.getMaxY() - boundingBox.getMaxY());
+         maxZGrowth = computeGrowth(grownBoundingBox.getMaxZ() - boundingBox.getMaxZ());
+      }
+
+      private static double computeGrowth(double growth)
+      {
+         // Infinite bounds do not grow.
+         return Double.isNaN(growth) ? 0.0 : growth;
+      }
+
+      /**
+       * Tests whether the query can be discarded for the containment test with the given tolerance
+       * without evaluating it, i.e. when it is outside the bounding box of the shape grown by
+       * {@code epsilon}.
+       */
+      private boolean rejects(double x, double y, double z, double epsilon)
+      {
+         // A shape shrunk by a negative epsilon is contained in the original shape.
+         epsilon = Math.max(0.0, epsilon);
+
+         return x < boundingBox.getMinX() - epsilon * minXGrowth || x > boundingBox.getMaxX() + epsilon * maxXGrowth
+               || y < boundingBox.getMinY() - epsilon * minYGrowth || y > boundingBox.getMaxY() + epsilon * maxYGrowth
+               || z < boundingBox.getMinZ() - epsilon * minZGrowth || z > boundingBox.getMaxZ() + epsilon * maxZGrowth;
+      }
+   }
+
    /**
     * Evaluates the query point {@code pointToCheck}:
     * <ul>
@@ -59,9 +366,9 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
     */
    public final boolean checkIfInside(Point3DReadOnly pointToCheck, Point3DBasics closestPointOnSurfaceToPack, Vector3DBasics normalAtClosestPointToPack)
    {
-      double xLocal = computeTransformedX(shapePose, true, pointToCheck);
-      double yLocal = computeTransformedY(shapePose, true, pointToCheck);
-      double zLocal = computeTransformedZ(shapePose, true, pointToCheck);
+      double xLocal = toLocalX(pointToCheck.getX(), pointToCheck.getY(), pointToCheck.getZ());
+      double yLocal = toLocalY(pointToCheck.getX(), pointToCheck.getY(), pointToCheck.getZ());
+      double zLocal = toLocalZ(pointToCheck.getX(), pointToCheck.getY(), pointToCheck.getZ());
 
       boolean isInside = evaluateQuery(xLocal, yLocal, zLocal, closestPointOnSurfaceToPack, normalAtClosestPointToPack) <= 0.0;
 
@@ -107,13 +414,107 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
     */
    public final double signedDistance(Point3DReadOnly point)
    {
-      double xLocal = computeTransformedX(shapePose, true, point);
-      double yLocal = computeTransformedY(shapePose, true, point);
-      double zLocal = computeTransformedZ(shapePose, true, point);
+      double xLocal = toLocalX(point.getX(), point.getY(), point.getZ());
+      double yLocal = toLocalY(point.getX(), point.getY(), point.getZ());
+      double zLocal = toLocalZ(point.getX(), point.getY(), point.getZ());
 
       return evaluateQuery(xLocal, yLocal, zLocal, null, null);
    }
 
+   /**
+    * Computes the signed distance between each query and this shape.
+    * <p>
+    * The queries are given as structure of arrays: the coordinates of the i<sup>th</sup> query are
+    * {@code (xs[i], ys[i], zs[i])}. This method is equivalent to calling
+    * {@link #signedDistance(Point3DReadOnly)} for each query but is much faster for large number of
+    * queries.
+    * </p>
+    *
+    * @param xs the x-coordinates of the queries. Not modified.
+    * @param ys the y-coordinates of the queries. Not modified.
+    * @param zs the z-coordinates of the queries. Not modified.
+    * @param signedDistancesToPack the array in which the signed distances are stored. Modified.
+    * @throws IllegalArgumentException if any of the arrays is shorter than {@code xs}.
+    */
+   public final void signedDistance(double[] xs, double[] ys, double[] zs, double[] signedDistancesToPack)
+   {
+      signedDistance(xs, ys, zs, 0, xs.length, signedDistancesToPack);
+   }
+
+   /**
+    * Computes the signed distance between each query in the range [{@code startIndex},
+    * {@code endIndex}[ and this shape.
+    * <p>
+    * The queries are given as structure of arrays: the coordinates of the i<sup>th</sup> query are
+    * {@code (xs[i], ys[i], zs[i])}. This method is equivalent to calling
+    * {@link #signedDistance(Point3DReadOnly)} for each query but is much faster for large number of
+    * queries.
+    * </p>
+    *
+    * @param xs the x-coordinates of the queries. Not modified.
+    * @param ys the y-coordinates of the queries. Not modified.
+    * @param zs the z-coordinates of the queries. Not modified.
+    * @param startIndex the index of the first query, inclusive.
+    * @param endIndex the index of the last query, exclusive.
+    * @param signedDistancesToPack the array in which the signed distances are stored at the same
+    *           indices as the queries. Modified.
+    * @throws IllegalArgumentException if the range is invalid or if any of the arrays is shorter than
+    *            {@code endIndex}.
+    */
+   public final void signedDistance(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, double[] signedDistancesToPack)
+   {
+      checkBatchRange(xs, ys, zs, startIndex, endIndex, signedDistancesToPack.length);
+
+      double[][] buffers = batchBuffers.get();
+      double[] xLocal = buffers[0];
+      double[] yLocal = buffers[1];
+      double[] zLocal = buffers[2];
+
+      for (int blockStart = startIndex; blockStart < endIndex; blockStart += BATCH_BLOCK_SIZE)
+      {
+         int blockLength = Math.min(BATCH_BLOCK_SIZE, endIndex - blockStart);
+         transformToLocal(xs, ys, zs, blockStart, blockLength, xLocal, yLocal, zLocal);
+         signedDistanceShapeFrame(xLocal, yLocal, zLocal, blockLength, signedDistancesToPack, blockStart);
+      }
+   }
+
+   /**
+    * Computes the signed distance between each query and this shape using multiple threads.
+    * <p>
+    * This method is equivalent to {@link #signedDistance(double[], double[], double[], double[])} but
+    * splits the work into tasks executed in the common fork-join pool. It should only be preferred for
+    * very large number of queries. This shape must not be modified while this method is running.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param xs the x-coordinates of the queries. Not modified.
+    * @param ys the y-coordinates of the queries. Not modified.
+    * @param zs the z-coordinates of the queries. Not modified.
+    * @param signedDistancesToPack the array in which the signed distances are stored. Modified.
+    * @throws IllegalArgumentException if any of the arrays is shorter than {@code xs}.
+    */
+   public final void signedDistanceParallel(double[] xs, double[] ys, double[] zs, double[] signedDistancesToPack)
+   {
+      int numberOfQueries = xs.length;
+      checkBatchRange(xs, ys, zs, 0, numberOfQueries, signedDistancesToPack.length);
+
+      if (numberOfQueries <= PARALLEL_BATCH_SIZE)
+      {
+         signedDistance(xs, ys, zs, 0, numberOfQueries, signedDistancesToPack);
+         return;
+      }
+
+      int numberOfTasks = (numberOfQueries + PARALLEL_BATCH_SIZE - 1) / PARALLEL_BATCH_SIZE;
+      IntStream.range(0, numberOfTasks).parallel().forEach(task ->
+      {
+         int startIndex = task * PARALLEL_BATCH_SIZE;
+         int endIndex = Math.min(startIndex + PARALLEL_BATCH_SIZE, numberOfQueries);
+         signedDistance(xs, ys, zs, startIndex, endIndex, signedDistancesToPack);
+      });
+   }
+
    /**
     * Tests separately and on a per component basis if the orientation and the position of this shape's
     * pose and {@code other}'s pose are equal to an {@code epsilon}.
@@ -128,6 +529,34 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
       return shapePose.epsilonEquals(other.shapePose, epsilon);
    }
 
+   /**
+    * Tests whether the pose of this shape and the pose of {@code other} represent the same rigid-body
+    * transform to an {@code epsilon}.
+    *
+    * @param other the other shape which its pose is to be compared against this shape's pose. Not
+    *           modified.
+    * @param epsilon the tolerance of the comparison.
+    * @return {@code true} if the two poses are geometrically equal, {@code false} otherwise.
+    */
+   protected final boolean geometricallyEqualsPose(Shape3D<S> other, double epsilon)
+   {
+      return shapePose.geometricallyEquals(other.shapePose, epsilon);
+   }
+
+   /**
+    * Tests whether the distance between the position of this shape and the position of {@code other}
+    * is less than or equal to {@code epsilon}.
+    *
+    * @param other the other shape which its position is to be compared against this shape's position.
+    *           Not modified.
+    * @param epsilon the tolerance of the comparison.
+    * @return {@code true} if the two positions are geometrically equal, {@code false} otherwise.
+    */
+   protected final boolean geometricallyEqualsPosition(Shape3D<S> other, double epsilon)
+   {
+      return shapePose.getTranslationVector().geometricallyEquals(other.shapePose.getTranslationVector(), epsilon);
+   }
+
    /**
     * Internal generic method used for the public API of any {@code Shape3d}.
     *
@@ -171,11 +600,172 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
     */
    public final boolean isInsideEpsilon(Point3DReadOnly query, double epsilon)
    {
-      double xLocal = computeTransformedX(shapePose, true, query);
-      double yLocal = computeTransformedY(shapePose, true, query);
-      double zLocal = computeTransformedZ(shapePose, true, query);
+      double x = query.getX();
+      double y = query.getY();
+      double z = query.getZ();
+
+      if (getBounds().rejects(x, y, z, epsilon))
+         return false;
+
+      return isInsideEpsilonShapeFrame(toLocalX(x, y, z), toLocalY(x, y, z), toLocalZ(x, y, z), epsilon);
+   }
+
+   /**
+    * Computes the signed distance between each query, expressed in the local coordinates of this
+    * shape, and this shape.
+    * <p>
+    * This method is the kernel of the batch methods, implementations are encouraged to override it
+    * with a tight loop that does not rely on
+    * {@link #evaluateQuery(double, double, double, Point3DBasics, Vector3DBasics)}.
+    * </p>
+    *
+    * @param xs the x-coordinates of the queries expressed in the local coordinates of this shape. Not
+    *           modified.
+    * @param ys the y-coordinates of the queries expressed in the local coordinates of this shape. Not
+    *           modified.
+    * @param zs the z-coordinates of the queries expressed in the local coordinates of this shape. Not
+    *           modified.
+    * @param length the number of queries, starting at the index 0, to evaluate.
+    * @param signedDistancesToPack the array in which the signed distance of the i<sup>th</sup> query
+    *           is stored at the index {@code offset + i}. Modified.
+    * @param offset the index of the first signed distance to pack.
+    */
+   protected void signedDistanceShapeFrame(double[] xs, double[] ys, double[] zs, int length, double[] signedDistancesToPack, int offset)
+   {
+      for (int i = 0; i < length; i++)
+         signedDistancesToPack[offset + i] = evaluateQuery(xs[i], ys[i], zs[i], null, null);
+   }
+
+   /**
+    * Tests whether each query is inside this shape or on its surface.
+    * <p>
+    * The queries are given as structure of arrays: the coordinates of the i<sup>th</sup> query are
+    * {@code (xs[i], ys[i], zs[i])}.
+    * </p>
+    *
+    * @param xs the x-coordinates of the queries. Not modified.
+    * @param ys the y-coordinates of the queries. Not modified.
+    * @param zs the z-coordinates of the queries. Not modified.
+    * @param resultsToPack the array in which the result for each query is stored. Modified.
+    * @throws IllegalArgumentException if any of the arrays is shorter than {@code xs}.
+    */
+   public final void isInsideOrOnSurface(double[] xs, double[] ys, double[] zs, boolean[] resultsToPack)
+   {
+      isInsideEpsilon(xs, ys, zs, 0, xs.length, IS_INSIDE_EPS, resultsToPack);
+   }
+
+   /**
+    * Tests whether each query in the range [{@code startIndex}, {@code endIndex}[ is located inside
+    * this shape given the tolerance {@code epsilon}.
+    * <p>
+    * The queries are given as structure of arrays: the coordinates of the i<sup>th</sup> query are
+    * {@code (xs[i], ys[i], zs[i])}. This method is equivalent to calling
+    * {@link #isInsideEpsilon(Point3DReadOnly, double)} for each query.
+    * </p>
+    *
+    * @param xs the x-coordinates of the queries. Not modified.
+    * @param ys the y-coordinates of the queries. Not modified.
+    * @param zs the z-coordinates of the queries. Not modified.
+    * @param startIndex the index of the first query, inclusive.
+    * @param endIndex the index of the last query, exclusive.
+    * @param epsilon the tolerance to use for this test.
+    * @param resultsToPack the array in which the results are stored at the same indices as the
+    *           queries. Modified.
+    * @throws IllegalArgumentException if the range is invalid or if any of the arrays is shorter than
+    *            {@code endIndex}.
+    */
+   public final void isInsideEpsilon(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, double epsilon, boolean[] resultsToPack)
+   {
+      checkBatchRange(xs, ys, zs, startIndex, endIndex, resultsToPack.length);
+
+      Bounds bounds = getBounds();
+      double[][] buffers = batchBuffers.get();
+      double[] xLocal = buffers[0];
+      double[] yLocal = buffers[1];
+      double[] zLocal = buffers[2];
+
+      for (int blockStart = startIndex; blockStart < endIndex; blockStart += BATCH_BLOCK_SIZE)
+      {
+         int blockLength = Math.min(BATCH_BLOCK_SIZE, endIndex - blockStart);
+         transformToLocal(xs, ys, zs, blockStart, blockLength, xLocal, yLocal, zLocal);
+
+         for (int i = 0; i < blockLength; i++)
+         {
+            if (bounds.rejects(xs[blockStart + i], ys[blockStart + i], zs[blockStart + i], epsilon))
+               resultsToPack[blockStart + i] = false;
+            else
+               resultsToPack[blockStart + i] = isInsideEpsilonShapeFrame(xLocal[i], yLocal[i], zLocal[i], epsilon);
+         }
+      }
+   }
 
-      return isInsideEpsilonShapeFrame(xLocal, yLocal, zLocal, epsilon);
+   private void transformToLocal(double[] xs, double[] ys, double[] zs, int startIndex, int length, double[] xLocalToPack, double[] yLocalToPack,
+                                 double[] zLocalToPack)
+   {
+      double m00 = inverseM00, m01 = inverseM01, m02 = inverseM02, m03 = inverseM03;
+      double m10 = inverseM10, m11 = inverseM11, m12 = inverseM12, m13 = inverseM13;
+      double m20 = inverseM20, m21 = inverseM21, m22 = inverseM22, m23 = inverseM23;
+
+      for (int i = 0; i < length; i++)
+      {
+         double x = xs[startIndex + i];
+         double y = ys[startIndex + i];
+         double z = zs[startIndex + i];
+         xLocalToPack[i] = m00 * x + m01 * y + m02 * z + m03;
+         yLocalToPack[i] = m10 * x + m11 * y + m12 * z + m13;
+         zLocalToPack[i] = m20 * x + m21 * y + m22 * z + m23;
+      }
+   }
+
+   /**
+    * Computes the x-coordinate of the given point once expressed in the local coordinates of this
+    * shape.
+    *
+    * @param x the x-coordinate of the point expressed in world.
+    * @param y the y-coordinate of the point expressed in world.
+    * @param z the z-coordinate of the point expressed in world.
+    * @return the x-coordinate of the point expressed in the local coordinates of this shape.
+    */
+   protected final double toLocalX(double x, double y, double z)
+   {
+      return inverseM00 * x + inverseM01 * y + inverseM02 * z + inverseM03;
+   }
+
+   /**
+    * Computes the y-coordinate of the given point once expressed in the local coordinates of this
+    * shape.
+    *
+    * @param x the x-coordinate of the point expressed in world.
+    * @param y the y-coordinate of the point expressed in world.
+    * @param z the z-coordinate of the point expressed in world.
+    * @return the y-coordinate of the point expressed in the local coordinates of this shape.
+    */
+   protected final double toLocalY(double x, double y, double z)
+   {
+      return inverseM10 * x + inverseM11 * y + inverseM12 * z + inverseM13;
+   }
+
+   /**
+    * Computes the z-coordinate of the given point once expressed in the local coordinates of this
+    * shape.
+    *
+    * @param x the x-coordinate of the point expressed in world.
+    * @param y the y-coordinate of the point expressed in world.
+    * @param z the z-coordinate of the point expressed in world.
+    * @return the z-coordinate of the point expressed in the local coordinates of this shape.
+    */
+   protected final double toLocalZ(double x, double y, double z)
+   {
+      return inverseM20 * x + inverseM21 * y + inverseM22 * z + inverseM23;
+   }
+
+   private static void checkBatchRange(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex, int outputLength)
+   {
+      if (startIndex < 0 || startIndex > endIndex)
+         throw new IllegalArgumentException("Invalid range: [" + startIndex + ", " + endIndex + "[");
+      if (xs.length < endIndex || ys.length < endIndex || zs.length < endIndex || outputLength < endIndex)
+         throw new IllegalArgumentException("The arrays are too short for the range [" + startIndex + ", " + endIndex + "[, lengths: xs = " + xs.length
+               + ", ys = " + ys.length + ", zs = " + zs.length + ", output = " + outputLength);
    }
 
    /**
@@ -234,9 +824,9 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
       double yOriginal = pointToProject.getY();
       double zOriginal = pointToProject.getZ();
 
-      double xLocal = computeTransformedX(shapePose, true, pointToProject);
-      double yLocal = computeTransformedY(shapePose, true, pointToProject);
-      double zLocal = computeTransformedZ(shapePose, true, pointToProject);
+      double xLocal = toLocalX(pointToProject.getX(), pointToProject.getY(), pointToProject.getZ());
+      double yLocal = toLocalY(pointToProject.getX(), pointToProject.getY(), pointToProject.getZ());
+      double zLocal = toLocalZ(pointToProject.getX(), pointToProject.getY(), pointToProject.getZ());
 
       boolean isInside = evaluateQuery(xLocal, yLocal, zLocal, projectionToPack, null) <= 0.0;
 
@@ -259,6 +849,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setOrientation(Orientation3DReadOnly orientation)
    {
       shapePose.setRotation(orientation);
+      notifyPoseChanged();
    }
 
    /**
@@ -284,6 +875,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setOrientationYawPitchRoll(double yaw, double pitch, double roll)
    {
       shapePose.setRotationYawPitchRoll(yaw, pitch, roll);
+      notifyPoseChanged();
    }
 
    /**
@@ -307,6 +899,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setOrientationYawPitchRoll(double[] yawPitchRoll)
    {
       shapePose.setRotationYawPitchRoll(yawPitchRoll);
+      notifyPoseChanged();
    }
 
    /**
@@ -317,6 +910,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setPose(Pose3DReadOnly pose)
    {
       pose.get(shapePose);
+      notifyPoseChanged();
    }
 
    /**
@@ -328,6 +922,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setPose(RigidBodyTransform rigidBodyTransform)
    {
       shapePose.set(rigidBodyTransform);
+      notifyPoseChanged();
    }
 
    /**
@@ -339,6 +934,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public void setPose(Shape3D<S> other)
    {
       shapePose.set(other.shapePose);
+      notifyPoseChanged();
    }
 
    /**
@@ -350,6 +946,32 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setPose(Tuple3DReadOnly position, Orientation3DReadOnly orientation)
    {
       shapePose.set(orientation, position);
+      notifyPoseChanged();
+   }
+
+   /**
+    * Sets the pose, i.e. position and orientation, of this shape from the coefficients of a 3-by-4
+    * rigid-body transform.
+    *
+    * @param m00 the 1st row 1st column coefficient of the rotation part.
+    * @param m01 the 1st row 2nd column coefficient of the rotation part.
+    * @param m02 the 1st row 3rd column coefficient of the rotation part.
+    * @param m03 the x-component of the position.
+    * @param m10 the 2nd row 1st column coefficient of the rotation part.
+    * @param m11 the 2nd row 2nd column coefficient of the rotation part.
+    * @param m12 the 2nd row 3rd column coefficient of the rotation part.
+    * @param m13 the y-component of the position.
+    * @param m20 the 3rd row 1st column coefficient of the rotation part.
+    * @param m21 the 3rd row 2nd column coefficient of the rotation part.
+    * @param m22 the 3rd row 3rd column coefficient of the rotation part.
+    * @param m23 the z-component of the position.
+    * @throws NotARotationMatrixException if the rotation part does not represent a rotation matrix.
+    */
+   public final void setPose(double m00, double m01, double m02, double m03, double m10, double m11, double m12, double m13, double m20, double m21,
+                             double m22, double m23)
+   {
+      shapePose.set(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23);
+      notifyPoseChanged();
    }
 
    /**
@@ -365,6 +987,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setPosition(double x, double y, double z)
    {
       shapePose.setTranslation(x, y, z);
+      notifyPoseChanged();
    }
 
    /**
@@ -378,6 +1001,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setPosition(Tuple3DReadOnly position)
    {
       shapePose.setTranslation(position);
+      notifyPoseChanged();
    }
 
    /**
@@ -388,6 +1012,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setPositionX(double x)
    {
       shapePose.setTranslationX(x);
+      notifyPoseChanged();
    }
 
    /**
@@ -399,6 +1024,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    {
       shapePose.setTranslationX(point2D.getX());
       shapePose.setTranslationY(point2D.getY());
+      notifyPoseChanged();
    }
 
    /**
@@ -409,6 +1035,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setPositionY(double y)
    {
       shapePose.setTranslationY(y);
+      notifyPoseChanged();
    }
 
    /**
@@ -419,6 +1046,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void setPositionZ(double z)
    {
       shapePose.setTranslationZ(z);
+      notifyPoseChanged();
    }
 
    /** {@inheritDoc} */
@@ -426,6 +1054,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public void setToNaN()
    {
       shapePose.setToNaN();
+      notifyPoseChanged();
    }
 
    /** {@inheritDoc} */
@@ -433,6 +1062,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public void setToZero()
    {
       shapePose.setToZero();
+      notifyPoseChanged();
    }
 
    /**
@@ -608,6 +1238,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void appendTransform(QuaternionBasedTransform transform)
    {
       shapePose.multiply(transform);
+      notifyPoseChanged();
    }
 
    /**
@@ -619,6 +1250,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void appendTransform(RigidBodyTransform transform)
    {
       shapePose.multiply(transform);
+      notifyPoseChanged();
    }
 
    /**
@@ -632,6 +1264,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void appendTranslation(double x, double y, double z)
    {
       shapePose.appendTranslation(x, y, z);
+      notifyPoseChanged();
    }
 
    /**
@@ -643,6 +1276,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void appendTranslation(Tuple3DReadOnly translation)
    {
       shapePose.appendTranslation(translation);
+      notifyPoseChanged();
    }
 
    /**
@@ -653,6 +1287,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void appendYawRotation(double yaw)
    {
       shapePose.appendYawRotation(yaw);
+      notifyPoseChanged();
    }
 
    /**
@@ -663,6 +1298,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void appendPitchRotation(double pitch)
    {
       shapePose.appendPitchRotation(pitch);
+      notifyPoseChanged();
    }
 
    /**
@@ -673,6 +1309,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void appendRollRotation(double roll)
    {
       shapePose.appendRollRotation(roll);
+      notifyPoseChanged();
    }
 
    /**
@@ -686,6 +1323,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void prependTranslation(double x, double y, double z)
    {
       shapePose.prependTranslation(x, y, z);
+      notifyPoseChanged();
    }
 
    /**
@@ -697,6 +1335,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void prependTranslation(Tuple3DReadOnly translation)
    {
       shapePose.prependTranslation(translation);
+      notifyPoseChanged();
    }
 
    /**
@@ -707,6 +1346,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void prependYawRotation(double yaw)
    {
       shapePose.prependYawRotation(yaw);
+      notifyPoseChanged();
    }
 
    /**
@@ -717,6 +1357,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void prependPitchRotation(double pitch)
    {
       shapePose.prependPitchRotation(pitch);
+      notifyPoseChanged();
    }
 
    /**
@@ -727,6 +1368,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void prependRollRotation(double roll)
    {
       shapePose.prependRollRotation(roll);
+      notifyPoseChanged();
    }
 
    /**
@@ -758,6 +1400,7 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void applyInverseTransform(Transform transform)
    {
       transform.inverseTransform(shapePose);
+      notifyPoseChanged();
    }
 
    /** {@inheritDoc} */
@@ -765,5 +1408,6 @@ public abstract class Shape3D<S extends Shape3D<S>> implements GeometryObject<S>
    public final void applyTransform(Transform transform)
    {
       transform.transform(shapePose);
+      notifyPoseChanged();
    }
 }
@@ -0,0 +1,367 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+import java.util.List;
+
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+import us.ihmc.euclid.tuple3D.interfaces.Vector3DBasics;
+
+/**
+ * {@code SignedDistanceField3D} is a cache of the signed distance to a set of {@link Shape3D}s
+ * sampled on a regular 3D grid.
+ * <p>
+ * The grid covers a bounded region of space given at construction and is sampled with a uniform
+ * resolution. Inside this region, the distance and its gradient are computed by trilinear
+ * interpolation of the eight surrounding samples, which costs a constant time independent of the
+ * number and the type of the shapes. Outside the region, or when the grid is out of date, the queries
+ * fall back to the exact evaluation of each shape.
+ * </p>
+ * <p>
+ * When several shapes are sampled, the field represents their union, i.e. the sampled value is the
+ * minimum of the signed distances to each shape.
+ * </p>
+ * <p>
+ * The grid is sampled at construction and is only resampled when calling {@link #update()}, which
+ * should be done after any of the shapes is moved or resized. Such modification is detected by
+ * comparing the {@link Shape3D#getModificationCount()} of each shape with its value when the grid
+ * was last sampled, see {@link #isUpToDate()}. Until the grid is resampled, the queries use the
+ * exact evaluation of the shapes such that they never return stale distances. The accuracy of the interpolation degrades near
+ * edges and corners of the shapes, it is bounded by the resolution of the grid.
+ * </p>
+ * <p>
+ * The queries do not modify this field such that they can be performed concurrently, as long as
+ * neither {@link #update()} is called nor the shapes are modified at the same time.
+ * </p>
+ */
+public class SignedDistanceField3D
+{
+   /** The shapes sampled in this field. */
+   private final Shape3D<?>[] shapes;
+   /** The modification count of each shape at the time this field was last sampled. */
+   private final long[] sampledModificationCounts;
+
+   /** The coordinates of the first grid sample. */
+   private final double minX, minY, minZ;
+   /** The coordinates of the last grid sample. */
+   private final double maxX, maxY, maxZ;
+   /** The distance between two adjacent samples. */
+   private final double resolution;
+   private final double inverseResolution;
+   /** The number of samples along each axis. */
+   private final int sizeX, sizeY, sizeZ;
+   /** The samples stored with the x-index varying the fastest. */
+   private final double[] distances;
+
+   /** Internal point used to enable garbage free operations. */
+   private final Point3D samplePoint = new Point3D();
+
+   /**
+    * Creates a new signed distance field for the given shapes.
+    *
+    * @param bounds the region of space to be covered by the grid. Not modified.
+    * @param resolution the distance between two adjacent samples.
+    * @param shapes the shapes to be sampled. Not modified.
+    * @throws IllegalArgumentException if {@code resolution} is not strictly positive, if the bounds
+    *            are not finite, if no shape is given, or if the resulting grid is too large.
+    */
+   public SignedDistanceField3D(BoundingBox3D bounds, double resolution, List<? extends Shape3D<?>> shapes)
+   {
+      this(bounds, resolution, shapes.toArray(new Shape3D<?>[shapes.size()]));
+   }
+
+   /**
+    * Creates a new signed distance field for the given shapes and samples it.
+    *
+    * @param bounds the region of space to be covered by the grid. Not modified.
+    * @param resolution the distance between two adjacent samples.
+    * @param shapes the shapes to be sampled. Not modified.
+    * @throws IllegalArgumentException if {@code resolution} is not strictly positive, if the bounds
+    *            are not finite, if no shape is given, or if the resulting grid is too large.
+    */
+   public SignedDistanceField3D(BoundingBox3D bounds, double resolution, Shape3D<?>... shapes)
+   {
+      if (!(resolution > 0.0))
+         throw new IllegalArgumentException("The resolution has to be strictly positive, was: " + resolution);
+      if (shapes.length == 0)
+         throw new IllegalArgumentException("At least one shape is required.");
+
+      Point3DReadOnly min = bounds.getMinPoint();
+      Point3DReadOnly max = bounds.getMaxPoint();
+
+      if (!Double.isFinite(min.getX()) || !Double.isFinite(min.getY()) || !Double.isFinite(min.getZ()) || !Double.isFinite(max.getX())
+            || !Double.isFinite(max.getY()) || !Double.isFinite(max.getZ()))
+         throw new IllegalArgumentException("The bounds have to be finite: " + bounds);
+
+      this.shapes = shapes.clone();
+      sampledModificationCounts = new long[shapes.length];
+      this.resolution = resolution;
+      inverseResolution = 1.0 / resolution;
+
+      sizeX = computeNumberOfSamples(min.getX(), max.getX(), resolution);
+      sizeY = computeNumberOfSamples(min.getY(), max.getY(), resolution);
+      sizeZ = computeNumberOfSamples(min.getZ(), max.getZ(), resolution);
+
+      long numberOfSamples = (long) sizeX * (long) sizeY * (long) sizeZ;
+      if (numberOfSamples > Integer.MAX_VALUE - 8)
+         throw new IllegalArgumentException("The grid is too large: " + numberOfSamples + " samples, use a coarser resolution or smaller bounds.");
+
+      minX = min.getX();
+      minY = min.getY();
+      minZ = min.getZ();
+      maxX = minX + (sizeX - 1) * resolution;
+      maxY = minY + (sizeY - 1) * resolution;
+      maxZ = minZ + (sizeZ - 1) * resolution;
+      distances = new double[(int) numberOfSamples];
+      sample();
+   }
+
+   private static int computeNumberOfSamples(double min, double max, double resolution)
+   {
+      double numberOfIntervals = Math.ceil((max - min) / resolution);
+      if (numberOfIntervals >= Integer.MAX_VALUE)
+         throw new IllegalArgumentException("The grid is too large, use a coarser resolution or smaller bounds.");
+      return Math.max(2, (int) numberOfIntervals + 1);
+   }
+
+   /**
+    * Resamples the signed distance of every grid sample.
+    * <p>
+    * This method should be called after any of the shapes is modified, the queries otherwise fall
+    * back to the exact evaluation of the shapes which is more expensive.
+    * </p>
+    */
+   public void update()
+   {
+      sample();
+   }
+
+   private void sample()
+   {
+      int index = 0;
+
+      for (int zIndex = 0; zIndex < sizeZ; zIndex++)
+      {
+         for (int yIndex = 0; yIndex < sizeY; yIndex++)
+         {
+            for (int xIndex = 0; xIndex < sizeX; xIndex++)
+            {
+               samplePoint.set(minX + xIndex * resolution, minY + yIndex * resolution, minZ + zIndex * resolution);
+               double distance = Double.POSITIVE_INFINITY;
+
+               for (Shape3D<?> shape : shapes)
+                  distance = Math.min(distance, shape.signedDistance(samplePoint));
+
+               distances[index++] = distance;
+            }
+         }
+      }
+
+      for (int i = 0; i < shapes.length; i++)
+         sampledModificationCounts[i] = shapes[i].getModificationCount();
+   }
+
+   /**
+    * Tests whether the samples of this field are consistent with the current state of the shapes.
+    *
+    * @return {@code true} if this field does not need to be resampled, {@code false} otherwise.
+    */
+   public boolean isUpToDate()
+   {
+      for (int i = 0; i < shapes.length; i++)
+      {
+         if (shapes[i].getModificationCount() != sampledModificationCounts[i])
+            return false;
+      }
+
+      return true;
+   }
+
+   /**
+    * Tests whether the given query is located inside the region covered by the grid.
+    *
+    * @param query the coordinates of the query. Not modified.
+    * @return {@code true} if the query is answered by interpolation when this field is up to date,
+    *         {@code false} if the exact evaluation of the shapes is used.
+    */
+   public boolean isInsideGrid(Point3DReadOnly query)
+   {
+      return isInsideGrid(query.getX(), query.getY(), query.getZ());
+   }
+
+   private boolean isInsideGrid(double x, double y, double z)
+   {
+      return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+   }
+
+   /**
+    * Computes the signed distance from the query to the union of the shapes.
+    *
+    * @param query the coordinates of the query. Not modified.
+    * @return the signed distance, it is negative if the point is inside one of the shapes.
+    */
+   public double signedDistance(Point3DReadOnly query)
+   {
+      return signedDistance(query, null);
+   }
+
+   /**
+    * Computes the signed distance from the query to the union of the shapes and its gradient.
+    * <p>
+    * Inside the grid, the gradient is the exact derivative of the trilinear interpolation and is not
+    * normalized. Outside the grid or when this field is not up to date, the gradient is the surface
+    * normal at the closest point on the closest shape.
+    * </p>
+    *
+    * @param query the coordinates of the query. Not modified.
+    * @param gradientToPack the vector in which the gradient of the signed distance is stored.
+    *           Modified. Can be {@code null}.
+    * @return the signed distance, it is negative if the point is inside one of the shapes.
+    */
+   public double signedDistance(Point3DReadOnly query, Vector3DBasics gradientToPack)
+   {
+      double x = query.getX();
+      double y = query.getY();
+      double z = query.getZ();
+
+      if (!isInsideGrid(x, y, z) || !isUpToDate())
+         return computeExactSignedDistance(query, gradientToPack);
+
+      double xGrid = (x - minX) * inverseResolution;
+      double yGrid = (y - minY) * inverseResolution;
+      double zGrid = (z - minZ) * inverseResolution;
+      int xIndex = Math.min((int) xGrid, sizeX - 2);
+      int yIndex = Math.min((int) yGrid, sizeY - 2);
+      int zIndex = Math.min((int) zGrid, sizeZ - 2);
+      double tx = xGrid - xIndex;
+      double ty = yGrid - yIndex;
+      double tz = zGrid - zIndex;
+
+      int strideY = sizeX;
+      int strideZ = sizeX * sizeY;
+      int index = xIndex + yIndex * strideY + zIndex * strideZ;
+
+      double d000 = distances[index];
+      double d100 = distances[index + 1];
+      double d010 = distances[index + strideY];
+      double d110 = distances[index + strideY + 1];
+      double d001 = distances[index + strideZ];
+      double d101 = distances[index + strideZ + 1];
+      double d011 = distances[index + strideZ + strideY];
+      double d111 = distances[index + strideZ + strideY + 1];
+
+      // Interpolating along x.
+      double dx00 = d100 - d000;
+      double dx10 = d110 - d010;
+      double dx01 = d101 - d001;
+      double dx11 = d111 - d011;
+      double d00 = d000 + tx * dx00;
+      double d10 = d010 + tx * dx10;
+      double d01 = d001 + tx * dx01;
+      double d11 = d011 + tx * dx11;
+      // Interpolating along y.
+      double d0 = d00 + ty * (d10 - d00);
+      double d1 = d01 + ty * (d11 - d01);
+
+      if (gradientToPack != null)
+      {
+         double gradientX = (1.0 - tz) * (dx00 + ty * (dx10 - dx00)) + tz * (dx01 + ty * (dx11 - dx01));
+         double gradientY = (1.0 - tz) * (d10 - d00) + tz * (d11 - d01);
+         double gradientZ = d1 - d0;
+         gradientToPack.set(gradientX, gradientY, gradientZ);
+         gradientToPack.scale(inverseResolution);
+      }
+
+      // Interpolating along z.
+      return d0 + tz * (d1 - d0);
+   }
+
+   private double computeExactSignedDistance(Point3DReadOnly query, Vector3DBasics gradientToPack)
+   {
+      Shape3D<?> closestShape = null;
+      double minDistance = Double.POSITIVE_INFINITY;
+
+      for (Shape3D<?> shape : shapes)
+      {
+         double distance = shape.signedDistance(query);
+
+         if (distance < minDistance || closestShape == null)
+         {
+            minDistance = distance;
+            closestShape = shape;
+         }
+      }
+
+      if (gradientToPack != null)
+         closestShape.checkIfInside(query, null, gradientToPack);
+
+      return minDistance;
+   }
+
+   /**
+    * Gets the distance between two adjacent samples.
+    *
+    * @return the resolution of the grid.
+    */
+   public double getResolution()
+   {
+      return resolution;
+   }
+
+   /**
+    * Gets the number of samples along the x-axis.
+    *
+    * @return the size of the grid along the x-axis.
+    */
+   public int getSizeX()
+   {
+      return sizeX;
+   }
+
+   /**
+    * Gets the number of samples along the y-axis.
+    *
+    * @return the size of the grid along the y-axis.
+    */
+   public int getSizeY()
+   {
+      return sizeY;
+   }
+
+   /**
+    * Gets the number of samples along the z-axis.
+    *
+    * @return the size of the grid along the z-axis.
+    */
+   public int getSizeZ()
+   {
+      return sizeZ;
+   }
+
+   /**
+    * Packs the region of space covered by the grid.
+    * <p>
+    * The grid may be slightly larger than the bounds given at construction as its size is rounded up
+    * to a whole number of samples.
+    * </p>
+    *
+    * @param boundingBoxToPack the bounding box in which the region is stored. Modified.
+    */
+   public void getGridBounds(BoundingBox3D boundingBoxToPack)
+   {
+      boundingBoxToPack.set(minX, minY, minZ, maxX, maxY, maxZ);
+   }
+
+   /**
+    * Provides a {@code String} representation of this signed distance field as follows:<br>
+    * Signed distance field 3D: size = (sizeX, sizeY, sizeZ), resolution = r, number of shapes = n
+    *
+    * @return the {@code String} representing this signed distance field.
+    */
+   @Override
+   public String toString()
+   {
+      return "Signed distance field 3D: size = " + Arrays.toString(new int[] {sizeX, sizeY, sizeZ}) + ", resolution = " + resolution + ", number of shapes = "
+            + shapes.length;
+   }
+}
@@ -0,0 +1,221 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Hash table mapping the integer coordinates of the cells of a uniform grid to the list of the
+ * elements overlapping each cell.
+ * <p>
+ * The table uses open addressing with linear probing and the lists of elements are linked lists
+ * stored in flat arrays such that adding and removing elements does not generate garbage once the
+ * table has grown to its largest size. Cells are never removed from the table, a cell becoming empty
+ * is only discarded when the table is resized or cleared.
+ * </p>
+ */
+class SpatialHashCellTable
+{
+   private static final int NO_ENTRY = -1;
+   private static final double MAX_LOAD_FACTOR = 0.5;
+
+   private int numberOfCells = 0;
+   private boolean[] occupied;
+   private int[] cellXs;
+   private int[] cellYs;
+   private int[] cellZs;
+   private int[] cellHeads;
+
+   private int numberOfEntries = 0;
+   private int freeEntry = NO_ENTRY;
+   private int[] entryValues;
+   private int[] entryNexts;
+
+   SpatialHashCellTable()
+   {
+      allocateCells(64);
+      entryValues = new int[64];
+      entryNexts = new int[64];
+   }
+
+   void clear()
+   {
+      numberOfCells = 0;
+      Arrays.fill(occupied, false);
+      numberOfEntries = 0;
+      freeEntry = NO_ENTRY;
+   }
+
+   /**
+    * Adds {@code value} to the list of the given cell.
+    */
+   void add(int cellX, int cellY, int cellZ, int value)
+   {
+      int slot = findSlot(cellX, cellY, cellZ);
+
+      if (!occupied[slot])
+      {
+         if (numberOfCells + 1 > MAX_LOAD_FACTOR * occupied.length)
+         {
+            resize();
+            slot = findSlot(cellX, cellY, cellZ);
+         }
+
+         occupied[slot] = true;
+         cellXs[slot] = cellX;
+         cellYs[slot] = cellY;
+         cellZs[slot] = cellZ;
+         cellHeads[slot] = NO_ENTRY;
+         numberOfCells++;
+      }
+
+      int entry = newEntry();
+      entryValues[entry] = value;
+      entryNexts[entry] = cellHeads[slot];
+      cellHeads[slot] = entry;
+   }
+
+   /**
+    * Removes {@code value} from the list of the given cell.
+    *
+    * @return whether the value was found.
+    */
+   boolean remove(int cellX, int cellY, int cellZ, int value)
+   {
+      int slot = findSlot(cellX, cellY, cellZ);
+
+      if (!occupied[slot])
+         return false;
+
+      int previous = NO_ENTRY;
+
+      for (int entry = cellHeads[slot]; entry != NO_ENTRY; entry = entryNexts[entry])
+      {
+         if (entryValues[entry] == value)
+         {
+            if (previous == NO_ENTRY)
+               cellHeads[slot] = entryNexts[entry];
+            else
+               entryNexts[previous] = entryNexts[entry];
+
+            entryNexts[entry] = freeEntry;
+            freeEntry = entry;
+            numberOfEntries--;
+            return true;
+         }
+
+         previous = entry;
+      }
+
+      return false;
+   }
+
+   /**
+    * Gets the first entry of the list of the given cell, the following entries are obtained with
+    * {@link #nextEntry(int)}.
+    *
+    * @return the first entry or {@code -1} if the cell is empty.
+    */
+   int firstEntry(int cellX, int cellY, int cellZ)
+   {
+      int slot = findSlot(cellX, cellY, cellZ);
+      return occupied[slot] ? cellHeads[slot] : NO_ENTRY;
+   }
+
+   /**
+    * @return the entry following {@code entry} in its list or {@code -1} if it is the last one.
+    */
+   int nextEntry(int entry)
+   {
+      return entryNexts[entry];
+   }
+
+   int getValue(int entry)
+   {
+      return entryValues[entry];
+   }
+
+   private int newEntry()
+   {
+      numberOfEntries++;
+
+      if (freeEntry != NO_ENTRY)
+      {
+         int entry = freeEntry;
+         freeEntry = entryNexts[entry];
+         return entry;
+      }
+
+      // No free entry means the entries are densely packed in [0, numberOfEntries[.
+      int entry = numberOfEntries - 1;
+
+      if (entry == entryValues.length)
+      {
+         entryValues = Arrays.copyOf(entryValues, 2 * entry);
+         entryNexts = Arrays.copyOf(entryNexts, 2 * entry);
+      }
+
+      return entry;
+   }
+
+   private int findSlot(int cellX, int cellY, int cellZ)
+   {
+      int mask = occupied.length - 1;
+      int slot = hash(cellX, cellY, cellZ) & mask;
+
+      while (occupied[slot] && (cellXs[slot] != cellX || cellYs[slot] != cellY || cellZs[slot] != cellZ))
+         slot = (slot + 1) & mask;
+
+      return slot;
+   }
+
+   private void resize()
+   {
+      boolean[] oldOccupied = occupied;
+      int[] oldCellXs = cellXs;
+      int[] oldCellYs = cellYs;
+      int[] oldCellZs = cellZs;
+      int[] oldCellHeads = cellHeads;
+
+      int numberOfNonEmptyCells = 0;
+      for (int i = 0; i < oldOccupied.length; i++)
+      {
+         if (oldOccupied[i] && oldCellHeads[i] != NO_ENTRY)
+            numberOfNonEmptyCells++;
+      }
+
+      int capacity = oldOccupied.length;
+      while (numberOfNonEmptyCells + 1 > MAX_LOAD_FACTOR * capacity / 2.0)
+         capacity *= 2;
+
+      allocateCells(capacity);
+      numberOfCells = 0;
+
+      for (int i = 0; i < oldOccupied.length; i++)
+      {
+         if (!oldOccupied[i] || oldCellHeads[i] == NO_ENTRY)
+            continue;
+
+         int slot = findSlot(oldCellXs[i], oldCellYs[i], oldCellZs[i]);
+         occupied[slot] = true;
+         cellXs[slot] = oldCellXs[i];
+         cellYs[slot] = oldCellYs[i];
+         cellZs[slot] = oldCellZs[i];
+         cellHeads[slot] = oldCellHeads[i];
+         numberOfCells++;
+      }
+   }
+
+   private void allocateCells(int capacity)
+   {
+      occupied = new boolean[capacity];
+      cellXs = new int[capacity];
+      cellYs = new int[capacity];
+      cellZs = new int[capacity];
+      cellHeads = new int[capacity];
+   }
+
+   private static int hash(int cellX, int cellY, int cellZ)
+   {
+      int hash = cellX * 0x8da6b343 + cellY * 0xd8163841 + cellZ * 0xcb1ab31f;
+      return hash ^ (hash >>> 16);
+   }
+}
@@ -0,0 +1,247 @@
+package us.ihmc.euclid.geometry;
+
+import java.util.Arrays;
+
+/**
+ * {@code SpatialQueryResult} is a reusable buffer holding the result of a query on a spatial index
+ * such as {@link KDTree3D}.
+ * <p>
+ * Each result is an index, which refers to the element as it was given when building the index, and
+ * the squared distance between the query and the element. The buffer grows as needed and can be
+ * reused for any number of queries such that querying does not generate garbage once the buffer has
+ * reached its largest size.
+ * </p>
+ */
+public class SpatialQueryResult
+{
+   private int size = 0;
+   private int[] indices;
+   private double[] distancesSquared;
+
+   /**
+    * Creates a new empty result with a default initial capacity.
+    */
+   public SpatialQueryResult()
+   {
+      this(16);
+   }
+
+   /**
+    * Creates a new empty result.
+    *
+    * @param initialCapacity the number of results that can be stored before the buffer needs to grow.
+    */
+   public SpatialQueryResult(int initialCapacity)
+   {
+      indices = new int[Math.max(1, initialCapacity)];
+      distancesSquared = new double[indices.length];
+   }
+
+   /**
+    * Removes all the results.
+    */
+   public void clear()
+   {
+      size = 0;
+   }
+
+   /**
+    * Gets the number of results.
+    *
+    * @return the number of results.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Whether this result is empty.
+    *
+    * @return {@code true} if there is no result, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Gets the index of the i<sup>th</sup> result.
+    *
+    * @param i the position of the result &in; [0, {@link #size()}[.
+    * @return the index of the element as it was given when building the spatial index.
+    * @throws IndexOutOfBoundsException if {@code i} is out of bounds.
+    */
+   public int getIndex(int i)
+   {
+      checkBounds(i);
+      return indices[i];
+   }
+
+   /**
+    * Gets the squared distance between the query and the i<sup>th</sup> result.
+    *
+    * @param i the position of the result &in; [0, {@link #size()}[.
+    * @return the squared distance.
+    * @throws IndexOutOfBoundsException if {@code i} is out of bounds.
+    */
+   public double getDistanceSquared(int i)
+   {
+      checkBounds(i);
+      return distancesSquared[i];
+   }
+
+   /**
+    * Gets the distance between the query and the i<sup>th</sup> result.
+    *
+    * @param i the position of the result &in; [0, {@link #size()}[.
+    * @return the distance.
+    * @throws IndexOutOfBoundsException if {@code i} is out of bounds.
+    */
+   public double getDistance(int i)
+   {
+      return Math.sqrt(getDistanceSquared(i));
+   }
+
+   /**
+    * Sorts the results by increasing distance.
+    */
+   public void sortByDistance()
+   {
+      // Insertion sort, the results are usually few and often nearly sorted.
+      for (int i = 1; i < size; i++)
+      {
+         int index = indices[i];
+         double distanceSquared = distancesSquared[i];
+         int j = i - 1;
+
+         while (j >= 0 && distancesSquared[j] > distanceSquared)
+         {
+            indices[j + 1] = indices[j];
+            distancesSquared[j + 1] = distancesSquared[j];
+            j--;
+         }
+
+         indices[j + 1] = index;
+         distancesSquared[j + 1] = distanceSquared;
+      }
+   }
+
+   /**
+    * Appends a result.
+    */
+   void add(int index, double distanceSquared)
+   {
+      if (size == indices.length)
+      {
+         indices = Arrays.copyOf(indices, 2 * size);
+         distancesSquared = Arrays.copyOf(distancesSquared, 2 * size);
+      }
+
+      indices[size] = index;
+      distancesSquared[size] = distanceSquared;
+      size++;
+   }
+
+   /**
+    * Offers a result to this buffer used as a max-heap on the distance bounded to {@code capacity}
+    * results.
+    *
+    * @return the largest squared distance in the heap if it is full, {@link Double#POSITIVE_INFINITY}
+    *         otherwise.
+    */
+   double offerToHeap(int index, double distanceSquared, int capacity)
+   {
+      if (size < capacity)
+      {
+         add(index, distanceSquared);
+         siftUp(size - 1);
+      }
+      else if (distanceSquared < distancesSquared[0])
+      {
+         indices[0] = index;
+         distancesSquared[0] = distanceSquared;
+         siftDown(0, size);
+      }
+
+      return size < capacity ? Double.POSITIVE_INFINITY : distancesSquared[0];
+   }
+
+   /**
+    * Sorts the results by increasing distance assuming this buffer is currently a max-heap.
+    */
+   void sortHeap()
+   {
+      int heapSize = size;
+
+      while (heapSize > 1)
+      {
+         heapSize--;
+         swap(0, heapSize);
+         siftDown(0, heapSize);
+      }
+   }
+
+   private void siftUp(int child)
+   {
+      while (child > 0)
+      {
+         int parent = (child - 1) >> 1;
+         if (distancesSquared[parent] >= distancesSquared[child])
+            return;
+         swap(parent, child);
+         child = parent;
+      }
+   }
+
+   private void siftDown(int parent, int heapSize)
+   {
+      while (true)
+      {
+         int largest = parent;
+         int left = 2 * parent + 1;
+         int right = left + 1;
+
+         if (left < heapSize && distancesSquared[left] > distancesSquared[largest])
+            largest = left;
+         if (right < heapSize && distancesSquared[right] > distancesSquared[largest])
+            largest = right;
+         if (largest == parent)
+            return;
+
+         swap(parent, largest);
+         parent = largest;
+      }
+   }
+
+   private void swap(int i, int j)
+   {
+      int index = indices[i];
+      indices[i] = indices[j];
+      indices[j] = index;
+      double distanceSquared = distancesSquared[i];
+      distancesSquared[i] = distancesSquared[j];
+      distancesSquared[j] = distanceSquared;
+   }
+
+   private void checkBounds(int i)
+   {
+      if (i < 0 || i >= size)
+         throw new IndexOutOfBoundsException("Index: " + i + ", size: " + size);
+   }
+
+   @Override
+   public String toString()
+   {
+      StringBuilder builder = new StringBuilder("Spatial query result: [");
+
+      for (int i = 0; i < size; i++)
+      {
+         if (i > 0)
+            builder.append(", ");
+         builder.append(indices[i]).append(" (").append(Math.sqrt(distancesSquared[i])).append(")");
+      }
+
+      return builder.append("]").toString();
+   }
+}
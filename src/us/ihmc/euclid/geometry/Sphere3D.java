@@ -97,6 +97,7 @@ public class Sphere3D extends Shape3D<Sphere3D>
       if (radius < 0.0)
          throw new IllegalArgumentException("The radius of a Sphere 3D cannot be negative.");
       this.radius = radius;
+      notifyShapeChanged();
    }
 
    /**
@@ -151,13 +152,13 @@ public class Sphere3D extends Shape3D<Sphere3D>
    public int intersectionWith(Point3DReadOnly pointOnLine, Vector3DReadOnly lineDirection, Point3DBasics firstIntersectionToPack,
                                Point3DBasics secondIntersectionToPack)
    {
-      double xLocal = TransformationTools.computeTransformedX(shapePose, true, pointOnLine);
-      double yLocal = TransformationTools.computeTransformedY(shapePose, true, pointOnLine);
-      double zLocal = TransformationTools.computeTransformedZ(shapePose, true, pointOnLine);
+      double xLocal = toLocalX(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
+      double yLocal = toLocalY(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
+      double zLocal = toLocalZ(pointOnLine.getX(), pointOnLine.getY(), pointOnLine.getZ());
 
-      double dxLocal = TransformationTools.computeTransformedX(shapePose, true, lineDirection);
-      double dyLocal = TransformationTools.computeTransformedY(shapePose, true, lineDirection);
-      double dzLocal = TransformationTools.computeTransformedZ(shapePose, true, lineDirection);
+      double dxLocal = TransformationTools.computeTransformedX(getOrientation(), true, lineDirection);
+      double dyLocal = TransformationTools.computeTransformedY(getOrientation(), true, lineDirection);
+      double dzLocal = TransformationTools.computeTransformedZ(getOrientation(), true, lineDirection);
 
       int numberOfIntersections = EuclidGeometryTools.intersectionBetweenLine3DAndEllipsoid3D(radius, radius, radius, xLocal, yLocal, zLocal, dxLocal, dyLocal,
                                                                                               dzLocal, firstIntersectionToPack, secondIntersectionToPack);
@@ -168,6 +169,22 @@ public class Sphere3D extends Shape3D<Sphere3D>
       return numberOfIntersections;
    }
 
+   /** {@inheritDoc} */
+   @Override
+   protected void getBoundingBoxShapeFrame(double epsilon, BoundingBox3D boundingBoxToPack)
+   {
+      double radiusWithEpsilon = radius + epsilon;
+      boundingBoxToPack.set(-radiusWithEpsilon, -radiusWithEpsilon, -radiusWithEpsilon, radiusWithEpsilon, radiusWithEpsilon, radiusWithEpsilon);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   protected void getSupportingVertexShapeFrame(double directionX, double directionY, double directionZ, Point3DBasics supportingVertexToPack)
+   {
+      double scale = radius / Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+      supportingVertexToPack.set(scale * directionX, scale * directionY, scale * directionZ);
+   }
+
    /** {@inheritDoc} */
    @Override
    protected boolean isInsideEpsilonShapeFrame(double x, double y, double z, double epsilon)
@@ -211,6 +228,19 @@ public class Sphere3D extends Shape3D<Sphere3D>
       return distance - radius;
    }
 
+   /** {@inheritDoc} */
+   @Override
+   protected void signedDistanceShapeFrame(double[] xs, double[] ys, double[] zs, int length, double[] signedDistancesToPack, int offset)
+   {
+      for (int i = 0; i < length; i++)
+      {
+         double x = xs[i];
+         double y = ys[i];
+         double z = zs[i];
+         signedDistancesToPack[offset + i] = Math.sqrt(x * x + y * y + z * z) - radius;
+      }
+   }
+
    /**
     * Tests separately and on a per component basis if the pose and the radius of this sphere and
     * {@code other}'s pose and radius are equal to an {@code epsilon}.
@@ -232,6 +262,7 @@ public class Sphere3D extends Shape3D<Sphere3D>
    {
       super.setToZero();
       radius = 0.0;
+      notifyShapeChanged();
    }
 
    /** {@inheritDoc} */
@@ -240,6 +271,7 @@ public class Sphere3D extends Shape3D<Sphere3D>
    {
       super.setToNaN();
       radius = Double.NaN;
+      notifyShapeChanged();
    }
 
    /** {@inheritDoc} */
@@ -277,6 +309,6 @@ public class Sphere3D extends Shape3D<Sphere3D>
    public boolean geometricallyEquals(Sphere3D other, double epsilon)
    {
       return Math.abs(radius - other.radius) <= epsilon
-            && shapePose.getTranslationVector().geometricallyEquals(other.shapePose.getTranslationVector(), epsilon);
+            && geometricallyEqualsPosition(other, epsilon);
    }
 }
@@ -0,0 +1,426 @@
+package us.ihmc.euclid.geometry;
+
+import us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.Vector3D;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+import us.ihmc.euclid.tuple3D.interfaces.Vector3DReadOnly;
+
+/**
+ * {@code TimeOfImpactCalculator} computes the first time of contact between two moving
+ * {@link Shape3D}s, such that fast moving shapes cannot pass through each other between two
+ * discrete steps.
+ * <p>
+ * The motion of each shape is described by its start and end poses: the position is interpolated
+ * linearly and the orientation is interpolated spherically at constant angular velocity. The time is
+ * normalized such that {@code 0} corresponds to the start poses and {@code 1} to the end poses.
+ * </p>
+ * <p>
+ * The time of impact is computed by conservative advancement: the distance between the two shapes,
+ * computed with the GJK algorithm, is divided by an upper bound of their approach velocity to get a
+ * time step during which they cannot collide, the process being repeated until the distance falls
+ * below {@link #getDistanceTolerance()}. The motions are first tested against each other with their
+ * swept bounding boxes to skip the pairs that cannot collide.
+ * </p>
+ * <p>
+ * The shapes are assumed to be convex. For a {@link Torus3D}, its convex hull is used which results
+ * in a conservative estimate of the time of impact.
+ * </p>
+ * <p>
+ * This calculator does not generate garbage but is not thread-safe, a separate instance should be
+ * used per thread.
+ * </p>
+ */
+public class TimeOfImpactCalculator
+{
+   /** Default distance below which the two shapes are considered to be in contact. */
+   public static final double DEFAULT_DISTANCE_TOLERANCE = 1.0e-4;
+
+   private static final int MAX_NUMBER_OF_ADVANCEMENT_STEPS = 1000;
+   private static final int MAX_NUMBER_OF_GJK_ITERATIONS = 64;
+   /** Relative tolerance used to detect the convergence of the GJK algorithm. */
+   private static final double GJK_RELATIVE_TOLERANCE = 1.0e-10;
+   /** Squared distance below which the two shapes are considered to overlap. */
+   private static final double OVERLAP_DISTANCE_SQUARED = 1.0e-20;
+
+   private double distanceTolerance = DEFAULT_DISTANCE_TOLERANCE;
+
+   private double timeOfImpact = Double.NaN;
+   private final Vector3D normal = new Vector3D();
+   private final Point3D pointOnA = new Point3D();
+   private final Point3D pointOnB = new Point3D();
+
+   // Internal variables used to enable garbage free operations.
+   private final Pose3D interpolatedPoseA = new Pose3D();
+   private final Pose3D interpolatedPoseB = new Pose3D();
+   private final RigidBodyTransform transformA = new RigidBodyTransform();
+   private final RigidBodyTransform transformB = new RigidBodyTransform();
+   private final BoundingBox3D localBoundingBox = new BoundingBox3D();
+   private final BoundingBox3D sweptBoundingBoxA = new BoundingBox3D();
+   private final BoundingBox3D sweptBoundingBoxB = new BoundingBox3D();
+   private final BoundingBox3D endBoundingBox = new BoundingBox3D();
+   private final Point3D supportingVertex = new Point3D();
+
+   private final GJKSimplex3D simplex = new GJKSimplex3D();
+   private final double[] closestPointOnShape = new double[3];
+   private double distanceLowerBound;
+
+   /**
+    * Creates a new calculator using the {@link #DEFAULT_DISTANCE_TOLERANCE}.
+    */
+   public TimeOfImpactCalculator()
+   {
+      clearResult();
+   }
+
+   /**
+    * Sets the distance below which the two shapes are considered to be in contact.
+    * <p>
+    * A larger tolerance reduces the number of iterations needed to converge at the cost of an earlier
+    * time of impact.
+    * </p>
+    *
+    * @param distanceTolerance the new tolerance.
+    * @throws IllegalArgumentException if {@code distanceTolerance} is not strictly positive.
+    */
+   public void setDistanceTolerance(double distanceTolerance)
+   {
+      if (!(distanceTolerance > 0.0))
+         throw new IllegalArgumentException("The distance tolerance has to be strictly positive, was: " + distanceTolerance);
+      this.distanceTolerance = distanceTolerance;
+   }
+
+   /**
+    * Gets the distance below which the two shapes are considered to be in contact.
+    *
+    * @return the distance tolerance.
+    */
+   public double getDistanceTolerance()
+   {
+      return distanceTolerance;
+   }
+
+   /**
+    * Computes the first time at which the two shapes come into contact while moving from their start
+    * poses to their end poses.
+    * <p>
+    * The current pose of each shape is ignored, only its geometry is used. The poses describe the
+    * frame of the shape, i.e. they are the poses the shapes would be given via
+    * {@link Shape3D#setPose(Pose3DReadOnly)}.
+    * </p>
+    * <p>
+    * Edge cases:
+    * <ul>
+    * <li>If the two shapes already overlap at the start poses, the time of impact is {@code 0} and the
+    * normal and contact points are set to {@link Double#NaN}.
+    * </ul>
+    * </p>
+    *
+    * @param shapeA the first shape. Not modified.
+    * @param startPoseA the pose of the first shape at the beginning of the motion. Not modified.
+    * @param endPoseA the pose of the first shape at the end of the motion. Not modified.
+    * @param shapeB the second shape. Not modified.
+    * @param startPoseB the pose of the second shape at the beginning of the motion. Not modified.
+    * @param endPoseB the pose of the second shape at the end of the motion. Not modified.
+    * @return {@code true} if the shapes come into contact during the motion, {@code false} otherwise.
+    */
+   public boolean computeTimeOfImpact(Shape3D<?> shapeA, Pose3DReadOnly startPoseA, Pose3DReadOnly endPoseA, Shape3D<?> shapeB,
+                                      Pose3DReadOnly startPoseB, Pose3DReadOnly endPoseB)
+   {
+      clearResult();
+
+      getSweptBoundingBox(shapeA, startPoseA, endPoseA, sweptBoundingBoxA);
+      getSweptBoundingBox(shapeB, startPoseB, endPoseB, sweptBoundingBoxB);
+
+      if (!sweptBoundingBoxA.intersectsEpsilon(sweptBoundingBoxB, distanceTolerance))
+         return false;
+
+      double boundingRadiusA = computeBoundingRadius(shapeA);
+      double boundingRadiusB = computeBoundingRadius(shapeB);
+      double angularDisplacementA = startPoseA.getOrientationDistance(endPoseA);
+      double angularDisplacementB = startPoseB.getOrientationDistance(endPoseB);
+      // Upper bound of the velocity of any point of a shape due to the rotation.
+      double rotationSpeedBound = angularDisplacementA * boundingRadiusA + angularDisplacementB * boundingRadiusB;
+      double relativeVelocityX = (endPoseB.getX() - startPoseB.getX()) - (endPoseA.getX() - startPoseA.getX());
+      double relativeVelocityY = (endPoseB.getY() - startPoseB.getY()) - (endPoseA.getY() - startPoseA.getY());
+      double relativeVelocityZ = (endPoseB.getZ() - startPoseB.getZ()) - (endPoseA.getZ() - startPoseA.getZ());
+
+      double time = 0.0;
+
+      for (int step = 0; step < MAX_NUMBER_OF_ADVANCEMENT_STEPS; step++)
+      {
+         interpolatedPoseA.interpolate(startPoseA, endPoseA, time);
+         interpolatedPoseB.interpolate(startPoseB, endPoseB, time);
+         interpolatedPoseA.get(transformA);
+         interpolatedPoseB.get(transformB);
+
+         double distance = computeDistance(shapeA, transformA, shapeB, transformB);
+
+         if (distance <= distanceTolerance)
+         {
+            timeOfImpact = time;
+            return true;
+         }
+
+         // The normal points from A to B, the distance shrinks at most at this rate.
+         double approachSpeedBound = -(relativeVelocityX * normal.getX() + relativeVelocityY * normal.getY() + relativeVelocityZ * normal.getZ())
+               + rotationSpeedBound;
+
+         if (approachSpeedBound <= 0.0)
+         {
+            clearResult();
+            return false;
+         }
+
+         // Stopping half-way in the tolerance ensures that the shapes do not overlap at the next step.
+         double nextTime = time + Math.max(0.0, distanceLowerBound - 0.5 * distanceTolerance) / approachSpeedBound;
+
+         if (nextTime > 1.0)
+         {
+            clearResult();
+            return false;
+         }
+
+         // The lower bound of the distance is too loose to advance, repeating the step would give the same result.
+         if (nextTime == time)
+            break;
+
+         time = nextTime;
+      }
+
+      // The shapes are within reach of each other but cannot be advanced or are converging slowly, reporting the current time is conservative.
+      timeOfImpact = time;
+      return true;
+   }
+
+   private void clearResult()
+   {
+      timeOfImpact = Double.NaN;
+      normal.setToNaN();
+      pointOnA.setToNaN();
+      pointOnB.setToNaN();
+   }
+
+   /**
+    * Gets the time of impact computed by the last call to
+    * {@link #computeTimeOfImpact(Shape3D, Pose3DReadOnly, Pose3DReadOnly, Shape3D, Pose3DReadOnly, Pose3DReadOnly)}.
+    *
+    * @return the time of impact in [0, 1], or {@link Double#NaN} if there was no impact.
+    */
+   public double getTimeOfImpact()
+   {
+      return timeOfImpact;
+   }
+
+   /**
+    * Gets the contact normal at the time of impact, pointing from the shape A toward the shape B.
+    *
+    * @return the contact normal, or {@link Double#NaN} if there was no impact.
+    */
+   public Vector3DReadOnly getNormal()
+   {
+      return normal;
+   }
+
+   /**
+    * Gets the point of the shape A that comes into contact at the time of impact.
+    *
+    * @return the contact point on the shape A, or {@link Double#NaN} if there was no impact.
+    */
+   public Point3DReadOnly getPointOnA()
+   {
+      return pointOnA;
+   }
+
+   /**
+    * Gets the point of the shape B that comes into contact at the time of impact.
+    *
+    * @return the contact point on the shape B, or {@link Double#NaN} if there was no impact.
+    */
+   public Point3DReadOnly getPointOnB()
+   {
+      return pointOnB;
+   }
+
+   /**
+    * Packs a bounding box that contains the given shape during its whole motion from
+    * {@code startPose} to {@code endPose}.
+    * <p>
+    * When the shape only translates, the bounding box is the union of the bounding boxes of the shape
+    * at the start and end poses. Otherwise, it is the bounding box of the path of the shape origin
+    * grown by the distance from the origin to the farthest point of the shape.
+    * </p>
+    *
+    * @param shape the moving shape. Not modified.
+    * @param startPose the pose of the shape at the beginning of the motion. Not modified.
+    * @param endPose the pose of the shape at the end of the motion. Not modified.
+    * @param sweptBoundingBoxToPack the bounding box in which the result is stored. Modified.
+    */
+   public void getSweptBoundingBox(Shape3D<?> shape, Pose3DReadOnly startPose, Pose3DReadOnly endPose, BoundingBox3D sweptBoundingBoxToPack)
+   {
+      if (startPose.getOrientation().equals(endPose.getOrientation()))
+      {
+         startPose.get(transformA);
+         getBoundingBox(shape, transformA, sweptBoundingBoxToPack);
+         endPose.get(transformA);
+         getBoundingBox(shape, transformA, endBoundingBox);
+         sweptBoundingBoxToPack.combine(endBoundingBox);
+      }
+      else
+      {
+         double boundingRadius = computeBoundingRadius(shape);
+         sweptBoundingBoxToPack.set(Math.min(startPose.getX(), endPose.getX()) - boundingRadius, Math.min(startPose.getY(), endPose.getY()) - boundingRadius,
+                                    Math.min(startPose.getZ(), endPose.getZ()) - boundingRadius, Math.max(startPose.getX(), endPose.getX()) + boundingRadius,
+                                    Math.max(startPose.getY(), endPose.getY()) + boundingRadius, Math.max(startPose.getZ(), endPose.getZ()) + boundingRadius);
+      }
+   }
+
+   private void getBoundingBox(Shape3D<?> shape, RigidBodyTransform pose, BoundingBox3D boundingBoxToPack)
+   {
+      shape.getBoundingBoxShapeFrame(0.0, localBoundingBox);
+
+      double halfSizeX = 0.5 * (localBoundingBox.getMaxX() - localBoundingBox.getMinX());
+      double halfSizeY = 0.5 * (localBoundingBox.getMaxY() - localBoundingBox.getMinY());
+      double halfSizeZ = 0.5 * (localBoundingBox.getMaxZ() - localBoundingBox.getMinZ());
+      double centerX = 0.5 * (localBoundingBox.getMaxX() + localBoundingBox.getMinX());
+      double centerY = 0.5 * (localBoundingBox.getMaxY() + localBoundingBox.getMinY());
+      double centerZ = 0.5 * (localBoundingBox.getMaxZ() + localBoundingBox.getMinZ());
+
+      double worldCenterX = pose.getM00() * centerX + pose.getM01() * centerY + pose.getM02() * centerZ + pose.getM03();
+      double worldCenterY = pose.getM10() * centerX + pose.getM11() * centerY + pose.getM12() * centerZ + pose.getM13();
+      double worldCenterZ = pose.getM20() * centerX + pose.getM21() * centerY + pose.getM22() * centerZ + pose.getM23();
+      double worldHalfSizeX = Math.abs(pose.getM00()) * halfSizeX + Math.abs(pose.getM01()) * halfSizeY + Math.abs(pose.getM02()) * halfSizeZ;
+      double worldHalfSizeY = Math.abs(pose.getM10()) * halfSizeX + Math.abs(pose.getM11()) * halfSizeY + Math.abs(pose.getM12()) * halfSizeZ;
+      double worldHalfSizeZ = Math.abs(pose.getM20()) * halfSizeX + Math.abs(pose.getM21()) * halfSizeY + Math.abs(pose.getM22()) * halfSizeZ;
+
+      boundingBoxToPack.set(worldCenterX - worldHalfSizeX, worldCenterY - worldHalfSizeY, worldCenterZ - worldHalfSizeZ, worldCenterX + worldHalfSizeX,
+                            worldCenterY + worldHalfSizeY, worldCenterZ + worldHalfSizeZ);
+   }
+
+   /**
+    * Computes an upper bound of the distance between the origin of the shape and any of its points
+    * from the corners of its local bounds.
+    */
+   private double computeBoundingRadius(Shape3D<?> shape)
+   {
+      shape.getBoundingBoxShapeFrame(0.0, localBoundingBox);
+      double x = Math.max(Math.abs(localBoundingBox.getMinX()), Math.abs(localBoundingBox.getMaxX()));
+      double y = Math.max(Math.abs(localBoundingBox.getMinY()), Math.abs(localBoundingBox.getMaxY()));
+      double z = Math.max(Math.abs(localBoundingBox.getMinZ()), Math.abs(localBoundingBox.getMaxZ()));
+      double boundingRadius = Math.sqrt(x * x + y * y + z * z);
+
+      if (Double.isInfinite(boundingRadius))
+         throw new IllegalArgumentException("The shape " + shape.getClass().getSimpleName() + " does not provide finite bounds.");
+      return boundingRadius;
+   }
+
+   /**
+    * Computes the distance between the two shapes at the given poses with the GJK algorithm and packs
+    * the closest points and the normal.
+    * <p>
+    * The returned distance is an upper bound of the actual distance, the lower bound is stored in
+    * {@link #distanceLowerBound}. Both bounds are within the GJK tolerance from each other once the
+    * algorithm has converged.
+    * </p>
+    *
+    * @return the distance between the two shapes, {@code 0} if they overlap.
+    */
+   private double computeDistance(Shape3D<?> shapeA, RigidBodyTransform poseA, Shape3D<?> shapeB, RigidBodyTransform poseB)
+   {
+      double directionX = poseA.getM03() - poseB.getM03();
+      double directionY = poseA.getM13() - poseB.getM13();
+      double directionZ = poseA.getM23() - poseB.getM23();
+
+      if (directionX * directionX + directionY * directionY + directionZ * directionZ < OVERLAP_DISTANCE_SQUARED)
+         directionX = 1.0;
+
+      simplex.clear();
+      addSupportingVertex(shapeA, poseA, shapeB, poseB, directionX, directionY, directionZ);
+
+      double upperBoundSquared = Double.POSITIVE_INFINITY;
+      distanceLowerBound = 0.0;
+
+      for (int iteration = 0; iteration < MAX_NUMBER_OF_GJK_ITERATIONS; iteration++)
+      {
+         double vx = simplex.closestPoint[0];
+         double vy = simplex.closestPoint[1];
+         double vz = simplex.closestPoint[2];
+         double normSquared = vx * vx + vy * vy + vz * vz;
+
+         // The distance to the simplex has to decrease, otherwise the algorithm is cycling because of numerical errors.
+         if (normSquared >= upperBoundSquared)
+            break;
+
+         upperBoundSquared = normSquared;
+         packClosestPoints();
+
+         if (normSquared < OVERLAP_DISTANCE_SQUARED)
+            return packOverlap();
+
+         int newVertex = addSupportingVertex(shapeA, poseA, shapeB, poseB, -vx, -vy, -vz);
+         int offset = 3 * newVertex;
+         double dot = vx * simplex.vertices[offset] + vy * simplex.vertices[offset + 1] + vz * simplex.vertices[offset + 2];
+         // No point of A - B goes further than the new vertex along -v.
+         distanceLowerBound = Math.max(distanceLowerBound, dot / Math.sqrt(normSquared));
+
+         if (normSquared - dot <= GJK_RELATIVE_TOLERANCE * normSquared || simplex.isDuplicateVertex(newVertex))
+            break; // No significant progress, the closest point has been found.
+
+         if (!simplex.update())
+         { // The origin is inside the simplex, unless it is degenerate in which case the lower bound proves the shapes are apart.
+            if (distanceLowerBound > 0.0)
+               break;
+            return packOverlap();
+         }
+      }
+
+      normal.sub(pointOnB, pointOnA);
+      double distance = Math.sqrt(upperBoundSquared);
+      normal.scale(1.0 / distance);
+      return distance;
+   }
+
+   private double packOverlap()
+   {
+      distanceLowerBound = 0.0;
+      normal.setToNaN();
+      pointOnA.setToNaN();
+      pointOnB.setToNaN();
+      return 0.0;
+   }
+
+   private void packClosestPoints()
+   {
+      simplex.packClosestPoint(true, closestPointOnShape);
+      pointOnA.set(closestPointOnShape[0], closestPointOnShape[1], closestPointOnShape[2]);
+      simplex.packClosestPoint(false, closestPointOnShape);
+      pointOnB.set(closestPointOnShape[0], closestPointOnShape[1], closestPointOnShape[2]);
+   }
+
+   /**
+    * Adds to the simplex the supporting vertex of the Minkowski difference A - B in the given
+    * direction.
+    *
+    * @return the index of the new vertex.
+    */
+   private int addSupportingVertex(Shape3D<?> shapeA, RigidBodyTransform poseA, Shape3D<?> shapeB, RigidBodyTransform poseB, double directionX,
+                                   double directionY, double directionZ)
+   {
+      packSupportingVertex(shapeA, poseA, directionX, directionY, directionZ);
+      double aX = supportingVertex.getX();
+      double aY = supportingVertex.getY();
+      double aZ = supportingVertex.getZ();
+      packSupportingVertex(shapeB, poseB, -directionX, -directionY, -directionZ);
+      return simplex.addVertex(aX, aY, aZ, supportingVertex.getX(), supportingVertex.getY(), supportingVertex.getZ());
+   }
+
+   private void packSupportingVertex(Shape3D<?> shape, RigidBodyTransform pose, double directionX, double directionY, double directionZ)
+   {
+      double localX = pose.getM00() * directionX + pose.getM10() * directionY + pose.getM20() * directionZ;
+      double localY = pose.getM01() * directionX + pose.getM11() * directionY + pose.getM21() * directionZ;
+      double localZ = pose.getM02() * directionX + pose.getM12() * directionY + pose.getM22() * directionZ;
+      shape.getSupportingVertexShapeFrame(localX, localY, localZ, supportingVertex);
+      pose.transform(supportingVertex);
+   }
+}
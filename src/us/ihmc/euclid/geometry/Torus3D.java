@@ -28,6 +28,8 @@ public class Torus3D extends Shape3D<Torus3D>
    public static final double MIN_TUBE_RADIUS = 1.0e-4;
    /** The minimum allowable value for the major radius. */
    public static final double MIN_INNER_RADIUS = 1.0e-4;
+   /** Relative threshold below which a support direction is considered to be parallel to the axis. */
+   private static final double SUPPORT_DIRECTION_EPSILON = 1.0e-12;
 
    /** It is the radius for the center of the torus to the center of the tube. */
    private double radius;
@@ -104,6 +106,7 @@ public class Torus3D extends Shape3D<Torus3D>
       setPose(other);
       radius = other.radius;
       tubeRadius = other.tubeRadius;
+      notifyShapeChanged();
    }
 
    /**
@@ -148,6 +151,7 @@ public class Torus3D extends Shape3D<Torus3D>
    {
       this.radius = radius;
       this.tubeRadius = tubeRadius;
+      notifyShapeChanged();
 
       if (radius - tubeRadius < MIN_INNER_RADIUS)
          throw new IllegalArgumentException("Invalid dimensions: Difference between radius and tube radius is too small, difference: " + (radius - tubeRadius)
@@ -200,6 +204,7 @@ public class Torus3D extends Shape3D<Torus3D>
       super.setToZero();
       radius = 0.0;
       tubeRadius = 0.0;
+      notifyShapeChanged();
    }
 
    /** {@inheritDoc} */
@@ -209,6 +214,7 @@ public class Torus3D extends Shape3D<Torus3D>
       super.setToNaN();
       radius = Double.NaN;
       tubeRadius = Double.NaN;
+      notifyShapeChanged();
    }
 
    /** {@inheritDoc} */
@@ -233,6 +239,34 @@ public class Torus3D extends Shape3D<Torus3D>
       return "Torus: radius = " + radius + ", tube radius = " + tubeRadius + ", pose =\n" + getPoseString();
    }
 
+   /** {@inheritDoc} */
+   @Override
+   protected void getBoundingBoxShapeFrame(double epsilon, BoundingBox3D boundingBoxToPack)
+   {
+      double outerRadius = radius + tubeRadius + epsilon;
+      double tubeRadiusWithEpsilon = tubeRadius + epsilon;
+      boundingBoxToPack.set(-outerRadius, -outerRadius, -tubeRadiusWithEpsilon, outerRadius, outerRadius, tubeRadiusWithEpsilon);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   protected void getSupportingVertexShapeFrame(double directionX, double directionY, double directionZ, Point3DBasics supportingVertexToPack)
+   {
+      double directionNorm = Math.sqrt(directionX * directionX + directionY * directionY + directionZ * directionZ);
+      double directionXYNorm = Math.sqrt(directionX * directionX + directionY * directionY);
+      double tubeScale = tubeRadius / directionNorm;
+
+      if (directionXYNorm > SUPPORT_DIRECTION_EPSILON * directionNorm)
+      {
+         double radiusScale = radius / directionXYNorm;
+         supportingVertexToPack.set((radiusScale + tubeScale) * directionX, (radiusScale + tubeScale) * directionY, tubeScale * directionZ);
+      }
+      else // Along the axis, any point of the tube circle is a supporting vertex.
+      {
+         supportingVertexToPack.set(radius + tubeScale * directionX, tubeScale * directionY, tubeScale * directionZ);
+      }
+   }
+
    /** {@inheritDoc} */
    @Override
    protected boolean isInsideEpsilonShapeFrame(double x, double y, double z, double epsilon)
@@ -298,6 +332,19 @@ public class Torus3D extends Shape3D<Torus3D>
 
          double distance = Math.sqrt(normSquared(dx, dy, dz));
 
+         if (distance == 0.0)
+         { // The query is on the center circle of the tube, any direction orthogonal to the circle leads to a closest point.
+            double radialX = closestTubeCenterX / radius;
+            double radialY = closestTubeCenterY / radius;
+
+            if (closestPointToPack != null)
+               closestPointToPack.set(closestTubeCenterX + tubeRadius * radialX, closestTubeCenterY + tubeRadius * radialY, 0.0);
+            if (normalToPack != null)
+               normalToPack.set(radialX, radialY, 0.0);
+
+            return -tubeRadius;
+         }
+
          double distanceInv = 1.0 / distance;
 
          if (closestPointToPack != null)
@@ -317,6 +364,22 @@ public class Torus3D extends Shape3D<Torus3D>
       }
    }
 
+   /** {@inheritDoc} */
+   @Override
+   protected void signedDistanceShapeFrame(double[] xs, double[] ys, double[] zs, int length, double[] signedDistancesToPack, int offset)
+   {
+      for (int i = 0; i < length; i++)
+      {
+         double x = xs[i];
+         double y = ys[i];
+         double z = zs[i];
+         double xyLengthSquared = x * x + y * y;
+         // Distance from the query to the closest point on the tube center circle.
+         double dxy = xyLengthSquared < 1.0e-12 ? radius : Math.sqrt(xyLengthSquared) - radius;
+         signedDistancesToPack[offset + i] = Math.sqrt(dxy * dxy + z * z) - tubeRadius;
+      }
+   }
+
    /**
     * Compares {@code this} and {@code other} to determine if the two tori are geometrically similar.
     * <p>
@@ -335,7 +398,7 @@ public class Torus3D extends Shape3D<Torus3D>
       if (Math.abs(radius - other.radius) > epsilon || Math.abs(tubeRadius - other.tubeRadius) > epsilon)
          return false;
 
-      if (!shapePose.getTranslationVector().geometricallyEquals(other.shapePose.getTranslationVector(), epsilon))
+      if (!geometricallyEqualsPosition(other, epsilon))
          return false;
 
       /*
@@ -348,7 +411,7 @@ public class Torus3D extends Shape3D<Torus3D>
        * and M22 in shapePose) are aligned vectors.
        */
 
-      return EuclidGeometryTools.areVector3DsParallel(shapePose.getM02(), shapePose.getM12(), shapePose.getM22(), other.shapePose.getM02(),
-                                                      other.shapePose.getM12(), other.shapePose.getM22(), epsilon);
+      return EuclidGeometryTools.areVector3DsParallel(getOrientation().getM02(), getOrientation().getM12(), getOrientation().getM22(), other.getOrientation().getM02(),
+                                                      other.getOrientation().getM12(), other.getOrientation().getM22(), epsilon);
    }
 }
@@ -1,7 +1,6 @@
 package us.ihmc.euclid.geometry.interfaces;
 
 import us.ihmc.euclid.tools.EuclidCoreTools;
-import us.ihmc.euclid.tools.RotationMatrixTools;
 import us.ihmc.euclid.tuple2D.interfaces.Tuple2DBasics;
 import us.ihmc.euclid.tuple2D.interfaces.Tuple2DReadOnly;
 import us.ihmc.euclid.tuple3D.interfaces.Tuple3DBasics;
@@ -24,6 +23,32 @@ public interface Orientation2DReadOnly
     */
    double getYaw();
 
+   /**
+    * Returns the cosine of the yaw angle of this orientation 2D.
+    * <p>
+    * Implementations may cache this value such that it is only recomputed when the yaw changes.
+    * </p>
+    *
+    * @return the cosine of the yaw angle.
+    */
+   default double getCosYaw()
+   {
+      return Math.cos(getYaw());
+   }
+
+   /**
+    * Returns the sine of the yaw angle of this orientation 2D.
+    * <p>
+    * Implementations may cache this value such that it is only recomputed when the yaw changes.
+    * </p>
+    *
+    * @return the sine of the yaw angle.
+    */
+   default double getSinYaw()
+   {
+      return Math.sin(getYaw());
+   }
+
    /**
     * Tests if this orientation 2D contains {@link Double#NaN}.
     *
@@ -90,7 +115,11 @@ public interface Orientation2DReadOnly
     */
    default void transform(Tuple2DReadOnly tupleOriginal, Tuple2DBasics tupleTransformed)
    {
-      RotationMatrixTools.applyYawRotation(getYaw(), tupleOriginal, tupleTransformed);
+      double cosYaw = getCosYaw();
+      double sinYaw = getSinYaw();
+      double x = tupleOriginal.getX();
+      double y = tupleOriginal.getY();
+      tupleTransformed.set(cosYaw * x - sinYaw * y, sinYaw * x + cosYaw * y);
    }
 
    /**
@@ -124,7 +153,11 @@ public interface Orientation2DReadOnly
     */
    default void transform(Tuple3DReadOnly tupleOriginal, Tuple3DBasics tupleTransformed)
    {
-      RotationMatrixTools.applyYawRotation(getYaw(), tupleOriginal, tupleTransformed);
+      double cosYaw = getCosYaw();
+      double sinYaw = getSinYaw();
+      double x = tupleOriginal.getX();
+      double y = tupleOriginal.getY();
+      tupleTransformed.set(cosYaw * x - sinYaw * y, sinYaw * x + cosYaw * y, tupleOriginal.getZ());
    }
 
    /**
@@ -157,7 +190,11 @@ public interface Orientation2DReadOnly
     */
    default void inverseTransform(Tuple2DReadOnly tupleOriginal, Tuple2DBasics tupleTransformed)
    {
-      RotationMatrixTools.applyYawRotation(-getYaw(), tupleOriginal, tupleTransformed);
+      double cosYaw = getCosYaw();
+      double sinYaw = getSinYaw();
+      double x = tupleOriginal.getX();
+      double y = tupleOriginal.getY();
+      tupleTransformed.set(cosYaw * x + sinYaw * y, -sinYaw * x + cosYaw * y);
    }
 
    /**
@@ -192,7 +229,62 @@ public interface Orientation2DReadOnly
     */
    default void inverseTransform(Tuple3DReadOnly tupleOriginal, Tuple3DBasics tupleTransformed)
    {
-      RotationMatrixTools.applyYawRotation(-getYaw(), tupleOriginal, tupleTransformed);
+      double cosYaw = getCosYaw();
+      double sinYaw = getSinYaw();
+      double x = tupleOriginal.getX();
+      double y = tupleOriginal.getY();
+      tupleTransformed.set(cosYaw * x + sinYaw * y, -sinYaw * x + cosYaw * y, tupleOriginal.getZ());
+   }
+
+   /**
+    * Transforms the points of the given range by the rotation about the z-axis described by this.
+    * <p>
+    * The cosine and sine of the yaw angle are evaluated once for the whole range.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points to transform. Modified.
+    * @param ys the y-coordinates of the points to transform. Modified.
+    * @param startIndex the index of the first point to transform.
+    * @param endIndex the index after the last point to transform.
+    */
+   default void transform(double[] xs, double[] ys, int startIndex, int endIndex)
+   {
+      double cosYaw = getCosYaw();
+      double sinYaw = getSinYaw();
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         double x = xs[i];
+         double y = ys[i];
+         xs[i] = cosYaw * x - sinYaw * y;
+         ys[i] = sinYaw * x + cosYaw * y;
+      }
+   }
+
+   /**
+    * Performs the inverse of the transform to the points of the given range by the rotation about the
+    * z-axis described by this.
+    * <p>
+    * The cosine and sine of the yaw angle are evaluated once for the whole range.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points to transform. Modified.
+    * @param ys the y-coordinates of the points to transform. Modified.
+    * @param startIndex the index of the first point to transform.
+    * @param endIndex the index after the last point to transform.
+    */
+   default void inverseTransform(double[] xs, double[] ys, int startIndex, int endIndex)
+   {
+      double cosYaw = getCosYaw();
+      double sinYaw = getSinYaw();
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         double x = xs[i];
+         double y = ys[i];
+         xs[i] = cosYaw * x + sinYaw * y;
+         ys[i] = -sinYaw * x + cosYaw * y;
+      }
    }
 
    /**
@@ -357,12 +357,9 @@ public interface Pose2DBasics extends Pose2DReadOnly, Clearable, Transformable
     */
    default void appendTranslation(double x, double y)
    {
-      double thisX = getPosition().getX();
-      double thisY = getPosition().getY();
-
-      getPosition().set(x, y);
-      getOrientation().transform(getPosition());
-      getPosition().add(thisX, thisY);
+      double cosYaw = getOrientation().getCosYaw();
+      double sinYaw = getOrientation().getSinYaw();
+      getPosition().add(cosYaw * x - sinYaw * y, sinYaw * x + cosYaw * y);
    }
 
    /**
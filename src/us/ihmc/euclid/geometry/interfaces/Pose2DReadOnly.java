@@ -1,5 +1,6 @@
 package us.ihmc.euclid.geometry.interfaces;
 
+import us.ihmc.euclid.tools.EuclidCoreTools;
 import us.ihmc.euclid.transform.RigidBodyTransform;
 import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
 
@@ -123,6 +124,113 @@ public interface Pose2DReadOnly
       return getOrientation().distance(other.getOrientation());
    }
 
+   /**
+    * Transforms the points of the given range by this pose 2D, i.e. rotates them by the orientation
+    * part and then translates them by the position part.
+    * <p>
+    * The cosine and sine of the yaw angle are evaluated once for the whole range.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points to transform. Modified.
+    * @param ys the y-coordinates of the points to transform. Modified.
+    * @param startIndex the index of the first point to transform.
+    * @param endIndex the index after the last point to transform.
+    */
+   default void transform(double[] xs, double[] ys, int startIndex, int endIndex)
+   {
+      double cosYaw = getOrientation().getCosYaw();
+      double sinYaw = getOrientation().getSinYaw();
+      double translationX = getX();
+      double translationY = getY();
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         double x = xs[i];
+         double y = ys[i];
+         xs[i] = cosYaw * x - sinYaw * y + translationX;
+         ys[i] = sinYaw * x + cosYaw * y + translationY;
+      }
+   }
+
+   /**
+    * Performs the inverse of the transform to the points of the given range by this pose 2D, i.e.
+    * subtracts the position part and then rotates them by the inverse of the orientation part.
+    * <p>
+    * The cosine and sine of the yaw angle are evaluated once for the whole range.
+    * </p>
+    *
+    * @param xs the x-coordinates of the points to transform. Modified.
+    * @param ys the y-coordinates of the points to transform. Modified.
+    * @param startIndex the index of the first point to transform.
+    * @param endIndex the index after the last point to transform.
+    */
+   default void inverseTransform(double[] xs, double[] ys, int startIndex, int endIndex)
+   {
+      double cosYaw = getOrientation().getCosYaw();
+      double sinYaw = getOrientation().getSinYaw();
+      double translationX = getX();
+      double translationY = getY();
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         double x = xs[i] - translationX;
+         double y = ys[i] - translationY;
+         xs[i] = cosYaw * x + sinYaw * y;
+         ys[i] = -sinYaw * x + cosYaw * y;
+      }
+   }
+
+   /**
+    * Transforms the poses of the given range by this pose 2D, i.e. each pose is set to the
+    * composition of this pose with it: the position is transformed as a point and this yaw angle is
+    * added to the orientation.
+    * <p>
+    * This is equivalent to calling {@link Pose2DBasics#prependRotation(double)} followed by
+    * {@link Pose2DBasics#prependTranslation(double, double)} on each pose, with the cosine and sine of
+    * the yaw angle evaluated once for the whole range.
+    * </p>
+    *
+    * @param xs the x-coordinates of the poses to transform. Modified.
+    * @param ys the y-coordinates of the poses to transform. Modified.
+    * @param yaws the yaw angles of the poses to transform, the results are in [-<i>pi</i>,
+    *           <i>pi</i>]. Modified.
+    * @param startIndex the index of the first pose to transform.
+    * @param endIndex the index after the last pose to transform.
+    */
+   default void transform(double[] xs, double[] ys, double[] yaws, int startIndex, int endIndex)
+   {
+      transform(xs, ys, startIndex, endIndex);
+
+      double yaw = getYaw();
+
+      for (int i = startIndex; i < endIndex; i++)
+         yaws[i] = EuclidCoreTools.trimAngleMinusPiToPi(yaws[i] + yaw);
+   }
+
+   /**
+    * Performs the inverse of the transform to the poses of the given range by this pose 2D, i.e. each
+    * pose is expressed in the local coordinates described by this pose 2D.
+    * <p>
+    * The cosine and sine of the yaw angle are evaluated once for the whole range.
+    * </p>
+    *
+    * @param xs the x-coordinates of the poses to transform. Modified.
+    * @param ys the y-coordinates of the poses to transform. Modified.
+    * @param yaws the yaw angles of the poses to transform, the results are in [-<i>pi</i>,
+    *           <i>pi</i>]. Modified.
+    * @param startIndex the index of the first pose to transform.
+    * @param endIndex the index after the last pose to transform.
+    */
+   default void inverseTransform(double[] xs, double[] ys, double[] yaws, int startIndex, int endIndex)
+   {
+      inverseTransform(xs, ys, startIndex, endIndex);
+
+      double yaw = getYaw();
+
+      for (int i = startIndex; i < endIndex; i++)
+         yaws[i] = EuclidCoreTools.trimAngleMinusPiToPi(yaws[i] - yaw);
+   }
+
    /**
     * Tests on a per component basis, if this pose 2D is exactly equal to {@code other}.
     *
@@ -6,24 +6,44 @@ import static us.ihmc.euclid.tools.EuclidCoreIOTools.getTuple2DString;
 import static us.ihmc.euclid.tools.EuclidCoreIOTools.getTuple3DString;
 import static us.ihmc.euclid.tools.EuclidCoreIOTools.getTuple4DString;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 import us.ihmc.euclid.geometry.BoundingBox3D;
+import us.ihmc.euclid.geometry.Box3D;
+import us.ihmc.euclid.geometry.Cylinder3D;
+import us.ihmc.euclid.geometry.Ellipsoid3D;
 import us.ihmc.euclid.geometry.LineSegment1D;
 import us.ihmc.euclid.geometry.Plane3D;
+import us.ihmc.euclid.geometry.Ramp3D;
+import us.ihmc.euclid.geometry.Shape3D;
+import us.ihmc.euclid.geometry.Sphere3D;
+import us.ihmc.euclid.geometry.Torus3D;
+import us.ihmc.euclid.geometry.interfaces.BoundingBox2DBasics;
 import us.ihmc.euclid.geometry.interfaces.BoundingBox2DReadOnly;
+import us.ihmc.euclid.geometry.interfaces.ConvexPolygon2DBasics;
 import us.ihmc.euclid.geometry.interfaces.ConvexPolygon2DReadOnly;
+import us.ihmc.euclid.geometry.interfaces.Line2DBasics;
 import us.ihmc.euclid.geometry.interfaces.Line2DReadOnly;
+import us.ihmc.euclid.geometry.interfaces.Line3DBasics;
 import us.ihmc.euclid.geometry.interfaces.Line3DReadOnly;
+import us.ihmc.euclid.geometry.interfaces.LineSegment2DBasics;
 import us.ihmc.euclid.geometry.interfaces.LineSegment2DReadOnly;
+import us.ihmc.euclid.geometry.interfaces.LineSegment3DBasics;
 import us.ihmc.euclid.geometry.interfaces.LineSegment3DReadOnly;
+import us.ihmc.euclid.geometry.interfaces.Orientation2DBasics;
 import us.ihmc.euclid.geometry.interfaces.Orientation2DReadOnly;
+import us.ihmc.euclid.geometry.interfaces.Pose2DBasics;
 import us.ihmc.euclid.geometry.interfaces.Pose2DReadOnly;
+import us.ihmc.euclid.geometry.interfaces.Pose3DBasics;
 import us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly;
+import us.ihmc.euclid.matrix.interfaces.RotationMatrixReadOnly;
 import us.ihmc.euclid.tools.EuclidCoreIOTools;
 import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
+import us.ihmc.euclid.tuple2D.interfaces.Tuple2DReadOnly;
 import us.ihmc.euclid.tuple2D.interfaces.Vector2DReadOnly;
 import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+import us.ihmc.euclid.tuple3D.interfaces.Tuple3DReadOnly;
 import us.ihmc.euclid.tuple3D.interfaces.Vector3DReadOnly;
 import us.ihmc.euclid.tuple4D.interfaces.QuaternionReadOnly;
 
@@ -34,11 +54,81 @@ import us.ihmc.euclid.tuple4D.interfaces.QuaternionReadOnly;
  * At this time, only a few print tools are offered, additional features will come in future
  * releases.
  * </p>
+ * <p>
+ * The {@code append*} methods provide the same representations as the {@code get*String} methods
+ * using {@link #DEFAULT_PRECISION} or a given number of decimals. They write directly into a
+ * {@code StringBuilder} with a fixed-precision formatter instead of {@link String#format}, and can
+ * be read back with the matching {@code parse*} methods.
+ * </p>
+ * <p>
+ * In addition to the print tools, a compact binary codec is provided for streaming and logging
+ * geometry objects. Each record is written into a {@link ByteBuffer}, heap or direct, as a header
+ * made of a type identifier and a format version followed by the raw coordinates of the object. The
+ * header is padded to 8 bytes such that the coordinates of a record starting at an aligned position
+ * are aligned too. The codec does not generate garbage and does not change the byte order of the
+ * buffers.
+ * </p>
  *
  * @author Sylvain Bertrand
  */
 public class EuclidGeometryIOTools
 {
+   /**
+    * Number of decimals used by the {@code append*} methods by default, consistent with
+    * {@link EuclidCoreIOTools#DEFAULT_FORMAT}.
+    */
+   public static final int DEFAULT_PRECISION = 3;
+   private static final double[] POWERS_OF_TEN = {1.0e0, 1.0e1, 1.0e2, 1.0e3, 1.0e4, 1.0e5, 1.0e6, 1.0e7, 1.0e8, 1.0e9, 1.0e10, 1.0e11, 1.0e12, 1.0e13,
+         1.0e14, 1.0e15, 1.0e16, 1.0e17, 1.0e18, 1.0e19, 1.0e20, 1.0e21, 1.0e22};
+
+   /**
+    * Version of the binary format written by the binary codec of this class.
+    * <p>
+    * Version 2 appends the radial approximation flag to the records of {@code Ellipsoid3D}, the
+    * records of version 1 can still be read.
+    * </p>
+    */
+   public static final byte BINARY_FORMAT_VERSION = 2;
+   /**
+    * Size in bytes of the header preceding every binary record: the type identifier, the format
+    * version, and padding to keep the following doubles aligned.
+    */
+   public static final int BINARY_HEADER_SIZE = Long.BYTES;
+
+   /** Type identifier of a binary record holding a {@code Pose3D}. */
+   public static final byte POSE3D_BINARY_ID = 1;
+   /** Type identifier of a binary record holding a {@code BoundingBox3D}. */
+   public static final byte BOUNDINGBOX3D_BINARY_ID = 2;
+   /** Type identifier of a binary record holding a {@code Plane3D}. */
+   public static final byte PLANE3D_BINARY_ID = 3;
+   /** Type identifier of a binary record holding a {@code LineSegment3D}. */
+   public static final byte LINESEGMENT3D_BINARY_ID = 4;
+   /** Type identifier of a binary record holding a {@code ConvexPolygon2D}. */
+   public static final byte CONVEXPOLYGON2D_BINARY_ID = 5;
+   /** Type identifier of a binary record holding a {@code Box3D}. */
+   public static final byte BOX3D_BINARY_ID = 16;
+   /** Type identifier of a binary record holding a {@code Cylinder3D}. */
+   public static final byte CYLINDER3D_BINARY_ID = 17;
+   /** Type identifier of a binary record holding a {@code Ellipsoid3D}. */
+   public static final byte ELLIPSOID3D_BINARY_ID = 18;
+   /** Type identifier of a binary record holding a {@code Ramp3D}. */
+   public static final byte RAMP3D_BINARY_ID = 19;
+   /** Type identifier of a binary record holding a {@code Sphere3D}. */
+   public static final byte SPHERE3D_BINARY_ID = 20;
+   /** Type identifier of a binary record holding a {@code Torus3D}. */
+   public static final byte TORUS3D_BINARY_ID = 21;
+
+   /** Size in bytes of the binary record of a pose 3D: header, position, and quaternion. */
+   public static final int POSE3D_BINARY_SIZE = BINARY_HEADER_SIZE + 7 * Double.BYTES;
+   /** Size in bytes of the binary record of a bounding box 3D: header, min and max coordinates. */
+   public static final int BOUNDINGBOX3D_BINARY_SIZE = BINARY_HEADER_SIZE + 6 * Double.BYTES;
+   /** Size in bytes of the binary record of a plane 3D: header, point, and normal. */
+   public static final int PLANE3D_BINARY_SIZE = BINARY_HEADER_SIZE + 6 * Double.BYTES;
+   /** Size in bytes of the binary record of a line segment 3D: header and both endpoints. */
+   public static final int LINESEGMENT3D_BINARY_SIZE = BINARY_HEADER_SIZE + 6 * Double.BYTES;
+   /** Size in bytes of the pose part of the binary record of a shape 3D. */
+   private static final int SHAPE3D_POSE_BINARY_SIZE = 12 * Double.BYTES;
+
    /**
     * Gets a representative {@code String} of {@code line2D} as follows:
     *
@@ -762,4 +852,1520 @@ public class EuclidGeometryIOTools
       string += getTuple2DString(format, vertices.get(numberOfVertices - 1)) + " ]";
       return string;
    }
+
+   /**
+    * Appends a representative {@code String} of {@code line2D} to the given {@code StringBuilder}
+    * using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Line 2D: point = ( 0.174,  0.732 ), direction = (-0.380,  0.130 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param line2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLine2D(StringBuilder stringBuilder, Line2DReadOnly line2D)
+   {
+      return appendLine2D(stringBuilder, DEFAULT_PRECISION, line2D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code line2D} to the given {@code StringBuilder}
+    * using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param line2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLine2D(StringBuilder stringBuilder, int precision, Line2DReadOnly line2D)
+   {
+      if (line2D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Line 2D: point = ");
+      appendTuple2D(stringBuilder, precision, line2D.getPoint());
+      stringBuilder.append(", direction = ");
+      return appendTuple2D(stringBuilder, precision, line2D.getDirection());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code line3D} to the given {@code StringBuilder}
+    * using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Line 3D: point = ( 0.174,  0.732, -0.222 ), direction = (-0.558, -0.380,  0.130 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param line3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLine3D(StringBuilder stringBuilder, Line3DReadOnly line3D)
+   {
+      return appendLine3D(stringBuilder, DEFAULT_PRECISION, line3D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code line3D} to the given {@code StringBuilder}
+    * using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param line3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLine3D(StringBuilder stringBuilder, int precision, Line3DReadOnly line3D)
+   {
+      if (line3D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Line 3D: point = ");
+      appendTuple3D(stringBuilder, precision, line3D.getPoint());
+      stringBuilder.append(", direction = ");
+      return appendTuple3D(stringBuilder, precision, line3D.getDirection());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code lineSegment1D} to the given
+    * {@code StringBuilder} using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Line segment 1D: 1st endpoint = ( 0.732 ), 2nd endpoint = (-0.558 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param lineSegment1D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLineSegment1D(StringBuilder stringBuilder, LineSegment1D lineSegment1D)
+   {
+      return appendLineSegment1D(stringBuilder, DEFAULT_PRECISION, lineSegment1D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code lineSegment1D} to the given
+    * {@code StringBuilder} using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param lineSegment1D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLineSegment1D(StringBuilder stringBuilder, int precision, LineSegment1D lineSegment1D)
+   {
+      if (lineSegment1D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Line segment 1D: 1st endpoint = ");
+      appendTuple1D(stringBuilder, precision, lineSegment1D.getFirstEndpoint());
+      stringBuilder.append(", 2nd endpoint = ");
+      return appendTuple1D(stringBuilder, precision, lineSegment1D.getSecondEndpoint());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code lineSegment2D} to the given
+    * {@code StringBuilder} using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Line segment 2D: 1st endpoint = ( 0.174,  0.732 ), 2nd endpoint = (-0.558,  0.130 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param lineSegment2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLineSegment2D(StringBuilder stringBuilder, LineSegment2DReadOnly lineSegment2D)
+   {
+      return appendLineSegment2D(stringBuilder, DEFAULT_PRECISION, lineSegment2D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code lineSegment2D} to the given
+    * {@code StringBuilder} using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param lineSegment2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLineSegment2D(StringBuilder stringBuilder, int precision, LineSegment2DReadOnly lineSegment2D)
+   {
+      if (lineSegment2D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Line segment 2D: 1st endpoint = ");
+      appendTuple2D(stringBuilder, precision, lineSegment2D.getFirstEndpoint());
+      stringBuilder.append(", 2nd endpoint = ");
+      return appendTuple2D(stringBuilder, precision, lineSegment2D.getSecondEndpoint());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code lineSegment3D} to the given
+    * {@code StringBuilder} using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Line segment 3D: 1st endpoint = ( 0.174,  0.732, -0.222 ), 2nd endpoint = (-0.558, -0.380,  0.130 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param lineSegment3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLineSegment3D(StringBuilder stringBuilder, LineSegment3DReadOnly lineSegment3D)
+   {
+      return appendLineSegment3D(stringBuilder, DEFAULT_PRECISION, lineSegment3D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code lineSegment3D} to the given
+    * {@code StringBuilder} using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param lineSegment3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendLineSegment3D(StringBuilder stringBuilder, int precision, LineSegment3DReadOnly lineSegment3D)
+   {
+      if (lineSegment3D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Line segment 3D: 1st endpoint = ");
+      appendTuple3D(stringBuilder, precision, lineSegment3D.getFirstEndpoint());
+      stringBuilder.append(", 2nd endpoint = ");
+      return appendTuple3D(stringBuilder, precision, lineSegment3D.getSecondEndpoint());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code boundingBox2D} to the given
+    * {@code StringBuilder} using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Bounding Box 2D: min = ( 0.174,  0.732 ), max = (-0.558,  0.130 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param boundingBox2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendBoundingBox2D(StringBuilder stringBuilder, BoundingBox2DReadOnly boundingBox2D)
+   {
+      return appendBoundingBox2D(stringBuilder, DEFAULT_PRECISION, boundingBox2D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code boundingBox2D} to the given
+    * {@code StringBuilder} using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param boundingBox2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendBoundingBox2D(StringBuilder stringBuilder, int precision, BoundingBox2DReadOnly boundingBox2D)
+   {
+      if (boundingBox2D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Bounding Box 2D: min = ");
+      appendTuple2D(stringBuilder, precision, boundingBox2D.getMinPoint());
+      stringBuilder.append(", max = ");
+      return appendTuple2D(stringBuilder, precision, boundingBox2D.getMaxPoint());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code boundingBox3D} to the given
+    * {@code StringBuilder} using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Bounding Box 3D: min = ( 0.174,  0.732, -0.222 ), max = (-0.558, -0.380,  0.130 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param boundingBox3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendBoundingBox3D(StringBuilder stringBuilder, BoundingBox3D boundingBox3D)
+   {
+      return appendBoundingBox3D(stringBuilder, DEFAULT_PRECISION, boundingBox3D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code boundingBox3D} to the given
+    * {@code StringBuilder} using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param boundingBox3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendBoundingBox3D(StringBuilder stringBuilder, int precision, BoundingBox3D boundingBox3D)
+   {
+      if (boundingBox3D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Bounding Box 3D: min = ");
+      appendTuple3D(stringBuilder, precision, boundingBox3D.getMinPoint());
+      stringBuilder.append(", max = ");
+      return appendTuple3D(stringBuilder, precision, boundingBox3D.getMaxPoint());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code orientation2D} to the given
+    * {@code StringBuilder} using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * ( 0.174 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param orientation2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendOrientation2D(StringBuilder stringBuilder, Orientation2DReadOnly orientation2D)
+   {
+      return appendOrientation2D(stringBuilder, DEFAULT_PRECISION, orientation2D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code orientation2D} to the given
+    * {@code StringBuilder} using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param orientation2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendOrientation2D(StringBuilder stringBuilder, int precision, Orientation2DReadOnly orientation2D)
+   {
+      if (orientation2D == null)
+         return stringBuilder.append("null");
+      else
+         return appendTuple1D(stringBuilder, precision, orientation2D.getYaw());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code plane3D} to the given {@code StringBuilder}
+    * using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Plane 3D: point = ( 0.174,  0.732, -0.222 ), normal = (-0.558, -0.380,  0.130 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param plane3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendPlane3D(StringBuilder stringBuilder, Plane3D plane3D)
+   {
+      return appendPlane3D(stringBuilder, DEFAULT_PRECISION, plane3D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code plane3D} to the given {@code StringBuilder}
+    * using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param plane3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendPlane3D(StringBuilder stringBuilder, int precision, Plane3D plane3D)
+   {
+      if (plane3D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Plane 3D: point = ");
+      appendTuple3D(stringBuilder, precision, plane3D.getPoint());
+      stringBuilder.append(", normal = ");
+      return appendTuple3D(stringBuilder, precision, plane3D.getNormal());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code pose2D} to the given {@code StringBuilder}
+    * using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Pose 2D: position = ( 0.174, -0.222 ), orientation = (-0.130 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param pose2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendPose2D(StringBuilder stringBuilder, Pose2DReadOnly pose2D)
+   {
+      return appendPose2D(stringBuilder, DEFAULT_PRECISION, pose2D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code pose2D} to the given {@code StringBuilder}
+    * using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param pose2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendPose2D(StringBuilder stringBuilder, int precision, Pose2DReadOnly pose2D)
+   {
+      if (pose2D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Pose 2D: position = ");
+      appendTuple2D(stringBuilder, precision, pose2D.getPosition());
+      stringBuilder.append(", orientation = ");
+      return appendTuple1D(stringBuilder, precision, pose2D.getYaw());
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code pose3D} to the given {@code StringBuilder}
+    * using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Pose 3D: position = ( 0.174, -0.222, -0.558 ), orientation = ( 0.130, -0.380,  0.732,  0.528 )
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param pose3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendPose3D(StringBuilder stringBuilder, Pose3DReadOnly pose3D)
+   {
+      return appendPose3D(stringBuilder, DEFAULT_PRECISION, pose3D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code pose3D} to the given {@code StringBuilder}
+    * using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param pose3D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendPose3D(StringBuilder stringBuilder, int precision, Pose3DReadOnly pose3D)
+   {
+      if (pose3D == null)
+         return stringBuilder.append("null");
+
+      stringBuilder.append("Pose 3D: position = ");
+      appendTuple3D(stringBuilder, precision, pose3D.getPosition());
+      stringBuilder.append(", orientation = ");
+      QuaternionReadOnly orientation = pose3D.getOrientation();
+      stringBuilder.append('(');
+      appendDouble(stringBuilder, precision, orientation.getX());
+      stringBuilder.append(", ");
+      appendDouble(stringBuilder, precision, orientation.getY());
+      stringBuilder.append(", ");
+      appendDouble(stringBuilder, precision, orientation.getZ());
+      stringBuilder.append(", ");
+      appendDouble(stringBuilder, precision, orientation.getS());
+      return stringBuilder.append(" )");
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code convexPolygon2D} to the given
+    * {@code StringBuilder} using {@link #DEFAULT_PRECISION}:
+    *
+    * <pre>
+    * Convex Polygon 2D: vertices = [
+    * ( 0.174, -0.452 ),
+    * (-0.052, -0.173 ) ]
+    * </pre>
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param convexPolygon2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendConvexPolygon2D(StringBuilder stringBuilder, ConvexPolygon2DReadOnly convexPolygon2D)
+   {
+      return appendConvexPolygon2D(stringBuilder, DEFAULT_PRECISION, convexPolygon2D);
+   }
+
+   /**
+    * Appends a representative {@code String} of {@code convexPolygon2D} to the given
+    * {@code StringBuilder} using a fixed number of decimals.
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append for each number.
+    * @param convexPolygon2D the object to append the {@code String} of. Not modified.
+    * @return {@code stringBuilder} for chaining operations.
+    */
+   public static StringBuilder appendConvexPolygon2D(StringBuilder stringBuilder, int precision, ConvexPolygon2DReadOnly convexPolygon2D)
+   {
+      if (convexPolygon2D == null)
+         return stringBuilder.append("null");
+
+      int numberOfVertices = convexPolygon2D.getNumberOfVertices();
+
+      if (numberOfVertices == 0)
+         return stringBuilder.append("Convex Polygon 2D: vertices = []");
+
+      stringBuilder.append("Convex Polygon 2D: vertices = [\n");
+
+      for (int i = 0; i < numberOfVertices - 1; i++)
+      {
+         appendTuple2D(stringBuilder, precision, convexPolygon2D.getVertex(i));
+         stringBuilder.append(",\n");
+      }
+
+      appendTuple2D(stringBuilder, precision, convexPolygon2D.getVertex(numberOfVertices - 1));
+      return stringBuilder.append(" ]");
+   }
+
+   /**
+    * Appends {@code value} to the given {@code StringBuilder} with a fixed number of decimals,
+    * right-aligned on {@code precision + 3} characters.
+    * <p>
+    * This is equivalent to {@code String.format("%" + (precision + 3) + "." + precision + "f", value)}
+    * without generating garbage. Values greater than 10<sup>15</sup> once scaled, {@link Double#NaN},
+    * and infinite values are delegated to {@code String.format}.
+    * </p>
+    *
+    * @param stringBuilder the builder to append to. Modified.
+    * @param precision the number of decimals to append, in [0, 15].
+    * @param value the value to append.
+    * @return {@code stringBuilder} for chaining operations.
+    * @throws IllegalArgumentException if {@code precision} is not in [0, 15].
+    */
+   public static StringBuilder appendDouble(StringBuilder stringBuilder, int precision, double value)
+   {
+      if (precision < 0 || precision > 15)
+         throw new IllegalArgumentException("The precision has to be in [0, 15], was: " + precision);
+
+      int width = precision + 3;
+      double absoluteValue = Math.abs(value);
+      double scaledValue = absoluteValue * POWERS_OF_TEN[precision];
+
+      if (!(scaledValue < 1.0e15))
+         return stringBuilder.append(String.format("%" + width + "." + precision + "f", value));
+
+      boolean isNegative = Double.doubleToRawLongBits(value) < 0L;
+      // Rounding half-up against the midpoint computed in double precision, as String.format does.
+      double roundedDown = Math.floor(scaledValue);
+      double midpoint = (roundedDown + 0.5) / POWERS_OF_TEN[precision];
+      long roundedValue = (long) roundedDown + (absoluteValue >= midpoint ? 1L : 0L);
+      long scale = (long) POWERS_OF_TEN[precision];
+      long integerPart = roundedValue / scale;
+      long fractionalPart = roundedValue % scale;
+
+      int length = numberOfDigits(integerPart) + (isNegative ? 1 : 0) + (precision > 0 ? precision + 1 : 0);
+      for (int i = length; i < width; i++)
+         stringBuilder.append(' ');
+
+      if (isNegative)
+         stringBuilder.append('-');
+      stringBuilder.append(integerPart);
+
+      if (precision > 0)
+      {
+         stringBuilder.append('.');
+         int numberOfFractionalDigits = fractionalPart == 0L ? 0 : numberOfDigits(fractionalPart);
+         for (int i = numberOfFractionalDigits; i < precision; i++)
+            stringBuilder.append('0');
+         if (fractionalPart != 0L)
+            stringBuilder.append(fractionalPart);
+      }
+
+      return stringBuilder;
+   }
+
+   /**
+    * Parses a line 2D from the {@code String} representation provided by
+    * {@link #appendLine2D(StringBuilder, Line2DReadOnly)} or {@link #getLine2DString(Line2DReadOnly)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param line2DToPack the line used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parseLine2D(CharSequence input, int startIndex, Line2DBasics line2DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Line 2D: point = (");
+      double pointX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double pointY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), direction = (");
+      double directionX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double directionY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      line2DToPack.set(pointX, pointY, directionX, directionY);
+      return index;
+   }
+
+   /**
+    * Parses a line 3D from the {@code String} representation provided by
+    * {@link #appendLine3D(StringBuilder, Line3DReadOnly)} or {@link #getLine3DString(Line3DReadOnly)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param line3DToPack the line used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parseLine3D(CharSequence input, int startIndex, Line3DBasics line3DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Line 3D: point = (");
+      double pointX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double pointY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double pointZ = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), direction = (");
+      double directionX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double directionY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double directionZ = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      line3DToPack.set(pointX, pointY, pointZ, directionX, directionY, directionZ);
+      return index;
+   }
+
+   /**
+    * Parses a line segment 1D from the {@code String} representation provided by
+    * {@link #appendLineSegment1D(StringBuilder, LineSegment1D)} or
+    * {@link #getLineSegment1DString(LineSegment1D)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param lineSegment1DToPack the line segment used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parseLineSegment1D(CharSequence input, int startIndex, LineSegment1D lineSegment1DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Line segment 1D: 1st endpoint = (");
+      double firstEndpoint = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), 2nd endpoint = (");
+      double secondEndpoint = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      lineSegment1DToPack.set(firstEndpoint, secondEndpoint);
+      return index;
+   }
+
+   /**
+    * Parses a line segment 2D from the {@code String} representation provided by
+    * {@link #appendLineSegment2D(StringBuilder, LineSegment2DReadOnly)} or
+    * {@link #getLineSegment2DString(LineSegment2DReadOnly)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param lineSegment2DToPack the line segment used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parseLineSegment2D(CharSequence input, int startIndex, LineSegment2DBasics lineSegment2DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Line segment 2D: 1st endpoint = (");
+      double firstEndpointX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double firstEndpointY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), 2nd endpoint = (");
+      double secondEndpointX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double secondEndpointY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      lineSegment2DToPack.set(firstEndpointX, firstEndpointY, secondEndpointX, secondEndpointY);
+      return index;
+   }
+
+   /**
+    * Parses a line segment 3D from the {@code String} representation provided by
+    * {@link #appendLineSegment3D(StringBuilder, LineSegment3DReadOnly)} or
+    * {@link #getLineSegment3DString(LineSegment3DReadOnly)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param lineSegment3DToPack the line segment used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parseLineSegment3D(CharSequence input, int startIndex, LineSegment3DBasics lineSegment3DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Line segment 3D: 1st endpoint = (");
+      double firstEndpointX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double firstEndpointY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double firstEndpointZ = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), 2nd endpoint = (");
+      double secondEndpointX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double secondEndpointY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double secondEndpointZ = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      lineSegment3DToPack.set(firstEndpointX, firstEndpointY, firstEndpointZ, secondEndpointX, secondEndpointY, secondEndpointZ);
+      return index;
+   }
+
+   /**
+    * Parses a bounding box 2D from the {@code String} representation provided by
+    * {@link #appendBoundingBox2D(StringBuilder, BoundingBox2DReadOnly)} or
+    * {@link #getBoundingBox2DString(BoundingBox2DReadOnly)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param boundingBox2DToPack the bounding box used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    * @throws RuntimeException if the parsed bounds are invalid.
+    */
+   public static int parseBoundingBox2D(CharSequence input, int startIndex, BoundingBox2DBasics boundingBox2DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Bounding Box 2D: min = (");
+      double minX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double minY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), max = (");
+      double maxX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double maxY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      boundingBox2DToPack.set(minX, minY, maxX, maxY);
+      return index;
+   }
+
+   /**
+    * Parses a bounding box 3D from the {@code String} representation provided by
+    * {@link #appendBoundingBox3D(StringBuilder, BoundingBox3D)} or
+    * {@link #getBoundingBox3DString(BoundingBox3D)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param boundingBox3DToPack the bounding box used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    * @throws RuntimeException if the parsed bounds are invalid.
+    */
+   public static int parseBoundingBox3D(CharSequence input, int startIndex, BoundingBox3D boundingBox3DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Bounding Box 3D: min = (");
+      double minX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double minY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double minZ = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), max = (");
+      double maxX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double maxY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double maxZ = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      boundingBox3DToPack.set(minX, minY, minZ, maxX, maxY, maxZ);
+      return index;
+   }
+
+   /**
+    * Parses an orientation 2D from the {@code String} representation provided by
+    * {@link #appendOrientation2D(StringBuilder, Orientation2DReadOnly)} or
+    * {@link #getOrientation2DString(Orientation2DReadOnly)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param orientation2DToPack the orientation used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parseOrientation2D(CharSequence input, int startIndex, Orientation2DBasics orientation2DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "(");
+      double yaw = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      orientation2DToPack.setYaw(yaw);
+      return index;
+   }
+
+   /**
+    * Parses a plane 3D from the {@code String} representation provided by
+    * {@link #appendPlane3D(StringBuilder, Plane3D)} or {@link #getPlane3DString(Plane3D)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param plane3DToPack the plane used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parsePlane3D(CharSequence input, int startIndex, Plane3D plane3DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Plane 3D: point = (");
+      double pointX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double pointY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double pointZ = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), normal = (");
+      double normalX = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double normalY = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double normalZ = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      plane3DToPack.set(pointX, pointY, pointZ, normalX, normalY, normalZ);
+      return index;
+   }
+
+   /**
+    * Parses a pose 2D from the {@code String} representation provided by
+    * {@link #appendPose2D(StringBuilder, Pose2DReadOnly)} or {@link #getPose2DString(Pose2DReadOnly)}.
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param pose2DToPack the pose used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parsePose2D(CharSequence input, int startIndex, Pose2DBasics pose2DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Pose 2D: position = (");
+      double x = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double y = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), orientation = (");
+      double yaw = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      pose2DToPack.set(x, y, yaw);
+      return index;
+   }
+
+   /**
+    * Parses a pose 3D from the {@code String} representation provided by
+    * {@link #appendPose3D(StringBuilder, Pose3DReadOnly)} or {@link #getPose3DString(Pose3DReadOnly)}.
+    * <p>
+    * The parsed quaternion is normalized when set in {@code pose3DToPack}.
+    * </p>
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param pose3DToPack the pose used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parsePose3D(CharSequence input, int startIndex, Pose3DBasics pose3DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Pose 3D: position = (");
+      double x = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double y = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double z = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), "), orientation = (");
+      double qx = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double qy = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double qz = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ",");
+      double qs = parseNumber(input, index);
+      index = parseLiteral(input, skipNumber(input, index), ")");
+      pose3DToPack.setPosition(x, y, z);
+      pose3DToPack.setOrientation(qx, qy, qz, qs);
+      return index;
+   }
+
+   /**
+    * Parses a convex polygon 2D from the {@code String} representation provided by
+    * {@link #appendConvexPolygon2D(StringBuilder, ConvexPolygon2DReadOnly)} or
+    * {@link #getConvexPolygon2DString(ConvexPolygon2DReadOnly)}.
+    * <p>
+    * The polygon is updated once all its vertices have been parsed.
+    * </p>
+    *
+    * @param input the text to parse. Not modified.
+    * @param startIndex the index in {@code input} at which the representation starts.
+    * @param convexPolygon2DToPack the polygon used to store the result. Modified.
+    * @return the index in {@code input} right after the parsed representation.
+    * @throws IllegalArgumentException if the text does not match the expected representation.
+    */
+   public static int parseConvexPolygon2D(CharSequence input, int startIndex, ConvexPolygon2DBasics convexPolygon2DToPack)
+   {
+      int index = parseLiteral(input, startIndex, "Convex Polygon 2D: vertices = [");
+      convexPolygon2DToPack.clear();
+
+      index = skipWhitespace(input, index);
+      boolean hasMoreVertices = index < input.length() && input.charAt(index) != ']';
+
+      while (hasMoreVertices)
+      {
+         index = parseLiteral(input, index, "(");
+         double x = parseNumber(input, index);
+         index = parseLiteral(input, skipNumber(input, index), ",");
+         double y = parseNumber(input, index);
+         index = parseLiteral(input, skipNumber(input, index), ")");
+         convexPolygon2DToPack.addVertex(x, y);
+
+         index = skipWhitespace(input, index);
+         hasMoreVertices = index < input.length() && input.charAt(index) == ',';
+         if (hasMoreVertices)
+            index++;
+      }
+
+      index = parseLiteral(input, index, "]");
+      convexPolygon2DToPack.update();
+      return index;
+   }
+
+   private static StringBuilder appendTuple1D(StringBuilder stringBuilder, int precision, double value)
+   {
+      stringBuilder.append('(');
+      appendDouble(stringBuilder, precision, value);
+      return stringBuilder.append(" )");
+   }
+
+   private static StringBuilder appendTuple2D(StringBuilder stringBuilder, int precision, Tuple2DReadOnly tuple2D)
+   {
+      stringBuilder.append('(');
+      appendDouble(stringBuilder, precision, tuple2D.getX());
+      stringBuilder.append(", ");
+      appendDouble(stringBuilder, precision, tuple2D.getY());
+      return stringBuilder.append(" )");
+   }
+
+   private static StringBuilder appendTuple3D(StringBuilder stringBuilder, int precision, Tuple3DReadOnly tuple3D)
+   {
+      stringBuilder.append('(');
+      appendDouble(stringBuilder, precision, tuple3D.getX());
+      stringBuilder.append(", ");
+      appendDouble(stringBuilder, precision, tuple3D.getY());
+      stringBuilder.append(", ");
+      appendDouble(stringBuilder, precision, tuple3D.getZ());
+      return stringBuilder.append(" )");
+   }
+
+   private static int numberOfDigits(long value)
+   {
+      int numberOfDigits = 1;
+      while (value >= 10L)
+      {
+         value /= 10L;
+         numberOfDigits++;
+      }
+      return numberOfDigits;
+   }
+
+   private static int skipWhitespace(CharSequence input, int index)
+   {
+      while (index < input.length() && Character.isWhitespace(input.charAt(index)))
+         index++;
+      return index;
+   }
+
+   /**
+    * Matches {@code literal} at the given index, ignoring leading whitespace and where whitespace in
+    * the literal matches any amount of whitespace in the input.
+    */
+   private static int parseLiteral(CharSequence input, int index, String literal)
+   {
+      index = skipWhitespace(input, index);
+
+      for (int i = 0; i < literal.length(); i++)
+      {
+         char expected = literal.charAt(i);
+
+         if (Character.isWhitespace(expected))
+         {
+            index = skipWhitespace(input, index);
+         }
+         else if (index < input.length() && input.charAt(index) == expected)
+         {
+            index++;
+         }
+         else
+         {
+            throw new IllegalArgumentException("Expected '" + expected + "' at index " + index + " while parsing: " + input);
+         }
+      }
+
+      return index;
+   }
+
+   /**
+    * Finds the end of the number starting at the given index, ignoring leading whitespace.
+    */
+   private static int skipNumber(CharSequence input, int index)
+   {
+      index = skipWhitespace(input, index);
+      int length = input.length();
+
+      if (index < length && (input.charAt(index) == '-' || input.charAt(index) == '+'))
+         index++;
+
+      if (regionMatches(input, index, "NaN"))
+         return index + 3;
+      if (regionMatches(input, index, "Infinity"))
+         return index + 8;
+
+      int digitsStart = index;
+      while (index < length && isDigit(input.charAt(index)))
+         index++;
+      int numberOfDigits = index - digitsStart;
+
+      if (index < length && input.charAt(index) == '.')
+      {
+         index++;
+         int fractionStart = index;
+         while (index < length && isDigit(input.charAt(index)))
+            index++;
+         numberOfDigits += index - fractionStart;
+      }
+
+      if (numberOfDigits == 0)
+         throw new IllegalArgumentException("Expected a number at index " + digitsStart + " while parsing: " + input);
+
+      if (index < length && (input.charAt(index) == 'e' || input.charAt(index) == 'E'))
+      {
+         int exponentIndex = index + 1;
+         if (exponentIndex < length && (input.charAt(exponentIndex) == '-' || input.charAt(exponentIndex) == '+'))
+            exponentIndex++;
+         int exponentStart = exponentIndex;
+         while (exponentIndex < length && isDigit(input.charAt(exponentIndex)))
+            exponentIndex++;
+         if (exponentIndex > exponentStart)
+            index = exponentIndex;
+      }
+
+      return index;
+   }
+
+   /**
+    * Parses the number starting at the given index, ignoring leading whitespace.
+    * <p>
+    * Numbers with at most 15 significant digits and a small exponent, which covers the output of the
+    * {@code append*} methods, are converted exactly without generating garbage. Other numbers are
+    * delegated to {@link Double#parseDouble(String)}.
+    * </p>
+    */
+   private static double parseNumber(CharSequence input, int index)
+   {
+      int start = skipWhitespace(input, index);
+      int end = skipNumber(input, start);
+      index = start;
+
+      boolean isNegative = false;
+      char firstChar = input.charAt(index);
+      if (firstChar == '-' || firstChar == '+')
+      {
+         isNegative = firstChar == '-';
+         index++;
+      }
+
+      if (input.charAt(index) == 'N')
+         return Double.NaN;
+      if (input.charAt(index) == 'I')
+         return isNegative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+
+      long mantissa = 0L;
+      int numberOfSignificantDigits = 0;
+      int exponent = 0;
+      boolean isFractionalPart = false;
+
+      for (; index < end; index++)
+      {
+         char c = input.charAt(index);
+
+         if (c == '.')
+         {
+            isFractionalPart = true;
+            continue;
+         }
+         if (!isDigit(c))
+            break;
+
+         int digit = c - '0';
+
+         if (mantissa == 0L && digit == 0)
+         {
+            if (isFractionalPart)
+               exponent--;
+         }
+         else if (numberOfSignificantDigits < 18)
+         {
+            mantissa = 10L * mantissa + digit;
+            numberOfSignificantDigits++;
+            if (isFractionalPart)
+               exponent--;
+         }
+         else
+         {
+            numberOfSignificantDigits++;
+            if (!isFractionalPart)
+               exponent++;
+         }
+      }
+
+      if (index < end)
+      { // Exponent
+         index++;
+         boolean isExponentNegative = input.charAt(index) == '-';
+         if (input.charAt(index) == '-' || input.charAt(index) == '+')
+            index++;
+
+         int explicitExponent = 0;
+         for (; index < end; index++)
+         {
+            if (explicitExponent < 10000)
+               explicitExponent = 10 * explicitExponent + input.charAt(index) - '0';
+         }
+         exponent += isExponentNegative ? -explicitExponent : explicitExponent;
+      }
+
+      if (mantissa == 0L)
+         return isNegative ? -0.0 : 0.0;
+
+      if (numberOfSignificantDigits > 15 || exponent < -22 || exponent > 22)
+         return Double.parseDouble(input.subSequence(start, end).toString());
+
+      double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+      return isNegative ? -value : value;
+   }
+
+   private static boolean regionMatches(CharSequence input, int index, String expected)
+   {
+      if (index + expected.length() > input.length())
+         return false;
+
+      for (int i = 0; i < expected.length(); i++)
+      {
+         if (input.charAt(index + i) != expected.charAt(i))
+            return false;
+      }
+      return true;
+   }
+
+   private static boolean isDigit(char c)
+   {
+      return c >= '0' && c <= '9';
+   }
+
+   /**
+    * Gets the size in bytes of the binary record of a convex polygon 2D.
+    *
+    * @param numberOfVertices the number of vertices of the polygon.
+    * @return the size of the record in bytes.
+    */
+   public static int getConvexPolygon2DBinarySize(int numberOfVertices)
+   {
+      return BINARY_HEADER_SIZE + Long.BYTES + 2 * numberOfVertices * Double.BYTES;
+   }
+
+   /**
+    * Gets the size in bytes of the binary record of the given shape.
+    *
+    * @param shape3D the shape to get the size of the record of. Not modified.
+    * @return the size of the record in bytes.
+    * @throws IllegalArgumentException if the type of shape is not supported.
+    */
+   public static int getShape3DBinarySize(Shape3D<?> shape3D)
+   {
+      return BINARY_HEADER_SIZE + SHAPE3D_POSE_BINARY_SIZE + getNumberOfShape3DParameters(getShape3DBinaryID(shape3D)) * Double.BYTES;
+   }
+
+   /**
+    * Writes {@code pose3D} at the current position of the given {@code buffer}.
+    *
+    * @param pose3D the pose to write. Not modified.
+    * @param buffer the buffer to write to. Its position is advanced by {@link #POSE3D_BINARY_SIZE}.
+    *           Modified.
+    */
+   public static void writePose3D(Pose3DReadOnly pose3D, ByteBuffer buffer)
+   {
+      writeHeader(POSE3D_BINARY_ID, buffer);
+      writeTuple3D(pose3D.getPosition(), buffer);
+      QuaternionReadOnly orientation = pose3D.getOrientation();
+      buffer.putDouble(orientation.getX());
+      buffer.putDouble(orientation.getY());
+      buffer.putDouble(orientation.getZ());
+      buffer.putDouble(orientation.getS());
+   }
+
+   /**
+    * Reads a pose 3D from the current position of the given {@code buffer}.
+    *
+    * @param buffer the buffer to read from. Its position is advanced by {@link #POSE3D_BINARY_SIZE}.
+    *           Modified.
+    * @param pose3DToPack the pose used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a pose 3D or if its version is not
+    *            supported.
+    */
+   public static void readPose3D(ByteBuffer buffer, Pose3DBasics pose3DToPack)
+   {
+      readHeader(POSE3D_BINARY_ID, buffer);
+      pose3DToPack.setPosition(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+      pose3DToPack.setOrientation(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+   }
+
+   /**
+    * Writes {@code boundingBox3D} at the current position of the given {@code buffer}.
+    *
+    * @param boundingBox3D the bounding box to write. Not modified.
+    * @param buffer the buffer to write to. Its position is advanced by
+    *           {@link #BOUNDINGBOX3D_BINARY_SIZE}. Modified.
+    */
+   public static void writeBoundingBox3D(BoundingBox3D boundingBox3D, ByteBuffer buffer)
+   {
+      writeHeader(BOUNDINGBOX3D_BINARY_ID, buffer);
+      writeTuple3D(boundingBox3D.getMinPoint(), buffer);
+      writeTuple3D(boundingBox3D.getMaxPoint(), buffer);
+   }
+
+   /**
+    * Reads a bounding box 3D from the current position of the given {@code buffer}.
+    *
+    * @param buffer the buffer to read from. Its position is advanced by
+    *           {@link #BOUNDINGBOX3D_BINARY_SIZE}. Modified.
+    * @param boundingBox3DToPack the bounding box used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a bounding box 3D or if its version is not
+    *            supported.
+    * @throws RuntimeException if the bounds read are invalid.
+    */
+   public static void readBoundingBox3D(ByteBuffer buffer, BoundingBox3D boundingBox3DToPack)
+   {
+      readHeader(BOUNDINGBOX3D_BINARY_ID, buffer);
+      boundingBox3DToPack.set(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+   }
+
+   /**
+    * Writes {@code plane3D} at the current position of the given {@code buffer}.
+    *
+    * @param plane3D the plane to write. Not modified.
+    * @param buffer the buffer to write to. Its position is advanced by {@link #PLANE3D_BINARY_SIZE}.
+    *           Modified.
+    */
+   public static void writePlane3D(Plane3D plane3D, ByteBuffer buffer)
+   {
+      writeHeader(PLANE3D_BINARY_ID, buffer);
+      writeTuple3D(plane3D.getPoint(), buffer);
+      writeTuple3D(plane3D.getNormal(), buffer);
+   }
+
+   /**
+    * Reads a plane 3D from the current position of the given {@code buffer}.
+    *
+    * @param buffer the buffer to read from. Its position is advanced by {@link #PLANE3D_BINARY_SIZE}.
+    *           Modified.
+    * @param plane3DToPack the plane used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a plane 3D or if its version is not
+    *            supported.
+    */
+   public static void readPlane3D(ByteBuffer buffer, Plane3D plane3DToPack)
+   {
+      readHeader(PLANE3D_BINARY_ID, buffer);
+      plane3DToPack.set(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+   }
+
+   /**
+    * Writes {@code lineSegment3D} at the current position of the given {@code buffer}.
+    *
+    * @param lineSegment3D the line segment to write. Not modified.
+    * @param buffer the buffer to write to. Its position is advanced by
+    *           {@link #LINESEGMENT3D_BINARY_SIZE}. Modified.
+    */
+   public static void writeLineSegment3D(LineSegment3DReadOnly lineSegment3D, ByteBuffer buffer)
+   {
+      writeHeader(LINESEGMENT3D_BINARY_ID, buffer);
+      writeTuple3D(lineSegment3D.getFirstEndpoint(), buffer);
+      writeTuple3D(lineSegment3D.getSecondEndpoint(), buffer);
+   }
+
+   /**
+    * Reads a line segment 3D from the current position of the given {@code buffer}.
+    *
+    * @param buffer the buffer to read from. Its position is advanced by
+    *           {@link #LINESEGMENT3D_BINARY_SIZE}. Modified.
+    * @param lineSegment3DToPack the line segment used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a line segment 3D or if its version is not
+    *            supported.
+    */
+   public static void readLineSegment3D(ByteBuffer buffer, LineSegment3DBasics lineSegment3DToPack)
+   {
+      readHeader(LINESEGMENT3D_BINARY_ID, buffer);
+      lineSegment3DToPack.set(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+   }
+
+   /**
+    * Writes {@code convexPolygon2D} at the current position of the given {@code buffer}.
+    * <p>
+    * The number of bytes written can be obtained from {@link #getConvexPolygon2DBinarySize(int)}.
+    * </p>
+    *
+    * @param convexPolygon2D the polygon to write. Not modified.
+    * @param buffer the buffer to write to. Modified.
+    */
+   public static void writeConvexPolygon2D(ConvexPolygon2DReadOnly convexPolygon2D, ByteBuffer buffer)
+   {
+      writeHeader(CONVEXPOLYGON2D_BINARY_ID, buffer);
+      int numberOfVertices = convexPolygon2D.getNumberOfVertices();
+      buffer.putInt(numberOfVertices);
+      buffer.putInt(0); // Padding to keep the vertices aligned.
+
+      for (int i = 0; i < numberOfVertices; i++)
+      {
+         Point2DReadOnly vertex = convexPolygon2D.getVertex(i);
+         buffer.putDouble(vertex.getX());
+         buffer.putDouble(vertex.getY());
+      }
+   }
+
+   /**
+    * Reads a convex polygon 2D from the current position of the given {@code buffer}.
+    * <p>
+    * The polygon is updated once all its vertices have been read.
+    * </p>
+    *
+    * @param buffer the buffer to read from. Modified.
+    * @param convexPolygon2DToPack the polygon used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a convex polygon 2D or if its version is
+    *            not supported.
+    */
+   public static void readConvexPolygon2D(ByteBuffer buffer, ConvexPolygon2DBasics convexPolygon2DToPack)
+   {
+      readHeader(CONVEXPOLYGON2D_BINARY_ID, buffer);
+      int numberOfVertices = buffer.getInt();
+      buffer.getInt(); // Padding.
+
+      if (numberOfVertices < 0)
+         throw new IllegalArgumentException("Invalid number of vertices: " + numberOfVertices);
+
+      convexPolygon2DToPack.clear();
+
+      for (int i = 0; i < numberOfVertices; i++)
+         convexPolygon2DToPack.addVertex(buffer.getDouble(), buffer.getDouble());
+
+      convexPolygon2DToPack.update();
+   }
+
+   /**
+    * Writes {@code shape3D} at the current position of the given {@code buffer}.
+    * <p>
+    * The record is made of the header, the pose of the shape written as the 12 coefficients of its
+    * rigid-body transform, and the shape parameters, i.e. its size or radii. For an ellipsoid, the
+    * radii are followed by whether it uses the radial approximation, written as a {@code long} to
+    * keep the records aligned. The number of bytes written can be obtained from
+    * {@link #getShape3DBinarySize(Shape3D)}.
+    * </p>
+    *
+    * @param shape3D the shape to write. Not modified.
+    * @param buffer the buffer to write to. Modified.
+    * @throws IllegalArgumentException if the type of shape is not supported.
+    */
+   public static void writeShape3D(Shape3D<?> shape3D, ByteBuffer buffer)
+   {
+      byte shapeID = getShape3DBinaryID(shape3D);
+      writeHeader(shapeID, buffer);
+
+      RotationMatrixReadOnly orientation = shape3D.getOrientation();
+      buffer.putDouble(orientation.getM00());
+      buffer.putDouble(orientation.getM01());
+      buffer.putDouble(orientation.getM02());
+      buffer.putDouble(shape3D.getPositionX());
+      buffer.putDouble(orientation.getM10());
+      buffer.putDouble(orientation.getM11());
+      buffer.putDouble(orientation.getM12());
+      buffer.putDouble(shape3D.getPositionY());
+      buffer.putDouble(orientation.getM20());
+      buffer.putDouble(orientation.getM21());
+      buffer.putDouble(orientation.getM22());
+      buffer.putDouble(shape3D.getPositionZ());
+
+      switch (shapeID)
+      {
+      case BOX3D_BINARY_ID:
+         Box3D box3D = (Box3D) shape3D;
+         buffer.putDouble(box3D.getSizeX());
+         buffer.putDouble(box3D.getSizeY());
+         buffer.putDouble(box3D.getSizeZ());
+         break;
+      case CYLINDER3D_BINARY_ID:
+         Cylinder3D cylinder3D = (Cylinder3D) shape3D;
+         buffer.putDouble(cylinder3D.getHeight());
+         buffer.putDouble(cylinder3D.getRadius());
+         break;
+      case ELLIPSOID3D_BINARY_ID:
+         Ellipsoid3D ellipsoid3D = (Ellipsoid3D) shape3D;
+         buffer.putDouble(ellipsoid3D.getRadiusX());
+         buffer.putDouble(ellipsoid3D.getRadiusY());
+         buffer.putDouble(ellipsoid3D.getRadiusZ());
+         buffer.putLong(ellipsoid3D.isUsingRadialApproximation() ? 1L : 0L);
+         break;
+      case RAMP3D_BINARY_ID:
+         Ramp3D ramp3D = (Ramp3D) shape3D;
+         buffer.putDouble(ramp3D.getLength());
+         buffer.putDouble(ramp3D.getWidth());
+         buffer.putDouble(ramp3D.getHeight());
+         break;
+      case SPHERE3D_BINARY_ID:
+         buffer.putDouble(((Sphere3D) shape3D).getRadius());
+         break;
+      default:
+         Torus3D torus3D = (Torus3D) shape3D;
+         buffer.putDouble(torus3D.getRadius());
+         buffer.putDouble(torus3D.getTubeRadius());
+         break;
+      }
+   }
+
+   /**
+    * Reads a shape 3D from the current position of the given {@code buffer}.
+    * <p>
+    * The type of the record has to match the type of {@code shape3DToPack}. The records of
+    * ellipsoids written with the version 1 of the format do not hold the radial approximation flag,
+    * the ellipsoid is then set to not use the radial approximation.
+    * </p>
+    *
+    * @param buffer the buffer to read from. Modified.
+    * @param shape3DToPack the shape used to store the result. Modified.
+    * @throws IllegalArgumentException if the record does not match the type of
+    *            {@code shape3DToPack}, if its version is not supported, or if the type of shape is
+    *            not supported.
+    */
+   public static void readShape3D(ByteBuffer buffer, Shape3D<?> shape3DToPack)
+   {
+      byte shapeID = getShape3DBinaryID(shape3DToPack);
+      byte version = readHeader(shapeID, buffer);
+
+      shape3DToPack.setPose(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+                            buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+
+      switch (shapeID)
+      {
+      case BOX3D_BINARY_ID:
+         ((Box3D) shape3DToPack).setSize(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+         break;
+      case CYLINDER3D_BINARY_ID:
+         Cylinder3D cylinder3D = (Cylinder3D) shape3DToPack;
+         cylinder3D.setHeight(buffer.getDouble());
+         cylinder3D.setRadius(buffer.getDouble());
+         break;
+      case ELLIPSOID3D_BINARY_ID:
+         Ellipsoid3D ellipsoid3D = (Ellipsoid3D) shape3DToPack;
+         ellipsoid3D.setRadii(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+         // The flag was added in the version 2 of the format.
+         ellipsoid3D.setUseRadialApproximation(version >= 2 && buffer.getLong() != 0L);
+         break;
+      case RAMP3D_BINARY_ID:
+         ((Ramp3D) shape3DToPack).setSize(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+         break;
+      case SPHERE3D_BINARY_ID:
+         ((Sphere3D) shape3DToPack).setRadius(buffer.getDouble());
+         break;
+      default:
+         ((Torus3D) shape3DToPack).setRadii(buffer.getDouble(), buffer.getDouble());
+         break;
+      }
+   }
+
+   /**
+    * Reads the type identifier of the record located at the current position of the given
+    * {@code buffer} without changing the buffer's position.
+    * <p>
+    * This is useful to determine the type of object to read when a stream holds different types of
+    * records.
+    * </p>
+    *
+    * @param buffer the buffer to peek at. Not modified.
+    * @return the type identifier of the next record.
+    */
+   public static byte peekBinaryID(ByteBuffer buffer)
+   {
+      return buffer.get(buffer.position());
+   }
+
+   /**
+    * Writes the header of a binary record, i.e. the type identifier and the format version followed by
+    * zeros padding the header to {@link #BINARY_HEADER_SIZE} bytes.
+    *
+    * @param binaryID the type identifier of the record.
+    * @param buffer the buffer to write to. Its position is advanced by {@link #BINARY_HEADER_SIZE}.
+    *           Modified.
+    */
+   public static void writeHeader(byte binaryID, ByteBuffer buffer)
+   {
+      buffer.put(binaryID);
+      buffer.put(BINARY_FORMAT_VERSION);
+      buffer.putShort((short) 0);
+      buffer.putInt(0);
+   }
+
+   /**
+    * Reads and validates the header of a binary record.
+    *
+    * @param expectedBinaryID the type identifier the record is expected to have.
+    * @param buffer the buffer to read from. Its position is advanced by {@link #BINARY_HEADER_SIZE}.
+    *           Modified.
+    * @return the format version of the record.
+    * @throws IllegalArgumentException if the record type does not match {@code expectedBinaryID} or if
+    *            its version is not supported.
+    */
+   public static byte readHeader(byte expectedBinaryID, ByteBuffer buffer)
+   {
+      byte binaryID = buffer.get();
+      byte version = buffer.get();
+      buffer.position(buffer.position() + BINARY_HEADER_SIZE - 2); // Skipping the padding.
+
+      if (binaryID != expectedBinaryID)
+         throw new IllegalArgumentException("Unexpected record type: " + binaryID + ", expected: " + expectedBinaryID);
+      if (version < 1 || version > BINARY_FORMAT_VERSION)
+         throw new IllegalArgumentException("Unsupported binary format version: " + version);
+
+      return version;
+   }
+
+   private static void writeTuple3D(Tuple3DReadOnly tuple3D, ByteBuffer buffer)
+   {
+      buffer.putDouble(tuple3D.getX());
+      buffer.putDouble(tuple3D.getY());
+      buffer.putDouble(tuple3D.getZ());
+   }
+
+   private static byte getShape3DBinaryID(Shape3D<?> shape3D)
+   {
+      if (shape3D instanceof Box3D)
+         return BOX3D_BINARY_ID;
+      if (shape3D instanceof Cylinder3D)
+         return CYLINDER3D_BINARY_ID;
+      if (shape3D instanceof Ellipsoid3D)
+         return ELLIPSOID3D_BINARY_ID;
+      if (shape3D instanceof Ramp3D)
+         return RAMP3D_BINARY_ID;
+      if (shape3D instanceof Sphere3D)
+         return SPHERE3D_BINARY_ID;
+      if (shape3D instanceof Torus3D)
+         return TORUS3D_BINARY_ID;
+      throw new IllegalArgumentException("Unsupported shape type: " + shape3D.getClass().getSimpleName());
+   }
+
+   private static int getNumberOfShape3DParameters(byte shapeID)
+   {
+      switch (shapeID)
+      {
+      case SPHERE3D_BINARY_ID:
+         return 1;
+      case CYLINDER3D_BINARY_ID:
+      case TORUS3D_BINARY_ID:
+         return 2;
+      case ELLIPSOID3D_BINARY_ID:
+         return 4; // The 3 radii and the radial approximation flag.
+      default:
+         return 3;
+      }
+   }
 }
@@ -8,6 +8,8 @@ import java.util.List;
 
 import us.ihmc.euclid.axisAngle.AxisAngle;
 import us.ihmc.euclid.axisAngle.interfaces.AxisAngleBasics;
+import us.ihmc.euclid.geometry.PointCloudAccumulator2D;
+import us.ihmc.euclid.geometry.PointCloudAccumulator3D;
 import us.ihmc.euclid.geometry.exceptions.BoundingBoxException;
 import us.ihmc.euclid.tools.EuclidCoreTools;
 import us.ihmc.euclid.tuple2D.Point2D;
@@ -538,16 +540,39 @@ public class EuclidGeometryTools
       if (points.isEmpty())
          return null;
 
-      Point2D totalPoint = new Point2D();
+      PointCloudAccumulator2D accumulator = new PointCloudAccumulator2D();
 
       for (Point2DReadOnly point : points)
       {
-         totalPoint.add(point);
+         accumulator.add(point);
       }
 
-      totalPoint.scale(1.0 / points.size());
+      Point2D average = new Point2D();
+      accumulator.getCentroid(average);
+      return average;
+   }
+
+   /**
+    * Computes the average 2D point from a given collection of 2D points using a parallel stream.
+    * <p>
+    * The result is equivalent to {@link #averagePoint2Ds(Collection)}, this method should only be
+    * preferred for very large collections.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param points the collection of 2D points to compute the average from. Not modified.
+    * @return the computed average.
+    */
+   public static Point2D averagePoint2DsParallel(Collection<? extends Point2DReadOnly> points)
+   {
+      if (points.isEmpty())
+         return null;
 
-      return totalPoint;
+      Point2D average = new Point2D();
+      points.parallelStream().collect(PointCloudAccumulator2D.collector()).getCentroid(average);
+      return average;
    }
 
    /**
@@ -564,16 +589,39 @@ public class EuclidGeometryTools
       if (points.isEmpty())
          return null;
 
-      Point3D totalPoint = new Point3D();
+      PointCloudAccumulator3D accumulator = new PointCloudAccumulator3D();
 
       for (Point3DReadOnly point : points)
       {
-         totalPoint.add(point);
+         accumulator.add(point);
       }
 
-      totalPoint.scale(1.0 / points.size());
+      Point3D average = new Point3D();
+      accumulator.getCentroid(average);
+      return average;
+   }
+
+   /**
+    * Computes the average 3D point from a given collection of 3D points using a parallel stream.
+    * <p>
+    * The result is equivalent to {@link #averagePoint3Ds(Collection)}, this method should only be
+    * preferred for very large collections.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param points the collection of 3D points to compute the average from. Not modified.
+    * @return the computed average.
+    */
+   public static Point3D averagePoint3DsParallel(Collection<? extends Point3DReadOnly> points)
+   {
+      if (points.isEmpty())
+         return null;
 
-      return totalPoint;
+      Point3D average = new Point3D();
+      points.parallelStream().collect(PointCloudAccumulator3D.collector()).getCentroid(average);
+      return average;
    }
 
    /**
@@ -1691,17 +1739,46 @@ public class EuclidGeometryTools
    public static double distanceSquaredFromPoint3DToLineSegment3D(double pointX, double pointY, double pointZ, Point3DReadOnly lineSegmentStart,
                                                                   Point3DReadOnly lineSegmentEnd)
    {
-      double percentage = percentageAlongLineSegment3D(pointX, pointY, pointZ, lineSegmentStart.getX(), lineSegmentStart.getY(), lineSegmentStart.getZ(),
+      return distanceSquaredFromPoint3DToLineSegment3D(pointX, pointY, pointZ, lineSegmentStart.getX(), lineSegmentStart.getY(), lineSegmentStart.getZ(),
                                                        lineSegmentEnd.getX(), lineSegmentEnd.getY(), lineSegmentEnd.getZ());
+   }
+
+   /**
+    * Returns the square of the minimum distance between a point and a given line segment.
+    * <p>
+    * Edge cases:
+    * <ul>
+    * <li>if {@code lineSegmentStart.distanceSquared(lineSegmentEnd) < }{@value #ONE_TRILLIONTH}, this
+    * method returns the distance between {@code lineSegmentStart} and the given {@code point}.
+    * </ul>
+    * </p>
+    *
+    * @param pointX x-coordinate of point to be tested.
+    * @param pointY y-coordinate of point to be tested.
+    * @param pointZ z-coordinate of point to be tested.
+    * @param lineSegmentStartX the x-coordinate of the line segment first endpoint.
+    * @param lineSegmentStartY the y-coordinate of the line segment first endpoint.
+    * @param lineSegmentStartZ the z-coordinate of the line segment first endpoint.
+    * @param lineSegmentEndX the x-coordinate of the line segment second endpoint.
+    * @param lineSegmentEndY the y-coordinate of the line segment second endpoint.
+    * @param lineSegmentEndZ the z-coordinate of the line segment second endpoint.
+    * @return the square of the minimum distance between the 3D point and the 3D line segment.
+    */
+   public static double distanceSquaredFromPoint3DToLineSegment3D(double pointX, double pointY, double pointZ, double lineSegmentStartX,
+                                                                  double lineSegmentStartY, double lineSegmentStartZ, double lineSegmentEndX,
+                                                                  double lineSegmentEndY, double lineSegmentEndZ)
+   {
+      double percentage = percentageAlongLineSegment3D(pointX, pointY, pointZ, lineSegmentStartX, lineSegmentStartY, lineSegmentStartZ, lineSegmentEndX,
+                                                       lineSegmentEndY, lineSegmentEndZ);
 
       if (percentage > 1.0)
          percentage = 1.0;
       else if (percentage < 0.0)
          percentage = 0.0;
 
-      double projectionX = (1.0 - percentage) * lineSegmentStart.getX() + percentage * lineSegmentEnd.getX();
-      double projectionY = (1.0 - percentage) * lineSegmentStart.getY() + percentage * lineSegmentEnd.getY();
-      double projectionZ = (1.0 - percentage) * lineSegmentStart.getZ() + percentage * lineSegmentEnd.getZ();
+      double projectionX = (1.0 - percentage) * lineSegmentStartX + percentage * lineSegmentEndX;
+      double projectionY = (1.0 - percentage) * lineSegmentStartY + percentage * lineSegmentEndY;
+      double projectionZ = (1.0 - percentage) * lineSegmentStartZ + percentage * lineSegmentEndZ;
 
       double dx = projectionX - pointX;
       double dy = projectionY - pointY;
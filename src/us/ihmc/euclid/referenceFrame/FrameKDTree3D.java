@@ -0,0 +1,188 @@
+package us.ihmc.euclid.referenceFrame;
+
+import us.ihmc.euclid.geometry.KDTree3D;
+import us.ihmc.euclid.geometry.SpatialQueryResult;
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.interfaces.FramePoint3DReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVertex3DSupplier;
+import us.ihmc.euclid.referenceFrame.interfaces.ReferenceFrameHolder;
+
+/**
+ * {@code FrameKDTree3D} is a {@link KDTree3D} whose points are expressed in a given reference
+ * frame.
+ * <p>
+ * The reference frame is enforced at runtime when building the tree from frame points and when
+ * querying it, the queries have to be expressed in the same frame as the tree. The tree does not
+ * support changing frame, it has to be rebuilt from points expressed in the new frame.
+ * </p>
+ */
+public class FrameKDTree3D implements ReferenceFrameHolder
+{
+   /** The reference frame in which the points of this tree are expressed. */
+   private ReferenceFrame referenceFrame;
+   /** The tree. */
+   private final KDTree3D tree = new KDTree3D();
+
+   /**
+    * Creates a new empty tree expressed in {@link ReferenceFrame#getWorldFrame()}.
+    */
+   public FrameKDTree3D()
+   {
+      this(ReferenceFrame.getWorldFrame());
+   }
+
+   /**
+    * Creates a new empty tree expressed in the given reference frame.
+    *
+    * @param referenceFrame the initial frame for this tree.
+    */
+   public FrameKDTree3D(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+   }
+
+   /**
+    * Removes all the points from this tree and sets its reference frame.
+    *
+    * @param referenceFrame the new reference frame for this tree.
+    */
+   public void setToZero(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+      tree.clear();
+   }
+
+   /**
+    * Builds this tree from the given vertices.
+    *
+    * @param vertices the points to index. Not modified.
+    * @throws ReferenceFrameMismatchException if any of the vertices is not expressed in the same
+    *            reference frame as {@code this}.
+    */
+   public void build(FrameVertex3DSupplier vertices)
+   {
+      for (int i = 0; i < vertices.getNumberOfVertices(); i++)
+         checkReferenceFrameMatch(vertices.getVertex(i));
+
+      tree.build(vertices);
+   }
+
+   /**
+    * Builds this tree from the points of the given range and sets its reference frame.
+    *
+    * @param referenceFrame the reference frame in which the points are expressed.
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to index.
+    * @param endIndex the index after the last point to index.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    * @see KDTree3D#build(double[], double[], double[], int, int)
+    */
+   public void build(ReferenceFrame referenceFrame, double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      this.referenceFrame = referenceFrame;
+      tree.build(xs, ys, zs, startIndex, endIndex);
+   }
+
+   /**
+    * Builds this tree from the points of the given range using multiple threads and sets its
+    * reference frame.
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param referenceFrame the reference frame in which the points are expressed.
+    * @param xs the x-coordinates of the points. Not modified.
+    * @param ys the y-coordinates of the points. Not modified.
+    * @param zs the z-coordinates of the points. Not modified.
+    * @param startIndex the index of the first point to index.
+    * @param endIndex the index after the last point to index.
+    * @throws IllegalArgumentException if the range is invalid or if any array is too short.
+    * @see KDTree3D#buildParallel(double[], double[], double[], int, int)
+    */
+   public void buildParallel(ReferenceFrame referenceFrame, double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      this.referenceFrame = referenceFrame;
+      tree.buildParallel(xs, ys, zs, startIndex, endIndex);
+   }
+
+   /**
+    * Finds the point of this tree that is the closest to the query.
+    *
+    * @param query the query. Not modified.
+    * @param resultToPack the buffer in which the nearest point is stored. Modified.
+    * @return the index of the nearest point or {@code -1} if this tree is empty.
+    * @throws ReferenceFrameMismatchException if {@code query} is not expressed in the same reference
+    *            frame as {@code this}.
+    * @see KDTree3D#findNearest(us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly, SpatialQueryResult)
+    */
+   public int findNearest(FramePoint3DReadOnly query, SpatialQueryResult resultToPack)
+   {
+      checkReferenceFrameMatch(query);
+      return tree.findNearest(query, resultToPack);
+   }
+
+   /**
+    * Finds the {@code k} points of this tree that are the closest to the query.
+    *
+    * @param query the query. Not modified.
+    * @param k the number of points to find.
+    * @param resultToPack the buffer in which the points are stored sorted by increasing distance.
+    *           Modified.
+    * @throws ReferenceFrameMismatchException if {@code query} is not expressed in the same reference
+    *            frame as {@code this}.
+    * @see KDTree3D#findKNearest(us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly, int,
+    *      SpatialQueryResult)
+    */
+   public void findKNearest(FramePoint3DReadOnly query, int k, SpatialQueryResult resultToPack)
+   {
+      checkReferenceFrameMatch(query);
+      tree.findKNearest(query, k, resultToPack);
+   }
+
+   /**
+    * Finds all the points of this tree that are within a distance {@code radius} of the query.
+    *
+    * @param query the query. Not modified.
+    * @param radius the search radius.
+    * @param resultToPack the buffer in which the points are stored. Modified.
+    * @throws ReferenceFrameMismatchException if {@code query} is not expressed in the same reference
+    *            frame as {@code this}.
+    * @see KDTree3D#findWithinRadius(us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly, double,
+    *      SpatialQueryResult)
+    */
+   public void findWithinRadius(FramePoint3DReadOnly query, double radius, SpatialQueryResult resultToPack)
+   {
+      checkReferenceFrameMatch(query);
+      tree.findWithinRadius(query, radius, resultToPack);
+   }
+
+   /**
+    * Gets the number of points in this tree.
+    *
+    * @return the number of points.
+    */
+   public int size()
+   {
+      return tree.size();
+   }
+
+   /**
+    * Gets the reference to the underlying tree, the queries performed on it are not checked against
+    * the reference frame of {@code this}.
+    *
+    * @return the tree.
+    */
+   public KDTree3D getKDTree()
+   {
+      return tree;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public ReferenceFrame getReferenceFrame()
+   {
+      return referenceFrame;
+   }
+}
@@ -143,6 +143,20 @@ public class FrameOrientation2D implements FrameOrientation2DBasics, GeometryObj
       return orientation.getYaw();
    }
 
+   /** {@inheritDoc} */
+   @Override
+   public double getCosYaw()
+   {
+      return orientation.getCosYaw();
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public double getSinYaw()
+   {
+      return orientation.getSinYaw();
+   }
+
    /** {@inheritDoc} */
    @Override
    public void applyTransform(Transform transform)
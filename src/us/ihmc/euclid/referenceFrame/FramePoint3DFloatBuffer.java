@@ -0,0 +1,315 @@
+package us.ihmc.euclid.referenceFrame;
+
+import us.ihmc.euclid.geometry.BoundingBox3D;
+import us.ihmc.euclid.geometry.Point3DFloatBuffer;
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.interfaces.FixedFrameTuple3DBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameChangeable;
+import us.ihmc.euclid.referenceFrame.interfaces.FramePoint3DReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameTuple3DReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVertex3DSupplier;
+import us.ihmc.euclid.tools.EuclidCoreIOTools;
+import us.ihmc.euclid.transform.interfaces.Transform;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+
+/**
+ * {@code FramePoint3DFloatBuffer} is a {@link Point3DFloatBuffer} expressed in a given reference
+ * frame.
+ * <p>
+ * In addition to representing a {@link Point3DFloatBuffer}, a {@link ReferenceFrame} is associated
+ * to a {@code FramePoint3DFloatBuffer}. This allows, for instance, to enforce, at runtime, that the
+ * points added to the buffer are expressed in the same coordinate system. Also, via the method
+ * {@link #changeFrame(ReferenceFrame)}, one can easily calculates the value of the points in
+ * different coordinate systems.
+ * </p>
+ * <p>
+ * As for {@link Point3DFloatBuffer}, the point returned by {@link #getVertex(int)} is a view backed
+ * by this buffer that is reused by the next call.
+ * </p>
+ */
+public class FramePoint3DFloatBuffer implements FrameVertex3DSupplier, FrameChangeable
+{
+   /** The reference frame in which the points are expressed. */
+   private ReferenceFrame referenceFrame;
+   /** The points. */
+   private final Point3DFloatBuffer buffer;
+
+   // Internal variables used to enable garbage free operations.
+   private final FramePointView pointView = new FramePointView();
+
+   /**
+    * Creates a new empty buffer expressed in {@link ReferenceFrame#getWorldFrame()}.
+    */
+   public FramePoint3DFloatBuffer()
+   {
+      this(ReferenceFrame.getWorldFrame());
+   }
+
+   /**
+    * Creates a new empty buffer expressed in the given reference frame.
+    *
+    * @param referenceFrame the initial frame for this buffer.
+    */
+   public FramePoint3DFloatBuffer(ReferenceFrame referenceFrame)
+   {
+      this(referenceFrame, 16);
+   }
+
+   /**
+    * Creates a new empty buffer expressed in the given reference frame.
+    *
+    * @param referenceFrame the initial frame for this buffer.
+    * @param initialCapacity the number of points that can be added before the internal array needs
+    *           to grow.
+    */
+   public FramePoint3DFloatBuffer(ReferenceFrame referenceFrame, int initialCapacity)
+   {
+      this.referenceFrame = referenceFrame;
+      buffer = new Point3DFloatBuffer(initialCapacity);
+   }
+
+   /**
+    * Removes all the points of this buffer and sets its reference frame.
+    *
+    * @param referenceFrame the new reference frame for this buffer.
+    */
+   public void setToZero(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+      buffer.clear();
+   }
+
+   /**
+    * Removes all the points of this buffer.
+    */
+   public void clear()
+   {
+      buffer.clear();
+   }
+
+   /**
+    * Sets this buffer to {@code other}.
+    *
+    * @param other the other buffer to copy. Not modified.
+    * @throws ReferenceFrameMismatchException if {@code other} is not expressed in the same reference
+    *            frame as {@code this}.
+    */
+   public void set(FramePoint3DFloatBuffer other)
+   {
+      checkReferenceFrameMatch(other);
+      buffer.set(other.buffer);
+   }
+
+   /**
+    * Sets this buffer to {@code other} and sets its reference frame to {@code other}'s.
+    *
+    * @param other the other buffer to copy. Not modified.
+    */
+   public void setIncludingFrame(FramePoint3DFloatBuffer other)
+   {
+      referenceFrame = other.referenceFrame;
+      buffer.set(other.buffer);
+   }
+
+   /**
+    * Gets the number of points in this buffer.
+    *
+    * @return the number of points.
+    */
+   public int size()
+   {
+      return buffer.size();
+   }
+
+   /**
+    * Whether this buffer is empty.
+    *
+    * @return {@code true} if there is no point, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return buffer.isEmpty();
+   }
+
+   /**
+    * Adds a point at the end of this buffer.
+    *
+    * @param point the new point. Not modified.
+    * @throws ReferenceFrameMismatchException if {@code point} is not expressed in the same reference
+    *            frame as {@code this}.
+    */
+   public void add(FrameTuple3DReadOnly point)
+   {
+      checkReferenceFrameMatch(point);
+      buffer.add(point);
+   }
+
+   /**
+    * Adds all the vertices of the given supplier at the end of this buffer.
+    *
+    * @param vertices the points to add. Not modified.
+    * @throws ReferenceFrameMismatchException if any of the vertices is not expressed in the same
+    *            reference frame as {@code this}.
+    */
+   public void addAll(FrameVertex3DSupplier vertices)
+   {
+      for (int i = 0; i < vertices.getNumberOfVertices(); i++)
+         checkReferenceFrameMatch(vertices.getVertex(i));
+
+      buffer.addAll(vertices);
+   }
+
+   /**
+    * Sets the coordinates of the i<sup>th</sup> point of this buffer.
+    *
+    * @param index the index of the point.
+    * @param point the new coordinates of the point. Not modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    * @throws ReferenceFrameMismatchException if {@code point} is not expressed in the same reference
+    *            frame as {@code this}.
+    */
+   public void set(int index, FrameTuple3DReadOnly point)
+   {
+      checkReferenceFrameMatch(point);
+      buffer.set(index, point);
+   }
+
+   /**
+    * Packs the coordinates of the i<sup>th</sup> point of this buffer.
+    *
+    * @param index the index of the point.
+    * @param tupleToPack the tuple in which the coordinates are stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    * @throws ReferenceFrameMismatchException if {@code tupleToPack} is not expressed in the same
+    *            reference frame as {@code this}.
+    */
+   public void get(int index, FixedFrameTuple3DBasics tupleToPack)
+   {
+      checkReferenceFrameMatch(tupleToPack);
+      buffer.get(index, tupleToPack);
+   }
+
+   /**
+    * Gets a read-only view of the i<sup>th</sup> point of this buffer.
+    * <p>
+    * The same view is returned by every call to this method and is moved to the requested point, it
+    * should not be stored.
+    * </p>
+    *
+    * @param index the index of the point.
+    * @return the view of the point.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   @Override
+   public FramePoint3DReadOnly getVertex(int index)
+   {
+      pointView.point = buffer.getVertex(index);
+      return pointView;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public int getNumberOfVertices()
+   {
+      return buffer.size();
+   }
+
+   /**
+    * Computes the axis-aligned bounding box of the points of this buffer.
+    * <p>
+    * The bounding box is expressed in the reference frame of this buffer.
+    * </p>
+    *
+    * @param boundingBoxToPack the bounding box in which the result is stored, it is set to
+    *           {@link Double#NaN} if this buffer is empty. Modified.
+    */
+   public void getBoundingBox(BoundingBox3D boundingBoxToPack)
+   {
+      buffer.getBoundingBox(boundingBoxToPack);
+   }
+
+   /**
+    * Gets the reference to the underlying buffer, the operations performed on it are not checked
+    * against the reference frame of {@code this}.
+    *
+    * @return the buffer.
+    */
+   public Point3DFloatBuffer getBuffer()
+   {
+      return buffer;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void setReferenceFrame(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public ReferenceFrame getReferenceFrame()
+   {
+      return referenceFrame;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void applyTransform(Transform transform)
+   {
+      buffer.applyTransform(transform);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void applyInverseTransform(Transform transform)
+   {
+      buffer.applyInverseTransform(transform);
+   }
+
+   /**
+    * Provides a {@code String} representation of this buffer.
+    *
+    * @return the {@code String} representing this buffer.
+    */
+   @Override
+   public String toString()
+   {
+      return buffer + "-" + referenceFrame;
+   }
+
+   private class FramePointView implements FramePoint3DReadOnly
+   {
+      private Point3DReadOnly point;
+
+      @Override
+      public ReferenceFrame getReferenceFrame()
+      {
+         return referenceFrame;
+      }
+
+      @Override
+      public double getX()
+      {
+         return point.getX();
+      }
+
+      @Override
+      public double getY()
+      {
+         return point.getY();
+      }
+
+      @Override
+      public double getZ()
+      {
+         return point.getZ();
+      }
+
+      @Override
+      public String toString()
+      {
+         return EuclidCoreIOTools.getTuple3DString(this) + "-" + referenceFrame;
+      }
+   }
+}
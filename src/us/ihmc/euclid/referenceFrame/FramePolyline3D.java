@@ -0,0 +1,272 @@
+package us.ihmc.euclid.referenceFrame;
+
+import us.ihmc.euclid.geometry.Polyline3D;
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.interfaces.FixedFramePoint3DBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FixedFrameVector3DBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameChangeable;
+import us.ihmc.euclid.referenceFrame.interfaces.FramePoint3DReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVertex3DSupplier;
+import us.ihmc.euclid.transform.interfaces.Transform;
+
+/**
+ * {@code FramePolyline3D} is a {@link Polyline3D} expressed in a given reference frame.
+ * <p>
+ * In addition to representing a {@link Polyline3D}, a {@link ReferenceFrame} is associated to a
+ * {@code FramePolyline3D}. This allows, for instance, to enforce, at runtime, that operations on
+ * the path and on points occur in the same coordinate system. Also, via the method
+ * {@link #changeFrame(ReferenceFrame)}, one can easily calculates the value of the path in
+ * different coordinate systems.
+ * </p>
+ */
+public class FramePolyline3D implements FrameChangeable
+{
+   /** The reference frame in which the path is expressed. */
+   private ReferenceFrame referenceFrame;
+   /** The path. */
+   private final Polyline3D polyline = new Polyline3D();
+
+   /**
+    * Creates a new empty polyline expressed in {@link ReferenceFrame#getWorldFrame()}.
+    */
+   public FramePolyline3D()
+   {
+      this(ReferenceFrame.getWorldFrame());
+   }
+
+   /**
+    * Creates a new empty polyline expressed in the given reference frame.
+    *
+    * @param referenceFrame the initial frame for this polyline.
+    */
+   public FramePolyline3D(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+   }
+
+   /**
+    * Removes all the vertices of this polyline and sets its reference frame.
+    *
+    * @param referenceFrame the new reference frame for this polyline.
+    */
+   public void setToZero(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+      polyline.clear();
+   }
+
+   /**
+    * Removes all the vertices of this polyline.
+    */
+   public void clear()
+   {
+      polyline.clear();
+   }
+
+   /**
+    * Sets this polyline to {@code other}.
+    *
+    * @param other the other polyline to copy. Not modified.
+    * @throws ReferenceFrameMismatchException if {@code other} is not expressed in the same reference
+    *            frame as {@code this}.
+    */
+   public void set(FramePolyline3D other)
+   {
+      checkReferenceFrameMatch(other);
+      polyline.set(other.polyline);
+   }
+
+   /**
+    * Sets this polyline to {@code other} and sets its reference frame to {@code other}'s.
+    *
+    * @param other the other polyline to copy. Not modified.
+    */
+   public void setIncludingFrame(FramePolyline3D other)
+   {
+      referenceFrame = other.referenceFrame;
+      polyline.set(other.polyline);
+   }
+
+   /**
+    * Sets this polyline to go through the given vertices in order.
+    *
+    * @param vertices the vertices of the path. Not modified.
+    * @throws ReferenceFrameMismatchException if any of the vertices is not expressed in the same
+    *            reference frame as {@code this}.
+    */
+   public void set(FrameVertex3DSupplier vertices)
+   {
+      for (int i = 0; i < vertices.getNumberOfVertices(); i++)
+         checkReferenceFrameMatch(vertices.getVertex(i));
+
+      polyline.set(vertices);
+   }
+
+   /**
+    * Adds a vertex at the end of this polyline.
+    *
+    * @param vertex the new vertex. Not modified.
+    * @throws ReferenceFrameMismatchException if {@code vertex} is not expressed in the same reference
+    *            frame as {@code this}.
+    */
+   public void addVertex(FramePoint3DReadOnly vertex)
+   {
+      checkReferenceFrameMatch(vertex);
+      polyline.addVertex(vertex);
+   }
+
+   /**
+    * Gets the number of vertices of this polyline.
+    *
+    * @return the number of vertices.
+    */
+   public int getNumberOfVertices()
+   {
+      return polyline.getNumberOfVertices();
+   }
+
+   /**
+    * Packs the coordinates of the i<sup>th</sup> vertex.
+    *
+    * @param index the index of the vertex.
+    * @param vertexToPack the point in which the coordinates are stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    * @throws ReferenceFrameMismatchException if {@code vertexToPack} is not expressed in the same
+    *            reference frame as {@code this}.
+    */
+   public void getVertex(int index, FixedFramePoint3DBasics vertexToPack)
+   {
+      checkReferenceFrameMatch(vertexToPack);
+      polyline.getVertex(index, vertexToPack);
+   }
+
+   /**
+    * Gets the total length of this polyline.
+    *
+    * @return the length of the path.
+    */
+   public double getLength()
+   {
+      return polyline.getLength();
+   }
+
+   /**
+    * Computes the coordinates of the point located at the given arc-length along this polyline.
+    *
+    * @param arcLength the arc-length from the first vertex.
+    * @param pointToPack the point in which the result is stored. Modified.
+    * @throws ReferenceFrameMismatchException if {@code pointToPack} is not expressed in the same
+    *            reference frame as {@code this}.
+    * @see Polyline3D#pointAtArcLength(double, us.ihmc.euclid.tuple3D.interfaces.Point3DBasics)
+    */
+   public void pointAtArcLength(double arcLength, FixedFramePoint3DBasics pointToPack)
+   {
+      checkReferenceFrameMatch(pointToPack);
+      polyline.pointAtArcLength(arcLength, pointToPack);
+   }
+
+   /**
+    * Computes the direction of the path at the given arc-length.
+    *
+    * @param arcLength the arc-length from the first vertex.
+    * @param directionToPack the vector in which the unit-length direction is stored. Modified.
+    * @throws ReferenceFrameMismatchException if {@code directionToPack} is not expressed in the same
+    *            reference frame as {@code this}.
+    * @see Polyline3D#directionAtArcLength(double, us.ihmc.euclid.tuple3D.interfaces.Vector3DBasics)
+    */
+   public void directionAtArcLength(double arcLength, FixedFrameVector3DBasics directionToPack)
+   {
+      checkReferenceFrameMatch(directionToPack);
+      polyline.directionAtArcLength(arcLength, directionToPack);
+   }
+
+   /**
+    * Computes the orthogonal projection of a point onto this polyline.
+    *
+    * @param pointToProject the point to project. Not modified.
+    * @param projectionToPack the point in which the projection is stored. Modified.
+    * @return the arc-length of the projection.
+    * @throws ReferenceFrameMismatchException if the arguments are not expressed in the same reference
+    *            frame as {@code this}.
+    * @see Polyline3D#orthogonalProjection(us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly,
+    *      us.ihmc.euclid.tuple3D.interfaces.Point3DBasics)
+    */
+   public double orthogonalProjection(FramePoint3DReadOnly pointToProject, FixedFramePoint3DBasics projectionToPack)
+   {
+      checkReferenceFrameMatch(pointToProject);
+      checkReferenceFrameMatch(projectionToPack);
+      return polyline.orthogonalProjection(pointToProject, projectionToPack);
+   }
+
+   /**
+    * Computes the orthogonal projection of a point onto the part of this polyline located within
+    * {@code searchWindow} of arc-length around {@code arcLengthGuess}.
+    *
+    * @param pointToProject the point to project. Not modified.
+    * @param arcLengthGuess the arc-length around which the projection is searched for.
+    * @param searchWindow the maximum arc-length between the guess and the projection.
+    * @param projectionToPack the point in which the projection is stored. Modified.
+    * @return the arc-length of the projection.
+    * @throws ReferenceFrameMismatchException if the arguments are not expressed in the same reference
+    *            frame as {@code this}.
+    * @see Polyline3D#orthogonalProjection(us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly, double,
+    *      double, us.ihmc.euclid.tuple3D.interfaces.Point3DBasics)
+    */
+   public double orthogonalProjection(FramePoint3DReadOnly pointToProject, double arcLengthGuess, double searchWindow,
+                                      FixedFramePoint3DBasics projectionToPack)
+   {
+      checkReferenceFrameMatch(pointToProject);
+      checkReferenceFrameMatch(projectionToPack);
+      return polyline.orthogonalProjection(pointToProject, arcLengthGuess, searchWindow, projectionToPack);
+   }
+
+   /**
+    * Gets the reference to the underlying polyline, the operations performed on it are not checked
+    * against the reference frame of {@code this}.
+    *
+    * @return the polyline.
+    */
+   public Polyline3D getPolyline()
+   {
+      return polyline;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void setReferenceFrame(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public ReferenceFrame getReferenceFrame()
+   {
+      return referenceFrame;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void applyTransform(Transform transform)
+   {
+      polyline.applyTransform(transform);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void applyInverseTransform(Transform transform)
+   {
+      polyline.applyInverseTransform(transform);
+   }
+
+   /**
+    * Provides a {@code String} representation of this polyline.
+    *
+    * @return the {@code String} representing this polyline.
+    */
+   @Override
+   public String toString()
+   {
+      return polyline + "-" + referenceFrame;
+   }
+}
@@ -0,0 +1,246 @@
+package us.ihmc.euclid.referenceFrame;
+
+import us.ihmc.euclid.geometry.Pose3DTrajectory;
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.interfaces.FixedFramePose3DBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameChangeable;
+import us.ihmc.euclid.referenceFrame.interfaces.FramePose3DReadOnly;
+import us.ihmc.euclid.transform.interfaces.Transform;
+
+/**
+ * {@code FramePose3DTrajectory} is a {@link Pose3DTrajectory} expressed in a given reference frame.
+ * <p>
+ * In addition to representing a {@link Pose3DTrajectory}, a {@link ReferenceFrame} is associated to
+ * a {@code FramePose3DTrajectory}. This allows, for instance, to enforce, at runtime, that the
+ * waypoints and the sampled poses are expressed in the same coordinate system. Also, via the method
+ * {@link #changeFrame(ReferenceFrame)}, one can easily calculates the value of the trajectory in
+ * different coordinate systems.
+ * </p>
+ */
+public class FramePose3DTrajectory implements FrameChangeable
+{
+   /** The reference frame in which the trajectory is expressed. */
+   private ReferenceFrame referenceFrame;
+   /** The trajectory. */
+   private final Pose3DTrajectory trajectory = new Pose3DTrajectory();
+
+   /**
+    * Creates a new empty trajectory expressed in {@link ReferenceFrame#getWorldFrame()}.
+    */
+   public FramePose3DTrajectory()
+   {
+      this(ReferenceFrame.getWorldFrame());
+   }
+
+   /**
+    * Creates a new empty trajectory expressed in the given reference frame.
+    *
+    * @param referenceFrame the initial frame for this trajectory.
+    */
+   public FramePose3DTrajectory(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+   }
+
+   /**
+    * Removes all the waypoints of this trajectory and sets its reference frame.
+    *
+    * @param referenceFrame the new reference frame for this trajectory.
+    */
+   public void setToZero(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+      trajectory.clear();
+   }
+
+   /**
+    * Removes all the waypoints of this trajectory.
+    */
+   public void clear()
+   {
+      trajectory.clear();
+   }
+
+   /**
+    * Sets this trajectory to {@code other}.
+    *
+    * @param other the other trajectory to copy. Not modified.
+    * @throws ReferenceFrameMismatchException if {@code other} is not expressed in the same reference
+    *            frame as {@code this}.
+    */
+   public void set(FramePose3DTrajectory other)
+   {
+      checkReferenceFrameMatch(other);
+      trajectory.set(other.trajectory);
+   }
+
+   /**
+    * Sets this trajectory to {@code other} and sets its reference frame to {@code other}'s.
+    *
+    * @param other the other trajectory to copy. Not modified.
+    */
+   public void setIncludingFrame(FramePose3DTrajectory other)
+   {
+      referenceFrame = other.referenceFrame;
+      trajectory.set(other.trajectory);
+   }
+
+   /**
+    * Sets this trajectory to go from {@code start} at the time {@code 0.0} to {@code end} at the time
+    * {@code 1.0}.
+    *
+    * @param start the first waypoint. Not modified.
+    * @param end the second waypoint. Not modified.
+    * @throws ReferenceFrameMismatchException if the arguments are not expressed in the same reference
+    *            frame as {@code this}.
+    * @see Pose3DTrajectory#set(us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly,
+    *      us.ihmc.euclid.geometry.interfaces.Pose3DReadOnly)
+    */
+   public void set(FramePose3DReadOnly start, FramePose3DReadOnly end)
+   {
+      checkReferenceFrameMatch(start);
+      checkReferenceFrameMatch(end);
+      trajectory.set(start, end);
+   }
+
+   /**
+    * Adds a waypoint at the end of this trajectory.
+    *
+    * @param time the time of the new waypoint.
+    * @param pose the new waypoint. Not modified.
+    * @throws ReferenceFrameMismatchException if {@code pose} is not expressed in the same reference
+    *            frame as {@code this}.
+    * @throws IllegalArgumentException if {@code time} is {@link Double#NaN} or not greater than the
+    *            time of the last waypoint.
+    */
+   public void addWaypoint(double time, FramePose3DReadOnly pose)
+   {
+      checkReferenceFrameMatch(pose);
+      trajectory.addWaypoint(time, pose);
+   }
+
+   /**
+    * Gets the number of waypoints of this trajectory.
+    *
+    * @return the number of waypoints.
+    */
+   public int getNumberOfWaypoints()
+   {
+      return trajectory.getNumberOfWaypoints();
+   }
+
+   /**
+    * Gets the time of the i<sup>th</sup> waypoint.
+    *
+    * @param index the index of the waypoint.
+    * @return the time of the waypoint.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getTime(int index)
+   {
+      return trajectory.getTime(index);
+   }
+
+   /**
+    * Packs the i<sup>th</sup> waypoint.
+    *
+    * @param index the index of the waypoint.
+    * @param poseToPack the pose in which the waypoint is stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    * @throws ReferenceFrameMismatchException if {@code poseToPack} is not expressed in the same
+    *            reference frame as {@code this}.
+    */
+   public void getWaypoint(int index, FixedFramePose3DBasics poseToPack)
+   {
+      checkReferenceFrameMatch(poseToPack);
+      trajectory.getWaypoint(index, poseToPack);
+   }
+
+   /**
+    * Computes the pose of this trajectory at the given time.
+    *
+    * @param time the time at which the pose is sampled.
+    * @param poseToPack the pose in which the result is stored. Modified.
+    * @throws ReferenceFrameMismatchException if {@code poseToPack} is not expressed in the same
+    *            reference frame as {@code this}.
+    * @see Pose3DTrajectory#sample(double, us.ihmc.euclid.geometry.interfaces.Pose3DBasics)
+    */
+   public void sample(double time, FixedFramePose3DBasics poseToPack)
+   {
+      checkReferenceFrameMatch(poseToPack);
+      trajectory.sample(time, poseToPack);
+   }
+
+   /**
+    * Computes the poses of this trajectory at the times of the given range, the components of the
+    * poses being expressed in the reference frame of this trajectory.
+    *
+    * @param times the times at which the poses are sampled. Not modified.
+    * @param xs the array in which the x-coordinates of the positions are stored. Modified.
+    * @param ys the array in which the y-coordinates of the positions are stored. Modified.
+    * @param zs the array in which the z-coordinates of the positions are stored. Modified.
+    * @param qxs the array in which the x-components of the orientations are stored. Modified.
+    * @param qys the array in which the y-components of the orientations are stored. Modified.
+    * @param qzs the array in which the z-components of the orientations are stored. Modified.
+    * @param qss the array in which the s-components of the orientations are stored. Modified.
+    * @param startIndex the index of the first time to sample.
+    * @param endIndex the index after the last time to sample.
+    * @see Pose3DTrajectory#sample(double[], double[], double[], double[], double[], double[], double[],
+    *      double[], int, int)
+    */
+   public void sample(double[] times, double[] xs, double[] ys, double[] zs, double[] qxs, double[] qys, double[] qzs, double[] qss, int startIndex,
+                      int endIndex)
+   {
+      trajectory.sample(times, xs, ys, zs, qxs, qys, qzs, qss, startIndex, endIndex);
+   }
+
+   /**
+    * Gets the reference to the underlying trajectory, the operations performed on it are not checked
+    * against the reference frame of {@code this}.
+    *
+    * @return the trajectory.
+    */
+   public Pose3DTrajectory getTrajectory()
+   {
+      return trajectory;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void setReferenceFrame(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public ReferenceFrame getReferenceFrame()
+   {
+      return referenceFrame;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void applyTransform(Transform transform)
+   {
+      trajectory.applyTransform(transform);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void applyInverseTransform(Transform transform)
+   {
+      trajectory.applyInverseTransform(transform);
+   }
+
+   /**
+    * Provides a {@code String} representation of this trajectory.
+    *
+    * @return the {@code String} representing this trajectory.
+    */
+   @Override
+   public String toString()
+   {
+      return trajectory + "-" + referenceFrame;
+   }
+}
@@ -0,0 +1,586 @@
+package us.ihmc.euclid.referenceFrame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import us.ihmc.euclid.geometry.QuaternionAverageCalculator;
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.interfaces.FixedFrameQuaternionBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameChangeable;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameQuaternionReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameTuple3DReadOnly;
+import us.ihmc.euclid.tools.EuclidCoreIOTools;
+import us.ihmc.euclid.transform.interfaces.Transform;
+import us.ihmc.euclid.tuple4D.Quaternion;
+
+/**
+ * {@code FrameQuaternionBuffer} stores a sequence of quaternions expressed in the same reference
+ * frame and provides operations on all of them at once.
+ * <p>
+ * The components of the quaternions are stored in separate arrays. Since all the quaternions are
+ * expressed in the reference frame of this buffer, the operations involving other frame objects
+ * check the reference frames once per call instead of once per quaternion. None of the operations
+ * generate garbage.
+ * </p>
+ * <p>
+ * The average of the quaternions is computed with the eigenvector method, see
+ * {@link QuaternionAverageCalculator}.
+ * </p>
+ */
+public class FrameQuaternionBuffer implements FrameChangeable
+{
+   /** The reference frame in which the quaternions are expressed. */
+   private ReferenceFrame referenceFrame;
+   private int size = 0;
+   private double[] qxs, qys, qzs, qss;
+
+   // Internal variables used to enable garbage free operations.
+   private final Quaternion quaternion = new Quaternion();
+   private final QuaternionAverageCalculator averageCalculator = new QuaternionAverageCalculator();
+
+   /**
+    * Creates a new empty buffer expressed in {@link ReferenceFrame#getWorldFrame()}.
+    */
+   public FrameQuaternionBuffer()
+   {
+      this(ReferenceFrame.getWorldFrame());
+   }
+
+   /**
+    * Creates a new empty buffer expressed in the given reference frame.
+    *
+    * @param referenceFrame the initial frame for this buffer.
+    */
+   public FrameQuaternionBuffer(ReferenceFrame referenceFrame)
+   {
+      this(referenceFrame, 16);
+   }
+
+   /**
+    * Creates a new empty buffer expressed in the given reference frame.
+    *
+    * @param referenceFrame the initial frame for this buffer.
+    * @param initialCapacity the number of quaternions that can be added before the internal arrays
+    *           need to grow.
+    */
+   public FrameQuaternionBuffer(ReferenceFrame referenceFrame, int initialCapacity)
+   {
+      this.referenceFrame = referenceFrame;
+      initialCapacity = Math.max(1, initialCapacity);
+      qxs = new double[initialCapacity];
+      qys = new double[initialCapacity];
+      qzs = new double[initialCapacity];
+      qss = new double[initialCapacity];
+   }
+
+   /**
+    * Removes all the quaternions of this buffer and sets its reference frame.
+    *
+    * @param referenceFrame the new reference frame for this buffer.
+    */
+   public void setToZero(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+      size = 0;
+   }
+
+   /**
+    * Removes all the quaternions of this buffer.
+    */
+   public void clear()
+   {
+      size = 0;
+   }
+
+   /**
+    * Gets the number of quaternions in this buffer.
+    *
+    * @return the number of quaternions.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Whether this buffer is empty.
+    *
+    * @return {@code true} if there is no quaternion, {@code false} otherwise.
+    */
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   /**
+    * Adds a quaternion at the end of this buffer.
+    *
+    * @param quaternion the quaternion to add. Not modified.
+    * @throws ReferenceFrameMismatchException if {@code quaternion} is not expressed in the same
+    *            reference frame as {@code this}.
+    */
+   public void add(FrameQuaternionReadOnly quaternion)
+   {
+      checkReferenceFrameMatch(quaternion);
+      add(quaternion.getX(), quaternion.getY(), quaternion.getZ(), quaternion.getS());
+   }
+
+   /**
+    * Adds a quaternion expressed in the reference frame of this buffer at the end of this buffer.
+    * <p>
+    * The components are stored as given, see {@link #normalize()}.
+    * </p>
+    *
+    * @param qx the x-component of the quaternion.
+    * @param qy the y-component of the quaternion.
+    * @param qz the z-component of the quaternion.
+    * @param qs the s-component of the quaternion.
+    */
+   public void add(double qx, double qy, double qz, double qs)
+   {
+      ensureCapacity(size + 1);
+      qxs[size] = qx;
+      qys[size] = qy;
+      qzs[size] = qz;
+      qss[size] = qs;
+      size++;
+   }
+
+   /**
+    * Adds the given quaternions at the end of this buffer.
+    *
+    * @param quaternions the quaternions to add. Not modified.
+    * @throws ReferenceFrameMismatchException if any of the quaternions is not expressed in the same
+    *            reference frame as {@code this}, in which case this buffer is not modified.
+    */
+   public void addAll(List<? extends FrameQuaternionReadOnly> quaternions)
+   {
+      for (int i = 0; i < quaternions.size(); i++)
+         checkReferenceFrameMatch(quaternions.get(i));
+
+      ensureCapacity(size + quaternions.size());
+
+      for (int i = 0; i < quaternions.size(); i++)
+      {
+         FrameQuaternionReadOnly quaternion = quaternions.get(i);
+         add(quaternion.getX(), quaternion.getY(), quaternion.getZ(), quaternion.getS());
+      }
+   }
+
+   private void ensureCapacity(int capacity)
+   {
+      if (capacity > qxs.length)
+      {
+         capacity = Math.max(capacity, 2 * qxs.length);
+         qxs = Arrays.copyOf(qxs, capacity);
+         qys = Arrays.copyOf(qys, capacity);
+         qzs = Arrays.copyOf(qzs, capacity);
+         qss = Arrays.copyOf(qss, capacity);
+      }
+   }
+
+   /**
+    * Sets the i<sup>th</sup> quaternion of this buffer.
+    *
+    * @param index the index of the quaternion.
+    * @param quaternion the new value of the quaternion. Not modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    * @throws ReferenceFrameMismatchException if {@code quaternion} is not expressed in the same
+    *            reference frame as {@code this}.
+    */
+   public void set(int index, FrameQuaternionReadOnly quaternion)
+   {
+      checkIndex(index);
+      checkReferenceFrameMatch(quaternion);
+      qxs[index] = quaternion.getX();
+      qys[index] = quaternion.getY();
+      qzs[index] = quaternion.getZ();
+      qss[index] = quaternion.getS();
+   }
+
+   /**
+    * Packs the i<sup>th</sup> quaternion of this buffer.
+    *
+    * @param index the index of the quaternion.
+    * @param quaternionToPack the quaternion in which the result is stored. Modified.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    * @throws ReferenceFrameMismatchException if {@code quaternionToPack} is not expressed in the same
+    *            reference frame as {@code this}.
+    */
+   public void get(int index, FixedFrameQuaternionBasics quaternionToPack)
+   {
+      checkIndex(index);
+      checkReferenceFrameMatch(quaternionToPack);
+      quaternionToPack.set(qxs[index], qys[index], qzs[index], qss[index]);
+   }
+
+   /**
+    * Gets the x-component of the i<sup>th</sup> quaternion of this buffer.
+    *
+    * @param index the index of the quaternion.
+    * @return the x-component.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getX(int index)
+   {
+      checkIndex(index);
+      return qxs[index];
+   }
+
+   /**
+    * Gets the y-component of the i<sup>th</sup> quaternion of this buffer.
+    *
+    * @param index the index of the quaternion.
+    * @return the y-component.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getY(int index)
+   {
+      checkIndex(index);
+      return qys[index];
+   }
+
+   /**
+    * Gets the z-component of the i<sup>th</sup> quaternion of this buffer.
+    *
+    * @param index the index of the quaternion.
+    * @return the z-component.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getZ(int index)
+   {
+      checkIndex(index);
+      return qzs[index];
+   }
+
+   /**
+    * Gets the s-component of the i<sup>th</sup> quaternion of this buffer.
+    *
+    * @param index the index of the quaternion.
+    * @return the s-component.
+    * @throws IndexOutOfBoundsException if {@code index} is out of bounds.
+    */
+   public double getS(int index)
+   {
+      checkIndex(index);
+      return qss[index];
+   }
+
+   /**
+    * Normalizes all the quaternions of this buffer.
+    * <p>
+    * Edge cases:
+    * <ul>
+    * <li>A quaternion with a norm of zero is set to {@link Double#NaN}.
+    * </ul>
+    * </p>
+    */
+   public void normalize()
+   {
+      for (int i = 0; i < size; i++)
+         setNormalized(i, qxs[i], qys[i], qzs[i], qss[i]);
+   }
+
+   /**
+    * Multiplies each quaternion of this buffer by {@code other}.
+    * <p>
+    * q<sub>i</sub> = q<sub>i</sub> * other
+    * </p>
+    * <p>
+    * The results are normalized.
+    * </p>
+    *
+    * @param other the other quaternion to multiply each quaternion of this buffer by. Not modified.
+    * @throws ReferenceFrameMismatchException if {@code other} is not expressed in the same reference
+    *            frame as {@code this}.
+    */
+   public void multiply(FrameQuaternionReadOnly other)
+   {
+      checkReferenceFrameMatch(other);
+
+      double bx = other.getX();
+      double by = other.getY();
+      double bz = other.getZ();
+      double bs = other.getS();
+
+      for (int i = 0; i < size; i++)
+         multiply(i, qxs[i], qys[i], qzs[i], qss[i], bx, by, bz, bs);
+   }
+
+   /**
+    * Pre-multiplies each quaternion of this buffer by {@code other}.
+    * <p>
+    * q<sub>i</sub> = other * q<sub>i</sub>
+    * </p>
+    * <p>
+    * The results are normalized.
+    * </p>
+    *
+    * @param other the other quaternion to pre-multiply each quaternion of this buffer by. Not
+    *           modified.
+    * @throws ReferenceFrameMismatchException if {@code other} is not expressed in the same reference
+    *            frame as {@code this}.
+    */
+   public void preMultiply(FrameQuaternionReadOnly other)
+   {
+      checkReferenceFrameMatch(other);
+
+      double ax = other.getX();
+      double ay = other.getY();
+      double az = other.getZ();
+      double as = other.getS();
+
+      for (int i = 0; i < size; i++)
+         multiply(i, ax, ay, az, as, qxs[i], qys[i], qzs[i], qss[i]);
+   }
+
+   /**
+    * Multiplies each quaternion of this buffer by the quaternion with the same index in
+    * {@code other}.
+    * <p>
+    * q<sub>i</sub> = q<sub>i</sub> * other<sub>i</sub>
+    * </p>
+    * <p>
+    * The results are normalized.
+    * </p>
+    *
+    * @param other the other buffer. Not modified.
+    * @throws ReferenceFrameMismatchException if {@code other} is not expressed in the same reference
+    *            frame as {@code this}.
+    * @throws IllegalArgumentException if the two buffers do not have the same size.
+    */
+   public void multiply(FrameQuaternionBuffer other)
+   {
+      checkReferenceFrameMatch(other);
+      if (other.size != size)
+         throw new IllegalArgumentException("The buffers do not have the same size, this: " + size + ", other: " + other.size);
+
+      for (int i = 0; i < size; i++)
+         multiply(i, qxs[i], qys[i], qzs[i], qss[i], other.qxs[i], other.qys[i], other.qzs[i], other.qss[i]);
+   }
+
+   private void multiply(int index, double ax, double ay, double az, double as, double bx, double by, double bz, double bs)
+   {
+      double x = as * bx + ax * bs + ay * bz - az * by;
+      double y = as * by - ax * bz + ay * bs + az * bx;
+      double z = as * bz + ax * by - ay * bx + az * bs;
+      double s = as * bs - ax * bx - ay * by - az * bz;
+      setNormalized(index, x, y, z, s);
+   }
+
+   private void setNormalized(int index, double x, double y, double z, double s)
+   {
+      double inverseNorm = 1.0 / Math.sqrt(x * x + y * y + z * z + s * s);
+
+      if (Double.isInfinite(inverseNorm))
+         inverseNorm = Double.NaN;
+
+      qxs[index] = x * inverseNorm;
+      qys[index] = y * inverseNorm;
+      qzs[index] = z * inverseNorm;
+      qss[index] = s * inverseNorm;
+   }
+
+   /**
+    * Transforms {@code tupleOriginal} by each quaternion of the given range and stores the results in
+    * the given arrays.
+    * <p>
+    * tupleTransformed<sub>i</sub> = q<sub>i</sub> * tupleOriginal * q<sub>i</sub><sup>-1</sup>
+    * </p>
+    * <p>
+    * The quaternions are assumed to be unitary, see {@link #normalize()}.
+    * </p>
+    *
+    * @param tupleOriginal the tuple to transform. Not modified.
+    * @param xs the array in which the x-coordinates of the transformed tuples are stored. Modified.
+    * @param ys the array in which the y-coordinates of the transformed tuples are stored. Modified.
+    * @param zs the array in which the z-coordinates of the transformed tuples are stored. Modified.
+    * @param startIndex the index of the first quaternion to use.
+    * @param endIndex the index after the last quaternion to use.
+    * @throws ReferenceFrameMismatchException if {@code tupleOriginal} is not expressed in the same
+    *            reference frame as {@code this}.
+    * @throws IndexOutOfBoundsException if the range is out of bounds.
+    */
+   public void transform(FrameTuple3DReadOnly tupleOriginal, double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      checkReferenceFrameMatch(tupleOriginal);
+      checkRange(startIndex, endIndex);
+
+      double x = tupleOriginal.getX();
+      double y = tupleOriginal.getY();
+      double z = tupleOriginal.getZ();
+
+      for (int i = startIndex; i < endIndex; i++)
+         transform(i, x, y, z, xs, ys, zs);
+   }
+
+   /**
+    * Transforms in place each tuple of the given range by the quaternion with the same index, the
+    * tuples being expressed in the reference frame of this buffer.
+    * <p>
+    * tuple<sub>i</sub> = q<sub>i</sub> * tuple<sub>i</sub> * q<sub>i</sub><sup>-1</sup>
+    * </p>
+    * <p>
+    * The quaternions are assumed to be unitary, see {@link #normalize()}.
+    * </p>
+    *
+    * @param xs the x-coordinates of the tuples to transform. Modified.
+    * @param ys the y-coordinates of the tuples to transform. Modified.
+    * @param zs the z-coordinates of the tuples to transform. Modified.
+    * @param startIndex the index of the first tuple to transform.
+    * @param endIndex the index after the last tuple to transform.
+    * @throws IndexOutOfBoundsException if the range is out of bounds.
+    */
+   public void transform(double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      checkRange(startIndex, endIndex);
+
+      for (int i = startIndex; i < endIndex; i++)
+         transform(i, xs[i], ys[i], zs[i], xs, ys, zs);
+   }
+
+   private void transform(int index, double x, double y, double z, double[] xs, double[] ys, double[] zs)
+   {
+      double qx = qxs[index];
+      double qy = qys[index];
+      double qz = qzs[index];
+      double qs = qss[index];
+
+      // t = 2 (q x v)
+      double tx = 2.0 * (qy * z - qz * y);
+      double ty = 2.0 * (qz * x - qx * z);
+      double tz = 2.0 * (qx * y - qy * x);
+
+      // v' = v + s t + q x t
+      xs[index] = x + qs * tx + qy * tz - qz * ty;
+      ys[index] = y + qs * ty + qz * tx - qx * tz;
+      zs[index] = z + qs * tz + qx * ty - qy * tx;
+   }
+
+   /**
+    * Computes the average of the quaternions of this buffer.
+    *
+    * @param averageToPack the quaternion in which the average is stored, it is set to
+    *           {@link Double#NaN} if this buffer is empty. Modified.
+    * @throws ReferenceFrameMismatchException if {@code averageToPack} is not expressed in the same
+    *            reference frame as {@code this}.
+    * @see QuaternionAverageCalculator
+    */
+   public void getAverage(FixedFrameQuaternionBasics averageToPack)
+   {
+      getAverage(0, size, averageToPack);
+   }
+
+   /**
+    * Computes the average of the quaternions of the given range.
+    *
+    * @param startIndex the index of the first quaternion to average.
+    * @param endIndex the index after the last quaternion to average.
+    * @param averageToPack the quaternion in which the average is stored, it is set to
+    *           {@link Double#NaN} if the range is empty. Modified.
+    * @throws ReferenceFrameMismatchException if {@code averageToPack} is not expressed in the same
+    *            reference frame as {@code this}.
+    * @throws IndexOutOfBoundsException if the range is out of bounds.
+    * @see QuaternionAverageCalculator
+    */
+   public void getAverage(int startIndex, int endIndex, FixedFrameQuaternionBasics averageToPack)
+   {
+      checkReferenceFrameMatch(averageToPack);
+      checkRange(startIndex, endIndex);
+
+      averageCalculator.clear();
+      averageCalculator.addAll(qxs, qys, qzs, qss, startIndex, endIndex);
+      averageCalculator.getAverage(averageToPack);
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public void setReferenceFrame(ReferenceFrame referenceFrame)
+   {
+      this.referenceFrame = referenceFrame;
+   }
+
+   /** {@inheritDoc} */
+   @Override
+   public ReferenceFrame getReferenceFrame()
+   {
+      return referenceFrame;
+   }
+
+   /**
+    * {@inheritDoc}
+    * <p>
+    * The quaternions are normalized in the process.
+    * </p>
+    */
+   @Override
+   public void applyTransform(Transform transform)
+   {
+      for (int i = 0; i < size; i++)
+      {
+         quaternion.set(qxs[i], qys[i], qzs[i], qss[i]);
+         quaternion.applyTransform(transform);
+         qxs[i] = quaternion.getX();
+         qys[i] = quaternion.getY();
+         qzs[i] = quaternion.getZ();
+         qss[i] = quaternion.getS();
+      }
+   }
+
+   /**
+    * {@inheritDoc}
+    * <p>
+    * The quaternions are normalized in the process.
+    * </p>
+    */
+   @Override
+   public void applyInverseTransform(Transform transform)
+   {
+      for (int i = 0; i < size; i++)
+      {
+         quaternion.set(qxs[i], qys[i], qzs[i], qss[i]);
+         quaternion.applyInverseTransform(transform);
+         qxs[i] = quaternion.getX();
+         qys[i] = quaternion.getY();
+         qzs[i] = quaternion.getZ();
+         qss[i] = quaternion.getS();
+      }
+   }
+
+   private void checkIndex(int index)
+   {
+      if (index < 0 || index >= size)
+         throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+   }
+
+   private void checkRange(int startIndex, int endIndex)
+   {
+      if (startIndex < 0 || startIndex > endIndex || endIndex > size)
+         throw new IndexOutOfBoundsException("Invalid range: [" + startIndex + ", " + endIndex + "[, size: " + size);
+   }
+
+   /**
+    * Provides a {@code String} representation of this buffer as follows:
+    *
+    * <pre>
+    * Quaternion buffer: [
+    * ( 0.540,  0.110,  0.319,  0.771 ),
+    * ( 0.751,  0.374,  0.892,  0.017 ) ]-worldFrame
+    * </pre>
+    *
+    * @return the {@code String} representing this buffer.
+    */
+   @Override
+   public String toString()
+   {
+      String string = "Quaternion buffer: [";
+
+      for (int i = 0; i < size; i++)
+      {
+         string += i == 0 ? "\n" : ",\n";
+         string += EuclidCoreIOTools.getStringOf("(", " )", ", ", EuclidCoreIOTools.DEFAULT_FORMAT, qxs[i], qys[i], qzs[i], qss[i]);
+      }
+
+      return string + (size == 0 ? "]" : " ]") + "-" + referenceFrame;
+   }
+}
@@ -1,5 +1,9 @@
 package us.ihmc.euclid.referenceFrame;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
 import us.ihmc.euclid.exceptions.NotARotationMatrixException;
 import us.ihmc.euclid.interfaces.Transformable;
 import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
@@ -97,9 +101,37 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
     */
    private final RigidBodyTransform transformToParent;
 
-   // These need to be longs instead of integers or they'll role over too soon. With longs, you get at least 100 years of runtime.
+   /**
+    * @deprecated Not used anymore, the transforms to root are invalidated by marking the frames as
+    *             dirty, see {@link #update()}.
+    */
+   @Deprecated
    protected static long nextTransformToRootID = 1;
-   private long transformToRootID = Long.MIN_VALUE;
+
+   /**
+    * The frames that have this frame as parent.
+    * <p>
+    * The children are weakly referenced such that a child frame can be garbage collected even if its
+    * parent is still in use. Cleared references are removed when propagating the dirty flag and
+    * when the list grows past {@link #childrenPruningThreshold}.
+    * </p>
+    */
+   private final List<WeakReference<ReferenceFrame>> children = new ArrayList<>();
+   /**
+    * Number of children above which the cleared references are removed before adding a new child.
+    * It is doubled after pruning such that the cost of adding a child remains constant on average,
+    * even for frames that are never updated such as root frames.
+    */
+   private int childrenPruningThreshold = 8;
+   /**
+    * Whether {@link #transformToRoot} has to be recomputed before being used.
+    * <p>
+    * When this frame is updated, it and all its descendants are marked as dirty. This flag is cleared
+    * when the transform to root is recomputed. The following invariant holds: the children of a dirty
+    * frame are also dirty, such that a clean frame has a clean path to the root.
+    * </p>
+    */
+   private boolean isTransformToRootDirty = true;
    /**
     * The current transform from this reference frame to the root frame.
     * <p>
@@ -109,6 +141,29 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
     * </p>
     */
    private final RigidBodyTransform transformToRoot;
+   /**
+    * Whether the rotation part of {@link #transformToParent} differs from identity. It is updated
+    * alongside {@link #transformToParent} and used to skip the rotation composition in
+    * {@link #efficientComputeTransform()}, for instance for frames with a pure offset from their
+    * parent.
+    */
+   private boolean hasRotationToParent = false;
+   /**
+    * Whether the translation part of {@link #transformToParent} differs from zero. It is updated
+    * alongside {@link #transformToParent} and used to skip the translation composition in
+    * {@link #efficientComputeTransform()}, for instance for revolute joint frames.
+    */
+   private boolean hasTranslationToParent = false;
+   /**
+    * Whether the rotation part of {@link #transformToRoot} may differ from identity. It is updated
+    * when {@link #transformToRoot} is recomputed.
+    */
+   private boolean hasRotationToRoot = false;
+   /**
+    * Whether the translation part of {@link #transformToRoot} may differ from zero. It is updated
+    * when {@link #transformToRoot} is recomputed.
+    */
+   private boolean hasTranslationToRoot = false;
 
    /**
     * Field initialized at construction time that specifies if this reference frame represents a
@@ -120,6 +175,24 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
     * frame remains aligned with the z-axis of the root frame.
     */
    private final boolean isZupFrame;
+   /**
+    * Field initialized at construction time that specifies if {@link #transformToParent} never
+    * changes, as for the frames created with
+    * {@link #constructFrameWithUnchangingTransformToParent(String, ReferenceFrame, RigidBodyTransform)}.
+    */
+   private final boolean isTransformToParentUnchanging;
+
+   /**
+    * Optional history of {@link #transformToParent}, {@code null} until
+    * {@link #enableTransformHistory(int)} is called.
+    */
+   private TransformHistory transformHistory = null;
+
+   /**
+    * Transform used to enable garbage free operations when querying the frame tree at a given time.
+    * A separate instance is used per thread as queries may be performed concurrently.
+    */
+   private static final ThreadLocal<RigidBodyTransform> historyQueryTransform = ThreadLocal.withInitial(RigidBodyTransform::new);
 
    /**
     * {@code worldFrame} is a root reference frame and is most of time the only root reference frame.
@@ -228,7 +301,7 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
       boolean isZupFrame = parentFrame.isZupFrame && transformToParent.isRotation2D();
       boolean isAStationaryFrame = parentFrame.isAStationaryFrame;
 
-      ReferenceFrame ret = new ReferenceFrame(frameName, parentFrame, transformToParent, isAStationaryFrame, isZupFrame)
+      ReferenceFrame ret = new ReferenceFrame(frameName, parentFrame, transformToParent, isAStationaryFrame, isZupFrame, true)
       {
          @Override
          protected void updateTransformToParent(RigidBodyTransform transformToParent)
@@ -384,14 +457,21 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
     *            {@code parentFrame} is not a stationary frame.
     */
    public ReferenceFrame(String frameName, ReferenceFrame parentFrame, RigidBodyTransform transformToParent, boolean isAStationaryFrame, boolean isZupFrame)
+   {
+      this(frameName, parentFrame, transformToParent, isAStationaryFrame, isZupFrame, false);
+   }
+
+   private ReferenceFrame(String frameName, ReferenceFrame parentFrame, RigidBodyTransform transformToParent, boolean isAStationaryFrame, boolean isZupFrame,
+                          boolean isTransformToParentUnchanging)
    {
       this.frameName = frameName;
+      this.isTransformToParentUnchanging = isTransformToParentUnchanging;
       this.parentFrame = parentFrame;
       framesStartingWithRootEndingWithThis = constructFramesStartingWithRootEndingWithThis(this);
 
       if (parentFrame == null)
       { // Setting up this ReferenceFrame as a root frame.
-         transformToRootID = 0;
+         isTransformToRootDirty = false;
          nameBasedHashCode = NameBasedHashCodeTools.computeStringHashCode(frameName);
 
          transformToRoot = null;
@@ -411,6 +491,7 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
          {
             this.transformToParent.set(transformToParent);
             this.transformToParent.normalizeRotationPart();
+            updateTransformToParentKind();
          }
 
          if (isAStationaryFrame && !parentFrame.isAStationaryFrame)
@@ -418,6 +499,8 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
 
          this.isAStationaryFrame = isAStationaryFrame;
          this.isZupFrame = isZupFrame;
+
+         parentFrame.addChild(this);
       }
    }
 
@@ -490,7 +573,102 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
       }
 
       updateTransformToParent(transformToParent);
-      transformToRootID = Long.MIN_VALUE;
+      updateTransformToParentKind();
+      markTransformToRootDirty();
+   }
+
+   /**
+    * Classifies {@link #transformToParent} as a pure rotation, a pure translation, the identity, or a
+    * general transform. The comparisons are exact such that the specialized compositions give the same
+    * result as the general one.
+    */
+   private void updateTransformToParentKind()
+   {
+      RigidBodyTransform transform = transformToParent;
+      hasRotationToParent = transform.getM00() != 1.0 || transform.getM01() != 0.0 || transform.getM02() != 0.0 || transform.getM10() != 0.0
+            || transform.getM11() != 1.0 || transform.getM12() != 0.0 || transform.getM20() != 0.0 || transform.getM21() != 0.0
+            || transform.getM22() != 1.0;
+      hasTranslationToParent = transform.getM03() != 0.0 || transform.getM13() != 0.0 || transform.getM23() != 0.0;
+   }
+
+   /**
+    * Tests whether the transform from this frame to its parent has a rotation part, i.e. the rotation
+    * part is not exactly identity.
+    * <p>
+    * Frames without rotation, such as sensor mounts, are composed with their parent using only the
+    * translation which saves most of the operations when updating the frame tree.
+    * </p>
+    *
+    * @return {@code true} if the transform to parent has a rotation, {@code false} if it is a pure
+    *         translation or this is a root frame.
+    */
+   public boolean hasRotationToParent()
+   {
+      return hasRotationToParent;
+   }
+
+   /**
+    * Tests whether the transform from this frame to its parent has a translation part, i.e. the
+    * translation is not exactly zero.
+    * <p>
+    * Frames without translation, such as revolute joints with aligned axes, are composed with their
+    * parent using only the rotation which saves the translation part when updating the frame tree.
+    * </p>
+    *
+    * @return {@code true} if the transform to parent has a translation, {@code false} if it is a pure
+    *         rotation or this is a root frame.
+    */
+   public boolean hasTranslationToParent()
+   {
+      return hasTranslationToParent;
+   }
+
+   /**
+    * Marks the transform to root of this frame and of all its descendants as dirty.
+    * <p>
+    * The propagation stops at frames already dirty as their descendants are dirty too, such that the
+    * cost of updating every frame of a tree is linear in the number of frames.
+    * </p>
+    */
+   private void markTransformToRootDirty()
+   {
+      if (isTransformToRootDirty)
+         return;
+
+      isTransformToRootDirty = true;
+
+      for (int i = children.size() - 1; i >= 0; i--)
+      {
+         ReferenceFrame child = children.get(i).get();
+
+         if (child == null)
+            removeChild(i); // The child has been garbage collected.
+         else
+            child.markTransformToRootDirty();
+      }
+   }
+
+   private void addChild(ReferenceFrame child)
+   {
+      if (children.size() >= childrenPruningThreshold)
+      {
+         for (int i = children.size() - 1; i >= 0; i--)
+         {
+            if (children.get(i).get() == null)
+               removeChild(i);
+         }
+
+         childrenPruningThreshold = Math.max(childrenPruningThreshold, 2 * children.size());
+      }
+
+      children.add(new WeakReference<>(child));
+   }
+
+   private void removeChild(int index)
+   {
+      int lastIndex = children.size() - 1;
+      children.set(index, children.get(lastIndex));
+      children.remove(lastIndex);
    }
 
    /**
@@ -506,6 +684,59 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
     */
    protected abstract void updateTransformToParent(RigidBodyTransform transformToParent);
 
+   /**
+    * Updates this reference frame as {@link #update()} does and, if enabled, records the updated
+    * transform to parent in the history of this frame.
+    *
+    * @param timestamp the time at which the new transform to parent is valid.
+    * @throws IllegalArgumentException if the history is enabled and {@code timestamp} is older than
+    *            the newest recorded sample.
+    * @see #enableTransformHistory(int)
+    */
+   public void update(long timestamp)
+   {
+      update();
+
+      if (transformHistory != null)
+         transformHistory.record(timestamp, transformToParent);
+   }
+
+   /**
+    * Enables the history of this frame's transform to parent.
+    * <p>
+    * Once enabled, each call to {@link #update(long)} records the transform to parent with the
+    * given timestamp in a ring buffer holding at most {@code capacity} samples. The history can then
+    * be used to query the frame tree as it was in the past with
+    * {@link #getTransformToDesiredFrame(RigidBodyTransform, ReferenceFrame, long)}.
+    * </p>
+    * <p>
+    * The history has to be enabled on every moving frame that is to be queried in the past, only
+    * stationary frames and frames with an unchanging transform to parent can be queried without
+    * history.
+    * </p>
+    * <p>
+    * Calling this method again discards the current history. It has no effect on a root frame.
+    * </p>
+    *
+    * @param capacity the maximum number of samples to remember.
+    * @throws IllegalArgumentException if {@code capacity} is less than 1.
+    */
+   public void enableTransformHistory(int capacity)
+   {
+      if (parentFrame != null)
+         transformHistory = new TransformHistory(capacity);
+   }
+
+   /**
+    * Gets the history of this frame's transform to parent.
+    *
+    * @return the history, or {@code null} if it has not been enabled.
+    */
+   public TransformHistory getTransformHistory()
+   {
+      return transformHistory;
+   }
+
    /**
     * Returns the parent frame of this reference frame.
     * <p>
@@ -520,6 +751,25 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
       return parentFrame;
    }
 
+   /**
+    * Adds the frames that have this frame as parent to the given list.
+    * <p>
+    * Only the children that have not been garbage collected are added.
+    * </p>
+    *
+    * @param childrenToPack the list to which the children are added. Modified.
+    */
+   public void getChildren(List<ReferenceFrame> childrenToPack)
+   {
+      for (int i = 0; i < children.size(); i++)
+      {
+         ReferenceFrame child = children.get(i).get();
+
+         if (child != null)
+            childrenToPack.add(child);
+      }
+   }
+
    /**
     * Retrieves the root frame of the tree of reference frame that this frame belongs to.
     *
@@ -565,6 +815,40 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
       transformToPack.set(transformToParent);
    }
 
+   /**
+    * Packs this reference frame's transform to parent as it was at the given time.
+    * <p>
+    * The transform is interpolated from the recorded samples of this frame's history. A stationary
+    * frame or a frame with an unchanging transform to parent uses its current transform to parent
+    * when its history is not enabled as it is not expected to change, and the transform of a root
+    * frame is always identity.
+    * </p>
+    *
+    * @param transformToPack the transform in which this frame's transform to its parent frame is
+    *           stored. Modified.
+    * @param timestamp the time at which the transform is queried.
+    * @throws IllegalArgumentException if the transform to parent of this frame can change and its
+    *            history is not enabled, or if {@code timestamp} is older than the oldest sample of
+    *            this frame's history.
+    */
+   public void getTransformToParent(RigidBodyTransform transformToPack, long timestamp)
+   {
+      if (parentFrame == null)
+      {
+         transformToPack.setIdentity();
+      }
+      else if (transformHistory == null)
+      {
+         if (!isAStationaryFrame && !isTransformToParentUnchanging)
+            throw new IllegalArgumentException("The history of the frame " + frameName + " has to be enabled to query its past transform.");
+         transformToPack.set(transformToParent);
+      }
+      else if (!transformHistory.getTransform(timestamp, transformToPack))
+      {
+         throw new IllegalArgumentException("The timestamp " + timestamp + " is older than the history of the frame: " + frameName);
+      }
+   }
+
    /**
     * Gets the name of this reference frame.
     * <p>
@@ -661,6 +945,56 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
       }
    }
 
+   /**
+    * Packs the transform that can be used to transform a geometry object defined in this frame to
+    * obtain its equivalent expressed in the {@code desiredFrame} as the two frames were at the given
+    * time.
+    * <p>
+    * Each frame on the path from this frame to the {@code desiredFrame} provides its transform to
+    * parent at {@code timestamp} using {@link #getTransformToParent(RigidBodyTransform, long)}, such
+    * that the history has to be enabled on every frame of the path whose transform to parent can
+    * change. Only the frames below the closest common ancestor are visited.
+    * </p>
+    * <p>
+    * This method does not generate garbage and is safe to call from threads other than the one
+    * updating the frames as it only reads the histories and the transforms that do not change.
+    * </p>
+    *
+    * @param transformToPack the transform in which this frame's transform to the {@code desiredFrame}
+    *           is stored. Modified.
+    * @param desiredFrame the goal frame.
+    * @param timestamp the time at which the transform is queried.
+    * @throws IllegalArgumentException if a moving frame on the path has no history, or if
+    *            {@code timestamp} is older than the history of one of the frames on the path.
+    */
+   public void getTransformToDesiredFrame(RigidBodyTransform transformToPack, ReferenceFrame desiredFrame, long timestamp)
+   {
+      verifySameRoots(desiredFrame);
+
+      ReferenceFrame[] thisPath = framesStartingWithRootEndingWithThis;
+      ReferenceFrame[] desiredPath = desiredFrame.framesStartingWithRootEndingWithThis;
+      int commonLength = 0;
+
+      while (commonLength < thisPath.length && commonLength < desiredPath.length && thisPath[commonLength] == desiredPath[commonLength])
+         commonLength++;
+
+      RigidBodyTransform levelTransform = historyQueryTransform.get();
+      transformToPack.setIdentity();
+
+      for (int i = thisPath.length - 1; i >= commonLength; i--)
+      { // Going up from this frame to the common ancestor.
+         thisPath[i].getTransformToParent(levelTransform, timestamp);
+         transformToPack.preMultiply(levelTransform);
+      }
+
+      for (int i = commonLength; i < desiredPath.length; i++)
+      { // Going down from the common ancestor to the desired frame.
+         desiredPath[i].getTransformToParent(levelTransform, timestamp);
+         levelTransform.invert();
+         transformToPack.preMultiply(levelTransform);
+      }
+   }
+
    /**
     * Test whether the given frame is the parent of this frame.
     *
@@ -718,14 +1052,15 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
 
       RigidBodyTransform thisTransformToRoot = getTransformToRoot();
 
-      if (thisTransformToRoot != null)
+      // The transforms to root that are the identity are skipped.
+      if (thisTransformToRoot != null && (hasRotationToRoot || hasTranslationToRoot))
       {
          objectToTransform.applyTransform(thisTransformToRoot);
       }
 
       RigidBodyTransform desiredFrameTransformToRoot = desiredFrame.getTransformToRoot();
 
-      if (desiredFrameTransformToRoot != null)
+      if (desiredFrameTransformToRoot != null && (desiredFrame.hasRotationToRoot || desiredFrame.hasTranslationToRoot))
       {
          objectToTransform.applyInverseTransform(desiredFrameTransformToRoot);
       }
@@ -748,45 +1083,91 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
 
    private void efficientComputeTransform()
    {
-      int chainLength = framesStartingWithRootEndingWithThis.length;
+      if (!isTransformToRootDirty)
+         return;
+
+      // Searching for the first dirty frame, all the frames after it in the chain are dirty too.
+      int firstDirtyIndex = framesStartingWithRootEndingWithThis.length - 1;
 
-      boolean updateFromHereOnOut = false;
-      long previousUpdateId = 0;
+      while (framesStartingWithRootEndingWithThis[firstDirtyIndex - 1].isTransformToRootDirty)
+         firstDirtyIndex--;
 
-      for (int i = 0; i < chainLength; i++)
+      for (int i = firstDirtyIndex; i < framesStartingWithRootEndingWithThis.length; i++)
       {
          ReferenceFrame referenceFrame = framesStartingWithRootEndingWithThis[i];
+         referenceFrame.updateTransformToRoot();
+         referenceFrame.isTransformToRootDirty = false;
+      }
+   }
 
-         if (!updateFromHereOnOut)
-         {
-            if (referenceFrame.transformToRootID < previousUpdateId)
-            {
-               updateFromHereOnOut = true;
-               nextTransformToRootID++;
-            }
-         }
-
-         if (updateFromHereOnOut)
-         {
-            if (referenceFrame.parentFrame != null)
-            {
-               RigidBodyTransform parentsTransformToRoot = referenceFrame.parentFrame.transformToRoot;
-               if (parentsTransformToRoot != null)
-               {
-                  referenceFrame.transformToRoot.set(parentsTransformToRoot);
-               }
-               else
-               {
-                  referenceFrame.transformToRoot.setIdentity();
-               }
-
-               referenceFrame.transformToRoot.multiply(referenceFrame.transformToParent);
+   /**
+    * Computes {@link #transformToRoot} = {@code parentFrame.transformToRoot} *
+    * {@link #transformToParent} assuming the parent's transform to root is up-to-date.
+    * <p>
+    * The composition is specialized depending on which parts of the two transforms are non-trivial:
+    * </p>
+    * <ul>
+    * <li>when either transform is the identity, the other is copied.
+    * <li>when the transform to parent is a pure translation, only the translation is rotated and
+    * offset.
+    * <li>when the transform to parent is a pure rotation, only the rotation parts are multiplied.
+    * <li>when the parent's transform to root is a pure translation, it is only added to the
+    * translation.
+    * </ul>
+    */
+   private void updateTransformToRoot()
+   {
+      RigidBodyTransform parentsTransformToRoot = parentFrame.transformToRoot;
+      boolean parentHasRotation = parentsTransformToRoot != null && parentFrame.hasRotationToRoot;
+      boolean parentHasTranslation = parentsTransformToRoot != null && parentFrame.hasTranslationToRoot;
 
-               referenceFrame.transformToRootID = nextTransformToRootID;
-            }
-         }
+      hasRotationToRoot = parentHasRotation || hasRotationToParent;
+      hasTranslationToRoot = parentHasTranslation || hasTranslationToParent;
 
-         previousUpdateId = referenceFrame.transformToRootID;
+      if (!parentHasRotation && !parentHasTranslation)
+      { // The parent is aligned with the root frame.
+         transformToRoot.set(transformToParent);
+      }
+      else if (!hasRotationToParent && !hasTranslationToParent)
+      { // This frame is aligned with its parent.
+         transformToRoot.set(parentsTransformToRoot);
+      }
+      else if (!hasRotationToParent)
+      { // Pure translation: p = R_parent * t + t_parent
+         RigidBodyTransform parent = parentsTransformToRoot;
+         double tx = transformToParent.getM03();
+         double ty = transformToParent.getM13();
+         double tz = transformToParent.getM23();
+         transformToRoot.set(parent);
+         transformToRoot.setTranslation(parent.getM00() * tx + parent.getM01() * ty + parent.getM02() * tz + parent.getM03(),
+                                        parent.getM10() * tx + parent.getM11() * ty + parent.getM12() * tz + parent.getM13(),
+                                        parent.getM20() * tx + parent.getM21() * ty + parent.getM22() * tz + parent.getM23());
+      }
+      else if (!parentHasRotation)
+      { // The parent is a pure translation: p = t + t_parent
+         transformToRoot.set(transformToParent);
+         transformToRoot.setTranslation(transformToParent.getM03() + parentsTransformToRoot.getM03(),
+                                        transformToParent.getM13() + parentsTransformToRoot.getM13(),
+                                        transformToParent.getM23() + parentsTransformToRoot.getM23());
+      }
+      else if (!hasTranslationToParent)
+      { // Pure rotation: R = R_parent * R_this, the translation is the parent's.
+         RigidBodyTransform parent = parentsTransformToRoot;
+         RigidBodyTransform child = transformToParent;
+         double p00 = parent.getM00(), p01 = parent.getM01(), p02 = parent.getM02();
+         double p10 = parent.getM10(), p11 = parent.getM11(), p12 = parent.getM12();
+         double p20 = parent.getM20(), p21 = parent.getM21(), p22 = parent.getM22();
+         double c00 = child.getM00(), c01 = child.getM01(), c02 = child.getM02();
+         double c10 = child.getM10(), c11 = child.getM11(), c12 = child.getM12();
+         double c20 = child.getM20(), c21 = child.getM21(), c22 = child.getM22();
+         transformToRoot.setUnsafe(p00 * c00 + p01 * c10 + p02 * c20, p00 * c01 + p01 * c11 + p02 * c21, p00 * c02 + p01 * c12 + p02 * c22, parent.getM03(),
+                                   p10 * c00 + p11 * c10 + p12 * c20, p10 * c01 + p11 * c11 + p12 * c21, p10 * c02 + p11 * c12 + p12 * c22, parent.getM13(),
+                                   p20 * c00 + p21 * c10 + p22 * c20, p20 * c01 + p21 * c11 + p22 * c21, p20 * c02 + p21 * c12 + p22 * c22, parent.getM23());
+      }
+      else
+      {
+         transformToRoot.set(parentsTransformToRoot);
+         transformToRoot.multiply(transformToParent);
       }
    }
 
@@ -894,11 +1275,11 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
             throw new RuntimeException("Root frames don't have transformToParent or transformToRoot defined.");
          }
 
-         if (transformToRootID != 0)
+         if (isTransformToRootDirty)
          {
             System.err.println("this ReferenceFrame = " + this);
 
-            throw new RuntimeException("transformToRootID = " + transformToRootID + ", Root frames must not be updated.");
+            throw new RuntimeException("Root frames must not be updated.");
          }
       }
       else
@@ -908,22 +1289,23 @@ public abstract class ReferenceFrame implements NameBasedHashCodeHolder
             throw new RuntimeException("The parent must be the second to last frame in the chain.");
          }
 
-         long maxIdSoFar = 0;
          RigidBodyTransform computedTransformToRoot = new RigidBodyTransform();
          for (int i = 1; i < framesStartingWithRootEndingWithThis.length; i++)
          {
             ReferenceFrame frame = framesStartingWithRootEndingWithThis[i];
             computedTransformToRoot.multiply(frame.transformToParent);
 
-            long id = frame.transformToRootID;
-            if (id < maxIdSoFar)
+            if (frame.isTransformToRootDirty)
             {
-               // Only need to make sure things are consistent down to where the
+               // Only need to make sure things are consistent down to the first dirty frame, all its descendants are dirty too.
+               for (int j = i + 1; j < framesStartingWithRootEndingWithThis.length; j++)
+               {
+                  if (!framesStartingWithRootEndingWithThis[j].isTransformToRootDirty)
+                     throw new RuntimeException("The descendants of a dirty frame must be dirty.");
+               }
                break;
             }
 
-            maxIdSoFar = id;
-
             if (!frame.transformToRoot.epsilonEquals(computedTransformToRoot, 1e-5))
             {
                System.err.println("frame.transformToRoot = " + frame.transformToRoot + ", computedTransformToRoot = " + computedTransformToRoot);
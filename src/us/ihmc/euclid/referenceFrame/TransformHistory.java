@@ -0,0 +1,330 @@
+package us.ihmc.euclid.referenceFrame;
+
+import java.util.concurrent.locks.StampedLock;
+
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple4D.Quaternion;
+
+/**
+ * {@code TransformHistory} is a fixed-capacity ring buffer of time-stamped rigid-body transforms.
+ * <p>
+ * It is used by {@link ReferenceFrame} to remember the past values of its transform to parent such
+ * that a frame can be queried as it was at a given time, see
+ * {@link ReferenceFrame#enableTransformHistory(int)}. Once the buffer is full, the oldest sample is
+ * overwritten.
+ * </p>
+ * <p>
+ * Queries between two samples are interpolated: the translation is linearly interpolated and the
+ * rotation is spherically interpolated. Recording and querying do not generate garbage.
+ * </p>
+ * <p>
+ * This class is safe for one writer thread calling {@link #record(long, RigidBodyTransform)} and
+ * {@link #clear()} and any number of reader threads.
+ * </p>
+ */
+public class TransformHistory
+{
+   private static final int SAMPLE_SIZE = 7;
+
+   private final int capacity;
+   private final long[] timestamps;
+   /** Samples stored as: qx, qy, qz, qs, x, y, z. */
+   private final double[] samples;
+   private int newestIndex = -1;
+   private int numberOfSamples = 0;
+   private final StampedLock lock = new StampedLock();
+
+   /** Internal quaternion used to enable garbage free operations, only used by the writer. */
+   private final Quaternion writerQuaternion = new Quaternion();
+   /** Internal quaternions used to enable garbage free operations, one set per reader thread. */
+   private static final ThreadLocal<Quaternion[]> readerQuaternions = ThreadLocal.withInitial(() -> new Quaternion[] {new Quaternion(), new Quaternion(),
+         new Quaternion()});
+
+   /**
+    * Creates a new empty history.
+    *
+    * @param capacity the maximum number of samples to remember.
+    * @throws IllegalArgumentException if {@code capacity} is less than 1.
+    */
+   public TransformHistory(int capacity)
+   {
+      if (capacity < 1)
+         throw new IllegalArgumentException("The capacity has to be at least 1, was: " + capacity);
+
+      this.capacity = capacity;
+      timestamps = new long[capacity];
+      samples = new double[SAMPLE_SIZE * capacity];
+   }
+
+   /**
+    * Removes all the samples from this history.
+    */
+   public void clear()
+   {
+      long stamp = lock.writeLock();
+      newestIndex = -1;
+      numberOfSamples = 0;
+      lock.unlockWrite(stamp);
+   }
+
+   /**
+    * Adds a new sample to this history, overwriting the oldest sample if the history is full.
+    * <p>
+    * Timestamps have to be recorded in increasing order. Recording a sample with the same timestamp
+    * as the newest sample replaces it.
+    * </p>
+    *
+    * @param timestamp the time at which {@code transform} was valid.
+    * @param transform the transform to record. Not modified.
+    * @throws IllegalArgumentException if {@code timestamp} is older than the newest sample.
+    */
+   public void record(long timestamp, RigidBodyTransform transform)
+   {
+      transform.getRotation(writerQuaternion);
+      double qx = writerQuaternion.getX();
+      double qy = writerQuaternion.getY();
+      double qz = writerQuaternion.getZ();
+      double qs = writerQuaternion.getS();
+      double x = transform.getM03();
+      double y = transform.getM13();
+      double z = transform.getM23();
+
+      long stamp = lock.writeLock();
+
+      try
+      {
+         int index;
+
+         if (numberOfSamples > 0 && timestamp <= timestamps[newestIndex])
+         {
+            if (timestamp < timestamps[newestIndex])
+               throw new IllegalArgumentException("Timestamps have to be increasing, newest: " + timestamps[newestIndex] + ", received: " + timestamp);
+            index = newestIndex;
+         }
+         else
+         {
+            index = newestIndex + 1 == capacity ? 0 : newestIndex + 1;
+            if (numberOfSamples < capacity)
+               numberOfSamples++;
+         }
+
+         timestamps[index] = timestamp;
+         int offset = SAMPLE_SIZE * index;
+         samples[offset] = qx;
+         samples[offset + 1] = qy;
+         samples[offset + 2] = qz;
+         samples[offset + 3] = qs;
+         samples[offset + 4] = x;
+         samples[offset + 5] = y;
+         samples[offset + 6] = z;
+         newestIndex = index;
+      }
+      finally
+      {
+         lock.unlockWrite(stamp);
+      }
+   }
+
+   /**
+    * Computes the transform at the given time by interpolating between the two samples surrounding
+    * {@code timestamp}.
+    * <p>
+    * When {@code timestamp} is newer than the newest sample, the newest sample is used.
+    * </p>
+    *
+    * @param timestamp the time at which the transform is to be computed.
+    * @param transformToPack the transform in which the result is stored. Modified.
+    * @return {@code true} if the transform was computed, {@code false} if this history is empty or if
+    *         {@code timestamp} is older than the oldest sample, in which case
+    *         {@code transformToPack} is not modified.
+    */
+   public boolean getTransform(long timestamp, RigidBodyTransform transformToPack)
+   {
+      long stamp = lock.tryOptimisticRead();
+      long result = findSamples(timestamp);
+
+      if (result >= 0L)
+      {
+         // The samples are copied before validating the read as they may be overwritten concurrently.
+         int index0 = (int) (result >>> 32);
+         int index1 = (int) result;
+         long timestamp0 = timestamps[index0];
+         long timestamp1 = timestamps[index1];
+         int offset0 = SAMPLE_SIZE * index0;
+         int offset1 = SAMPLE_SIZE * index1;
+         double qx0 = samples[offset0], qy0 = samples[offset0 + 1], qz0 = samples[offset0 + 2], qs0 = samples[offset0 + 3];
+         double x0 = samples[offset0 + 4], y0 = samples[offset0 + 5], z0 = samples[offset0 + 6];
+         double qx1 = samples[offset1], qy1 = samples[offset1 + 1], qz1 = samples[offset1 + 2], qs1 = samples[offset1 + 3];
+         double x1 = samples[offset1 + 4], y1 = samples[offset1 + 5], z1 = samples[offset1 + 6];
+
+         if (lock.validate(stamp))
+         {
+            double alpha = computeAlpha(timestamp, timestamp0, timestamp1);
+            interpolate(qx0, qy0, qz0, qs0, x0, y0, z0, qx1, qy1, qz1, qs1, x1, y1, z1, alpha, transformToPack);
+            return true;
+         }
+      }
+      else if (lock.validate(stamp))
+      {
+         return false;
+      }
+
+      // A sample was recorded during the optimistic read, falling back to a blocking read.
+      stamp = lock.readLock();
+
+      try
+      {
+         result = findSamples(timestamp);
+
+         if (result < 0L)
+            return false;
+
+         int index0 = (int) (result >>> 32);
+         int index1 = (int) result;
+         int offset0 = SAMPLE_SIZE * index0;
+         int offset1 = SAMPLE_SIZE * index1;
+         double alpha = computeAlpha(timestamp, timestamps[index0], timestamps[index1]);
+         interpolate(samples[offset0], samples[offset0 + 1], samples[offset0 + 2], samples[offset0 + 3], samples[offset0 + 4], samples[offset0 + 5],
+                     samples[offset0 + 6], samples[offset1], samples[offset1 + 1], samples[offset1 + 2], samples[offset1 + 3], samples[offset1 + 4],
+                     samples[offset1 + 5], samples[offset1 + 6], alpha, transformToPack);
+         return true;
+      }
+      finally
+      {
+         lock.unlockRead(stamp);
+      }
+   }
+
+   /**
+    * Gets the timestamp of the newest sample.
+    *
+    * @return the newest timestamp, or {@link Long#MIN_VALUE} if this history is empty.
+    */
+   public long getNewestTimestamp()
+   {
+      long stamp = lock.readLock();
+      try
+      {
+         return numberOfSamples == 0 ? Long.MIN_VALUE : timestamps[newestIndex];
+      }
+      finally
+      {
+         lock.unlockRead(stamp);
+      }
+   }
+
+   /**
+    * Gets the timestamp of the oldest sample.
+    *
+    * @return the oldest timestamp, or {@link Long#MIN_VALUE} if this history is empty.
+    */
+   public long getOldestTimestamp()
+   {
+      long stamp = lock.readLock();
+      try
+      {
+         return numberOfSamples == 0 ? Long.MIN_VALUE : timestamps[oldestIndex(newestIndex, numberOfSamples)];
+      }
+      finally
+      {
+         lock.unlockRead(stamp);
+      }
+   }
+
+   /**
+    * Gets the number of samples currently held in this history.
+    *
+    * @return the number of samples.
+    */
+   public int getNumberOfSamples()
+   {
+      long stamp = lock.readLock();
+      try
+      {
+         return numberOfSamples;
+      }
+      finally
+      {
+         lock.unlockRead(stamp);
+      }
+   }
+
+   /**
+    * Gets the maximum number of samples this history can hold.
+    *
+    * @return the capacity of this history.
+    */
+   public int getCapacity()
+   {
+      return capacity;
+   }
+
+   /**
+    * Searches the two samples surrounding {@code timestamp}.
+    * <p>
+    * The result may be inconsistent when performed during an optimistic read, but the indices are
+    * always within the bounds of the buffers.
+    * </p>
+    *
+    * @return the index of the first sample in the 32 high bits and the index of the second sample in
+    *         the 32 low bits, or {@code -1} if there is no sample for {@code timestamp}.
+    */
+   private long findSamples(long timestamp)
+   {
+      int newest = newestIndex;
+      int size = numberOfSamples;
+
+      if (size <= 0 || newest < 0 || newest >= capacity || size > capacity)
+         return -1L;
+
+      if (timestamp >= timestamps[newest])
+         return ((long) newest << 32) | newest;
+
+      int oldest = oldestIndex(newest, size);
+
+      if (timestamp < timestamps[oldest])
+         return -1L;
+
+      // Finds the newest sample that is older or equal to timestamp.
+      int low = 0;
+      int high = size - 1;
+
+      while (high - low > 1)
+      {
+         int mid = (low + high) >>> 1;
+
+         if (timestamps[(oldest + mid) % capacity] <= timestamp)
+            low = mid;
+         else
+            high = mid;
+      }
+
+      return ((long) ((oldest + low) % capacity) << 32) | ((oldest + low + 1) % capacity);
+   }
+
+   private static double computeAlpha(long timestamp, long timestamp0, long timestamp1)
+   {
+      if (timestamp1 == timestamp0)
+         return 0.0;
+      else
+         return (double) (timestamp - timestamp0) / (double) (timestamp1 - timestamp0);
+   }
+
+   private int oldestIndex(int newest, int size)
+   {
+      int oldest = newest - size + 1;
+      return oldest < 0 ? oldest + capacity : oldest;
+   }
+
+   private static void interpolate(double qx0, double qy0, double qz0, double qs0, double x0, double y0, double z0, double qx1, double qy1, double qz1,
+                                   double qs1, double x1, double y1, double z1, double alpha, RigidBodyTransform transformToPack)
+   {
+      Quaternion[] quaternions = readerQuaternions.get();
+      quaternions[0].setUnsafe(qx0, qy0, qz0, qs0);
+      quaternions[1].setUnsafe(qx1, qy1, qz1, qs1);
+      quaternions[2].interpolate(quaternions[0], quaternions[1], alpha);
+
+      transformToPack.setRotation(quaternions[2]);
+      transformToPack.setTranslation(x0 + alpha * (x1 - x0), y0 + alpha * (y1 - y0), z0 + alpha * (z1 - z0));
+   }
+}
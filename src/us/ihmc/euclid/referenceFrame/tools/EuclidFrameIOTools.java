@@ -0,0 +1,282 @@
+package us.ihmc.euclid.referenceFrame.tools;
+
+import static us.ihmc.euclid.geometry.tools.EuclidGeometryIOTools.BINARY_HEADER_SIZE;
+import static us.ihmc.euclid.geometry.tools.EuclidGeometryIOTools.readHeader;
+import static us.ihmc.euclid.geometry.tools.EuclidGeometryIOTools.writeHeader;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongFunction;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryIOTools;
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameConvexPolygon2DBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameConvexPolygon2DReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FramePoint3DBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FramePoint3DReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FramePose3DBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FramePose3DReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameQuaternionBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameQuaternionReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVector3DBasics;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVector3DReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.ReferenceFrameHolder;
+import us.ihmc.euclid.tuple2D.interfaces.Point2DReadOnly;
+import us.ihmc.euclid.tuple3D.interfaces.Tuple3DReadOnly;
+import us.ihmc.euclid.tuple4D.interfaces.QuaternionReadOnly;
+
+/**
+ * Extension of the binary codec provided in {@link EuclidGeometryIOTools} for frame geometries.
+ * <p>
+ * The reference frame of a frame object is encoded using its
+ * {@link ReferenceFrame#getNameBasedHashCode()} which is written right after the record header.
+ * When reading, the frame is retrieved from the hash code with a resolver provided by the user,
+ * typically a lookup in a map built once from the frame tree.
+ * </p>
+ */
+public class EuclidFrameIOTools
+{
+   /** Type identifier of a binary record holding a {@code FramePoint3D}. */
+   public static final byte FRAMEPOINT3D_BINARY_ID = 64;
+   /** Type identifier of a binary record holding a {@code FrameVector3D}. */
+   public static final byte FRAMEVECTOR3D_BINARY_ID = 65;
+   /** Type identifier of a binary record holding a {@code FrameQuaternion}. */
+   public static final byte FRAMEQUATERNION_BINARY_ID = 66;
+   /** Type identifier of a binary record holding a {@code FramePose3D}. */
+   public static final byte FRAMEPOSE3D_BINARY_ID = 67;
+   /** Type identifier of a binary record holding a {@code FrameConvexPolygon2D}. */
+   public static final byte FRAMECONVEXPOLYGON2D_BINARY_ID = 68;
+
+   /** Size in bytes of the header and frame identifier preceding every frame binary record. */
+   public static final int FRAME_BINARY_HEADER_SIZE = BINARY_HEADER_SIZE + Long.BYTES;
+   /** Size in bytes of the binary record of a frame point 3D. */
+   public static final int FRAMEPOINT3D_BINARY_SIZE = FRAME_BINARY_HEADER_SIZE + 3 * Double.BYTES;
+   /** Size in bytes of the binary record of a frame vector 3D. */
+   public static final int FRAMEVECTOR3D_BINARY_SIZE = FRAME_BINARY_HEADER_SIZE + 3 * Double.BYTES;
+   /** Size in bytes of the binary record of a frame quaternion. */
+   public static final int FRAMEQUATERNION_BINARY_SIZE = FRAME_BINARY_HEADER_SIZE + 4 * Double.BYTES;
+   /** Size in bytes of the binary record of a frame pose 3D. */
+   public static final int FRAMEPOSE3D_BINARY_SIZE = FRAME_BINARY_HEADER_SIZE + 7 * Double.BYTES;
+
+   /**
+    * Gets the size in bytes of the binary record of a frame convex polygon 2D.
+    *
+    * @param numberOfVertices the number of vertices of the polygon.
+    * @return the size of the record in bytes.
+    */
+   public static int getFrameConvexPolygon2DBinarySize(int numberOfVertices)
+   {
+      return FRAME_BINARY_HEADER_SIZE + Long.BYTES + 2 * numberOfVertices * Double.BYTES;
+   }
+
+   /**
+    * Writes {@code framePoint3D} at the current position of the given {@code buffer}.
+    *
+    * @param framePoint3D the point to write. Not modified.
+    * @param buffer the buffer to write to. Its position is advanced by
+    *           {@link #FRAMEPOINT3D_BINARY_SIZE}. Modified.
+    */
+   public static void writeFramePoint3D(FramePoint3DReadOnly framePoint3D, ByteBuffer buffer)
+   {
+      writeFrameHeader(FRAMEPOINT3D_BINARY_ID, framePoint3D, buffer);
+      writeTuple3D(framePoint3D, buffer);
+   }
+
+   /**
+    * Reads a frame point 3D from the current position of the given {@code buffer}.
+    *
+    * @param buffer the buffer to read from. Its position is advanced by
+    *           {@link #FRAMEPOINT3D_BINARY_SIZE}. Modified.
+    * @param frameResolver the function used to retrieve a reference frame from its name-based hash
+    *           code.
+    * @param framePoint3DToPack the point used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a frame point 3D, if its version is not
+    *            supported, or if the reference frame cannot be resolved.
+    */
+   public static void readFramePoint3D(ByteBuffer buffer, LongFunction<ReferenceFrame> frameResolver, FramePoint3DBasics framePoint3DToPack)
+   {
+      ReferenceFrame referenceFrame = readFrameHeader(FRAMEPOINT3D_BINARY_ID, buffer, frameResolver);
+      framePoint3DToPack.setIncludingFrame(referenceFrame, buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+   }
+
+   /**
+    * Writes {@code frameVector3D} at the current position of the given {@code buffer}.
+    *
+    * @param frameVector3D the vector to write. Not modified.
+    * @param buffer the buffer to write to. Its position is advanced by
+    *           {@link #FRAMEVECTOR3D_BINARY_SIZE}. Modified.
+    */
+   public static void writeFrameVector3D(FrameVector3DReadOnly frameVector3D, ByteBuffer buffer)
+   {
+      writeFrameHeader(FRAMEVECTOR3D_BINARY_ID, frameVector3D, buffer);
+      writeTuple3D(frameVector3D, buffer);
+   }
+
+   /**
+    * Reads a frame vector 3D from the current position of the given {@code buffer}.
+    *
+    * @param buffer the buffer to read from. Its position is advanced by
+    *           {@link #FRAMEVECTOR3D_BINARY_SIZE}. Modified.
+    * @param frameResolver the function used to retrieve a reference frame from its name-based hash
+    *           code.
+    * @param frameVector3DToPack the vector used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a frame vector 3D, if its version is not
+    *            supported, or if the reference frame cannot be resolved.
+    */
+   public static void readFrameVector3D(ByteBuffer buffer, LongFunction<ReferenceFrame> frameResolver, FrameVector3DBasics frameVector3DToPack)
+   {
+      ReferenceFrame referenceFrame = readFrameHeader(FRAMEVECTOR3D_BINARY_ID, buffer, frameResolver);
+      frameVector3DToPack.setIncludingFrame(referenceFrame, buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+   }
+
+   /**
+    * Writes {@code frameQuaternion} at the current position of the given {@code buffer}.
+    *
+    * @param frameQuaternion the quaternion to write. Not modified.
+    * @param buffer the buffer to write to. Its position is advanced by
+    *           {@link #FRAMEQUATERNION_BINARY_SIZE}. Modified.
+    */
+   public static void writeFrameQuaternion(FrameQuaternionReadOnly frameQuaternion, ByteBuffer buffer)
+   {
+      writeFrameHeader(FRAMEQUATERNION_BINARY_ID, frameQuaternion, buffer);
+      writeQuaternion(frameQuaternion, buffer);
+   }
+
+   /**
+    * Reads a frame quaternion from the current position of the given {@code buffer}.
+    *
+    * @param buffer the buffer to read from. Its position is advanced by
+    *           {@link #FRAMEQUATERNION_BINARY_SIZE}. Modified.
+    * @param frameResolver the function used to retrieve a reference frame from its name-based hash
+    *           code.
+    * @param frameQuaternionToPack the quaternion used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a frame quaternion, if its version is not
+    *            supported, or if the reference frame cannot be resolved.
+    */
+   public static void readFrameQuaternion(ByteBuffer buffer, LongFunction<ReferenceFrame> frameResolver, FrameQuaternionBasics frameQuaternionToPack)
+   {
+      ReferenceFrame referenceFrame = readFrameHeader(FRAMEQUATERNION_BINARY_ID, buffer, frameResolver);
+      frameQuaternionToPack.setIncludingFrame(referenceFrame, buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+   }
+
+   /**
+    * Writes {@code framePose3D} at the current position of the given {@code buffer}.
+    *
+    * @param framePose3D the pose to write. Not modified.
+    * @param buffer the buffer to write to. Its position is advanced by
+    *           {@link #FRAMEPOSE3D_BINARY_SIZE}. Modified.
+    */
+   public static void writeFramePose3D(FramePose3DReadOnly framePose3D, ByteBuffer buffer)
+   {
+      writeFrameHeader(FRAMEPOSE3D_BINARY_ID, framePose3D, buffer);
+      writeTuple3D(framePose3D.getPosition(), buffer);
+      writeQuaternion(framePose3D.getOrientation(), buffer);
+   }
+
+   /**
+    * Reads a frame pose 3D from the current position of the given {@code buffer}.
+    *
+    * @param buffer the buffer to read from. Its position is advanced by
+    *           {@link #FRAMEPOSE3D_BINARY_SIZE}. Modified.
+    * @param frameResolver the function used to retrieve a reference frame from its name-based hash
+    *           code.
+    * @param framePose3DToPack the pose used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a frame pose 3D, if its version is not
+    *            supported, or if the reference frame cannot be resolved.
+    */
+   public static void readFramePose3D(ByteBuffer buffer, LongFunction<ReferenceFrame> frameResolver, FramePose3DBasics framePose3DToPack)
+   {
+      ReferenceFrame referenceFrame = readFrameHeader(FRAMEPOSE3D_BINARY_ID, buffer, frameResolver);
+      framePose3DToPack.setReferenceFrame(referenceFrame);
+      framePose3DToPack.setPosition(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+      framePose3DToPack.setOrientation(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+   }
+
+   /**
+    * Writes {@code frameConvexPolygon2D} at the current position of the given {@code buffer}.
+    * <p>
+    * The number of bytes written can be obtained from
+    * {@link #getFrameConvexPolygon2DBinarySize(int)}.
+    * </p>
+    *
+    * @param frameConvexPolygon2D the polygon to write. Not modified.
+    * @param buffer the buffer to write to. Modified.
+    */
+   public static void writeFrameConvexPolygon2D(FrameConvexPolygon2DReadOnly frameConvexPolygon2D, ByteBuffer buffer)
+   {
+      writeFrameHeader(FRAMECONVEXPOLYGON2D_BINARY_ID, frameConvexPolygon2D, buffer);
+      int numberOfVertices = frameConvexPolygon2D.getNumberOfVertices();
+      buffer.putInt(numberOfVertices);
+      buffer.putInt(0); // Padding to keep the vertices aligned.
+
+      for (int i = 0; i < numberOfVertices; i++)
+      {
+         Point2DReadOnly vertex = frameConvexPolygon2D.getVertex(i);
+         buffer.putDouble(vertex.getX());
+         buffer.putDouble(vertex.getY());
+      }
+   }
+
+   /**
+    * Reads a frame convex polygon 2D from the current position of the given {@code buffer}.
+    * <p>
+    * The polygon is updated once all its vertices have been read.
+    * </p>
+    *
+    * @param buffer the buffer to read from. Modified.
+    * @param frameResolver the function used to retrieve a reference frame from its name-based hash
+    *           code.
+    * @param frameConvexPolygon2DToPack the polygon used to store the result. Modified.
+    * @throws IllegalArgumentException if the record is not a frame convex polygon 2D, if its version
+    *            is not supported, or if the reference frame cannot be resolved.
+    */
+   public static void readFrameConvexPolygon2D(ByteBuffer buffer, LongFunction<ReferenceFrame> frameResolver,
+                                               FrameConvexPolygon2DBasics frameConvexPolygon2DToPack)
+   {
+      ReferenceFrame referenceFrame = readFrameHeader(FRAMECONVEXPOLYGON2D_BINARY_ID, buffer, frameResolver);
+      int numberOfVertices = buffer.getInt();
+      buffer.getInt(); // Padding.
+
+      if (numberOfVertices < 0)
+         throw new IllegalArgumentException("Invalid number of vertices: " + numberOfVertices);
+
+      frameConvexPolygon2DToPack.clear(referenceFrame);
+
+      for (int i = 0; i < numberOfVertices; i++)
+         frameConvexPolygon2DToPack.addVertex(buffer.getDouble(), buffer.getDouble());
+
+      frameConvexPolygon2DToPack.update();
+   }
+
+   private static void writeFrameHeader(byte binaryID, ReferenceFrameHolder frameHolder, ByteBuffer buffer)
+   {
+      writeHeader(binaryID, buffer);
+      buffer.putLong(frameHolder.getReferenceFrame().getNameBasedHashCode());
+   }
+
+   private static ReferenceFrame readFrameHeader(byte expectedBinaryID, ByteBuffer buffer, LongFunction<ReferenceFrame> frameResolver)
+   {
+      readHeader(expectedBinaryID, buffer);
+      long nameBasedHashCode = buffer.getLong();
+      ReferenceFrame referenceFrame = frameResolver.apply(nameBasedHashCode);
+
+      if (referenceFrame == null)
+         throw new IllegalArgumentException("Could not resolve the reference frame with the name-based hash code: " + nameBasedHashCode);
+
+      return referenceFrame;
+   }
+
+   private static void writeTuple3D(Tuple3DReadOnly tuple3D, ByteBuffer buffer)
+   {
+      buffer.putDouble(tuple3D.getX());
+      buffer.putDouble(tuple3D.getY());
+      buffer.putDouble(tuple3D.getZ());
+   }
+
+   private static void writeQuaternion(QuaternionReadOnly quaternion, ByteBuffer buffer)
+   {
+      buffer.putDouble(quaternion.getX());
+      buffer.putDouble(quaternion.getY());
+      buffer.putDouble(quaternion.getZ());
+      buffer.putDouble(quaternion.getS());
+   }
+}
@@ -0,0 +1,269 @@
+package us.ihmc.euclid.referenceFrame.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+
+/**
+ * {@code ReferenceFrameTreeRecorder} logs the transform to parent of a set of reference frames at
+ * every tick into a memory-mapped file.
+ * <p>
+ * The log starts with a header describing the recorded frames, i.e. their name, name-based hash
+ * code, and parent, followed by fixed-size records. Each record holds a timestamp and the 12
+ * coefficients of the transform to parent of every recorded frame, such that a given tick can be
+ * accessed directly from its index. A log can be replayed using {@link ReferenceFrameTreeReplayer}.
+ * </p>
+ * <p>
+ * The capacity of the log, i.e. the maximum number of ticks, is set at construction and the file
+ * is fully mapped upfront such that {@link #record(long)} does not generate garbage. The records are
+ * mapped in segments of at most {@link #SEGMENT_SIZE} bytes such that the size of a log is not
+ * limited by the 2GB capacity of a single mapped buffer.
+ * </p>
+ * <p>
+ * A whole tree can be recorded using {@link #newTreeRecorder(Path, int, ReferenceFrame)}. Root
+ * frames are ignored as they have no transform to parent. The parent of each recorded frame has to
+ * be either recorded as well and registered before its children, or be a frame that will also be
+ * available when replaying the log, typically the root frame.
+ * </p>
+ */
+public class ReferenceFrameTreeRecorder implements Closeable
+{
+   /** Identifier written at the beginning of every log file. */
+   static final int MAGIC_NUMBER = 0x45464c47;
+   /** Version of the log format. */
+   static final int FORMAT_VERSION = 1;
+   /** Offset in the header of the number of ticks recorded so far. */
+   static final int NUMBER_OF_TICKS_OFFSET = 4 * Integer.BYTES;
+   /** Size in bytes of the data recorded per frame per tick. */
+   static final int FRAME_RECORD_SIZE = 12 * Double.BYTES;
+   /** Maximum size in bytes of a segment of records mapped at once. */
+   static final int SEGMENT_SIZE = 1 << 30;
+
+   private final ReferenceFrame[] recordedFrames;
+   private final FileChannel channel;
+   private final MappedByteBuffer headerBuffer;
+   private final MappedByteBuffer[] segments;
+   private final int ticksPerSegment;
+   private final int recordsOffset;
+   private final int recordSize;
+   private final int maximumNumberOfTicks;
+   private int numberOfTicks = 0;
+
+   /** Internal transform used to enable garbage free operations. */
+   private final RigidBodyTransform transformToParent = new RigidBodyTransform();
+
+   /**
+    * Creates a new recorder for all the frames of the tree starting at {@code treeRoot}.
+    * <p>
+    * The tree is walked once at construction, frames created afterwards are not recorded. If
+    * {@code treeRoot} is not a root frame, it is recorded as well and its parent has to be available
+    * when replaying the log.
+    * </p>
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @param file the path to the log file to create.
+    * @param maximumNumberOfTicks the maximum number of ticks that can be recorded.
+    * @param treeRoot the frame from which the tree to record starts.
+    * @return the new recorder.
+    * @throws IOException if the file cannot be created or mapped.
+    */
+   public static ReferenceFrameTreeRecorder newTreeRecorder(Path file, int maximumNumberOfTicks, ReferenceFrame treeRoot) throws IOException
+   {
+      List<ReferenceFrame> frames = new ArrayList<>();
+      frames.add(treeRoot);
+
+      // Breadth-first such that every parent is registered before its children.
+      for (int i = 0; i < frames.size(); i++)
+         frames.get(i).getChildren(frames);
+
+      return new ReferenceFrameTreeRecorder(file, maximumNumberOfTicks, frames.toArray(new ReferenceFrame[frames.size()]));
+   }
+
+   /**
+    * Creates a new recorder and the log file.
+    * <p>
+    * If the file already exists, it is overwritten.
+    * </p>
+    *
+    * @param file the path to the log file to create.
+    * @param maximumNumberOfTicks the maximum number of ticks that can be recorded.
+    * @param referenceFrames the frames to record. Root frames are ignored. Not modified.
+    * @throws IOException if the file cannot be created or mapped.
+    * @throws IllegalArgumentException if the parent of a frame is recorded but registered after it.
+    */
+   public ReferenceFrameTreeRecorder(Path file, int maximumNumberOfTicks, ReferenceFrame... referenceFrames) throws IOException
+   {
+      this(file, maximumNumberOfTicks, SEGMENT_SIZE, referenceFrames);
+   }
+
+   ReferenceFrameTreeRecorder(Path file, int maximumNumberOfTicks, int segmentSize, ReferenceFrame... referenceFrames) throws IOException
+   {
+      if (maximumNumberOfTicks <= 0)
+         throw new IllegalArgumentException("The maximum number of ticks has to be positive, was: " + maximumNumberOfTicks);
+
+      List<ReferenceFrame> frameList = new ArrayList<>();
+
+      for (ReferenceFrame referenceFrame : referenceFrames)
+      {
+         if (referenceFrame.getParent() != null)
+            frameList.add(referenceFrame);
+      }
+
+      recordedFrames = frameList.toArray(new ReferenceFrame[frameList.size()]);
+
+      byte[][] frameNames = new byte[recordedFrames.length][];
+      int[] parentIndices = new int[recordedFrames.length];
+      int headerSize = 6 * Integer.BYTES;
+
+      for (int frameIndex = 0; frameIndex < recordedFrames.length; frameIndex++)
+      {
+         ReferenceFrame parentFrame = recordedFrames[frameIndex].getParent();
+         int parentIndex = frameList.indexOf(parentFrame);
+
+         if (parentIndex >= frameIndex)
+            throw new IllegalArgumentException("The parent of " + recordedFrames[frameIndex].getName() + " has to be registered before it.");
+
+         parentIndices[frameIndex] = parentIndex;
+         frameNames[frameIndex] = recordedFrames[frameIndex].getName().getBytes(StandardCharsets.UTF_8);
+         headerSize += 2 * Long.BYTES + 2 * Integer.BYTES + frameNames[frameIndex].length;
+      }
+
+      // The records start at an 8-byte boundary to keep the doubles aligned.
+      recordsOffset = (headerSize + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+      recordSize = Long.BYTES + recordedFrames.length * FRAME_RECORD_SIZE;
+      this.maximumNumberOfTicks = maximumNumberOfTicks;
+      ticksPerSegment = Math.max(1, segmentSize / recordSize);
+
+      channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+      headerBuffer = channel.map(MapMode.READ_WRITE, 0, recordsOffset);
+      segments = new MappedByteBuffer[(maximumNumberOfTicks - 1) / ticksPerSegment + 1];
+
+      for (int segmentIndex = 0; segmentIndex < segments.length; segmentIndex++)
+      {
+         long firstTick = (long) segmentIndex * ticksPerSegment;
+         long segmentTicks = Math.min(ticksPerSegment, maximumNumberOfTicks - firstTick);
+         segments[segmentIndex] = channel.map(MapMode.READ_WRITE, recordsOffset + firstTick * recordSize, segmentTicks * recordSize);
+      }
+
+      ByteBuffer buffer = headerBuffer;
+      buffer.putInt(MAGIC_NUMBER);
+      buffer.putInt(FORMAT_VERSION);
+      buffer.putInt(recordedFrames.length);
+      buffer.putInt(maximumNumberOfTicks);
+      buffer.putInt(0); // Number of ticks, updated after each record.
+      buffer.putInt(recordsOffset);
+
+      for (int frameIndex = 0; frameIndex < recordedFrames.length; frameIndex++)
+      {
+         ReferenceFrame parentFrame = recordedFrames[frameIndex].getParent();
+         buffer.putLong(recordedFrames[frameIndex].getNameBasedHashCode());
+         buffer.putLong(parentFrame.getNameBasedHashCode());
+         buffer.putInt(parentIndices[frameIndex]);
+         buffer.putInt(frameNames[frameIndex].length);
+         buffer.put(frameNames[frameIndex]);
+      }
+   }
+
+   /**
+    * Appends a new record to the log with the current transform to parent of each recorded frame.
+    * <p>
+    * This method does not update the frames, the user is responsible for updating them before
+    * recording.
+    * </p>
+    *
+    * @param timestamp the timestamp to associate with the new record.
+    * @return {@code true} if the record was successfully written, {@code false} if the log is full.
+    */
+   public boolean record(long timestamp)
+   {
+      if (numberOfTicks >= maximumNumberOfTicks)
+         return false;
+
+      ByteBuffer buffer = segments[numberOfTicks / ticksPerSegment];
+      buffer.position((numberOfTicks % ticksPerSegment) * recordSize);
+      buffer.putLong(timestamp);
+
+      for (ReferenceFrame recordedFrame : recordedFrames)
+      {
+         recordedFrame.getTransformToParent(transformToParent);
+         putTransform(transformToParent, buffer);
+      }
+
+      numberOfTicks++;
+      headerBuffer.putInt(NUMBER_OF_TICKS_OFFSET, numberOfTicks);
+      return true;
+   }
+
+   /**
+    * Gets the number of ticks recorded so far.
+    *
+    * @return the number of ticks recorded.
+    */
+   public int getNumberOfTicks()
+   {
+      return numberOfTicks;
+   }
+
+   /**
+    * Gets the maximum number of ticks that this recorder can log.
+    *
+    * @return the capacity of the log in ticks.
+    */
+   public int getMaximumNumberOfTicks()
+   {
+      return maximumNumberOfTicks;
+   }
+
+   /**
+    * Gets the number of frames recorded at each tick.
+    *
+    * @return the number of recorded frames.
+    */
+   public int getNumberOfRecordedFrames()
+   {
+      return recordedFrames.length;
+   }
+
+   /**
+    * Flushes the content of the log to the storage device and releases the file.
+    *
+    * @throws IOException if an I/O error occurs.
+    */
+   @Override
+   public void close() throws IOException
+   {
+      for (MappedByteBuffer segment : segments)
+         segment.force();
+      headerBuffer.force();
+      channel.close();
+   }
+
+   private static void putTransform(RigidBodyTransform transform, ByteBuffer buffer)
+   {
+      buffer.putDouble(transform.getM00());
+      buffer.putDouble(transform.getM01());
+      buffer.putDouble(transform.getM02());
+      buffer.putDouble(transform.getM03());
+      buffer.putDouble(transform.getM10());
+      buffer.putDouble(transform.getM11());
+      buffer.putDouble(transform.getM12());
+      buffer.putDouble(transform.getM13());
+      buffer.putDouble(transform.getM20());
+      buffer.putDouble(transform.getM21());
+      buffer.putDouble(transform.getM22());
+      buffer.putDouble(transform.getM23());
+   }
+}
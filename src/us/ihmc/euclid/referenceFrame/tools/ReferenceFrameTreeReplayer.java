@@ -0,0 +1,271 @@
+package us.ihmc.euclid.referenceFrame.tools;
+
+import static us.ihmc.euclid.referenceFrame.tools.ReferenceFrameTreeRecorder.FORMAT_VERSION;
+import static us.ihmc.euclid.referenceFrame.tools.ReferenceFrameTreeRecorder.FRAME_RECORD_SIZE;
+import static us.ihmc.euclid.referenceFrame.tools.ReferenceFrameTreeRecorder.MAGIC_NUMBER;
+import static us.ihmc.euclid.referenceFrame.tools.ReferenceFrameTreeRecorder.NUMBER_OF_TICKS_OFFSET;
+import static us.ihmc.euclid.referenceFrame.tools.ReferenceFrameTreeRecorder.SEGMENT_SIZE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongFunction;
+
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+
+/**
+ * {@code ReferenceFrameTreeReplayer} reconstructs offline a tree of reference frames recorded with
+ * {@link ReferenceFrameTreeRecorder}.
+ * <p>
+ * At construction, a new reference frame is created for every frame in the log, with the same name
+ * and parent, such that the reconstructed frames have the same name-based hash codes as the
+ * recorded ones. Frames whose parent was not recorded are attached to the frame retrieved from the
+ * recorded parent name-based hash code, typically the root frame, such that their geometry is
+ * preserved. If such parent cannot be retrieved, the log cannot be replayed.
+ * </p>
+ * <p>
+ * The reconstructed frames are driven by the log: {@link #setTick(int)} updates every frame such
+ * that its transform to parent is the one recorded at the given tick.
+ * </p>
+ */
+public class ReferenceFrameTreeReplayer implements Closeable
+{
+   private final FileChannel channel;
+   private final MappedByteBuffer headerBuffer;
+   private final MappedByteBuffer[] segments;
+   private final int ticksPerSegment;
+   private final ReferenceFrame[] replayedFrames;
+   private final int recordSize;
+   private int currentTick = -1;
+
+   /**
+    * Opens a log and reconstructs the recorded frames.
+    *
+    * @param file the path to the log file to replay.
+    * @param rootFrame the frame to which the frames with no recorded parent are attached, typically
+    *           the world frame. It has to be the frame that was the parent of these frames when
+    *           recording.
+    * @throws IOException if the file cannot be opened or mapped.
+    * @throws IllegalArgumentException if the file is not a log, its version is not supported, or if
+    *            a frame with no recorded parent was not a child of {@code rootFrame}.
+    */
+   public ReferenceFrameTreeReplayer(Path file, ReferenceFrame rootFrame) throws IOException
+   {
+      this(file, nameBasedHashCode -> rootFrame.getNameBasedHashCode() == nameBasedHashCode ? rootFrame : null);
+   }
+
+   /**
+    * Opens a log and reconstructs the recorded frames.
+    *
+    * @param file the path to the log file to replay.
+    * @param parentResolver the function used to retrieve, from its name-based hash code, the parent
+    *           of each frame whose parent was not recorded.
+    * @throws IOException if the file cannot be opened or mapped.
+    * @throws IllegalArgumentException if the file is not a log, its version is not supported, if the
+    *            parent of a frame cannot be resolved, or if a reconstructed frame does not have the
+    *            recorded name-based hash code.
+    */
+   public ReferenceFrameTreeReplayer(Path file, LongFunction<ReferenceFrame> parentResolver) throws IOException
+   {
+      this(file, parentResolver, SEGMENT_SIZE);
+   }
+
+   ReferenceFrameTreeReplayer(Path file, LongFunction<ReferenceFrame> parentResolver, int segmentSize) throws IOException
+   {
+      channel = FileChannel.open(file, StandardOpenOption.READ);
+
+      try
+      {
+         ByteBuffer prefix = channel.map(MapMode.READ_ONLY, 0, NUMBER_OF_TICKS_OFFSET + 2 * Integer.BYTES);
+         int magicNumber = prefix.getInt();
+         int version = prefix.getInt();
+
+         if (magicNumber != MAGIC_NUMBER)
+            throw new IllegalArgumentException("The file is not a reference frame log: " + file);
+         if (version < 1 || version > FORMAT_VERSION)
+            throw new IllegalArgumentException("Unsupported log version: " + version);
+
+         int numberOfFrames = prefix.getInt();
+         int maximumNumberOfTicks = prefix.getInt();
+         prefix.getInt(); // Number of ticks, read when requested as the log may still be in progress.
+         int recordsOffset = prefix.getInt();
+         recordSize = Long.BYTES + numberOfFrames * FRAME_RECORD_SIZE;
+         ticksPerSegment = Math.max(1, segmentSize / recordSize);
+
+         headerBuffer = channel.map(MapMode.READ_ONLY, 0, recordsOffset);
+         segments = new MappedByteBuffer[(maximumNumberOfTicks - 1) / ticksPerSegment + 1];
+
+         for (int segmentIndex = 0; segmentIndex < segments.length; segmentIndex++)
+         {
+            long firstTick = (long) segmentIndex * ticksPerSegment;
+            long segmentTicks = Math.min(ticksPerSegment, maximumNumberOfTicks - firstTick);
+            segments[segmentIndex] = channel.map(MapMode.READ_ONLY, recordsOffset + firstTick * recordSize, segmentTicks * recordSize);
+         }
+
+         replayedFrames = new ReferenceFrame[numberOfFrames];
+         headerBuffer.position(prefix.position());
+
+         for (int frameIndex = 0; frameIndex < numberOfFrames; frameIndex++)
+         {
+            long nameBasedHashCode = headerBuffer.getLong();
+            long parentNameBasedHashCode = headerBuffer.getLong();
+            int parentIndex = headerBuffer.getInt();
+            byte[] frameName = new byte[headerBuffer.getInt()];
+            headerBuffer.get(frameName);
+
+            ReferenceFrame parentFrame = parentIndex < 0 ? parentResolver.apply(parentNameBasedHashCode) : replayedFrames[parentIndex];
+
+            if (parentFrame == null)
+               throw new IllegalArgumentException("Could not resolve the parent frame with the name-based hash code: " + parentNameBasedHashCode);
+
+            replayedFrames[frameIndex] = new ReplayedReferenceFrame(new String(frameName, StandardCharsets.UTF_8), parentFrame, frameIndex);
+
+            if (replayedFrames[frameIndex].getNameBasedHashCode() != nameBasedHashCode)
+               throw new IllegalArgumentException("The reconstructed frame " + replayedFrames[frameIndex].getName()
+                     + " does not match the recorded name-based hash code: " + nameBasedHashCode);
+         }
+      }
+      catch (RuntimeException e)
+      {
+         channel.close();
+         throw e;
+      }
+   }
+
+   /**
+    * Updates all the reconstructed frames to the state recorded at the given tick.
+    *
+    * @param tick the index of the tick to replay.
+    * @throws IndexOutOfBoundsException if {@code tick} is negative or greater or equal to the number
+    *            of recorded ticks.
+    */
+   public void setTick(int tick)
+   {
+      checkTickIndex(tick);
+      currentTick = tick;
+
+      for (ReferenceFrame replayedFrame : replayedFrames)
+         replayedFrame.update();
+   }
+
+   /**
+    * Gets the index of the tick last replayed.
+    *
+    * @return the current tick, or {@code -1} if no tick has been replayed yet.
+    */
+   public int getCurrentTick()
+   {
+      return currentTick;
+   }
+
+   /**
+    * Gets the timestamp recorded at the given tick.
+    *
+    * @param tick the index of the tick to get the timestamp of.
+    * @return the recorded timestamp.
+    * @throws IndexOutOfBoundsException if {@code tick} is negative or greater or equal to the number
+    *            of recorded ticks.
+    */
+   public long getTimestamp(int tick)
+   {
+      checkTickIndex(tick);
+      return segments[tick / ticksPerSegment].getLong((tick % ticksPerSegment) * recordSize);
+   }
+
+   /**
+    * Gets the number of ticks available in the log.
+    *
+    * @return the number of recorded ticks.
+    */
+   public int getNumberOfTicks()
+   {
+      return headerBuffer.getInt(NUMBER_OF_TICKS_OFFSET);
+   }
+
+   /**
+    * Gets the reconstructed frames in the order they were recorded.
+    * <p>
+    * WARNING: This method generates garbage.
+    * </p>
+    *
+    * @return a new array containing the reconstructed frames.
+    */
+   public ReferenceFrame[] getReferenceFrames()
+   {
+      return replayedFrames.clone();
+   }
+
+   /**
+    * Retrieves the reconstructed frame with the given name-based hash code.
+    *
+    * @param nameBasedHashCode the name-based hash code of the frame to retrieve.
+    * @return the reconstructed frame, or {@code null} if the log does not contain such frame.
+    */
+   public ReferenceFrame getReferenceFrame(long nameBasedHashCode)
+   {
+      for (ReferenceFrame replayedFrame : replayedFrames)
+      {
+         if (replayedFrame.getNameBasedHashCode() == nameBasedHashCode)
+            return replayedFrame;
+      }
+      return null;
+   }
+
+   /**
+    * Releases the log file.
+    *
+    * @throws IOException if an I/O error occurs.
+    */
+   @Override
+   public void close() throws IOException
+   {
+      channel.close();
+   }
+
+   private void checkTickIndex(int tick)
+   {
+      if (tick < 0 || tick >= getNumberOfTicks())
+         throw new IndexOutOfBoundsException("Tick index out of range: " + tick + ", number of ticks: " + getNumberOfTicks());
+   }
+
+   private class ReplayedReferenceFrame extends ReferenceFrame
+   {
+      private final int frameIndex;
+
+      public ReplayedReferenceFrame(String frameName, ReferenceFrame parentFrame, int frameIndex)
+      {
+         super(frameName, parentFrame);
+         this.frameIndex = frameIndex;
+      }
+
+      @Override
+      protected void updateTransformToParent(RigidBodyTransform transformToParent)
+      {
+         if (currentTick < 0)
+            return;
+
+         ByteBuffer buffer = segments[currentTick / ticksPerSegment];
+         int offset = (currentTick % ticksPerSegment) * recordSize + Long.BYTES + frameIndex * FRAME_RECORD_SIZE;
+         double m00 = buffer.getDouble(offset);
+         double m01 = buffer.getDouble(offset + 1 * Double.BYTES);
+         double m02 = buffer.getDouble(offset + 2 * Double.BYTES);
+         double m03 = buffer.getDouble(offset + 3 * Double.BYTES);
+         double m10 = buffer.getDouble(offset + 4 * Double.BYTES);
+         double m11 = buffer.getDouble(offset + 5 * Double.BYTES);
+         double m12 = buffer.getDouble(offset + 6 * Double.BYTES);
+         double m13 = buffer.getDouble(offset + 7 * Double.BYTES);
+         double m20 = buffer.getDouble(offset + 8 * Double.BYTES);
+         double m21 = buffer.getDouble(offset + 9 * Double.BYTES);
+         double m22 = buffer.getDouble(offset + 10 * Double.BYTES);
+         double m23 = buffer.getDouble(offset + 11 * Double.BYTES);
+         transformToParent.set(m00, m01, m02, m03, m10, m11, m12, m13, m20, m21, m22, m23);
+      }
+   }
+}
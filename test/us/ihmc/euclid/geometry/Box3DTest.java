@@ -43,10 +43,27 @@ public class Box3DTest
          Box3D box3d = new Box3D(transform, length, width, height);
 
          testHelper.runSimpleTests(box3d, random, numberOfPoints);
+         testHelper.runBatchTests(box3d, random, numberOfPoints);
+         testHelper.runBoundingBoxTests(box3d, random, numberOfPoints);
+         testHelper.runSupportingVertexTests(box3d, random, numberOfPoints);
       }
 
    }
 
+   @Test
+   public void testLargeBatchQueries()
+   {
+      Shape3DTestHelper testHelper = new Shape3DTestHelper();
+      Random random = new Random(7965);
+
+      for (int i = 0; i < 10; i++)
+      {
+         Box3D box3d = new Box3D(EuclidCoreRandomTools.nextDouble(random, 0.01, 5.0), EuclidCoreRandomTools.nextDouble(random, 0.01, 5.0),
+                                 EuclidCoreRandomTools.nextDouble(random, 0.01, 5.0));
+         testHelper.runBatchTests(box3d, random, 100000);
+      }
+   }
+
    @Test
    public void testCopyConstructor()
    {
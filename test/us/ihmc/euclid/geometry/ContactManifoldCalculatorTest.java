@@ -0,0 +1,253 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.Vector3D;
+
+public class ContactManifoldCalculatorTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-7;
+
+   @Test
+   public void testSphereSphere()
+   {
+      ContactManifoldCalculator calculator = new ContactManifoldCalculator();
+      ContactManifold3D manifold = new ContactManifold3D();
+
+      Sphere3D sphereA = new Sphere3D(0.0, 0.0, 0.0, 1.0);
+      Sphere3D sphereB = new Sphere3D(1.5, 0.0, 0.0, 0.75);
+
+      assertTrue(calculator.computeContactManifold(sphereA, sphereB, manifold));
+      assertEquals(1, manifold.getNumberOfContacts());
+      assertEquals(0.25, manifold.getPenetrationDepth(0), EPSILON);
+      assertEquals(1.0, manifold.getNormal().getX(), EPSILON);
+      assertEquals(1.0, manifold.getPointOnA(0).getX(), EPSILON);
+      assertEquals(0.75, manifold.getPointOnB(0).getX(), EPSILON);
+
+      sphereB.setPosition(2.0, 0.0, 0.0);
+      assertFalse(calculator.computeContactManifold(sphereA, sphereB, manifold));
+      assertEquals(0, manifold.getNumberOfContacts());
+      assertTrue(Double.isNaN(manifold.getMaximumPenetrationDepth()));
+   }
+
+   @Test
+   public void testBoxRestingOnBox()
+   {
+      ContactManifoldCalculator calculator = new ContactManifoldCalculator();
+      ContactManifold3D manifold = new ContactManifold3D();
+      Random random = new Random(3452L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         double penetration = EuclidCoreRandomTools.nextDouble(random, 0.001, 0.05);
+         Box3D ground = new Box3D(10.0, 10.0, 1.0);
+         ground.setPosition(EuclidCoreRandomTools.nextDouble(random, 1.0), EuclidCoreRandomTools.nextDouble(random, 1.0), -0.5);
+         Box3D box = new Box3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0), EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0),
+                               EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0));
+         box.setPosition(EuclidCoreRandomTools.nextDouble(random, 1.0), EuclidCoreRandomTools.nextDouble(random, 1.0), 0.5 * box.getSizeZ() - penetration);
+         box.setOrientationYawPitchRoll(EuclidCoreRandomTools.nextDouble(random, Math.PI), 0.0, 0.0);
+
+         assertTrue(calculator.computeContactManifold(ground, box, manifold));
+         assertEquals(4, manifold.getNumberOfContacts());
+         assertEquals(1.0, manifold.getNormal().getZ(), EPSILON);
+
+         for (int contact = 0; contact < 4; contact++)
+         {
+            assertEquals(penetration, manifold.getPenetrationDepth(contact), EPSILON);
+            assertEquals(0.0, manifold.getPointOnA(contact).getZ(), EPSILON);
+            assertEquals(-penetration, manifold.getPointOnB(contact).getZ(), EPSILON);
+         }
+
+         // Swapping the shapes flips the manifold.
+         assertTrue(calculator.computeContactManifold(box, ground, manifold));
+         assertEquals(4, manifold.getNumberOfContacts());
+         assertEquals(-1.0, manifold.getNormal().getZ(), EPSILON);
+
+         box.setPositionZ(0.5 * box.getSizeZ() + penetration);
+         assertFalse(calculator.computeContactManifold(box, ground, manifold));
+         // The cached separating axis is still valid.
+         assertFalse(calculator.computeContactManifold(box, ground, manifold));
+      }
+   }
+
+   @Test
+   public void testSwappingShapes()
+   {
+      ContactManifoldCalculator calculator = new ContactManifoldCalculator();
+      ContactManifold3D manifold = new ContactManifold3D();
+      ContactManifold3D swappedManifold = new ContactManifold3D();
+      Random random = new Random(9641L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Shape3D<?> shapeA = nextShape3D(random);
+         Shape3D<?> shapeB = nextShape3D(random);
+
+         boolean areInContact = calculator.computeContactManifold(shapeA, shapeB, manifold);
+         assertEquals(areInContact, calculator.computeContactManifold(shapeB, shapeA, swappedManifold));
+
+         if (!areInContact || manifold.getNumberOfContacts() != swappedManifold.getNumberOfContacts())
+            continue;
+
+         Vector3D normal = new Vector3D(manifold.getNormal());
+         normal.add(swappedManifold.getNormal());
+         // Two shapes of the same type are not swapped by the calculator, the EPA normals then only agree up to its tolerance.
+         assertEquals(0.0, normal.length(), 1.0e-4);
+      }
+   }
+
+   @Test
+   public void testRandomPairs()
+   {
+      ContactManifoldCalculator calculator = new ContactManifoldCalculator();
+      ContactManifold3D manifold = new ContactManifold3D();
+      Random random = new Random(2318L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Shape3D<?> shapeA = nextShape3D(random);
+         Shape3D<?> shapeB = nextShape3D(random);
+
+         if (calculator.computeContactManifold(shapeA, shapeB, manifold))
+            assertManifoldIsValid(shapeA, shapeB, manifold);
+
+         // Two shapes sharing an interior point always overlap.
+         Vector3D offset = new Vector3D();
+         offset.sub(getInteriorPoint(shapeA), getInteriorPoint(shapeB));
+         shapeB.prependTranslation(offset);
+         assertTrue(calculator.computeContactManifold(shapeA, shapeB, manifold));
+         assertManifoldIsValid(shapeA, shapeB, manifold);
+      }
+   }
+
+   @Test
+   public void testBoxAcrossRampRidge()
+   {
+      ContactManifoldCalculator calculator = new ContactManifoldCalculator();
+      ContactManifold3D manifold = new ContactManifold3D();
+      Random random = new Random(7841L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         double penetration = EuclidCoreRandomTools.nextDouble(random, 0.001, 0.05);
+         Ramp3D ramp = new Ramp3D(EuclidCoreRandomTools.nextDouble(random, 0.5, 1.0), EuclidCoreRandomTools.nextDouble(random, 0.5, 1.0),
+                                  EuclidCoreRandomTools.nextDouble(random, 0.5, 1.0));
+         // A bar along the x-axis resting on one of its edges such that only its bottom edge crosses the ridge of the ramp.
+         Box3D bar = new Box3D(2.0 * ramp.getLength(), 0.2, 0.2);
+         bar.setOrientationYawPitchRoll(0.0, 0.0, 0.25 * Math.PI);
+         bar.setPosition(ramp.getLength(), 0.0, ramp.getHeight() + 0.1 * Math.sqrt(2.0) - penetration);
+
+         assertTrue(calculator.computeContactManifold(ramp, bar, manifold));
+         assertManifoldIsValid(ramp, bar, manifold);
+         assertEquals(1.0, manifold.getNormal().getZ(), 1.0e-5);
+         assertEquals(penetration, manifold.getPenetrationDepth(0), 1.0e-5);
+
+         bar.setPositionZ(bar.getPositionZ() + 2.0 * penetration);
+         assertFalse(calculator.computeContactManifold(ramp, bar, manifold));
+      }
+   }
+
+   @Test
+   public void testSetGenerator()
+   {
+      ContactManifoldCalculator calculator = new ContactManifoldCalculator();
+
+      try
+      {
+         calculator.setGenerator(Box3D.class, Ramp3D.class, null);
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+
+   private static void assertManifoldIsValid(Shape3D<?> shapeA, Shape3D<?> shapeB, ContactManifold3D manifold)
+   {
+      assertEquals(1.0, manifold.getNormal().length(), EPSILON);
+
+      for (int contact = 0; contact < manifold.getNumberOfContacts(); contact++)
+      {
+         double depth = manifold.getPenetrationDepth(contact);
+         assertTrue(depth > 0.0);
+         // Both contact points lie on the surface of their shape.
+         assertEquals(0.0, shapeA.signedDistance(manifold.getPointOnA(contact)), 1.0e-5);
+         assertEquals(0.0, shapeB.signedDistance(manifold.getPointOnB(contact)), 1.0e-5);
+
+         Vector3D penetration = new Vector3D();
+         penetration.sub(manifold.getPointOnA(contact), manifold.getPointOnB(contact));
+         assertTrue(penetration.dot(manifold.getNormal()) > -EPSILON);
+         assertTrue(penetration.length() >= depth - EPSILON);
+      }
+   }
+
+   /**
+    * Returns a point strictly inside the given shape, the origin of a torus or of a ramp is not inside
+    * the shape.
+    */
+   private static Point3D getInteriorPoint(Shape3D<?> shape)
+   {
+      Point3D interiorPoint = new Point3D();
+
+      if (shape instanceof Torus3D)
+      {
+         interiorPoint.setX(((Torus3D) shape).getRadius());
+      }
+      else if (shape instanceof Ramp3D)
+      {
+         Ramp3D ramp = (Ramp3D) shape;
+         interiorPoint.set(2.0 * ramp.getLength() / 3.0, 0.0, ramp.getHeight() / 3.0);
+      }
+
+      shape.transformToWorld(interiorPoint);
+      return interiorPoint;
+   }
+
+   private static Shape3D<?> nextShape3D(Random random)
+   {
+      Shape3D<?> shape;
+
+      switch (random.nextInt(6))
+      {
+      case 0:
+         shape = new Box3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0), EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0),
+                           EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0));
+         break;
+      case 1:
+         shape = new Cylinder3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0), EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5));
+         break;
+      case 2:
+         shape = new Ellipsoid3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5), EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5),
+                                 EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5));
+         break;
+      case 3:
+         shape = new Ramp3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0), EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0),
+                            EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0));
+         break;
+      case 4:
+         shape = new Sphere3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5));
+         break;
+      default:
+         shape = new Torus3D(EuclidCoreRandomTools.nextDouble(random, 0.3, 0.5), EuclidCoreRandomTools.nextDouble(random, 0.05, 0.2));
+         break;
+      }
+
+      RigidBodyTransform pose = EuclidCoreRandomTools.nextRigidBodyTransform(random);
+      pose.setTranslation(EuclidCoreRandomTools.nextDouble(random, 0.5), EuclidCoreRandomTools.nextDouble(random, 0.5),
+                          EuclidCoreRandomTools.nextDouble(random, 0.5));
+      shape.setPose(pose);
+      return shape;
+   }
+}
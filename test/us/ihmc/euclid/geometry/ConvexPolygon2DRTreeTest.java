@@ -0,0 +1,125 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex2DSupplier;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple2D.Point2D;
+
+public class ConvexPolygon2DRTreeTest
+{
+   private static final int ITERATIONS = 50;
+
+   @Test
+   public void testFindContainingAgainstLinearScan()
+   {
+      Random random = new Random(6634L);
+      ConvexPolygon2DRTree polygonTree = new ConvexPolygon2DRTree();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<ConvexPolygon2D> polygons = new ArrayList<>();
+         for (int j = 0; j < random.nextInt(1000); j++)
+            polygons.add(nextConvexPolygon2D(random));
+
+         if (random.nextBoolean())
+            polygonTree.build(polygons);
+         else
+            polygonTree.buildParallel(polygons);
+
+         List<Integer> ids = new ArrayList<>();
+         for (int j = 0; j < polygons.size(); j++)
+            ids.add(j);
+
+         for (int j = 0; j < 100; j++)
+         {
+            if (!ids.isEmpty() && random.nextInt(3) == 0)
+            {
+               int index = random.nextInt(ids.size());
+               assertTrue(polygonTree.remove(ids.get(index)));
+               assertFalse(polygonTree.contains(ids.get(index)));
+               ids.remove(index);
+               polygons.remove(index);
+            }
+            else
+            {
+               ConvexPolygon2D polygon = nextConvexPolygon2D(random);
+               int id = polygonTree.add(polygon);
+               assertFalse(ids.contains(id));
+               ids.add(id);
+               polygons.add(polygon);
+            }
+         }
+
+         assertEquals(ids.size(), polygonTree.size());
+         for (int j = 0; j < ids.size(); j++)
+            assertTrue(polygons.get(j) == polygonTree.getPolygon(ids.get(j)));
+
+         List<Integer> expected = new ArrayList<>();
+         List<Integer> actual = new ArrayList<>();
+
+         for (int j = 0; j < 50; j++)
+         {
+            Point2D query = EuclidCoreRandomTools.nextPoint2D(random, 55.0);
+            expected.clear();
+            for (int k = 0; k < polygons.size(); k++)
+            {
+               if (polygons.get(k).isPointInside(query))
+                  expected.add(ids.get(k));
+            }
+            actual.clear();
+            polygonTree.findContaining(query, id -> actual.add(id));
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+
+            int first = polygonTree.findFirstContaining(query);
+            if (expected.isEmpty())
+               assertEquals(-1, first);
+            else
+               assertTrue(expected.contains(first));
+         }
+      }
+   }
+
+   @Test
+   public void testInvalidArguments()
+   {
+      ConvexPolygon2DRTree polygonTree = new ConvexPolygon2DRTree();
+      assertFalse(polygonTree.remove(0));
+      assertEquals(-1, polygonTree.findFirstContaining(0.0, 0.0));
+
+      try
+      {
+         polygonTree.getPolygon(0);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+
+   private static ConvexPolygon2D nextConvexPolygon2D(Random random)
+   {
+      Point2D center = EuclidCoreRandomTools.nextPoint2D(random, 50.0);
+      List<Point2D> vertices = new ArrayList<>();
+      for (int i = 0; i < 10; i++)
+      {
+         Point2D vertex = EuclidCoreRandomTools.nextPoint2D(random, 3.0);
+         vertex.add(center);
+         vertices.add(vertex);
+      }
+      return new ConvexPolygon2D(Vertex2DSupplier.asVertex2DSupplier(vertices));
+   }
+}
@@ -38,6 +38,9 @@ public class Cylinder3DTest
          Cylinder3D cylinder3d = new Cylinder3D(transform, height, radius);
 
          testHelper.runSimpleTests(cylinder3d, random, numberOfPoints);
+         testHelper.runBatchTests(cylinder3d, random, numberOfPoints);
+         testHelper.runBoundingBoxTests(cylinder3d, random, numberOfPoints);
+         testHelper.runSupportingVertexTests(cylinder3d, random, numberOfPoints);
       }
    }
 
@@ -58,6 +61,9 @@ public class Cylinder3DTest
          Cylinder3D cylinder3d = new Cylinder3D(transform, height, radius);
          Cylinder3D cylinder3d2 = new Cylinder3D(cylinder3d);
          testHelper.runSimpleTests(cylinder3d2, random, numberOfPoints);
+         testHelper.runBatchTests(cylinder3d2, random, numberOfPoints);
+         testHelper.runBoundingBoxTests(cylinder3d2, random, numberOfPoints);
+         testHelper.runSupportingVertexTests(cylinder3d2, random, numberOfPoints);
       }
    }
 
@@ -11,6 +11,7 @@ import org.junit.Test;
 import us.ihmc.euclid.axisAngle.AxisAngle;
 import us.ihmc.euclid.tools.EuclidCoreRandomTools;
 import us.ihmc.euclid.tools.EuclidCoreTestTools;
+import us.ihmc.euclid.tools.EuclidCoreTools;
 import us.ihmc.euclid.transform.RigidBodyTransform;
 import us.ihmc.euclid.tuple3D.Point3D;
 import us.ihmc.euclid.tuple3D.Vector3D;
@@ -37,6 +38,9 @@ public class Ellipsoid3DTest
          double zRadius = EuclidCoreRandomTools.nextDouble(random, 0.02, 10.0);
          Ellipsoid3D ellipsoid3d = new Ellipsoid3D(transform, xRadius, yRadius, zRadius);
          testHelper.runSimpleTests(ellipsoid3d, random, numberOfPoints);
+         testHelper.runBatchTests(ellipsoid3d, random, numberOfPoints);
+         testHelper.runBoundingBoxTests(ellipsoid3d, random, numberOfPoints);
+         testHelper.runSupportingVertexTests(ellipsoid3d, random, numberOfPoints);
       }
    }
 
@@ -338,6 +342,83 @@ public class Ellipsoid3DTest
       }
    }
 
+   @Test
+   public void testExactClosestPoint()
+   {
+      Random random = new Random(4352L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         double xRadius = EuclidCoreRandomTools.nextDouble(random, 0.02, 5.0);
+         double yRadius = EuclidCoreRandomTools.nextDouble(random, 0.02, 5.0);
+         double zRadius = EuclidCoreRandomTools.nextDouble(random, 0.02, 5.0);
+         Ellipsoid3D ellipsoid = new Ellipsoid3D(xRadius, yRadius, zRadius);
+         Ellipsoid3D radialEllipsoid = new Ellipsoid3D(ellipsoid);
+         radialEllipsoid.setUseRadialApproximation(true);
+         assertFalse(ellipsoid.isUsingRadialApproximation());
+         assertTrue(radialEllipsoid.isUsingRadialApproximation());
+
+         Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 2.0 * xRadius, 2.0 * yRadius, 2.0 * zRadius);
+         if (i % 10 == 0)
+         { // Queries on the plane orthogonal to the smallest axis.
+            if (xRadius <= yRadius && xRadius <= zRadius)
+               query.setX(0.0);
+            else if (yRadius <= zRadius)
+               query.setY(0.0);
+            else
+               query.setZ(0.0);
+         }
+
+         Point3D closestPoint = new Point3D();
+         Vector3D normal = new Vector3D();
+         boolean isInside = ellipsoid.checkIfInside(query, closestPoint, normal);
+         double signedDistance = ellipsoid.signedDistance(query);
+
+         double sumOfSquares = EuclidCoreTools.normSquared(closestPoint.getX() / xRadius, closestPoint.getY() / yRadius, closestPoint.getZ() / zRadius);
+         assertEquals(1.0, sumOfSquares, 1.0e-9);
+         assertEquals(isInside, signedDistance <= 0.0);
+         assertEquals(Math.abs(signedDistance), query.distance(closestPoint), 1.0e-9);
+
+         Vector3D expectedNormal = new Vector3D(closestPoint.getX() / (xRadius * xRadius), closestPoint.getY() / (yRadius * yRadius),
+                                                closestPoint.getZ() / (zRadius * zRadius));
+         expectedNormal.normalize();
+         EuclidCoreTestTools.assertTuple3DEquals(expectedNormal, normal, 1.0e-9);
+
+         if (!isInside)
+         { // The query is along the normal at the closest point.
+            Vector3D offset = new Vector3D();
+            offset.sub(query, closestPoint);
+            offset.scale(1.0 / offset.length());
+            EuclidCoreTestTools.assertTuple3DEquals(normal, offset, 1.0e-6);
+         }
+
+         // The exact closest point cannot be further away than any other point on the surface.
+         assertTrue(Math.abs(signedDistance) <= Math.abs(radialEllipsoid.signedDistance(query)) + 1.0e-12);
+
+         for (int j = 0; j < 100; j++)
+         {
+            Vector3D direction = EuclidCoreRandomTools.nextVector3DWithFixedLength(random, 1.0);
+            Point3D surfacePoint = new Point3D(direction.getX() * xRadius, direction.getY() * yRadius, direction.getZ() * zRadius);
+            assertTrue(Math.abs(signedDistance) <= query.distance(surfacePoint) + 1.0e-12);
+         }
+      }
+
+      // The radial approximation is still exact on the principal axes.
+      Ellipsoid3D ellipsoid = new Ellipsoid3D(1.0, 2.0, 3.0);
+      ellipsoid.setUseRadialApproximation(true);
+      Point3D closestPoint = new Point3D();
+      Vector3D normal = new Vector3D();
+      assertTrue(ellipsoid.checkIfInside(new Point3D(0.0, 1.5, 0.0), closestPoint, normal));
+      EuclidCoreTestTools.assertTuple3DEquals(new Point3D(0.0, 2.0, 0.0), closestPoint, 1.0e-12);
+      EuclidCoreTestTools.assertTuple3DEquals(new Vector3D(0.0, 1.0, 0.0), normal, 1.0e-12);
+
+      // The closest point to the center is at the end of the smallest axis.
+      ellipsoid.setUseRadialApproximation(false);
+      assertEquals(-1.0, ellipsoid.signedDistance(new Point3D()), 1.0e-12);
+      assertTrue(ellipsoid.checkIfInside(new Point3D(), closestPoint, normal));
+      assertEquals(1.0, Math.abs(closestPoint.getX()), 1.0e-12);
+   }
+
    @Test
    public void testGeometricallyEquals()
    {
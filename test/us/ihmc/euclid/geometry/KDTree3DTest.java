@@ -0,0 +1,121 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple3D.Point3D;
+
+public class KDTree3DTest
+{
+   private static final int ITERATIONS = 100;
+
+   @Test
+   public void testQueriesAgainstLinearScan()
+   {
+      Random random = new Random(5521L);
+      KDTree3D tree = new KDTree3D();
+      SpatialQueryResult result = new SpatialQueryResult();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int startIndex = random.nextInt(5);
+         int numberOfPoints = random.nextInt(1000);
+         int endIndex = startIndex + numberOfPoints;
+         double[] xs = new double[endIndex];
+         double[] ys = new double[endIndex];
+         double[] zs = new double[endIndex];
+
+         for (int j = 0; j < endIndex; j++)
+         {
+            xs[j] = EuclidCoreRandomTools.nextDouble(random, 1.0);
+            // Duplicate coordinates and flat clouds are common in practice.
+            ys[j] = i % 3 == 0 ? Math.floor(EuclidCoreRandomTools.nextDouble(random, 2.0)) : EuclidCoreRandomTools.nextDouble(random, 1.0);
+            zs[j] = i % 5 == 0 ? 0.0 : EuclidCoreRandomTools.nextDouble(random, 1.0);
+         }
+
+         if (random.nextBoolean())
+            tree.build(xs, ys, zs, startIndex, endIndex);
+         else
+            tree.buildParallel(xs, ys, zs, startIndex, endIndex);
+
+         assertEquals(numberOfPoints, tree.size());
+
+         for (int j = 0; j < 20; j++)
+         {
+            Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 1.2);
+            double[] distancesSquared = new double[endIndex];
+            for (int k = startIndex; k < endIndex; k++)
+               distancesSquared[k] = query.distanceSquared(new Point3D(xs[k], ys[k], zs[k]));
+            double[] sortedDistancesSquared = Arrays.copyOfRange(distancesSquared, startIndex, endIndex);
+            Arrays.sort(sortedDistancesSquared);
+
+            int nearest = tree.findNearest(query, result);
+            if (numberOfPoints == 0)
+               assertEquals(-1, nearest);
+            else
+               assertEquals(sortedDistancesSquared[0], distancesSquared[nearest], 0.0);
+
+            int k = random.nextInt(20);
+            tree.findKNearest(query, k, result);
+            assertEquals(Math.min(k, numberOfPoints), result.size());
+
+            for (int n = 0; n < result.size(); n++)
+            {
+               assertEquals(sortedDistancesSquared[n], result.getDistanceSquared(n), 0.0);
+               assertEquals(sortedDistancesSquared[n], distancesSquared[result.getIndex(n)], 0.0);
+            }
+
+            double radius = EuclidCoreRandomTools.nextDouble(random, 0.0, 0.5);
+            tree.findWithinRadius(query, radius, result);
+            int expectedNumberOfPoints = 0;
+            for (double distanceSquared : sortedDistancesSquared)
+            {
+               if (distanceSquared <= radius * radius)
+                  expectedNumberOfPoints++;
+            }
+            assertEquals(expectedNumberOfPoints, result.size());
+
+            result.sortByDistance();
+            for (int n = 0; n < result.size(); n++)
+               assertEquals(sortedDistancesSquared[n], result.getDistanceSquared(n), 0.0);
+         }
+      }
+   }
+
+   @Test
+   public void testBuildFromVertexSupplier()
+   {
+      Random random = new Random(1143L);
+      Point3D[] points = new Point3D[100];
+      for (int i = 0; i < points.length; i++)
+         points[i] = EuclidCoreRandomTools.nextPoint3D(random, 1.0);
+
+      KDTree3D tree = new KDTree3D();
+      tree.build(Vertex3DSupplier.asVertex3DSupplier(points));
+      SpatialQueryResult result = new SpatialQueryResult();
+
+      for (int i = 0; i < points.length; i++)
+      {
+         assertEquals(i, tree.findNearest(points[i], result));
+         assertEquals(0.0, result.getDistance(0), 0.0);
+      }
+
+      tree.clear();
+      assertTrue(tree.isEmpty());
+      assertEquals(-1, tree.findNearest(points[0], result));
+      assertTrue(result.isEmpty());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testNegativeK()
+   {
+      new KDTree3D().findKNearest(0.0, 0.0, 0.0, -1, new SpatialQueryResult());
+   }
+}
@@ -0,0 +1,187 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+
+public class LineSegment1DIntervalIndexTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testQueriesAgainstLinearScan()
+   {
+      Random random = new Random(5621L);
+      LineSegment1DIntervalIndex index = new LineSegment1DIntervalIndex();
+      SpatialQueryResult result = new SpatialQueryResult();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfSegments = random.nextInt(300);
+         List<LineSegment1D> lineSegments = new ArrayList<>();
+         double[] packedEndpoints = new double[2 * numberOfSegments];
+
+         for (int j = 0; j < numberOfSegments; j++)
+         {
+            LineSegment1D lineSegment = nextLineSegment1D(random);
+            lineSegments.add(lineSegment);
+            packedEndpoints[2 * j] = lineSegment.getFirstEndpoint();
+            packedEndpoints[2 * j + 1] = lineSegment.getSecondEndpoint();
+         }
+
+         for (int packed = 0; packed < 2; packed++)
+         {
+            if (packed == 0)
+               index.build(lineSegments);
+            else
+               index.build(packedEndpoints, numberOfSegments);
+
+            assertEquals(numberOfSegments, index.size());
+            assertEquals(computeUnionLength(lineSegments, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY), index.computeUnionLength(), EPSILON);
+
+            for (int j = 0; j < 20; j++)
+            {
+               LineSegment1D query = nextLineSegment1D(random);
+
+               index.findOverlapping(query, result);
+               int[] expected = new int[lineSegments.size()];
+               int numberOfExpected = 0;
+               for (int k = 0; k < lineSegments.size(); k++)
+               {
+                  if (lineSegments.get(k).isOverlappingInclusive(query))
+                     expected[numberOfExpected++] = k;
+               }
+               assertIndicesEqual(Arrays.copyOf(expected, numberOfExpected), result);
+
+               double point = query.getFirstEndpoint();
+               index.findContaining(point, result);
+               numberOfExpected = 0;
+               for (int k = 0; k < lineSegments.size(); k++)
+               {
+                  if (lineSegments.get(k).isBetweenEndpointsInclusive(point))
+                     expected[numberOfExpected++] = k;
+               }
+               assertIndicesEqual(Arrays.copyOf(expected, numberOfExpected), result);
+
+               double expectedLength = computeUnionLength(lineSegments, query.getMinPoint(), query.getMaxPoint());
+               assertEquals(expectedLength, index.computeUnionLength(query.getFirstEndpoint(), query.getSecondEndpoint()), EPSILON);
+               assertEquals(expectedLength, index.computeUnionLength(query.getSecondEndpoint(), query.getFirstEndpoint()), EPSILON);
+            }
+         }
+      }
+
+      index.clear();
+      assertTrue(index.isEmpty());
+      index.findContaining(0.0, result);
+      assertTrue(result.isEmpty());
+      assertEquals(0.0, index.computeUnionLength(), 0.0);
+      assertEquals(0.0, index.computeUnionLength(-1.0, 1.0), 0.0);
+   }
+
+   @Test
+   public void testEmptyIndex()
+   {
+      SpatialQueryResult result = new SpatialQueryResult();
+
+      LineSegment1DIntervalIndex index = new LineSegment1DIntervalIndex();
+      assertTrue(index.isEmpty());
+      assertEquals(0.0, index.computeUnionLength(), 0.0);
+      assertEquals(0.0, index.computeUnionLength(-1.0, 1.0), 0.0);
+      index.findOverlapping(-1.0, 1.0, result);
+      assertTrue(result.isEmpty());
+
+      index = new LineSegment1DIntervalIndex();
+      index.build(new ArrayList<>());
+      assertTrue(index.isEmpty());
+      assertEquals(0.0, index.computeUnionLength(), 0.0);
+
+      index = new LineSegment1DIntervalIndex();
+      index.build(new double[0], 0);
+      assertTrue(index.isEmpty());
+      assertEquals(0.0, index.computeUnionLength(), 0.0);
+      index.findContaining(0.0, result);
+      assertTrue(result.isEmpty());
+   }
+
+   @Test
+   public void testInvalidArguments()
+   {
+      LineSegment1DIntervalIndex index = new LineSegment1DIntervalIndex();
+
+      try
+      {
+         index.build(new double[4], -1);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         index.build(new double[4], 3);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+
+   static LineSegment1D nextLineSegment1D(Random random)
+   {
+      // Rounding the endpoints creates segments sharing endpoints.
+      double first = Math.round(EuclidCoreRandomTools.nextDouble(random, 100.0) * 4.0) / 4.0;
+      double length = random.nextInt(10) == 0 ? 0.0 : EuclidCoreRandomTools.nextDouble(random, random.nextInt(10) == 0 ? 50.0 : 5.0);
+      double second = random.nextBoolean() ? first + length : Math.round((first + length) * 4.0) / 4.0;
+      return random.nextBoolean() ? new LineSegment1D(first, second) : new LineSegment1D(second, first);
+   }
+
+   static double computeUnionLength(List<LineSegment1D> lineSegments, double min, double max)
+   {
+      List<LineSegment1D> clipped = new ArrayList<>();
+      for (LineSegment1D lineSegment : lineSegments)
+      {
+         if (lineSegment.getMaxPoint() >= min && lineSegment.getMinPoint() <= max)
+            clipped.add(new LineSegment1D(Math.max(min, lineSegment.getMinPoint()), Math.min(max, lineSegment.getMaxPoint())));
+      }
+      clipped.sort((a, b) -> Double.compare(a.getMinPoint(), b.getMinPoint()));
+
+      double length = 0.0;
+      double end = Double.NEGATIVE_INFINITY;
+      for (LineSegment1D lineSegment : clipped)
+      {
+         double start = Math.max(end, lineSegment.getMinPoint());
+         if (lineSegment.getMaxPoint() > start)
+         {
+            length += lineSegment.getMaxPoint() - start;
+            end = lineSegment.getMaxPoint();
+         }
+      }
+      return length;
+   }
+
+   static void assertIndicesEqual(int[] expected, SpatialQueryResult result)
+   {
+      int[] actual = new int[result.size()];
+      for (int i = 0; i < result.size(); i++)
+      {
+         actual[i] = result.getIndex(i);
+         assertEquals(0.0, result.getDistanceSquared(i), 0.0);
+      }
+      Arrays.sort(expected);
+      Arrays.sort(actual);
+      assertTrue(Arrays.toString(expected) + " " + Arrays.toString(actual), Arrays.equals(expected, actual));
+   }
+}
@@ -0,0 +1,120 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LineSegment1DIntervalTreeTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testQueriesAgainstLinearScan()
+   {
+      Random random = new Random(8743L);
+      SpatialQueryResult result = new SpatialQueryResult();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         LineSegment1DIntervalTree tree = new LineSegment1DIntervalTree();
+         List<LineSegment1D> lineSegments = new ArrayList<>();
+         List<Integer> ids = new ArrayList<>();
+
+         for (int j = 0; j < 300; j++)
+         {
+            if (!ids.isEmpty() && random.nextInt(3) == 0)
+            {
+               int index = random.nextInt(ids.size());
+               assertTrue(tree.remove(ids.get(index)));
+               assertFalse(tree.contains(ids.get(index)));
+               assertFalse(tree.remove(ids.get(index)));
+               ids.remove(index);
+               lineSegments.remove(index);
+            }
+            else
+            {
+               LineSegment1D lineSegment = LineSegment1DIntervalIndexTest.nextLineSegment1D(random);
+               int id = tree.add(lineSegment);
+               assertFalse(ids.contains(id));
+               ids.add(id);
+               lineSegments.add(lineSegment);
+            }
+
+            if (j % 30 != 0)
+               continue;
+
+            assertEquals(ids.size(), tree.size());
+            LineSegment1D lineSegment = new LineSegment1D();
+            for (int k = 0; k < ids.size(); k++)
+            {
+               tree.getLineSegment(ids.get(k), lineSegment);
+               assertTrue(lineSegment.epsilonEquals(lineSegments.get(k), 0.0));
+            }
+
+            assertEquals(LineSegment1DIntervalIndexTest.computeUnionLength(lineSegments, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY),
+                         tree.computeUnionLength(), EPSILON);
+
+            for (int k = 0; k < 10; k++)
+            {
+               LineSegment1D query = LineSegment1DIntervalIndexTest.nextLineSegment1D(random);
+
+               tree.findOverlapping(query, result);
+               int[] expected = new int[ids.size()];
+               int numberOfExpected = 0;
+               for (int n = 0; n < lineSegments.size(); n++)
+               {
+                  if (lineSegments.get(n).isOverlappingInclusive(query))
+                     expected[numberOfExpected++] = ids.get(n);
+               }
+               LineSegment1DIntervalIndexTest.assertIndicesEqual(Arrays.copyOf(expected, numberOfExpected), result);
+
+               double point = query.getSecondEndpoint();
+               tree.findContaining(point, result);
+               numberOfExpected = 0;
+               for (int n = 0; n < lineSegments.size(); n++)
+               {
+                  if (lineSegments.get(n).isBetweenEndpointsInclusive(point))
+                     expected[numberOfExpected++] = ids.get(n);
+               }
+               LineSegment1DIntervalIndexTest.assertIndicesEqual(Arrays.copyOf(expected, numberOfExpected), result);
+
+               double expectedLength = LineSegment1DIntervalIndexTest.computeUnionLength(lineSegments, query.getMinPoint(), query.getMaxPoint());
+               assertEquals(expectedLength, tree.computeUnionLength(query.getFirstEndpoint(), query.getSecondEndpoint()), EPSILON);
+            }
+         }
+
+         tree.clear();
+         assertTrue(tree.isEmpty());
+         tree.findContaining(0.0, result);
+         assertTrue(result.isEmpty());
+         assertEquals(0.0, tree.computeUnionLength(), 0.0);
+      }
+   }
+
+   @Test
+   public void testInvalidArguments()
+   {
+      LineSegment1DIntervalTree tree = new LineSegment1DIntervalTree();
+      assertFalse(tree.remove(0));
+      assertFalse(tree.remove(-1));
+
+      try
+      {
+         tree.getLineSegment(0, new LineSegment1D());
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+}
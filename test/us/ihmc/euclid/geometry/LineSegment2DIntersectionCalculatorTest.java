@@ -0,0 +1,197 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple2D.Point2D;
+
+public class LineSegment2DIntersectionCalculatorTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testAgainstAllPairs()
+   {
+      Random random = new Random(3641L);
+      LineSegment2DIntersectionCalculator calculator = new LineSegment2DIntersectionCalculator();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<LineSegment2D> lineSegments = nextLineSegments(random, random.nextInt(300));
+
+         Set<Long> expectedPairs = new HashSet<>();
+         for (int j = 0; j < lineSegments.size(); j++)
+         {
+            for (int k = j + 1; k < lineSegments.size(); k++)
+            {
+               if (intersect(lineSegments.get(j), lineSegments.get(k)))
+                  expectedPairs.add(pairKey(j, k));
+            }
+         }
+
+         Set<Long> actualPairs = new HashSet<>();
+         int numberOfIntersections = calculator.computeIntersections(lineSegments, (firstIndex, secondIndex, x, y) ->
+         {
+            assertTrue(firstIndex < secondIndex);
+            assertTrue(actualPairs.add(pairKey(firstIndex, secondIndex)));
+            assertOnSegment(lineSegments.get(firstIndex), x, y);
+            assertOnSegment(lineSegments.get(secondIndex), x, y);
+         });
+         assertEquals(expectedPairs.size(), numberOfIntersections);
+         assertEquals(expectedPairs, actualPairs);
+
+         actualPairs.clear();
+         numberOfIntersections = calculator.computeIntersections(pack(lineSegments), lineSegments.size(),
+                                                                 (firstIndex, secondIndex, x, y) -> actualPairs.add(pairKey(firstIndex, secondIndex)));
+         assertEquals(expectedPairs.size(), numberOfIntersections);
+         assertEquals(expectedPairs, actualPairs);
+      }
+   }
+
+   @Test
+   public void testBetweenTwoBatchesAgainstAllPairs()
+   {
+      Random random = new Random(9823L);
+      LineSegment2DIntersectionCalculator calculator = new LineSegment2DIntersectionCalculator();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<LineSegment2D> firstLineSegments = nextLineSegments(random, random.nextInt(100));
+         List<LineSegment2D> secondLineSegments = nextLineSegments(random, random.nextInt(200));
+
+         Set<Long> expectedPairs = new HashSet<>();
+         for (int j = 0; j < firstLineSegments.size(); j++)
+         {
+            for (int k = 0; k < secondLineSegments.size(); k++)
+            {
+               if (intersect(firstLineSegments.get(j), secondLineSegments.get(k)))
+                  expectedPairs.add(pairKey(j, k));
+            }
+         }
+
+         Set<Long> actualPairs = new HashSet<>();
+         int numberOfIntersections = calculator.computeIntersections(firstLineSegments, secondLineSegments, (firstIndex, secondIndex, x, y) ->
+         {
+            assertTrue(actualPairs.add(pairKey(firstIndex, secondIndex)));
+            assertOnSegment(firstLineSegments.get(firstIndex), x, y);
+            assertOnSegment(secondLineSegments.get(secondIndex), x, y);
+         });
+         assertEquals(expectedPairs.size(), numberOfIntersections);
+         assertEquals(expectedPairs, actualPairs);
+
+         actualPairs.clear();
+         numberOfIntersections = calculator.computeIntersections(pack(firstLineSegments), firstLineSegments.size(), pack(secondLineSegments),
+                                                                 secondLineSegments.size(),
+                                                                 (firstIndex, secondIndex, x, y) -> actualPairs.add(pairKey(firstIndex, secondIndex)));
+         assertEquals(expectedPairs.size(), numberOfIntersections);
+         assertEquals(expectedPairs, actualPairs);
+      }
+   }
+
+   @Test
+   public void testEdgeCases()
+   {
+      LineSegment2DIntersectionCalculator calculator = new LineSegment2DIntersectionCalculator();
+      List<LineSegment2D> lineSegments = new ArrayList<>();
+      lineSegments.add(new LineSegment2D(0.0, 0.0, 1.0, 0.0));
+      // Shares an endpoint with the first segment.
+      lineSegments.add(new LineSegment2D(1.0, 0.0, 1.0, 1.0));
+      // Collinear and overlapping with the first segment.
+      lineSegments.add(new LineSegment2D(0.5, 0.0, 2.0, 0.0));
+      // Vertical segment crossing the first and third segments.
+      lineSegments.add(new LineSegment2D(0.75, -1.0, 0.75, 1.0));
+      // Parallel to the first segment, far away.
+      lineSegments.add(new LineSegment2D(0.0, 5.0, 1.0, 5.0));
+
+      Set<Long> actualPairs = new HashSet<>();
+      int numberOfIntersections = calculator.computeIntersections(lineSegments,
+                                                                  (firstIndex, secondIndex, x, y) -> actualPairs.add(pairKey(firstIndex, secondIndex)));
+      assertEquals(5, numberOfIntersections);
+      assertTrue(actualPairs.contains(pairKey(0, 1)));
+      assertTrue(actualPairs.contains(pairKey(0, 2)));
+      assertTrue(actualPairs.contains(pairKey(0, 3)));
+      assertTrue(actualPairs.contains(pairKey(1, 2)));
+      assertTrue(actualPairs.contains(pairKey(2, 3)));
+
+      assertEquals(0, calculator.computeIntersections(new ArrayList<LineSegment2D>(), (firstIndex, secondIndex, x, y) -> fail()));
+      assertEquals(0, calculator.computeIntersections(new double[0], 0, (firstIndex, secondIndex, x, y) -> fail()));
+
+      try
+      {
+         calculator.computeIntersections(new double[7], 2, (firstIndex, secondIndex, x, y) -> fail());
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+
+   private static List<LineSegment2D> nextLineSegments(Random random, int numberOfLineSegments)
+   {
+      List<LineSegment2D> lineSegments = new ArrayList<>();
+
+      for (int i = 0; i < numberOfLineSegments; i++)
+      {
+         if (i > 0 && random.nextInt(10) == 0)
+         { // Segments sharing an endpoint with a previous segment.
+            LineSegment2D other = lineSegments.get(random.nextInt(i));
+            lineSegments.add(new LineSegment2D(other.getSecondEndpoint(), EuclidCoreRandomTools.nextPoint2D(random, 10.0)));
+         }
+         else
+         {
+            Point2D start = EuclidCoreRandomTools.nextPoint2D(random, 10.0);
+            Point2D end = new Point2D(start);
+            end.add(EuclidCoreRandomTools.nextDouble(random, 2.0), random.nextInt(5) == 0 ? 0.0 : EuclidCoreRandomTools.nextDouble(random, 2.0));
+            lineSegments.add(new LineSegment2D(start, end));
+         }
+      }
+
+      return lineSegments;
+   }
+
+   private static double[] pack(List<LineSegment2D> lineSegments)
+   {
+      double[] packed = new double[4 * lineSegments.size()];
+
+      for (int i = 0; i < lineSegments.size(); i++)
+      {
+         LineSegment2D lineSegment = lineSegments.get(i);
+         packed[4 * i] = lineSegment.getFirstEndpointX();
+         packed[4 * i + 1] = lineSegment.getFirstEndpointY();
+         packed[4 * i + 2] = lineSegment.getSecondEndpointX();
+         packed[4 * i + 3] = lineSegment.getSecondEndpointY();
+      }
+
+      return packed;
+   }
+
+   private static boolean intersect(LineSegment2D first, LineSegment2D second)
+   {
+      return EuclidGeometryTools.intersectionBetweenTwoLineSegment2Ds(first.getFirstEndpointX(), first.getFirstEndpointY(), first.getSecondEndpointX(),
+                                                                      first.getSecondEndpointY(), second.getFirstEndpointX(), second.getFirstEndpointY(),
+                                                                      second.getSecondEndpointX(), second.getSecondEndpointY(), null);
+   }
+
+   private static void assertOnSegment(LineSegment2D lineSegment, double x, double y)
+   {
+      assertEquals(0.0, lineSegment.distance(new Point2D(x, y)), EPSILON);
+   }
+
+   private static long pairKey(int firstIndex, int secondIndex)
+   {
+      return ((long) firstIndex << 32) | secondIndex;
+   }
+}
@@ -0,0 +1,182 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple2D.Point2D;
+
+public class LineSegment2DSpatialHashTest
+{
+   private static final int ITERATIONS = 100;
+
+   @Test
+   public void testQueriesAgainstLinearScan()
+   {
+      Random random = new Random(7412L);
+      SpatialQueryResult result = new SpatialQueryResult();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         LineSegment2DSpatialHash spatialHash = new LineSegment2DSpatialHash(EuclidCoreRandomTools.nextDouble(random, 0.05, 2.0));
+         List<LineSegment2D> lineSegments = new ArrayList<>();
+         List<Integer> ids = new ArrayList<>();
+
+         for (int j = 0; j < 500; j++)
+         {
+            if (!ids.isEmpty() && random.nextInt(4) == 0)
+            {
+               int index = random.nextInt(ids.size());
+               assertTrue(spatialHash.remove(ids.get(index)));
+               assertFalse(spatialHash.contains(ids.get(index)));
+               assertFalse(spatialHash.remove(ids.get(index)));
+               ids.remove(index);
+               lineSegments.remove(index);
+            }
+            else
+            {
+               Point2D start = EuclidCoreRandomTools.nextPoint2D(random, 10.0);
+               Point2D end = new Point2D(start);
+               end.add(EuclidCoreRandomTools.nextPoint2D(random, random.nextInt(10) == 0 ? 5.0 : 0.5));
+               LineSegment2D lineSegment = new LineSegment2D(start, end);
+               int id = spatialHash.add(lineSegment);
+               assertFalse(ids.contains(id));
+               ids.add(id);
+               lineSegments.add(lineSegment);
+            }
+         }
+
+         assertEquals(ids.size(), spatialHash.size());
+         LineSegment2D lineSegment = new LineSegment2D();
+         for (int j = 0; j < ids.size(); j++)
+         {
+            spatialHash.getLineSegment(ids.get(j), lineSegment);
+            assertTrue(lineSegment.epsilonEquals(lineSegments.get(j), 0.0));
+         }
+
+         for (int j = 0; j < 20; j++)
+         {
+            // Some queries are far from the segments.
+            Point2D query = EuclidCoreRandomTools.nextPoint2D(random, j % 5 == 0 ? 50.0 : 12.0);
+            double[] distancesSquared = new double[lineSegments.size()];
+            for (int k = 0; k < lineSegments.size(); k++)
+               distancesSquared[k] = lineSegments.get(k).distanceSquared(query);
+            double[] sortedDistancesSquared = Arrays.copyOf(distancesSquared, distancesSquared.length);
+            Arrays.sort(sortedDistancesSquared);
+
+            int nearest = spatialHash.findNearest(query, result);
+            if (lineSegments.isEmpty())
+            {
+               assertEquals(-1, nearest);
+               assertTrue(result.isEmpty());
+            }
+            else
+            {
+               assertEquals(1, result.size());
+               assertEquals(nearest, result.getIndex(0));
+               assertEquals(sortedDistancesSquared[0], result.getDistanceSquared(0), 0.0);
+               assertEquals(sortedDistancesSquared[0], distancesSquared[ids.indexOf(nearest)], 0.0);
+            }
+
+            double radius = EuclidCoreRandomTools.nextDouble(random, 0.0, 3.0);
+            spatialHash.findWithinRadius(query, radius, result);
+            result.sortByDistance();
+            int expectedNumberOfSegments = 0;
+            for (double distanceSquared : sortedDistancesSquared)
+            {
+               if (distanceSquared <= radius * radius)
+                  expectedNumberOfSegments++;
+            }
+            assertEquals(expectedNumberOfSegments, result.size());
+
+            for (int n = 0; n < result.size(); n++)
+            {
+               assertEquals(sortedDistancesSquared[n], result.getDistanceSquared(n), 0.0);
+               assertEquals(sortedDistancesSquared[n], distancesSquared[ids.indexOf(result.getIndex(n))], 0.0);
+            }
+         }
+
+         spatialHash.clear();
+         assertTrue(spatialHash.isEmpty());
+         assertEquals(-1, spatialHash.findNearest(new Point2D(), result));
+      }
+   }
+
+   @Test
+   public void testInvalidArguments()
+   {
+      try
+      {
+         new LineSegment2DSpatialHash(0.0);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      LineSegment2DSpatialHash spatialHash = new LineSegment2DSpatialHash(1.0);
+      assertFalse(spatialHash.remove(0));
+      assertFalse(spatialHash.remove(-1));
+
+      try
+      {
+         spatialHash.getLineSegment(0, new LineSegment2D());
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         spatialHash.add(Double.POSITIVE_INFINITY, 0.0, 0.0, 0.0);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         spatialHash.add(0.0, Double.NaN, 0.0, 0.0);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         spatialHash.add(1.0e300, 0.0, 1.0e300, 0.0);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         spatialHash.add(0.0, 0.0, 1.0e7, 1.0e7);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+      assertTrue(spatialHash.isEmpty());
+   }
+}
@@ -1,5 +1,6 @@
 package us.ihmc.euclid.geometry;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -8,10 +9,15 @@ import java.util.Random;
 import org.junit.Test;
 
 import us.ihmc.euclid.geometry.tools.EuclidGeometryRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreTestTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple2D.Point2D;
 
 public class Orientation2DTest
 {
    private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-12;
 
    @Test
    public void testGeometricallyEquals()
@@ -62,4 +68,89 @@ public class Orientation2DTest
          assertTrue(firstOrientation.geometricallyEquals(secondOrientation, epsilon));
       }
    }
+
+   @Test
+   public void testCachedTrigonometry()
+   {
+      Random random = new Random(23541L);
+      Orientation2D orientation = new Orientation2D();
+
+      assertTrigonometryUpToDate(orientation);
+
+      for (int i = 0; i < ITERATIONS; ++i)
+      {
+         orientation.setYaw(EuclidCoreRandomTools.nextDouble(random, 10.0));
+         assertTrigonometryUpToDate(orientation);
+
+         orientation.add(EuclidGeometryRandomTools.nextOrientation2D(random));
+         assertTrigonometryUpToDate(orientation);
+
+         orientation.sub(EuclidGeometryRandomTools.nextOrientation2D(random));
+         assertTrigonometryUpToDate(orientation);
+
+         orientation.set(EuclidGeometryRandomTools.nextOrientation2D(random));
+         assertTrigonometryUpToDate(orientation);
+
+         orientation.interpolate(EuclidGeometryRandomTools.nextOrientation2D(random), random.nextDouble());
+         assertTrigonometryUpToDate(orientation);
+
+         RigidBodyTransform transform = new RigidBodyTransform();
+         transform.setRotationYawAndZeroTranslation(EuclidCoreRandomTools.nextDouble(random, Math.PI));
+         orientation.applyTransform(transform);
+         assertTrigonometryUpToDate(orientation);
+
+         orientation.setToNaN();
+         assertTrue(Double.isNaN(orientation.getCosYaw()));
+         assertTrue(Double.isNaN(orientation.getSinYaw()));
+
+         orientation.setToZero();
+         assertTrigonometryUpToDate(orientation);
+      }
+   }
+
+   private static void assertTrigonometryUpToDate(Orientation2D orientation)
+   {
+      assertEquals(Math.cos(orientation.getYaw()), orientation.getCosYaw(), 0.0);
+      assertEquals(Math.sin(orientation.getYaw()), orientation.getSinYaw(), 0.0);
+   }
+
+   @Test
+   public void testBatchTransform()
+   {
+      Random random = new Random(6347L);
+
+      for (int i = 0; i < ITERATIONS; ++i)
+      {
+         Orientation2D orientation = EuclidGeometryRandomTools.nextOrientation2D(random);
+         int numberOfPoints = random.nextInt(20);
+         int startIndex = random.nextInt(numberOfPoints + 1);
+         int endIndex = startIndex + random.nextInt(numberOfPoints - startIndex + 1);
+
+         double[] xs = new double[numberOfPoints];
+         double[] ys = new double[numberOfPoints];
+         Point2D[] points = new Point2D[numberOfPoints];
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            points[j] = EuclidCoreRandomTools.nextPoint2D(random, 10.0);
+            xs[j] = points[j].getX();
+            ys[j] = points[j].getY();
+         }
+
+         orientation.transform(xs, ys, startIndex, endIndex);
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            Point2D expected = new Point2D(points[j]);
+            if (j >= startIndex && j < endIndex)
+               orientation.transform(expected);
+            EuclidCoreTestTools.assertTuple2DEquals(expected, new Point2D(xs[j], ys[j]), EPSILON);
+         }
+
+         orientation.inverseTransform(xs, ys, startIndex, endIndex);
+
+         for (int j = 0; j < numberOfPoints; j++)
+            EuclidCoreTestTools.assertTuple2DEquals(points[j], new Point2D(xs[j], ys[j]), EPSILON);
+      }
+   }
 }
@@ -0,0 +1,96 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple3D.Point3D;
+
+public class OrientedBoundingBoxCalculatorTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-9;
+
+   @Test
+   public void testBoxVertices()
+   {
+      Random random = new Random(2981L);
+      OrientedBoundingBoxCalculator calculator = new OrientedBoundingBoxCalculator();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      { // The principal axes of the vertices of a box with distinct sizes are the axes of the box.
+         double length = EuclidCoreRandomTools.nextDouble(random, 2.0, 3.0);
+         double width = EuclidCoreRandomTools.nextDouble(random, 1.0, 1.9);
+         double height = EuclidCoreRandomTools.nextDouble(random, 0.1, 0.9);
+         Box3D expected = new Box3D(EuclidCoreRandomTools.nextRigidBodyTransform(random), length, width, height);
+         Box3D actual = new Box3D();
+
+         calculator.setUseConvexHullRefinement(random.nextBoolean());
+         calculator.compute(Vertex3DSupplier.asVertex3DSupplier(expected.getVertices()), actual);
+         assertTrue(expected.geometricallyEquals(actual, EPSILON));
+         assertTrue(Math.abs(actual.getSizeX() - length) < EPSILON);
+         assertTrue(Math.abs(actual.getSizeZ() - height) < EPSILON);
+      }
+   }
+
+   @Test
+   public void testEnclosesPoints()
+   {
+      Random random = new Random(5643L);
+      OrientedBoundingBoxCalculator calculator = new OrientedBoundingBoxCalculator();
+      Box3D box = new Box3D();
+      Point3D point = new Point3D();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfPoints = random.nextInt(500) + 1;
+         double[] xs = new double[numberOfPoints];
+         double[] ys = new double[numberOfPoints];
+         double[] zs = new double[numberOfPoints];
+         RigidBodyTransform transform = EuclidCoreRandomTools.nextRigidBodyTransform(random);
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            point.set(EuclidCoreRandomTools.nextDouble(random, 3.0), EuclidCoreRandomTools.nextDouble(random, 1.0),
+                      EuclidCoreRandomTools.nextDouble(random, 0.2));
+            transform.transform(point);
+            xs[j] = point.getX();
+            ys[j] = point.getY();
+            zs[j] = point.getZ();
+         }
+
+         calculator.setUseConvexHullRefinement(false);
+         calculator.compute(xs, ys, zs, 0, numberOfPoints, box);
+         assertEnclosesPoints(box, xs, ys, zs);
+         double volume = box.getSizeX() * box.getSizeY() * box.getSizeZ();
+
+         calculator.computeParallel(xs, ys, zs, 0, numberOfPoints, box);
+         assertEnclosesPoints(box, xs, ys, zs);
+
+         calculator.setUseConvexHullRefinement(true);
+         calculator.compute(xs, ys, zs, 0, numberOfPoints, box);
+         assertEnclosesPoints(box, xs, ys, zs);
+         // The refinement never loosens the box.
+         assertTrue(box.getSizeX() * box.getSizeY() * box.getSizeZ() <= volume + EPSILON);
+      }
+   }
+
+   @Test
+   public void testEmpty()
+   {
+      Box3D box = new Box3D();
+      new OrientedBoundingBoxCalculator().compute(new double[0], new double[0], new double[0], 0, 0, box);
+      assertTrue(box.containsNaN());
+   }
+
+   private static void assertEnclosesPoints(Box3D box, double[] xs, double[] ys, double[] zs)
+   {
+      for (int i = 0; i < xs.length; i++)
+         assertTrue(box.isInsideEpsilon(new Point3D(xs[i], ys[i], zs[i]), 1.0e-7));
+   }
+}
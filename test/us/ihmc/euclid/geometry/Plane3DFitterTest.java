@@ -0,0 +1,147 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.Vector3D;
+
+public class Plane3DFitterTest
+{
+   private static final int ITERATIONS = 100;
+
+   @Test
+   public void testLeastSquares()
+   {
+      Random random = new Random(3301L);
+      Plane3DFitter fitter = new Plane3DFitter();
+      Plane3D fittedPlane = new Plane3D();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Plane3D expectedPlane = EuclidGeometryRandomTools.nextPlane3D(random);
+         int numberOfPoints = random.nextInt(100) + 3;
+         double[] xs = new double[numberOfPoints];
+         double[] ys = new double[numberOfPoints];
+         double[] zs = new double[numberOfPoints];
+         nextPointsOnPlane(random, expectedPlane, 0.0, xs, ys, zs, 0, numberOfPoints);
+
+         assertTrue(fitter.fitLeastSquares(xs, ys, zs, 0, numberOfPoints, fittedPlane));
+         assertTrue(expectedPlane.geometricallyEquals(fittedPlane, 1.0e-7));
+
+         PointCloudCovariance3D covariance = new PointCloudCovariance3D();
+         for (int j = 0; j < numberOfPoints; j++)
+            covariance.add(xs[j], ys[j], zs[j]);
+         assertTrue(fitter.fitLeastSquares(covariance, fittedPlane));
+         assertTrue(expectedPlane.geometricallyEquals(fittedPlane, 1.0e-7));
+      }
+
+      assertFalse(fitter.fitLeastSquares(new double[2], new double[2], new double[2], 0, 2, fittedPlane));
+      assertTrue(fittedPlane.containsNaN());
+   }
+
+   @Test
+   public void testRANSACWithOutliers()
+   {
+      Random random = new Random(7120L);
+      Plane3DFitter fitter = new Plane3DFitter();
+      fitter.setRandomSeed(42L);
+      Plane3D fittedPlane = new Plane3D();
+      BitSet inliers = new BitSet();
+
+      for (int i = 0; i < 20; i++)
+      {
+         Plane3D expectedPlane = EuclidGeometryRandomTools.nextPlane3D(random);
+         int numberOfInliers = 500 + random.nextInt(500);
+         int numberOfOutliers = 500 + random.nextInt(500);
+         int numberOfPoints = numberOfInliers + numberOfOutliers;
+         double[] xs = new double[numberOfPoints];
+         double[] ys = new double[numberOfPoints];
+         double[] zs = new double[numberOfPoints];
+         double noise = 0.002;
+         nextPointsOnPlane(random, expectedPlane, noise, xs, ys, zs, 0, numberOfInliers);
+
+         for (int j = numberOfInliers; j < numberOfPoints; j++)
+         { // Outliers are at least 10cm away from the plane.
+            Point3D outlier = new Point3D(EuclidCoreRandomTools.nextPoint3D(random, 1.0));
+            outlier.add(expectedPlane.getPoint());
+            double signedDistance = expectedPlane.signedDistance(outlier);
+            double shift = Math.abs(signedDistance) < 0.1 ? Math.copySign(0.1, signedDistance) - signedDistance : 0.0;
+            outlier.scaleAdd(shift, expectedPlane.getNormal(), outlier);
+            xs[j] = outlier.getX();
+            ys[j] = outlier.getY();
+            zs[j] = outlier.getZ();
+         }
+
+         for (boolean useMSAC : new boolean[] {false, true})
+         {
+            fitter.setUseMSAC(useMSAC);
+
+            for (boolean parallel : new boolean[] {false, true})
+            {
+               int numberOfFittedInliers;
+               if (parallel)
+                  numberOfFittedInliers = fitter.fitRANSACParallel(xs, ys, zs, 0, numberOfPoints, fittedPlane, inliers);
+               else
+                  numberOfFittedInliers = fitter.fitRANSAC(xs, ys, zs, 0, numberOfPoints, fittedPlane, inliers);
+
+               assertEquals(numberOfInliers, numberOfFittedInliers);
+               assertEquals(numberOfInliers, inliers.cardinality());
+               assertEquals(numberOfInliers, inliers.nextClearBit(0));
+               assertTrue(expectedPlane.isCoincident(fittedPlane, 0.01, 0.002));
+            }
+         }
+      }
+   }
+
+   @Test
+   public void testRANSACEdgeCases()
+   {
+      Plane3DFitter fitter = new Plane3DFitter();
+      Plane3D fittedPlane = new Plane3D();
+      BitSet inliers = new BitSet();
+      inliers.set(3);
+
+      assertEquals(0, fitter.fitRANSAC(new double[2], new double[2], new double[2], 0, 2, fittedPlane, inliers));
+      assertTrue(fittedPlane.containsNaN());
+      assertTrue(inliers.isEmpty());
+
+      // Collinear points.
+      double[] xs = {0.0, 1.0, 2.0, 3.0};
+      double[] zeros = new double[4];
+      assertEquals(0, fitter.fitRANSAC(xs, zeros, zeros, 0, 4, fittedPlane, inliers));
+      assertTrue(fittedPlane.containsNaN());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testInvalidThreshold()
+   {
+      new Plane3DFitter().setInlierThreshold(-1.0);
+   }
+
+   private static void nextPointsOnPlane(Random random, Plane3D plane, double noise, double[] xs, double[] ys, double[] zs, int startIndex, int endIndex)
+   {
+      Vector3D tangent = EuclidCoreRandomTools.nextOrthogonalVector3D(random, plane.getNormal(), true);
+      Vector3D binormal = new Vector3D();
+      binormal.cross(plane.getNormal(), tangent);
+
+      for (int i = startIndex; i < endIndex; i++)
+      {
+         Point3D point = new Point3D(plane.getPoint());
+         point.scaleAdd(EuclidCoreRandomTools.nextDouble(random, 1.0), tangent, point);
+         point.scaleAdd(EuclidCoreRandomTools.nextDouble(random, 1.0), binormal, point);
+         point.scaleAdd(EuclidCoreRandomTools.nextDouble(random, noise), plane.getNormal(), point);
+         xs[i] = point.getX();
+         ys[i] = point.getY();
+         zs[i] = point.getZ();
+      }
+   }
+}
@@ -113,6 +113,33 @@ public class Plane3DTest
       assertEquals(1.0, plane.distance(q), 1e-14);
    }
 
+   @Test
+   public void testBatchSignedDistance()
+   {
+      Random random = new Random(9264L);
+      Plane3D plane = EuclidGeometryRandomTools.nextPlane3D(random);
+      int numberOfQueries = 100;
+      double[] xs = new double[numberOfQueries];
+      double[] ys = new double[numberOfQueries];
+      double[] zs = new double[numberOfQueries];
+      double[] signedDistances = new double[numberOfQueries];
+
+      for (int i = 0; i < numberOfQueries; i++)
+      {
+         xs[i] = EuclidCoreRandomTools.nextDouble(random, 10.0);
+         ys[i] = EuclidCoreRandomTools.nextDouble(random, 10.0);
+         zs[i] = EuclidCoreRandomTools.nextDouble(random, 10.0);
+      }
+
+      plane.signedDistance(xs, ys, zs, signedDistances);
+
+      for (int i = 0; i < numberOfQueries; i++)
+      {
+         assertEquals(plane.signedDistance(new Point3D(xs[i], ys[i], zs[i])), signedDistances[i], 1.0e-12);
+         assertEquals(signedDistances[i], plane.signedDistance(xs[i], ys[i], zs[i]), 1.0e-12);
+      }
+   }
+
    @Test
    public void testApplyTransform()
    {
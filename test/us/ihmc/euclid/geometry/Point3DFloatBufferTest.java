@@ -0,0 +1,223 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.interfaces.Point3DReadOnly;
+
+public class Point3DFloatBufferTest
+{
+   private static final int ITERATIONS = 100;
+
+   @Test
+   public void testRoundTrip()
+   {
+      Random random = new Random(3318L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Point3D> points = nextPoints(random, random.nextInt(100));
+         int n = points.size();
+         Point3DFloatBuffer buffer = new Point3DFloatBuffer(random.nextInt(4));
+
+         double[] xs = new double[n], ys = new double[n], zs = new double[n];
+         for (int j = 0; j < n; j++)
+         {
+            xs[j] = points.get(j).getX();
+            ys[j] = points.get(j).getY();
+            zs[j] = points.get(j).getZ();
+         }
+
+         int split = random.nextInt(n + 1);
+         for (int j = 0; j < split; j++)
+            buffer.add(points.get(j));
+         buffer.addAll(xs, ys, zs, split, n);
+         assertEquals(n, buffer.size());
+         assertEquals(n, buffer.getNumberOfVertices());
+
+         Point3D actual = new Point3D();
+         for (int j = 0; j < n; j++)
+         {
+            // The coordinates are rounded to the nearest float.
+            Point3D expected = new Point3D((float) xs[j], (float) ys[j], (float) zs[j]);
+            buffer.get(j, actual);
+            assertTrue(expected.equals(actual));
+            assertTrue(expected.equals(buffer.getVertex(j)));
+            assertEquals(expected.getX(), buffer.getX(j), 0.0);
+            assertEquals(expected.getY(), buffer.getY(j), 0.0);
+            assertEquals(expected.getZ(), buffer.getZ(j), 0.0);
+            assertTrue(expected.epsilonEquals(points.get(j), 1.0e-6));
+         }
+
+         double[] actualXs = new double[n], actualYs = new double[n], actualZs = new double[n];
+         buffer.get(actualXs, actualYs, actualZs, 0, n);
+         for (int j = 0; j < n; j++)
+         {
+            assertEquals((float) xs[j], actualXs[j], 0.0);
+            assertEquals((float) ys[j], actualYs[j], 0.0);
+            assertEquals((float) zs[j], actualZs[j], 0.0);
+         }
+
+         Point3DFloatBuffer copy = new Point3DFloatBuffer(buffer);
+         assertTrue(copy.equals((Vertex3DSupplier) buffer));
+
+         if (n > 0)
+         {
+            int index = random.nextInt(n);
+            Point3D point = EuclidCoreRandomTools.nextPoint3D(random, 10.0);
+            copy.set(index, point);
+            assertTrue(point.epsilonEquals(copy.getVertex(index), 1.0e-5));
+         }
+      }
+   }
+
+   @Test
+   public void testBoundingBox()
+   {
+      Random random = new Random(69142L);
+      Point3DFloatBuffer buffer = new Point3DFloatBuffer();
+      BoundingBox3D actual = new BoundingBox3D();
+
+      buffer.getBoundingBox(actual);
+      assertTrue(actual.containsNaN());
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         buffer.clear();
+         buffer.addAll(Vertex3DSupplier.asVertex3DSupplier(nextPoints(random, 1 + random.nextInt(100))));
+
+         PointCloudAccumulator3D accumulator = new PointCloudAccumulator3D();
+         accumulator.addAll(buffer);
+         assertEquals(buffer.size(), accumulator.getNumberOfPoints());
+
+         BoundingBox3D expected = new BoundingBox3D();
+         accumulator.getBoundingBox(expected);
+         buffer.getBoundingBox(actual);
+         assertTrue(expected.epsilonEquals(actual, 0.0));
+      }
+   }
+
+   @Test
+   public void testVertexSupplier()
+   {
+      Random random = new Random(18703L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Point3DFloatBuffer buffer = new Point3DFloatBuffer();
+         buffer.addAll(Vertex3DSupplier.asVertex3DSupplier(nextPoints(random, 1 + random.nextInt(100))));
+
+         KDTree3D tree = new KDTree3D();
+         tree.build(buffer);
+         assertEquals(buffer.size(), tree.size());
+
+         Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 10.0);
+         int expectedIndex = 0;
+         for (int j = 1; j < buffer.size(); j++)
+         {
+            if (query.distanceSquared(buffer.getVertex(j)) < query.distanceSquared(buffer.getVertex(expectedIndex)))
+               expectedIndex = j;
+         }
+
+         double expectedDistance = query.distance(buffer.getVertex(expectedIndex));
+         // The vertex is a view, it is moved to the nearest point.
+         Point3DReadOnly nearest = buffer.getVertex(tree.findNearest(query, new SpatialQueryResult()));
+         assertEquals(expectedDistance, query.distance(nearest), 0.0);
+      }
+   }
+
+   @Test
+   public void testApplyTransform()
+   {
+      Random random = new Random(5520L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Point3D> points = nextPoints(random, random.nextInt(50));
+         Point3DFloatBuffer buffer = new Point3DFloatBuffer();
+         buffer.addAll(Vertex3DSupplier.asVertex3DSupplier(points));
+         RigidBodyTransform transform = EuclidCoreRandomTools.nextRigidBodyTransform(random);
+
+         buffer.applyTransform(transform);
+
+         for (int j = 0; j < points.size(); j++)
+         {
+            Point3D expected = new Point3D((float) points.get(j).getX(), (float) points.get(j).getY(), (float) points.get(j).getZ());
+            expected.applyTransform(transform);
+            assertTrue(expected.epsilonEquals(buffer.getVertex(j), 1.0e-5));
+         }
+
+         buffer.applyInverseTransform(transform);
+
+         for (int j = 0; j < points.size(); j++)
+            assertTrue(points.get(j).epsilonEquals(buffer.getVertex(j), 1.0e-5));
+      }
+   }
+
+   @Test
+   public void testExceptions()
+   {
+      Point3DFloatBuffer buffer = new Point3DFloatBuffer();
+      buffer.add(1.0, 2.0, 3.0);
+
+      try
+      {
+         buffer.getVertex(1);
+         fail("Should have thrown an IndexOutOfBoundsException");
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         // good
+      }
+
+      try
+      {
+         buffer.set(-1, new Point3D());
+         fail("Should have thrown an IndexOutOfBoundsException");
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         // good
+      }
+
+      try
+      {
+         buffer.get(new double[2], new double[2], new double[2], 0, 2);
+         fail("Should have thrown an IndexOutOfBoundsException");
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         // good
+      }
+
+      try
+      {
+         buffer.addAll(new double[2], new double[1], new double[2], 0, 2);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+      assertEquals(1, buffer.size());
+   }
+
+   private static List<Point3D> nextPoints(Random random, int numberOfPoints)
+   {
+      List<Point3D> points = new ArrayList<>();
+      for (int i = 0; i < numberOfPoints; i++)
+         points.add(EuclidCoreRandomTools.nextPoint3D(random, 10.0));
+      return points;
+   }
+}
@@ -0,0 +1,86 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple2D.Point2D;
+
+public class PointCloudAccumulator2DTest
+{
+   private static final int ITERATIONS = 10;
+
+   @Test
+   public void testParallelAndCollector()
+   {
+      Random random = new Random(6603L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfPoints = random.nextInt(50000) + 1;
+         double[] xs = new double[numberOfPoints];
+         double[] ys = new double[numberOfPoints];
+         List<Point2D> points = new ArrayList<>();
+         BoundingBox2D expectedBoundingBox = new BoundingBox2D();
+         expectedBoundingBox.setToNaN();
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            Point2D point = EuclidCoreRandomTools.nextPoint2D(random, 100.0);
+            points.add(point);
+            xs[j] = point.getX();
+            ys[j] = point.getY();
+            expectedBoundingBox.updateToIncludePoint(point);
+         }
+
+         PointCloudAccumulator2D sequential = new PointCloudAccumulator2D();
+         sequential.addAll(xs, ys, 0, numberOfPoints);
+         Point2D expectedCentroid = new Point2D();
+         sequential.getCentroid(expectedCentroid);
+
+         PointCloudAccumulator2D parallel = new PointCloudAccumulator2D();
+         parallel.addAllParallel(xs, ys, 0, numberOfPoints);
+         PointCloudAccumulator2D collected = points.parallelStream().collect(PointCloudAccumulator2D.collector());
+
+         for (PointCloudAccumulator2D accumulator : new PointCloudAccumulator2D[] {parallel, collected})
+         {
+            assertEquals(numberOfPoints, accumulator.getNumberOfPoints());
+            Point2D centroid = new Point2D();
+            accumulator.getCentroid(centroid);
+            assertEquals(0.0, centroid.distance(expectedCentroid), 1.0e-12);
+
+            BoundingBox2D boundingBox = new BoundingBox2D();
+            accumulator.getBoundingBox(boundingBox);
+            assertTrue(boundingBox.epsilonEquals(expectedBoundingBox, 0.0));
+         }
+
+         assertEquals(0.0, EuclidGeometryTools.averagePoint2DsParallel(points).distance(expectedCentroid), 1.0e-12);
+      }
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testInvalidRange()
+   {
+      new PointCloudAccumulator2D().addAll(new double[3], new double[3], 2, 1);
+   }
+
+   @Test
+   public void testInfiniteCoordinates()
+   {
+      List<Point2D> points = new ArrayList<>();
+      points.add(new Point2D(1.0, Double.NEGATIVE_INFINITY));
+      points.add(new Point2D(Double.POSITIVE_INFINITY, 2.0));
+
+      // The compensation must not turn the infinite sums into NaN.
+      Point2D average = EuclidGeometryTools.averagePoint2Ds(points);
+      assertEquals(Double.POSITIVE_INFINITY, average.getX(), 0.0);
+      assertEquals(Double.NEGATIVE_INFINITY, average.getY(), 0.0);
+   }
+}
@@ -0,0 +1,146 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple3D.Point3D;
+
+public class PointCloudAccumulator3DTest
+{
+   private static final int ITERATIONS = 10;
+
+   @Test
+   public void testCompensatedCentroid()
+   {
+      Random random = new Random(8412L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfPoints = 100000;
+         double offset = EuclidCoreRandomTools.nextDouble(random, 1.0e8);
+         double[] xs = new double[numberOfPoints];
+         double[] ys = new double[numberOfPoints];
+         double[] zs = new double[numberOfPoints];
+         BigDecimal exactSumX = BigDecimal.ZERO;
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            xs[j] = offset + EuclidCoreRandomTools.nextDouble(random, 1.0e-3);
+            ys[j] = EuclidCoreRandomTools.nextDouble(random, 1.0);
+            zs[j] = EuclidCoreRandomTools.nextDouble(random, 1.0);
+            exactSumX = exactSumX.add(new BigDecimal(xs[j]));
+         }
+
+         double exactMeanX = exactSumX.divide(new BigDecimal(numberOfPoints)).doubleValue();
+
+         PointCloudAccumulator3D accumulator = new PointCloudAccumulator3D();
+         accumulator.addAll(xs, ys, zs, 0, numberOfPoints);
+         Point3D centroid = new Point3D();
+         accumulator.getCentroid(centroid);
+         // The compensated sum is accurate to the last bits of the mean.
+         assertEquals(exactMeanX, centroid.getX(), 2.0 * Math.ulp(exactMeanX));
+      }
+   }
+
+   @Test
+   public void testParallelAndCollector()
+   {
+      Random random = new Random(1297L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfPoints = random.nextInt(50000) + 1;
+         double[] xs = new double[numberOfPoints];
+         double[] ys = new double[numberOfPoints];
+         double[] zs = new double[numberOfPoints];
+         List<Point3D> points = new ArrayList<>();
+         BoundingBox3D expectedBoundingBox = new BoundingBox3D();
+         expectedBoundingBox.setToNaN();
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            Point3D point = EuclidCoreRandomTools.nextPoint3D(random, 100.0);
+            points.add(point);
+            xs[j] = point.getX();
+            ys[j] = point.getY();
+            zs[j] = point.getZ();
+            expectedBoundingBox.updateToIncludePoint(point);
+         }
+
+         PointCloudAccumulator3D sequential = new PointCloudAccumulator3D();
+         sequential.addAll(xs, ys, zs, 0, numberOfPoints);
+         Point3D expectedCentroid = new Point3D();
+         sequential.getCentroid(expectedCentroid);
+
+         PointCloudAccumulator3D parallel = new PointCloudAccumulator3D();
+         parallel.addAllParallel(xs, ys, zs, 0, numberOfPoints);
+         assertEquals(numberOfPoints, parallel.getNumberOfPoints());
+
+         PointCloudAccumulator3D collected = points.parallelStream().collect(PointCloudAccumulator3D.collector());
+         assertEquals(numberOfPoints, collected.getNumberOfPoints());
+
+         for (PointCloudAccumulator3D accumulator : new PointCloudAccumulator3D[] {parallel, collected})
+         {
+            Point3D centroid = new Point3D();
+            accumulator.getCentroid(centroid);
+            assertEquals(0.0, centroid.distance(expectedCentroid), 1.0e-12);
+
+            BoundingBox3D boundingBox = new BoundingBox3D();
+            accumulator.getBoundingBox(boundingBox);
+            assertTrue(boundingBox.epsilonEquals(expectedBoundingBox, 0.0));
+         }
+
+         assertEquals(0.0, EuclidGeometryTools.averagePoint3DsParallel(points).distance(expectedCentroid), 1.0e-12);
+         assertEquals(0.0, EuclidGeometryTools.averagePoint3Ds(points).distance(expectedCentroid), 1.0e-12);
+      }
+   }
+
+   @Test
+   public void testEmpty()
+   {
+      PointCloudAccumulator3D accumulator = new PointCloudAccumulator3D();
+      Point3D centroid = new Point3D();
+      BoundingBox3D boundingBox = new BoundingBox3D();
+      accumulator.getCentroid(centroid);
+      accumulator.getBoundingBox(boundingBox);
+      assertTrue(centroid.containsNaN());
+      assertTrue(boundingBox.containsNaN());
+
+      accumulator.combine(new PointCloudAccumulator3D());
+      assertEquals(0, accumulator.getNumberOfPoints());
+   }
+
+   @Test
+   public void testInfiniteCoordinates()
+   {
+      List<Point3D> points = new ArrayList<>();
+      points.add(new Point3D(1.0, Double.POSITIVE_INFINITY, 0.0));
+      points.add(new Point3D(2.0, 1.0, Double.NEGATIVE_INFINITY));
+      points.add(new Point3D(3.0, 2.0, -1.0));
+
+      // The compensation must not turn the infinite sums into NaN.
+      Point3D average = EuclidGeometryTools.averagePoint3Ds(points);
+      assertEquals(2.0, average.getX(), 1.0e-12);
+      assertEquals(Double.POSITIVE_INFINITY, average.getY(), 0.0);
+      assertEquals(Double.NEGATIVE_INFINITY, average.getZ(), 0.0);
+
+      PointCloudAccumulator3D accumulator = new PointCloudAccumulator3D();
+      accumulator.add(points.get(0));
+      PointCloudAccumulator3D other = new PointCloudAccumulator3D();
+      other.add(points.get(1));
+      other.add(points.get(2));
+      accumulator.combine(other);
+      Point3D centroid = new Point3D();
+      accumulator.getCentroid(centroid);
+      assertTrue(centroid.epsilonEquals(average, 1.0e-12));
+   }
+}
@@ -0,0 +1,138 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.matrix.Matrix3D;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple3D.Point3D;
+
+public class PointCloudCovariance3DTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-9;
+
+   @Test
+   public void testAgainstTwoPassComputation()
+   {
+      Random random = new Random(7351L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfPoints = random.nextInt(200) + 1;
+         Point3D offset = EuclidCoreRandomTools.nextPoint3D(random, 1000.0);
+         Point3D[] points = new Point3D[numberOfPoints];
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            points[j] = EuclidCoreRandomTools.nextPoint3D(random, 1.0);
+            points[j].add(offset);
+         }
+
+         Point3D expectedMean = new Point3D();
+         for (Point3D point : points)
+            expectedMean.add(point);
+         expectedMean.scale(1.0 / numberOfPoints);
+
+         Matrix3D expectedCovariance = new Matrix3D();
+         for (Point3D point : points)
+         {
+            double[] deviation = {point.getX() - expectedMean.getX(), point.getY() - expectedMean.getY(), point.getZ() - expectedMean.getZ()};
+
+            for (int row = 0; row < 3; row++)
+            {
+               for (int column = 0; column < 3; column++)
+                  expectedCovariance.setElement(row, column, expectedCovariance.getElement(row, column) + deviation[row] * deviation[column] / numberOfPoints);
+            }
+         }
+
+         PointCloudCovariance3D covariance = new PointCloudCovariance3D();
+         covariance.addAll(Vertex3DSupplier.asVertex3DSupplier(points));
+         assertEquals(numberOfPoints, covariance.getNumberOfPoints());
+
+         Point3D actualMean = new Point3D();
+         covariance.getMean(actualMean);
+         assertEquals(0.0, actualMean.distance(expectedMean), EPSILON);
+         assertCovarianceEquals(expectedCovariance, covariance, EPSILON);
+      }
+   }
+
+   @Test
+   public void testCombineAndParallel()
+   {
+      Random random = new Random(4862L);
+
+      for (int i = 0; i < 10; i++)
+      {
+         int numberOfPoints = random.nextInt(50000) + 1;
+         double[] xs = new double[numberOfPoints];
+         double[] ys = new double[numberOfPoints];
+         double[] zs = new double[numberOfPoints];
+
+         for (int j = 0; j < numberOfPoints; j++)
+         {
+            xs[j] = EuclidCoreRandomTools.nextDouble(random, 10.0);
+            ys[j] = EuclidCoreRandomTools.nextDouble(random, 1.0);
+            zs[j] = EuclidCoreRandomTools.nextDouble(random, 0.1);
+         }
+
+         PointCloudCovariance3D sequential = new PointCloudCovariance3D();
+         sequential.addAll(xs, ys, zs, 0, numberOfPoints);
+         Matrix3D expectedCovariance = new Matrix3D();
+         sequential.getCovariance(expectedCovariance);
+
+         PointCloudCovariance3D parallel = new PointCloudCovariance3D();
+         parallel.addAllParallel(xs, ys, zs, 0, numberOfPoints);
+         assertEquals(numberOfPoints, parallel.getNumberOfPoints());
+         assertCovarianceEquals(expectedCovariance, parallel, EPSILON);
+
+         int split = random.nextInt(numberOfPoints + 1);
+         PointCloudCovariance3D first = new PointCloudCovariance3D();
+         first.addAll(xs, ys, zs, 0, split);
+         PointCloudCovariance3D second = new PointCloudCovariance3D();
+         second.addAll(xs, ys, zs, split, numberOfPoints);
+         first.combine(second);
+         assertEquals(numberOfPoints, first.getNumberOfPoints());
+         assertCovarianceEquals(expectedCovariance, first, EPSILON);
+      }
+   }
+
+   @Test
+   public void testEmpty()
+   {
+      PointCloudCovariance3D covariance = new PointCloudCovariance3D();
+      Point3D mean = new Point3D();
+      Matrix3D matrix = new Matrix3D();
+      covariance.getMean(mean);
+      covariance.getCovariance(matrix);
+      assertTrue(mean.containsNaN());
+      assertTrue(matrix.containsNaN());
+
+      covariance.add(1.0, 2.0, 3.0);
+      covariance.clear();
+      assertEquals(0, covariance.getNumberOfPoints());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testInvalidRange()
+   {
+      new PointCloudCovariance3D().addAll(new double[2], new double[2], new double[1], 0, 2);
+   }
+
+   private static void assertCovarianceEquals(Matrix3D expected, PointCloudCovariance3D covariance, double epsilon)
+   {
+      Matrix3D actual = new Matrix3D();
+      covariance.getCovariance(actual);
+
+      for (int row = 0; row < 3; row++)
+      {
+         for (int column = 0; column < 3; column++)
+            assertEquals(expected.getElement(row, column), actual.getElement(row, column), epsilon);
+      }
+   }
+}
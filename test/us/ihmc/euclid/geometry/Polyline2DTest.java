@@ -0,0 +1,227 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex2DSupplier;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreTestTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple2D.Point2D;
+import us.ihmc.euclid.tuple2D.Vector2D;
+
+public class Polyline2DTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testPointAtArcLength()
+   {
+      Random random = new Random(1297L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Point2D> vertices = nextVertices(random, 2 + random.nextInt(20));
+         Polyline2D polyline = new Polyline2D(random.nextInt(4));
+         polyline.set(Vertex2DSupplier.asVertex2DSupplier(vertices));
+         List<LineSegment2D> segments = toSegments(vertices);
+
+         double expectedLength = 0.0;
+         for (int j = 0; j < segments.size(); j++)
+         {
+            assertEquals(expectedLength, polyline.getArcLength(j), EPSILON);
+            expectedLength += segments.get(j).length();
+         }
+         assertEquals(expectedLength, polyline.getLength(), EPSILON);
+         assertEquals(segments.size(), polyline.getNumberOfSegments());
+
+         for (int j = 0; j < 10; j++)
+         {
+            double arcLength = EuclidCoreRandomTools.nextDouble(random, -0.1, 1.1) * polyline.getLength();
+            double clampedArcLength = Math.max(0.0, Math.min(polyline.getLength(), arcLength));
+
+            // Walk along the segments.
+            int expectedSegment = 0;
+            double remaining = clampedArcLength;
+            while (expectedSegment < segments.size() - 1 && remaining >= segments.get(expectedSegment).length())
+               remaining -= segments.get(expectedSegment++).length();
+            LineSegment2D segment = segments.get(expectedSegment);
+            Point2D expectedPoint = new Point2D(segment.getFirstEndpoint());
+            if (segment.length() > 0.0)
+               segment.pointBetweenEndpointsGivenPercentage(Math.min(1.0, remaining / segment.length()), expectedPoint);
+
+            Point2D actualPoint = new Point2D();
+            polyline.pointAtArcLength(arcLength, actualPoint);
+            EuclidCoreTestTools.assertTuple2DEquals(expectedPoint, actualPoint, 1.0e-10);
+
+            int actualSegment = polyline.getSegmentIndex(arcLength);
+            assertTrue(polyline.getArcLength(actualSegment) <= clampedArcLength + EPSILON);
+            assertTrue(clampedArcLength <= polyline.getArcLength(actualSegment + 1) + EPSILON);
+
+            Vector2D direction = new Vector2D();
+            polyline.directionAtArcLength(arcLength, direction);
+            LineSegment2D actualLineSegment = segments.get(actualSegment);
+            if (actualLineSegment.length() > 0.0)
+               EuclidCoreTestTools.assertTuple2DEquals(actualLineSegment.getDirection(true), direction, EPSILON);
+            else
+               EuclidCoreTestTools.assertTuple2DContainsOnlyNaN(direction);
+         }
+      }
+   }
+
+   @Test
+   public void testOrthogonalProjection()
+   {
+      Random random = new Random(8852L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Point2D> vertices = nextVertices(random, 2 + random.nextInt(20));
+         Polyline2D polyline = new Polyline2D();
+         for (Point2D vertex : vertices)
+            polyline.addVertex(vertex);
+         List<LineSegment2D> segments = toSegments(vertices);
+
+         Point2D query = EuclidCoreRandomTools.nextPoint2D(random, 5.0);
+         double expectedDistance = Double.POSITIVE_INFINITY;
+         for (LineSegment2D segment : segments)
+            expectedDistance = Math.min(expectedDistance, segment.distance(query));
+
+         Point2D projection = new Point2D();
+         double arcLength = polyline.orthogonalProjection(query, projection);
+         assertEquals(expectedDistance, projection.distance(query), EPSILON);
+         Point2D pointAtArcLength = new Point2D();
+         polyline.pointAtArcLength(arcLength, pointAtArcLength);
+         EuclidCoreTestTools.assertTuple2DEquals(projection, pointAtArcLength, 1.0e-10);
+
+         // A window covering the whole path gives the same result.
+         double windowedArcLength = polyline.orthogonalProjection(query, polyline.getLength() * random.nextDouble(), 2.0 * polyline.getLength(),
+                                                                  projection);
+         assertEquals(expectedDistance, projection.distance(query), EPSILON);
+         assertEquals(arcLength, windowedArcLength, EPSILON);
+
+         // A small window gives the closest point within the window.
+         double arcLengthGuess = polyline.getLength() * random.nextDouble();
+         double searchWindow = EuclidCoreRandomTools.nextDouble(random, 0.0, 2.0);
+         windowedArcLength = polyline.orthogonalProjection(query, arcLengthGuess, searchWindow, projection);
+         assertTrue(windowedArcLength >= arcLengthGuess - searchWindow - EPSILON);
+         assertTrue(windowedArcLength <= arcLengthGuess + searchWindow + EPSILON);
+         polyline.pointAtArcLength(windowedArcLength, pointAtArcLength);
+         EuclidCoreTestTools.assertTuple2DEquals(projection, pointAtArcLength, 1.0e-10);
+
+         for (int j = 0; j <= 100; j++)
+         {
+            double sampleArcLength = arcLengthGuess + searchWindow * (2.0 * j / 100.0 - 1.0);
+            polyline.pointAtArcLength(sampleArcLength, pointAtArcLength);
+            assertTrue(projection.distance(query) <= pointAtArcLength.distance(query) + EPSILON);
+         }
+      }
+   }
+
+   @Test
+   public void testEdgeCases()
+   {
+      Polyline2D polyline = new Polyline2D();
+      Point2D point = new Point2D();
+      Vector2D direction = new Vector2D();
+
+      assertEquals(0.0, polyline.getLength(), 0.0);
+      assertEquals(-1, polyline.getSegmentIndex(0.0));
+      polyline.pointAtArcLength(0.0, point);
+      EuclidCoreTestTools.assertTuple2DContainsOnlyNaN(point);
+      assertTrue(Double.isNaN(polyline.orthogonalProjection(new Point2D(), point)));
+      EuclidCoreTestTools.assertTuple2DContainsOnlyNaN(point);
+
+      Point2D vertex = new Point2D(1.0, 2.0);
+      polyline.addVertex(vertex);
+      assertEquals(0.0, polyline.getLength(), 0.0);
+      assertEquals(0, polyline.getNumberOfSegments());
+      polyline.pointAtArcLength(1.0, point);
+      EuclidCoreTestTools.assertTuple2DEquals(vertex, point, 0.0);
+      assertEquals(0.0, polyline.orthogonalProjection(new Point2D(), point), 0.0);
+      EuclidCoreTestTools.assertTuple2DEquals(vertex, point, 0.0);
+      polyline.directionAtArcLength(0.0, direction);
+      EuclidCoreTestTools.assertTuple2DContainsOnlyNaN(direction);
+
+      try
+      {
+         polyline.getVertex(1, point);
+         fail("Should have thrown an IndexOutOfBoundsException");
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         // good
+      }
+
+      polyline.clear();
+      assertEquals(0, polyline.getNumberOfVertices());
+   }
+
+   @Test
+   public void testApplyTransform()
+   {
+      Random random = new Random(5036L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Point2D> vertices = nextVertices(random, 1 + random.nextInt(20));
+         Polyline2D original = new Polyline2D();
+         original.set(Vertex2DSupplier.asVertex2DSupplier(vertices));
+         RigidBodyTransform transform = new RigidBodyTransform();
+         transform.setRotationYawAndZeroTranslation(EuclidCoreRandomTools.nextDouble(random, Math.PI));
+         transform.setTranslation(EuclidCoreRandomTools.nextDouble(random, 5.0), EuclidCoreRandomTools.nextDouble(random, 5.0), 0.0);
+
+         Polyline2D polyline = new Polyline2D(original);
+         polyline.applyTransform(transform);
+         assertEquals(original.getLength(), polyline.getLength(), 1.0e-10);
+
+         Point2D expected = new Point2D();
+         Point2D actual = new Point2D();
+         for (int j = 0; j < vertices.size(); j++)
+         {
+            expected.set(vertices.get(j));
+            expected.applyTransform(transform);
+            polyline.getVertex(j, actual);
+            EuclidCoreTestTools.assertTuple2DEquals(expected, actual, EPSILON);
+         }
+
+         polyline.applyInverseTransform(transform);
+         for (int j = 0; j < vertices.size(); j++)
+         {
+            polyline.getVertex(j, actual);
+            EuclidCoreTestTools.assertTuple2DEquals(vertices.get(j), actual, 1.0e-10);
+         }
+      }
+   }
+
+   private static List<Point2D> nextVertices(Random random, int numberOfVertices)
+   {
+      List<Point2D> vertices = new ArrayList<>();
+
+      for (int i = 0; i < numberOfVertices; i++)
+      {
+         if (i > 0 && random.nextInt(10) == 0)
+            vertices.add(new Point2D(vertices.get(i - 1))); // Zero-length segment.
+         else
+            vertices.add(EuclidCoreRandomTools.nextPoint2D(random, 5.0));
+      }
+
+      return vertices;
+   }
+
+   private static List<LineSegment2D> toSegments(List<Point2D> vertices)
+   {
+      List<LineSegment2D> segments = new ArrayList<>();
+      for (int i = 0; i < vertices.size() - 1; i++)
+         segments.add(new LineSegment2D(vertices.get(i), vertices.get(i + 1)));
+      return segments;
+   }
+}
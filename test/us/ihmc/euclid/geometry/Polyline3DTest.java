@@ -0,0 +1,224 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.interfaces.Vertex3DSupplier;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreTestTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.Vector3D;
+
+public class Polyline3DTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testPointAtArcLength()
+   {
+      Random random = new Random(4412L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Point3D> vertices = nextVertices(random, 2 + random.nextInt(20));
+         Polyline3D polyline = new Polyline3D(random.nextInt(4));
+         polyline.set(Vertex3DSupplier.asVertex3DSupplier(vertices));
+         List<LineSegment3D> segments = toSegments(vertices);
+
+         double expectedLength = 0.0;
+         for (int j = 0; j < segments.size(); j++)
+         {
+            assertEquals(expectedLength, polyline.getArcLength(j), EPSILON);
+            expectedLength += segments.get(j).length();
+         }
+         assertEquals(expectedLength, polyline.getLength(), EPSILON);
+         assertEquals(segments.size(), polyline.getNumberOfSegments());
+
+         for (int j = 0; j < 10; j++)
+         {
+            double arcLength = EuclidCoreRandomTools.nextDouble(random, -0.1, 1.1) * polyline.getLength();
+            double clampedArcLength = Math.max(0.0, Math.min(polyline.getLength(), arcLength));
+
+            // Walk along the segments.
+            int expectedSegment = 0;
+            double remaining = clampedArcLength;
+            while (expectedSegment < segments.size() - 1 && remaining >= segments.get(expectedSegment).length())
+               remaining -= segments.get(expectedSegment++).length();
+            LineSegment3D segment = segments.get(expectedSegment);
+            Point3D expectedPoint = new Point3D(segment.getFirstEndpoint());
+            if (segment.length() > 0.0)
+               segment.pointBetweenEndpointsGivenPercentage(Math.min(1.0, remaining / segment.length()), expectedPoint);
+
+            Point3D actualPoint = new Point3D();
+            polyline.pointAtArcLength(arcLength, actualPoint);
+            EuclidCoreTestTools.assertTuple3DEquals(expectedPoint, actualPoint, 1.0e-10);
+
+            int actualSegment = polyline.getSegmentIndex(arcLength);
+            assertTrue(polyline.getArcLength(actualSegment) <= clampedArcLength + EPSILON);
+            assertTrue(clampedArcLength <= polyline.getArcLength(actualSegment + 1) + EPSILON);
+
+            Vector3D direction = new Vector3D();
+            polyline.directionAtArcLength(arcLength, direction);
+            LineSegment3D actualLineSegment = segments.get(actualSegment);
+            if (actualLineSegment.length() > 0.0)
+               EuclidCoreTestTools.assertTuple3DEquals(actualLineSegment.getDirection(true), direction, EPSILON);
+            else
+               EuclidCoreTestTools.assertTuple3DContainsOnlyNaN(direction);
+         }
+      }
+   }
+
+   @Test
+   public void testOrthogonalProjection()
+   {
+      Random random = new Random(3401L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Point3D> vertices = nextVertices(random, 2 + random.nextInt(20));
+         Polyline3D polyline = new Polyline3D();
+         for (Point3D vertex : vertices)
+            polyline.addVertex(vertex);
+         List<LineSegment3D> segments = toSegments(vertices);
+
+         Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 5.0);
+         double expectedDistance = Double.POSITIVE_INFINITY;
+         for (LineSegment3D segment : segments)
+            expectedDistance = Math.min(expectedDistance, segment.distance(query));
+
+         Point3D projection = new Point3D();
+         double arcLength = polyline.orthogonalProjection(query, projection);
+         assertEquals(expectedDistance, projection.distance(query), EPSILON);
+         Point3D pointAtArcLength = new Point3D();
+         polyline.pointAtArcLength(arcLength, pointAtArcLength);
+         EuclidCoreTestTools.assertTuple3DEquals(projection, pointAtArcLength, 1.0e-10);
+
+         // A window covering the whole path gives the same result.
+         double windowedArcLength = polyline.orthogonalProjection(query, polyline.getLength() * random.nextDouble(), 2.0 * polyline.getLength(),
+                                                                  projection);
+         assertEquals(expectedDistance, projection.distance(query), EPSILON);
+         assertEquals(arcLength, windowedArcLength, EPSILON);
+
+         // A small window gives the closest point within the window.
+         double arcLengthGuess = polyline.getLength() * random.nextDouble();
+         double searchWindow = EuclidCoreRandomTools.nextDouble(random, 0.0, 2.0);
+         windowedArcLength = polyline.orthogonalProjection(query, arcLengthGuess, searchWindow, projection);
+         assertTrue(windowedArcLength >= arcLengthGuess - searchWindow - EPSILON);
+         assertTrue(windowedArcLength <= arcLengthGuess + searchWindow + EPSILON);
+         polyline.pointAtArcLength(windowedArcLength, pointAtArcLength);
+         EuclidCoreTestTools.assertTuple3DEquals(projection, pointAtArcLength, 1.0e-10);
+
+         for (int j = 0; j <= 100; j++)
+         {
+            double sampleArcLength = arcLengthGuess + searchWindow * (2.0 * j / 100.0 - 1.0);
+            polyline.pointAtArcLength(sampleArcLength, pointAtArcLength);
+            assertTrue(projection.distance(query) <= pointAtArcLength.distance(query) + EPSILON);
+         }
+      }
+   }
+
+   @Test
+   public void testEdgeCases()
+   {
+      Polyline3D polyline = new Polyline3D();
+      Point3D point = new Point3D();
+      Vector3D direction = new Vector3D();
+
+      assertEquals(0.0, polyline.getLength(), 0.0);
+      assertEquals(-1, polyline.getSegmentIndex(0.0));
+      polyline.pointAtArcLength(0.0, point);
+      EuclidCoreTestTools.assertTuple3DContainsOnlyNaN(point);
+      assertTrue(Double.isNaN(polyline.orthogonalProjection(new Point3D(), point)));
+      EuclidCoreTestTools.assertTuple3DContainsOnlyNaN(point);
+
+      Point3D vertex = new Point3D(1.0, 2.0, 3.0);
+      polyline.addVertex(vertex);
+      assertEquals(0.0, polyline.getLength(), 0.0);
+      assertEquals(0, polyline.getNumberOfSegments());
+      polyline.pointAtArcLength(1.0, point);
+      EuclidCoreTestTools.assertTuple3DEquals(vertex, point, 0.0);
+      assertEquals(0.0, polyline.orthogonalProjection(new Point3D(), point), 0.0);
+      EuclidCoreTestTools.assertTuple3DEquals(vertex, point, 0.0);
+      polyline.directionAtArcLength(0.0, direction);
+      EuclidCoreTestTools.assertTuple3DContainsOnlyNaN(direction);
+
+      try
+      {
+         polyline.getVertex(1, point);
+         fail("Should have thrown an IndexOutOfBoundsException");
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         // good
+      }
+
+      polyline.clear();
+      assertEquals(0, polyline.getNumberOfVertices());
+   }
+
+   @Test
+   public void testApplyTransform()
+   {
+      Random random = new Random(6672L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Point3D> vertices = nextVertices(random, 1 + random.nextInt(20));
+         Polyline3D original = new Polyline3D();
+         original.set(Vertex3DSupplier.asVertex3DSupplier(vertices));
+         RigidBodyTransform transform = EuclidCoreRandomTools.nextRigidBodyTransform(random);
+
+         Polyline3D polyline = new Polyline3D(original);
+         polyline.applyTransform(transform);
+         assertEquals(original.getLength(), polyline.getLength(), 1.0e-10);
+
+         Point3D expected = new Point3D();
+         Point3D actual = new Point3D();
+         for (int j = 0; j < vertices.size(); j++)
+         {
+            transform.transform(vertices.get(j), expected);
+            polyline.getVertex(j, actual);
+            EuclidCoreTestTools.assertTuple3DEquals(expected, actual, EPSILON);
+         }
+
+         polyline.applyInverseTransform(transform);
+         for (int j = 0; j < vertices.size(); j++)
+         {
+            polyline.getVertex(j, actual);
+            EuclidCoreTestTools.assertTuple3DEquals(vertices.get(j), actual, 1.0e-10);
+         }
+      }
+   }
+
+   private static List<Point3D> nextVertices(Random random, int numberOfVertices)
+   {
+      List<Point3D> vertices = new ArrayList<>();
+
+      for (int i = 0; i < numberOfVertices; i++)
+      {
+         if (i > 0 && random.nextInt(10) == 0)
+            vertices.add(new Point3D(vertices.get(i - 1))); // Zero-length segment.
+         else
+            vertices.add(EuclidCoreRandomTools.nextPoint3D(random, 5.0));
+      }
+
+      return vertices;
+   }
+
+   private static List<LineSegment3D> toSegments(List<Point3D> vertices)
+   {
+      List<LineSegment3D> segments = new ArrayList<>();
+      for (int i = 0; i < vertices.size() - 1; i++)
+         segments.add(new LineSegment3D(vertices.get(i), vertices.get(i + 1)));
+      return segments;
+   }
+}
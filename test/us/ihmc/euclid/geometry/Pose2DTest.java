@@ -345,4 +345,92 @@ public class Pose2DTest
          assertFalse(firstPose.epsilonEquals(secondPose, epsilon));
       }
    }
+
+   @Test
+   public void testAppendTranslation()
+   {
+      Random random = new Random(3468L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Pose2D pose = EuclidGeometryRandomTools.nextPose2D(random);
+         Vector2D translation = EuclidCoreRandomTools.nextVector2D(random, -5.0, 5.0);
+
+         Point2D expected = new Point2D(translation);
+         pose.getOrientation().transform(expected);
+         expected.add(pose.getPosition());
+
+         pose.appendTranslation(translation);
+
+         assertEquals(expected.getX(), pose.getX(), epsilon);
+         assertEquals(expected.getY(), pose.getY(), epsilon);
+      }
+   }
+
+   @Test
+   public void testBatchTransform()
+   {
+      Random random = new Random(8723L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Pose2D transform = EuclidGeometryRandomTools.nextPose2D(random);
+         int numberOfPoses = random.nextInt(20);
+         int startIndex = random.nextInt(numberOfPoses + 1);
+         int endIndex = startIndex + random.nextInt(numberOfPoses - startIndex + 1);
+
+         double[] xs = new double[numberOfPoses];
+         double[] ys = new double[numberOfPoses];
+         double[] yaws = new double[numberOfPoses];
+         Pose2D[] poses = new Pose2D[numberOfPoses];
+
+         for (int j = 0; j < numberOfPoses; j++)
+         {
+            poses[j] = EuclidGeometryRandomTools.nextPose2D(random);
+            xs[j] = poses[j].getX();
+            ys[j] = poses[j].getY();
+            yaws[j] = poses[j].getYaw();
+         }
+
+         transform.transform(xs, ys, startIndex, endIndex);
+
+         for (int j = 0; j < numberOfPoses; j++)
+         {
+            Point2D expected = new Point2D(poses[j].getPosition());
+            if (j >= startIndex && j < endIndex)
+            {
+               transform.getOrientation().transform(expected);
+               expected.add(transform.getPosition());
+            }
+            assertEquals(expected.getX(), xs[j], epsilon);
+            assertEquals(expected.getY(), ys[j], epsilon);
+         }
+
+         transform.inverseTransform(xs, ys, startIndex, endIndex);
+
+         for (int j = 0; j < numberOfPoses; j++)
+         {
+            assertEquals(poses[j].getX(), xs[j], epsilon);
+            assertEquals(poses[j].getY(), ys[j], epsilon);
+         }
+
+         transform.transform(xs, ys, yaws, startIndex, endIndex);
+
+         for (int j = 0; j < numberOfPoses; j++)
+         {
+            Pose2D expected = new Pose2D(poses[j]);
+            if (j >= startIndex && j < endIndex)
+            {
+               expected.prependRotation(transform.getYaw());
+               expected.prependTranslation(transform.getX(), transform.getY());
+            }
+            assertTrue(expected.epsilonEquals(new Pose2D(xs[j], ys[j], yaws[j]), epsilon));
+         }
+
+         transform.inverseTransform(xs, ys, yaws, startIndex, endIndex);
+
+         for (int j = 0; j < numberOfPoses; j++)
+            assertTrue(poses[j].epsilonEquals(new Pose2D(xs[j], ys[j], yaws[j]), epsilon));
+      }
+   }
 }
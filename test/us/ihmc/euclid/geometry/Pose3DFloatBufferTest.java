@@ -0,0 +1,140 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+
+public class Pose3DFloatBufferTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-5;
+
+   @Test
+   public void testRoundTrip()
+   {
+      Random random = new Random(43217L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Pose3D> poses = nextPoses(random, random.nextInt(100));
+         Pose3DFloatBuffer buffer = new Pose3DFloatBuffer(random.nextInt(4));
+         for (Pose3D pose : poses)
+            buffer.add(pose);
+         assertEquals(poses.size(), buffer.size());
+
+         Pose3D actual = new Pose3D();
+         for (int j = 0; j < poses.size(); j++)
+         {
+            buffer.get(j, actual);
+            assertTrue(poses.get(j).epsilonEquals(actual, EPSILON));
+            assertEquals(1.0, actual.getOrientation().norm(), 1.0e-12);
+         }
+
+         int n = poses.size();
+         double[] xs = new double[n], ys = new double[n], zs = new double[n];
+         buffer.getPositions(xs, ys, zs, 0, n);
+         for (int j = 0; j < n; j++)
+         {
+            assertEquals((float) poses.get(j).getX(), xs[j], 0.0);
+            assertEquals((float) poses.get(j).getY(), ys[j], 0.0);
+            assertEquals((float) poses.get(j).getZ(), zs[j], 0.0);
+         }
+
+         Pose3DFloatBuffer copy = new Pose3DFloatBuffer(buffer);
+         assertEquals(n, copy.size());
+
+         if (n > 0)
+         {
+            int index = random.nextInt(n);
+            Pose3D pose = EuclidGeometryRandomTools.nextPose3D(random);
+            copy.set(index, pose);
+            copy.get(index, actual);
+            assertTrue(pose.epsilonEquals(actual, EPSILON));
+            buffer.get(index, actual);
+            assertTrue(poses.get(index).epsilonEquals(actual, EPSILON));
+         }
+      }
+   }
+
+   @Test
+   public void testApplyTransform()
+   {
+      Random random = new Random(9031L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         List<Pose3D> poses = nextPoses(random, random.nextInt(50));
+         Pose3DFloatBuffer buffer = new Pose3DFloatBuffer();
+         for (Pose3D pose : poses)
+            buffer.add(pose);
+         RigidBodyTransform transform = EuclidCoreRandomTools.nextRigidBodyTransform(random);
+
+         buffer.applyTransform(transform);
+
+         Pose3D actual = new Pose3D();
+         for (int j = 0; j < poses.size(); j++)
+         {
+            Pose3D expected = new Pose3D(poses.get(j));
+            expected.applyTransform(transform);
+            buffer.get(j, actual);
+            assertTrue(expected.epsilonEquals(actual, EPSILON));
+         }
+
+         buffer.applyInverseTransform(transform);
+
+         for (int j = 0; j < poses.size(); j++)
+         {
+            buffer.get(j, actual);
+            assertTrue(poses.get(j).epsilonEquals(actual, EPSILON));
+         }
+      }
+   }
+
+   @Test
+   public void testExceptions()
+   {
+      Pose3DFloatBuffer buffer = new Pose3DFloatBuffer();
+      buffer.add(new Pose3D());
+
+      try
+      {
+         buffer.get(1, new Pose3D());
+         fail("Should have thrown an IndexOutOfBoundsException");
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         // good
+      }
+
+      try
+      {
+         buffer.getPositions(new double[1], new double[0], new double[1], 0, 1);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      buffer.clear();
+      assertTrue(buffer.isEmpty());
+   }
+
+   private static List<Pose3D> nextPoses(Random random, int numberOfPoses)
+   {
+      List<Pose3D> poses = new ArrayList<>();
+      for (int i = 0; i < numberOfPoses; i++)
+         poses.add(EuclidGeometryRandomTools.nextPose3D(random));
+      return poses;
+   }
+}
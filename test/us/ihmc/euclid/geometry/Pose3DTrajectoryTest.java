@@ -0,0 +1,229 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryRandomTools;
+import us.ihmc.euclid.geometry.tools.EuclidGeometryTestTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+
+public class Pose3DTrajectoryTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-10;
+
+   @Test
+   public void testInterpolateBetweenTwoPoses()
+   {
+      Random random = new Random(76201L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Pose3D start = EuclidGeometryRandomTools.nextPose3D(random);
+         Pose3D end = random.nextBoolean() ? EuclidGeometryRandomTools.nextPose3D(random) : new Pose3D(start);
+         Pose3DTrajectory trajectory = new Pose3DTrajectory();
+         trajectory.set(start, end);
+
+         int numberOfSamples = 20;
+         double[] alphas = new double[numberOfSamples];
+         for (int j = 0; j < numberOfSamples; j++)
+            alphas[j] = random.nextDouble();
+
+         Pose3D[] samples = sampleAll(trajectory, alphas);
+
+         for (int j = 0; j < numberOfSamples; j++)
+         {
+            Pose3D expected = new Pose3D();
+            expected.interpolate(start, end, alphas[j]);
+
+            Pose3D actual = new Pose3D();
+            trajectory.sample(alphas[j], actual);
+            EuclidGeometryTestTools.assertPose3DGeometricallyEquals(expected, actual, EPSILON);
+            EuclidGeometryTestTools.assertPose3DEquals(actual, samples[j], 0.0);
+         }
+
+         Pose3D actual = new Pose3D();
+         trajectory.sample(0.0, actual);
+         EuclidGeometryTestTools.assertPose3DGeometricallyEquals(start, actual, EPSILON);
+         trajectory.sample(1.0, actual);
+         EuclidGeometryTestTools.assertPose3DGeometricallyEquals(end, actual, EPSILON);
+      }
+   }
+
+   @Test
+   public void testSampleMultipleWaypoints()
+   {
+      Random random = new Random(8843L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfWaypoints = 2 + random.nextInt(20);
+         List<Pose3D> waypoints = new ArrayList<>();
+         double[] waypointTimes = new double[numberOfWaypoints];
+         Pose3DTrajectory trajectory = new Pose3DTrajectory(random.nextInt(4));
+
+         double time = EuclidCoreRandomTools.nextDouble(random, 10.0);
+
+         for (int j = 0; j < numberOfWaypoints; j++)
+         {
+            waypoints.add(EuclidGeometryRandomTools.nextPose3D(random));
+            waypointTimes[j] = time;
+            trajectory.addWaypoint(time, waypoints.get(j));
+            time += EuclidCoreRandomTools.nextDouble(random, 0.001, 1.0);
+         }
+
+         assertEquals(numberOfWaypoints, trajectory.getNumberOfWaypoints());
+         assertEquals(numberOfWaypoints - 1, trajectory.getNumberOfSegments());
+
+         int numberOfSamples = 50;
+         double[] times = new double[numberOfSamples];
+         double startTime = waypointTimes[0];
+         double endTime = waypointTimes[numberOfWaypoints - 1];
+
+         for (int j = 0; j < numberOfSamples; j++)
+         {
+            if (random.nextInt(10) == 0)
+               times[j] = waypointTimes[random.nextInt(numberOfWaypoints)];
+            else
+               times[j] = EuclidCoreRandomTools.nextDouble(random, startTime - 1.0, endTime + 1.0);
+         }
+
+         if (random.nextBoolean())
+            java.util.Arrays.sort(times);
+
+         Pose3D[] samples = sampleAll(trajectory, times);
+
+         for (int j = 0; j < numberOfSamples; j++)
+         {
+            // Walk along the segments.
+            double clampedTime = Math.max(startTime, Math.min(endTime, times[j]));
+            int segment = 0;
+            while (segment < numberOfWaypoints - 2 && waypointTimes[segment + 1] <= clampedTime)
+               segment++;
+            assertEquals(segment, trajectory.getSegmentIndex(times[j]));
+
+            double alpha = (clampedTime - waypointTimes[segment]) / (waypointTimes[segment + 1] - waypointTimes[segment]);
+            Pose3D expected = new Pose3D();
+            expected.interpolate(waypoints.get(segment), waypoints.get(segment + 1), alpha);
+
+            Pose3D actual = new Pose3D();
+            trajectory.sample(times[j], actual);
+            EuclidGeometryTestTools.assertPose3DGeometricallyEquals(expected, actual, EPSILON);
+            EuclidGeometryTestTools.assertPose3DEquals(actual, samples[j], 0.0);
+         }
+      }
+   }
+
+   @Test
+   public void testEdgeCases()
+   {
+      Random random = new Random(4410L);
+      Pose3DTrajectory trajectory = new Pose3DTrajectory();
+      Pose3D actual = new Pose3D();
+
+      trajectory.sample(0.0, actual);
+      assertTrue(actual.containsNaN());
+      assertEquals(-1, trajectory.getSegmentIndex(0.0));
+
+      double[] times = {-1.0, 0.0, 1.0};
+      Pose3D[] samples = sampleAll(trajectory, times);
+      for (Pose3D sample : samples)
+         assertTrue(sample.containsNaN());
+
+      Pose3D waypoint = EuclidGeometryRandomTools.nextPose3D(random);
+      trajectory.addWaypoint(1.0, waypoint);
+      trajectory.sample(-5.0, actual);
+      EuclidGeometryTestTools.assertPose3DEquals(waypoint, actual, EPSILON);
+      samples = sampleAll(trajectory, times);
+      for (Pose3D sample : samples)
+         EuclidGeometryTestTools.assertPose3DEquals(waypoint, sample, EPSILON);
+
+      try
+      {
+         trajectory.addWaypoint(1.0, waypoint);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         trajectory.addWaypoint(Double.NaN, waypoint);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         trajectory.getTime(1);
+         fail("Should have thrown an IndexOutOfBoundsException");
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         // good
+      }
+   }
+
+   @Test
+   public void testApplyTransform()
+   {
+      Random random = new Random(2287L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Pose3DTrajectory trajectory = new Pose3DTrajectory();
+         for (int j = 0; j < 5; j++)
+            trajectory.addWaypoint(j, EuclidGeometryRandomTools.nextPose3D(random));
+
+         RigidBodyTransform transform = EuclidCoreRandomTools.nextRigidBodyTransform(random);
+         double time = EuclidCoreRandomTools.nextDouble(random, 0.0, 4.0);
+
+         Pose3D expected = new Pose3D();
+         trajectory.sample(time, expected);
+         expected.applyTransform(transform);
+
+         Pose3DTrajectory transformed = new Pose3DTrajectory(trajectory);
+         transformed.applyTransform(transform);
+         Pose3D actual = new Pose3D();
+         transformed.sample(time, actual);
+         EuclidGeometryTestTools.assertPose3DGeometricallyEquals(expected, actual, EPSILON);
+
+         transformed.applyInverseTransform(transform);
+         trajectory.sample(time, expected);
+         transformed.sample(time, actual);
+         EuclidGeometryTestTools.assertPose3DGeometricallyEquals(expected, actual, EPSILON);
+      }
+   }
+
+   private static Pose3D[] sampleAll(Pose3DTrajectory trajectory, double[] times)
+   {
+      int n = times.length;
+      double[] xs = new double[n], ys = new double[n], zs = new double[n];
+      double[] qxs = new double[n], qys = new double[n], qzs = new double[n], qss = new double[n];
+      trajectory.sample(times, xs, ys, zs, qxs, qys, qzs, qss, 0, n);
+
+      Pose3D[] samples = new Pose3D[n];
+
+      for (int i = 0; i < n; i++)
+      {
+         samples[i] = new Pose3D();
+         samples[i].setPosition(xs[i], ys[i], zs[i]);
+         samples[i].setOrientation(qxs[i], qys[i], qzs[i], qss[i]);
+      }
+
+      return samples;
+   }
+}
@@ -0,0 +1,181 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreTestTools;
+import us.ihmc.euclid.tuple3D.Vector3D;
+import us.ihmc.euclid.tuple4D.Quaternion;
+
+public class QuaternionAverageCalculatorTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-10;
+
+   @Test
+   public void testAverageOfTwoQuaternions()
+   {
+      Random random = new Random(5531L);
+      QuaternionAverageCalculator calculator = new QuaternionAverageCalculator();
+      Quaternion actual = new Quaternion();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Quaternion q1 = EuclidCoreRandomTools.nextQuaternion(random);
+         Quaternion q2 = EuclidCoreRandomTools.nextQuaternion(random);
+
+         if (Math.abs(q1.dot(q2)) < 1.0e-3)
+            continue; // The average of opposite orientations is not unique.
+
+         calculator.clear();
+         calculator.add(q1);
+         assertEquals(1, calculator.getNumberOfQuaternions());
+         calculator.getAverage(actual);
+         EuclidCoreTestTools.assertQuaternionEquals(q1, actual, EPSILON);
+
+         // The average of two orientations with equal weights is halfway between them.
+         calculator.add(q2);
+         Quaternion expected = new Quaternion();
+         expected.interpolate(q1, q2, 0.5);
+         calculator.getAverage(actual);
+         EuclidCoreTestTools.assertQuaternionGeometricallyEquals(expected, actual, EPSILON);
+         // Same hemisphere as the first quaternion.
+         assertTrue(q1.dot(actual) >= 0.0);
+      }
+   }
+
+   @Test
+   public void testAverageOfPerturbedQuaternions()
+   {
+      Random random = new Random(90341L);
+      QuaternionAverageCalculator calculator = new QuaternionAverageCalculator();
+      QuaternionAverageCalculator flippedCalculator = new QuaternionAverageCalculator();
+      Quaternion actual = new Quaternion();
+      Quaternion flippedActual = new Quaternion();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Quaternion mean = EuclidCoreRandomTools.nextQuaternion(random);
+         Vector3D axis = EuclidCoreRandomTools.nextVector3DWithFixedLength(random, 1.0);
+         double angle = EuclidCoreRandomTools.nextDouble(random, 0.5);
+
+         calculator.clear();
+         flippedCalculator.clear();
+
+         // Pairs of rotations symmetric about the mean such that the average is exactly the mean.
+         for (int j = 0; j < 1 + random.nextInt(20); j++)
+         {
+            double weight = EuclidCoreRandomTools.nextDouble(random, 0.1, 2.0);
+            double pairAngle = random.nextDouble() * angle;
+
+            for (int sign = -1; sign <= 1; sign += 2)
+            {
+               Quaternion sample = new Quaternion(mean);
+               Quaternion offset = new Quaternion();
+               Vector3D rotationVector = new Vector3D(axis);
+               rotationVector.scale(sign * pairAngle);
+               offset.setRotationVector(rotationVector);
+               sample.multiply(offset);
+               calculator.add(sample, weight);
+
+               // The sign of the quaternions does not affect the average.
+               if (random.nextBoolean())
+                  sample.negate();
+               double scale = EuclidCoreRandomTools.nextDouble(random, 0.5, 2.0);
+               flippedCalculator.add(scale * sample.getX(), scale * sample.getY(), scale * sample.getZ(), scale * sample.getS(), weight);
+            }
+         }
+
+         calculator.getAverage(actual);
+         flippedCalculator.getAverage(flippedActual);
+         EuclidCoreTestTools.assertQuaternionGeometricallyEquals(mean, actual, EPSILON);
+         EuclidCoreTestTools.assertQuaternionGeometricallyEquals(mean, flippedActual, EPSILON);
+         assertEquals(calculator.getTotalWeight(), flippedCalculator.getTotalWeight(), EPSILON);
+      }
+   }
+
+   @Test
+   public void testAddAllAndCombine()
+   {
+      Random random = new Random(1187L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfQuaternions = 1 + random.nextInt(50);
+         double[] qxs = new double[numberOfQuaternions];
+         double[] qys = new double[numberOfQuaternions];
+         double[] qzs = new double[numberOfQuaternions];
+         double[] qss = new double[numberOfQuaternions];
+         QuaternionAverageCalculator expectedCalculator = new QuaternionAverageCalculator();
+         Quaternion mean = EuclidCoreRandomTools.nextQuaternion(random);
+
+         for (int j = 0; j < numberOfQuaternions; j++)
+         {
+            Quaternion quaternion = new Quaternion(mean);
+            quaternion.multiply(EuclidCoreRandomTools.nextQuaternion(random, 0.5));
+            qxs[j] = quaternion.getX();
+            qys[j] = quaternion.getY();
+            qzs[j] = quaternion.getZ();
+            qss[j] = quaternion.getS();
+            expectedCalculator.add(quaternion);
+         }
+
+         int split = random.nextInt(numberOfQuaternions + 1);
+         QuaternionAverageCalculator first = new QuaternionAverageCalculator();
+         QuaternionAverageCalculator second = new QuaternionAverageCalculator();
+         first.addAll(qxs, qys, qzs, qss, 0, split);
+         second.addAll(qxs, qys, qzs, qss, split, numberOfQuaternions);
+         first.combine(second);
+         assertEquals(numberOfQuaternions, first.getNumberOfQuaternions());
+
+         Quaternion expected = new Quaternion();
+         Quaternion actual = new Quaternion();
+         expectedCalculator.getAverage(expected);
+         first.getAverage(actual);
+         EuclidCoreTestTools.assertQuaternionEquals(expected, actual, EPSILON);
+      }
+   }
+
+   @Test
+   public void testEdgeCases()
+   {
+      QuaternionAverageCalculator calculator = new QuaternionAverageCalculator();
+      Quaternion actual = new Quaternion();
+
+      calculator.getAverage(actual);
+      assertTrue(actual.containsNaN());
+
+      calculator.add(0.0, 0.0, 0.0, 0.0, 1.0);
+      assertEquals(0, calculator.getNumberOfQuaternions());
+
+      calculator.add(new Quaternion(), 0.0);
+      calculator.getAverage(actual);
+      assertTrue(actual.containsNaN());
+
+      try
+      {
+         calculator.add(new Quaternion(), -1.0);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         calculator.addAll(new double[2], new double[2], new double[1], new double[2], 0, 2);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+}
@@ -0,0 +1,276 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple2D.Point2D;
+import us.ihmc.euclid.tuple2D.Vector2D;
+
+public class RTree2DTest
+{
+   private static final int ITERATIONS = 50;
+
+   @Test
+   public void testBulkLoadedQueriesAgainstLinearScan()
+   {
+      Random random = new Random(3641L);
+      RTree2D rTree = new RTree2D();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfBoxes = i == 0 ? 0 : random.nextInt(2000);
+         List<BoundingBox2D> boundingBoxes = new ArrayList<>();
+         double[] packedBounds = new double[4 * numberOfBoxes];
+
+         for (int j = 0; j < numberOfBoxes; j++)
+         {
+            BoundingBox2D boundingBox = EuclidGeometryRandomTools.nextBoundingBox2D(random, 50.0, 5.0);
+            boundingBoxes.add(boundingBox);
+            packedBounds[4 * j] = boundingBox.getMinX();
+            packedBounds[4 * j + 1] = boundingBox.getMinY();
+            packedBounds[4 * j + 2] = boundingBox.getMaxX();
+            packedBounds[4 * j + 3] = boundingBox.getMaxY();
+         }
+
+         switch (i % 4)
+         {
+            case 0:
+               rTree.build(boundingBoxes);
+               break;
+            case 1:
+               rTree.build(packedBounds, numberOfBoxes);
+               break;
+            case 2:
+               rTree.buildParallel(boundingBoxes);
+               break;
+            default:
+               rTree.buildParallel(packedBounds, numberOfBoxes);
+               break;
+         }
+
+         List<Integer> ids = new ArrayList<>();
+         for (int j = 0; j < numberOfBoxes; j++)
+            ids.add(j);
+
+         assertQueriesMatchLinearScan(random, rTree, boundingBoxes, ids);
+      }
+   }
+
+   @Test
+   public void testParallelBuild()
+   {
+      Random random = new Random(9345L);
+      int numberOfBoxes = 50000;
+      double[] packedBounds = new double[4 * numberOfBoxes];
+      List<BoundingBox2D> boundingBoxes = new ArrayList<>();
+
+      for (int i = 0; i < numberOfBoxes; i++)
+      {
+         BoundingBox2D boundingBox = EuclidGeometryRandomTools.nextBoundingBox2D(random, 500.0, 2.0);
+         boundingBoxes.add(boundingBox);
+         packedBounds[4 * i] = boundingBox.getMinX();
+         packedBounds[4 * i + 1] = boundingBox.getMinY();
+         packedBounds[4 * i + 2] = boundingBox.getMaxX();
+         packedBounds[4 * i + 3] = boundingBox.getMaxY();
+      }
+
+      RTree2D rTree = new RTree2D();
+      rTree.buildParallel(packedBounds, numberOfBoxes);
+      assertEquals(numberOfBoxes, rTree.size());
+
+      List<Integer> ids = new ArrayList<>();
+      for (int j = 0; j < numberOfBoxes; j++)
+         ids.add(j);
+
+      assertQueriesMatchLinearScan(random, rTree, boundingBoxes, ids);
+   }
+
+   @Test
+   public void testDynamicQueriesAgainstLinearScan()
+   {
+      Random random = new Random(2310L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         RTree2D rTree = new RTree2D();
+         List<BoundingBox2D> boundingBoxes = new ArrayList<>();
+         List<Integer> ids = new ArrayList<>();
+
+         if (random.nextBoolean())
+         {
+            // Start from a bulk loaded tree.
+            for (int j = 0; j < random.nextInt(500); j++)
+            {
+               boundingBoxes.add(EuclidGeometryRandomTools.nextBoundingBox2D(random, 50.0, 5.0));
+               ids.add(j);
+            }
+            rTree.build(boundingBoxes);
+         }
+
+         for (int j = 0; j < 1000; j++)
+         {
+            if (!ids.isEmpty() && random.nextInt(3) == 0)
+            {
+               int index = random.nextInt(ids.size());
+               assertTrue(rTree.remove(ids.get(index)));
+               assertFalse(rTree.contains(ids.get(index)));
+               assertFalse(rTree.remove(ids.get(index)));
+               ids.remove(index);
+               boundingBoxes.remove(index);
+            }
+            else
+            {
+               BoundingBox2D boundingBox = EuclidGeometryRandomTools.nextBoundingBox2D(random, 50.0, 5.0);
+               int id = rTree.add(boundingBox);
+               assertFalse(ids.contains(id));
+               ids.add(id);
+               boundingBoxes.add(boundingBox);
+            }
+
+            if (j % 100 == 0)
+               assertQueriesMatchLinearScan(random, rTree, boundingBoxes, ids);
+         }
+
+         assertQueriesMatchLinearScan(random, rTree, boundingBoxes, ids);
+
+         while (!ids.isEmpty())
+         {
+            int index = random.nextInt(ids.size());
+            assertTrue(rTree.remove(ids.get(index)));
+            ids.remove(index);
+            boundingBoxes.remove(index);
+
+            if (ids.size() % 50 == 0)
+               assertQueriesMatchLinearScan(random, rTree, boundingBoxes, ids);
+         }
+
+         assertTrue(rTree.isEmpty());
+      }
+   }
+
+   @Test
+   public void testEarlyTermination()
+   {
+      Random random = new Random(5721L);
+      RTree2D rTree = new RTree2D();
+      for (int i = 0; i < 500; i++)
+         rTree.add(-1.0, -1.0, 1.0, 1.0);
+      rTree.add(EuclidGeometryRandomTools.nextBoundingBox2D(random, 10.0, 1.0));
+
+      int[] numberOfVisits = new int[1];
+      rTree.findContaining(0.0, 0.0, id ->
+      {
+         numberOfVisits[0]++;
+         return numberOfVisits[0] < 3;
+      });
+      assertEquals(3, numberOfVisits[0]);
+   }
+
+   @Test
+   public void testInvalidArguments()
+   {
+      RTree2D rTree = new RTree2D();
+      assertFalse(rTree.remove(0));
+      assertFalse(rTree.remove(-1));
+
+      try
+      {
+         rTree.getBoundingBox(0, new BoundingBox2D());
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         rTree.add(1.0, 0.0, 0.0, 1.0);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         rTree.build(new double[4], 2);
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+
+   private static void assertQueriesMatchLinearScan(Random random, RTree2D rTree, List<BoundingBox2D> boundingBoxes, List<Integer> ids)
+   {
+      assertEquals(ids.size(), rTree.size());
+      BoundingBox2D boundingBox = new BoundingBox2D();
+      for (int i = 0; i < ids.size(); i++)
+      {
+         rTree.getBoundingBox(ids.get(i), boundingBox);
+         assertTrue(boundingBox.epsilonEquals(boundingBoxes.get(i), 0.0));
+      }
+
+      List<Integer> expected = new ArrayList<>();
+      List<Integer> actual = new ArrayList<>();
+
+      for (int i = 0; i < 10; i++)
+      {
+         Point2D point = EuclidCoreRandomTools.nextPoint2D(random, 60.0);
+         expected.clear();
+         for (int j = 0; j < boundingBoxes.size(); j++)
+         {
+            if (boundingBoxes.get(j).isInsideInclusive(point))
+               expected.add(ids.get(j));
+         }
+         actual.clear();
+         rTree.findContaining(point, id -> actual.add(id));
+         assertSameIds(expected, actual);
+
+         BoundingBox2D query = EuclidGeometryRandomTools.nextBoundingBox2D(random, 60.0, 10.0);
+         expected.clear();
+         for (int j = 0; j < boundingBoxes.size(); j++)
+         {
+            if (boundingBoxes.get(j).intersectsInclusive(query))
+               expected.add(ids.get(j));
+         }
+         actual.clear();
+         rTree.findIntersecting(query, id -> actual.add(id));
+         assertSameIds(expected, actual);
+
+         Vector2D rayDirection = EuclidCoreRandomTools.nextVector2DWithFixedLength(random, 1.0);
+         if (i == 0)
+            rayDirection.set(0.0, 1.0);
+         expected.clear();
+         for (int j = 0; j < boundingBoxes.size(); j++)
+         {
+            if (boundingBoxes.get(j).doesIntersectWithRay2D(point, rayDirection))
+               expected.add(ids.get(j));
+         }
+         actual.clear();
+         rTree.findIntersectingRay(point, rayDirection, id -> actual.add(id));
+         assertSameIds(expected, actual);
+      }
+   }
+
+   private static void assertSameIds(List<Integer> expected, List<Integer> actual)
+   {
+      Collections.sort(expected);
+      Collections.sort(actual);
+      assertEquals(expected, actual);
+   }
+}
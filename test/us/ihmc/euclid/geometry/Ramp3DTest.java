@@ -44,6 +44,9 @@ public class Ramp3DTest
          double height = EuclidCoreRandomTools.nextDouble(random, 0.01, 10.0);
          Ramp3D box3d = new Ramp3D(transform, length, width, height);
          testHelper.runSimpleTests(box3d, random, numberOfPoints);
+         testHelper.runBatchTests(box3d, random, numberOfPoints);
+         testHelper.runBoundingBoxTests(box3d, random, numberOfPoints);
+         testHelper.runSupportingVertexTests(box3d, random, numberOfPoints);
       }
    }
 
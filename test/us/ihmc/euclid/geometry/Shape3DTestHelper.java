@@ -73,6 +73,163 @@ public class Shape3DTestHelper
 
    }
 
+   public void runBatchTests(Shape3D<?> shape3d, Random random, int numberOfPoints)
+   {
+      shape3d.applyTransform(EuclidCoreRandomTools.nextRigidBodyTransform(random));
+
+      double[] xs = new double[numberOfPoints];
+      double[] ys = new double[numberOfPoints];
+      double[] zs = new double[numberOfPoints];
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         Point3D point = EuclidCoreRandomTools.nextPoint3D(random, 5.0);
+         xs[i] = point.getX();
+         ys[i] = point.getY();
+         zs[i] = point.getZ();
+      }
+
+      double[] signedDistances = new double[numberOfPoints];
+      double[] parallelSignedDistances = new double[numberOfPoints];
+      boolean[] areInside = new boolean[numberOfPoints];
+      double epsilon = EuclidCoreRandomTools.nextDouble(random, 0.1);
+      shape3d.signedDistance(xs, ys, zs, signedDistances);
+      shape3d.signedDistanceParallel(xs, ys, zs, parallelSignedDistances);
+      shape3d.isInsideEpsilon(xs, ys, zs, 0, numberOfPoints, epsilon, areInside);
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         Point3D point = new Point3D(xs[i], ys[i], zs[i]);
+         double expected = shape3d.signedDistance(point);
+         assertEquals(expected, signedDistances[i], 1.0e-10 * Math.max(1.0, Math.abs(expected)));
+         assertEquals(signedDistances[i], parallelSignedDistances[i], 0.0);
+         assertEquals(shape3d.isInsideEpsilon(point, epsilon), areInside[i]);
+      }
+
+      // Evaluating a sub-range only.
+      int startIndex = random.nextInt(numberOfPoints);
+      int endIndex = startIndex + random.nextInt(numberOfPoints - startIndex + 1);
+      double[] subRangeSignedDistances = new double[numberOfPoints];
+      shape3d.signedDistance(xs, ys, zs, startIndex, endIndex, subRangeSignedDistances);
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         if (i < startIndex || i >= endIndex)
+            assertEquals(0.0, subRangeSignedDistances[i], 0.0);
+         else
+            assertEquals(signedDistances[i], subRangeSignedDistances[i], 0.0);
+      }
+
+      try
+      {
+         shape3d.signedDistance(xs, ys, new double[numberOfPoints - 1], signedDistances);
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+
+   public void runBoundingBoxTests(Shape3D<?> shape3d, Random random, int numberOfPoints)
+   {
+      long poseModificationCount = shape3d.getPoseModificationCount();
+      shape3d.applyTransform(EuclidCoreRandomTools.nextRigidBodyTransform(random));
+      shape3d.prependYawRotation(EuclidCoreRandomTools.nextDouble(random, Math.PI));
+      shape3d.appendTranslation(EuclidCoreRandomTools.nextVector3D(random));
+      assertEquals(poseModificationCount + 3, shape3d.getPoseModificationCount());
+
+      BoundingBox3D boundingBox = new BoundingBox3D();
+      shape3d.getBoundingBox3D(boundingBox);
+      RigidBodyTransform pose = new RigidBodyTransform();
+      shape3d.getPose(pose);
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         Point3D point = new Point3D();
+         boundingBox.getPointGivenParameters(EuclidCoreRandomTools.nextDouble(random, -0.5, 1.5), EuclidCoreRandomTools.nextDouble(random, -0.5, 1.5),
+                                             EuclidCoreRandomTools.nextDouble(random, -0.5, 1.5), point);
+         Point3D localPoint = new Point3D(point);
+         pose.inverseTransform(localPoint);
+
+         // The cached inverse pose and the bounding box rejection have to be consistent with the evaluation in local coordinates.
+         double expectedSignedDistance = shape3d.evaluateQuery(localPoint.getX(), localPoint.getY(), localPoint.getZ(), null, null);
+         assertEquals(expectedSignedDistance, shape3d.signedDistance(point), 1.0e-10 * Math.max(1.0, Math.abs(expectedSignedDistance)));
+
+         // A negative epsilon can shrink the small shapes past their size, the shape frame test is then not meaningful.
+         double epsilon = EuclidCoreRandomTools.nextDouble(random, 0.0, 0.1);
+         boolean expectedIsInside = shape3d.isInsideEpsilonShapeFrame(localPoint.getX(), localPoint.getY(), localPoint.getZ(), epsilon);
+         assertEquals(expectedIsInside, shape3d.isInsideEpsilon(point, epsilon));
+
+         Point3D closestPoint = new Point3D();
+         shape3d.checkIfInside(point, closestPoint, null);
+         assertTrue(boundingBox.isInsideEpsilon(closestPoint, 1.0e-10));
+      }
+
+      // The bounding box is only recomputed when needed, it has to follow the modifications made after it was last computed.
+      Vector3D translation = EuclidCoreRandomTools.nextVector3D(random);
+      shape3d.prependTranslation(translation);
+      BoundingBox3D translatedBoundingBox = new BoundingBox3D();
+      shape3d.getBoundingBox3D(translatedBoundingBox);
+      Point3D expectedMin = new Point3D(boundingBox.getMinPoint());
+      Point3D expectedMax = new Point3D(boundingBox.getMaxPoint());
+      expectedMin.add(translation);
+      expectedMax.add(translation);
+      EuclidCoreTestTools.assertTuple3DEquals(expectedMin, translatedBoundingBox.getMinPoint(), 1.0e-10);
+      EuclidCoreTestTools.assertTuple3DEquals(expectedMax, translatedBoundingBox.getMaxPoint(), 1.0e-10);
+
+      // The rejection of the queries relies on the same bounds.
+      shape3d.prependTranslation(translation);
+      shape3d.getPose(pose);
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         Point3D point = new Point3D();
+         translatedBoundingBox.getPointGivenParameters(random.nextDouble(), random.nextDouble(), random.nextDouble(), point);
+         point.add(translation);
+         Point3D localPoint = new Point3D(point);
+         pose.inverseTransform(localPoint);
+
+         boolean expectedIsInside = shape3d.isInsideEpsilonShapeFrame(localPoint.getX(), localPoint.getY(), localPoint.getZ(), 0.0);
+         assertEquals(expectedIsInside, shape3d.isInsideEpsilon(point, 0.0));
+      }
+   }
+
+   public void runSupportingVertexTests(Shape3D<?> shape3d, Random random, int numberOfPoints)
+   {
+      shape3d.applyTransform(EuclidCoreRandomTools.nextRigidBodyTransform(random));
+
+      BoundingBox3D boundingBox = new BoundingBox3D();
+      shape3d.getBoundingBox3D(boundingBox);
+
+      for (int i = 0; i < numberOfPoints; i++)
+      {
+         Vector3D supportDirection = EuclidCoreRandomTools.nextVector3DWithFixedLength(random, EuclidCoreRandomTools.nextDouble(random, 0.1, 10.0));
+         Point3D supportingVertex = new Point3D();
+         shape3d.getSupportingVertex(supportDirection, supportingVertex);
+         assertEquals(0.0, shape3d.signedDistance(supportingVertex), 1.0e-8);
+
+         // No point of the surface goes further in the support direction.
+         Point3D point = new Point3D();
+         boundingBox.getPointGivenParameters(random.nextDouble(), random.nextDouble(), random.nextDouble(), point);
+         Point3D pointOnSurface = new Point3D();
+         shape3d.checkIfInside(point, pointOnSurface, null);
+         Vector3D offset = new Vector3D();
+         offset.sub(pointOnSurface, supportingVertex);
+         assertTrue(offset.dot(supportDirection) <= 1.0e-8 * supportDirection.length());
+      }
+
+      try
+      {
+         shape3d.getSupportingVertex(new Vector3D(), new Point3D());
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+
    private void runSomeTestsWithPointOutside(Shape3D<?> shape3d, Point3D pointOutside)
    {
       // Check to make sure the point is actually outside:
@@ -0,0 +1,191 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreTestTools;
+import us.ihmc.euclid.tuple3D.Point3D;
+import us.ihmc.euclid.tuple3D.Vector3D;
+
+public class SignedDistanceField3DTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testSignedDistance() throws Exception
+   {
+      Random random = new Random(6457);
+      double resolution = 0.02;
+      BoundingBox3D bounds = new BoundingBox3D(-1.0, -1.0, -1.0, 1.0, 1.0, 1.0);
+      Sphere3D sphere = new Sphere3D(EuclidCoreRandomTools.nextPoint3D(random, 0.3), EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5));
+      Box3D box = new Box3D(EuclidCoreRandomTools.nextRigidBodyTransform(random), 0.4, 0.3, 0.2);
+      box.setPosition(EuclidCoreRandomTools.nextPoint3D(random, 0.5));
+      SignedDistanceField3D field = new SignedDistanceField3D(bounds, resolution, Arrays.asList(sphere, box));
+
+      assertTrue(field.isUpToDate());
+
+      for (int i = 0; i < ITERATIONS; i++)
+      { // The distance is 1-Lipschitz, the interpolation error is bounded by the diagonal of a cell.
+         Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 1.0);
+         double expected = Math.min(sphere.signedDistance(query), box.signedDistance(query));
+         assertTrue(field.isInsideGrid(query));
+         assertEquals(expected, field.signedDistance(query), Math.sqrt(3.0) * resolution);
+      }
+
+      for (int i = 0; i < ITERATIONS; i++)
+      { // Outside the grid, the distance is exact.
+         Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 5.0);
+         if (bounds.isInsideInclusive(query))
+            continue;
+
+         double expected = Math.min(sphere.signedDistance(query), box.signedDistance(query));
+         assertFalse(field.isInsideGrid(query));
+         assertEquals(expected, field.signedDistance(query), EPSILON);
+      }
+   }
+
+   @Test
+   public void testGradient() throws Exception
+   {
+      Random random = new Random(3467);
+      double resolution = 0.01;
+      Sphere3D sphere = new Sphere3D(0.0, 0.0, 0.0, 0.3);
+      SignedDistanceField3D field = new SignedDistanceField3D(new BoundingBox3D(-1.0, -1.0, -1.0, 1.0, 1.0, 1.0), resolution, sphere);
+      Vector3D gradient = new Vector3D();
+
+      for (int i = 0; i < ITERATIONS; i++)
+      { // Away from the center of the sphere, the gradient is the radial direction.
+         Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 0.9);
+         if (query.distanceFromOrigin() < 0.2)
+            continue;
+
+         Vector3D expected = new Vector3D(query);
+         expected.normalize();
+
+         field.signedDistance(query, gradient);
+         EuclidCoreTestTools.assertTuple3DEquals(expected, gradient, 0.05);
+      }
+
+      for (int i = 0; i < ITERATIONS; i++)
+      { // Finite difference check of the interpolated field.
+         Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 0.9);
+         double distance = field.signedDistance(query, gradient);
+         Vector3D step = EuclidCoreRandomTools.nextVector3DWithFixedLength(random, 1.0e-7);
+         Point3D shiftedQuery = new Point3D(query);
+         shiftedQuery.add(step);
+
+         // The interpolation is only piecewise smooth, the step may cross a cell boundary.
+         assertEquals(distance + gradient.dot(step), field.signedDistance(shiftedQuery), 1.0e-6);
+      }
+
+      Point3D query = new Point3D(3.0, 0.0, 0.0);
+      assertEquals(2.7, field.signedDistance(query, gradient), EPSILON);
+      EuclidCoreTestTools.assertTuple3DEquals(new Vector3D(1.0, 0.0, 0.0), gradient, EPSILON);
+   }
+
+   @Test
+   public void testInvalidation() throws Exception
+   {
+      Random random = new Random(897);
+      double resolution = 0.05;
+      Sphere3D sphere = new Sphere3D(0.0, 0.0, 0.0, 0.3);
+      Cylinder3D cylinder = new Cylinder3D(0.2, 0.1);
+      cylinder.setPosition(0.5, 0.5, 0.5);
+      SignedDistanceField3D field = new SignedDistanceField3D(new BoundingBox3D(-1.0, -1.0, -1.0, 1.0, 1.0, 1.0), resolution, sphere, cylinder);
+
+      for (int i = 0; i < 20; i++)
+      {
+         switch (random.nextInt(4))
+         {
+         case 0:
+            sphere.setPosition(EuclidCoreRandomTools.nextPoint3D(random, 0.5));
+            break;
+         case 1:
+            sphere.setRadius(EuclidCoreRandomTools.nextDouble(random, 0.1, 0.4));
+            break;
+         case 2:
+            cylinder.prependYawRotation(EuclidCoreRandomTools.nextDouble(random, Math.PI));
+            break;
+         default:
+            cylinder.setHeight(EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5));
+            break;
+         }
+
+         assertFalse(field.isUpToDate());
+
+         for (int j = 0; j < 100; j++)
+         { // The queries do not resample the field but use the exact distance to the modified shapes.
+            Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 1.0);
+            Vector3D expectedGradient = new Vector3D();
+            Vector3D actualGradient = new Vector3D();
+            Shape3D<?> closestShape = sphere.signedDistance(query) <= cylinder.signedDistance(query) ? sphere : cylinder;
+            double expected = closestShape.signedDistance(query);
+            closestShape.checkIfInside(query, null, expectedGradient);
+            assertEquals(expected, field.signedDistance(query, actualGradient), 0.0);
+            assertTrue(expectedGradient.epsilonEquals(actualGradient, 1.0e-12));
+         }
+         assertFalse(field.isUpToDate());
+
+         field.update();
+         assertTrue(field.isUpToDate());
+
+         for (int j = 0; j < 100; j++)
+         {
+            Point3D query = EuclidCoreRandomTools.nextPoint3D(random, 1.0);
+            double expected = Math.min(sphere.signedDistance(query), cylinder.signedDistance(query));
+            assertEquals(expected, field.signedDistance(query), Math.sqrt(3.0) * resolution);
+         }
+      }
+   }
+
+   @Test
+   public void testConstructorExceptions() throws Exception
+   {
+      BoundingBox3D bounds = new BoundingBox3D(-1.0, -1.0, -1.0, 1.0, 1.0, 1.0);
+      Sphere3D sphere = new Sphere3D();
+
+      try
+      {
+         new SignedDistanceField3D(bounds, 0.0, sphere);
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         new SignedDistanceField3D(bounds, 0.1);
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         new SignedDistanceField3D(bounds, 1.0e-5, sphere);
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      SignedDistanceField3D field = new SignedDistanceField3D(new BoundingBox3D(0.0, 0.0, 0.0, 1.0, 0.5, 0.0), 0.3, sphere);
+      assertEquals(5, field.getSizeX());
+      assertEquals(3, field.getSizeY());
+      assertEquals(2, field.getSizeZ());
+   }
+}
@@ -33,6 +33,9 @@ public class Sphere3DTest
          double radius = EuclidCoreRandomTools.nextDouble(random, 0.01, 10.0);
          Sphere3D sphere3d = new Sphere3D(center, radius);
          testHelper.runSimpleTests(sphere3d, random, numberOfPoints);
+         testHelper.runBatchTests(sphere3d, random, numberOfPoints);
+         testHelper.runBoundingBoxTests(sphere3d, random, numberOfPoints);
+         testHelper.runSupportingVertexTests(sphere3d, random, numberOfPoints);
       }
    }
 
@@ -0,0 +1,173 @@
+package us.ihmc.euclid.geometry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tuple3D.Point3D;
+
+public class TimeOfImpactCalculatorTest
+{
+   private static final int ITERATIONS = 500;
+
+   @Test
+   public void testSphereThroughThinBox()
+   {
+      TimeOfImpactCalculator calculator = new TimeOfImpactCalculator();
+      Sphere3D sphere = new Sphere3D(0.1);
+      Box3D wall = new Box3D(0.01, 2.0, 2.0);
+      Pose3D wallPose = new Pose3D();
+
+      Pose3D start = new Pose3D(-5.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+      Pose3D end = new Pose3D(5.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+
+      // The sphere would be on either side of the wall when tested at the start and end poses only.
+      assertTrue(calculator.computeTimeOfImpact(sphere, start, end, wall, wallPose, wallPose));
+      double expectedTime = (5.0 - 0.1 - 0.005) / 10.0;
+      assertEquals(expectedTime, calculator.getTimeOfImpact(), calculator.getDistanceTolerance() / 10.0);
+      assertTrue(calculator.getTimeOfImpact() <= expectedTime);
+      assertEquals(1.0, calculator.getNormal().getX(), 1.0e-6);
+      assertEquals(-0.005, calculator.getPointOnB().getX(), 1.0e-6);
+
+      // Moving above the wall.
+      start.setZ(1.2);
+      end.setZ(1.2);
+      assertFalse(calculator.computeTimeOfImpact(sphere, start, end, wall, wallPose, wallPose));
+      assertTrue(Double.isNaN(calculator.getTimeOfImpact()));
+      assertTrue(calculator.getNormal().containsNaN());
+
+      // Moving away from the wall.
+      start.set(-0.5, 0.0, 0.0, 0.0, 0.0, 0.0);
+      end.set(-5.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+      assertFalse(calculator.computeTimeOfImpact(sphere, start, end, wall, wallPose, wallPose));
+
+      // Already overlapping.
+      start.set(0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
+      assertTrue(calculator.computeTimeOfImpact(sphere, start, end, wall, wallPose, wallPose));
+      assertEquals(0.0, calculator.getTimeOfImpact(), 0.0);
+   }
+
+   @Test
+   public void testRotatingBox()
+   {
+      TimeOfImpactCalculator calculator = new TimeOfImpactCalculator();
+      Box3D bar = new Box3D(2.0, 0.1, 0.1);
+      Sphere3D sphere = new Sphere3D(0.1);
+      Pose3D spherePose = new Pose3D(0.0, 0.8, 0.0, 0.0, 0.0, 0.0);
+
+      Pose3D start = new Pose3D();
+      Pose3D end = new Pose3D(0.0, 0.0, 0.0, 0.5 * Math.PI, 0.0, 0.0);
+
+      // The bar sweeps the sphere while only rotating.
+      assertTrue(calculator.computeTimeOfImpact(bar, start, end, sphere, spherePose, spherePose));
+      double timeOfImpact = calculator.getTimeOfImpact();
+      assertTrue(timeOfImpact > 0.0 && timeOfImpact < 1.0);
+
+      Pose3D pose = new Pose3D();
+      pose.interpolate(start, end, timeOfImpact);
+      bar.setPose(pose);
+      assertEquals(0.1, bar.distance(spherePose.getPosition()), 1.1 * calculator.getDistanceTolerance());
+
+      spherePose.setZ(0.5);
+      assertFalse(calculator.computeTimeOfImpact(bar, start, end, sphere, spherePose, spherePose));
+   }
+
+   @Test
+   public void testRandomMotions()
+   {
+      Random random = new Random(6721L);
+      TimeOfImpactCalculator calculator = new TimeOfImpactCalculator();
+      ContactManifoldCalculator manifoldCalculator = new ContactManifoldCalculator();
+      ContactManifold3D manifold = new ContactManifold3D();
+      Pose3D poseA = new Pose3D();
+      Pose3D poseB = new Pose3D();
+      int numberOfImpacts = 0;
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Shape3D<?> shapeA = nextConvexShape3D(random);
+         Shape3D<?> shapeB = nextConvexShape3D(random);
+         Pose3D startA = nextPose3D(random, 3.0);
+         Pose3D endA = nextPose3D(random, 3.0);
+         Pose3D startB = nextPose3D(random, 3.0);
+         Pose3D endB = nextPose3D(random, 3.0);
+
+         shapeA.setPose(startA);
+         shapeB.setPose(startB);
+         if (manifoldCalculator.computeContactManifold(shapeA, shapeB, manifold))
+            continue;
+
+         boolean hasImpact = calculator.computeTimeOfImpact(shapeA, startA, endA, shapeB, startB, endB);
+         double endTime = hasImpact ? calculator.getTimeOfImpact() : 1.0;
+
+         if (hasImpact)
+         {
+            numberOfImpacts++;
+            poseA.interpolate(startA, endA, endTime);
+            shapeA.setPose(poseA);
+            poseB.interpolate(startB, endB, endTime);
+            shapeB.setPose(poseB);
+
+            assertEquals(0.0, shapeA.signedDistance(calculator.getPointOnA()), 1.0e-6);
+            assertEquals(0.0, shapeB.signedDistance(calculator.getPointOnB()), 1.0e-6);
+            assertTrue(calculator.getPointOnA().distance(calculator.getPointOnB()) <= calculator.getDistanceTolerance());
+            Point3D offset = new Point3D(calculator.getPointOnB());
+            offset.sub(calculator.getPointOnA());
+            assertTrue(offset.getX() * calculator.getNormal().getX() + offset.getY() * calculator.getNormal().getY()
+                  + offset.getZ() * calculator.getNormal().getZ() >= 0.0);
+         }
+
+         // The shapes never overlap before the time of impact.
+         for (int sample = 0; sample <= 50; sample++)
+         {
+            double time = endTime * sample / 50.0;
+            poseA.interpolate(startA, endA, time);
+            shapeA.setPose(poseA);
+            poseB.interpolate(startB, endB, time);
+            shapeB.setPose(poseB);
+            assertFalse(manifoldCalculator.computeContactManifold(shapeA, shapeB, manifold));
+         }
+      }
+
+      assertTrue(numberOfImpacts > 0);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testInvalidTolerance()
+   {
+      new TimeOfImpactCalculator().setDistanceTolerance(0.0);
+   }
+
+   private static Pose3D nextPose3D(Random random, double maxAbsolutePosition)
+   {
+      Pose3D pose = new Pose3D();
+      pose.setPosition(EuclidCoreRandomTools.nextPoint3D(random, maxAbsolutePosition, maxAbsolutePosition, maxAbsolutePosition));
+      pose.setOrientation(EuclidCoreRandomTools.nextQuaternion(random));
+      return pose;
+   }
+
+   private static Shape3D<?> nextConvexShape3D(Random random)
+   {
+      switch (random.nextInt(5))
+      {
+      case 0:
+         return new Box3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0), EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0),
+                          EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0));
+      case 1:
+         return new Cylinder3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0), EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5));
+      case 2:
+         return new Ellipsoid3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5), EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5),
+                                EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5));
+      case 3:
+         return new Ramp3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0), EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0),
+                           EuclidCoreRandomTools.nextDouble(random, 0.1, 1.0));
+      default:
+         return new Sphere3D(EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5));
+      }
+   }
+}
@@ -39,6 +39,22 @@ public class Torus3DTest
       assertTrue(torus3d.isInsideOrOnSurface(pointToCheck));
    }
 
+   @Test
+   public void testBatchQueries()
+   {
+      Shape3DTestHelper testHelper = new Shape3DTestHelper();
+      Random random = new Random(3453);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         double radius = EuclidCoreRandomTools.nextDouble(random, 1.0, 2.0);
+         double tubeRadius = EuclidCoreRandomTools.nextDouble(random, 0.1, 0.5);
+         testHelper.runBatchTests(new Torus3D(radius, tubeRadius), random, 100);
+         testHelper.runBoundingBoxTests(new Torus3D(radius, tubeRadius), random, 100);
+         testHelper.runSupportingVertexTests(new Torus3D(radius, tubeRadius), random, 100);
+      }
+   }
+
    @Test
    public void testSimplePointOnOrInside()
    {
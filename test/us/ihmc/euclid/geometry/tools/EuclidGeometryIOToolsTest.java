@@ -0,0 +1,356 @@
+package us.ihmc.euclid.geometry.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.BoundingBox2D;
+import us.ihmc.euclid.geometry.BoundingBox3D;
+import us.ihmc.euclid.geometry.Box3D;
+import us.ihmc.euclid.geometry.ConvexPolygon2D;
+import us.ihmc.euclid.geometry.Cylinder3D;
+import us.ihmc.euclid.geometry.Ellipsoid3D;
+import us.ihmc.euclid.geometry.Line2D;
+import us.ihmc.euclid.geometry.Line3D;
+import us.ihmc.euclid.geometry.LineSegment1D;
+import us.ihmc.euclid.geometry.LineSegment2D;
+import us.ihmc.euclid.geometry.LineSegment3D;
+import us.ihmc.euclid.geometry.Orientation2D;
+import us.ihmc.euclid.geometry.Plane3D;
+import us.ihmc.euclid.geometry.Pose2D;
+import us.ihmc.euclid.geometry.Pose3D;
+import us.ihmc.euclid.geometry.Ramp3D;
+import us.ihmc.euclid.geometry.Shape3D;
+import us.ihmc.euclid.geometry.Sphere3D;
+import us.ihmc.euclid.geometry.Torus3D;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+
+public class EuclidGeometryIOToolsTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testAppendDouble() throws Exception
+   {
+      Random random = new Random(3453);
+
+      for (int i = 0; i < 100 * ITERATIONS; i++)
+      {
+         int precision = random.nextInt(10);
+         double value;
+
+         switch (i % 3)
+         {
+         case 0:
+            value = EuclidCoreRandomTools.nextDouble(random, 1.0);
+            break;
+         case 1:
+            value = EuclidCoreRandomTools.nextDouble(random, 1.0e5);
+            break;
+         default: // Decimal midpoints
+            value = random.nextInt(200000) / 1000.0 - 100.0;
+            break;
+         }
+
+         String expected = String.format("%" + (precision + 3) + "." + precision + "f", value);
+         assertEquals(expected, EuclidGeometryIOTools.appendDouble(new StringBuilder(), precision, value).toString());
+      }
+
+      assertEquals(String.format("%6.3f", -0.0), EuclidGeometryIOTools.appendDouble(new StringBuilder(), 3, -0.0).toString());
+      assertEquals(String.format("%6.3f", Double.NaN), EuclidGeometryIOTools.appendDouble(new StringBuilder(), 3, Double.NaN).toString());
+      assertEquals(String.format("%6.3f", 1.0e20), EuclidGeometryIOTools.appendDouble(new StringBuilder(), 3, 1.0e20).toString());
+   }
+
+   @Test
+   public void testAppendMatchesGetString() throws Exception
+   {
+      Random random = new Random(34657);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Line2D line2D = EuclidGeometryRandomTools.nextLine2D(random);
+         assertEquals(EuclidGeometryIOTools.getLine2DString(line2D), EuclidGeometryIOTools.appendLine2D(new StringBuilder(), line2D).toString());
+         Line3D line3D = EuclidGeometryRandomTools.nextLine3D(random);
+         assertEquals(EuclidGeometryIOTools.getLine3DString(line3D), EuclidGeometryIOTools.appendLine3D(new StringBuilder(), line3D).toString());
+         LineSegment1D lineSegment1D = EuclidGeometryRandomTools.nextLineSegment1D(random);
+         assertEquals(EuclidGeometryIOTools.getLineSegment1DString(lineSegment1D),
+                      EuclidGeometryIOTools.appendLineSegment1D(new StringBuilder(), lineSegment1D).toString());
+         LineSegment2D lineSegment2D = EuclidGeometryRandomTools.nextLineSegment2D(random);
+         assertEquals(EuclidGeometryIOTools.getLineSegment2DString(lineSegment2D),
+                      EuclidGeometryIOTools.appendLineSegment2D(new StringBuilder(), lineSegment2D).toString());
+         LineSegment3D lineSegment3D = EuclidGeometryRandomTools.nextLineSegment3D(random);
+         assertEquals(EuclidGeometryIOTools.getLineSegment3DString(lineSegment3D),
+                      EuclidGeometryIOTools.appendLineSegment3D(new StringBuilder(), lineSegment3D).toString());
+         BoundingBox2D boundingBox2D = EuclidGeometryRandomTools.nextBoundingBox2D(random);
+         assertEquals(EuclidGeometryIOTools.getBoundingBox2DString(boundingBox2D),
+                      EuclidGeometryIOTools.appendBoundingBox2D(new StringBuilder(), boundingBox2D).toString());
+         BoundingBox3D boundingBox3D = EuclidGeometryRandomTools.nextBoundingBox3D(random);
+         assertEquals(EuclidGeometryIOTools.getBoundingBox3DString(boundingBox3D),
+                      EuclidGeometryIOTools.appendBoundingBox3D(new StringBuilder(), boundingBox3D).toString());
+         Orientation2D orientation2D = EuclidGeometryRandomTools.nextOrientation2D(random);
+         assertEquals(EuclidGeometryIOTools.getOrientation2DString(orientation2D),
+                      EuclidGeometryIOTools.appendOrientation2D(new StringBuilder(), orientation2D).toString());
+         Plane3D plane3D = EuclidGeometryRandomTools.nextPlane3D(random);
+         assertEquals(EuclidGeometryIOTools.getPlane3DString(plane3D), EuclidGeometryIOTools.appendPlane3D(new StringBuilder(), plane3D).toString());
+         Pose2D pose2D = EuclidGeometryRandomTools.nextPose2D(random);
+         assertEquals(EuclidGeometryIOTools.getPose2DString(pose2D), EuclidGeometryIOTools.appendPose2D(new StringBuilder(), pose2D).toString());
+         Pose3D pose3D = EuclidGeometryRandomTools.nextPose3D(random);
+         assertEquals(EuclidGeometryIOTools.getPose3DString(pose3D), EuclidGeometryIOTools.appendPose3D(new StringBuilder(), pose3D).toString());
+         ConvexPolygon2D convexPolygon2D = EuclidGeometryRandomTools.nextConvexPolygon2D(random, 10.0, random.nextInt(10));
+         assertEquals(EuclidGeometryIOTools.getConvexPolygon2DString(convexPolygon2D),
+                      EuclidGeometryIOTools.appendConvexPolygon2D(new StringBuilder(), convexPolygon2D).toString());
+      }
+   }
+
+   @Test
+   public void testParse() throws Exception
+   {
+      Random random = new Random(56756);
+      int precision = 15;
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         StringBuilder stringBuilder = new StringBuilder();
+
+         LineSegment1D lineSegment1D = EuclidGeometryRandomTools.nextLineSegment1D(random);
+         LineSegment3D lineSegment3D = EuclidGeometryRandomTools.nextLineSegment3D(random);
+         BoundingBox3D boundingBox3D = EuclidGeometryRandomTools.nextBoundingBox3D(random);
+         Plane3D plane3D = EuclidGeometryRandomTools.nextPlane3D(random);
+         Pose2D pose2D = EuclidGeometryRandomTools.nextPose2D(random);
+         Pose3D pose3D = EuclidGeometryRandomTools.nextPose3D(random);
+         ConvexPolygon2D convexPolygon2D = EuclidGeometryRandomTools.nextConvexPolygon2D(random, 10.0, random.nextInt(10));
+
+         EuclidGeometryIOTools.appendLineSegment1D(stringBuilder, precision, lineSegment1D).append('\n');
+         EuclidGeometryIOTools.appendLineSegment3D(stringBuilder, precision, lineSegment3D).append('\n');
+         EuclidGeometryIOTools.appendBoundingBox3D(stringBuilder, precision, boundingBox3D).append('\n');
+         EuclidGeometryIOTools.appendPlane3D(stringBuilder, precision, plane3D).append('\n');
+         EuclidGeometryIOTools.appendPose2D(stringBuilder, precision, pose2D).append('\n');
+         EuclidGeometryIOTools.appendPose3D(stringBuilder, precision, pose3D).append('\n');
+         EuclidGeometryIOTools.appendConvexPolygon2D(stringBuilder, precision, convexPolygon2D);
+
+         LineSegment1D actualLineSegment1D = new LineSegment1D();
+         LineSegment3D actualLineSegment3D = new LineSegment3D();
+         BoundingBox3D actualBoundingBox3D = new BoundingBox3D();
+         Plane3D actualPlane3D = new Plane3D();
+         Pose2D actualPose2D = new Pose2D();
+         Pose3D actualPose3D = new Pose3D();
+         ConvexPolygon2D actualConvexPolygon2D = new ConvexPolygon2D();
+
+         int index = EuclidGeometryIOTools.parseLineSegment1D(stringBuilder, 0, actualLineSegment1D);
+         index = EuclidGeometryIOTools.parseLineSegment3D(stringBuilder, index, actualLineSegment3D);
+         index = EuclidGeometryIOTools.parseBoundingBox3D(stringBuilder, index, actualBoundingBox3D);
+         index = EuclidGeometryIOTools.parsePlane3D(stringBuilder, index, actualPlane3D);
+         index = EuclidGeometryIOTools.parsePose2D(stringBuilder, index, actualPose2D);
+         index = EuclidGeometryIOTools.parsePose3D(stringBuilder, index, actualPose3D);
+         index = EuclidGeometryIOTools.parseConvexPolygon2D(stringBuilder, index, actualConvexPolygon2D);
+         assertEquals(stringBuilder.length(), index);
+
+         assertTrue(lineSegment1D.epsilonEquals(actualLineSegment1D, EPSILON));
+         assertTrue(lineSegment3D.epsilonEquals(actualLineSegment3D, EPSILON));
+         assertTrue(boundingBox3D.epsilonEquals(actualBoundingBox3D, EPSILON));
+         assertTrue(plane3D.epsilonEquals(actualPlane3D, EPSILON));
+         assertTrue(pose2D.epsilonEquals(actualPose2D, EPSILON));
+         assertTrue(pose3D.epsilonEquals(actualPose3D, EPSILON));
+         assertTrue(convexPolygon2D.epsilonEquals(actualConvexPolygon2D, EPSILON));
+
+         // Also parses the default String representations.
+         EuclidGeometryIOTools.parsePose3D(EuclidGeometryIOTools.getPose3DString(pose3D), 0, actualPose3D);
+         assertTrue(pose3D.getPosition().epsilonEquals(actualPose3D.getPosition(), 1.0e-3));
+      }
+
+      try
+      {
+         EuclidGeometryIOTools.parsePose3D("Pose 3D: position = ( 0.1, 0.2 )", 0, new Pose3D());
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // Good
+      }
+   }
+
+   @Test
+   public void testBinaryRoundTrip() throws Exception
+   {
+      Random random = new Random(4365);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         ByteBuffer buffer = random.nextBoolean() ? ByteBuffer.allocate(1024) : ByteBuffer.allocateDirect(1024);
+
+         Pose3D pose3D = EuclidGeometryRandomTools.nextPose3D(random);
+         BoundingBox3D boundingBox3D = EuclidGeometryRandomTools.nextBoundingBox3D(random);
+         Plane3D plane3D = EuclidGeometryRandomTools.nextPlane3D(random);
+         LineSegment3D lineSegment3D = EuclidGeometryRandomTools.nextLineSegment3D(random);
+         ConvexPolygon2D convexPolygon2D = EuclidGeometryRandomTools.nextConvexPolygon2D(random, 10.0, 20);
+
+         EuclidGeometryIOTools.writePose3D(pose3D, buffer);
+         assertEquals(EuclidGeometryIOTools.POSE3D_BINARY_SIZE, buffer.position());
+         EuclidGeometryIOTools.writeBoundingBox3D(boundingBox3D, buffer);
+         EuclidGeometryIOTools.writePlane3D(plane3D, buffer);
+         EuclidGeometryIOTools.writeLineSegment3D(lineSegment3D, buffer);
+         EuclidGeometryIOTools.writeConvexPolygon2D(convexPolygon2D, buffer);
+
+         // Every record keeps the following doubles 8-byte aligned.
+         assertEquals(0, EuclidGeometryIOTools.BINARY_HEADER_SIZE % Double.BYTES);
+         assertEquals(0, EuclidGeometryIOTools.POSE3D_BINARY_SIZE % Double.BYTES);
+         assertEquals(0, EuclidGeometryIOTools.BOUNDINGBOX3D_BINARY_SIZE % Double.BYTES);
+         assertEquals(0, EuclidGeometryIOTools.getConvexPolygon2DBinarySize(convexPolygon2D.getNumberOfVertices()) % Double.BYTES);
+
+         int expectedSize = EuclidGeometryIOTools.POSE3D_BINARY_SIZE + EuclidGeometryIOTools.BOUNDINGBOX3D_BINARY_SIZE
+               + EuclidGeometryIOTools.PLANE3D_BINARY_SIZE + EuclidGeometryIOTools.LINESEGMENT3D_BINARY_SIZE
+               + EuclidGeometryIOTools.getConvexPolygon2DBinarySize(convexPolygon2D.getNumberOfVertices());
+         assertEquals(expectedSize, buffer.position());
+
+         buffer.flip();
+
+         Pose3D actualPose3D = new Pose3D();
+         BoundingBox3D actualBoundingBox3D = new BoundingBox3D();
+         Plane3D actualPlane3D = new Plane3D();
+         LineSegment3D actualLineSegment3D = new LineSegment3D();
+         ConvexPolygon2D actualConvexPolygon2D = new ConvexPolygon2D();
+
+         assertEquals(EuclidGeometryIOTools.POSE3D_BINARY_ID, EuclidGeometryIOTools.peekBinaryID(buffer));
+         EuclidGeometryIOTools.readPose3D(buffer, actualPose3D);
+         EuclidGeometryIOTools.readBoundingBox3D(buffer, actualBoundingBox3D);
+         EuclidGeometryIOTools.readPlane3D(buffer, actualPlane3D);
+         EuclidGeometryIOTools.readLineSegment3D(buffer, actualLineSegment3D);
+         EuclidGeometryIOTools.readConvexPolygon2D(buffer, actualConvexPolygon2D);
+         assertEquals(expectedSize, buffer.position());
+
+         assertTrue(pose3D.equals(actualPose3D));
+         assertTrue(boundingBox3D.equals(actualBoundingBox3D));
+         assertTrue(plane3D.equals(actualPlane3D));
+         assertTrue(lineSegment3D.equals(actualLineSegment3D));
+         assertTrue(convexPolygon2D.equals(actualConvexPolygon2D));
+      }
+   }
+
+   @Test
+   public void testShape3DBinaryRoundTrip() throws Exception
+   {
+      Random random = new Random(6574);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Pose3D pose = EuclidGeometryRandomTools.nextPose3D(random);
+         Shape3D<?>[] shapes = {new Box3D(pose, random.nextDouble(), random.nextDouble(), random.nextDouble()),
+               new Cylinder3D(pose, random.nextDouble(), random.nextDouble()),
+               new Ellipsoid3D(pose, random.nextDouble(), random.nextDouble(), random.nextDouble()),
+               new Ramp3D(pose, random.nextDouble(), random.nextDouble(), random.nextDouble()), new Sphere3D(random.nextDouble()),
+               new Torus3D(pose, 1.0 + random.nextDouble(), random.nextDouble())};
+         Shape3D<?>[] actualShapes = {new Box3D(), new Cylinder3D(), new Ellipsoid3D(), new Ramp3D(), new Sphere3D(), new Torus3D()};
+         boolean useRadialApproximation = random.nextBoolean();
+         ((Ellipsoid3D) shapes[2]).setUseRadialApproximation(useRadialApproximation);
+         ((Ellipsoid3D) actualShapes[2]).setUseRadialApproximation(!useRadialApproximation);
+
+         ByteBuffer buffer = ByteBuffer.allocate(1024);
+         int expectedSize = 0;
+
+         for (Shape3D<?> shape : shapes)
+         {
+            EuclidGeometryIOTools.writeShape3D(shape, buffer);
+            expectedSize += EuclidGeometryIOTools.getShape3DBinarySize(shape);
+            assertEquals(expectedSize, buffer.position());
+         }
+
+         buffer.flip();
+
+         for (int shapeIndex = 0; shapeIndex < shapes.length; shapeIndex++)
+         {
+            EuclidGeometryIOTools.readShape3D(buffer, actualShapes[shapeIndex]);
+            assertTrue(shapes[shapeIndex].equals(actualShapes[shapeIndex]));
+         }
+
+         assertEquals(useRadialApproximation, ((Ellipsoid3D) actualShapes[2]).isUsingRadialApproximation());
+      }
+   }
+
+   @Test
+   public void testReadEllipsoid3DBinaryVersion1() throws Exception
+   {
+      Random random = new Random(8732);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         Ellipsoid3D ellipsoid3D = new Ellipsoid3D(EuclidGeometryRandomTools.nextPose3D(random), random.nextDouble(), random.nextDouble(),
+                                                   random.nextDouble());
+         ellipsoid3D.setUseRadialApproximation(true);
+         Ellipsoid3D actualEllipsoid3D = new Ellipsoid3D();
+         actualEllipsoid3D.setUseRadialApproximation(true);
+
+         // A version 1 record is a version 2 record without the trailing radial approximation flag.
+         ByteBuffer buffer = ByteBuffer.allocate(1024);
+         EuclidGeometryIOTools.writeShape3D(ellipsoid3D, buffer);
+         buffer.put(1, (byte) 1);
+         buffer.position(buffer.position() - Long.BYTES);
+         int version1Size = buffer.position();
+         EuclidGeometryIOTools.writeShape3D(new Box3D(), buffer);
+         buffer.flip();
+
+         EuclidGeometryIOTools.readShape3D(buffer, actualEllipsoid3D);
+         assertEquals(version1Size, buffer.position());
+         assertTrue(ellipsoid3D.equals(actualEllipsoid3D));
+         assertFalse(actualEllipsoid3D.isUsingRadialApproximation());
+
+         // The following record is not shifted.
+         Box3D actualBox3D = new Box3D(1.0, 2.0, 3.0);
+         EuclidGeometryIOTools.readShape3D(buffer, actualBox3D);
+         assertTrue(new Box3D().equals(actualBox3D));
+      }
+   }
+
+   @Test
+   public void testBinaryHeaderValidation() throws Exception
+   {
+      ByteBuffer buffer = ByteBuffer.allocate(1024);
+      EuclidGeometryIOTools.writePlane3D(new Plane3D(), buffer);
+      buffer.flip();
+
+      try
+      {
+         EuclidGeometryIOTools.readPose3D(buffer, new Pose3D());
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // Good
+      }
+
+      buffer.clear();
+      EuclidGeometryIOTools.writeHeader(EuclidGeometryIOTools.POSE3D_BINARY_ID, buffer);
+      buffer.put(1, (byte) (EuclidGeometryIOTools.BINARY_FORMAT_VERSION + 1));
+      buffer.flip();
+
+      try
+      {
+         EuclidGeometryIOTools.readPose3D(buffer, new Pose3D());
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // Good
+      }
+
+      buffer.clear();
+      EuclidGeometryIOTools.writeShape3D(new Box3D(), buffer);
+      buffer.flip();
+
+      try
+      {
+         EuclidGeometryIOTools.readShape3D(buffer, new Sphere3D());
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // Good
+      }
+   }
+}
@@ -0,0 +1,67 @@
+package us.ihmc.euclid.referenceFrame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.SpatialQueryResult;
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVertex3DSupplier;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameRandomTools;
+
+public class FrameKDTree3DTest
+{
+   @Test
+   public void testFrameChecks()
+   {
+      Random random = new Random(8870L);
+      ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+      ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+
+      FramePoint3D[] points = new FramePoint3D[50];
+      for (int i = 0; i < points.length; i++)
+         points[i] = EuclidFrameRandomTools.nextFramePoint3D(random, frameA);
+
+      FrameKDTree3D tree = new FrameKDTree3D(frameA);
+      tree.build(FrameVertex3DSupplier.asFrameVertex3DSupplier(points));
+      assertEquals(points.length, tree.size());
+      assertTrue(tree.getReferenceFrame() == frameA);
+
+      SpatialQueryResult result = new SpatialQueryResult();
+      for (int i = 0; i < points.length; i++)
+         assertEquals(i, tree.findNearest(points[i], result));
+
+      tree.findKNearest(points[0], 5, result);
+      assertEquals(5, result.size());
+      tree.findWithinRadius(points[0], 0.0, result);
+      assertEquals(1, result.size());
+
+      try
+      {
+         tree.findNearest(EuclidFrameRandomTools.nextFramePoint3D(random, frameB), result);
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         new FrameKDTree3D(frameB).build(FrameVertex3DSupplier.asFrameVertex3DSupplier(points));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      tree.setToZero(frameB);
+      assertEquals(0, tree.size());
+      assertTrue(tree.getReferenceFrame() == frameB);
+   }
+}
@@ -0,0 +1,134 @@
+package us.ihmc.euclid.referenceFrame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.interfaces.FramePoint3DReadOnly;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVertex3DSupplier;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameRandomTools;
+
+public class FramePoint3DFloatBufferTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-5;
+
+   @Test
+   public void testFrameChecks()
+   {
+      Random random = new Random(6619L);
+      ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+      ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+
+      FramePoint3DFloatBuffer buffer = new FramePoint3DFloatBuffer(frameA, 0);
+      List<FramePoint3D> points = nextFramePoints(random, frameA, 10);
+      buffer.addAll(FrameVertex3DSupplier.asFrameVertex3DSupplier(points));
+      assertEquals(points.size(), buffer.size());
+
+      FramePoint3D point = new FramePoint3D(frameA);
+      for (int i = 0; i < points.size(); i++)
+      {
+         buffer.get(i, point);
+         assertTrue(points.get(i).epsilonEquals(point, EPSILON));
+         FramePoint3DReadOnly vertex = buffer.getVertex(i);
+         assertTrue(vertex.getReferenceFrame() == frameA);
+         assertTrue(points.get(i).epsilonEquals(vertex, EPSILON));
+      }
+
+      try
+      {
+         buffer.add(EuclidFrameRandomTools.nextFramePoint3D(random, frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         List<FramePoint3D> mixed = nextFramePoints(random, frameA, 3);
+         mixed.add(EuclidFrameRandomTools.nextFramePoint3D(random, frameB));
+         buffer.addAll(FrameVertex3DSupplier.asFrameVertex3DSupplier(mixed));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+      assertEquals(points.size(), buffer.size());
+
+      try
+      {
+         buffer.get(0, new FramePoint3D(frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         buffer.set(new FramePoint3DFloatBuffer(frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      FramePoint3DFloatBuffer other = new FramePoint3DFloatBuffer(frameB);
+      other.setIncludingFrame(buffer);
+      assertTrue(other.getReferenceFrame() == frameA);
+      assertEquals(buffer.size(), other.size());
+
+      buffer.setToZero(frameB);
+      assertTrue(buffer.isEmpty());
+      assertTrue(buffer.getReferenceFrame() == frameB);
+   }
+
+   @Test
+   public void testChangeFrame()
+   {
+      Random random = new Random(11094L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+         ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+         List<FramePoint3D> points = nextFramePoints(random, frameA, random.nextInt(50));
+         FramePoint3DFloatBuffer buffer = new FramePoint3DFloatBuffer(frameA);
+         for (FramePoint3D point : points)
+            buffer.add(point);
+
+         buffer.changeFrame(frameB);
+         assertTrue(buffer.getReferenceFrame() == frameB);
+
+         FramePoint3D point = new FramePoint3D(frameB);
+         for (int j = 0; j < points.size(); j++)
+         {
+            points.get(j).changeFrame(frameB);
+            buffer.get(j, point);
+            // The precision of the coordinates is relative to their magnitude.
+            double epsilon = EPSILON * Math.max(1.0, points.get(j).distanceFromOrigin());
+            assertTrue(points.get(j).epsilonEquals(point, epsilon));
+         }
+      }
+   }
+
+   private static List<FramePoint3D> nextFramePoints(Random random, ReferenceFrame frame, int numberOfPoints)
+   {
+      List<FramePoint3D> points = new ArrayList<>();
+      for (int i = 0; i < numberOfPoints; i++)
+         points.add(EuclidFrameRandomTools.nextFramePoint3D(random, frame, 10.0));
+      return points;
+   }
+}
@@ -0,0 +1,121 @@
+package us.ihmc.euclid.referenceFrame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVertex2DSupplier;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameRandomTools;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameTestTools;
+
+public class FramePolyline2DTest
+{
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testFrameChecks()
+   {
+      Random random = new Random(7781L);
+      ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+      ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+
+      FramePoint2D[] vertices = new FramePoint2D[10];
+      for (int i = 0; i < vertices.length; i++)
+         vertices[i] = EuclidFrameRandomTools.nextFramePoint2D(random, frameA);
+
+      FramePolyline2D polyline = new FramePolyline2D(frameA);
+      polyline.set(FrameVertex2DSupplier.asFrameVertex2DSupplier(vertices));
+      assertEquals(vertices.length, polyline.getNumberOfVertices());
+      assertTrue(polyline.getReferenceFrame() == frameA);
+
+      FramePoint2D point = new FramePoint2D(frameA);
+      polyline.pointAtArcLength(0.0, point);
+      EuclidFrameTestTools.assertFrameTuple2DEquals(vertices[0], point, EPSILON);
+      FrameVector2D direction = new FrameVector2D(frameA);
+      polyline.directionAtArcLength(0.0, direction);
+      assertEquals(1.0, direction.length(), EPSILON);
+      assertEquals(0.0, polyline.orthogonalProjection(vertices[0], point), EPSILON);
+
+      try
+      {
+         polyline.pointAtArcLength(0.0, new FramePoint2D(frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         polyline.orthogonalProjection(EuclidFrameRandomTools.nextFramePoint2D(random, frameB), point);
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         polyline.addVertex(EuclidFrameRandomTools.nextFramePoint2D(random, frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         new FramePolyline2D(frameB).set(FrameVertex2DSupplier.asFrameVertex2DSupplier(vertices));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      polyline.setToZero(frameB);
+      assertEquals(0, polyline.getNumberOfVertices());
+      assertTrue(polyline.getReferenceFrame() == frameB);
+   }
+
+   @Test
+   public void testChangeFrame()
+   {
+      Random random = new Random(2425L);
+
+      for (int i = 0; i < 100; i++)
+      {
+         ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random, true);
+         ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random, true);
+
+         FramePolyline2D polyline = new FramePolyline2D(frameA);
+         FramePoint2D[] vertices = new FramePoint2D[1 + random.nextInt(10)];
+         for (int j = 0; j < vertices.length; j++)
+         {
+            vertices[j] = EuclidFrameRandomTools.nextFramePoint2D(random, frameA);
+            polyline.addVertex(vertices[j]);
+         }
+
+         double length = polyline.getLength();
+         polyline.changeFrame(frameB);
+         assertTrue(polyline.getReferenceFrame() == frameB);
+         assertEquals(length, polyline.getLength(), 1.0e-10);
+
+         FramePoint2D vertex = new FramePoint2D(frameB);
+         for (int j = 0; j < vertices.length; j++)
+         {
+            vertices[j].changeFrame(frameB);
+            polyline.getVertex(j, vertex);
+            EuclidFrameTestTools.assertFrameTuple2DEquals(vertices[j], vertex, 1.0e-10);
+         }
+      }
+   }
+}
@@ -0,0 +1,121 @@
+package us.ihmc.euclid.referenceFrame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.interfaces.FrameVertex3DSupplier;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameRandomTools;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameTestTools;
+
+public class FramePolyline3DTest
+{
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testFrameChecks()
+   {
+      Random random = new Random(3318L);
+      ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+      ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+
+      FramePoint3D[] vertices = new FramePoint3D[10];
+      for (int i = 0; i < vertices.length; i++)
+         vertices[i] = EuclidFrameRandomTools.nextFramePoint3D(random, frameA);
+
+      FramePolyline3D polyline = new FramePolyline3D(frameA);
+      polyline.set(FrameVertex3DSupplier.asFrameVertex3DSupplier(vertices));
+      assertEquals(vertices.length, polyline.getNumberOfVertices());
+      assertTrue(polyline.getReferenceFrame() == frameA);
+
+      FramePoint3D point = new FramePoint3D(frameA);
+      polyline.pointAtArcLength(0.0, point);
+      EuclidFrameTestTools.assertFrameTuple3DEquals(vertices[0], point, EPSILON);
+      FrameVector3D direction = new FrameVector3D(frameA);
+      polyline.directionAtArcLength(0.0, direction);
+      assertEquals(1.0, direction.length(), EPSILON);
+      assertEquals(0.0, polyline.orthogonalProjection(vertices[0], point), EPSILON);
+
+      try
+      {
+         polyline.pointAtArcLength(0.0, new FramePoint3D(frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         polyline.orthogonalProjection(EuclidFrameRandomTools.nextFramePoint3D(random, frameB), point);
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         polyline.addVertex(EuclidFrameRandomTools.nextFramePoint3D(random, frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         new FramePolyline3D(frameB).set(FrameVertex3DSupplier.asFrameVertex3DSupplier(vertices));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      polyline.setToZero(frameB);
+      assertEquals(0, polyline.getNumberOfVertices());
+      assertTrue(polyline.getReferenceFrame() == frameB);
+   }
+
+   @Test
+   public void testChangeFrame()
+   {
+      Random random = new Random(9046L);
+
+      for (int i = 0; i < 100; i++)
+      {
+         ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+         ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+
+         FramePolyline3D polyline = new FramePolyline3D(frameA);
+         FramePoint3D[] vertices = new FramePoint3D[1 + random.nextInt(10)];
+         for (int j = 0; j < vertices.length; j++)
+         {
+            vertices[j] = EuclidFrameRandomTools.nextFramePoint3D(random, frameA);
+            polyline.addVertex(vertices[j]);
+         }
+
+         double length = polyline.getLength();
+         polyline.changeFrame(frameB);
+         assertTrue(polyline.getReferenceFrame() == frameB);
+         assertEquals(length, polyline.getLength(), 1.0e-10);
+
+         FramePoint3D vertex = new FramePoint3D(frameB);
+         for (int j = 0; j < vertices.length; j++)
+         {
+            vertices[j].changeFrame(frameB);
+            polyline.getVertex(j, vertex);
+            EuclidFrameTestTools.assertFrameTuple3DEquals(vertices[j], vertex, 1.0e-10);
+         }
+      }
+   }
+}
@@ -0,0 +1,102 @@
+package us.ihmc.euclid.referenceFrame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.tools.EuclidGeometryTestTools;
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameRandomTools;
+
+public class FramePose3DTrajectoryTest
+{
+   private static final double EPSILON = 1.0e-10;
+
+   @Test
+   public void testFrameChecks()
+   {
+      Random random = new Random(6621L);
+      ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+      ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+
+      FramePose3D start = EuclidFrameRandomTools.nextFramePose3D(random, frameA);
+      FramePose3D end = EuclidFrameRandomTools.nextFramePose3D(random, frameA);
+
+      FramePose3DTrajectory trajectory = new FramePose3DTrajectory(frameA);
+      trajectory.set(start, end);
+      assertEquals(2, trajectory.getNumberOfWaypoints());
+      assertTrue(trajectory.getReferenceFrame() == frameA);
+
+      FramePose3D pose = new FramePose3D(frameA);
+      trajectory.sample(0.0, pose);
+      EuclidGeometryTestTools.assertPose3DGeometricallyEquals(start, pose, EPSILON);
+      trajectory.getWaypoint(1, pose);
+      EuclidGeometryTestTools.assertPose3DGeometricallyEquals(end, pose, EPSILON);
+
+      try
+      {
+         trajectory.sample(0.5, new FramePose3D(frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         trajectory.addWaypoint(2.0, EuclidFrameRandomTools.nextFramePose3D(random, frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         new FramePose3DTrajectory(frameB).set(start, end);
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      trajectory.setToZero(frameB);
+      assertEquals(0, trajectory.getNumberOfWaypoints());
+      assertTrue(trajectory.getReferenceFrame() == frameB);
+   }
+
+   @Test
+   public void testChangeFrame()
+   {
+      Random random = new Random(1903L);
+
+      for (int i = 0; i < 100; i++)
+      {
+         ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+         ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+
+         FramePose3DTrajectory trajectory = new FramePose3DTrajectory(frameA);
+         for (int j = 0; j < 1 + random.nextInt(10); j++)
+            trajectory.addWaypoint(j, EuclidFrameRandomTools.nextFramePose3D(random, frameA));
+
+         double time = random.nextDouble() * trajectory.getTime(trajectory.getNumberOfWaypoints() - 1);
+         FramePose3D expected = new FramePose3D(frameA);
+         trajectory.sample(time, expected);
+         expected.changeFrame(frameB);
+
+         trajectory.changeFrame(frameB);
+         assertTrue(trajectory.getReferenceFrame() == frameB);
+
+         FramePose3D actual = new FramePose3D(frameB);
+         trajectory.sample(time, actual);
+         EuclidGeometryTestTools.assertPose3DGeometricallyEquals(expected, actual, EPSILON);
+      }
+   }
+}
@@ -0,0 +1,241 @@
+package us.ihmc.euclid.referenceFrame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.geometry.QuaternionAverageCalculator;
+import us.ihmc.euclid.referenceFrame.exceptions.ReferenceFrameMismatchException;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreTestTools;
+import us.ihmc.euclid.tuple3D.Vector3D;
+import us.ihmc.euclid.tuple4D.Quaternion;
+
+public class FrameQuaternionBufferTest
+{
+   private static final int ITERATIONS = 100;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testFrameChecks()
+   {
+      Random random = new Random(4471L);
+      ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+      ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+
+      FrameQuaternionBuffer buffer = new FrameQuaternionBuffer(frameA, 0);
+      List<FrameQuaternion> quaternions = nextFrameQuaternions(random, frameA, 10);
+      buffer.addAll(quaternions);
+      assertEquals(quaternions.size(), buffer.size());
+
+      FrameQuaternion quaternion = new FrameQuaternion(frameA);
+      for (int i = 0; i < quaternions.size(); i++)
+      {
+         buffer.get(i, quaternion);
+         EuclidCoreTestTools.assertQuaternionEquals(quaternions.get(i), quaternion, EPSILON);
+      }
+
+      try
+      {
+         buffer.add(EuclidFrameRandomTools.nextFrameQuaternion(random, frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         List<FrameQuaternion> mixed = nextFrameQuaternions(random, frameA, 3);
+         mixed.add(EuclidFrameRandomTools.nextFrameQuaternion(random, frameB));
+         buffer.addAll(mixed);
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+      assertEquals(quaternions.size(), buffer.size());
+
+      try
+      {
+         buffer.multiply(EuclidFrameRandomTools.nextFrameQuaternion(random, frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         buffer.getAverage(new FrameQuaternion(frameB));
+         fail("Should have thrown a ReferenceFrameMismatchException");
+      }
+      catch (ReferenceFrameMismatchException e)
+      {
+         // good
+      }
+
+      try
+      {
+         buffer.multiply(new FrameQuaternionBuffer(frameA));
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      try
+      {
+         buffer.get(quaternions.size(), quaternion);
+         fail("Should have thrown an IndexOutOfBoundsException");
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         // good
+      }
+
+      buffer.setToZero(frameB);
+      assertTrue(buffer.isEmpty());
+      assertTrue(buffer.getReferenceFrame() == frameB);
+   }
+
+   @Test
+   public void testMultiply()
+   {
+      Random random = new Random(67231L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         ReferenceFrame frame = EuclidFrameRandomTools.nextReferenceFrame(random);
+         List<FrameQuaternion> quaternions = nextFrameQuaternions(random, frame, random.nextInt(20));
+         List<FrameQuaternion> others = nextFrameQuaternions(random, frame, quaternions.size());
+         FrameQuaternion other = EuclidFrameRandomTools.nextFrameQuaternion(random, frame);
+
+         FrameQuaternionBuffer buffer = new FrameQuaternionBuffer(frame);
+         FrameQuaternionBuffer otherBuffer = new FrameQuaternionBuffer(frame);
+         buffer.addAll(quaternions);
+         otherBuffer.addAll(others);
+
+         buffer.multiply(other);
+         buffer.preMultiply(other);
+         buffer.multiply(otherBuffer);
+
+         FrameQuaternion actual = new FrameQuaternion(frame);
+
+         for (int j = 0; j < quaternions.size(); j++)
+         {
+            FrameQuaternion expected = new FrameQuaternion(quaternions.get(j));
+            expected.multiply(other);
+            expected.preMultiply(other);
+            expected.multiply(others.get(j));
+
+            buffer.get(j, actual);
+            EuclidCoreTestTools.assertQuaternionEquals(expected, actual, EPSILON);
+         }
+      }
+   }
+
+   @Test
+   public void testNormalizeAndTransform()
+   {
+      Random random = new Random(2290L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         ReferenceFrame frame = EuclidFrameRandomTools.nextReferenceFrame(random);
+         List<FrameQuaternion> quaternions = nextFrameQuaternions(random, frame, random.nextInt(20));
+         FrameQuaternionBuffer buffer = new FrameQuaternionBuffer(frame);
+
+         for (FrameQuaternion quaternion : quaternions)
+         {
+            double scale = 0.1 + random.nextDouble();
+            buffer.add(scale * quaternion.getX(), scale * quaternion.getY(), scale * quaternion.getZ(), scale * quaternion.getS());
+         }
+
+         buffer.normalize();
+
+         FrameQuaternion actual = new FrameQuaternion(frame);
+         for (int j = 0; j < quaternions.size(); j++)
+         {
+            buffer.get(j, actual);
+            EuclidCoreTestTools.assertQuaternionEquals(quaternions.get(j), actual, EPSILON);
+         }
+
+         int n = quaternions.size();
+         double[] xs = new double[n], ys = new double[n], zs = new double[n];
+         FrameVector3D vector = EuclidFrameRandomTools.nextFrameVector3D(random, frame);
+         buffer.transform(vector, xs, ys, zs, 0, n);
+
+         for (int j = 0; j < n; j++)
+         {
+            FrameVector3D expected = new FrameVector3D(vector);
+            quaternions.get(j).transform(expected);
+            EuclidCoreTestTools.assertTuple3DEquals(expected, new Vector3D(xs[j], ys[j], zs[j]), 1.0e-10);
+         }
+
+         buffer.transform(xs, ys, zs, 0, n);
+
+         for (int j = 0; j < n; j++)
+         {
+            FrameVector3D expected = new FrameVector3D(vector);
+            quaternions.get(j).transform(expected);
+            quaternions.get(j).transform(expected);
+            EuclidCoreTestTools.assertTuple3DEquals(expected, new Vector3D(xs[j], ys[j], zs[j]), 1.0e-10);
+         }
+      }
+   }
+
+   @Test
+   public void testAverageAndChangeFrame()
+   {
+      Random random = new Random(77120L);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         ReferenceFrame frameA = EuclidFrameRandomTools.nextReferenceFrame(random);
+         ReferenceFrame frameB = EuclidFrameRandomTools.nextReferenceFrame(random);
+         List<FrameQuaternion> quaternions = nextFrameQuaternions(random, frameA, 1 + random.nextInt(20));
+         FrameQuaternionBuffer buffer = new FrameQuaternionBuffer(frameA);
+         buffer.addAll(quaternions);
+
+         QuaternionAverageCalculator calculator = new QuaternionAverageCalculator();
+         for (FrameQuaternion quaternion : quaternions)
+            calculator.add(quaternion);
+         Quaternion expected = new Quaternion();
+         calculator.getAverage(expected);
+
+         FrameQuaternion actual = new FrameQuaternion(frameA);
+         buffer.getAverage(actual);
+         EuclidCoreTestTools.assertQuaternionEquals(expected, actual, EPSILON);
+
+         buffer.changeFrame(frameB);
+         assertTrue(buffer.getReferenceFrame() == frameB);
+
+         FrameQuaternion quaternion = new FrameQuaternion(frameB);
+         for (int j = 0; j < quaternions.size(); j++)
+         {
+            quaternions.get(j).changeFrame(frameB);
+            buffer.get(j, quaternion);
+            EuclidCoreTestTools.assertQuaternionGeometricallyEquals(quaternions.get(j), quaternion, 1.0e-10);
+         }
+      }
+   }
+
+   private static List<FrameQuaternion> nextFrameQuaternions(Random random, ReferenceFrame frame, int numberOfQuaternions)
+   {
+      List<FrameQuaternion> quaternions = new ArrayList<>();
+      for (int i = 0; i < numberOfQuaternions; i++)
+         quaternions.add(EuclidFrameRandomTools.nextFrameQuaternion(random, frame));
+      return quaternions;
+   }
+}
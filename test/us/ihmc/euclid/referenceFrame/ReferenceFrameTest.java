@@ -1,6 +1,7 @@
 package us.ihmc.euclid.referenceFrame;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
@@ -494,4 +495,113 @@ public class ReferenceFrameTest
          }
       }
    }
+
+   @Test
+   public void testPartialUpdates() throws Exception
+   {
+      Random random = new Random(34987);
+      ReferenceFrame rootFrame = ReferenceFrame.constructARootFrame("root");
+      ReferenceFrame[] referenceFrames = nextDeepFrameTree(random, rootFrame, null);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         // Updating a random subset of the frames, possibly interleaved with queries.
+         int numberOfUpdates = random.nextInt(5);
+         for (int j = 0; j < numberOfUpdates; j++)
+         {
+            referenceFrames[random.nextInt(referenceFrames.length)].update();
+            referenceFrames[random.nextInt(referenceFrames.length)].getTransformToRoot();
+         }
+
+         assertTransformToRootEqualsProductOfTransformsToParent(referenceFrames[random.nextInt(referenceFrames.length)]);
+
+         for (ReferenceFrame referenceFrame : referenceFrames)
+            referenceFrame.checkRepInvariants();
+      }
+   }
+
+   @Test
+   public void testTransformKindFastPaths() throws Exception
+   {
+      Random random = new Random(65110L);
+      ReferenceFrame rootFrame = ReferenceFrame.constructARootFrame("root");
+      int[] kinds = new int[100];
+      ReferenceFrame[] referenceFrames = nextDeepFrameTree(random, rootFrame, kinds);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         int numberOfUpdates = random.nextInt(5);
+         for (int j = 0; j < numberOfUpdates; j++)
+         {
+            int index = random.nextInt(referenceFrames.length);
+            referenceFrames[index].update();
+            assertEquals(kinds[index] >= 2, referenceFrames[index].hasRotationToParent());
+            assertEquals(kinds[index] == 1 || kinds[index] == 3, referenceFrames[index].hasTranslationToParent());
+            referenceFrames[random.nextInt(referenceFrames.length)].getTransformToRoot();
+         }
+
+         ReferenceFrame frame = referenceFrames[random.nextInt(referenceFrames.length)];
+         assertTransformToRootEqualsProductOfTransformsToParent(frame);
+
+         ReferenceFrame desiredFrame = referenceFrames[random.nextInt(referenceFrames.length)];
+         Point3D expectedPoint = EuclidCoreRandomTools.nextPoint3D(random);
+         Point3D actualPoint = new Point3D(expectedPoint);
+         frame.getTransformToDesiredFrame(desiredFrame).transform(expectedPoint);
+         frame.transformFromThisToDesiredFrame(desiredFrame, actualPoint);
+         assertTrue(expectedPoint.epsilonEquals(actualPoint, 1.0e-10));
+      }
+
+      for (ReferenceFrame referenceFrame : referenceFrames)
+         referenceFrame.checkRepInvariants();
+   }
+
+   /**
+    * Creates a tree of randomly changing frames biased towards deep chains, each frame being
+    * attached to one of the three frames created before it.
+    *
+    * @param random the random generator used to build the tree and to update the frames.
+    * @param rootFrame the root of the tree.
+    * @param kindsToPack when not {@code null}, the transform to parent of each frame is randomly
+    *           restricted and its kind is stored in this array: 0 for identity, 1 for pure
+    *           translation, 2 for pure rotation, 3 for general transform. The length of the array is
+    *           the number of frames. Modified.
+    * @return the frames of the tree, 100 when {@code kindsToPack} is {@code null}.
+    */
+   private static ReferenceFrame[] nextDeepFrameTree(Random random, ReferenceFrame rootFrame, int[] kindsToPack)
+   {
+      ReferenceFrame[] referenceFrames = new ReferenceFrame[kindsToPack == null ? 100 : kindsToPack.length];
+
+      for (int i = 0; i < referenceFrames.length; i++)
+      {
+         ReferenceFrame parentFrame = i == 0 ? rootFrame : referenceFrames[Math.max(0, i - 1 - random.nextInt(3))];
+         int kind = kindsToPack == null ? 3 : random.nextInt(4);
+         if (kindsToPack != null)
+            kindsToPack[i] = kind;
+         referenceFrames[i] = new ReferenceFrame("frame" + i, parentFrame)
+         {
+            @Override
+            protected void updateTransformToParent(RigidBodyTransform transformToParent)
+            {
+               transformToParent.set(EuclidCoreRandomTools.nextRigidBodyTransform(random));
+
+               if (kind == 0 || kind == 1)
+                  transformToParent.setRotationToZero();
+               if (kind == 0 || kind == 2)
+                  transformToParent.setTranslationToZero();
+            }
+         };
+      }
+
+      return referenceFrames;
+   }
+
+   private static void assertTransformToRootEqualsProductOfTransformsToParent(ReferenceFrame frame)
+   {
+      RigidBodyTransform expected = new RigidBodyTransform();
+
+      for (ReferenceFrame current = frame; current.getParent() != null; current = current.getParent())
+         expected.preMultiply(current.getTransformToParent());
+
+      EuclidCoreTestTools.assertRigidBodyTransformEquals(expected, frame.getTransformToRoot(), 1.0e-10);
+   }
 }
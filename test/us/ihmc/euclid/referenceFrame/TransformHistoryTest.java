@@ -0,0 +1,354 @@
+package us.ihmc.euclid.referenceFrame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreTestTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+import us.ihmc.euclid.tuple3D.Vector3D;
+import us.ihmc.euclid.tuple4D.Quaternion;
+
+public class TransformHistoryTest
+{
+   private static final int ITERATIONS = 1000;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testGetTransform() throws Exception
+   {
+      Random random = new Random(3463);
+      int capacity = 50;
+      TransformHistory history = new TransformHistory(capacity);
+      RigidBodyTransform actual = new RigidBodyTransform();
+
+      assertFalse(history.getTransform(0L, actual));
+      assertEquals(Long.MIN_VALUE, history.getNewestTimestamp());
+
+      RigidBodyTransform[] transforms = new RigidBodyTransform[3 * capacity];
+      long[] timestamps = new long[transforms.length];
+
+      for (int i = 0; i < transforms.length; i++)
+      {
+         transforms[i] = EuclidCoreRandomTools.nextRigidBodyTransform(random);
+         timestamps[i] = 10L * i;
+         history.record(timestamps[i], transforms[i]);
+         assertEquals(Math.min(i + 1, capacity), history.getNumberOfSamples());
+      }
+
+      int oldest = transforms.length - capacity;
+      assertEquals(timestamps[oldest], history.getOldestTimestamp());
+      assertEquals(timestamps[transforms.length - 1], history.getNewestTimestamp());
+
+      // Samples that were overwritten are not available anymore.
+      assertFalse(history.getTransform(timestamps[oldest] - 1L, actual));
+
+      // Exact timestamps give back the recorded transforms.
+      for (int i = oldest; i < transforms.length; i++)
+      {
+         assertTrue(history.getTransform(timestamps[i], actual));
+         EuclidCoreTestTools.assertRigidBodyTransformEquals(transforms[i], actual, EPSILON);
+      }
+
+      // Newer timestamps give back the newest transform.
+      assertTrue(history.getTransform(timestamps[transforms.length - 1] + 100L, actual));
+      EuclidCoreTestTools.assertRigidBodyTransformEquals(transforms[transforms.length - 1], actual, EPSILON);
+
+      // Timestamps in between two samples are interpolated.
+      Quaternion q0 = new Quaternion();
+      Quaternion q1 = new Quaternion();
+      Quaternion expectedOrientation = new Quaternion();
+      Vector3D expectedTranslation = new Vector3D();
+      RigidBodyTransform expected = new RigidBodyTransform();
+
+      for (int iteration = 0; iteration < ITERATIONS; iteration++)
+      {
+         int index = oldest + random.nextInt(capacity - 1);
+         long timestamp = timestamps[index] + 1L + random.nextInt(9);
+         double alpha = (timestamp - timestamps[index]) / 10.0;
+
+         transforms[index].getRotation(q0);
+         transforms[index + 1].getRotation(q1);
+         expectedOrientation.interpolate(q0, q1, alpha);
+         expectedTranslation.interpolate(transforms[index].getTranslationVector(), transforms[index + 1].getTranslationVector(), alpha);
+         expected.set(expectedOrientation, expectedTranslation);
+
+         assertTrue(history.getTransform(timestamp, actual));
+         EuclidCoreTestTools.assertRigidBodyTransformEquals(expected, actual, 1.0e-10);
+      }
+
+      try
+      {
+         history.record(timestamps[transforms.length - 1] - 1L, transforms[0]);
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+
+      // Recording at the same timestamp replaces the newest sample.
+      history.record(timestamps[transforms.length - 1], transforms[0]);
+      assertEquals(capacity, history.getNumberOfSamples());
+      assertTrue(history.getTransform(timestamps[transforms.length - 1], actual));
+      EuclidCoreTestTools.assertRigidBodyTransformEquals(transforms[0], actual, EPSILON);
+
+      history.clear();
+      assertEquals(0, history.getNumberOfSamples());
+      assertFalse(history.getTransform(timestamps[transforms.length - 1], actual));
+   }
+
+   @Test
+   public void testGetTransformToDesiredFrameAtTimestamp() throws Exception
+   {
+      Random random = new Random(8967);
+      ReferenceFrame[] referenceFrames = new ReferenceFrame[21];
+      referenceFrames[0] = ReferenceFrame.constructARootFrame("historyRoot");
+
+      for (int i = 1; i < referenceFrames.length; i++)
+      {
+         referenceFrames[i] = new ReferenceFrame("movingFrame" + i, referenceFrames[random.nextInt(i)])
+         {
+            @Override
+            protected void updateTransformToParent(RigidBodyTransform transformToParent)
+            {
+               transformToParent.set(EuclidCoreRandomTools.nextRigidBodyTransform(random));
+            }
+         };
+      }
+
+      int numberOfTicks = 20;
+      RigidBodyTransform[][] transformsToParent = new RigidBodyTransform[numberOfTicks][referenceFrames.length];
+      RigidBodyTransform expected = new RigidBodyTransform();
+      RigidBodyTransform actual = new RigidBodyTransform();
+
+      for (ReferenceFrame referenceFrame : referenceFrames)
+         referenceFrame.enableTransformHistory(numberOfTicks);
+
+      for (int tick = 0; tick < numberOfTicks; tick++)
+      {
+         for (int i = 0; i < referenceFrames.length; i++)
+         {
+            referenceFrames[i].update(100L * tick);
+            transformsToParent[tick][i] = new RigidBodyTransform();
+            if (i > 0) // The root frame has no transform to parent.
+               referenceFrames[i].getTransformToParent(transformsToParent[tick][i]);
+         }
+      }
+
+      for (int iteration = 0; iteration < ITERATIONS; iteration++)
+      {
+         int tick = random.nextInt(numberOfTicks);
+         ReferenceFrame frameA = referenceFrames[random.nextInt(referenceFrames.length)];
+         ReferenceFrame frameB = referenceFrames[random.nextInt(referenceFrames.length)];
+
+         // Computing the expected transform through the root frame using the recorded transforms.
+         RigidBodyTransform transformAToRoot = computeTransformToRoot(frameA, referenceFrames, transformsToParent[tick]);
+         RigidBodyTransform transformBToRoot = computeTransformToRoot(frameB, referenceFrames, transformsToParent[tick]);
+         expected.setAndInvert(transformBToRoot);
+         expected.multiply(transformAToRoot);
+
+         frameA.getTransformToDesiredFrame(actual, frameB, 100L * tick);
+         EuclidCoreTestTools.assertRigidBodyTransformEquals(expected, actual, 1.0e-10);
+      }
+
+      // The present is not affected by the queries.
+      for (int i = 1; i < referenceFrames.length; i++)
+      {
+         referenceFrames[i].getTransformToParent(actual);
+         EuclidCoreTestTools.assertRigidBodyTransformEquals(transformsToParent[numberOfTicks - 1][i], actual, EPSILON);
+      }
+
+      try
+      {
+         referenceFrames[1].getTransformToParent(actual, -1L);
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+
+   @Test
+   public void testUnchangingTransformWithoutHistory() throws Exception
+   {
+      Random random = new Random(5713);
+      ReferenceFrame root = ReferenceFrame.constructARootFrame("mountRoot");
+      ReferenceFrame movingFrame = new ReferenceFrame("movingFrame", root)
+      {
+         @Override
+         protected void updateTransformToParent(RigidBodyTransform transformToParent)
+         {
+            transformToParent.set(EuclidCoreRandomTools.nextRigidBodyTransform(random));
+         }
+      };
+      RigidBodyTransform mountTransform = EuclidCoreRandomTools.nextRigidBodyTransform(random);
+      ReferenceFrame mountFrame = ReferenceFrame.constructFrameWithUnchangingTransformToParent("mountFrame", movingFrame, mountTransform);
+      assertFalse(mountFrame.isAStationaryFrame());
+
+      movingFrame.enableTransformHistory(10);
+      RigidBodyTransform[] movingTransforms = new RigidBodyTransform[10];
+
+      for (int tick = 0; tick < movingTransforms.length; tick++)
+      {
+         movingFrame.update(100L * tick);
+         mountFrame.update(100L * tick);
+         movingTransforms[tick] = new RigidBodyTransform();
+         movingFrame.getTransformToParent(movingTransforms[tick]);
+      }
+
+      RigidBodyTransform expected = new RigidBodyTransform();
+      RigidBodyTransform actual = new RigidBodyTransform();
+
+      // The mount has no history but its transform to parent never changes.
+      mountFrame.getTransformToParent(actual, 0L);
+      EuclidCoreTestTools.assertRigidBodyTransformEquals(mountTransform, actual, EPSILON);
+
+      for (int tick = 0; tick < movingTransforms.length; tick++)
+      {
+         expected.set(movingTransforms[tick]);
+         expected.multiply(mountTransform);
+         mountFrame.getTransformToDesiredFrame(actual, root, 100L * tick);
+         EuclidCoreTestTools.assertRigidBodyTransformEquals(expected, actual, 1.0e-10);
+      }
+   }
+
+   @Test
+   public void testConcurrentQueriesAndUpdates() throws Exception
+   {
+      Random random = new Random(2341);
+      int numberOfTicks = 2000;
+      int capacity = 100;
+      ReferenceFrame[] referenceFrames = new ReferenceFrame[16];
+      RigidBodyTransform[][] transformsToParent = new RigidBodyTransform[numberOfTicks][referenceFrames.length];
+      int[] currentTick = {0};
+      referenceFrames[0] = ReferenceFrame.constructARootFrame("concurrentRoot");
+
+      for (int tick = 0; tick < numberOfTicks; tick++)
+      {
+         transformsToParent[tick][0] = new RigidBodyTransform();
+         for (int i = 1; i < referenceFrames.length; i++)
+            transformsToParent[tick][i] = EuclidCoreRandomTools.nextRigidBodyTransform(random);
+      }
+
+      for (int i = 1; i < referenceFrames.length; i++)
+      {
+         int index = i;
+         referenceFrames[i] = new ReferenceFrame("movingFrame" + i, referenceFrames[random.nextInt(i)])
+         {
+            @Override
+            protected void updateTransformToParent(RigidBodyTransform transformToParent)
+            {
+               transformToParent.set(transformsToParent[currentTick[0]][index]);
+            }
+         };
+      }
+
+      try
+      {
+         referenceFrames[1].getTransformToDesiredFrame(new RigidBodyTransform(), referenceFrames[0], 0L);
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good, the history of a moving frame has to be enabled.
+      }
+
+      for (ReferenceFrame referenceFrame : referenceFrames)
+      {
+         referenceFrame.enableTransformHistory(capacity);
+         referenceFrame.update(0L);
+      }
+
+      AtomicInteger publishedTick = new AtomicInteger(0);
+      AtomicReference<Throwable> failure = new AtomicReference<>();
+      Thread[] readers = new Thread[4];
+
+      for (int readerIndex = 0; readerIndex < readers.length; readerIndex++)
+      {
+         Random readerRandom = new Random(random.nextLong());
+         readers[readerIndex] = new Thread(() ->
+         {
+            RigidBodyTransform expected = new RigidBodyTransform();
+            RigidBodyTransform actual = new RigidBodyTransform();
+
+            try
+            {
+               while (publishedTick.get() < numberOfTicks - 1 && failure.get() == null)
+               {
+                  int tick = Math.max(0, publishedTick.get() - readerRandom.nextInt(10));
+                  ReferenceFrame frameA = referenceFrames[readerRandom.nextInt(referenceFrames.length)];
+                  ReferenceFrame frameB = referenceFrames[readerRandom.nextInt(referenceFrames.length)];
+
+                  try
+                  {
+                     frameA.getTransformToDesiredFrame(actual, frameB, 10L * tick);
+                  }
+                  catch (IllegalArgumentException e)
+                  {
+                     // The samples can only be missing if they were overwritten by the writer.
+                     if (publishedTick.get() - tick < capacity - 1)
+                        throw e;
+                     continue;
+                  }
+
+                  expected.setAndInvert(computeTransformToRoot(frameB, referenceFrames, transformsToParent[tick]));
+                  expected.multiply(computeTransformToRoot(frameA, referenceFrames, transformsToParent[tick]));
+                  EuclidCoreTestTools.assertRigidBodyTransformEquals(expected, actual, 1.0e-10);
+               }
+            }
+            catch (Throwable e)
+            {
+               failure.compareAndSet(null, e);
+            }
+         });
+         readers[readerIndex].start();
+      }
+
+      for (int tick = 1; tick < numberOfTicks; tick++)
+      {
+         currentTick[0] = tick;
+         for (ReferenceFrame referenceFrame : referenceFrames)
+            referenceFrame.update(10L * tick);
+         publishedTick.set(tick);
+      }
+
+      for (Thread reader : readers)
+         reader.join();
+
+      if (failure.get() != null)
+         throw new AssertionError(failure.get());
+   }
+
+   private static RigidBodyTransform computeTransformToRoot(ReferenceFrame frame, ReferenceFrame[] referenceFrames, RigidBodyTransform[] transformsToParent)
+   {
+      RigidBodyTransform transformToRoot = new RigidBodyTransform();
+
+      for (ReferenceFrame current = frame; current.getParent() != null; current = current.getParent())
+      {
+         int index = indexOf(current, referenceFrames);
+         transformToRoot.preMultiply(transformsToParent[index]);
+      }
+
+      return transformToRoot;
+   }
+
+   private static int indexOf(ReferenceFrame frame, ReferenceFrame[] referenceFrames)
+   {
+      for (int i = 0; i < referenceFrames.length; i++)
+      {
+         if (referenceFrames[i] == frame)
+            return i;
+      }
+      throw new IllegalStateException("Unknown frame: " + frame);
+   }
+}
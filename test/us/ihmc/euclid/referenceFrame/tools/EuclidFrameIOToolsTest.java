@@ -0,0 +1,99 @@
+package us.ihmc.euclid.referenceFrame.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.referenceFrame.FrameConvexPolygon2D;
+import us.ihmc.euclid.referenceFrame.FramePoint3D;
+import us.ihmc.euclid.referenceFrame.FramePose3D;
+import us.ihmc.euclid.referenceFrame.FrameQuaternion;
+import us.ihmc.euclid.referenceFrame.FrameVector3D;
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+
+public class EuclidFrameIOToolsTest
+{
+   private static final int ITERATIONS = 1000;
+
+   @Test
+   public void testBinaryRoundTrip() throws Exception
+   {
+      Random random = new Random(34534);
+      ReferenceFrame[] referenceFrames = EuclidFrameRandomTools.nextReferenceFrameTree(random);
+      Map<Long, ReferenceFrame> frameMap = new HashMap<>();
+
+      for (ReferenceFrame referenceFrame : referenceFrames)
+         frameMap.put(referenceFrame.getNameBasedHashCode(), referenceFrame);
+
+      for (int i = 0; i < ITERATIONS; i++)
+      {
+         ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+
+         FramePoint3D framePoint3D = EuclidFrameRandomTools.nextFramePoint3D(random, referenceFrames[random.nextInt(referenceFrames.length)]);
+         FrameVector3D frameVector3D = EuclidFrameRandomTools.nextFrameVector3D(random, referenceFrames[random.nextInt(referenceFrames.length)]);
+         FrameQuaternion frameQuaternion = EuclidFrameRandomTools.nextFrameQuaternion(random, referenceFrames[random.nextInt(referenceFrames.length)]);
+         FramePose3D framePose3D = EuclidFrameRandomTools.nextFramePose3D(random, referenceFrames[random.nextInt(referenceFrames.length)]);
+         FrameConvexPolygon2D frameConvexPolygon2D = EuclidFrameRandomTools.nextFrameConvexPolygon2D(random,
+                                                                                                      referenceFrames[random.nextInt(referenceFrames.length)],
+                                                                                                      10.0, 20);
+
+         EuclidFrameIOTools.writeFramePoint3D(framePoint3D, buffer);
+         EuclidFrameIOTools.writeFrameVector3D(frameVector3D, buffer);
+         EuclidFrameIOTools.writeFrameQuaternion(frameQuaternion, buffer);
+         EuclidFrameIOTools.writeFramePose3D(framePose3D, buffer);
+         EuclidFrameIOTools.writeFrameConvexPolygon2D(frameConvexPolygon2D, buffer);
+
+         int expectedSize = EuclidFrameIOTools.FRAMEPOINT3D_BINARY_SIZE + EuclidFrameIOTools.FRAMEVECTOR3D_BINARY_SIZE
+               + EuclidFrameIOTools.FRAMEQUATERNION_BINARY_SIZE + EuclidFrameIOTools.FRAMEPOSE3D_BINARY_SIZE
+               + EuclidFrameIOTools.getFrameConvexPolygon2DBinarySize(frameConvexPolygon2D.getNumberOfVertices());
+         assertEquals(expectedSize, buffer.position());
+
+         buffer.flip();
+
+         FramePoint3D actualFramePoint3D = new FramePoint3D();
+         FrameVector3D actualFrameVector3D = new FrameVector3D();
+         FrameQuaternion actualFrameQuaternion = new FrameQuaternion();
+         FramePose3D actualFramePose3D = new FramePose3D();
+         FrameConvexPolygon2D actualFrameConvexPolygon2D = new FrameConvexPolygon2D();
+
+         EuclidFrameIOTools.readFramePoint3D(buffer, frameMap::get, actualFramePoint3D);
+         EuclidFrameIOTools.readFrameVector3D(buffer, frameMap::get, actualFrameVector3D);
+         EuclidFrameIOTools.readFrameQuaternion(buffer, frameMap::get, actualFrameQuaternion);
+         EuclidFrameIOTools.readFramePose3D(buffer, frameMap::get, actualFramePose3D);
+         EuclidFrameIOTools.readFrameConvexPolygon2D(buffer, frameMap::get, actualFrameConvexPolygon2D);
+         assertEquals(expectedSize, buffer.position());
+
+         assertTrue(framePoint3D.equals(actualFramePoint3D));
+         assertTrue(frameVector3D.equals(actualFrameVector3D));
+         assertTrue(frameQuaternion.equals(actualFrameQuaternion));
+         assertTrue(framePose3D.equals(actualFramePose3D));
+         assertTrue(frameConvexPolygon2D.equals(actualFrameConvexPolygon2D));
+      }
+   }
+
+   @Test
+   public void testUnresolvedFrame() throws Exception
+   {
+      Random random = new Random(6457);
+      ByteBuffer buffer = ByteBuffer.allocate(1024);
+      EuclidFrameIOTools.writeFramePoint3D(EuclidFrameRandomTools.nextFramePoint3D(random, EuclidFrameRandomTools.nextReferenceFrame(random)), buffer);
+      buffer.flip();
+
+      try
+      {
+         EuclidFrameIOTools.readFramePoint3D(buffer, hashCode -> null, new FramePoint3D());
+         fail("Should have thrown an exception");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // Good
+      }
+   }
+}
@@ -0,0 +1,157 @@
+package us.ihmc.euclid.referenceFrame.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Test;
+
+import us.ihmc.euclid.referenceFrame.ReferenceFrame;
+import us.ihmc.euclid.tools.EuclidCoreRandomTools;
+import us.ihmc.euclid.tools.EuclidCoreTestTools;
+import us.ihmc.euclid.transform.RigidBodyTransform;
+
+public class ReferenceFrameTreeRecorderTest
+{
+   private static final int NUMBER_OF_FRAMES = 30;
+   private static final int NUMBER_OF_TICKS = 200;
+   private static final double EPSILON = 1.0e-12;
+
+   @Test
+   public void testRecordAndReplay() throws Exception
+   {
+      recordAndReplay(new Random(23423), ReferenceFrameTreeRecorder.SEGMENT_SIZE, false);
+   }
+
+   @Test
+   public void testRecordAndReplayInSegments() throws Exception
+   {
+      // Small segments such that the records are split over many mapped buffers.
+      recordAndReplay(new Random(9810), 3 * (Long.BYTES + NUMBER_OF_FRAMES * ReferenceFrameTreeRecorder.FRAME_RECORD_SIZE) + 5, false);
+      recordAndReplay(new Random(9811), 1, false);
+   }
+
+   @Test
+   public void testRecordAndReplayTree() throws Exception
+   {
+      recordAndReplay(new Random(62341), ReferenceFrameTreeRecorder.SEGMENT_SIZE, true);
+   }
+
+   private static void recordAndReplay(Random random, int segmentSize, boolean recordTree) throws Exception
+   {
+      ReferenceFrame rootFrame = ReferenceFrame.constructARootFrame("recorderRoot");
+      ReferenceFrame[] referenceFrames = nextFrameTree(random, rootFrame);
+
+      File file = File.createTempFile("frameTree", ".log");
+      file.deleteOnExit();
+      Path path = file.toPath();
+
+      RigidBodyTransform[][] expectedTransforms = new RigidBodyTransform[NUMBER_OF_TICKS][NUMBER_OF_FRAMES + 1];
+
+      try (ReferenceFrameTreeRecorder recorder = recordTree ? ReferenceFrameTreeRecorder.newTreeRecorder(path, NUMBER_OF_TICKS, rootFrame)
+            : new ReferenceFrameTreeRecorder(path, NUMBER_OF_TICKS, segmentSize, referenceFrames))
+      {
+         assertEquals(NUMBER_OF_FRAMES, recorder.getNumberOfRecordedFrames());
+
+         for (int tick = 0; tick < NUMBER_OF_TICKS; tick++)
+         {
+            for (int i = 1; i <= NUMBER_OF_FRAMES; i++)
+            {
+               referenceFrames[i].update();
+               expectedTransforms[tick][i] = referenceFrames[i].getTransformToParent();
+            }
+
+            assertTrue(recorder.record(1000L * tick));
+         }
+
+         assertFalse(recorder.record(0L));
+         assertEquals(NUMBER_OF_TICKS, recorder.getNumberOfTicks());
+      }
+
+      try (ReferenceFrameTreeReplayer replayer = new ReferenceFrameTreeReplayer(path, hashCode -> hashCode == rootFrame.getNameBasedHashCode() ? rootFrame : null,
+                                                                                 segmentSize))
+      {
+         assertEquals(NUMBER_OF_TICKS, replayer.getNumberOfTicks());
+         assertEquals(NUMBER_OF_FRAMES, replayer.getReferenceFrames().length);
+         ReferenceFrame[] replayedFrames = new ReferenceFrame[NUMBER_OF_FRAMES + 1];
+
+         for (int i = 1; i <= NUMBER_OF_FRAMES; i++)
+         {
+            replayedFrames[i] = replayer.getReferenceFrame(referenceFrames[i].getNameBasedHashCode());
+            assertEquals(referenceFrames[i].getName(), replayedFrames[i].getName());
+         }
+
+         for (int iteration = 0; iteration < NUMBER_OF_TICKS; iteration++)
+         {
+            int tick = random.nextInt(NUMBER_OF_TICKS);
+            replayer.setTick(tick);
+            assertEquals(1000L * tick, replayer.getTimestamp(tick));
+
+            for (int i = 1; i <= NUMBER_OF_FRAMES; i++)
+               EuclidCoreTestTools.assertRigidBodyTransformEquals(expectedTransforms[tick][i], replayedFrames[i].getTransformToParent(), EPSILON);
+         }
+      }
+   }
+
+   @Test
+   public void testUnresolvedParent() throws Exception
+   {
+      Random random = new Random(4521);
+      ReferenceFrame rootFrame = ReferenceFrame.constructARootFrame("recorderRoot");
+      ReferenceFrame[] referenceFrames = nextFrameTree(random, rootFrame);
+
+      File file = File.createTempFile("frameTree", ".log");
+      file.deleteOnExit();
+      new ReferenceFrameTreeRecorder(file.toPath(), 10, referenceFrames).close();
+
+      new ReferenceFrameTreeReplayer(file.toPath(), rootFrame).close();
+
+      try
+      {
+         new ReferenceFrameTreeReplayer(file.toPath(), ReferenceFrame.constructARootFrame("otherRoot")).close();
+         fail("Should have thrown an IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         // good
+      }
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testParentRegisteredAfterChild() throws Exception
+   {
+      Random random = new Random(3453);
+      ReferenceFrame parentFrame = EuclidFrameRandomTools.nextReferenceFrame(random);
+      ReferenceFrame childFrame = EuclidFrameRandomTools.nextReferenceFrame(random, parentFrame);
+
+      File file = File.createTempFile("frameTree", ".log");
+      file.deleteOnExit();
+      new ReferenceFrameTreeRecorder(file.toPath(), 10, childFrame, parentFrame).close();
+   }
+
+   private static ReferenceFrame[] nextFrameTree(Random random, ReferenceFrame rootFrame)
+   {
+      ReferenceFrame[] referenceFrames = new ReferenceFrame[NUMBER_OF_FRAMES + 1];
+      referenceFrames[0] = rootFrame;
+
+      for (int i = 0; i < NUMBER_OF_FRAMES; i++)
+      {
+         ReferenceFrame parentFrame = referenceFrames[random.nextInt(i + 1)];
+         referenceFrames[i + 1] = new ReferenceFrame("movingFrame" + i, parentFrame)
+         {
+            @Override
+            protected void updateTransformToParent(RigidBodyTransform transformToParent)
+            {
+               transformToParent.set(EuclidCoreRandomTools.nextRigidBodyTransform(random));
+            }
+         };
+      }
+
+      return referenceFrames;
+   }
+}
@@ -27,9 +27,32 @@ import us.ihmc.euclid.geometry.Plane3DTest;
 import us.ihmc.euclid.geometry.Pose2DTest;
 import us.ihmc.euclid.geometry.Pose3DTest;
 import us.ihmc.euclid.geometry.Ramp3DTest;
+import us.ihmc.euclid.geometry.SignedDistanceField3DTest;
+import us.ihmc.euclid.geometry.ContactManifoldCalculatorTest;
+import us.ihmc.euclid.geometry.TimeOfImpactCalculatorTest;
+import us.ihmc.euclid.geometry.OrientedBoundingBoxCalculatorTest;
+import us.ihmc.euclid.geometry.KDTree3DTest;
+import us.ihmc.euclid.geometry.LineSegment2DIntersectionCalculatorTest;
+import us.ihmc.euclid.geometry.LineSegment2DSpatialHashTest;
+import us.ihmc.euclid.geometry.LineSegment3DSpatialHashTest;
+import us.ihmc.euclid.geometry.Polyline2DTest;
+import us.ihmc.euclid.geometry.Polyline3DTest;
+import us.ihmc.euclid.geometry.LineSegment1DIntervalIndexTest;
+import us.ihmc.euclid.geometry.LineSegment1DIntervalTreeTest;
+import us.ihmc.euclid.geometry.RTree2DTest;
+import us.ihmc.euclid.geometry.ConvexPolygon2DRTreeTest;
+import us.ihmc.euclid.geometry.Pose3DTrajectoryTest;
+import us.ihmc.euclid.geometry.QuaternionAverageCalculatorTest;
+import us.ihmc.euclid.geometry.Point3DFloatBufferTest;
+import us.ihmc.euclid.geometry.Pose3DFloatBufferTest;
+import us.ihmc.euclid.geometry.Plane3DFitterTest;
+import us.ihmc.euclid.geometry.PointCloudAccumulator2DTest;
+import us.ihmc.euclid.geometry.PointCloudAccumulator3DTest;
+import us.ihmc.euclid.geometry.PointCloudCovariance3DTest;
 import us.ihmc.euclid.geometry.Sphere3DTest;
 import us.ihmc.euclid.geometry.Torus3DTest;
 import us.ihmc.euclid.geometry.exceptions.BoundingBoxExceptionTest;
+import us.ihmc.euclid.geometry.tools.EuclidGeometryIOToolsTest;
 import us.ihmc.euclid.geometry.tools.EuclidGeometryPolygonToolsTest;
 import us.ihmc.euclid.geometry.tools.EuclidGeometryTestToolsTest;
 import us.ihmc.euclid.geometry.tools.EuclidGeometryToolsTest;
@@ -47,8 +70,17 @@ import us.ihmc.euclid.referenceFrame.FrameVector2DTest;
 import us.ihmc.euclid.referenceFrame.FrameVector3DTest;
 import us.ihmc.euclid.referenceFrame.FrameVector4DTest;
 import us.ihmc.euclid.referenceFrame.ReferenceFrameTest;
+import us.ihmc.euclid.referenceFrame.FrameKDTree3DTest;
+import us.ihmc.euclid.referenceFrame.FramePolyline2DTest;
+import us.ihmc.euclid.referenceFrame.FramePolyline3DTest;
+import us.ihmc.euclid.referenceFrame.FramePose3DTrajectoryTest;
+import us.ihmc.euclid.referenceFrame.FrameQuaternionBufferTest;
+import us.ihmc.euclid.referenceFrame.FramePoint3DFloatBufferTest;
+import us.ihmc.euclid.referenceFrame.TransformHistoryTest;
 import us.ihmc.euclid.referenceFrame.tools.EuclidFrameTestToolsTest;
+import us.ihmc.euclid.referenceFrame.tools.EuclidFrameIOToolsTest;
 import us.ihmc.euclid.referenceFrame.tools.EuclidFrameToolsTest;
+import us.ihmc.euclid.referenceFrame.tools.ReferenceFrameTreeRecorderTest;
 import us.ihmc.euclid.utils.NameBasedHashCodeToolsTest;
 
 @RunWith(Suite.class)
@@ -60,11 +92,17 @@ import us.ihmc.euclid.utils.NameBasedHashCodeToolsTest;
       Line2DTest.class, LineSegment2DTest.class, ConvexPolygon2DTest.class, BoundingBox2DTest.class, Orientation2DTest.class, Pose2DTest.class,
       // 3D
       Line3DTest.class, LineSegment3DTest.class, BoundingBox3DTest.class, Box3DTest.class, Cylinder3DTest.class, Ellipsoid3DTest.class, Ramp3DTest.class,
-      Sphere3DTest.class, Torus3DTest.class, Pose3DTest.class, Plane3DTest.class,
+      Sphere3DTest.class, Torus3DTest.class, Pose3DTest.class, Plane3DTest.class, SignedDistanceField3DTest.class, ContactManifoldCalculatorTest.class, TimeOfImpactCalculatorTest.class, PointCloudCovariance3DTest.class, OrientedBoundingBoxCalculatorTest.class, PointCloudAccumulator2DTest.class, PointCloudAccumulator3DTest.class, Plane3DFitterTest.class, KDTree3DTest.class, LineSegment2DIntersectionCalculatorTest.class, LineSegment2DSpatialHashTest.class,
+      LineSegment3DSpatialHashTest.class, Polyline2DTest.class, Polyline3DTest.class,
+      LineSegment1DIntervalIndexTest.class, LineSegment1DIntervalTreeTest.class, RTree2DTest.class, ConvexPolygon2DRTreeTest.class,
+      Pose3DTrajectoryTest.class, QuaternionAverageCalculatorTest.class, Point3DFloatBufferTest.class, Pose3DFloatBufferTest.class,
       // Tools tests
-      EuclidGeometryToolsTest.class, EuclidGeometryPolygonToolsTest.class, EuclidGeometryTestToolsTest.class,
+      EuclidGeometryToolsTest.class, EuclidGeometryPolygonToolsTest.class, EuclidGeometryTestToolsTest.class, EuclidGeometryIOToolsTest.class,
       // Reference frame framework tests
       ReferenceFrameTest.class,
+      TransformHistoryTest.class,
+      FrameKDTree3DTest.class, FramePolyline2DTest.class, FramePolyline3DTest.class,
+      FramePose3DTrajectoryTest.class, FrameQuaternionBufferTest.class, FramePoint3DFloatBufferTest.class,
       // 1D
       // 2D
       FramePoint2DTest.class, FrameVector2DTest.class, FramePose2DTest.class, FrameOrientation2DTest.class, FrameLineSegment2DTest.class, FrameLine2DTest.class,
@@ -73,7 +111,8 @@ import us.ihmc.euclid.utils.NameBasedHashCodeToolsTest;
       // 4D
       FrameQuaternionTest.class, FrameVector4DTest.class,
       // Tools tests
-      EuclidFrameToolsTest.class, NameBasedHashCodeToolsTest.class, EuclidFrameTestToolsTest.class,
+      EuclidFrameToolsTest.class, NameBasedHashCodeToolsTest.class, EuclidFrameTestToolsTest.class, EuclidFrameIOToolsTest.class,
+      ReferenceFrameTreeRecorderTest.class,
       // Exceptions tests
       BoundingBoxExceptionTest.class,
       // Axis test